@@ -193,19 +193,33 @@ public class ChartDefinition extends AbstractIdentifiable implements ResultDataF
 		List<DataSetResult> dataSetResults = new ArrayList<DataSetResult>(this.chartDataSets.length);
 
 		for (int i = 0; i < this.chartDataSets.length; i++)
-		{
-			ChartDataSet chartDataSet = this.chartDataSets[i];
-			DataSetQuery dataSetQuery = getDataSetQuery(query, chartDataSet, i);
-			DataSetResult dataSetResult = chartDataSet.getResult(dataSetQuery);
-
-			dataSetResults.add(dataSetResult);
-		}
+			dataSetResults.add(getDataSetResult(query, i));
 
 		chartResult.setDataSetResults(dataSetResults);
 
 		return chartResult;
 	}
 
+	/**
+	 * 获取{@linkplain ChartResult#getDataSetResults()}中的单个{@linkplain DataSetResult}。
+	 * <p>
+	 * 逐个获取并处理数据集结果，可以避免同时持有图表所有数据集结果。
+	 * </p>
+	 * 
+	 * @param query
+	 * @param chartDataSetIdx
+	 *            {@linkplain #getChartDataSets()}的索引
+	 * @return
+	 * @throws DataSetException
+	 */
+	public DataSetResult getDataSetResult(ChartQuery query, int chartDataSetIdx) throws DataSetException
+	{
+		ChartDataSet chartDataSet = this.chartDataSets[chartDataSetIdx];
+		DataSetQuery dataSetQuery = getDataSetQuery(query, chartDataSet, chartDataSetIdx);
+
+		return chartDataSet.getResult(dataSetQuery);
+	}
+
 	/**
 	 * 获取指定{@linkplain DataSetQuery}。
 	 * 
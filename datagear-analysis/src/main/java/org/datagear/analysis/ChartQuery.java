@@ -26,6 +26,9 @@ public class ChartQuery implements ResultDataFormatAware, Serializable
 	/** 图表结果数格式 */
 	private ResultDataFormat resultDataFormat = null;
 
+	/** 客户端已有的图表结果摘要 */
+	private String resultHash = null;
+
 	public ChartQuery()
 	{
 		super();
@@ -42,6 +45,7 @@ public class ChartQuery implements ResultDataFormatAware, Serializable
 		super();
 		this.dataSetQueries = chartQuery.dataSetQueries;
 		this.resultDataFormat = chartQuery.resultDataFormat;
+		this.resultHash = chartQuery.resultHash;
 	}
 
 	public List<DataSetQuery> getDataSetQueries()
@@ -66,6 +70,24 @@ public class ChartQuery implements ResultDataFormatAware, Serializable
 		this.resultDataFormat = resultDataFormat;
 	}
 
+	/**
+	 * 获取客户端已有的图表结果摘要。
+	 * <p>
+	 * 如果此摘要与本次查询的图表结果摘要相同，则服务端可以不必再返回图表结果，而仅告知客户端其未改变。
+	 * </p>
+	 * 
+	 * @return 可能为{@code null}
+	 */
+	public String getResultHash()
+	{
+		return resultHash;
+	}
+
+	public void setResultHash(String resultHash)
+	{
+		this.resultHash = resultHash;
+	}
+
 	/**
 	 * 获取指定索引的{@linkplain DataSetQuery}。
 	 * <p>
@@ -129,19 +129,13 @@ public class Dashboard extends AbstractIdentifiable implements Serializable
 			if (chart == null)
 				throw new IllegalArgumentException("Chart '" + chartId + "' not found");
 
-			if (chartQuery.getResultDataFormat() == null && query.getResultDataFormat() != null)
-			{
-				chartQuery = chartQuery.copy();
-				chartQuery.setResultDataFormat(query.getResultDataFormat());
-			}
-
 			ChartResult chartResult = null;
 
 			if (suppressChartError)
 			{
 				try
 				{
-					chartResult = chart.getResult(chartQuery);
+					chartResult = getChartResult(chart, chartQuery, query);
 					chartResults.put(chartId, chartResult);
 				}
 				catch (Throwable t)
@@ -151,7 +145,7 @@ public class Dashboard extends AbstractIdentifiable implements Serializable
 			}
 			else
 			{
-				chartResult = chart.getResult(chartQuery);
+				chartResult = getChartResult(chart, chartQuery, query);
 				chartResults.put(chartId, chartResult);
 			}
 		}
@@ -161,4 +155,43 @@ public class Dashboard extends AbstractIdentifiable implements Serializable
 
 		return dashboardResult;
 	}
+
+	/**
+	 * 获取{@linkplain DashboardQuery#getChartQueries()}中单个图表的{@linkplain ChartResult}。
+	 * <p>
+	 * 如果{@code chartQuery}未设置{@linkplain ChartQuery#getResultDataFormat()}，将使用{@code query}的。
+	 * </p>
+	 * 
+	 * @param chart
+	 * @param chartQuery
+	 * @param query
+	 * @return
+	 * @throws DataSetException
+	 */
+	public ChartResult getChartResult(Chart chart, ChartQuery chartQuery, DashboardQuery query)
+			throws DataSetException
+	{
+		return chart.getResult(getChartQuery(chartQuery, query));
+	}
+
+	/**
+	 * 获取{@linkplain DashboardQuery#getChartQueries()}中单个图表实际执行的{@linkplain ChartQuery}。
+	 * <p>
+	 * 如果{@code chartQuery}未设置{@linkplain ChartQuery#getResultDataFormat()}，将使用{@code query}的。
+	 * </p>
+	 * 
+	 * @param chartQuery
+	 * @param query
+	 * @return
+	 */
+	public ChartQuery getChartQuery(ChartQuery chartQuery, DashboardQuery query)
+	{
+		if (chartQuery.getResultDataFormat() == null && query.getResultDataFormat() != null)
+		{
+			chartQuery = chartQuery.copy();
+			chartQuery.setResultDataFormat(query.getResultDataFormat());
+		}
+
+		return chartQuery;
+	}
 }
@@ -23,4 +23,16 @@ public interface ChartWidgetSource
 	 * @throws Throwable
 	 */
 	ChartWidget getChartWidget(String id) throws Throwable;
+
+	/**
+	 * 批量获取{@linkplain ChartWidget}。
+	 * <p>
+	 * 实现类应以批量方式加载，避免逐一调用{@linkplain #getChartWidget(String)}导致的多次底层访问。
+	 * </p>
+	 * 
+	 * @param ids
+	 * @return 与{@code ids}一一对应的数组，没有的元素为{@code null}
+	 * @throws Throwable
+	 */
+	ChartWidget[] getChartWidgets(String[] ids) throws Throwable;
 }
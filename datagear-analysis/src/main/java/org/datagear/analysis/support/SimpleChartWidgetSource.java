@@ -53,4 +53,15 @@ public class SimpleChartWidgetSource implements ChartWidgetSource
 
 		return null;
 	}
+
+	@Override
+	public ChartWidget[] getChartWidgets(String[] ids)
+	{
+		ChartWidget[] chartWidgets = new ChartWidget[ids.length];
+
+		for (int i = 0; i < ids.length; i++)
+			chartWidgets[i] = getChartWidget(ids[i]);
+
+		return chartWidgets;
+	}
 }
@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.io.Writer;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import org.datagear.analysis.ChartDefinition;
 import org.datagear.analysis.RenderContext;
@@ -62,6 +63,8 @@ public class HtmlChartPlugin extends AbstractChartPlugin
 
 	public static final String PROPERTY_CHART_RENDERER = "chartRenderer";
 
+	public static final String PROPERTY_DEPEND_IMPORTS = "dependImports";
+
 	/** HTML换行符 */
 	public static final String HTML_NEW_LINE = "\n";
 
@@ -81,6 +84,9 @@ public class HtmlChartPlugin extends AbstractChartPlugin
 	/** 图表脚本换行符 */
 	private String newLine = HTML_NEW_LINE;
 
+	/** 依赖的看板导入项名，为{@code null}表示未声明 */
+	private List<String> dependImports = null;
+
 	public HtmlChartPlugin()
 	{
 		super();
@@ -137,6 +143,25 @@ public class HtmlChartPlugin extends AbstractChartPlugin
 		this.newLine = newLine;
 	}
 
+	/**
+	 * 获取依赖的看板导入项名（{@linkplain HtmlTplDashboardImport.ImportItem#getName()}）列表。
+	 * <p>
+	 * 看板仅会导入其中图表插件所依赖的按需导入项（{@linkplain HtmlTplDashboardImport.ImportItem#isOnDemand()}），
+	 * 如果某个图表插件返回{@code null}（未声明），看板将导入所有按需导入项。
+	 * </p>
+	 * 
+	 * @return 可能为{@code null}
+	 */
+	public List<String> getDependImports()
+	{
+		return dependImports;
+	}
+
+	public void setDependImports(List<String> dependImports)
+	{
+		this.dependImports = dependImports;
+	}
+
 	@Override
 	public HtmlChart renderChart(RenderContext renderContext, ChartDefinition chartDefinition) throws RenderException
 	{
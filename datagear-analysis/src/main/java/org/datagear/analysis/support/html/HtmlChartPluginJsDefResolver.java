@@ -138,7 +138,7 @@ public class HtmlChartPluginJsDefResolver extends TextParserSupport
 
 				c = in.read();
 			}
-			else if (c == '{' || c == ',')
+			else if (c == '{' || c == '[' || c == ',')
 			{
 				clear(token);
 				c = in.read();
@@ -11,8 +11,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.zip.ZipEntry;
@@ -21,6 +24,7 @@ import java.util.zip.ZipInputStream;
 import org.datagear.analysis.Icon;
 import org.datagear.analysis.support.BytesIcon;
 import org.datagear.analysis.support.JsonChartPluginPropertiesResolver;
+import org.datagear.analysis.support.JsonSupport;
 import org.datagear.analysis.support.LocationIcon;
 import org.datagear.analysis.support.html.HtmlChartPluginJsDefResolver.JsDefContent;
 import org.datagear.util.FileUtil;
@@ -49,6 +53,7 @@ import org.datagear.util.StringUtil;
  * 	id : "...",
  * 	nameLabel : { value : "...", localeValues : { "zh" : "...", "en" : "..." }},
  * 	...,
+ * 	dependImports : ["echarts", ...],
  * 	chartRenderer: { ... },
  * 	...
  * }
@@ -66,6 +71,9 @@ import org.datagear.util.StringUtil;
  * <code>chartRenderer</code>用于定义{@linkplain HtmlChartPlugin#getChartRenderer()}内容。
  * </p>
  * <p>
+ * <code>dependImports</code>选填，用于定义{@linkplain HtmlChartPlugin#getDependImports()}内容。
+ * </p>
+ * <p>
  * 默认地，上述文件应该为<code>UTF-8</code>编码。
  * </p>
  * 
@@ -428,8 +436,11 @@ public class HtmlChartPluginLoader
 			{
 				plugin = createHtmlChartPlugin();
 
-				this.jsonChartPluginPropertiesResolver.resolveChartPluginProperties(plugin,
-						jsDefContent.getPluginJson());
+				@SuppressWarnings("unchecked")
+				Map<String, Object> properties = JsonSupport.parseNonStardand(jsDefContent.getPluginJson(), Map.class);
+
+				this.jsonChartPluginPropertiesResolver.resolveChartPluginProperties(plugin, properties);
+				plugin.setDependImports(toDependImports(properties.get(HtmlChartPlugin.PROPERTY_DEPEND_IMPORTS)));
 				plugin.setChartRenderer(new StringJsChartRenderer(jsDefContent.getPluginChartRenderer()));
 				plugin.setIcons(toBytesIconsInDirectory(directory, plugin.getIcons()));
 
@@ -453,6 +464,41 @@ public class HtmlChartPluginLoader
 		return plugin;
 	}
 
+	/**
+	 * 转换{@linkplain HtmlChartPlugin#getDependImports()}，支持字符串数组、“,”隔开的字符串。
+	 * 
+	 * @param obj
+	 * @return 可能为{@code null}
+	 */
+	protected List<String> toDependImports(Object obj)
+	{
+		if (obj == null)
+			return null;
+
+		List<String> dependImports = new ArrayList<>();
+
+		if (obj instanceof String)
+			dependImports.addAll(StringUtil.splitWithTrim((String) obj, ","));
+		else if (obj instanceof Collection<?>)
+		{
+			for (Object ele : (Collection<?>) obj)
+			{
+				if (ele != null)
+					dependImports.add(ele.toString().trim());
+			}
+		}
+		else if (obj instanceof Object[])
+		{
+			for (Object ele : (Object[]) obj)
+			{
+				if (ele != null)
+					dependImports.add(ele.toString().trim());
+			}
+		}
+
+		return dependImports;
+	}
+
 	protected Map<String, Icon> toBytesIconsInDirectory(File directory, Map<String, Icon> icons) throws IOException
 	{
 		if (icons == null || icons.isEmpty())
@@ -48,6 +48,9 @@ public interface HtmlTplDashboardImport
 		/** 内容 */
 		private String content;
 
+		/** 是否按需导入 */
+		private boolean onDemand = false;
+
 		public ImportItem()
 		{
 			super();
@@ -80,10 +83,30 @@ public interface HtmlTplDashboardImport
 			this.content = content;
 		}
 
+		/**
+		 * 是否按需导入。
+		 * <p>
+		 * 按需导入项仅在看板中有图表插件依赖它（{@linkplain HtmlChartPlugin#getDependImports()}）时才会被导入，
+		 * 通常用于体积较大、且仅被部分图表插件使用的库（比如ECharts）。
+		 * </p>
+		 * 
+		 * @return
+		 */
+		public boolean isOnDemand()
+		{
+			return onDemand;
+		}
+
+		public void setOnDemand(boolean onDemand)
+		{
+			this.onDemand = onDemand;
+		}
+
 		@Override
 		public String toString()
 		{
-			return getClass().getSimpleName() + " [name=" + name + ", content=" + content + "]";
+			return getClass().getSimpleName() + " [name=" + name + ", content=" + content + ", onDemand=" + onDemand
+					+ "]";
 		}
 
 		public static ImportItem valueOf(String name, String content)
@@ -106,6 +129,22 @@ public interface HtmlTplDashboardImport
 			return new ImportItem(name, content);
 		}
 
+		/**
+		 * 构建按需导入的{@code <link type='text/css' href='...' rel='stylesheet' />}导入条目。
+		 * 
+		 * @param name
+		 * @param href
+		 * @return
+		 * @see #isOnDemand()
+		 */
+		public static ImportItem valueOfLinkCssOnDemand(String name, String href)
+		{
+			ImportItem item = valueOfLinkCss(name, href);
+			item.setOnDemand(true);
+
+			return item;
+		}
+
 		/**
 		 * 构建{@code <script type='text/javascript' src='...'></script>}导入条目。
 		 * 
@@ -120,5 +159,21 @@ public interface HtmlTplDashboardImport
 
 			return new ImportItem(name, content);
 		}
+
+		/**
+		 * 构建按需导入的{@code <script type='text/javascript' src='...'></script>}导入条目。
+		 * 
+		 * @param name
+		 * @param src
+		 * @return
+		 * @see #isOnDemand()
+		 */
+		public static ImportItem valueOfJavaScriptOnDemand(String name, String src)
+		{
+			ImportItem item = valueOfJavaScript(name, src);
+			item.setOnDemand(true);
+
+			return item;
+		}
 	}
 }
@@ -11,7 +11,11 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.datagear.analysis.Chart;
 import org.datagear.analysis.Dashboard;
@@ -58,6 +62,10 @@ import org.datagear.util.StringUtil;
  * <code>html dg-dashboard-import-exclude</code>：选填，定义看板网页不加载的内置库（{@linkplain HtmlTplDashboardWidgetRenderer#getDashboardImports()}），多个以“,”隔开
  * </p>
  * <p>
+ * <code>html dg-dashboard-import-include</code>：选填，定义看板网页总是加载的按需导入内置库（{@linkplain HtmlTplDashboardImport.ImportItem#isOnDemand()}），多个以“,”隔开，
+ * 用于在页面中动态加载的图表依赖了模板中静态图表未依赖的库的情况
+ * </p>
+ * <p>
  * <code>div id</code>：选填，定义图表元素ID，如果不填，则会自动生成一个
  * </p>
  * <p>
@@ -80,6 +88,8 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 
 	public static final String DEFAULT_ATTR_NAME_DASHBOARD_IMPORT_EXCLUDE = "dg-dashboard-import-exclude";
 
+	public static final String DEFAULT_ATTR_NAME_DASHBOARD_IMPORT_INCLUDE = "dg-dashboard-import-include";
+
 	public static final String DEFAULT_ATTR_NAME_CHART_WIDGET = "dg-chart-widget";
 
 	/** 看板设置标签名 */
@@ -94,6 +104,9 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 	/** 属性名：不导入内置库的 */
 	private String attrNameDashboardImportExclude = DEFAULT_ATTR_NAME_DASHBOARD_IMPORT_EXCLUDE;
 
+	/** 属性名：总是导入的按需导入项 */
+	private String attrNameDashboardImportInclude = DEFAULT_ATTR_NAME_DASHBOARD_IMPORT_INCLUDE;
+
 	/** 图表标签名 */
 	private String chartTagName = DEFAULT_CHART_TAG_NAME;
 
@@ -151,6 +164,16 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		this.attrNameDashboardImportExclude = attrNameDashboardImportExclude;
 	}
 
+	public String getAttrNameDashboardImportInclude()
+	{
+		return attrNameDashboardImportInclude;
+	}
+
+	public void setAttrNameDashboardImportInclude(String attrNameDashboardImportInclude)
+	{
+		this.attrNameDashboardImportInclude = attrNameDashboardImportInclude;
+	}
+
 	public String getChartTagName()
 	{
 		return chartTagName;
@@ -252,6 +275,10 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 	{
 		Writer out = renderAttr.getHtmlWriterNonNull(renderContext);
 
+		// 看板导入项在<head>中输出，此时还未解析到图表，因此需预先加载模板中的所有图表部件以确定需要的按需导入项
+		String template = IOUtil.readString(in, false);
+		in = IOUtil.getReader(template);
+
 		HtmlTitleHandler htmlTitleHandler = renderAttr.getHtmlTitleHandler(renderContext);
 
 		boolean resolvedDashboardInfo = false;
@@ -262,6 +289,7 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		boolean inBodyTag = false;
 
 		DashboardInfo dashboardInfo = new DashboardInfo();
+		dashboardInfo.setChartWidgets(prefetchHtmlChartWidgets(template));
 
 		StringBuilder nameCache = createStringBuilder();
 		StringBuilder valueCache = createStringBuilder();
@@ -420,7 +448,11 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 	protected void writeDashboardImport(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr, Writer out,
 			HtmlTplDashboard dashboard, DashboardInfo dashboardInfo) throws IOException
 	{
-		writeDashboardImport(renderContext, renderAttr, out, dashboard, dashboardInfo.getImportExclude());
+		Set<String> onDemandImports = resolveOnDemandImports(dashboardInfo.getChartWidgets().values(),
+				dashboardInfo.getImportInclude());
+
+		writeDashboardImport(renderContext, renderAttr, out, dashboard, dashboardInfo.getImportExclude(),
+				onDemandImports);
 	}
 
 	protected void writeHtmlTplDashboardScript(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr,
@@ -474,7 +506,7 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		List<ChartInfo> chartInfos = dashboardInfo.getChartInfos();
 		if (chartInfos != null)
 		{
-			List<HtmlChartWidget> chartWidgets = getHtmlChartWidgets(chartInfos);
+			List<HtmlChartWidget> chartWidgets = getHtmlChartWidgets(chartInfos, dashboardInfo.getChartWidgets());
 			List<String> chartPluginVarNames = writeHtmlChartPluginScriptsResolveImport(renderContext, renderAttr, out,
 					chartWidgets);
 
@@ -506,19 +538,160 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		}
 	}
 
-	protected List<HtmlChartWidget> getHtmlChartWidgets(List<ChartInfo> chartInfos)
+	/**
+	 * 获取{@linkplain ChartInfo}对应的{@linkplain HtmlChartWidget}列表。
+	 * 
+	 * @param chartInfos
+	 * @param prefetchedChartWidgets
+	 *            预先加载的图表部件映射表，参考{@linkplain #prefetchHtmlChartWidgets(String)}
+	 * @return
+	 */
+	protected List<HtmlChartWidget> getHtmlChartWidgets(List<ChartInfo> chartInfos,
+			Map<String, HtmlChartWidget> prefetchedChartWidgets)
 	{
 		List<HtmlChartWidget> list = new ArrayList<>();
 
 		if (chartInfos == null)
 			return list;
 
+		List<String> noPrefetchedIds = new ArrayList<>();
+
+		for (ChartInfo chartInfo : chartInfos)
+		{
+			String widgetId = chartInfo.getWidgetId();
+
+			if (!prefetchedChartWidgets.containsKey(widgetId) && !noPrefetchedIds.contains(widgetId))
+				noPrefetchedIds.add(widgetId);
+		}
+
+		Map<String, HtmlChartWidget> chartWidgets = prefetchedChartWidgets;
+
+		if (!noPrefetchedIds.isEmpty())
+		{
+			chartWidgets = new HashMap<>(prefetchedChartWidgets);
+
+			String[] ids = noPrefetchedIds.toArray(new String[noPrefetchedIds.size()]);
+			List<HtmlChartWidget> fetched = getHtmlChartWidgetsForRender(ids);
+
+			for (int i = 0; i < ids.length; i++)
+				chartWidgets.put(ids[i], fetched.get(i));
+		}
+
 		for (ChartInfo chartInfo : chartInfos)
-			list.add(getHtmlChartWidgetForRender(chartInfo.getWidgetId()));
+			list.add(chartWidgets.get(chartInfo.getWidgetId()));
 
 		return list;
 	}
 
+	/**
+	 * 预先加载模板中的所有图表部件。
+	 * <p>
+	 * 此方法使用{@linkplain #resolveChartWidgetIds(Reader)}解析模板中的图表部件ID，并使用{@linkplain #getHtmlChartWidgetsForRender(String[])}批量加载。
+	 * </p>
+	 * 
+	 * @param template
+	 * @return 图表部件ID映射表
+	 * @throws IOException
+	 */
+	protected Map<String, HtmlChartWidget> prefetchHtmlChartWidgets(String template) throws IOException
+	{
+		Map<String, HtmlChartWidget> chartWidgets = new HashMap<>();
+
+		List<String> ids = resolveChartWidgetIds(IOUtil.getReader(template));
+
+		if (ids.isEmpty())
+			return chartWidgets;
+
+		String[] idArray = ids.toArray(new String[ids.size()]);
+		List<HtmlChartWidget> list = getHtmlChartWidgetsForRender(idArray);
+
+		for (int i = 0; i < idArray.length; i++)
+			chartWidgets.put(idArray[i], list.get(i));
+
+		return chartWidgets;
+	}
+
+	/**
+	 * 解析模板中的图表部件ID列表（不重复）。
+	 * <p>
+	 * 解析规则与渲染时一致：仅解析{@code <body>}内的{@linkplain #getChartTagName()}标签的{@linkplain #getAttrNameChartWidget()}属性，并忽略HTML注释中的内容。
+	 * </p>
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	protected List<String> resolveChartWidgetIds(Reader in) throws IOException
+	{
+		List<String> ids = new ArrayList<>();
+
+		boolean inBodyTag = false;
+
+		StringBuilder nameCache = createStringBuilder();
+		StringBuilder valueCache = createStringBuilder();
+		StringBuilder tagContentCache = createStringBuilder();
+
+		int c = -1;
+		while ((c = in.read()) > -1)
+		{
+			if (c != '<')
+				continue;
+
+			clear(nameCache);
+
+			int last = readHtmlTagName(in, nameCache);
+			String tagName = nameCache.toString();
+
+			// <body
+			if ("body".equalsIgnoreCase(tagName))
+			{
+				inBodyTag = true;
+			}
+			// </body
+			else if ("/body".equalsIgnoreCase(tagName))
+			{
+				inBodyTag = false;
+			}
+			// <div
+			else if (inBodyTag && this.chartTagName.equalsIgnoreCase(tagName))
+			{
+				clear(nameCache);
+				clear(valueCache);
+				clear(tagContentCache);
+
+				for (;;)
+				{
+					last = resolveHtmlTagAttr(in, last, tagContentCache, nameCache, valueCache);
+
+					if (this.attrNameChartWidget.equalsIgnoreCase(nameCache.toString()))
+					{
+						String id = valueCache.toString().trim();
+
+						if (!id.isEmpty() && !ids.contains(id))
+							ids.add(id);
+					}
+
+					clear(nameCache);
+					clear(valueCache);
+
+					if (isHtmlTagEnd(last))
+						break;
+				}
+			}
+			// <!--
+			else if (tagName.startsWith("!--"))
+			{
+				// 空注释
+				if (isReadHtmlTagEmptyComment(tagName, last))
+					;
+				else
+					skipHtmlComment(in, null);
+			}
+		}
+
+		return ids;
+	}
+
 	/**
 	 * 解析{@linkplain DashboardInfo}。
 	 * 
@@ -554,6 +727,10 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 			{
 				dashboardInfo.setImportExclude(attrValueStr);
 			}
+			else if (this.attrNameDashboardImportInclude.equalsIgnoreCase(attrNameStr))
+			{
+				dashboardInfo.setImportInclude(attrValueStr);
+			}
 
 			clear(attrName);
 			clear(attrValue);
@@ -769,6 +946,10 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		private String dashboardFactoryVar;
 		/** 内置导入排除项 */
 		private String importExclude;
+		/** 总是导入的按需导入项 */
+		private String importInclude;
+		/** 预先加载的图表部件 */
+		private Map<String, HtmlChartWidget> chartWidgets = Collections.emptyMap();
 		/** 图表信息 */
 		private List<ChartInfo> chartInfos = new ArrayList<>();
 
@@ -813,6 +994,26 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 			this.importExclude = importExclude;
 		}
 
+		public String getImportInclude()
+		{
+			return importInclude;
+		}
+
+		public void setImportInclude(String importInclude)
+		{
+			this.importInclude = importInclude;
+		}
+
+		public Map<String, HtmlChartWidget> getChartWidgets()
+		{
+			return chartWidgets;
+		}
+
+		public void setChartWidgets(Map<String, HtmlChartWidget> chartWidgets)
+		{
+			this.chartWidgets = chartWidgets;
+		}
+
 		public List<ChartInfo> getChartInfos()
 		{
 			return chartInfos;
@@ -827,7 +1028,8 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		public String toString()
 		{
 			return getClass().getSimpleName() + " [dashboardVar=" + dashboardVar + ", rendererVar="
-					+ dashboardFactoryVar + ", importExclude=" + importExclude + ", chartInfos=" + chartInfos + "]";
+					+ dashboardFactoryVar + ", importExclude=" + importExclude + ", importInclude=" + importInclude
+					+ ", chartInfos=" + chartInfos + "]";
 		}
 	}
 
@@ -15,7 +15,9 @@ import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.datagear.analysis.Chart;
 import org.datagear.analysis.ChartDefinition;
@@ -119,6 +121,9 @@ public abstract class HtmlTplDashboardWidgetRenderer extends TextParserSupport
 	/** 导入项 */
 	private HtmlTplDashboardImport htmlTplDashboardImport;
 
+	/** 是否仅导入图表插件依赖的按需导入项，为{@code false}时总是导入所有导入项 */
+	private boolean onDemandImportEnabled = false;
+
 	/** 上下文路径占位符 */
 	private String contextPathPlaceholder = DEFAULT_CONTEXT_PATH_PLACE_HOLDER;
 
@@ -248,6 +253,25 @@ public abstract class HtmlTplDashboardWidgetRenderer extends TextParserSupport
 		this.htmlTplDashboardImport = htmlTplDashboardImport;
 	}
 
+	public boolean isOnDemandImportEnabled()
+	{
+		return onDemandImportEnabled;
+	}
+
+	/**
+	 * 设置是否仅导入图表插件依赖的按需导入项（{@linkplain ImportItem#isOnDemand()}）。
+	 * <p>
+	 * 看板模板、脚本中可能直接使用按需导入项（比如动态加载图表、直接调用{@code echarts}），它们无法被识别，
+	 * 所以默认不启用，启用后，这样的看板应通过<code>dg-dashboard-import-include</code>强制导入。
+	 * </p>
+	 * 
+	 * @param onDemandImportEnabled
+	 */
+	public void setOnDemandImportEnabled(boolean onDemandImportEnabled)
+	{
+		this.onDemandImportEnabled = onDemandImportEnabled;
+	}
+
 	public String getContextPathPlaceholder()
 	{
 		return contextPathPlaceholder;
@@ -674,6 +698,58 @@ public abstract class HtmlTplDashboardWidgetRenderer extends TextParserSupport
 		return (HtmlChartWidget) chartWidget;
 	}
 
+	/**
+	 * 批量获取用于渲染指定ID图表的{@linkplain ChartWidget}。
+	 * <p>
+	 * 此方法使用{@linkplain ChartWidgetSource#getChartWidgets(String[])}一次性获取所有图表部件，
+	 * 如果出现异常，则回退为逐一调用{@linkplain #getHtmlChartWidgetForRender(String)}，使得异常只影响对应的图表。
+	 * </p>
+	 * 
+	 * @param ids
+	 * @return 与{@code ids}一一对应的列表，元素不会为{@code null}
+	 */
+	protected List<HtmlChartWidget> getHtmlChartWidgetsForRender(String[] ids)
+	{
+		List<HtmlChartWidget> list = new ArrayList<>(ids.length);
+
+		if (ids.length == 0)
+			return list;
+
+		ChartWidget[] chartWidgets = null;
+
+		try
+		{
+			chartWidgets = this.chartWidgetSource.getChartWidgets(ids);
+		}
+		catch (Throwable t)
+		{
+			chartWidgets = null;
+		}
+
+		if (chartWidgets == null)
+		{
+			for (String id : ids)
+				list.add(getHtmlChartWidgetForRender(id));
+
+			return list;
+		}
+
+		for (int i = 0; i < ids.length; i++)
+		{
+			ChartWidget chartWidget = chartWidgets[i];
+
+			if (chartWidget == null)
+				chartWidget = createHtmlChartWidgetForNotFound(ids[i]);
+
+			if (chartWidget.getPlugin() == null)
+				chartWidget = createHtmlChartWidgetForPluginNull(chartWidget);
+
+			list.add((HtmlChartWidget) chartWidget);
+		}
+
+		return list;
+	}
+
 	protected HtmlChartWidget createHtmlChartWidgetForGetException(String exceptionWidgetId, Throwable t)
 	{
 		HtmlChartWidget widget = new HtmlChartWidget(IDUtil.uuid(), "HtmlChartWidgetForWidgetException",
@@ -872,6 +948,25 @@ public abstract class HtmlTplDashboardWidgetRenderer extends TextParserSupport
 	 */
 	protected void writeDashboardImport(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr, Writer out,
 			HtmlTplDashboard dashboard, String importExclude) throws IOException
+	{
+		writeDashboardImport(renderContext, renderAttr, out, dashboard, importExclude, null);
+	}
+
+	/**
+	 * 写看板导入项。
+	 * 
+	 * @param renderContext
+	 * @param renderAttr
+	 * @param out
+	 * @param dashboard
+	 * @param importExclude
+	 * @param onDemandImports
+	 *            需要导入的按需导入项名集合（{@linkplain ImportItem#isOnDemand()}），为{@code null}表示导入所有按需导入项，
+	 *            参考{@linkplain #resolveOnDemandImports(Collection, String)}
+	 * @throws IOException
+	 */
+	protected void writeDashboardImport(RenderContext renderContext, HtmlTplDashboardRenderAttr renderAttr, Writer out,
+			HtmlTplDashboard dashboard, String importExclude, Set<String> onDemandImports) throws IOException
 	{
 		WebContext webContext = renderAttr.getWebContext(renderContext);
 
@@ -892,6 +987,9 @@ public abstract class HtmlTplDashboardWidgetRenderer extends TextParserSupport
 					if (excludes.contains(name))
 						continue;
 
+					if (impt.isOnDemand() && onDemandImports != null && !onDemandImports.contains(name))
+						continue;
+
 					String content = replaceContextPathPlaceholder(impt.getContent(), webContext.getContextPath());
 					content = replaceVersionPlaceholder(content, Global.VERSION);
 					content = replaceRandomCodePlaceholder(content, randomCode);
@@ -909,6 +1007,48 @@ public abstract class HtmlTplDashboardWidgetRenderer extends TextParserSupport
 		}
 	}
 
+	/**
+	 * 解析看板需要导入的按需导入项名集合（{@linkplain ImportItem#isOnDemand()}）。
+	 * <p>
+	 * 返回集合为{@code importInclude}与所有图表插件的{@linkplain HtmlChartPlugin#getDependImports()}的并集。
+	 * 如果未启用{@linkplain #isOnDemandImportEnabled()}，或者{@code chartWidgets}为空（图表可能都是在页面中动态加载的），
+	 * 或者某个图表插件未声明依赖项，将返回{@code null}，表示导入所有按需导入项。
+	 * </p>
+	 * 
+	 * @param chartWidgets
+	 * @param importInclude
+	 *            强制导入的按需导入项名，多个以“,”隔开，允许为{@code null}
+	 * @return
+	 */
+	protected Set<String> resolveOnDemandImports(Collection<HtmlChartWidget> chartWidgets, String importInclude)
+	{
+		if (!this.onDemandImportEnabled)
+			return null;
+
+		if (chartWidgets == null || chartWidgets.isEmpty())
+			return null;
+
+		Set<String> onDemandImports = new HashSet<>(StringUtil.splitWithTrim(importInclude, ","));
+
+		for (HtmlChartWidget chartWidget : chartWidgets)
+		{
+			HtmlChartPlugin plugin = chartWidget.getPlugin();
+
+			// 用于渲染错误信息的内置插件不依赖任何导入项
+			if (plugin == null || plugin == this.htmlChartPluginForGetWidgetException)
+				continue;
+
+			List<String> dependImports = plugin.getDependImports();
+
+			if (dependImports == null)
+				return null;
+
+			onDemandImports.addAll(dependImports);
+		}
+
+		return onDemandImports;
+	}
+
 	/**
 	 * 写{@linkplain HtmlChartPlugin} JS脚本，并返回对应的变量名列表。
 	 * <p>
@@ -52,6 +52,16 @@ public class HtmlChartPluginJsDefResolverTest
 			Assert.assertEquals("{render:function() {}}", content.getPluginChartRenderer());
 		}
 
+		// 字符串数组
+		{
+			String text = "{a: [\"a\", 'b'], b: [ \"c\" ], chartRenderer:{render:function() {}}}";
+
+			JsDefContent content = resolver.resolve(text);
+
+			Assert.assertEquals("{a: [\"a\", 'b'], b: [ \"c\" ], chartRenderer:{}}", content.getPluginJson());
+			Assert.assertEquals("{render:function() {}}", content.getPluginChartRenderer());
+		}
+
 		// 单引号
 		{
 			String text = "{a: 'a', b : 'b', 'chartRenderer':{render:function() {}}}";
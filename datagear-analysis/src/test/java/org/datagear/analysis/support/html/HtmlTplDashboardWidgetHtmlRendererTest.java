@@ -9,6 +9,7 @@ package org.datagear.analysis.support.html;
 
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.datagear.analysis.ChartDefinition;
@@ -24,6 +25,7 @@ import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer.Cha
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer.DashboardInfo;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer.ExtContentHtmlTitleHandler;
 import org.datagear.util.IOUtil;
+import org.datagear.util.i18n.Label;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -338,6 +340,134 @@ public class HtmlTplDashboardWidgetHtmlRendererTest
 		}
 	}
 
+	@Test
+	public void renderHtmlTplDashboardTest_onDemandImport() throws Exception
+	{
+		String importContentEcharts = "<script type=\"text/javascript\" src=\"echarts.js\"></script>";
+		String importContentDataTable = "<script type=\"text/javascript\" src=\"datatables.js\"></script>";
+
+		HtmlChartPlugin chartPlugin = new HtmlChartPlugin("plugin-02", new Label("plugin-02"),
+				new StringJsChartRenderer("{ render: function(chart){} }"));
+		chartPlugin.setDependImports(Arrays.asList("echarts"));
+
+		HtmlChartWidget htmlChartWidget = new HtmlChartWidget("chart-widget-02", "chart-widget-02",
+				ChartDefinition.EMPTY_CHART_DATA_SET, chartPlugin);
+
+		List<ImportItem> dashboardImports = new ArrayList<>();
+		dashboardImports.add(new ImportItem("jquery", IMPORT_CONTENT_JQUERY));
+		ImportItem echarts = new ImportItem("echarts", importContentEcharts);
+		echarts.setOnDemand(true);
+		dashboardImports.add(echarts);
+		ImportItem dataTable = new ImportItem("dataTable", importContentDataTable);
+		dataTable.setOnDemand(true);
+		dashboardImports.add(dataTable);
+
+		HtmlTplDashboardWidgetHtmlRenderer renderer = new HtmlTplDashboardWidgetHtmlRenderer(
+				this.renderer.getTemplateDashboardWidgetResManager(), new SimpleChartWidgetSource(htmlChartWidget));
+		renderer.setHtmlTplDashboardImport(new SimpleHtmlTplDashboardImport(dashboardImports));
+
+		HtmlTplDashboardWidget dashboardWidget = new HtmlTplDashboardWidget("widget01", "index.html", renderer);
+
+		// 默认未启用，导入所有
+		{
+			String template = "<html><head></head><body><div dg-chart-widget=\"chart-widget-02\"></div></body></html>";
+
+			RenderContext renderContext = new DefaultRenderContext();
+			HtmlTplDashboardRenderAttr renderAttr = new HtmlTplDashboardRenderAttr();
+			StringWriter out = new StringWriter();
+			renderAttr.inflate(renderContext, out, new WebContext(""), SimpleDashboardThemeSource.THEME_LIGHT);
+
+			HtmlTplDashboard dashboard = renderer.createHtmlTplDashboard(renderContext, dashboardWidget, template);
+			renderer.renderHtmlTplDashboard(renderContext, renderAttr, dashboard, IOUtil.getReader(template));
+
+			String html = getHtmlWithPrint(out);
+
+			Assert.assertTrue(html.contains(importContentEcharts));
+			Assert.assertTrue(html.contains(importContentDataTable));
+		}
+
+		renderer.setOnDemandImportEnabled(true);
+
+		// 仅导入图表插件依赖的按需导入项
+		{
+			String template = "<html><head></head><body><div dg-chart-widget=\"chart-widget-02\"></div></body></html>";
+
+			RenderContext renderContext = new DefaultRenderContext();
+			HtmlTplDashboardRenderAttr renderAttr = new HtmlTplDashboardRenderAttr();
+			StringWriter out = new StringWriter();
+			renderAttr.inflate(renderContext, out, new WebContext(""), SimpleDashboardThemeSource.THEME_LIGHT);
+
+			HtmlTplDashboard dashboard = renderer.createHtmlTplDashboard(renderContext, dashboardWidget, template);
+			renderer.renderHtmlTplDashboard(renderContext, renderAttr, dashboard, IOUtil.getReader(template));
+
+			String html = getHtmlWithPrint(out);
+
+			Assert.assertTrue(html.contains(IMPORT_CONTENT_JQUERY));
+			Assert.assertTrue(html.contains(importContentEcharts));
+			Assert.assertFalse(html.contains(importContentDataTable));
+			Assert.assertEquals(1, dashboard.getCharts().size());
+		}
+
+		// 强制导入
+		{
+			String template = "<html dg-dashboard-import-include=\"dataTable\"><head></head><body>"
+					+ "<div dg-chart-widget='chart-widget-02'></div></body></html>";
+
+			RenderContext renderContext = new DefaultRenderContext();
+			HtmlTplDashboardRenderAttr renderAttr = new HtmlTplDashboardRenderAttr();
+			StringWriter out = new StringWriter();
+			renderAttr.inflate(renderContext, out, new WebContext(""), SimpleDashboardThemeSource.THEME_LIGHT);
+
+			HtmlTplDashboard dashboard = renderer.createHtmlTplDashboard(renderContext, dashboardWidget, template);
+			renderer.renderHtmlTplDashboard(renderContext, renderAttr, dashboard, IOUtil.getReader(template));
+
+			String html = getHtmlWithPrint(out);
+
+			Assert.assertTrue(html.contains(importContentEcharts));
+			Assert.assertTrue(html.contains(importContentDataTable));
+		}
+
+		// 没有图表时导入所有
+		{
+			String template = "<html><head></head><body></body></html>";
+
+			RenderContext renderContext = new DefaultRenderContext();
+			HtmlTplDashboardRenderAttr renderAttr = new HtmlTplDashboardRenderAttr();
+			StringWriter out = new StringWriter();
+			renderAttr.inflate(renderContext, out, new WebContext(""), SimpleDashboardThemeSource.THEME_LIGHT);
+
+			HtmlTplDashboard dashboard = renderer.createHtmlTplDashboard(renderContext, dashboardWidget, template);
+			renderer.renderHtmlTplDashboard(renderContext, renderAttr, dashboard, IOUtil.getReader(template));
+
+			String html = getHtmlWithPrint(out);
+
+			Assert.assertTrue(html.contains(importContentEcharts));
+			Assert.assertTrue(html.contains(importContentDataTable));
+		}
+	}
+
+	@Test
+	public void resolveChartWidgetIdsTest() throws Exception
+	{
+		String template = "<html dg-chart-widget=\"html-attr\"><head><title>dg-chart-widget=\"title\"</title></head>"
+				+ "<body>" //
+				+ "<div dg-chart-widget=\"chart-01\"></div>" //
+				+ "<div class='a' dg-chart-widget='chart-02' id=\"c2\"></div>" //
+				+ "<DIV DG-CHART-WIDGET=chart-03></DIV>" //
+				+ "<div dg-chart-widget=\" chart-01 \"></div>" //
+				+ "<div dg-chart-widget=\"\"></div>" //
+				+ "<span dg-chart-widget=\"span\"></span>" //
+				+ "<!-- <div dg-chart-widget=\"comment\"></div> -->" //
+				+ "<!----><div dg-chart-widget=\"chart-04\"/>" //
+				+ "</body>" //
+				+ "<div dg-chart-widget=\"after-body\"></div>" //
+				+ "</html>";
+
+		List<String> ids = this.renderer.resolveChartWidgetIds(IOUtil.getReader(template));
+
+		Assert.assertEquals(Arrays.asList("chart-01", "chart-02", "chart-03", "chart-04"), ids);
+	}
+
 	protected HtmlTplDashboardWidget createHtmlTplDashboardWidget()
 	{
 		HtmlTplDashboardWidget dashboardWidget = new HtmlTplDashboardWidget("widget01", "index.html", this.renderer);
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection;
+
+/**
+ * 连接熔断器。
+ * <p>
+ * 它对应一个{@linkplain ConnectionIdentity}，用于在数据库不可达时快速失败，避免每次获取连接都等待完整的登录超时：
+ * </p>
+ * <ul>
+ * <li>{@linkplain State#CLOSED}：正常状态，允许获取连接；</li>
+ * <li>{@linkplain State#OPEN}：连续失败次数达到{@linkplain #getFailureThreshold()}后进入此状态，直接拒绝获取连接；</li>
+ * <li>{@linkplain State#HALF_OPEN}：{@linkplain State#OPEN}状态持续{@linkplain #getOpenMillis()}后，仅允许一次探测请求，
+ * 探测成功则恢复为{@linkplain State#CLOSED}，失败则重新进入{@linkplain State#OPEN}。</li>
+ * </ul>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionCircuitBreaker
+{
+	/** 连续失败多少次后熔断 */
+	private final int failureThreshold;
+
+	/** 熔断持续毫秒数，之后允许一次探测 */
+	private final long openMillis;
+
+	private State state = State.CLOSED;
+
+	private int consecutiveFailures = 0;
+
+	private long openedTime = 0;
+
+	private String lastErrorMessage = null;
+
+	private long lastErrorTime = 0;
+
+	public ConnectionCircuitBreaker(int failureThreshold, long openMillis)
+	{
+		super();
+		this.failureThreshold = failureThreshold;
+		this.openMillis = openMillis;
+	}
+
+	public int getFailureThreshold()
+	{
+		return failureThreshold;
+	}
+
+	public long getOpenMillis()
+	{
+		return openMillis;
+	}
+
+	/**
+	 * 是否允许获取连接。
+	 * <p>
+	 * 处于{@linkplain State#OPEN}且已超过{@linkplain #getOpenMillis()}时，将转为{@linkplain State#HALF_OPEN}并允许本次请求作为探测。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public synchronized boolean allowRequest()
+	{
+		if (State.CLOSED.equals(this.state))
+			return true;
+
+		if (State.OPEN.equals(this.state) && System.currentTimeMillis() - this.openedTime >= this.openMillis)
+		{
+			this.state = State.HALF_OPEN;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * 记录一次成功。
+	 */
+	public synchronized void recordSuccess()
+	{
+		this.state = State.CLOSED;
+		this.consecutiveFailures = 0;
+	}
+
+	/**
+	 * 记录一次失败。
+	 * 
+	 * @param t
+	 */
+	public synchronized void recordFailure(Throwable t)
+	{
+		this.consecutiveFailures++;
+		this.lastErrorMessage = (t == null ? null : t.getMessage());
+		this.lastErrorTime = System.currentTimeMillis();
+
+		if (State.HALF_OPEN.equals(this.state) || this.consecutiveFailures >= this.failureThreshold)
+		{
+			this.state = State.OPEN;
+			this.openedTime = this.lastErrorTime;
+		}
+	}
+
+	/**
+	 * 获取当前状态。
+	 * 
+	 * @return
+	 */
+	public synchronized State getState()
+	{
+		return this.state;
+	}
+
+	/**
+	 * 获取熔断剩余毫秒数，非{@linkplain State#OPEN}状态时返回{@code 0}。
+	 * 
+	 * @return
+	 */
+	public synchronized long getRemainingOpenMillis()
+	{
+		if (!State.OPEN.equals(this.state))
+			return 0;
+
+		return Math.max(0, this.openMillis - (System.currentTimeMillis() - this.openedTime));
+	}
+
+	/**
+	 * 取消本次探测，用于探测请求没有得出连接是否成功的结论时（比如没有进行连接尝试、连接池耗尽等待超时）。
+	 * <p>
+	 * 处于{@linkplain State#HALF_OPEN}时将恢复为{@linkplain State#OPEN}，且下次{@linkplain #allowRequest()}可立即再次探测。
+	 * </p>
+	 */
+	public synchronized void cancelProbe()
+	{
+		if (State.HALF_OPEN.equals(this.state))
+			this.state = State.OPEN;
+	}
+
+	/**
+	 * 填充统计信息。
+	 * 
+	 * @param stat
+	 */
+	public synchronized void fillStat(ConnectionCircuitStat stat)
+	{
+		stat.setState(this.state);
+		stat.setConsecutiveFailures(this.consecutiveFailures);
+		stat.setLastErrorMessage(this.lastErrorMessage);
+		stat.setLastErrorTime(this.lastErrorTime);
+	}
+
+	/**
+	 * 熔断器状态。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static enum State
+	{
+		/** 正常 */
+		CLOSED,
+
+		/** 熔断 */
+		OPEN,
+
+		/** 探测 */
+		HALF_OPEN
+	}
+}
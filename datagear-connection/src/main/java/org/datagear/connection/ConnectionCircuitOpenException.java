@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection;
+
+/**
+ * 连接已熔断异常。
+ * <p>
+ * 数据库连续连接失败而被{@linkplain ConnectionCircuitBreaker}熔断时，获取连接将快速失败并抛出此异常。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionCircuitOpenException extends EstablishConnectionException
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 熔断剩余毫秒数 */
+	private long remainingOpenMillis;
+
+	/** 最近错误信息 */
+	private String lastErrorMessage;
+
+	public ConnectionCircuitOpenException(ConnectionOption connectionOption, long remainingOpenMillis,
+			String lastErrorMessage)
+	{
+		super(connectionOption, null);
+		this.remainingOpenMillis = remainingOpenMillis;
+		this.lastErrorMessage = lastErrorMessage;
+	}
+
+	public long getRemainingOpenMillis()
+	{
+		return remainingOpenMillis;
+	}
+
+	public String getLastErrorMessage()
+	{
+		return lastErrorMessage;
+	}
+
+	@Override
+	public String getMessage()
+	{
+		ConnectionOption connectionOption = getConnectionOption();
+
+		return "Connection circuit is open for [" + (connectionOption == null ? null : connectionOption.getUrl())
+				+ "], last error : " + this.lastErrorMessage;
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection;
+
+import java.io.Serializable;
+
+import org.datagear.connection.ConnectionCircuitBreaker.State;
+
+/**
+ * 连接熔断统计信息。
+ * <p>
+ * 它对应一个{@linkplain ConnectionIdentity}的{@linkplain ConnectionCircuitBreaker}，出于安全考虑，仅包含连接URL和用户名，不包含密码等其他连接参数。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionCircuitStat implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 连接URL */
+	private String url;
+
+	/** 连接用户 */
+	private String user;
+
+	/** 熔断状态 */
+	private State state;
+
+	/** 连续失败次数 */
+	private int consecutiveFailures;
+
+	/** 最近错误信息 */
+	private String lastErrorMessage;
+
+	/** 最近错误时间 */
+	private long lastErrorTime;
+
+	public ConnectionCircuitStat()
+	{
+		super();
+	}
+
+	public ConnectionCircuitStat(String url, String user)
+	{
+		super();
+		this.url = url;
+		this.user = user;
+	}
+
+	public String getUrl()
+	{
+		return url;
+	}
+
+	public void setUrl(String url)
+	{
+		this.url = url;
+	}
+
+	public String getUser()
+	{
+		return user;
+	}
+
+	public void setUser(String user)
+	{
+		this.user = user;
+	}
+
+	public State getState()
+	{
+		return state;
+	}
+
+	public void setState(State state)
+	{
+		this.state = state;
+	}
+
+	public int getConsecutiveFailures()
+	{
+		return consecutiveFailures;
+	}
+
+	public void setConsecutiveFailures(int consecutiveFailures)
+	{
+		this.consecutiveFailures = consecutiveFailures;
+	}
+
+	public String getLastErrorMessage()
+	{
+		return lastErrorMessage;
+	}
+
+	public void setLastErrorMessage(String lastErrorMessage)
+	{
+		this.lastErrorMessage = lastErrorMessage;
+	}
+
+	public long getLastErrorTime()
+	{
+		return lastErrorTime;
+	}
+
+	public void setLastErrorTime(long lastErrorTime)
+	{
+		this.lastErrorTime = lastErrorTime;
+	}
+
+	/**
+	 * 是否处于熔断或探测状态。
+	 * 
+	 * @return
+	 */
+	public boolean isTripped()
+	{
+		return (this.state != null && !State.CLOSED.equals(this.state));
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [url=" + url + ", user=" + user + ", state=" + state
+				+ ", consecutiveFailures=" + consecutiveFailures + ", lastErrorMessage=" + lastErrorMessage
+				+ ", lastErrorTime=" + lastErrorTime + "]";
+	}
+}
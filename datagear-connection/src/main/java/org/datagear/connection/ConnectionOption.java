@@ -32,6 +32,9 @@ public class ConnectionOption implements Serializable
 
 	private Properties properties = new Properties();
 
+	/** 连接池选项，不参与相等比较 */
+	private ConnectionPoolOption poolOption = null;
+
 	public ConnectionOption()
 	{
 		super();
@@ -78,6 +81,21 @@ public class ConnectionOption implements Serializable
 		this.properties = properties;
 	}
 
+	/**
+	 * 获取连接池选项。
+	 * 
+	 * @return 为{@code null}表示采用默认连接池选项
+	 */
+	public ConnectionPoolOption getPoolOption()
+	{
+		return poolOption;
+	}
+
+	public void setPoolOption(ConnectionPoolOption poolOption)
+	{
+		this.poolOption = poolOption;
+	}
+
 	public String getUser()
 	{
 		return getProperty(PROPERTY_NAME_USER);
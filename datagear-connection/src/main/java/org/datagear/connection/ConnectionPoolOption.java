@@ -0,0 +1,301 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 连接池选项。
+ * <p>
+ * 值为{@code null}的选项表示未设置，将采用默认选项（参考{@linkplain #merge(ConnectionPoolOption)}）或者连接池库的默认值。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionPoolOption implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 最大连接数 */
+	private Integer maxTotal = null;
+
+	/** 最大空闲连接数 */
+	private Integer maxIdle = null;
+
+	/** 最小空闲连接数 */
+	private Integer minIdle = null;
+
+	/** 获取连接的最大等待毫秒数 */
+	private Long maxWaitMillis = null;
+
+	/** 校验连接的SQL语句 */
+	private String validationQuery = null;
+
+	/** 校验连接的超时秒数 */
+	private Integer validationQueryTimeout = null;
+
+	/** 获取连接时是否校验 */
+	private Boolean testOnBorrow = null;
+
+	/** 空闲时是否校验 */
+	private Boolean testWhileIdle = null;
+
+	/** 空闲连接回收检查间隔毫秒数 */
+	private Long timeBetweenEvictionRunsMillis = null;
+
+	/** 连接空闲多少毫秒后可被回收 */
+	private Long minEvictableIdleTimeMillis = null;
+
+	/** 是否缓存预编译语句 */
+	private Boolean poolPreparedStatements = null;
+
+	/** 每个连接最多缓存的预编译语句数 */
+	private Integer maxOpenPreparedStatements = null;
+
+	public ConnectionPoolOption()
+	{
+		super();
+	}
+
+	public ConnectionPoolOption(ConnectionPoolOption option)
+	{
+		super();
+		this.maxTotal = option.maxTotal;
+		this.maxIdle = option.maxIdle;
+		this.minIdle = option.minIdle;
+		this.maxWaitMillis = option.maxWaitMillis;
+		this.validationQuery = option.validationQuery;
+		this.validationQueryTimeout = option.validationQueryTimeout;
+		this.testOnBorrow = option.testOnBorrow;
+		this.testWhileIdle = option.testWhileIdle;
+		this.timeBetweenEvictionRunsMillis = option.timeBetweenEvictionRunsMillis;
+		this.minEvictableIdleTimeMillis = option.minEvictableIdleTimeMillis;
+		this.poolPreparedStatements = option.poolPreparedStatements;
+		this.maxOpenPreparedStatements = option.maxOpenPreparedStatements;
+	}
+
+	public Integer getMaxTotal()
+	{
+		return maxTotal;
+	}
+
+	public void setMaxTotal(Integer maxTotal)
+	{
+		this.maxTotal = maxTotal;
+	}
+
+	public Integer getMaxIdle()
+	{
+		return maxIdle;
+	}
+
+	public void setMaxIdle(Integer maxIdle)
+	{
+		this.maxIdle = maxIdle;
+	}
+
+	public Integer getMinIdle()
+	{
+		return minIdle;
+	}
+
+	public void setMinIdle(Integer minIdle)
+	{
+		this.minIdle = minIdle;
+	}
+
+	public Long getMaxWaitMillis()
+	{
+		return maxWaitMillis;
+	}
+
+	public void setMaxWaitMillis(Long maxWaitMillis)
+	{
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	public String getValidationQuery()
+	{
+		return validationQuery;
+	}
+
+	public void setValidationQuery(String validationQuery)
+	{
+		this.validationQuery = validationQuery;
+	}
+
+	public Integer getValidationQueryTimeout()
+	{
+		return validationQueryTimeout;
+	}
+
+	public void setValidationQueryTimeout(Integer validationQueryTimeout)
+	{
+		this.validationQueryTimeout = validationQueryTimeout;
+	}
+
+	public Boolean getTestOnBorrow()
+	{
+		return testOnBorrow;
+	}
+
+	public void setTestOnBorrow(Boolean testOnBorrow)
+	{
+		this.testOnBorrow = testOnBorrow;
+	}
+
+	public Boolean getTestWhileIdle()
+	{
+		return testWhileIdle;
+	}
+
+	public void setTestWhileIdle(Boolean testWhileIdle)
+	{
+		this.testWhileIdle = testWhileIdle;
+	}
+
+	public Long getTimeBetweenEvictionRunsMillis()
+	{
+		return timeBetweenEvictionRunsMillis;
+	}
+
+	public void setTimeBetweenEvictionRunsMillis(Long timeBetweenEvictionRunsMillis)
+	{
+		this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
+	}
+
+	public Long getMinEvictableIdleTimeMillis()
+	{
+		return minEvictableIdleTimeMillis;
+	}
+
+	public void setMinEvictableIdleTimeMillis(Long minEvictableIdleTimeMillis)
+	{
+		this.minEvictableIdleTimeMillis = minEvictableIdleTimeMillis;
+	}
+
+	public Boolean getPoolPreparedStatements()
+	{
+		return poolPreparedStatements;
+	}
+
+	public void setPoolPreparedStatements(Boolean poolPreparedStatements)
+	{
+		this.poolPreparedStatements = poolPreparedStatements;
+	}
+
+	public Integer getMaxOpenPreparedStatements()
+	{
+		return maxOpenPreparedStatements;
+	}
+
+	public void setMaxOpenPreparedStatements(Integer maxOpenPreparedStatements)
+	{
+		this.maxOpenPreparedStatements = maxOpenPreparedStatements;
+	}
+
+	/**
+	 * 是否设置了任一选项。
+	 *
+	 * @return
+	 */
+	public boolean hasAnyOption()
+	{
+		return !(this.maxTotal == null && this.maxIdle == null && this.minIdle == null && this.maxWaitMillis == null
+				&& (this.validationQuery == null || this.validationQuery.isEmpty())
+				&& this.validationQueryTimeout == null && this.testOnBorrow == null && this.testWhileIdle == null
+				&& this.timeBetweenEvictionRunsMillis == null && this.minEvictableIdleTimeMillis == null
+				&& this.poolPreparedStatements == null && this.maxOpenPreparedStatements == null);
+	}
+
+	/**
+	 * 合并默认选项，返回一个新对象：此对象中未设置的选项将采用{@code defaultOption}中的值。
+	 *
+	 * @param defaultOption
+	 *            允许为{@code null}
+	 * @return
+	 */
+	public ConnectionPoolOption merge(ConnectionPoolOption defaultOption)
+	{
+		ConnectionPoolOption re = new ConnectionPoolOption(this);
+
+		if (defaultOption == null)
+			return re;
+
+		if (re.maxTotal == null)
+			re.maxTotal = defaultOption.maxTotal;
+		if (re.maxIdle == null)
+			re.maxIdle = defaultOption.maxIdle;
+		if (re.minIdle == null)
+			re.minIdle = defaultOption.minIdle;
+		if (re.maxWaitMillis == null)
+			re.maxWaitMillis = defaultOption.maxWaitMillis;
+		if (re.validationQuery == null || re.validationQuery.isEmpty())
+			re.validationQuery = defaultOption.validationQuery;
+		if (re.validationQueryTimeout == null)
+			re.validationQueryTimeout = defaultOption.validationQueryTimeout;
+		if (re.testOnBorrow == null)
+			re.testOnBorrow = defaultOption.testOnBorrow;
+		if (re.testWhileIdle == null)
+			re.testWhileIdle = defaultOption.testWhileIdle;
+		if (re.timeBetweenEvictionRunsMillis == null)
+			re.timeBetweenEvictionRunsMillis = defaultOption.timeBetweenEvictionRunsMillis;
+		if (re.minEvictableIdleTimeMillis == null)
+			re.minEvictableIdleTimeMillis = defaultOption.minEvictableIdleTimeMillis;
+		if (re.poolPreparedStatements == null)
+			re.poolPreparedStatements = defaultOption.poolPreparedStatements;
+		if (re.maxOpenPreparedStatements == null)
+			re.maxOpenPreparedStatements = defaultOption.maxOpenPreparedStatements;
+
+		return re;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(maxTotal, maxIdle, minIdle, maxWaitMillis, validationQuery, validationQueryTimeout,
+				testOnBorrow, testWhileIdle, timeBetweenEvictionRunsMillis, minEvictableIdleTimeMillis,
+				poolPreparedStatements, maxOpenPreparedStatements);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ConnectionPoolOption other = (ConnectionPoolOption) obj;
+		return Objects.equals(maxTotal, other.maxTotal) && Objects.equals(maxIdle, other.maxIdle)
+				&& Objects.equals(minIdle, other.minIdle) && Objects.equals(maxWaitMillis, other.maxWaitMillis)
+				&& Objects.equals(validationQuery, other.validationQuery)
+				&& Objects.equals(validationQueryTimeout, other.validationQueryTimeout)
+				&& Objects.equals(testOnBorrow, other.testOnBorrow)
+				&& Objects.equals(testWhileIdle, other.testWhileIdle)
+				&& Objects.equals(timeBetweenEvictionRunsMillis, other.timeBetweenEvictionRunsMillis)
+				&& Objects.equals(minEvictableIdleTimeMillis, other.minEvictableIdleTimeMillis)
+				&& Objects.equals(poolPreparedStatements, other.poolPreparedStatements)
+				&& Objects.equals(maxOpenPreparedStatements, other.maxOpenPreparedStatements);
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [maxTotal=" + maxTotal + ", maxIdle=" + maxIdle + ", minIdle="
+				+ minIdle + ", maxWaitMillis=" + maxWaitMillis + ", validationQuery=" + validationQuery
+				+ ", validationQueryTimeout=" + validationQueryTimeout + ", testOnBorrow=" + testOnBorrow
+				+ ", testWhileIdle=" + testWhileIdle + ", timeBetweenEvictionRunsMillis="
+				+ timeBetweenEvictionRunsMillis + ", minEvictableIdleTimeMillis=" + minEvictableIdleTimeMillis
+				+ ", poolPreparedStatements=" + poolPreparedStatements + ", maxOpenPreparedStatements="
+				+ maxOpenPreparedStatements + "]";
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection;
+
+import java.io.Serializable;
+
+/**
+ * 连接池统计信息。
+ * <p>
+ * 它对应一个{@linkplain ConnectionIdentity}的连接池，出于安全考虑，仅包含连接URL和用户名，不包含密码等其他连接参数。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionPoolStat implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 连接URL */
+	private String url;
+
+	/** 连接用户 */
+	private String user;
+
+	/** 是否使用连接池，为{@code false}表示驱动程序不兼容连接池，每次都新建连接 */
+	private boolean pooled;
+
+	/** 活跃（已借出）连接数 */
+	private int numActive;
+
+	/** 空闲连接数 */
+	private int numIdle;
+
+	/** 生效的连接池选项 */
+	private ConnectionPoolOption poolOption;
+
+	/** 是否正在排空：已被移除，等待活跃连接都归还后关闭 */
+	private boolean draining;
+
+	/** 最近访问时间 */
+	private long lastAccessTime;
+
+	public ConnectionPoolStat()
+	{
+		super();
+	}
+
+	public ConnectionPoolStat(String url, String user)
+	{
+		super();
+		this.url = url;
+		this.user = user;
+	}
+
+	public String getUrl()
+	{
+		return url;
+	}
+
+	public void setUrl(String url)
+	{
+		this.url = url;
+	}
+
+	public String getUser()
+	{
+		return user;
+	}
+
+	public void setUser(String user)
+	{
+		this.user = user;
+	}
+
+	public boolean isPooled()
+	{
+		return pooled;
+	}
+
+	public void setPooled(boolean pooled)
+	{
+		this.pooled = pooled;
+	}
+
+	public int getNumActive()
+	{
+		return numActive;
+	}
+
+	public void setNumActive(int numActive)
+	{
+		this.numActive = numActive;
+	}
+
+	public int getNumIdle()
+	{
+		return numIdle;
+	}
+
+	public void setNumIdle(int numIdle)
+	{
+		this.numIdle = numIdle;
+	}
+
+	public ConnectionPoolOption getPoolOption()
+	{
+		return poolOption;
+	}
+
+	public void setPoolOption(ConnectionPoolOption poolOption)
+	{
+		this.poolOption = poolOption;
+	}
+
+	public boolean isDraining()
+	{
+		return draining;
+	}
+
+	public void setDraining(boolean draining)
+	{
+		this.draining = draining;
+	}
+
+	public long getLastAccessTime()
+	{
+		return lastAccessTime;
+	}
+
+	public void setLastAccessTime(long lastAccessTime)
+	{
+		this.lastAccessTime = lastAccessTime;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [url=" + url + ", user=" + user + ", pooled=" + pooled
+				+ ", numActive=" + numActive + ", numIdle=" + numIdle + ", poolOption=" + poolOption + ", draining=" + draining
+				+ ", lastAccessTime=" + lastAccessTime + "]";
+	}
+}
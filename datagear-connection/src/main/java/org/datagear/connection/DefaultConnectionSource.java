@@ -7,6 +7,14 @@
 
 package org.datagear.connection;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.Driver;
@@ -14,35 +22,65 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.commons.dbcp2.ConnectionFactory;
 import org.apache.commons.dbcp2.DriverConnectionFactory;
-import org.checkerframework.checker.nullness.qual.NonNull;
-import org.checkerframework.checker.nullness.qual.Nullable;
+import org.datagear.util.IOUtil;
 import org.datagear.util.JDBCCompatiblity;
 import org.datagear.util.JdbcUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.RemovalCause;
-import com.github.benmanes.caffeine.cache.RemovalListener;
-
 /**
  * 默认{@linkplain ConnectionSource}实现。
  * <p>
- * 注意：此类实例不再使用后，应该调用。
+ * 它为每个{@linkplain ConnectionIdentity}创建一个内置连接池，连接池参数由{@linkplain #getDefaultPoolOption()}和
+ * {@linkplain ConnectionOption#getPoolOption()}合并而得，可通过{@linkplain #getPoolStats()}查看连接池实时统计信息。
+ * </p>
+ * <p>
+ * 内置连接池不限个数，但会定时回收：没有活跃连接且空闲超过{@linkplain #getPoolIdleTimeout()}的连接池将被关闭；
+ * 所有连接池的连接总数超过{@linkplain #getMaxTotalConnections()}时，将按照最近最少使用的顺序关闭没有活跃连接的连接池。
+ * 被移除但仍有活跃连接的连接池（比如连接池选项变更时）不会立即关闭，而是在其活跃连接都归还后再关闭。
+ * </p>
+ * <p>
+ * 对于{@linkplain #getConnection(ConnectionOption)}，此类会并发校验所有支持URL的驱动程序，并记住URL对应的首选驱动程序。
+ * 如果设置了{@linkplain #getPreferedDriverEntityFile()}，首选驱动程序映射表也会存储至此文件，重启后无需再次校验；
+ * 驱动程序变更时，仅失效受其影响的映射。
+ * </p>
+ * <p>
+ * 此类为每个{@linkplain ConnectionIdentity}维护一个{@linkplain ConnectionCircuitBreaker}：连续连接失败{@linkplain #getCircuitBreakerFailureThreshold()}次后熔断，
+ * 熔断期间获取连接将直接抛出{@linkplain ConnectionCircuitOpenException}，熔断{@linkplain #getCircuitBreakerOpenMillis()}后允许一次探测。
+ * 仅真正的建立连接失败才会计数，内置连接池耗尽等待超时不计数；对于{@linkplain #getConnection(ConnectionOption)}，所有候选驱动程序都失败才计为一次失败。
+ * </p>
+ * <p>
+ * 注意：此类实例不再使用后，应该调用{@linkplain #close()}。
  * </p>
  * 
  * @author datagear@163.com
@@ -52,18 +90,72 @@ public class DefaultConnectionSource implements ConnectionSource
 {
 	private static Logger LOGGER = LoggerFactory.getLogger(DefaultConnectionSource.class);
 
+	/** 首选驱动程序映射表存储文件中URL映射的名称前缀，其后为URL摘要，而非URL本身，因为URL中可能包含用户名、密码等敏感信息 */
+	protected static final String PREFERED_URL_PREFIX = "url.";
+
+	/** 首选驱动程序映射表存储文件中驱动程序指纹的名称前缀 */
+	protected static final String PREFERED_DRIVER_PREFIX = "driver.";
+
+	/** 等待校验驱动程序的任务队列容量 */
+	protected static final int DRIVER_PROBE_QUEUE_CAPACITY = 64;
+
 	private DriverEntityManager driverEntityManager;
 
 	private DriverChecker driverChecker = new SimpleDriverChecker();
 
 	private PropertiesProcessor propertiesProcessor = null;
 
-	private Cache<ConnectionIdentity, InternalDataSourceHolder> internalDataSourceCache;
+	/** 默认连接池选项 */
+	private ConnectionPoolOption defaultPoolOption = null;
+
+	/** 内置连接池空闲多少毫秒后可被回收，小于等于0表示不因空闲回收 */
+	private long poolIdleTimeout = 24 * 60 * 60 * 1000L;
+
+	/** 所有内置连接池的连接总数上限，小于等于0表示不限制 */
+	private int maxTotalConnections = 0;
+
+	/** 内置连接池回收检查间隔毫秒数 */
+	private long evictionInterval = 60 * 1000L;
+
+	private final ConcurrentMap<ConnectionIdentity, InternalDataSourceHolder> _internalDataSources = new ConcurrentHashMap<>();
+
+	/** 已移除但仍有活跃连接、等待排空后关闭的内置连接池 */
+	private final Queue<InternalDataSourceHolder> _drainingDataSources = new ConcurrentLinkedQueue<>();
+
+	private volatile ScheduledExecutorService _evictionExecutor = null;
+
+	private volatile boolean _closed = false;
+
+	/** 首选驱动程序映射表存储文件，为{@code null}表示不存储 */
+	private File preferedDriverEntityFile = null;
+
+	/** 校验驱动程序的超时毫秒数 */
+	private long driverProbeTimeout = 10 * 1000L;
+
+	/** 并发校验驱动程序的最大线程数 */
+	private int driverProbeThreads = 4;
 
 	private ConcurrentMap<String, PreferedDriverEntityResult> _urlPreferedDriverEntityMap = new ConcurrentHashMap<>();
 
+	/** 从存储文件加载、尚未被获取连接使用的首选驱动程序映射表：URL摘要 - 首选驱动程序 */
+	private ConcurrentMap<String, DriverEntity> _storedPreferedDriverEntityMap = new ConcurrentHashMap<>();
+
 	private volatile long _driverEntityManagerLastModified = -1;
 
+	/** 驱动程序指纹映射表：ID - 指纹 */
+	private Map<String, String> _driverEntityFingerprints = null;
+
+	private volatile ExecutorService _probeExecutor = null;
+
+	/** 熔断连续失败次数阈值，小于等于0表示不熔断 */
+	private int circuitBreakerFailureThreshold = 3;
+
+	/** 熔断持续毫秒数，之后允许一次探测 */
+	private long circuitBreakerOpenMillis = 30 * 1000L;
+
+	/** 存在失败记录的熔断器，连接成功后移除 */
+	private final ConcurrentMap<ConnectionIdentity, ConnectionCircuitBreaker> _circuitBreakers = new ConcurrentHashMap<>();
+
 	public DefaultConnectionSource()
 	{
 		this(null);
@@ -73,9 +165,6 @@ public class DefaultConnectionSource implements ConnectionSource
 	{
 		super();
 		this.driverEntityManager = driverEntityManager;
-		this.internalDataSourceCache = Caffeine.newBuilder().maximumSize(50)
-				.expireAfterAccess(60 * 24, TimeUnit.MINUTES)
-				.removalListener(new DriverBasicDataSourceRemovalListener()).build();
 	}
 
 	public DriverEntityManager getDriverEntityManager()
@@ -108,23 +197,160 @@ public class DefaultConnectionSource implements ConnectionSource
 		this.propertiesProcessor = propertiesProcessor;
 	}
 
-	protected Cache<ConnectionIdentity, InternalDataSourceHolder> getInternalDataSourceCache()
+	public ConnectionPoolOption getDefaultPoolOption()
+	{
+		return defaultPoolOption;
+	}
+
+	/**
+	 * 设置默认连接池选项。
+	 * <p>
+	 * 注意：修改默认连接池选项后，已创建的内置连接池将在下次获取连接时按照新选项重建。
+	 * </p>
+	 * 
+	 * @param defaultPoolOption
+	 *            允许为{@code null}，表示使用连接池库的默认值
+	 */
+	public void setDefaultPoolOption(ConnectionPoolOption defaultPoolOption)
+	{
+		this.defaultPoolOption = defaultPoolOption;
+	}
+
+	public File getPreferedDriverEntityFile()
+	{
+		return preferedDriverEntityFile;
+	}
+
+	/**
+	 * 设置首选驱动程序映射表存储文件。
+	 * <p>
+	 * 文件中仅存储URL摘要，不会存储URL本身。应在获取连接之前设置。
+	 * </p>
+	 * 
+	 * @param preferedDriverEntityFile
+	 *            为{@code null}表示不存储
+	 */
+	public void setPreferedDriverEntityFile(File preferedDriverEntityFile)
+	{
+		this.preferedDriverEntityFile = preferedDriverEntityFile;
+	}
+
+	public long getDriverProbeTimeout()
+	{
+		return driverProbeTimeout;
+	}
+
+	/**
+	 * 设置校验驱动程序的超时毫秒数，超时的驱动程序将被视为校验不通过。
+	 * 
+	 * @param driverProbeTimeout
+	 */
+	public void setDriverProbeTimeout(long driverProbeTimeout)
+	{
+		this.driverProbeTimeout = driverProbeTimeout;
+	}
+
+	public int getDriverProbeThreads()
+	{
+		return driverProbeThreads;
+	}
+
+	/**
+	 * 设置并发校验驱动程序的最大线程数。
+	 * <p>
+	 * 超时的校验可能一直占用线程（比如驱动程序不响应中断），此值限制了这种情况下的线程总数，线程都被占用时，后续的校验将排队等待。
+	 * 应在获取连接之前设置，之后设置将不起作用。
+	 * </p>
+	 * 
+	 * @param driverProbeThreads
+	 */
+	public void setDriverProbeThreads(int driverProbeThreads)
+	{
+		this.driverProbeThreads = driverProbeThreads;
+	}
+
+	public long getPoolIdleTimeout()
+	{
+		return poolIdleTimeout;
+	}
+
+	/**
+	 * 设置内置连接池空闲多少毫秒后可被回收。
+	 * 
+	 * @param poolIdleTimeout
+	 *            小于等于0表示不因空闲回收
+	 */
+	public void setPoolIdleTimeout(long poolIdleTimeout)
+	{
+		this.poolIdleTimeout = poolIdleTimeout;
+	}
+
+	public int getMaxTotalConnections()
+	{
+		return maxTotalConnections;
+	}
+
+	/**
+	 * 设置所有内置连接池的连接总数上限。
+	 * <p>
+	 * 这是一个软限制：超出时仅会关闭没有活跃连接的连接池，不会拒绝获取连接，也不会关闭正在使用的连接池。
+	 * </p>
+	 * 
+	 * @param maxTotalConnections
+	 *            小于等于0表示不限制
+	 */
+	public void setMaxTotalConnections(int maxTotalConnections)
+	{
+		this.maxTotalConnections = maxTotalConnections;
+	}
+
+	public long getEvictionInterval()
 	{
-		return this.internalDataSourceCache;
+		return evictionInterval;
 	}
 
 	/**
-	 * 设置内置数据源缓存。
+	 * 设置内置连接池回收检查间隔毫秒数。
 	 * <p>
-	 * 注意：设置的缓存应自己注册{@linkplain RemovalListener}负责关闭内置数据源。
+	 * 应在获取连接之前设置，之后设置将不起作用。
 	 * </p>
 	 * 
-	 * @param driverBasicDataSourceCache
+	 * @param evictionInterval
+	 */
+	public void setEvictionInterval(long evictionInterval)
+	{
+		this.evictionInterval = evictionInterval;
+	}
+
+	public int getCircuitBreakerFailureThreshold()
+	{
+		return circuitBreakerFailureThreshold;
+	}
+
+	/**
+	 * 设置熔断连续失败次数阈值。
+	 * 
+	 * @param circuitBreakerFailureThreshold
+	 *            小于等于0表示不熔断
+	 */
+	public void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold)
+	{
+		this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+	}
+
+	public long getCircuitBreakerOpenMillis()
+	{
+		return circuitBreakerOpenMillis;
+	}
+
+	/**
+	 * 设置熔断持续毫秒数，之后允许一次探测。
+	 * 
+	 * @param circuitBreakerOpenMillis
 	 */
-	protected void setInternalDataSourceCache(
-			Cache<ConnectionIdentity, InternalDataSourceHolder> internalDataSourceCache)
+	public void setCircuitBreakerOpenMillis(long circuitBreakerOpenMillis)
 	{
-		this.internalDataSourceCache = internalDataSourceCache;
+		this.circuitBreakerOpenMillis = circuitBreakerOpenMillis;
 	}
 
 	@Override
@@ -150,7 +376,96 @@ public class DefaultConnectionSource implements ConnectionSource
 	 */
 	public void close()
 	{
-		this.internalDataSourceCache.invalidateAll();
+		this._closed = true;
+
+		synchronized (this)
+		{
+			if (this._evictionExecutor != null)
+				this._evictionExecutor.shutdownNow();
+
+			if (this._probeExecutor != null)
+				this._probeExecutor.shutdownNow();
+		}
+
+		for (InternalDataSourceHolder holder : this._internalDataSources.values())
+		{
+			holder.setRetired(true);
+			closeInternalDataSource(holder);
+		}
+
+		this._internalDataSources.clear();
+		this._circuitBreakers.clear();
+
+		InternalDataSourceHolder draining = null;
+		while ((draining = this._drainingDataSources.poll()) != null)
+			closeInternalDataSource(draining);
+	}
+
+	/**
+	 * 获取所有内置连接池的实时统计信息。
+	 * 
+	 * @return
+	 */
+	public List<ConnectionPoolStat> getPoolStats()
+	{
+		List<ConnectionPoolStat> stats = new ArrayList<ConnectionPoolStat>(this._internalDataSources.size());
+
+		for (InternalDataSourceHolder holder : this._internalDataSources.values())
+			stats.add(toConnectionPoolStat(holder));
+
+		for (InternalDataSourceHolder holder : this._drainingDataSources)
+			stats.add(toConnectionPoolStat(holder));
+
+		return stats;
+	}
+
+	/**
+	 * 获取所有存在失败记录的连接熔断统计信息。
+	 * 
+	 * @return
+	 */
+	public List<ConnectionCircuitStat> getCircuitStats()
+	{
+		List<ConnectionCircuitStat> stats = new ArrayList<ConnectionCircuitStat>(this._circuitBreakers.size());
+
+		for (Map.Entry<ConnectionIdentity, ConnectionCircuitBreaker> entry : this._circuitBreakers.entrySet())
+		{
+			ConnectionIdentity connectionIdentity = entry.getKey();
+			Object user = connectionIdentity.getProperties().get(ConnectionOption.PROPERTY_NAME_USER);
+
+			ConnectionCircuitStat stat = new ConnectionCircuitStat(connectionIdentity.getUrl(),
+					(user == null ? null : user.toString()));
+			entry.getValue().fillStat(stat);
+
+			stats.add(stat);
+		}
+
+		return stats;
+	}
+
+	protected ConnectionPoolStat toConnectionPoolStat(InternalDataSourceHolder holder)
+	{
+		ConnectionIdentity connectionIdentity = holder.getConnectionIdentity();
+		Object user = connectionIdentity.getProperties().get(ConnectionOption.PROPERTY_NAME_USER);
+
+		ConnectionPoolStat stat = new ConnectionPoolStat(connectionIdentity.getUrl(),
+				(user == null ? null : user.toString()));
+		stat.setPoolOption(holder.getPoolOption());
+		stat.setDraining(holder.isRetired());
+		stat.setLastAccessTime(holder.getLastAccessTime());
+
+		DataSource dataSource = holder.getDataSource();
+
+		if (dataSource instanceof BasicDataSource)
+		{
+			BasicDataSource basicDataSource = (BasicDataSource) dataSource;
+
+			stat.setPooled(true);
+			stat.setNumActive(basicDataSource.getNumActive());
+			stat.setNumIdle(basicDataSource.getNumIdle());
+		}
+
+		return stat;
 	}
 
 	/**
@@ -165,30 +480,33 @@ public class DefaultConnectionSource implements ConnectionSource
 	protected Connection getPreferredConnection(ConnectionOption connectionOption)
 			throws UnsupportedGetConnectionException, ConnectionSourceException
 	{
-		if (this.driverEntityManager.getLastModified() > this._driverEntityManagerLastModified)
-		{
-			this._driverEntityManagerLastModified = this.driverEntityManager.getLastModified();
-			this._urlPreferedDriverEntityMap.clear();
-		}
+		refreshPreferedDriverEntities();
 
 		String url = connectionOption.getUrl();
 
 		PreferedDriverEntityResult preferedDriverEntityResult = this._urlPreferedDriverEntityMap.get(url);
 
+		if (preferedDriverEntityResult == null)
+			preferedDriverEntityResult = takeStoredPreferedDriverEntity(url);
+
 		if (preferedDriverEntityResult != null)
 		{
 			if (preferedDriverEntityResult.hasDriverEntity())
 			{
 				DriverEntity preferedDriverEntity = preferedDriverEntityResult.getDriverEntity();
+				Driver preferedDriver = getCachedPreferedDriver(url, preferedDriverEntityResult);
 
-				Driver preferedDriver = this.driverEntityManager.getDriver(preferedDriverEntity);
-				Connection preferedConnection = getConnection(preferedDriver, connectionOption);
+				// 为null表示缓存的首选驱动程序已失效，需重新查找
+				if (preferedDriver != null)
+				{
+					Connection preferedConnection = getConnection(preferedDriver, connectionOption);
 
-				if (LOGGER.isDebugEnabled())
-					LOGGER.debug("Get prefered connection by cached [" + preferedDriverEntity + "] for ["
-							+ connectionOption + "]");
+					if (LOGGER.isDebugEnabled())
+						LOGGER.debug("Get prefered connection by cached [" + preferedDriverEntity + "] for ["
+								+ connectionOption + "]");
 
-				return preferedConnection;
+					return preferedConnection;
+				}
 			}
 			else
 			{
@@ -200,6 +518,9 @@ public class DefaultConnectionSource implements ConnectionSource
 			}
 		}
 
+		ConnectionIdentity circuitIdentity = getCircuitIdentity(connectionOption);
+		ConnectionCircuitBreaker circuitBreaker = checkCircuitBreaker(circuitIdentity, connectionOption);
+
 		Connection preferedConnection = null;
 
 		List<DriverEntityDriver> accepted = new ArrayList<>();
@@ -219,10 +540,17 @@ public class DefaultConnectionSource implements ConnectionSource
 
 			try
 			{
-				preferedConnection = getConnection(driverEntityDriver.getDriver(), connectionOption);
+				preferedConnection = getConnectionWithoutCircuitBreaker(driverEntityDriver.getDriver(),
+						connectionOption);
+
+				recordCircuitSuccess(circuitIdentity, circuitBreaker);
 
-				this._urlPreferedDriverEntityMap.put(connectionOption.getUrl(),
-						new PreferedDriverEntityResult(driverEntity));
+				PreferedDriverEntityResult prev = this._urlPreferedDriverEntityMap.put(url,
+						new PreferedDriverEntityResult(driverEntity, true));
+
+				// 仅存储连接成功的，连接失败可能是数据库临时不可用等原因导致的
+				if (prev == null || !prev.isConfirmed() || !driverEntity.equals(prev.getDriverEntity()))
+					storePreferedDriverEntities();
 
 				break;
 			}
@@ -233,6 +561,9 @@ public class DefaultConnectionSource implements ConnectionSource
 					// 使用最后一个最为首选，这样下次获取时，可以使用缓存中的它，直接抛出异常供上层应用知晓，不用再查找一次
 					this._urlPreferedDriverEntityMap.put(url, new PreferedDriverEntityResult(driverEntity));
 
+					// 所有候选驱动程序都失败才计为一次连接失败，不应因为候选驱动程序不匹配而熔断
+					recordCircuitFailure(circuitIdentity, circuitBreaker, e);
+
 					// 抛出最后一个异常，供上层应用知晓
 					throw e;
 				}
@@ -247,6 +578,10 @@ public class DefaultConnectionSource implements ConnectionSource
 
 		if (preferedConnection == null)
 		{
+			// 没有进行任何连接尝试，应释放可能的探测机会
+			if (circuitBreaker != null)
+				circuitBreaker.cancelProbe();
+
 			this._urlPreferedDriverEntityMap.put(url, new PreferedDriverEntityResult());
 
 			throw new UnsupportedGetConnectionException(connectionOption);
@@ -255,6 +590,59 @@ public class DefaultConnectionSource implements ConnectionSource
 			return preferedConnection;
 	}
 
+	/**
+	 * 取出从存储文件加载的指定URL的首选驱动程序，并将其加入缓存。
+	 * 
+	 * @param url
+	 * @return 为{@code null}表示没有
+	 */
+	protected PreferedDriverEntityResult takeStoredPreferedDriverEntity(String url)
+	{
+		if (this._storedPreferedDriverEntityMap.isEmpty())
+			return null;
+
+		DriverEntity driverEntity = this._storedPreferedDriverEntityMap.remove(getPreferedUrlKey(url));
+
+		if (driverEntity == null)
+			return null;
+
+		PreferedDriverEntityResult result = new PreferedDriverEntityResult(driverEntity, true);
+		PreferedDriverEntityResult prev = this._urlPreferedDriverEntityMap.putIfAbsent(url, result);
+
+		return (prev != null ? prev : result);
+	}
+
+	/**
+	 * 获取缓存的首选驱动程序对应的{@linkplain Driver}。
+	 * <p>
+	 * 如果无法获取（比如驱动程序库已损坏），将从缓存中移除此映射，并返回{@code null}。
+	 * </p>
+	 * 
+	 * @param url
+	 * @param preferedDriverEntityResult
+	 * @return
+	 */
+	protected Driver getCachedPreferedDriver(String url, PreferedDriverEntityResult preferedDriverEntityResult)
+	{
+		DriverEntity driverEntity = preferedDriverEntityResult.getDriverEntity();
+
+		try
+		{
+			return this.driverEntityManager.getDriver(driverEntity);
+		}
+		catch (Throwable t)
+		{
+			if (LOGGER.isErrorEnabled())
+				LOGGER.error("Get Driver with cached prefered [" + driverEntity + "] error, invalidate it", t);
+
+			if (this._urlPreferedDriverEntityMap.remove(url, preferedDriverEntityResult)
+					&& preferedDriverEntityResult.isConfirmed())
+				storePreferedDriverEntities();
+
+			return null;
+		}
+	}
+
 	/**
 	 * 查找经过首选优先级排序接受和校验的{@linkplain DriverEntityDriver}列表。
 	 * <p>
@@ -301,27 +689,12 @@ public class DefaultConnectionSource implements ConnectionSource
 				}
 
 				if (accept)
-				{
-					DriverEntityDriver driverEntityDriver = new DriverEntityDriver(driverEntity, driver);
-
-					accepted.add(driverEntityDriver);
-
-					try
-					{
-						if (this.driverChecker.check(driver, connectionOption, true))
-							checked.add(driverEntityDriver);
-					}
-					catch (Throwable t)
-					{
-						if (LOGGER.isErrorEnabled())
-							LOGGER.error("Check if [" + driverEntity
-									+ "] 's driver checked for getting prefered connection for [" + connectionOption
-									+ "] error", t);
-					}
-				}
+					accepted.add(new DriverEntityDriver(driverEntity, driver));
 			}
 		}
 
+		checkDriverEntityDrivers(connectionOption, accepted, checked);
+
 		Comparator<DriverEntityDriver> comparator = new Comparator<DriverEntityDriver>()
 		{
 			@Override
@@ -343,88 +716,765 @@ public class DefaultConnectionSource implements ConnectionSource
 		Collections.sort(checked, comparator);
 	}
 
-	protected boolean acceptsURL(Driver driver, String url)
-	{
-		try
-		{
-			return driver.acceptsURL(url);
-		}
-		catch (SQLException e)
-		{
-			throw new ConnectionSourceException(e);
-		}
-	}
-
 	/**
-	 * 获取{@linkplain Connection}。
+	 * 校验驱动程序，将校验通过的加入{@code checked}。
+	 * <p>
+	 * 多个驱动程序时并发校验，超过{@linkplain #getDriverProbeTimeout()}仍未完成的将被视为校验不通过。
+	 * </p>
 	 * 
-	 * @param driver
 	 * @param connectionOption
-	 * @return
-	 * @throws EstablishConnectionException
-	 * @throws ConnectionSourceException
+	 * @param accepted
+	 * @param checked
 	 */
-	protected Connection getConnection(Driver driver, ConnectionOption connectionOption)
-			throws EstablishConnectionException, ConnectionSourceException
+	protected void checkDriverEntityDrivers(ConnectionOption connectionOption, List<DriverEntityDriver> accepted,
+			List<DriverEntityDriver> checked)
 	{
-		Properties properties = new Properties();
+		if (accepted.isEmpty())
+			return;
 
-		if (connectionOption.getProperties() != null)
-			properties.putAll(connectionOption.getProperties());
+		if (accepted.size() == 1)
+		{
+			DriverEntityDriver driverEntityDriver = accepted.get(0);
 
-		processConnectionProperties(driver, properties);
+			if (checkDriverEntityDriver(connectionOption, driverEntityDriver))
+				checked.add(driverEntityDriver);
 
-		try
-		{
-			return getConnection(driver, connectionOption.getUrl(), properties);
-		}
-		catch (SQLException | ExecutionException e)
-		{
-			throw new EstablishConnectionException(connectionOption, e);
-		}
-		catch (Throwable t)
-		{
-			throw new ConnectionSourceException(t);
+			return;
 		}
-	}
-
-	protected Connection getConnection(Driver driver, String url, Properties properties)
-			throws ExecutionException, SQLException, Throwable
-	{
-		ConnectionIdentity connectionIdentity = ConnectionIdentity.valueOf(url, properties);
 
-		Connection connection = null;
-		InternalDataSourceHolder dataSourceHolder = null;
+		ExecutorService executor = getProbeExecutor();
+		List<Future<Boolean>> futures = new ArrayList<>(accepted.size());
 
-		try
+		for (DriverEntityDriver driverEntityDriver : accepted)
 		{
-			dataSourceHolder = this.internalDataSourceCache.get(connectionIdentity,
-					new Function<ConnectionIdentity, InternalDataSourceHolder>()
-					{
-						@Override
-						public InternalDataSourceHolder apply(ConnectionIdentity key)
-						{
-							DataSource dataSource = createInternalDataSource(driver, url, properties);
-							InternalDataSourceHolder holder = new InternalDataSourceHolder();
-							holder.setDataSource(dataSource);
-
-							return holder;
-						}
-					});
+			Future<Boolean> future = null;
 
-			// 底层数据源无法支持此驱动时将会创建一个getDataSource()为null的InternalDataSourceHolder
-			if (!dataSourceHolder.hasDataSource())
+			try
 			{
-				connection = getConnectionWithoutInternalDataSource(driver, url, properties);
-
-				LOGGER.debug("Got a connection without internal DataSource for {}, "
-						+ "because the internal DataSource can not support this driver", connectionIdentity);
+				future = executor.submit(() -> checkDriverEntityDriver(connectionOption, driverEntityDriver));
 			}
-			else
+			catch (RejectedExecutionException e)
 			{
-				connection = dataSourceHolder.getDataSource().getConnection();
-
-				LOGGER.debug("Got a connection from the internal DataSource for {}", connectionIdentity);
+				if (LOGGER.isWarnEnabled())
+					LOGGER.warn("Check [" + driverEntityDriver.getDriverEntity() + "] for [" + connectionOption
+							+ "] rejected, too many pending checks");
+			}
+
+			futures.add(future);
+		}
+
+		long deadline = System.currentTimeMillis() + this.driverProbeTimeout;
+
+		for (int i = 0, len = accepted.size(); i < len; i++)
+		{
+			DriverEntityDriver driverEntityDriver = accepted.get(i);
+			Future<Boolean> future = futures.get(i);
+
+			// 被拒绝的视为校验不通过
+			if (future == null)
+				continue;
+
+			try
+			{
+				long timeout = Math.max(deadline - System.currentTimeMillis(), 0);
+
+				if (Boolean.TRUE.equals(future.get(timeout, TimeUnit.MILLISECONDS)))
+					checked.add(driverEntityDriver);
+			}
+			catch (TimeoutException e)
+			{
+				future.cancel(true);
+
+				if (LOGGER.isWarnEnabled())
+					LOGGER.warn("Check [" + driverEntityDriver.getDriverEntity() + "] for [" + connectionOption
+							+ "] timeout in " + this.driverProbeTimeout + "ms");
+			}
+			catch (InterruptedException e)
+			{
+				future.cancel(true);
+				Thread.currentThread().interrupt();
+			}
+			catch (ExecutionException e)
+			{
+				// checkDriverEntityDriver()不会抛出异常
+			}
+		}
+	}
+
+	/**
+	 * 校验单个驱动程序。
+	 * 
+	 * @param connectionOption
+	 * @param driverEntityDriver
+	 * @return
+	 */
+	protected boolean checkDriverEntityDriver(ConnectionOption connectionOption,
+			DriverEntityDriver driverEntityDriver)
+	{
+		try
+		{
+			return this.driverChecker.check(driverEntityDriver.getDriver(), connectionOption, true);
+		}
+		catch (Throwable t)
+		{
+			if (LOGGER.isErrorEnabled())
+				LOGGER.error("Check if [" + driverEntityDriver.getDriverEntity()
+						+ "] 's driver checked for getting prefered connection for [" + connectionOption + "] error",
+						t);
+
+			return false;
+		}
+	}
+
+	protected ExecutorService getProbeExecutor()
+	{
+		if (this._probeExecutor == null)
+		{
+			synchronized (this)
+			{
+				if (this._probeExecutor == null)
+				{
+					AtomicInteger threadCount = new AtomicInteger(0);
+					int threads = Math.max(this.driverProbeThreads, 1);
+
+					// 线程数有界，超时未结束的校验最多占用这些线程，线程都被占用时，新的校验排队，队列满时拒绝
+					ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+							new LinkedBlockingQueue<Runnable>(DRIVER_PROBE_QUEUE_CAPACITY), (r) ->
+							{
+								Thread thread = new Thread(r, DefaultConnectionSource.class.getSimpleName()
+										+ "-driverProbe-" + threadCount.incrementAndGet());
+								thread.setDaemon(true);
+								return thread;
+							}, new ThreadPoolExecutor.AbortPolicy());
+					executor.allowCoreThreadTimeOut(true);
+
+					this._probeExecutor = executor;
+				}
+			}
+		}
+
+		return this._probeExecutor;
+	}
+
+	/**
+	 * 驱动程序变更时，失效受影响的首选驱动程序映射；首次调用时，加载存储的首选驱动程序映射表。
+	 */
+	protected void refreshPreferedDriverEntities()
+	{
+		if (this.driverEntityManager.getLastModified() <= this._driverEntityManagerLastModified)
+			return;
+
+		synchronized (this._urlPreferedDriverEntityMap)
+		{
+			long lastModified = this.driverEntityManager.getLastModified();
+
+			if (lastModified <= this._driverEntityManagerLastModified)
+				return;
+
+			Map<String, String> fingerprints = getDriverEntityFingerprints();
+			Map<String, String> oldFingerprints = this._driverEntityFingerprints;
+
+			// 应在加载、失效之前设置，因为它们可能会存储首选驱动程序映射表
+			this._driverEntityFingerprints = fingerprints;
+
+			if (oldFingerprints == null)
+				loadPreferedDriverEntities(fingerprints);
+			else
+				invalidatePreferedDriverEntities(oldFingerprints, fingerprints);
+
+			this._driverEntityManagerLastModified = lastModified;
+		}
+	}
+
+	/**
+	 * 失效受驱动程序变更影响的首选驱动程序映射。
+	 * <p>
+	 * 受影响的映射包括：首选驱动程序被修改或删除的；没有首选驱动程序的；新增或修改的驱动程序支持其URL的（它可能成为新的首选）。
+	 * </p>
+	 * 
+	 * @param oldFingerprints
+	 * @param newFingerprints
+	 */
+	protected void invalidatePreferedDriverEntities(Map<String, String> oldFingerprints,
+			Map<String, String> newFingerprints)
+	{
+		Set<String> changedIds = new HashSet<>();
+		List<Driver> changedDrivers = new ArrayList<>();
+		boolean unknownChangedDriver = false;
+
+		for (Map.Entry<String, String> entry : oldFingerprints.entrySet())
+		{
+			if (!entry.getValue().equals(newFingerprints.get(entry.getKey())))
+				changedIds.add(entry.getKey());
+		}
+
+		for (Map.Entry<String, String> entry : newFingerprints.entrySet())
+		{
+			if (entry.getValue().equals(oldFingerprints.get(entry.getKey())))
+				continue;
+
+			changedIds.add(entry.getKey());
+
+			try
+			{
+				changedDrivers.add(this.driverEntityManager.getDriver(this.driverEntityManager.get(entry.getKey())));
+			}
+			catch (Throwable t)
+			{
+				unknownChangedDriver = true;
+			}
+		}
+
+		if (changedIds.isEmpty())
+			return;
+
+		boolean anyChangedDriver = (unknownChangedDriver || !changedDrivers.isEmpty());
+		int invalidated = 0;
+
+		for (Iterator<Map.Entry<String, PreferedDriverEntityResult>> it = this._urlPreferedDriverEntityMap.entrySet()
+				.iterator(); it.hasNext();)
+		{
+			Map.Entry<String, PreferedDriverEntityResult> entry = it.next();
+			PreferedDriverEntityResult result = entry.getValue();
+
+			boolean invalid = false;
+
+			if (!result.hasDriverEntity())
+				invalid = anyChangedDriver;
+			else if (changedIds.contains(result.getDriverEntity().getId()))
+				invalid = true;
+			else if (unknownChangedDriver)
+				invalid = true;
+			else
+			{
+				for (Driver driver : changedDrivers)
+				{
+					try
+					{
+						if (driver.acceptsURL(entry.getKey()))
+						{
+							invalid = true;
+							break;
+						}
+					}
+					catch (Throwable t)
+					{
+						invalid = true;
+						break;
+					}
+				}
+			}
+
+			if (invalid)
+			{
+				it.remove();
+				invalidated++;
+			}
+		}
+
+		// 存储的映射仅有URL摘要，无法校验驱动程序是否支持其URL，只要有驱动程序变更即失效
+		for (Iterator<DriverEntity> it = this._storedPreferedDriverEntityMap.values().iterator(); it.hasNext();)
+		{
+			DriverEntity driverEntity = it.next();
+
+			if (anyChangedDriver || changedIds.contains(driverEntity.getId()))
+			{
+				it.remove();
+				invalidated++;
+			}
+		}
+
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("Invalidate " + invalidated + " prefered driver entity mappings for changed driver entities "
+					+ changedIds);
+
+		if (invalidated > 0)
+			storePreferedDriverEntities();
+	}
+
+	/**
+	 * 获取所有驱动程序的指纹映射表。
+	 * 
+	 * @return
+	 */
+	protected Map<String, String> getDriverEntityFingerprints()
+	{
+		List<DriverEntity> driverEntities = this.driverEntityManager.getAll();
+		Map<String, String> fingerprints = new HashMap<>();
+
+		for (DriverEntity driverEntity : driverEntities)
+			fingerprints.put(driverEntity.getId(), getDriverEntityFingerprint(driverEntity));
+
+		return fingerprints;
+	}
+
+	/**
+	 * 获取驱动程序指纹，驱动类名或者驱动库变更时，指纹也会改变。
+	 * 
+	 * @param driverEntity
+	 * @return
+	 */
+	protected String getDriverEntityFingerprint(DriverEntity driverEntity)
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(driverEntity.getDriverClassName());
+
+		try
+		{
+			List<DriverLibraryInfo> libraryInfos = new ArrayList<>(
+					this.driverEntityManager.getDriverLibraryInfos(driverEntity));
+
+			Collections.sort(libraryInfos, new Comparator<DriverLibraryInfo>()
+			{
+				@Override
+				public int compare(DriverLibraryInfo o1, DriverLibraryInfo o2)
+				{
+					return o1.getName().compareTo(o2.getName());
+				}
+			});
+
+			for (DriverLibraryInfo libraryInfo : libraryInfos)
+				sb.append('|').append(libraryInfo.getName()).append(':').append(libraryInfo.getSize());
+		}
+		catch (Throwable t)
+		{
+			sb.append("|?");
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * 加载存储的首选驱动程序映射表，驱动程序已不存在或者指纹不匹配的映射将被忽略。
+	 * 
+	 * @param fingerprints
+	 */
+	protected void loadPreferedDriverEntities(Map<String, String> fingerprints)
+	{
+		File file = this.preferedDriverEntityFile;
+
+		if (file == null || !file.exists())
+			return;
+
+		Properties properties = new Properties();
+
+		Reader reader = null;
+		try
+		{
+			reader = IOUtil.getReader(file, IOUtil.CHARSET_UTF_8);
+			properties.load(reader);
+		}
+		catch (IOException e)
+		{
+			LOGGER.error("Load prefered driver entities from " + file + " error", e);
+			return;
+		}
+		finally
+		{
+			IOUtil.close(reader);
+		}
+
+		int loaded = 0;
+		boolean legacy = false;
+
+		for (String name : properties.stringPropertyNames())
+		{
+			if (!name.startsWith(PREFERED_URL_PREFIX))
+				continue;
+
+			String urlKey = name.substring(PREFERED_URL_PREFIX.length());
+
+			// 旧版本存储的是URL本身，转换为摘要，并在加载后重新存储，以清除其中可能包含的敏感信息
+			if (!isPreferedUrlKey(urlKey))
+			{
+				urlKey = getPreferedUrlKey(urlKey);
+				legacy = true;
+			}
+
+			String driverEntityId = properties.getProperty(name);
+			String fingerprint = properties.getProperty(PREFERED_DRIVER_PREFIX + driverEntityId);
+
+			if (fingerprint == null || !fingerprint.equals(fingerprints.get(driverEntityId)))
+				continue;
+
+			DriverEntity driverEntity = this.driverEntityManager.get(driverEntityId);
+
+			if (driverEntity != null)
+			{
+				this._storedPreferedDriverEntityMap.putIfAbsent(urlKey, driverEntity);
+				loaded++;
+			}
+		}
+
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("Load " + loaded + " prefered driver entity mappings from " + file);
+
+		if (legacy)
+			storePreferedDriverEntities();
+	}
+
+	/**
+	 * 获取首选驱动程序映射表存储文件中URL映射的URL摘要。
+	 * 
+	 * @param url
+	 * @return
+	 */
+	protected String getPreferedUrlKey(String url)
+	{
+		byte[] digest = null;
+
+		try
+		{
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			digest = messageDigest.digest(url.trim().getBytes(StandardCharsets.UTF_8));
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+
+		StringBuilder sb = new StringBuilder(digest.length * 2);
+
+		for (byte b : digest)
+		{
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * 判断是否是{@linkplain #getPreferedUrlKey(String)}返回的URL摘要。
+	 * 
+	 * @param urlKey
+	 * @return
+	 */
+	protected boolean isPreferedUrlKey(String urlKey)
+	{
+		if (urlKey.length() != 64)
+			return false;
+
+		for (int i = 0, len = urlKey.length(); i < len; i++)
+		{
+			if (Character.digit(urlKey.charAt(i), 16) < 0)
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * 存储首选驱动程序映射表，仅存储连接成功确认的映射。
+	 */
+	protected void storePreferedDriverEntities()
+	{
+		File file = this.preferedDriverEntityFile;
+
+		if (file == null)
+			return;
+
+		synchronized (file)
+		{
+			Map<String, String> fingerprints = this._driverEntityFingerprints;
+			Properties properties = new Properties();
+
+			for (Map.Entry<String, PreferedDriverEntityResult> entry : this._urlPreferedDriverEntityMap.entrySet())
+			{
+				PreferedDriverEntityResult result = entry.getValue();
+
+				if (!result.hasDriverEntity() || !result.isConfirmed())
+					continue;
+
+				String driverEntityId = result.getDriverEntity().getId();
+				String fingerprint = (fingerprints == null ? null : fingerprints.get(driverEntityId));
+
+				if (fingerprint == null)
+					continue;
+
+				properties.setProperty(PREFERED_URL_PREFIX + getPreferedUrlKey(entry.getKey()), driverEntityId);
+				properties.setProperty(PREFERED_DRIVER_PREFIX + driverEntityId, fingerprint);
+			}
+
+			// 尚未被获取连接使用的也需存储，不然重启后将丢失
+			for (Map.Entry<String, DriverEntity> entry : this._storedPreferedDriverEntityMap.entrySet())
+			{
+				String driverEntityId = entry.getValue().getId();
+				String fingerprint = (fingerprints == null ? null : fingerprints.get(driverEntityId));
+
+				if (fingerprint == null)
+					continue;
+
+				properties.setProperty(PREFERED_URL_PREFIX + entry.getKey(), driverEntityId);
+				properties.setProperty(PREFERED_DRIVER_PREFIX + driverEntityId, fingerprint);
+			}
+
+			try
+			{
+				IOUtil.writeAtomically(file, new IOUtil.StreamWriter()
+				{
+					@Override
+					public void write(OutputStream out) throws IOException
+					{
+						Writer writer = IOUtil.getWriter(out, IOUtil.CHARSET_UTF_8);
+						properties.store(writer, "URL - prefered driver entity mappings");
+						writer.flush();
+					}
+				});
+			}
+			catch (IOException e)
+			{
+				LOGGER.error("Store prefered driver entities to " + file + " error", e);
+			}
+		}
+	}
+
+	protected boolean acceptsURL(Driver driver, String url)
+	{
+		try
+		{
+			return driver.acceptsURL(url);
+		}
+		catch (SQLException e)
+		{
+			throw new ConnectionSourceException(e);
+		}
+	}
+
+	/**
+	 * 获取{@linkplain Connection}。
+	 * 
+	 * @param driver
+	 * @param connectionOption
+	 * @return
+	 * @throws EstablishConnectionException
+	 * @throws ConnectionSourceException
+	 */
+	protected Connection getConnection(Driver driver, ConnectionOption connectionOption)
+			throws EstablishConnectionException, ConnectionSourceException
+	{
+		ConnectionIdentity circuitIdentity = getCircuitIdentity(connectionOption);
+		ConnectionCircuitBreaker circuitBreaker = checkCircuitBreaker(circuitIdentity, connectionOption);
+
+		try
+		{
+			Connection connection = getConnectionWithoutCircuitBreaker(driver, connectionOption);
+			recordCircuitSuccess(circuitIdentity, circuitBreaker);
+
+			return connection;
+		}
+		catch (ConnectionSourceException e)
+		{
+			recordCircuitFailure(circuitIdentity, circuitBreaker, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * 获取{@linkplain Connection}，不检查也不记录{@linkplain ConnectionCircuitBreaker}。
+	 * 
+	 * @param driver
+	 * @param connectionOption
+	 * @return
+	 * @throws EstablishConnectionException
+	 * @throws ConnectionSourceException
+	 */
+	protected Connection getConnectionWithoutCircuitBreaker(Driver driver, ConnectionOption connectionOption)
+			throws EstablishConnectionException, ConnectionSourceException
+	{
+		Properties properties = new Properties();
+
+		if (connectionOption.getProperties() != null)
+			properties.putAll(connectionOption.getProperties());
+
+		processConnectionProperties(driver, properties);
+
+		ConnectionPoolOption poolOption = connectionOption.getPoolOption();
+		poolOption = (poolOption == null ? this.defaultPoolOption : poolOption.merge(this.defaultPoolOption));
+
+		try
+		{
+			return getConnection(driver, connectionOption.getUrl(), properties, poolOption);
+		}
+		catch (SQLException | ExecutionException e)
+		{
+			throw new EstablishConnectionException(connectionOption, e);
+		}
+		catch (Throwable t)
+		{
+			throw new ConnectionSourceException(t);
+		}
+	}
+
+	protected ConnectionIdentity getCircuitIdentity(ConnectionOption connectionOption)
+	{
+		return ConnectionIdentity.valueOf(connectionOption.getUrl(),
+				(connectionOption.getProperties() == null ? new Properties() : connectionOption.getProperties()));
+	}
+
+	/**
+	 * 检查{@linkplain ConnectionCircuitBreaker}，处于熔断期间时抛出{@linkplain ConnectionCircuitOpenException}。
+	 * 
+	 * @param circuitIdentity
+	 * @param connectionOption
+	 * @return 没有失败记录时返回{@code null}
+	 * @throws ConnectionCircuitOpenException
+	 */
+	protected ConnectionCircuitBreaker checkCircuitBreaker(ConnectionIdentity circuitIdentity,
+			ConnectionOption connectionOption) throws ConnectionCircuitOpenException
+	{
+		ConnectionCircuitBreaker circuitBreaker = this._circuitBreakers.get(circuitIdentity);
+
+		if (circuitBreaker != null && !circuitBreaker.allowRequest())
+			throw new ConnectionCircuitOpenException(connectionOption, circuitBreaker.getRemainingOpenMillis(),
+					getLastErrorMessage(circuitBreaker));
+
+		return circuitBreaker;
+	}
+
+	/**
+	 * 记录一次连接成功。
+	 * 
+	 * @param circuitIdentity
+	 * @param circuitBreaker
+	 *            允许为{@code null}
+	 */
+	protected void recordCircuitSuccess(ConnectionIdentity circuitIdentity, ConnectionCircuitBreaker circuitBreaker)
+	{
+		if (circuitBreaker != null)
+		{
+			circuitBreaker.recordSuccess();
+			this._circuitBreakers.remove(circuitIdentity, circuitBreaker);
+		}
+	}
+
+	/**
+	 * 记录一次连接失败，当{@linkplain #getCircuitBreakerFailureThreshold()}小于等于0时不记录。
+	 * <p>
+	 * 仅{@linkplain EstablishConnectionException}计为连接失败，内置连接池耗尽等待超时不计数，因为此时数据库是可达的。
+	 * </p>
+	 * 
+	 * @param circuitIdentity
+	 * @param circuitBreaker
+	 *            允许为{@code null}
+	 * @param e
+	 */
+	protected void recordCircuitFailure(ConnectionIdentity circuitIdentity, ConnectionCircuitBreaker circuitBreaker,
+			ConnectionSourceException e)
+	{
+		if (this.circuitBreakerFailureThreshold <= 0)
+			return;
+
+		if (isPoolExhausted(e))
+		{
+			if (circuitBreaker != null)
+				circuitBreaker.cancelProbe();
+
+			return;
+		}
+
+		// 探测请求出现其他异常时也应重新熔断，避免一直处于探测状态
+		if (!(e instanceof EstablishConnectionException) && circuitBreaker == null)
+			return;
+
+		if (circuitBreaker == null)
+		{
+			circuitBreaker = new ConnectionCircuitBreaker(this.circuitBreakerFailureThreshold,
+					this.circuitBreakerOpenMillis);
+			ConnectionCircuitBreaker prev = this._circuitBreakers.putIfAbsent(circuitIdentity, circuitBreaker);
+			if (prev != null)
+				circuitBreaker = prev;
+		}
+
+		Throwable cause = (e.getCause() == null ? e : e.getCause());
+		circuitBreaker.recordFailure(
+				(cause instanceof ExecutionException && cause.getCause() != null) ? cause.getCause() : cause);
+
+		if (LOGGER.isDebugEnabled() && ConnectionCircuitBreaker.State.OPEN.equals(circuitBreaker.getState()))
+			LOGGER.debug("Connection circuit is open for [" + circuitIdentity.getUrl() + "]");
+	}
+
+	/**
+	 * 是否是内置连接池耗尽等待超时异常。
+	 * 
+	 * @param t
+	 * @return
+	 */
+	protected boolean isPoolExhausted(Throwable t)
+	{
+		while (t != null)
+		{
+			if (t instanceof NoSuchElementException)
+			{
+				String message = t.getMessage();
+
+				// 参考commons-pool2的GenericObjectPool.borrowObject()
+				if (message != null
+						&& (message.contains("Timeout waiting for idle object") || message.contains("Pool exhausted")))
+					return true;
+			}
+
+			t = (t.getCause() == t ? null : t.getCause());
+		}
+
+		return false;
+	}
+
+	protected String getLastErrorMessage(ConnectionCircuitBreaker circuitBreaker)
+	{
+		ConnectionCircuitStat stat = new ConnectionCircuitStat();
+		circuitBreaker.fillStat(stat);
+
+		return stat.getLastErrorMessage();
+	}
+
+	protected Connection getConnection(Driver driver, String url, Properties properties)
+			throws ExecutionException, SQLException, Throwable
+	{
+		return getConnection(driver, url, properties, this.defaultPoolOption);
+	}
+
+	/**
+	 * 获取{@linkplain Connection}。
+	 * <p>
+	 * 相同{@linkplain ConnectionIdentity}共享一个内置连接池，如果{@code poolOption}与已创建连接池的选项不同，连接池将被重建。
+	 * </p>
+	 * 
+	 * @param driver
+	 * @param url
+	 * @param properties
+	 * @param poolOption
+	 *            允许为{@code null}
+	 * @return
+	 * @throws ExecutionException
+	 * @throws SQLException
+	 * @throws Throwable
+	 */
+	protected Connection getConnection(Driver driver, String url, Properties properties,
+			ConnectionPoolOption poolOption) throws ExecutionException, SQLException, Throwable
+	{
+		ConnectionIdentity connectionIdentity = ConnectionIdentity.valueOf(url, properties);
+
+		Connection connection = null;
+		InternalDataSourceHolder dataSourceHolder = null;
+
+		try
+		{
+			dataSourceHolder = getInternalDataSourceHolder(connectionIdentity, driver, url, properties, poolOption);
+
+			try
+			{
+				connection = getConnection(dataSourceHolder, driver, url, properties);
+			}
+			catch (SQLException e)
+			{
+				// 内置数据源可能恰好被回收关闭了，此时应重新获取
+				if (!dataSourceHolder.isRetired())
+					throw e;
+
+				dataSourceHolder = getInternalDataSourceHolder(connectionIdentity, driver, url, properties,
+						poolOption);
+				connection = getConnection(dataSourceHolder, driver, url, properties);
 			}
 		}
 		catch (Throwable t)
@@ -433,7 +1483,9 @@ public class DefaultConnectionSource implements ConnectionSource
 					+ "，所以在这里采取降级策略：抛弃底层数据源，改为直接新建连接。"
 					+ "需要注意的是，这里的异常也可能是由其他原因导致的（比如连接参数错误等），因此，只有在直接新建连接成功之后，才能断定是底层数据源不兼容的问题。")
 
-			boolean throwByDataSource = (dataSourceHolder != null && dataSourceHolder.hasDataSource());
+			// 连接池耗尽等待超时不是底层数据源不兼容导致的，不应降级
+			boolean throwByDataSource = (dataSourceHolder != null && dataSourceHolder.hasDataSource()
+					&& !isPoolExhausted(t));
 
 			if (!throwByDataSource)
 			{
@@ -450,10 +1502,15 @@ public class DefaultConnectionSource implements ConnectionSource
 				{
 					connection = getConnectionWithoutInternalDataSource(driver, url, properties);
 
-					InternalDataSourceHolder nonDataSourceHolder = new InternalDataSourceHolder();
+					InternalDataSourceHolder nonDataSourceHolder = new InternalDataSourceHolder(connectionIdentity);
 					nonDataSourceHolder.setDataSource(null);
-					this.internalDataSourceCache.invalidate(connectionIdentity);
-					this.internalDataSourceCache.put(connectionIdentity, nonDataSourceHolder);
+					nonDataSourceHolder.setPoolOption(poolOption);
+					nonDataSourceHolder.setLastAccessTime(System.currentTimeMillis());
+
+					InternalDataSourceHolder prev = this._internalDataSources.put(connectionIdentity,
+							nonDataSourceHolder);
+					if (prev != null)
+						retireInternalDataSource(prev);
 
 					LOGGER.debug(
 							"Get connection success without internal DataSource for {}, "
@@ -477,6 +1534,94 @@ public class DefaultConnectionSource implements ConnectionSource
 		return connection;
 	}
 
+	/**
+	 * 从{@linkplain InternalDataSourceHolder}获取连接。
+	 * 
+	 * @param dataSourceHolder
+	 * @param driver
+	 * @param url
+	 * @param properties
+	 * @return
+	 * @throws SQLException
+	 * @throws Throwable
+	 */
+	protected Connection getConnection(InternalDataSourceHolder dataSourceHolder, Driver driver, String url,
+			Properties properties) throws SQLException, Throwable
+	{
+		Connection connection = null;
+
+		// 底层数据源无法支持此驱动时将会创建一个getDataSource()为null的InternalDataSourceHolder
+		if (!dataSourceHolder.hasDataSource())
+		{
+			connection = getConnectionWithoutInternalDataSource(driver, url, properties);
+
+			LOGGER.debug("Got a connection without internal DataSource for {}, "
+					+ "because the internal DataSource can not support this driver",
+					dataSourceHolder.getConnectionIdentity());
+		}
+		else
+		{
+			connection = dataSourceHolder.getDataSource().getConnection();
+
+			LOGGER.debug("Got a connection from the internal DataSource for {}",
+					dataSourceHolder.getConnectionIdentity());
+		}
+
+		return connection;
+	}
+
+	/**
+	 * 获取内置数据源，没有则创建。
+	 * <p>
+	 * 相同{@linkplain ConnectionIdentity}共享一个内置连接池，如果{@code poolOption}与已创建连接池的选项不同，原连接池将被排空关闭，并重建一个。
+	 * </p>
+	 * 
+	 * @param connectionIdentity
+	 * @param driver
+	 * @param url
+	 * @param properties
+	 * @param poolOption
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected InternalDataSourceHolder getInternalDataSourceHolder(ConnectionIdentity connectionIdentity,
+			Driver driver, String url, Properties properties, ConnectionPoolOption poolOption)
+	{
+		InternalDataSourceHolder holder = this._internalDataSources.get(connectionIdentity);
+
+		// 连接池选项已变更，需重建
+		if (holder != null && holder.hasDataSource() && !Objects.equals(holder.getPoolOption(), poolOption))
+		{
+			removeInternalDataSource(connectionIdentity, holder);
+			holder = null;
+
+			LOGGER.debug("Recreate internal data source for {} because pool option changed", connectionIdentity);
+		}
+
+		if (holder == null)
+		{
+			// 内置数据源是延迟初始化的，在这里创建不会有连接开销
+			InternalDataSourceHolder created = new InternalDataSourceHolder(connectionIdentity);
+			created.setDataSource(createInternalDataSource(driver, url, properties, poolOption));
+			created.setPoolOption(poolOption);
+			created.setLastAccessTime(System.currentTimeMillis());
+
+			holder = this._internalDataSources.putIfAbsent(connectionIdentity, created);
+
+			if (holder == null)
+			{
+				holder = created;
+				startEvictionIfNot();
+			}
+			else
+				closeInternalDataSource(created);
+		}
+
+		holder.setLastAccessTime(System.currentTimeMillis());
+
+		return holder;
+	}
+
 	protected Connection getConnectionWithoutInternalDataSource(Driver driver, String url, Properties properties)
 			throws Throwable
 	{
@@ -484,14 +1629,240 @@ public class DefaultConnectionSource implements ConnectionSource
 	}
 
 	protected DataSource createInternalDataSource(Driver driver, String url, Properties properties)
+	{
+		return createInternalDataSource(driver, url, properties, this.defaultPoolOption);
+	}
+
+	protected DataSource createInternalDataSource(Driver driver, String url, Properties properties,
+			ConnectionPoolOption poolOption)
 	{
 		DriverBasicDataSource re = new DriverBasicDataSource(driver, url, properties);
 
-		LOGGER.debug("Create internal data source for {}", ConnectionIdentity.valueOf(url, properties));
+		if (poolOption != null)
+			configInternalDataSource(re, poolOption);
+
+		LOGGER.debug("Create internal data source for {} with {}", ConnectionIdentity.valueOf(url, properties),
+				poolOption);
 
 		return re;
 	}
 
+	/**
+	 * 将连接池选项设置到内置数据源。
+	 * 
+	 * @param dataSource
+	 * @param poolOption
+	 */
+	protected void configInternalDataSource(BasicDataSource dataSource, ConnectionPoolOption poolOption)
+	{
+		if (poolOption.getMaxTotal() != null)
+			dataSource.setMaxTotal(poolOption.getMaxTotal());
+		if (poolOption.getMaxIdle() != null)
+			dataSource.setMaxIdle(poolOption.getMaxIdle());
+		if (poolOption.getMinIdle() != null)
+			dataSource.setMinIdle(poolOption.getMinIdle());
+		if (poolOption.getMaxWaitMillis() != null)
+			dataSource.setMaxWaitMillis(poolOption.getMaxWaitMillis());
+		if (poolOption.getValidationQuery() != null && !poolOption.getValidationQuery().isEmpty())
+			dataSource.setValidationQuery(poolOption.getValidationQuery());
+		if (poolOption.getValidationQueryTimeout() != null)
+			dataSource.setValidationQueryTimeout(poolOption.getValidationQueryTimeout());
+		if (poolOption.getTestOnBorrow() != null)
+			dataSource.setTestOnBorrow(poolOption.getTestOnBorrow());
+		if (poolOption.getTestWhileIdle() != null)
+			dataSource.setTestWhileIdle(poolOption.getTestWhileIdle());
+		if (poolOption.getTimeBetweenEvictionRunsMillis() != null)
+			dataSource.setTimeBetweenEvictionRunsMillis(poolOption.getTimeBetweenEvictionRunsMillis());
+		if (poolOption.getMinEvictableIdleTimeMillis() != null)
+			dataSource.setMinEvictableIdleTimeMillis(poolOption.getMinEvictableIdleTimeMillis());
+		if (poolOption.getPoolPreparedStatements() != null)
+			dataSource.setPoolPreparedStatements(poolOption.getPoolPreparedStatements());
+		if (poolOption.getMaxOpenPreparedStatements() != null)
+			dataSource.setMaxOpenPreparedStatements(poolOption.getMaxOpenPreparedStatements());
+	}
+
+	/**
+	 * 如果未启动内置连接池回收任务，则启动。
+	 */
+	protected void startEvictionIfNot()
+	{
+		if (this._evictionExecutor != null || this._closed)
+			return;
+
+		synchronized (this)
+		{
+			if (this._evictionExecutor != null || this._closed)
+				return;
+
+			ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor((r) ->
+			{
+				Thread thread = new Thread(r, DefaultConnectionSource.class.getSimpleName() + "-evictor");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			long interval = Math.max(this.evictionInterval, 1000L);
+
+			executor.scheduleWithFixedDelay(() ->
+			{
+				try
+				{
+					evictInternalDataSources();
+				}
+				catch (Throwable t)
+				{
+					LOGGER.error("Evict internal data sources error", t);
+				}
+			}, interval, interval, TimeUnit.MILLISECONDS);
+
+			this._evictionExecutor = executor;
+		}
+	}
+
+	/**
+	 * 回收内置连接池。
+	 * <p>
+	 * 它依次执行：关闭已排空的连接池；关闭没有活跃连接且空闲超时的连接池；连接总数超限时，按照最近最少使用的顺序关闭没有活跃连接的连接池。
+	 * </p>
+	 */
+	protected void evictInternalDataSources()
+	{
+		closeDrainedDataSources();
+
+		long now = System.currentTimeMillis();
+
+		if (this.poolIdleTimeout > 0)
+		{
+			for (Map.Entry<ConnectionIdentity, InternalDataSourceHolder> entry : this._internalDataSources.entrySet())
+			{
+				InternalDataSourceHolder holder = entry.getValue();
+
+				if (holder.getNumActive() == 0 && (now - holder.getLastAccessTime()) >= this.poolIdleTimeout)
+				{
+					if (removeInternalDataSource(entry.getKey(), holder))
+						LOGGER.debug("Evict idle internal data source for {}", entry.getKey());
+				}
+			}
+		}
+
+		if (this.maxTotalConnections > 0)
+		{
+			List<InternalDataSourceHolder> holders = new ArrayList<>(this._internalDataSources.values());
+
+			int totalConnections = 0;
+			for (InternalDataSourceHolder holder : holders)
+				totalConnections += holder.getNumActive() + holder.getNumIdle();
+			for (InternalDataSourceHolder holder : this._drainingDataSources)
+				totalConnections += holder.getNumActive() + holder.getNumIdle();
+
+			if (totalConnections > this.maxTotalConnections)
+			{
+				Collections.sort(holders, new Comparator<InternalDataSourceHolder>()
+				{
+					@Override
+					public int compare(InternalDataSourceHolder o1, InternalDataSourceHolder o2)
+					{
+						return Long.compare(o1.getLastAccessTime(), o2.getLastAccessTime());
+					}
+				});
+
+				for (InternalDataSourceHolder holder : holders)
+				{
+					if (totalConnections <= this.maxTotalConnections)
+						break;
+
+					int numIdle = holder.getNumIdle();
+
+					if (holder.getNumActive() == 0 && numIdle > 0
+							&& removeInternalDataSource(holder.getConnectionIdentity(), holder))
+					{
+						totalConnections -= numIdle;
+
+						LOGGER.debug("Evict internal data source for {} because total connections exceed {}",
+								holder.getConnectionIdentity(), this.maxTotalConnections);
+					}
+				}
+
+				if (totalConnections > this.maxTotalConnections)
+					LOGGER.warn("Total connections {} of all internal data sources exceed {}, "
+							+ "but the rest are in use and can not be evicted", totalConnections,
+							this.maxTotalConnections);
+			}
+		}
+	}
+
+	/**
+	 * 移除内置数据源，之后将其排空关闭。
+	 * 
+	 * @param connectionIdentity
+	 * @param holder
+	 * @return 是否移除成功，{@code false}表示已被其他线程移除或替换
+	 */
+	protected boolean removeInternalDataSource(ConnectionIdentity connectionIdentity, InternalDataSourceHolder holder)
+	{
+		if (!this._internalDataSources.remove(connectionIdentity, holder))
+			return false;
+
+		retireInternalDataSource(holder);
+
+		return true;
+	}
+
+	/**
+	 * 停用已移除的内置数据源：没有活跃连接时立即关闭，否则等待活跃连接都归还后再关闭。
+	 * 
+	 * @param holder
+	 */
+	protected void retireInternalDataSource(InternalDataSourceHolder holder)
+	{
+		holder.setRetired(true);
+
+		if (holder.getNumActive() > 0 && !this._closed)
+		{
+			this._drainingDataSources.add(holder);
+
+			LOGGER.debug("Drain internal data source for {}", holder.getConnectionIdentity());
+		}
+		else
+			closeInternalDataSource(holder);
+	}
+
+	/**
+	 * 关闭已排空的内置数据源。
+	 */
+	protected void closeDrainedDataSources()
+	{
+		for (Iterator<InternalDataSourceHolder> it = this._drainingDataSources.iterator(); it.hasNext();)
+		{
+			InternalDataSourceHolder holder = it.next();
+
+			if (holder.getNumActive() == 0)
+			{
+				it.remove();
+				closeInternalDataSource(holder);
+			}
+		}
+	}
+
+	protected void closeInternalDataSource(InternalDataSourceHolder holder)
+	{
+		DataSource dataSource = holder.getDataSource();
+
+		if (!(dataSource instanceof BasicDataSource))
+			return;
+
+		try
+		{
+			((BasicDataSource) dataSource).close();
+
+			LOGGER.debug("Close internal data source for {}", holder.getConnectionIdentity());
+		}
+		catch (SQLException e)
+		{
+			LOGGER.error("Close internal data source exception:", e);
+		}
+	}
+
 	protected String toDriverString(Driver driver)
 	{
 		return driver.getClass().getName() + "[majorVersion=" + driver.getMajorVersion() + ", minorVersion="
@@ -544,6 +1915,9 @@ public class DefaultConnectionSource implements ConnectionSource
 	{
 		private DriverEntity driverEntity;
 
+		/** 是否已通过连接成功确认 */
+		private boolean confirmed = false;
+
 		public PreferedDriverEntityResult()
 		{
 			super();
@@ -555,6 +1929,13 @@ public class DefaultConnectionSource implements ConnectionSource
 			this.driverEntity = driverEntity;
 		}
 
+		public PreferedDriverEntityResult(DriverEntity driverEntity, boolean confirmed)
+		{
+			super();
+			this.driverEntity = driverEntity;
+			this.confirmed = confirmed;
+		}
+
 		public boolean hasDriverEntity()
 		{
 			return (this.driverEntity != null);
@@ -569,6 +1950,16 @@ public class DefaultConnectionSource implements ConnectionSource
 		{
 			this.driverEntity = driverEntity;
 		}
+
+		public boolean isConfirmed()
+		{
+			return confirmed;
+		}
+
+		public void setConfirmed(boolean confirmed)
+		{
+			this.confirmed = confirmed;
+		}
 	}
 
 	protected static class DriverEntityDriver
@@ -650,61 +2041,37 @@ public class DefaultConnectionSource implements ConnectionSource
 		}
 	}
 
-	/**
-	 * {@linkplain DriverBasicDataSource}缓存移除监听器。
-	 * <p>
-	 * 它负责调用{@linkplain DriverBasicDataSource#close()}。
-	 * </p>
-	 * 
-	 * @author datagear@163.com
-	 *
-	 */
-	protected static class DriverBasicDataSourceRemovalListener
-			implements RemovalListener<ConnectionIdentity, InternalDataSourceHolder>
-	{
-		@Override
-		public void onRemoval(@Nullable ConnectionIdentity key, @Nullable InternalDataSourceHolder value,
-				@NonNull RemovalCause cause)
-		{
-			if (!value.hasDataSource())
-				return;
-
-			DataSource dataSource = value.getDataSource();
-
-			if (!(dataSource instanceof DriverBasicDataSource))
-				throw new UnsupportedOperationException(
-						"This " + DriverBasicDataSourceRemovalListener.class.getSimpleName() + " only support "
-								+ DriverBasicDataSource.class.getSimpleName());
-
-			try
-			{
-				((DriverBasicDataSource) dataSource).close();
-
-				if (LOGGER.isDebugEnabled())
-					LOGGER.debug("Close internal data source for {}", key);
-			}
-			catch (SQLException e)
-			{
-				LOGGER.error("Close internal data source exception:", e);
-			}
-		}
-	}
-
 	/**
 	 * 内置数据源持有类。
 	 * 
 	 * @author datagear@163.com
 	 *
-	 * @param <T>
 	 */
 	protected static class InternalDataSourceHolder
 	{
+		private final ConnectionIdentity connectionIdentity;
+
 		/** 内置数据源 */
 		private DataSource dataSource = null;
 
-		public InternalDataSourceHolder()
+		/** 创建内置数据源时使用的连接池选项 */
+		private ConnectionPoolOption poolOption = null;
+
+		/** 最近访问时间 */
+		private volatile long lastAccessTime = 0;
+
+		/** 是否已停用（已移除，正在排空或者已关闭） */
+		private volatile boolean retired = false;
+
+		public InternalDataSourceHolder(ConnectionIdentity connectionIdentity)
 		{
 			super();
+			this.connectionIdentity = connectionIdentity;
+		}
+
+		public ConnectionIdentity getConnectionIdentity()
+		{
+			return connectionIdentity;
 		}
 
 		/**
@@ -731,5 +2098,61 @@ public class DefaultConnectionSource implements ConnectionSource
 		{
 			this.dataSource = dataSource;
 		}
+
+		/**
+		 * 获取创建内置数据源时使用的连接池选项。
+		 * 
+		 * @return 可能为{@code null}
+		 */
+		public ConnectionPoolOption getPoolOption()
+		{
+			return poolOption;
+		}
+
+		public void setPoolOption(ConnectionPoolOption poolOption)
+		{
+			this.poolOption = poolOption;
+		}
+
+		public long getLastAccessTime()
+		{
+			return lastAccessTime;
+		}
+
+		public void setLastAccessTime(long lastAccessTime)
+		{
+			this.lastAccessTime = lastAccessTime;
+		}
+
+		public boolean isRetired()
+		{
+			return retired;
+		}
+
+		public void setRetired(boolean retired)
+		{
+			this.retired = retired;
+		}
+
+		/**
+		 * 获取活跃（已借出）连接数。
+		 * 
+		 * @return
+		 */
+		public int getNumActive()
+		{
+			return (this.dataSource instanceof BasicDataSource ? ((BasicDataSource) this.dataSource).getNumActive()
+					: 0);
+		}
+
+		/**
+		 * 获取空闲连接数。
+		 * 
+		 * @return
+		 */
+		public int getNumIdle()
+		{
+			return (this.dataSource instanceof BasicDataSource ? ((BasicDataSource) this.dataSource).getNumIdle() : 0);
+		}
 	}
 }
@@ -13,6 +13,10 @@ import java.util.Properties;
 
 /**
  * 通用{@linkplain PropertiesProcessor}。
+ * <p>
+ * 如果设置了{@linkplain #getConnectTimeout()}、{@linkplain #getLoginTimeout()}，它会为支持的驱动程序（MySQL、MariaDB、PostgreSQL、Oracle、SQL
+ * Server、jTDS、DB2）设置对应的超时连接参数，连接参数中已存在的不会被覆盖。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -21,6 +25,12 @@ public class GenericPropertiesProcessor implements PropertiesProcessor
 {
 	private List<DevotedPropertiesProcessor> devotedPropertiesProcessors;
 
+	/** 建立网络连接超时秒数，小于等于0表示不设置 */
+	private int connectTimeout = 0;
+
+	/** 登录超时秒数，小于等于0表示不设置 */
+	private int loginTimeout = 0;
+
 	public GenericPropertiesProcessor()
 	{
 		super();
@@ -36,15 +46,84 @@ public class GenericPropertiesProcessor implements PropertiesProcessor
 		this.devotedPropertiesProcessors = devotedPropertiesProcessors;
 	}
 
+	public int getConnectTimeout()
+	{
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(int connectTimeout)
+	{
+		this.connectTimeout = connectTimeout;
+	}
+
+	public int getLoginTimeout()
+	{
+		return loginTimeout;
+	}
+
+	public void setLoginTimeout(int loginTimeout)
+	{
+		this.loginTimeout = loginTimeout;
+	}
+
 	@Override
 	public void process(Driver driver, Properties properties)
 	{
 		DevotedPropertiesProcessor processor = getDevotedPropertiesProcessor(driver, properties);
 
-		if (processor == null)
+		if (processor != null)
+			processor.process(driver, properties);
+
+		processTimeout(driver, properties);
+	}
+
+	/**
+	 * 设置超时连接参数。
+	 * 
+	 * @param driver
+	 * @param properties
+	 */
+	protected void processTimeout(Driver driver, Properties properties)
+	{
+		if (this.connectTimeout <= 0 && this.loginTimeout <= 0)
 			return;
 
-		processor.process(driver, properties);
+		String driverClassName = driver.getClass().getName().toLowerCase();
+
+		if (driverClassName.indexOf("mysql") >= 0 || driverClassName.indexOf("mariadb") >= 0)
+		{
+			// 毫秒
+			if (this.connectTimeout > 0)
+				setPropertyIfAbsent(properties, "connectTimeout", String.valueOf(this.connectTimeout * 1000L));
+		}
+		else if (driverClassName.indexOf("postgresql") >= 0)
+		{
+			// 秒
+			if (this.connectTimeout > 0)
+				setPropertyIfAbsent(properties, "connectTimeout", String.valueOf(this.connectTimeout));
+			if (this.loginTimeout > 0)
+				setPropertyIfAbsent(properties, "loginTimeout", String.valueOf(this.loginTimeout));
+		}
+		else if (driverClassName.indexOf("oracle") >= 0)
+		{
+			// 毫秒
+			if (this.connectTimeout > 0)
+				setPropertyIfAbsent(properties, "oracle.net.CONNECT_TIMEOUT",
+						String.valueOf(this.connectTimeout * 1000L));
+		}
+		else if (driverClassName.indexOf("sqlserver") >= 0 || driverClassName.indexOf("jtds") >= 0
+				|| driverClassName.indexOf("db2") >= 0)
+		{
+			// 秒
+			int timeout = (this.loginTimeout > 0 ? this.loginTimeout : this.connectTimeout);
+			setPropertyIfAbsent(properties, "loginTimeout", String.valueOf(timeout));
+		}
+	}
+
+	protected void setPropertyIfAbsent(Properties properties, String name, String value)
+	{
+		if (!properties.containsKey(name))
+			properties.setProperty(name, value);
 	}
 
 	protected DevotedPropertiesProcessor getDevotedPropertiesProcessor(Driver driver, Properties properties)
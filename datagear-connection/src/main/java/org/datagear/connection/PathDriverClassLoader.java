@@ -13,10 +13,13 @@ import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.datagear.util.FileUtil;
 import org.datagear.util.IOUtil;
@@ -31,6 +34,10 @@ import org.slf4j.LoggerFactory;
  * <p>
  * 此规则可以避免驱动类依赖的某些库在{@linkplain #getPath()}中找不到时代理至应用类加载器，而可能出现版本不一致的情况。
  * </p>
+ * <p>
+ * 此类加载器是并行的（按类名加锁），且在构建时为{@linkplain #getPath()}内的所有类和资源建立名称索引，
+ * 使得查找不存在的类和资源时无需再扫描所有JAR包。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -41,10 +48,18 @@ public class PathDriverClassLoader extends URLClassLoader
 
 	private static final String CLASS_FILE_SUFFIX = ".class";
 
+	static
+	{
+		ClassLoader.registerAsParallelCapable();
+	}
+
 	private File path;
 
 	/** 要强制加载类路径之外的类名集 */
-	private Set<String> outsideForceLoads = new HashSet<String>();
+	private Set<String> outsideForceLoads = Collections.synchronizedSet(new HashSet<String>());
+
+	/** 类和资源名索引，为{@code null}表示索引不可用，此时按照原有方式扫描查找 */
+	private final Set<String> nameIndex;
 
 	public PathDriverClassLoader(String path)
 	{
@@ -66,6 +81,7 @@ public class PathDriverClassLoader extends URLClassLoader
 		super(toLoadClassURLs(path), parent);
 		this.path = path;
 		this.outsideForceLoads.add(DriverTool.class.getName());
+		this.nameIndex = buildNameIndex(path);
 	}
 
 	public File getPath()
@@ -83,6 +99,44 @@ public class PathDriverClassLoader extends URLClassLoader
 		this.outsideForceLoads.addAll(outsideForceLoads);
 	}
 
+	/**
+	 * 给定类或者资源名是否可能在{@linkplain #getPath()}中。
+	 * 
+	 * @param name
+	 * @return
+	 */
+	protected boolean isInPath(String name)
+	{
+		return (this.nameIndex == null || this.nameIndex.contains(name));
+	}
+
+	@Override
+	public URL findResource(String name)
+	{
+		if (!isInPath(name))
+			return null;
+
+		return super.findResource(name);
+	}
+
+	@Override
+	public Enumeration<URL> findResources(String name) throws IOException
+	{
+		if (!isInPath(name))
+			return Collections.emptyEnumeration();
+
+		return super.findResources(name);
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException
+	{
+		if (!isInPath(classNameToPath(name)))
+			throw new ClassNotFoundException(name);
+
+		return super.findClass(name);
+	}
+
 	@Override
 	public URL getResource(String name)
 	{
@@ -168,13 +222,29 @@ public class PathDriverClassLoader extends URLClassLoader
 	}
 
 	@Override
-	protected synchronized Class<?> loadClass(String name, boolean resolve)
-			throws ClassNotFoundException, ClassFormatError
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException, ClassFormatError
 	{
 		// JDK标准库应由父类加载
 		if (isJDKStandardClassName(name))
 			return Class.forName(name, resolve, getParentClassLoader());
 
+		synchronized (getClassLoadingLock(name))
+		{
+			return loadClassInPath(name, resolve);
+		}
+	}
+
+	/**
+	 * 在{@linkplain #getPath()}中加载类，调用方应持有此类名的加载锁。
+	 * 
+	 * @param name
+	 * @param resolve
+	 * @return
+	 * @throws ClassNotFoundException
+	 * @throws ClassFormatError
+	 */
+	protected Class<?> loadClassInPath(String name, boolean resolve) throws ClassNotFoundException, ClassFormatError
+	{
 		// -拷贝自java.net.URLClassLoader.FactoryURLClassLoader
 		SecurityManager sm = System.getSecurityManager();
 		if (sm != null)
@@ -308,6 +378,126 @@ public class PathDriverClassLoader extends URLClassLoader
 		return path.toString();
 	}
 
+	/**
+	 * 构建类和资源名索引。
+	 * 
+	 * @param path
+	 * @return 无法构建时返回{@code null}
+	 */
+	protected static Set<String> buildNameIndex(File path)
+	{
+		Set<String> index = new HashSet<String>();
+
+		try
+		{
+			if (path.isDirectory())
+			{
+				indexDirectory(index, path, "");
+
+				File[] children = path.listFiles();
+
+				for (int i = 0; i < children.length; i++)
+				{
+					File child = children[i];
+
+					if (!child.isDirectory())
+						indexJarIfValid(index, child);
+				}
+			}
+			else if (path.exists())
+				indexJarIfValid(index, path);
+		}
+		catch (Throwable t)
+		{
+			LOGGER.warn("build class and resource name index failed for path [" + path
+					+ "], fall back to scanning", t);
+
+			return null;
+		}
+
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("build class and resource name index of " + index.size() + " names for path [" + path
+					+ "]");
+
+		return index;
+	}
+
+	/**
+	 * 索引目录内的文件，它们可通过目录URL直接加载。
+	 * 
+	 * @param index
+	 * @param directory
+	 * @param prefix
+	 */
+	protected static void indexDirectory(Set<String> index, File directory, String prefix)
+	{
+		File[] children = directory.listFiles();
+
+		if (children == null)
+			return;
+
+		for (File child : children)
+		{
+			String name = prefix + child.getName();
+
+			if (child.isDirectory())
+			{
+				index.add(name + "/");
+				indexDirectory(index, child, name + "/");
+			}
+			else
+				index.add(name);
+		}
+	}
+
+	/**
+	 * 索引JAR包内的条目，如果文件不是有效的JAR包，则忽略（与{@linkplain URLClassLoader}的处理方式一致）。
+	 * 
+	 * @param index
+	 * @param file
+	 */
+	protected static void indexJarIfValid(Set<String> index, File file)
+	{
+		try
+		{
+			indexJar(index, file);
+		}
+		catch (IOException e)
+		{
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("ignore invalid jar file [" + file + "] for class and resource name index", e);
+		}
+	}
+
+	/**
+	 * 索引JAR包内的条目。
+	 * 
+	 * @param index
+	 * @param jar
+	 * @throws IOException
+	 */
+	protected static void indexJar(Set<String> index, File jar) throws IOException
+	{
+		try (ZipFile zipFile = new ZipFile(jar))
+		{
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+			while (entries.hasMoreElements())
+			{
+				String name = entries.nextElement().getName();
+
+				index.add(name);
+
+				// 目录条目可能缺失，补充其所有上级目录，使得目录资源也可查找
+				for (int i = name.lastIndexOf('/', name.length() - 2); i > 0; i = name.lastIndexOf('/', i - 1))
+				{
+					if (!index.add(name.substring(0, i + 1)))
+						break;
+				}
+			}
+		}
+	}
+
 	protected static URL[] toLoadClassURLs(File path)
 	{
 		if (path.isDirectory())
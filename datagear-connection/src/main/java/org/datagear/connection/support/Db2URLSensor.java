@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection.support;
+
+import org.datagear.connection.PrefixURLSensor;
+import org.datagear.connection.URLSensor;
+
+/**
+ * DB2 {@linkplain URLSensor}。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class Db2URLSensor extends PrefixURLSensor
+{
+	public static final String JDBC_PREFIX = "jdbc:db2";
+
+	public static final Db2URLSensor INSTANCE = new Db2URLSensor();
+
+	public Db2URLSensor()
+	{
+		super(JDBC_PREFIX);
+	}
+
+	@Override
+	public void setPrefix(String prefix)
+	{
+		throw new UnsupportedOperationException();
+	}
+}
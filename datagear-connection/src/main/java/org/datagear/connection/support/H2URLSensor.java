@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection.support;
+
+import org.datagear.connection.PrefixURLSensor;
+import org.datagear.connection.URLSensor;
+
+/**
+ * H2 {@linkplain URLSensor}。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class H2URLSensor extends PrefixURLSensor
+{
+	public static final String JDBC_PREFIX = "jdbc:h2";
+
+	public static final H2URLSensor INSTANCE = new H2URLSensor();
+
+	public H2URLSensor()
+	{
+		super(JDBC_PREFIX);
+	}
+
+	@Override
+	public void setPrefix(String prefix)
+	{
+		throw new UnsupportedOperationException();
+	}
+}
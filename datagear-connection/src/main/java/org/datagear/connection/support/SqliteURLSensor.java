@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection.support;
+
+import org.datagear.connection.PrefixURLSensor;
+import org.datagear.connection.URLSensor;
+
+/**
+ * SQLite {@linkplain URLSensor}。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SqliteURLSensor extends PrefixURLSensor
+{
+	public static final String JDBC_PREFIX = "jdbc:sqlite";
+
+	public static final SqliteURLSensor INSTANCE = new SqliteURLSensor();
+
+	public SqliteURLSensor()
+	{
+		super(JDBC_PREFIX);
+	}
+
+	@Override
+	public void setPrefix(String prefix)
+	{
+		throw new UnsupportedOperationException();
+	}
+}
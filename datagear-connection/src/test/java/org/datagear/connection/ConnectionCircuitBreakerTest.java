@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+
+import org.datagear.connection.ConnectionCircuitBreaker.State;
+import org.junit.Test;
+
+/**
+ * {@linkplain ConnectionCircuitBreaker}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionCircuitBreakerTest
+{
+	@Test
+	public void cycleTest() throws Exception
+	{
+		ConnectionCircuitBreaker circuitBreaker = new ConnectionCircuitBreaker(2, 200);
+
+		// 关闭
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+		assertTrue(circuitBreaker.allowRequest());
+
+		circuitBreaker.recordFailure(new SQLException("error-1"));
+
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+		assertTrue(circuitBreaker.allowRequest());
+
+		// 连续失败达到阈值后熔断
+		circuitBreaker.recordFailure(new SQLException("error-2"));
+
+		assertEquals(State.OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.allowRequest());
+		assertTrue(circuitBreaker.getRemainingOpenMillis() > 0);
+
+		// 熔断期后仅允许一次探测
+		Thread.sleep(300);
+
+		assertTrue(circuitBreaker.allowRequest());
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.allowRequest());
+		assertEquals(0, circuitBreaker.getRemainingOpenMillis());
+
+		// 探测失败重新熔断
+		circuitBreaker.recordFailure(new SQLException("error-3"));
+
+		assertEquals(State.OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.allowRequest());
+
+		{
+			ConnectionCircuitStat stat = new ConnectionCircuitStat();
+			circuitBreaker.fillStat(stat);
+
+			assertEquals(State.OPEN, stat.getState());
+			assertEquals(3, stat.getConsecutiveFailures());
+			assertEquals("error-3", stat.getLastErrorMessage());
+		}
+
+		// 探测成功恢复
+		Thread.sleep(300);
+
+		assertTrue(circuitBreaker.allowRequest());
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+
+		circuitBreaker.recordSuccess();
+
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+		assertTrue(circuitBreaker.allowRequest());
+
+		// 恢复后重新计数
+		circuitBreaker.recordFailure(new SQLException("error-4"));
+
+		assertEquals(State.CLOSED, circuitBreaker.getState());
+	}
+
+	@Test
+	public void cancelProbeTest() throws Exception
+	{
+		ConnectionCircuitBreaker circuitBreaker = new ConnectionCircuitBreaker(1, 200);
+
+		circuitBreaker.recordFailure(new SQLException("error"));
+		assertEquals(State.OPEN, circuitBreaker.getState());
+
+		// 非探测状态时无影响
+		circuitBreaker.cancelProbe();
+		assertEquals(State.OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.allowRequest());
+
+		Thread.sleep(300);
+
+		assertTrue(circuitBreaker.allowRequest());
+		assertFalse(circuitBreaker.allowRequest());
+
+		// 取消探测后可立即再次探测
+		circuitBreaker.cancelProbe();
+
+		assertEquals(State.OPEN, circuitBreaker.getState());
+		assertTrue(circuitBreaker.allowRequest());
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+	}
+}
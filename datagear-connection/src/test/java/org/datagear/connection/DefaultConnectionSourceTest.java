@@ -0,0 +1,1154 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.connection.ConnectionCircuitBreaker.State;
+import org.datagear.connection.DefaultConnectionSource.DriverEntityDriver;
+import org.datagear.util.FileUtil;
+import org.datagear.util.IOUtil;
+import org.junit.Test;
+
+/**
+ * {@linkplain DefaultConnectionSource}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DefaultConnectionSourceTest
+{
+	@Test
+	public void circuitBreakerTest() throws Exception
+	{
+		TestConnectionSource connectionSource = new TestConnectionSource();
+		connectionSource.setCircuitBreakerFailureThreshold(2);
+		connectionSource.setCircuitBreakerOpenMillis(200);
+
+		ConnectionOption connectionOption = ConnectionOption.valueOf("jdbc:test://circuit", "user");
+
+		connectionSource.addOutcomes(connectFailure(connectionOption));
+		assertThrows(EstablishConnectionException.class,
+				() -> connectionSource.getConnection((Driver) null, connectionOption));
+		assertEquals(State.CLOSED, getCircuitStat(connectionSource).getState());
+
+		// 连续失败达到阈值后熔断，不再尝试连接
+		connectionSource.addOutcomes(connectFailure(connectionOption));
+		assertThrows(EstablishConnectionException.class,
+				() -> connectionSource.getConnection((Driver) null, connectionOption));
+		assertEquals(State.OPEN, getCircuitStat(connectionSource).getState());
+
+		assertThrows(ConnectionCircuitOpenException.class,
+				() -> connectionSource.getConnection((Driver) null, connectionOption));
+		assertEquals(2, connectionSource.getAttempts());
+
+		// 探测失败重新熔断
+		Thread.sleep(300);
+
+		connectionSource.addOutcomes(connectFailure(connectionOption));
+		assertThrows(EstablishConnectionException.class,
+				() -> connectionSource.getConnection((Driver) null, connectionOption));
+		assertEquals(State.OPEN, getCircuitStat(connectionSource).getState());
+		assertEquals(3, getCircuitStat(connectionSource).getConsecutiveFailures());
+
+		assertThrows(ConnectionCircuitOpenException.class,
+				() -> connectionSource.getConnection((Driver) null, connectionOption));
+		assertEquals(3, connectionSource.getAttempts());
+
+		// 探测成功后清除
+		Thread.sleep(300);
+
+		connectionSource.addOutcomes((ConnectionSourceException) null);
+		assertNotNull(connectionSource.getConnection((Driver) null, connectionOption));
+		assertTrue(connectionSource.getCircuitStats().isEmpty());
+	}
+
+	@Test
+	public void circuitBreakerTest_poolExhausted() throws Exception
+	{
+		TestConnectionSource connectionSource = new TestConnectionSource();
+		connectionSource.setCircuitBreakerFailureThreshold(1);
+		connectionSource.setCircuitBreakerOpenMillis(200);
+
+		ConnectionOption connectionOption = ConnectionOption.valueOf("jdbc:test://circuit", "user");
+
+		// 连接池耗尽等待超时不计数
+		connectionSource.addOutcomes(poolExhausted(connectionOption), poolExhausted(connectionOption));
+		assertThrows(EstablishConnectionException.class,
+				() -> connectionSource.getConnection((Driver) null, connectionOption));
+		assertThrows(EstablishConnectionException.class,
+				() -> connectionSource.getConnection((Driver) null, connectionOption));
+		assertTrue(connectionSource.getCircuitStats().isEmpty());
+
+		connectionSource.addOutcomes(connectFailure(connectionOption));
+		assertThrows(EstablishConnectionException.class,
+				() -> connectionSource.getConnection((Driver) null, connectionOption));
+		assertEquals(State.OPEN, getCircuitStat(connectionSource).getState());
+
+		// 探测时连接池耗尽，应允许再次探测
+		Thread.sleep(300);
+
+		connectionSource.addOutcomes(poolExhausted(connectionOption), null);
+		assertThrows(EstablishConnectionException.class,
+				() -> connectionSource.getConnection((Driver) null, connectionOption));
+		assertEquals(1, getCircuitStat(connectionSource).getConsecutiveFailures());
+
+		assertNotNull(connectionSource.getConnection((Driver) null, connectionOption));
+		assertTrue(connectionSource.getCircuitStats().isEmpty());
+		assertEquals(5, connectionSource.getAttempts());
+	}
+
+	@Test
+	public void circuitBreakerTest_candidates() throws Exception
+	{
+		TestConnectionSource connectionSource = new TestConnectionSource();
+		connectionSource.setCircuitBreakerFailureThreshold(2);
+		connectionSource.setCircuitBreakerOpenMillis(200);
+		connectionSource.setCandidates(Arrays.asList(new DriverEntity("driver-1", "test.Driver1"),
+				new DriverEntity("driver-2", "test.Driver2"), new DriverEntity("driver-3", "test.Driver3")));
+
+		// 前面的候选驱动程序失败不计数
+		{
+			ConnectionOption connectionOption = ConnectionOption.valueOf("jdbc:test://candidates-0", "user");
+
+			connectionSource.addOutcomes(connectFailure(connectionOption), connectFailure(connectionOption), null);
+			assertNotNull(connectionSource.getConnection(connectionOption));
+			assertTrue(connectionSource.getCircuitStats().isEmpty());
+		}
+
+		// 所有候选驱动程序都失败才计为一次失败
+		{
+			ConnectionOption connectionOption = ConnectionOption.valueOf("jdbc:test://candidates-1", "user");
+
+			connectionSource.addOutcomes(connectFailure(connectionOption), connectFailure(connectionOption),
+					connectFailure(connectionOption));
+			assertThrows(EstablishConnectionException.class, () -> connectionSource.getConnection(connectionOption));
+
+			ConnectionCircuitStat stat = getCircuitStat(connectionSource);
+
+			assertEquals(State.CLOSED, stat.getState());
+			assertEquals(1, stat.getConsecutiveFailures());
+		}
+
+		assertEquals(6, connectionSource.getAttempts());
+	}
+
+	@Test
+	public void isPoolExhaustedTest()
+	{
+		TestConnectionSource connectionSource = new TestConnectionSource();
+		ConnectionOption connectionOption = ConnectionOption.valueOf("jdbc:test://circuit", "user");
+
+		assertTrue(connectionSource.isPoolExhausted(poolExhausted(connectionOption)));
+		assertTrue(connectionSource.isPoolExhausted(new NoSuchElementException("Pool exhausted")));
+
+		assertFalse(connectionSource.isPoolExhausted(null));
+		assertFalse(connectionSource.isPoolExhausted(connectFailure(connectionOption)));
+		assertFalse(connectionSource.isPoolExhausted(new EstablishConnectionException(connectionOption,
+				new SQLException("Cannot get a connection", new NoSuchElementException("Unable to validate object")))));
+	}
+
+	@Test
+	public void probeTest() throws Exception
+	{
+		Driver driver1 = testDriver(1, 0);
+		Driver driver2 = testDriver(3, 0);
+		Driver driver3 = testDriver(2, 0);
+		Driver driver4 = testDriver(2, 5);
+
+		TestDriverEntityManager driverEntityManager = new TestDriverEntityManager();
+		driverEntityManager.add(new DriverEntity("driver-1", "test.Driver1"), driver1);
+		driverEntityManager.add(new DriverEntity("driver-2", "test.Driver2"), driver2);
+		driverEntityManager.add(new DriverEntity("driver-3", "test.Driver3"), driver3);
+		driverEntityManager.add(new DriverEntity("driver-4", "test.Driver4"), driver4);
+		driverEntityManager.add(new DriverEntity("driver-5", "other.Driver5"), testDriver("jdbc:other:", 9, 0));
+
+		TestDriverChecker driverChecker = new TestDriverChecker();
+		driverChecker.getHangs().add(driver3);
+		driverChecker.getFails().add(driver4);
+
+		ProbeConnectionSource connectionSource = new ProbeConnectionSource(driverEntityManager.toDriverEntityManager());
+		connectionSource.setDriverChecker(driverChecker);
+		connectionSource.setDriverProbeTimeout(300);
+		connectionSource.setDriverProbeThreads(2);
+
+		try
+		{
+			ConnectionOption connectionOption = ConnectionOption.valueOf("jdbc:test://probe", "user");
+			List<DriverEntityDriver> accepted = new ArrayList<>();
+			List<DriverEntityDriver> checked = new ArrayList<>();
+
+			long start = System.currentTimeMillis();
+			connectionSource.findOrderedAcceptedAndCheckedDriverEntityDrivers(connectionOption, accepted, checked);
+			long elapsed = System.currentTimeMillis() - start;
+
+			// 按照驱动程序版本从高到低排序，校验超时、不通过的不会加入校验通过列表
+			assertEquals(Arrays.asList("driver-2", "driver-4", "driver-3", "driver-1"), toDriverEntityIds(accepted));
+			assertEquals(Arrays.asList("driver-2", "driver-1"), toDriverEntityIds(checked));
+			assertTrue(elapsed < 3000);
+
+			// 超时的校验应被中断，不会一直占用线程
+			for (int i = 0; i < 20 && driverChecker.getInterrupted() == 0; i++)
+				Thread.sleep(100);
+
+			assertEquals(1, driverChecker.getInterrupted());
+			assertEquals(4, driverChecker.getChecks());
+
+			ThreadPoolExecutor executor = (ThreadPoolExecutor) connectionSource.getProbeExecutor();
+			assertEquals(2, executor.getMaximumPoolSize());
+			assertTrue(executor.getPoolSize() <= 2);
+		}
+		finally
+		{
+			connectionSource.close();
+		}
+
+		assertTrue(connectionSource.getProbeExecutor().isShutdown());
+	}
+
+	@Test
+	public void preferedDriverEntityFileTest() throws Exception
+	{
+		File file = FileUtil.getFile("target/DefaultConnectionSourceTest/preferedDriverEntityFileTest.properties",
+				true);
+		FileUtil.deleteFile(file);
+
+		Driver driver1 = testDriver(1, 0);
+		Driver driver2 = testDriver(2, 0);
+
+		TestDriverEntityManager driverEntityManager = new TestDriverEntityManager();
+		driverEntityManager.add(new DriverEntity("driver-1", "test.Driver1"), driver1);
+		driverEntityManager.add(new DriverEntity("driver-2", "test.Driver2"), driver2);
+
+		ConnectionOption connectionOption = ConnectionOption.valueOf("jdbc:test://prefered?password=secret", "user");
+		ConnectionOption connectionOption1 = ConnectionOption.valueOf("jdbc:test://prefered-1", "user");
+
+		{
+			TestDriverChecker driverChecker = new TestDriverChecker();
+			ProbeConnectionSource connectionSource = new ProbeConnectionSource(
+					driverEntityManager.toDriverEntityManager());
+			connectionSource.setDriverChecker(driverChecker);
+			connectionSource.setPreferedDriverEntityFile(file);
+
+			try
+			{
+				assertNotNull(connectionSource.getConnection(connectionOption));
+				assertEquals(Arrays.asList(driver2), connectionSource.getConnectedDrivers());
+				assertEquals(2, driverChecker.getChecks());
+
+				// 存储文件中不应包含URL本身
+				String content = readString(file);
+				assertFalse(content.contains("secret"));
+				assertFalse(content.contains("jdbc:test"));
+
+				Properties properties = readProperties(file);
+				assertEquals("driver-2", properties.getProperty(
+						DefaultConnectionSource.PREFERED_URL_PREFIX
+								+ connectionSource.getPreferedUrlKey(connectionOption.getUrl())));
+			}
+			finally
+			{
+				connectionSource.close();
+			}
+		}
+
+		// 重新加载后，无需再次校验
+		{
+			TestDriverChecker driverChecker = new TestDriverChecker();
+			ProbeConnectionSource connectionSource = new ProbeConnectionSource(
+					driverEntityManager.toDriverEntityManager());
+			connectionSource.setDriverChecker(driverChecker);
+			connectionSource.setPreferedDriverEntityFile(file);
+
+			try
+			{
+				assertNotNull(connectionSource.getConnection(connectionOption));
+				assertEquals(Arrays.asList(driver2), connectionSource.getConnectedDrivers());
+				assertEquals(0, driverChecker.getChecks());
+
+				assertNotNull(connectionSource.getConnection(connectionOption1));
+				assertEquals(2, driverChecker.getChecks());
+
+				// 新的映射存储时，已加载的映射也应保留
+				Properties properties = readProperties(file);
+				assertEquals("driver-2", properties.getProperty(
+						DefaultConnectionSource.PREFERED_URL_PREFIX
+								+ connectionSource.getPreferedUrlKey(connectionOption.getUrl())));
+				assertEquals("driver-2", properties.getProperty(
+						DefaultConnectionSource.PREFERED_URL_PREFIX
+								+ connectionSource.getPreferedUrlKey(connectionOption1.getUrl())));
+			}
+			finally
+			{
+				connectionSource.close();
+			}
+		}
+	}
+
+	@Test
+	public void preferedDriverEntityFileTest_legacy() throws Exception
+	{
+		File file = FileUtil.getFile(
+				"target/DefaultConnectionSourceTest/preferedDriverEntityFileTest_legacy.properties", true);
+
+		Driver driver1 = testDriver(1, 0);
+		Driver driver2 = testDriver(2, 0);
+
+		DriverEntity driverEntity1 = new DriverEntity("driver-1", "test.Driver1");
+
+		TestDriverEntityManager driverEntityManager = new TestDriverEntityManager();
+		driverEntityManager.add(driverEntity1, driver1);
+		driverEntityManager.add(new DriverEntity("driver-2", "test.Driver2"), driver2);
+
+		ConnectionOption connectionOption = ConnectionOption.valueOf("jdbc:test://legacy?password=secret", "user");
+
+		TestDriverChecker driverChecker = new TestDriverChecker();
+		ProbeConnectionSource connectionSource = new ProbeConnectionSource(
+				driverEntityManager.toDriverEntityManager());
+		connectionSource.setDriverChecker(driverChecker);
+		connectionSource.setPreferedDriverEntityFile(file);
+
+		// 旧版本存储的是URL本身
+		Properties legacy = new Properties();
+		legacy.setProperty(DefaultConnectionSource.PREFERED_URL_PREFIX + connectionOption.getUrl(), "driver-1");
+		legacy.setProperty(DefaultConnectionSource.PREFERED_DRIVER_PREFIX + "driver-1",
+				connectionSource.getDriverEntityFingerprint(driverEntity1));
+		writeProperties(file, legacy);
+
+		try
+		{
+			assertNotNull(connectionSource.getConnection(connectionOption));
+			assertEquals(Arrays.asList(driver1), connectionSource.getConnectedDrivers());
+			assertEquals(0, driverChecker.getChecks());
+
+			String content = readString(file);
+			assertFalse(content.contains("secret"));
+			assertFalse(content.contains("jdbc:test"));
+
+			Properties properties = readProperties(file);
+			assertEquals("driver-1", properties.getProperty(DefaultConnectionSource.PREFERED_URL_PREFIX
+					+ connectionSource.getPreferedUrlKey(connectionOption.getUrl())));
+		}
+		finally
+		{
+			connectionSource.close();
+		}
+	}
+
+	@Test
+	public void preferedDriverEntityInvalidateTest() throws Exception
+	{
+		File file = FileUtil.getFile("target/DefaultConnectionSourceTest/preferedDriverEntityInvalidateTest.properties",
+				true);
+		FileUtil.deleteFile(file);
+
+		Driver driver1 = testDriver(2, 0);
+		Driver driver2 = testDriver(1, 0);
+
+		TestDriverEntityManager driverEntityManager = new TestDriverEntityManager();
+		driverEntityManager.add(new DriverEntity("driver-1", "test.Driver1"), driver1);
+		driverEntityManager.add(new DriverEntity("driver-2", "test.Driver2"), driver2);
+
+		ConnectionOption connectionOption = ConnectionOption.valueOf("jdbc:test://invalidate", "user");
+
+		TestDriverChecker driverChecker = new TestDriverChecker();
+		ProbeConnectionSource connectionSource = new ProbeConnectionSource(
+				driverEntityManager.toDriverEntityManager());
+		connectionSource.setDriverChecker(driverChecker);
+		connectionSource.setPreferedDriverEntityFile(file);
+
+		try
+		{
+			assertNotNull(connectionSource.getConnection(connectionOption));
+			assertNotNull(connectionSource.getConnection(connectionOption));
+			assertEquals(Arrays.asList(driver1, driver1), connectionSource.getConnectedDrivers());
+			assertEquals(2, driverChecker.getChecks());
+
+			// 支持此URL的驱动程序变更，应重新校验
+			driverEntityManager.update(new DriverEntity("driver-2", "test.Driver2New"));
+
+			assertNotNull(connectionSource.getConnection(connectionOption));
+			assertEquals(4, driverChecker.getChecks());
+
+			// 首选驱动程序无法加载，应失效并使用其他驱动程序
+			driverEntityManager.getBrokenIds().add("driver-1");
+
+			assertNotNull(connectionSource.getConnection(connectionOption));
+			assertNotNull(connectionSource.getConnection(connectionOption));
+			assertEquals(Arrays.asList(driver1, driver1, driver1, driver2, driver2),
+					connectionSource.getConnectedDrivers());
+			assertEquals(5, driverChecker.getChecks());
+
+			Properties properties = readProperties(file);
+			assertEquals("driver-2", properties.getProperty(DefaultConnectionSource.PREFERED_URL_PREFIX
+					+ connectionSource.getPreferedUrlKey(connectionOption.getUrl())));
+		}
+		finally
+		{
+			connectionSource.close();
+		}
+	}
+
+	@Test
+	public void evictInternalDataSourcesTest_idle() throws Throwable
+	{
+		PhysicalConnectionDriver driver = new PhysicalConnectionDriver();
+		PoolConnectionSource connectionSource = new PoolConnectionSource();
+		connectionSource.setPoolIdleTimeout(200);
+
+		try
+		{
+			connectionSource.getConnection(driver.toDriver(), "jdbc:pool://a", new Properties()).close();
+			connectionSource.getConnection(driver.toDriver(), "jdbc:pool://b", new Properties()).close();
+
+			// 未空闲超时，不回收
+			connectionSource.evictInternalDataSources();
+			assertEquals(2, connectionSource.getPoolStats().size());
+			assertEquals(2, driver.getOpenCount());
+
+			Thread.sleep(300);
+
+			// 重新访问的不应回收
+			connectionSource.getConnection(driver.toDriver(), "jdbc:pool://b", new Properties()).close();
+			connectionSource.evictInternalDataSources();
+
+			assertEquals(Arrays.asList("jdbc:pool://b"), getPoolUrls(connectionSource, false));
+			assertTrue(getPoolUrls(connectionSource, true).isEmpty());
+			assertEquals(1, driver.getOpenCount());
+		}
+		finally
+		{
+			connectionSource.close();
+		}
+
+		assertEquals(0, driver.getOpenCount());
+	}
+
+	@Test
+	public void evictInternalDataSourcesTest_active() throws Throwable
+	{
+		PhysicalConnectionDriver driver = new PhysicalConnectionDriver();
+		PoolConnectionSource connectionSource = new PoolConnectionSource();
+		connectionSource.setPoolIdleTimeout(100);
+		connectionSource.setMaxTotalConnections(1);
+
+		try
+		{
+			Connection cn0 = connectionSource.getConnection(driver.toDriver(), "jdbc:pool://a", new Properties());
+			Connection cn1 = connectionSource.getConnection(driver.toDriver(), "jdbc:pool://a", new Properties());
+
+			Thread.sleep(200);
+
+			// 有活跃连接的，即使空闲超时、连接总数超限也不应关闭
+			connectionSource.evictInternalDataSources();
+
+			assertEquals(Arrays.asList("jdbc:pool://a"), getPoolUrls(connectionSource, false));
+			assertEquals(2, connectionSource.getPoolStats().get(0).getNumActive());
+			assertEquals(2, driver.getOpenCount());
+			assertFalse(cn0.isClosed());
+			assertFalse(cn1.isClosed());
+
+			cn0.close();
+			cn1.close();
+
+			connectionSource.evictInternalDataSources();
+
+			assertTrue(connectionSource.getPoolStats().isEmpty());
+			assertEquals(0, driver.getOpenCount());
+		}
+		finally
+		{
+			connectionSource.close();
+		}
+	}
+
+	@Test
+	public void evictInternalDataSourcesTest_maxTotalConnections() throws Throwable
+	{
+		PhysicalConnectionDriver driver = new PhysicalConnectionDriver();
+		PoolConnectionSource connectionSource = new PoolConnectionSource();
+		connectionSource.setPoolIdleTimeout(0);
+		connectionSource.setMaxTotalConnections(2);
+
+		try
+		{
+			// 按照a、b、c、d的顺序访问，a最久未使用但有活跃连接
+			Connection cnA = connectionSource.getConnection(driver.toDriver(), "jdbc:pool://a", new Properties());
+
+			for (String name : new String[] { "b", "c", "d" })
+			{
+				Thread.sleep(20);
+				connectionSource.getConnection(driver.toDriver(), "jdbc:pool://" + name, new Properties()).close();
+			}
+
+			assertEquals(4, driver.getOpenCount());
+
+			connectionSource.evictInternalDataSources();
+
+			// 跳过有活跃连接的a，按照最近最少使用关闭b、c，直至不超限
+			Set<String> urls = new HashSet<>(getPoolUrls(connectionSource, false));
+			assertEquals(new HashSet<>(Arrays.asList("jdbc:pool://a", "jdbc:pool://d")), urls);
+			assertTrue(getPoolUrls(connectionSource, true).isEmpty());
+			assertEquals(2, driver.getOpenCount());
+			assertFalse(cnA.isClosed());
+
+			cnA.close();
+
+			// 未超限，不回收
+			connectionSource.evictInternalDataSources();
+			assertEquals(2, connectionSource.getPoolStats().size());
+			assertEquals(2, driver.getOpenCount());
+		}
+		finally
+		{
+			connectionSource.close();
+		}
+
+		assertEquals(0, driver.getOpenCount());
+	}
+
+	@Test
+	public void evictInternalDataSourcesTest_draining() throws Throwable
+	{
+		PhysicalConnectionDriver driver = new PhysicalConnectionDriver();
+		PoolConnectionSource connectionSource = new PoolConnectionSource();
+
+		ConnectionPoolOption poolOption0 = new ConnectionPoolOption();
+		poolOption0.setMaxTotal(5);
+		ConnectionPoolOption poolOption1 = new ConnectionPoolOption();
+		poolOption1.setMaxTotal(6);
+
+		try
+		{
+			Connection cn0 = connectionSource.getConnection(driver.toDriver(), "jdbc:pool://a", new Properties(),
+					poolOption0);
+			Connection cn1 = connectionSource.getConnection(driver.toDriver(), "jdbc:pool://a", new Properties(),
+					poolOption0);
+
+			// 连接池选项变更，原连接池被停用，但在活跃连接归还前不应关闭
+			Connection cn2 = connectionSource.getConnection(driver.toDriver(), "jdbc:pool://a", new Properties(),
+					poolOption1);
+
+			assertEquals(Arrays.asList("jdbc:pool://a"), getPoolUrls(connectionSource, false));
+			assertEquals(Arrays.asList("jdbc:pool://a"), getPoolUrls(connectionSource, true));
+			assertEquals(2, getDrainingStat(connectionSource).getNumActive());
+
+			connectionSource.evictInternalDataSources();
+			cn0.close();
+			connectionSource.evictInternalDataSources();
+
+			assertEquals(1, getDrainingStat(connectionSource).getNumActive());
+			assertFalse(cn1.isClosed());
+			assertEquals(3, driver.getOpenCount());
+
+			// 最后一个活跃连接归还后关闭
+			cn1.close();
+			connectionSource.evictInternalDataSources();
+
+			assertTrue(getPoolUrls(connectionSource, true).isEmpty());
+			assertEquals(1, connectionSource.getPoolStats().size());
+			assertEquals(1, driver.getOpenCount());
+			assertFalse(cn2.isClosed());
+
+			cn2.close();
+		}
+		finally
+		{
+			connectionSource.close();
+		}
+
+		assertEquals(0, driver.getOpenCount());
+	}
+
+	@Test
+	public void getConnectionTest_retiredConcurrently() throws Throwable
+	{
+		PhysicalConnectionDriver driver = new PhysicalConnectionDriver();
+		PoolConnectionSource connectionSource = new PoolConnectionSource();
+
+		try
+		{
+			// 获取内置数据源后、从其获取连接前，它被其他线程停用关闭，应重新获取
+			connectionSource.setRetireBeforeGet(true);
+
+			Connection cn = connectionSource.getConnection(driver.toDriver(), "jdbc:pool://a", new Properties());
+
+			assertNotNull(cn);
+			assertFalse(cn.isClosed());
+			assertEquals(2, connectionSource.getHolderGets());
+			assertEquals(Arrays.asList("jdbc:pool://a"), getPoolUrls(connectionSource, false));
+			assertTrue(getPoolUrls(connectionSource, true).isEmpty());
+			assertEquals(1, connectionSource.getPoolStats().get(0).getNumActive());
+
+			cn.close();
+		}
+		finally
+		{
+			connectionSource.close();
+		}
+
+		assertEquals(0, driver.getOpenCount());
+	}
+
+	protected List<String> getPoolUrls(DefaultConnectionSource connectionSource, boolean draining)
+	{
+		List<String> urls = new ArrayList<>();
+
+		for (ConnectionPoolStat stat : connectionSource.getPoolStats())
+		{
+			if (stat.isDraining() == draining)
+				urls.add(stat.getUrl());
+		}
+
+		return urls;
+	}
+
+	protected ConnectionPoolStat getDrainingStat(DefaultConnectionSource connectionSource)
+	{
+		ConnectionPoolStat re = null;
+
+		for (ConnectionPoolStat stat : connectionSource.getPoolStats())
+		{
+			if (stat.isDraining())
+			{
+				assertTrue(re == null);
+				re = stat;
+			}
+		}
+
+		assertNotNull(re);
+
+		return re;
+	}
+
+	protected List<String> toDriverEntityIds(List<DriverEntityDriver> driverEntityDrivers)
+	{
+		List<String> ids = new ArrayList<>();
+
+		for (DriverEntityDriver driverEntityDriver : driverEntityDrivers)
+			ids.add(driverEntityDriver.getDriverEntity().getId());
+
+		return ids;
+	}
+
+	protected Driver testDriver(int majorVersion, int minorVersion)
+	{
+		return testDriver("jdbc:test:", majorVersion, minorVersion);
+	}
+
+	protected Driver testDriver(String urlPrefix, int majorVersion, int minorVersion)
+	{
+		String name = "TestDriver-" + majorVersion + "." + minorVersion;
+
+		return (Driver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Driver.class },
+				(proxy, method, args) ->
+				{
+					String methodName = method.getName();
+
+					if ("acceptsURL".equals(methodName))
+						return ((String) args[0]).startsWith(urlPrefix);
+					else if ("getMajorVersion".equals(methodName))
+						return majorVersion;
+					else if ("getMinorVersion".equals(methodName))
+						return minorVersion;
+					else if ("hashCode".equals(methodName))
+						return System.identityHashCode(proxy);
+					else if ("equals".equals(methodName))
+						return (proxy == args[0]);
+					else if ("toString".equals(methodName))
+						return name;
+					else
+						return null;
+				});
+	}
+
+	protected String readString(File file) throws IOException
+	{
+		return IOUtil.readString(IOUtil.getReader(file, IOUtil.CHARSET_UTF_8), true);
+	}
+
+	protected Properties readProperties(File file) throws IOException
+	{
+		Properties properties = new Properties();
+
+		Reader reader = IOUtil.getReader(file, IOUtil.CHARSET_UTF_8);
+		try
+		{
+			properties.load(reader);
+		}
+		finally
+		{
+			IOUtil.close(reader);
+		}
+
+		return properties;
+	}
+
+	protected void writeProperties(File file, Properties properties) throws IOException
+	{
+		Writer writer = IOUtil.getWriter(file, IOUtil.CHARSET_UTF_8);
+		try
+		{
+			properties.store(writer, null);
+		}
+		finally
+		{
+			IOUtil.close(writer);
+		}
+	}
+
+	protected ConnectionCircuitStat getCircuitStat(DefaultConnectionSource connectionSource)
+	{
+		List<ConnectionCircuitStat> stats = connectionSource.getCircuitStats();
+
+		assertEquals(1, stats.size());
+
+		return stats.get(0);
+	}
+
+	protected EstablishConnectionException connectFailure(ConnectionOption connectionOption)
+	{
+		return new EstablishConnectionException(connectionOption, new SQLException("Connection refused"));
+	}
+
+	protected EstablishConnectionException poolExhausted(ConnectionOption connectionOption)
+	{
+		// 参考commons-dbcp2的PoolingDataSource.getConnection()
+		return new EstablishConnectionException(connectionOption,
+				new SQLException("Cannot get a connection, pool error Timeout waiting for idle object",
+						new NoSuchElementException("Timeout waiting for idle object")));
+	}
+
+	/**
+	 * 按照预设结果获取连接的{@linkplain DefaultConnectionSource}。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class TestConnectionSource extends DefaultConnectionSource
+	{
+		/** 依次获取连接的结果，元素为{@code null}表示成功 */
+		private LinkedList<ConnectionSourceException> outcomes = new LinkedList<>();
+
+		private List<DriverEntity> candidates = new ArrayList<>();
+
+		private int attempts = 0;
+
+		public TestConnectionSource()
+		{
+			super();
+		}
+
+		public void addOutcomes(ConnectionSourceException... outcomes)
+		{
+			this.outcomes.addAll(Arrays.asList(outcomes));
+		}
+
+		public void setCandidates(List<DriverEntity> candidates)
+		{
+			this.candidates = candidates;
+		}
+
+		public int getAttempts()
+		{
+			return attempts;
+		}
+
+		@Override
+		protected void refreshPreferedDriverEntities()
+		{
+		}
+
+		@Override
+		protected void findOrderedAcceptedAndCheckedDriverEntityDrivers(ConnectionOption connectionOption,
+				List<DriverEntityDriver> accepted, List<DriverEntityDriver> checked)
+		{
+			for (DriverEntity candidate : this.candidates)
+				checked.add(new DriverEntityDriver(candidate, null));
+		}
+
+		@Override
+		protected Connection getConnectionWithoutCircuitBreaker(Driver driver, ConnectionOption connectionOption)
+				throws EstablishConnectionException, ConnectionSourceException
+		{
+			this.attempts++;
+
+			ConnectionSourceException outcome = this.outcomes.removeFirst();
+
+			if (outcome != null)
+				throw outcome;
+
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+					(proxy, method, args) -> null);
+		}
+	}
+
+	/**
+	 * 记录获取连接所用{@linkplain Driver}的{@linkplain DefaultConnectionSource}。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ProbeConnectionSource extends DefaultConnectionSource
+	{
+		private List<Driver> connectedDrivers = new ArrayList<>();
+
+		public ProbeConnectionSource(DriverEntityManager driverEntityManager)
+		{
+			super(driverEntityManager);
+		}
+
+		public List<Driver> getConnectedDrivers()
+		{
+			return connectedDrivers;
+		}
+
+		@Override
+		protected Connection getConnectionWithoutCircuitBreaker(Driver driver, ConnectionOption connectionOption)
+				throws EstablishConnectionException, ConnectionSourceException
+		{
+			this.connectedDrivers.add(driver);
+
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+					(proxy, method, args) -> null);
+		}
+	}
+
+	/**
+	 * 手动执行回收的、使用内置连接池的{@linkplain DefaultConnectionSource}。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class PoolConnectionSource extends DefaultConnectionSource
+	{
+		/** 是否在下次从内置数据源获取连接前将其停用关闭，以模拟被其他线程回收 */
+		private volatile boolean retireBeforeGet = false;
+
+		private AtomicInteger holderGets = new AtomicInteger(0);
+
+		public PoolConnectionSource()
+		{
+			super();
+		}
+
+		public void setRetireBeforeGet(boolean retireBeforeGet)
+		{
+			this.retireBeforeGet = retireBeforeGet;
+		}
+
+		public int getHolderGets()
+		{
+			return holderGets.get();
+		}
+
+		@Override
+		protected void startEvictionIfNot()
+		{
+		}
+
+		@Override
+		protected Connection getConnection(InternalDataSourceHolder dataSourceHolder, Driver driver, String url,
+				Properties properties) throws SQLException, Throwable
+		{
+			this.holderGets.incrementAndGet();
+
+			if (this.retireBeforeGet)
+			{
+				this.retireBeforeGet = false;
+				removeInternalDataSource(dataSourceHolder.getConnectionIdentity(), dataSourceHolder);
+			}
+
+			return super.getConnection(dataSourceHolder, driver, url, properties);
+		}
+	}
+
+	/**
+	 * 创建物理连接的{@linkplain Driver}，记录未关闭的物理连接数。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class PhysicalConnectionDriver implements InvocationHandler
+	{
+		private AtomicInteger openCount = new AtomicInteger(0);
+
+		private Driver driver;
+
+		public PhysicalConnectionDriver()
+		{
+			super();
+			this.driver = (Driver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Driver.class },
+					this);
+		}
+
+		public Driver toDriver()
+		{
+			return this.driver;
+		}
+
+		/**
+		 * 获取未关闭的物理连接数。
+		 * 
+		 * @return
+		 */
+		public int getOpenCount()
+		{
+			return openCount.get();
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			String methodName = method.getName();
+
+			if ("connect".equals(methodName))
+				return connect();
+			else if ("acceptsURL".equals(methodName))
+				return true;
+			else if ("getMajorVersion".equals(methodName))
+				return 1;
+			else if ("hashCode".equals(methodName))
+				return System.identityHashCode(proxy);
+			else if ("equals".equals(methodName))
+				return (proxy == args[0]);
+			else if ("toString".equals(methodName))
+				return "PhysicalConnectionDriver";
+			else
+				return defaultValue(method.getReturnType());
+		}
+
+		protected Connection connect()
+		{
+			this.openCount.incrementAndGet();
+
+			AtomicBoolean closed = new AtomicBoolean(false);
+
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+					(proxy, method, args) ->
+					{
+						String methodName = method.getName();
+
+						if ("close".equals(methodName))
+						{
+							if (closed.compareAndSet(false, true))
+								this.openCount.decrementAndGet();
+
+							return null;
+						}
+						else if ("isClosed".equals(methodName))
+							return closed.get();
+						else if ("isValid".equals(methodName))
+							return !closed.get();
+						else if ("getAutoCommit".equals(methodName))
+							return true;
+						else if ("hashCode".equals(methodName))
+							return System.identityHashCode(proxy);
+						else if ("equals".equals(methodName))
+							return (proxy == args[0]);
+						else if ("toString".equals(methodName))
+							return "PhysicalConnection";
+						else
+							return defaultValue(method.getReturnType());
+					});
+		}
+
+		protected Object defaultValue(Class<?> type)
+		{
+			if (boolean.class.equals(type))
+				return false;
+			else if (int.class.equals(type))
+				return 0;
+			else if (long.class.equals(type))
+				return 0L;
+			else
+				return null;
+		}
+	}
+
+	/**
+	 * 可预设校验结果的{@linkplain DriverChecker}。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class TestDriverChecker implements DriverChecker
+	{
+		/** 校验时一直不返回的 */
+		private Set<Driver> hangs = Collections.synchronizedSet(new HashSet<>());
+
+		/** 校验不通过的 */
+		private Set<Driver> fails = Collections.synchronizedSet(new HashSet<>());
+
+		private AtomicInteger checks = new AtomicInteger(0);
+
+		private AtomicInteger interrupted = new AtomicInteger(0);
+
+		public TestDriverChecker()
+		{
+			super();
+		}
+
+		public Set<Driver> getHangs()
+		{
+			return hangs;
+		}
+
+		public Set<Driver> getFails()
+		{
+			return fails;
+		}
+
+		public int getChecks()
+		{
+			return checks.get();
+		}
+
+		public int getInterrupted()
+		{
+			return interrupted.get();
+		}
+
+		@Override
+		public boolean check(Driver driver, ConnectionOption connectionOption, boolean ignoreAcceptsURLCheck)
+				throws Throwable
+		{
+			this.checks.incrementAndGet();
+
+			if (this.hangs.contains(driver))
+			{
+				try
+				{
+					Thread.sleep(60 * 1000L);
+				}
+				catch (InterruptedException e)
+				{
+					this.interrupted.incrementAndGet();
+					throw e;
+				}
+			}
+
+			return !this.fails.contains(driver);
+		}
+	}
+
+	/**
+	 * 内存中的{@linkplain DriverEntityManager}，仅支持{@linkplain DefaultConnectionSource}用到的方法。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class TestDriverEntityManager implements InvocationHandler
+	{
+		private List<DriverEntity> driverEntities = new ArrayList<>();
+
+		private Map<String, Driver> drivers = new HashMap<>();
+
+		/** 无法加载驱动程序的ID */
+		private Set<String> brokenIds = new HashSet<>();
+
+		private long lastModified = 1;
+
+		public TestDriverEntityManager()
+		{
+			super();
+		}
+
+		public Set<String> getBrokenIds()
+		{
+			return brokenIds;
+		}
+
+		public void add(DriverEntity driverEntity, Driver driver)
+		{
+			this.driverEntities.add(driverEntity);
+			this.drivers.put(driverEntity.getId(), driver);
+			this.lastModified++;
+		}
+
+		public void update(DriverEntity driverEntity)
+		{
+			for (int i = 0; i < this.driverEntities.size(); i++)
+			{
+				if (this.driverEntities.get(i).getId().equals(driverEntity.getId()))
+					this.driverEntities.set(i, driverEntity);
+			}
+
+			this.lastModified++;
+		}
+
+		public DriverEntityManager toDriverEntityManager()
+		{
+			return (DriverEntityManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { DriverEntityManager.class }, this);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			String methodName = method.getName();
+
+			if ("getAll".equals(methodName))
+				return new ArrayList<>(this.driverEntities);
+			else if ("get".equals(methodName))
+			{
+				for (DriverEntity driverEntity : this.driverEntities)
+				{
+					if (driverEntity.getId().equals(args[0]))
+						return driverEntity;
+				}
+
+				return null;
+			}
+			else if ("getLastModified".equals(methodName))
+				return this.lastModified;
+			else if ("getDriverLibraryInfos".equals(methodName))
+				return Collections.emptyList();
+			else if ("getDriver".equals(methodName))
+			{
+				String id = ((DriverEntity) args[0]).getId();
+
+				if (this.brokenIds.contains(id))
+					throw new DriverEntityManagerException("Driver library of [" + id + "] is broken");
+
+				return this.drivers.get(id);
+			}
+			else
+				throw new UnsupportedOperationException(methodName);
+		}
+	}
+}
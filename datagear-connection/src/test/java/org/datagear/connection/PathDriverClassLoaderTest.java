@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.datagear.util.FileUtil;
+import org.datagear.util.IOUtil;
+import org.junit.Test;
+
+/**
+ * {@linkplain PathDriverClassLoader}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class PathDriverClassLoaderTest
+{
+	private static final String IN_PATH_CLASS_RESOURCE = InPathClass.class.getName().replace('.', '/') + ".class";
+
+	@Test
+	public void loadTest() throws Exception
+	{
+		File path = FileUtil.getDirectory("target/PathDriverClassLoaderTest/", true);
+		FileUtil.clearDirectory(path);
+
+		byte[] classBytes = getBytes(IN_PATH_CLASS_RESOURCE);
+
+		writeJar(new File(path, "a.jar"), new String[] { IN_PATH_CLASS_RESOURCE, "META-INF/services/test.Service" },
+				new byte[][] { classBytes, "a".getBytes("UTF-8") });
+		writeJar(new File(path, "b.jar"), new String[] { "META-INF/services/test.Service", "b/b.txt" },
+				new byte[][] { "b".getBytes("UTF-8"), "b".getBytes("UTF-8") });
+		writeFile(new File(path, "c.txt"), "c");
+
+		// 非JAR包文件，应被忽略
+		writeFile(new File(path, "d.jar"), "d");
+
+		try (PathDriverClassLoader classLoader = new PathDriverClassLoader(path))
+		{
+			// 索引
+			assertTrue(classLoader.isInPath(IN_PATH_CLASS_RESOURCE));
+			assertTrue(classLoader.isInPath("META-INF/services/test.Service"));
+			assertTrue(classLoader.isInPath("META-INF/"));
+			assertTrue(classLoader.isInPath("META-INF/services/"));
+			assertTrue(classLoader.isInPath("b/"));
+			assertTrue(classLoader.isInPath("c.txt"));
+			assertFalse(classLoader.isInPath("b/none.txt"));
+			assertFalse(classLoader.isInPath("none/"));
+
+			// 类
+			{
+				Class<?> clazz = classLoader.loadClass(InPathClass.class.getName());
+
+				assertSame(classLoader, clazz.getClassLoader());
+				assertNotSame(InPathClass.class, clazz);
+				assertSame(clazz, classLoader.loadClass(InPathClass.class.getName()));
+				assertSame(String.class, classLoader.loadClass(String.class.getName()));
+
+				assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass("org.datagear.none.NoneClass"));
+				// 不在路径内的非JDK类不应代理给父类加载器
+				assertThrows(ClassNotFoundException.class,
+						() -> classLoader.loadClass(PathDriverClassLoaderTest.class.getName()));
+			}
+
+			// 资源
+			{
+				assertNotNull(classLoader.getResource("b/b.txt"));
+				assertNotNull(classLoader.getResource("c.txt"));
+				assertNull(classLoader.getResource("b/none.txt"));
+				assertNull(classLoader.getResourceAsStream("b/none.txt"));
+
+				try (InputStream in = classLoader.getResourceAsStream("c.txt"))
+				{
+					assertEquals("c", IOUtil.readString(in, "UTF-8", false));
+				}
+
+				// 多个JAR包中的同名资源都应找到
+				List<URL> urls = Collections.list(classLoader.getResources("META-INF/services/test.Service"));
+				assertEquals(2, urls.size());
+
+				assertFalse(classLoader.getResources("META-INF/services/none.Service").hasMoreElements());
+			}
+		}
+	}
+
+	@Test
+	public void buildNameIndexTest() throws Exception
+	{
+		File path = FileUtil.getDirectory("target/PathDriverClassLoaderTest-none/", true);
+		FileUtil.clearDirectory(path);
+
+		assertTrue(PathDriverClassLoader.buildNameIndex(path).isEmpty());
+		assertTrue(PathDriverClassLoader.buildNameIndex(new File(path, "none")).isEmpty());
+	}
+
+	protected byte[] getBytes(String resource) throws IOException
+	{
+		InputStream in = getClass().getClassLoader().getResourceAsStream(resource);
+
+		try
+		{
+			return IOUtil.getBytes(in);
+		}
+		finally
+		{
+			IOUtil.close(in);
+		}
+	}
+
+	protected void writeFile(File file, String content) throws IOException
+	{
+		try (FileOutputStream out = new FileOutputStream(file))
+		{
+			out.write(content.getBytes("UTF-8"));
+		}
+	}
+
+	protected void writeJar(File jar, String[] names, byte[][] contents) throws IOException
+	{
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar)))
+		{
+			for (int i = 0; i < names.length; i++)
+			{
+				out.putNextEntry(new ZipEntry(names[i]));
+				out.write(contents[i]);
+				out.closeEntry();
+			}
+		}
+	}
+
+	public static class InPathClass
+	{
+		public InPathClass()
+		{
+		}
+	}
+}
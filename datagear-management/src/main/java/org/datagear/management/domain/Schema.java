@@ -7,8 +7,11 @@
 
 package org.datagear.management.domain;
 
+import java.util.Arrays;
 import java.util.Date;
 
+import org.datagear.connection.ConnectionCircuitStat;
+import org.datagear.connection.ConnectionPoolOption;
 import org.datagear.connection.DriverEntity;
 import org.springframework.beans.BeanUtils;
 
@@ -67,9 +70,18 @@ public class Schema extends AbstractStringIdEntity
 	/** 数据库驱动程序路径名 */
 	private DriverEntity driverEntity;
 
+	/** 连接池选项 */
+	private ConnectionPoolOption poolOption;
+
+	/** 只读副本 */
+	private SchemaReplica[] replicas;
+
 	/** 权限 */
 	private int dataPermission = PERMISSION_NOT_LOADED;
 
+	/** 连接熔断统计信息，不持久化，仅用于界面展示 */
+	private ConnectionCircuitStat connectionCircuit;
+
 	public Schema()
 	{
 		super();
@@ -176,6 +188,49 @@ public class Schema extends AbstractStringIdEntity
 		this.driverEntity = driverEntity;
 	}
 
+	public boolean hasPoolOption()
+	{
+		return (this.poolOption != null && this.poolOption.hasAnyOption());
+	}
+
+	/**
+	 * 获取连接池选项。
+	 * 
+	 * @return 为{@code null}表示采用全局连接池选项
+	 */
+	public ConnectionPoolOption getPoolOption()
+	{
+		return poolOption;
+	}
+
+	public void setPoolOption(ConnectionPoolOption poolOption)
+	{
+		this.poolOption = poolOption;
+	}
+
+	public boolean hasReplica()
+	{
+		return (this.replicas != null && this.replicas.length > 0);
+	}
+
+	/**
+	 * 获取只读副本。
+	 * <p>
+	 * 只读操作（比如数据集、表数据查询、数据导出）将优先使用只读副本，写操作始终使用{@linkplain #getUrl()}。
+	 * </p>
+	 * 
+	 * @return 可能为{@code null}
+	 */
+	public SchemaReplica[] getReplicas()
+	{
+		return replicas;
+	}
+
+	public void setReplicas(SchemaReplica[] replicas)
+	{
+		this.replicas = replicas;
+	}
+
 	@Override
 	public int getDataPermission()
 	{
@@ -188,6 +243,21 @@ public class Schema extends AbstractStringIdEntity
 		this.dataPermission = dataPermission;
 	}
 
+	/**
+	 * 获取连接熔断统计信息。
+	 * 
+	 * @return 为{@code null}表示没有连接失败记录
+	 */
+	public ConnectionCircuitStat getConnectionCircuit()
+	{
+		return connectionCircuit;
+	}
+
+	public void setConnectionCircuit(ConnectionCircuitStat connectionCircuit)
+	{
+		this.connectionCircuit = connectionCircuit;
+	}
+
 	@Override
 	public Schema clone()
 	{
@@ -243,6 +313,7 @@ public class Schema extends AbstractStringIdEntity
 	public String toString()
 	{
 		return getClass().getSimpleName() + " [title=" + title + ", url=" + url + ", user=" + user + ", createUser="
-				+ createUser + ", createTime=" + createTime + ", driverEntity=" + driverEntity + "]";
+				+ createUser + ", createTime=" + createTime + ", driverEntity=" + driverEntity + ", poolOption="
+				+ poolOption + ", replicas=" + Arrays.toString(replicas) + "]";
 	}
 }
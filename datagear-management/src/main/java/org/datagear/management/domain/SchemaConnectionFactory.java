@@ -64,7 +64,8 @@ public class SchemaConnectionFactory extends SchemaConnectionSupport implements
 	@Override
 	public Connection get() throws Exception
 	{
-		return super.getSchemaConnection(this.connectionSource, this.schema);
+		// 数据集仅执行查询，优先使用只读副本
+		return super.getReadonlySchemaConnection(this.connectionSource, this.schema);
 	}
 
 	@Override
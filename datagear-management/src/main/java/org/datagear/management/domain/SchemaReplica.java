@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.management.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 数据源只读副本。
+ * <p>
+ * 只读副本使用与所属{@linkplain Schema}相同的用户名、密码和驱动程序，仅连接URL不同。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SchemaReplica implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 默认权重 */
+	public static final int DEFAULT_WEIGHT = 1;
+
+	/** 连接URL */
+	private String url;
+
+	/** 权重，权重越大被选中的几率越高 */
+	private int weight = DEFAULT_WEIGHT;
+
+	public SchemaReplica()
+	{
+		super();
+	}
+
+	public SchemaReplica(String url, int weight)
+	{
+		super();
+		this.url = url;
+		this.weight = weight;
+	}
+
+	public String getUrl()
+	{
+		return url;
+	}
+
+	public void setUrl(String url)
+	{
+		this.url = url;
+	}
+
+	public int getWeight()
+	{
+		return weight;
+	}
+
+	public void setWeight(int weight)
+	{
+		this.weight = weight;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(url, weight);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SchemaReplica other = (SchemaReplica) obj;
+		return Objects.equals(url, other.url) && weight == other.weight;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [url=" + url + ", weight=" + weight + "]";
+	}
+}
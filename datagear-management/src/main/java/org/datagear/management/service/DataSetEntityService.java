@@ -8,6 +8,7 @@
 package org.datagear.management.service;
 
 import java.io.File;
+import java.util.List;
 
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.datagear.analysis.DataSet;
@@ -32,6 +33,17 @@ public interface DataSetEntityService extends DataPermissionEntityService<String
 	 */
 	DataSet getDataSet(String id);
 
+	/**
+	 * 批量获取可用于执行分析的{@linkplain DataSet}。
+	 * <p>
+	 * 它会以批量方式从底层数据库加载缓存中没有的数据集，应优先于逐一调用{@linkplain #getDataSet(String)}。
+	 * </p>
+	 * 
+	 * @param ids
+	 * @return 与{@code ids}一一对应的列表，没有的元素为{@code null}
+	 */
+	List<DataSet> getDataSets(List<String> ids);
+
 	/**
 	 * 获取指定ID的{@linkplain ProfileDataSet}。
 	 * 
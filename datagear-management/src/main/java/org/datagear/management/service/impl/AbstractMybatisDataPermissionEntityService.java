@@ -9,7 +9,6 @@ package org.datagear.management.service.impl;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -334,12 +333,14 @@ public abstract class AbstractMybatisDataPermissionEntityService<ID, T extends D
 
 		Map<ID, Integer> permissions = getPermissionsFromCache(user, ids);
 
-		List<ID> noCachedIds = Collections.emptyList();
+		List<ID> noCachedIds = null;
 
 		if (permissions.isEmpty())
 			noCachedIds = ids;
 		else
 		{
+			noCachedIds = new ArrayList<ID>();
+
 			for (int i = 0; i < len; i++)
 			{
 				ID id = ids.get(i);
@@ -8,6 +8,8 @@
 package org.datagear.management.service.impl;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -215,6 +217,90 @@ public abstract class AbstractMybatisEntityService<ID, T extends Entity<ID>> ext
 		return selectOneMybatis("getById", params);
 	}
 
+	/**
+	 * 批量获取实体。
+	 * <p>
+	 * 此方法先从缓存中获取实体，对于缓存中没有的，再调用{@linkplain #getByIdsFromDB(List, Map)}一次性从底层数据库获取，
+	 * 以避免逐一调用{@linkplain #getById(Object, Map)}导致的多次数据库访问。
+	 * </p>
+	 * <p>
+	 * 注意：在调用此方法获取实体后，应重新设置其引用的实体对象属性值，以保证它们是最新的。
+	 * </p>
+	 *
+	 * @param ids
+	 * @param params
+	 * @return 与{@code ids}一一对应的实体列表，没有的元素为{@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<T> getByIds(List<ID> ids, Map<String, Object> params)
+	{
+		int len = ids.size();
+
+		List<T> re = new ArrayList<>(len);
+		List<ID> noCachedIds = new ArrayList<>();
+
+		for (int i = 0; i < len; i++)
+		{
+			ID id = ids.get(i);
+			T entity = null;
+
+			if (id != null)
+			{
+				ValueWrapper entityWrapper = cacheGet(id);
+
+				if (entityWrapper != null)
+					entity = (T) entityWrapper.get();
+				else if (!noCachedIds.contains(id))
+					noCachedIds.add(id);
+			}
+
+			re.add(entity);
+		}
+
+		if (noCachedIds.isEmpty())
+			return re;
+
+		List<T> dbEntities = getByIdsFromDB(noCachedIds, params);
+
+		Map<ID, T> dbEntityMap = new HashMap<>();
+		for (T entity : dbEntities)
+		{
+			if (entity != null)
+				dbEntityMap.put(entity.getId(), entity);
+		}
+
+		for (ID id : noCachedIds)
+			cachePut(id, dbEntityMap.get(id));
+
+		for (int i = 0; i < len; i++)
+		{
+			ID id = ids.get(i);
+
+			if (re.get(i) == null && id != null)
+				re.set(i, dbEntityMap.get(id));
+		}
+
+		return re;
+	}
+
+	/**
+	 * 从底层数据库批量获取实体。
+	 * <p>
+	 * 此方法调用底层的{@code getByIds} SQL，参数{@code ids}过多时将分批调用。
+	 * </p>
+	 * <p>
+	 * 子类如果重写了{@linkplain #getByIdFromDB(Object, Map)}来加载私有属性值，也应重写此方法，并且以批量方式加载它们。
+	 * </p>
+	 *
+	 * @param ids
+	 * @param params
+	 * @return 找到的实体列表，不保证与{@code ids}的顺序一致
+	 */
+	protected List<T> getByIdsFromDB(List<ID> ids, Map<String, Object> params)
+	{
+		return selectListMybatisInChunks("getByIds", params, "ids", ids);
+	}
+
 	@Override
 	protected boolean update(T entity, Map<String, Object> params)
 	{
@@ -7,6 +7,7 @@
 
 package org.datagear.management.service.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -61,6 +62,9 @@ public abstract class AbstractMybatisService<T> extends SqlSessionDaoSupport
 	/** {@linkplain MbSqlDialect#funcNameModInt()}的MyBatis参数名 */
 	public static final String FUNC_NAME_MODINT = "_FUNC_MODINT";
 
+	/** {@code IN}条件的最大参数个数，某些数据库对此有限制（比如Oracle为1000） */
+	public static final int MAX_IN_PARAM_COUNT = 500;
+
 	private MbSqlDialect dialect;
 
 	private String identifierQuoteKey = DEFAULT_IDENTIFIER_QUOTE_KEY;
@@ -621,6 +625,42 @@ public abstract class AbstractMybatisService<T> extends SqlSessionDaoSupport
 		return getSqlSession().selectList(toGlobalSqlId(statement), parameter);
 	}
 
+	/**
+	 * 分批查询列表。
+	 * <p>
+	 * 将{@code inParams}按照{@linkplain #MAX_IN_PARAM_COUNT}分批作为{@code inParamName}参数值查询，然后合并结果，
+	 * 用于{@code IN}条件的参数个数可能很多的查询。
+	 * </p>
+	 * 
+	 * @param statement
+	 * @param parameter
+	 * @param inParamName
+	 * @param inParams
+	 * @return
+	 */
+	protected <E> List<E> selectListMybatisInChunks(String statement, Map<String, Object> parameter,
+			String inParamName, List<?> inParams)
+	{
+		int size = inParams.size();
+
+		if (size <= MAX_IN_PARAM_COUNT)
+		{
+			parameter.put(inParamName, inParams);
+			return selectListMybatis(statement, parameter);
+		}
+
+		List<E> re = new ArrayList<E>();
+
+		for (int i = 0; i < size; i += MAX_IN_PARAM_COUNT)
+		{
+			parameter.put(inParamName, inParams.subList(i, Math.min(size, i + MAX_IN_PARAM_COUNT)));
+			List<E> chunk = selectListMybatis(statement, parameter);
+			re.addAll(chunk);
+		}
+
+		return re;
+	}
+
 	/**
 	 * 查询列表。
 	 * 
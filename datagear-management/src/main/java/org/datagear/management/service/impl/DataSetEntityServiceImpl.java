@@ -9,6 +9,7 @@ package org.datagear.management.service.impl;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +42,7 @@ import org.datagear.management.service.DataSetResDirectoryService;
 import org.datagear.management.service.PermissionDeniedException;
 import org.datagear.management.service.SchemaService;
 import org.datagear.management.service.UserService;
+import org.datagear.management.util.SchemaReplicaSelector;
 import org.datagear.management.util.dialect.MbSqlDialect;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
@@ -74,6 +76,9 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 
 	private HttpClient httpClient;
 
+	/** SQL数据集使用的只读副本选择器，为{@code null}时不使用只读副本 */
+	private SchemaReplicaSelector schemaReplicaSelector = null;
+
 	public DataSetEntityServiceImpl()
 	{
 		super();
@@ -163,6 +168,16 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		this.dataSetResDirectoryService = dataSetResDirectoryService;
 	}
 
+	public SchemaReplicaSelector getSchemaReplicaSelector()
+	{
+		return schemaReplicaSelector;
+	}
+
+	public void setSchemaReplicaSelector(SchemaReplicaSelector schemaReplicaSelector)
+	{
+		this.schemaReplicaSelector = schemaReplicaSelector;
+	}
+
 	public File getDataSetRootDirectory()
 	{
 		return dataSetRootDirectory;
@@ -194,17 +209,42 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 	public DataSet getDataSet(String id)
 	{
 		DataSetEntity entity = getById(id);
+		inflateConnectionSource(entity);
 
+		return entity;
+	}
+
+	@Override
+	public List<DataSet> getDataSets(List<String> ids)
+	{
+		List<DataSetEntity> entities = getByIds(ids, buildParamMap());
+
+		List<DataSet> dataSets = new ArrayList<>(entities.size());
+
+		for (DataSetEntity entity : entities)
+		{
+			entity = postProcessGetNullable(entity);
+			inflateConnectionSource(entity);
+
+			dataSets.add(entity);
+		}
+
+		return dataSets;
+	}
+
+	protected void inflateConnectionSource(DataSetEntity entity)
+	{
 		if (entity instanceof SqlDataSetEntity)
 		{
 			SqlDataSetEntity sqlDataSetEntity = (SqlDataSetEntity) entity;
 			SchemaConnectionFactory connectionFactory = sqlDataSetEntity.getConnectionFactory();
 
 			if (connectionFactory != null)
+			{
 				connectionFactory.setConnectionSource(this.connectionSource);
+				connectionFactory.setReplicaSelector(this.schemaReplicaSelector);
+			}
 		}
-
-		return entity;
 	}
 
 	@Override
@@ -448,6 +488,130 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		return entity;
 	}
 
+	@Override
+	protected List<DataSetEntity> getByIdsFromDB(List<String> ids, Map<String, Object> params)
+	{
+		List<DataSetEntity> summaries = super.getByIdsFromDB(ids, params);
+
+		if (summaries.isEmpty())
+			return summaries;
+
+		Map<String, List<String>> typeIds = new HashMap<>();
+
+		for (DataSetEntity summary : summaries)
+		{
+			List<String> myIds = typeIds.get(summary.getDataSetType());
+
+			if (myIds == null)
+			{
+				myIds = new ArrayList<>();
+				typeIds.put(summary.getDataSetType(), myIds);
+			}
+
+			myIds.add(summary.getId());
+		}
+
+		List<DataSetEntity> entities = new ArrayList<>(summaries.size());
+
+		for (Map.Entry<String, List<String>> entry : typeIds.entrySet())
+		{
+			String statement = getSubTypeEntityByIdStatement(entry.getKey());
+
+			if (statement == null)
+			{
+				// 与getByIdFromDB(String, Map)保持一致，未知类型直接使用摘要实体
+				for (DataSetEntity summary : summaries)
+				{
+					if (entry.getValue().contains(summary.getId()))
+						entities.add(summary);
+				}
+			}
+			else
+			{
+				Map<String, Object> typeParams = buildParamMap();
+				List<DataSetEntity> typeEntities = selectListMybatisInChunks(statement, typeParams, "ids",
+						entry.getValue());
+
+				for (DataSetEntity entity : typeEntities)
+					entities.add(inflateSubTypeEntity(entity));
+			}
+		}
+
+		inflateParamsAndProperties(entities);
+
+		return entities;
+	}
+
+	/**
+	 * 获取指定数据集类型的{@code get*DataSetEntityById} SQL名，没有则返回{@code null}。
+	 * 
+	 * @param dataSetType
+	 * @return
+	 */
+	protected String getSubTypeEntityByIdStatement(String dataSetType)
+	{
+		if (DataSetEntity.DATA_SET_TYPE_SQL.equals(dataSetType))
+			return "getSqlDataSetEntityById";
+		else if (DataSetEntity.DATA_SET_TYPE_JsonValue.equals(dataSetType))
+			return "getJsonValueDataSetEntityById";
+		else if (DataSetEntity.DATA_SET_TYPE_JsonFile.equals(dataSetType))
+			return "getJsonFileDataSetEntityById";
+		else if (DataSetEntity.DATA_SET_TYPE_Excel.equals(dataSetType))
+			return "getExcelDataSetEntityById";
+		else if (DataSetEntity.DATA_SET_TYPE_CsvValue.equals(dataSetType))
+			return "getCsvValueDataSetEntityById";
+		else if (DataSetEntity.DATA_SET_TYPE_CsvFile.equals(dataSetType))
+			return "getCsvFileDataSetEntityById";
+		else if (DataSetEntity.DATA_SET_TYPE_Http.equals(dataSetType))
+			return "getHttpDataSetEntityById";
+		else
+			return null;
+	}
+
+	/**
+	 * 设置子类型实体的非持久化属性值。
+	 * 
+	 * @param entity
+	 * @return
+	 */
+	protected DataSetEntity inflateSubTypeEntity(DataSetEntity entity)
+	{
+		if (entity instanceof JsonFileDataSetEntity)
+			((JsonFileDataSetEntity) entity).setDirectory(getDataSetDirectory(entity.getId()));
+		else if (entity instanceof ExcelDataSetEntity)
+			((ExcelDataSetEntity) entity).setDirectory(getDataSetDirectory(entity.getId()));
+		else if (entity instanceof CsvFileDataSetEntity)
+			((CsvFileDataSetEntity) entity).setDirectory(getDataSetDirectory(entity.getId()));
+		else if (entity instanceof HttpDataSetEntity)
+			((HttpDataSetEntity) entity).setHttpClient(this.httpClient);
+
+		return entity;
+	}
+
+	protected void inflateParamsAndProperties(List<DataSetEntity> dataSetEntities)
+	{
+		if (dataSetEntities.isEmpty())
+			return;
+
+		List<String> dataSetIds = new ArrayList<>(dataSetEntities.size());
+		for (DataSetEntity dataSetEntity : dataSetEntities)
+			dataSetIds.add(dataSetEntity.getId());
+
+		List<DataSetPropertyPO> propertyPOs = selectListMybatisInChunks("getPropertyPOs", buildParamMap(),
+				"dataSetIds", dataSetIds);
+		List<DataSetParamPO> paramPOs = selectListMybatisInChunks("getParamPOs", buildParamMap(), "dataSetIds",
+				dataSetIds);
+
+		Map<String, List<DataSetPropertyPO>> propertyPOMap = DataSetChildPO.groupByDataSetId(propertyPOs);
+		Map<String, List<DataSetParamPO>> paramPOMap = DataSetChildPO.groupByDataSetId(paramPOs);
+
+		for (DataSetEntity dataSetEntity : dataSetEntities)
+		{
+			dataSetEntity.setProperties(DataSetPropertyPO.to(propertyPOMap.get(dataSetEntity.getId())));
+			dataSetEntity.setParams(DataSetParamPO.to(paramPOMap.get(dataSetEntity.getId())));
+		}
+	}
+
 	protected void inflateParamsAndProperties(DataSetEntity dataSetEntity)
 	{
 		if (dataSetEntity == null)
@@ -688,6 +852,26 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 			this.order = order;
 		}
 
+		public static <P extends DataSetChildPO<?>> Map<String, List<P>> groupByDataSetId(List<P> pos)
+		{
+			Map<String, List<P>> map = new HashMap<>();
+
+			for (P po : pos)
+			{
+				List<P> myPos = map.get(po.getDataSetId());
+
+				if (myPos == null)
+				{
+					myPos = new ArrayList<>();
+					map.put(po.getDataSetId(), myPos);
+				}
+
+				myPos.add(po);
+			}
+
+			return map;
+		}
+
 		public static <T> List<T> to(List<? extends DataSetChildPO<T>> pos)
 		{
 			List<T> childs = new ArrayList<>();
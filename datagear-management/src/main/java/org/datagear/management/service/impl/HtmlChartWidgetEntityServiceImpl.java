@@ -31,6 +31,7 @@ import org.datagear.analysis.support.JsonSupport;
 import org.datagear.analysis.support.html.HtmlChartPlugin;
 import org.datagear.management.domain.AnalysisProject;
 import org.datagear.management.domain.AnalysisProjectAwareEntity;
+import org.datagear.management.domain.Authorization;
 import org.datagear.management.domain.ChartDataSetVO;
 import org.datagear.management.domain.HtmlChartWidgetEntity;
 import org.datagear.management.domain.User;
@@ -154,6 +155,56 @@ public class HtmlChartWidgetEntityServiceImpl
 		return entity;
 	}
 
+	@Override
+	public ChartWidget[] getChartWidgets(String[] ids) throws Throwable
+	{
+		ChartWidgetSourceContext context = ChartWidgetSourceContext.get();
+
+		List<String> idList = new ArrayList<>(ids.length);
+		for (String id : ids)
+			idList.add(StringUtil.isEmpty(id) ? null : id);
+
+		int[] permissions = null;
+
+		if (context.hasUser())
+		{
+			permissions = new int[ids.length];
+
+			List<String> permissionIds = new ArrayList<>(ids.length);
+			for (String id : idList)
+				addIfNonNull(permissionIds, id);
+
+			List<Integer> idPermissions = getPermissions(context.getUser(), permissionIds);
+
+			for (int i = 0, j = 0; i < permissions.length; i++)
+			{
+				if (idList.get(i) == null)
+					continue;
+
+				permissions[i] = idPermissions.get(j++);
+
+				if (!Authorization.canRead(permissions[i]))
+					throw new PermissionDeniedException();
+			}
+		}
+
+		List<HtmlChartWidgetEntity> entities = getByIds(idList, buildParamMap());
+
+		for (int i = 0; i < entities.size(); i++)
+		{
+			HtmlChartWidgetEntity entity = postProcessGetNullable(entities.get(i));
+
+			if (entity != null && permissions != null)
+				entity.setDataPermission(permissions[i]);
+
+			entities.set(i, entity);
+		}
+
+		inflateHtmlChartWidgetEntitiesForAnalysis(entities);
+
+		return entities.toArray(new ChartWidget[entities.size()]);
+	}
+
 	@Override
 	public HtmlChartWidgetEntity getById(User user, String id) throws PermissionDeniedException
 	{
@@ -239,6 +290,15 @@ public class HtmlChartWidgetEntityServiceImpl
 		return entity;
 	}
 
+	@Override
+	protected List<HtmlChartWidgetEntity> getByIdsFromDB(List<String> ids, Map<String, Object> params)
+	{
+		List<HtmlChartWidgetEntity> entities = super.getByIdsFromDB(ids, params);
+		setChartDataSetVOs(entities);
+
+		return entities;
+	}
+
 	@Override
 	protected HtmlChartWidgetEntity postProcessGet(HtmlChartWidgetEntity obj)
 	{
@@ -317,6 +377,49 @@ public class HtmlChartWidgetEntityServiceImpl
 		entity.setChartDataSets(chartDataSets.toArray(new ChartDataSetVO[chartDataSets.size()]));
 	}
 
+	protected void setChartDataSetVOs(List<HtmlChartWidgetEntity> entities)
+	{
+		if (entities.isEmpty())
+			return;
+
+		List<String> widgetIds = new ArrayList<>(entities.size());
+		for (HtmlChartWidgetEntity entity : entities)
+			widgetIds.add(entity.getId());
+
+		List<WidgetDataSetRelation> relations = selectListMybatisInChunks("getDataSetRelations", buildParamMap(),
+				"widgetIds", widgetIds);
+
+		Map<String, List<ChartDataSetVO>> widgetChartDataSets = new HashMap<>();
+
+		for (WidgetDataSetRelation relation : relations)
+		{
+			ChartDataSetVO chartDataSet = toChartDataSetVO(relation);
+
+			if (chartDataSet == null)
+				continue;
+
+			List<ChartDataSetVO> chartDataSets = widgetChartDataSets.get(relation.getWidgetId());
+
+			if (chartDataSets == null)
+			{
+				chartDataSets = new ArrayList<>();
+				widgetChartDataSets.put(relation.getWidgetId(), chartDataSets);
+			}
+
+			chartDataSets.add(chartDataSet);
+		}
+
+		for (HtmlChartWidgetEntity entity : entities)
+		{
+			List<ChartDataSetVO> chartDataSets = widgetChartDataSets.get(entity.getId());
+
+			if (chartDataSets == null)
+				chartDataSets = Collections.emptyList();
+
+			entity.setChartDataSets(chartDataSets.toArray(new ChartDataSetVO[chartDataSets.size()]));
+		}
+	}
+
 	protected ChartDataSetVO toChartDataSetVO(WidgetDataSetRelation relation)
 	{
 		if (relation == null || StringUtil.isEmpty(relation.getDataSetId()))
@@ -397,6 +500,58 @@ public class HtmlChartWidgetEntityServiceImpl
 		}
 	}
 
+	/**
+	 * 批量加载用于分析的{@linkplain HtmlChartWidgetEntity}，所有图表的数据集都通过{@linkplain DataSetEntityService#getDataSets(List)}一次性获取。
+	 * 
+	 * @param entities
+	 *            元素允许为{@code null}
+	 */
+	protected void inflateHtmlChartWidgetEntitiesForAnalysis(List<HtmlChartWidgetEntity> entities)
+	{
+		List<String> dataSetIds = new ArrayList<>();
+
+		for (HtmlChartWidgetEntity entity : entities)
+		{
+			if (entity == null)
+				continue;
+
+			inflateHtmlChartPlugin(entity, true);
+
+			ChartDataSetVO[] chartDataSetVOs = entity.getChartDataSetVOs();
+
+			if (chartDataSetVOs == null)
+				continue;
+
+			for (ChartDataSetVO vo : chartDataSetVOs)
+			{
+				String dataSetId = vo.getDataSet().getId();
+
+				if (!dataSetIds.contains(dataSetId))
+					dataSetIds.add(dataSetId);
+			}
+		}
+
+		if (dataSetIds.isEmpty())
+			return;
+
+		List<DataSet> dataSets = this.dataSetEntityService.getDataSets(dataSetIds);
+
+		Map<String, DataSet> dataSetMap = new HashMap<>();
+		for (int i = 0; i < dataSetIds.size(); i++)
+			dataSetMap.put(dataSetIds.get(i), dataSets.get(i));
+
+		for (HtmlChartWidgetEntity entity : entities)
+		{
+			ChartDataSetVO[] chartDataSetVOs = (entity == null ? null : entity.getChartDataSetVOs());
+
+			if (chartDataSetVOs == null)
+				continue;
+
+			for (ChartDataSetVO vo : chartDataSetVOs)
+				vo.setDataSet(dataSetMap.get(vo.getDataSet().getId()));
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	protected Map<String, Set<String>> toPropertySigns(String json)
 	{
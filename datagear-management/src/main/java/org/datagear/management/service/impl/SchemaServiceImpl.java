@@ -12,6 +12,7 @@ import java.util.Map;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.datagear.connection.DriverEntityManager;
 import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.SchemaReplica;
 import org.datagear.management.domain.User;
 import org.datagear.management.service.AuthorizationService;
 import org.datagear.management.service.PermissionDeniedException;
@@ -103,14 +104,14 @@ public class SchemaServiceImpl extends AbstractMybatisDataPermissionEntityServic
 	@Override
 	public void add(User user, Schema entity) throws PermissionDeniedException
 	{
-		checkSaveUrlPermission(user, entity.getUrl());
+		checkSaveUrlPermission(user, entity);
 		super.add(user, entity);
 	}
 
 	@Override
 	public boolean update(User user, Schema entity) throws PermissionDeniedException
 	{
-		checkSaveUrlPermission(user, entity.getUrl());
+		checkSaveUrlPermission(user, entity);
 		return super.update(user, entity);
 	}
 
@@ -163,6 +164,24 @@ public class SchemaServiceImpl extends AbstractMybatisDataPermissionEntityServic
 			throw new IllegalArgumentException();
 	}
 
+	/**
+	 * 校验用户是否有权保存{@linkplain Schema}，主库URL及所有{@linkplain SchemaReplica}的URL都需校验。
+	 * 
+	 * @param user
+	 * @param entity
+	 * @throws SaveSchemaUrlPermissionDeniedException
+	 */
+	protected void checkSaveUrlPermission(User user, Schema entity) throws SaveSchemaUrlPermissionDeniedException
+	{
+		checkSaveUrlPermission(user, entity.getUrl());
+
+		if (entity.hasReplica())
+		{
+			for (SchemaReplica replica : entity.getReplicas())
+				checkSaveUrlPermission(user, replica.getUrl());
+		}
+	}
+
 	/**
 	 * 校验用户是否有权保存指定URL的{@linkplain Schema}。
 	 * 
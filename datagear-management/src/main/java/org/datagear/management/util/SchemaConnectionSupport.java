@@ -8,25 +8,52 @@
 package org.datagear.management.util;
 
 import java.sql.Connection;
+import java.util.List;
 
 import org.datagear.connection.ConnectionOption;
 import org.datagear.connection.ConnectionSource;
 import org.datagear.connection.ConnectionSourceException;
 import org.datagear.connection.DriverEntity;
 import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.SchemaReplica;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * {@linkplain Schema}数据库连接支持类。
+ * <p>
+ * 只有设置了{@linkplain #getReplicaSelector()}，才会使用{@linkplain Schema#getReplicas()}只读副本。
+ * 它应是共享的实例（通常由Spring容器管理），使得副本可用状态、主库固定标识在所有使用者之间共享。
+ * </p>
  * 
  * @author datagear@163.com
  *
  */
 public class SchemaConnectionSupport
 {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SchemaConnectionSupport.class);
+
+	private SchemaReplicaSelector replicaSelector = null;
+
 	public SchemaConnectionSupport()
 	{
 	}
 
+	public SchemaConnectionSupport(SchemaReplicaSelector replicaSelector)
+	{
+		this.replicaSelector = replicaSelector;
+	}
+
+	public SchemaReplicaSelector getReplicaSelector()
+	{
+		return replicaSelector;
+	}
+
+	public void setReplicaSelector(SchemaReplicaSelector replicaSelector)
+	{
+		this.replicaSelector = replicaSelector;
+	}
+
 	/**
 	 * 获取指定{@linkplain Schema}的{@linkplain Connection}。
 	 * 
@@ -37,11 +64,106 @@ public class SchemaConnectionSupport
 	 */
 	public Connection getSchemaConnection(ConnectionSource connectionSource, Schema schema)
 			throws ConnectionSourceException
+	{
+		return getSchemaConnection(connectionSource, schema, schema.getUrl());
+	}
+
+	/**
+	 * 获取指定{@linkplain Schema}用于只读操作的{@linkplain Connection}。
+	 * <p>
+	 * 如果{@linkplain Schema#hasReplica()}，将按照权重选择一个可用的只读副本，都不可用时，返回{@linkplain #getSchemaConnection(ConnectionSource, Schema)}。
+	 * </p>
+	 * <p>
+	 * 注意：只读副本可能存在复制延迟，需要读取刚写入数据的操作不应使用此方法。
+	 * </p>
+	 * 
+	 * @param connectionSource
+	 * @param schema
+	 * @return
+	 * @throws ConnectionSourceException
+	 */
+	public Connection getReadonlySchemaConnection(ConnectionSource connectionSource, Schema schema)
+			throws ConnectionSourceException
+	{
+		return getReadonlySchemaConnection(connectionSource, schema, null);
+	}
+
+	/**
+	 * 获取指定{@linkplain Schema}用于只读操作的{@linkplain Connection}。
+	 * <p>
+	 * 同{@linkplain #getReadonlySchemaConnection(ConnectionSource, Schema)}，但如果{@code pinKey}在执行写操作后被固定使用主库（参考{@linkplain #pinPrimary(Schema, String)}），
+	 * 将返回{@linkplain #getSchemaConnection(ConnectionSource, Schema)}。
+	 * </p>
+	 * 
+	 * @param connectionSource
+	 * @param schema
+	 * @param pinKey
+	 *            固定使用主库的标识，比如用户ID，允许为{@code null}
+	 * @return
+	 * @throws ConnectionSourceException
+	 */
+	public Connection getReadonlySchemaConnection(ConnectionSource connectionSource, Schema schema, String pinKey)
+			throws ConnectionSourceException
+	{
+		if (this.replicaSelector != null && schema.hasReplica()
+				&& (pinKey == null || !this.replicaSelector.isPinnedPrimary(pinKey, schema)))
+		{
+			List<SchemaReplica> replicas = this.replicaSelector.select(schema);
+
+			for (SchemaReplica replica : replicas)
+			{
+				try
+				{
+					Connection cn = getSchemaConnection(connectionSource, schema, replica.getUrl());
+					this.replicaSelector.markAvailable(schema, replica);
+
+					return cn;
+				}
+				catch (ConnectionSourceException e)
+				{
+					this.replicaSelector.markUnavailable(schema, replica);
+
+					if (LOGGER.isWarnEnabled())
+						LOGGER.warn("Get connection from replica [" + replica.getUrl() + "] of schema [" + schema.getId()
+								+ "] failed, try next", e);
+				}
+			}
+		}
+
+		return getSchemaConnection(connectionSource, schema);
+	}
+
+	/**
+	 * 在指定标识对{@linkplain Schema}执行写操作后调用，使其在一段时间内的只读操作也使用主库，从而读取到刚写入的数据。
+	 * 
+	 * @param schema
+	 * @param pinKey
+	 *            固定使用主库的标识，比如用户ID
+	 */
+	public void pinPrimary(Schema schema, String pinKey)
+	{
+		if (this.replicaSelector != null && schema.hasReplica())
+			this.replicaSelector.pinPrimary(pinKey, schema);
+	}
+
+	/**
+	 * 使用指定URL获取{@linkplain Schema}的{@linkplain Connection}。
+	 * 
+	 * @param connectionSource
+	 * @param schema
+	 * @param url
+	 * @return
+	 * @throws ConnectionSourceException
+	 */
+	protected Connection getSchemaConnection(ConnectionSource connectionSource, Schema schema, String url)
+			throws ConnectionSourceException
 	{
 		Connection cn = null;
 
-		ConnectionOption connectionOption = ConnectionOption.valueOf(schema.getUrl(), schema.getUser(),
-				schema.getPassword());
+		ConnectionOption connectionOption = ConnectionOption.valueOf(url, schema.getUser(), schema.getPassword());
+
+		if (schema.hasPoolOption())
+			connectionOption.setPoolOption(schema.getPoolOption());
 
 		if (schema.hasDriverEntity())
 		{
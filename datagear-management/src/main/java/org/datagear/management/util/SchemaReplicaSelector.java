@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.management.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.SchemaReplica;
+
+/**
+ * {@linkplain SchemaReplica}选择器。
+ * <p>
+ * 它按照权重随机排序可用的只读副本，连接失败的副本在{@linkplain #getFailureCooldown()}内不会再被选中，冷却期过后将被重新尝试。
+ * </p>
+ * <p>
+ * 它还记录固定使用主库的标识（参考{@linkplain #pinPrimary(String, Schema)}），使得执行写操作的用户在{@linkplain #getPrimaryPinPeriod()}内读取的是主库，
+ * 从而避免复制延迟导致读取不到刚写入的数据。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SchemaReplicaSelector
+{
+	/** 连接失败后的冷却毫秒数 */
+	private long failureCooldown = 30 * 1000L;
+
+	/** 写操作后固定使用主库的毫秒数 */
+	private long primaryPinPeriod = 60 * 1000L;
+
+	/** 副本不可用截止时间映射表 */
+	private final ConcurrentMap<String, Long> unavailableUntils = new ConcurrentHashMap<>();
+
+	/** 固定使用主库截止时间映射表 */
+	private final ConcurrentMap<String, Long> primaryPinUntils = new ConcurrentHashMap<>();
+
+	public SchemaReplicaSelector()
+	{
+		super();
+	}
+
+	public long getFailureCooldown()
+	{
+		return failureCooldown;
+	}
+
+	public void setFailureCooldown(long failureCooldown)
+	{
+		this.failureCooldown = failureCooldown;
+	}
+
+	public long getPrimaryPinPeriod()
+	{
+		return primaryPinPeriod;
+	}
+
+	public void setPrimaryPinPeriod(long primaryPinPeriod)
+	{
+		this.primaryPinPeriod = primaryPinPeriod;
+	}
+
+	/**
+	 * 选择可用的只读副本。
+	 * 
+	 * @param schema
+	 * @return 按照优先顺序排列的只读副本列表，可能为空列表
+	 */
+	public List<SchemaReplica> select(Schema schema)
+	{
+		if (!schema.hasReplica())
+			return Collections.emptyList();
+
+		long now = System.currentTimeMillis();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		List<SchemaReplica> replicas = new ArrayList<>(schema.getReplicas().length);
+		List<Double> keys = new ArrayList<>(schema.getReplicas().length);
+
+		for (SchemaReplica replica : schema.getReplicas())
+		{
+			if (replica == null || replica.getUrl() == null || replica.getUrl().isEmpty() || replica.getWeight() <= 0)
+				continue;
+
+			Long unavailableUntil = this.unavailableUntils.get(toKey(schema, replica));
+
+			if (unavailableUntil != null && unavailableUntil > now)
+				continue;
+
+			// 加权随机排序：key = random^(1/weight)，key越大越靠前
+			replicas.add(replica);
+			keys.add(Math.pow(random.nextDouble(), 1.0d / replica.getWeight()));
+		}
+
+		if (replicas.size() < 2)
+			return replicas;
+
+		List<Integer> indexes = new ArrayList<>(replicas.size());
+		for (int i = 0; i < replicas.size(); i++)
+			indexes.add(i);
+
+		Collections.sort(indexes, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer o1, Integer o2)
+			{
+				return Double.compare(keys.get(o2), keys.get(o1));
+			}
+		});
+
+		List<SchemaReplica> re = new ArrayList<>(replicas.size());
+		for (Integer index : indexes)
+			re.add(replicas.get(index));
+
+		return re;
+	}
+
+	/**
+	 * 标记只读副本连接成功。
+	 * 
+	 * @param schema
+	 * @param replica
+	 */
+	public void markAvailable(Schema schema, SchemaReplica replica)
+	{
+		if (!this.unavailableUntils.isEmpty())
+			this.unavailableUntils.remove(toKey(schema, replica));
+	}
+
+	/**
+	 * 标记只读副本连接失败。
+	 * 
+	 * @param schema
+	 * @param replica
+	 */
+	public void markUnavailable(Schema schema, SchemaReplica replica)
+	{
+		this.unavailableUntils.put(toKey(schema, replica), System.currentTimeMillis() + this.failureCooldown);
+	}
+
+	/**
+	 * 是否可用。
+	 * 
+	 * @param schema
+	 * @param replica
+	 * @return
+	 */
+	public boolean isAvailable(Schema schema, SchemaReplica replica)
+	{
+		Long unavailableUntil = this.unavailableUntils.get(toKey(schema, replica));
+		return (unavailableUntil == null || unavailableUntil <= System.currentTimeMillis());
+	}
+
+	/**
+	 * 在{@linkplain #getPrimaryPinPeriod()}内为指定标识固定使用主库。
+	 * <p>
+	 * 应在标识（比如用户ID）对{@linkplain Schema}执行写操作后调用。
+	 * </p>
+	 * 
+	 * @param pinKey
+	 * @param schema
+	 */
+	public void pinPrimary(String pinKey, Schema schema)
+	{
+		long now = System.currentTimeMillis();
+
+		// 清除过期的，避免无限增长
+		if (this.primaryPinUntils.size() >= 1000)
+			this.primaryPinUntils.values().removeIf(until -> until <= now);
+
+		this.primaryPinUntils.put(toPinKey(pinKey, schema), now + this.primaryPinPeriod);
+	}
+
+	/**
+	 * 指定标识是否固定使用主库。
+	 * 
+	 * @param pinKey
+	 * @param schema
+	 * @return
+	 */
+	public boolean isPinnedPrimary(String pinKey, Schema schema)
+	{
+		if (this.primaryPinUntils.isEmpty())
+			return false;
+
+		String key = toPinKey(pinKey, schema);
+		Long pinUntil = this.primaryPinUntils.get(key);
+
+		if (pinUntil == null)
+			return false;
+
+		if (pinUntil > System.currentTimeMillis())
+			return true;
+
+		this.primaryPinUntils.remove(key, pinUntil);
+		return false;
+	}
+
+	protected String toPinKey(String pinKey, Schema schema)
+	{
+		return pinKey + "\n" + schema.getId();
+	}
+
+	protected String toKey(Schema schema, SchemaReplica replica)
+	{
+		return replica.getUrl() + "\n" + schema.getUser();
+	}
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.management.util.typehandlers;
+
+import org.apache.ibatis.type.TypeHandler;
+import org.datagear.connection.ConnectionPoolOption;
+
+/**
+ * {@linkplain ConnectionPoolOption}的Mybatis {@linkplain TypeHandler}。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionPoolOptionTypeHandler extends AbstractJsonTypeHandler<ConnectionPoolOption>
+{
+	public ConnectionPoolOptionTypeHandler()
+	{
+		super();
+	}
+
+	@Override
+	protected Class<ConnectionPoolOption> getJsonObjectType()
+	{
+		return ConnectionPoolOption.class;
+	}
+}
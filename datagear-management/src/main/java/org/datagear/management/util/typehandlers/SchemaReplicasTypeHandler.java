@@ -0,0 +1,31 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.management.util.typehandlers;
+
+import org.apache.ibatis.type.TypeHandler;
+import org.datagear.management.domain.SchemaReplica;
+
+/**
+ * {@linkplain SchemaReplica}数组的Mybatis {@linkplain TypeHandler}。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SchemaReplicasTypeHandler extends AbstractJsonTypeHandler<SchemaReplica[]>
+{
+	public SchemaReplicasTypeHandler()
+	{
+		super();
+	}
+
+	@Override
+	protected Class<SchemaReplica[]> getJsonObjectType()
+	{
+		return SchemaReplica[].class;
+	}
+}
@@ -848,3 +848,13 @@ CREATE TABLE DATAGEAR_SCHEMA_GUARD
 	SG_CREATE_TIME TIMESTAMP,
 	PRIMARY KEY (SG_ID)
 );
+
+--2021-09-06
+--数据源连接池选项
+
+ALTER TABLE DATAGEAR_SCHEMA ADD COLUMN SCHEMA_POOL_OPTION VARCHAR(1000);
+
+--2021-09-08
+--数据源只读副本
+
+ALTER TABLE DATAGEAR_SCHEMA ADD COLUMN SCHEMA_REPLICAS VARCHAR(2000);
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.management.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.datagear.analysis.DataSet;
+import org.datagear.analysis.DataSetProperty;
+import org.datagear.management.domain.CsvValueDataSetEntity;
+import org.datagear.management.domain.User;
+import org.datagear.management.service.AuthorizationService;
+import org.datagear.management.service.UserService;
+import org.datagear.management.service.impl.AbstractMybatisService;
+import org.datagear.management.service.impl.AnalysisProjectServiceImpl;
+import org.datagear.management.service.impl.AuthorizationServiceImpl;
+import org.datagear.management.service.impl.DataSetEntityServiceImpl;
+import org.datagear.management.service.impl.DataSetResDirectoryServiceImpl;
+import org.datagear.management.service.impl.RoleServiceImpl;
+import org.datagear.management.service.impl.UserServiceImpl;
+import org.junit.Test;
+
+/**
+ * {@linkplain DataSetEntityServiceImpl}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DataSetEntityServiceImplTest extends ServiceImplTestSupport
+{
+	private UserServiceImpl userServiceImpl;
+
+	private DataSetEntityServiceImpl dataSetEntityServiceImpl;
+
+	public DataSetEntityServiceImplTest()
+	{
+		super();
+
+		this.userServiceImpl = new UserServiceImpl(getSqlSessionFactory(), getDialect(),
+				new RoleServiceImpl(getSqlSessionFactory(), getDialect()));
+
+		UserService userService = this.userServiceImpl;
+		AuthorizationService authorizationService = new AuthorizationServiceImpl(getSqlSessionFactory(),
+				getDialect(), Collections.emptyList());
+
+		this.dataSetEntityServiceImpl = new DataSetEntityServiceImpl(getSqlSessionFactory(), getDialect(),
+				authorizationService, null, null,
+				new AnalysisProjectServiceImpl(getSqlSessionFactory(), getDialect(), authorizationService,
+						userService),
+				userService,
+				new DataSetResDirectoryServiceImpl(getSqlSessionFactory(), getDialect(), authorizationService,
+						userService),
+				new File("target/test/dataSet"), null);
+	}
+
+	@Test
+	public void getDataSetsTest()
+	{
+		User user = new User("user-id-for-data-set-test", "user-name-for-data-set-test", "psd");
+
+		String id0 = "id-for-data-set-test-0";
+		String id1 = "id-for-data-set-test-1";
+
+		try
+		{
+			this.userServiceImpl.add(user);
+
+			this.dataSetEntityServiceImpl.add(new CsvValueDataSetEntity(id0, "name-0",
+					Arrays.asList(new DataSetProperty("a", DataSetProperty.DataType.STRING)), "a\n0", user));
+			this.dataSetEntityServiceImpl.add(new CsvValueDataSetEntity(id1, "name-1",
+					Arrays.asList(new DataSetProperty("a", DataSetProperty.DataType.STRING),
+							new DataSetProperty("b", DataSetProperty.DataType.STRING)),
+					"a,b\n0,1", user));
+
+			List<DataSet> dataSets = this.dataSetEntityServiceImpl
+					.getDataSets(Arrays.asList(id1, "id-not-exists", id0));
+
+			assertEquals(3, dataSets.size());
+			assertEquals(id1, dataSets.get(0).getId());
+			assertEquals(2, dataSets.get(0).getProperties().size());
+			assertNull(dataSets.get(1));
+			assertEquals(id0, dataSets.get(2).getId());
+			assertEquals(1, dataSets.get(2).getProperties().size());
+			assertEquals("a,b\n0,1", ((CsvValueDataSetEntity) dataSets.get(0)).getValue());
+		}
+		finally
+		{
+			this.dataSetEntityServiceImpl.deleteById(id0);
+			this.dataSetEntityServiceImpl.deleteById(id1);
+			this.userServiceImpl.deleteById(user.getId());
+		}
+	}
+
+	@Test
+	public void getDataSetsTest_chunked()
+	{
+		User user = new User("user-id-for-data-set-test", "user-name-for-data-set-test", "psd");
+
+		String id0 = "id-for-data-set-test-0";
+		String id1 = "id-for-data-set-test-1";
+
+		try
+		{
+			this.userServiceImpl.add(user);
+
+			this.dataSetEntityServiceImpl.add(new CsvValueDataSetEntity(id0, "name-0",
+					Arrays.asList(new DataSetProperty("a", DataSetProperty.DataType.STRING)), "a\n0", user));
+			this.dataSetEntityServiceImpl.add(new CsvValueDataSetEntity(id1, "name-1",
+					Arrays.asList(new DataSetProperty("a", DataSetProperty.DataType.STRING)), "a\n1", user));
+
+			// IN条件参数超过单批上限时，应分批查询
+			int count = AbstractMybatisService.MAX_IN_PARAM_COUNT * 2 + 10;
+			List<String> ids = new ArrayList<>(count);
+
+			for (int i = 0; i < count; i++)
+				ids.add("id-not-exists-" + i);
+
+			ids.set(3, id0);
+			ids.set(count - 3, id1);
+
+			List<DataSet> dataSets = this.dataSetEntityServiceImpl.getDataSets(ids);
+
+			assertEquals(count, dataSets.size());
+			assertEquals(id0, dataSets.get(3).getId());
+			assertEquals(id1, dataSets.get(count - 3).getId());
+			assertEquals(1, dataSets.get(count - 3).getProperties().size());
+			assertNull(dataSets.get(4));
+		}
+		finally
+		{
+			this.dataSetEntityServiceImpl.deleteById(id0);
+			this.dataSetEntityServiceImpl.deleteById(id1);
+			this.userServiceImpl.deleteById(user.getId());
+		}
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.management.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.datagear.connection.ConnectionPoolOption;
+import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.SchemaGuard;
+import org.datagear.management.domain.SchemaReplica;
+import org.datagear.management.domain.User;
+import org.datagear.management.service.AuthorizationService;
+import org.datagear.management.service.impl.AuthorizationServiceImpl;
+import org.datagear.management.service.impl.RoleServiceImpl;
+import org.datagear.management.service.impl.SaveSchemaUrlPermissionDeniedException;
+import org.datagear.management.service.impl.SchemaGuardServiceImpl;
+import org.datagear.management.service.impl.SchemaServiceImpl;
+import org.datagear.management.service.impl.UserServiceImpl;
+import org.junit.Test;
+
+/**
+ * {@linkplain SchemaServiceImpl}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SchemaServiceImplTest extends ServiceImplTestSupport
+{
+	private UserServiceImpl userServiceImpl;
+
+	private SchemaServiceImpl schemaServiceImpl;
+
+	private SchemaGuardServiceImpl schemaGuardServiceImpl;
+
+	public SchemaServiceImplTest()
+	{
+		super();
+
+		AuthorizationService authorizationService = new AuthorizationServiceImpl(getSqlSessionFactory(),
+				getDialect(), Collections.emptyList());
+
+		this.userServiceImpl = new UserServiceImpl(getSqlSessionFactory(), getDialect(),
+				new RoleServiceImpl(getSqlSessionFactory(), getDialect()));
+
+		this.schemaGuardServiceImpl = new SchemaGuardServiceImpl(getSqlSessionFactory(), getDialect());
+
+		this.schemaServiceImpl = new SchemaServiceImpl(getSqlSessionFactory(), getDialect(), authorizationService,
+				null, this.userServiceImpl, this.schemaGuardServiceImpl);
+	}
+
+	@Test
+	public void poolOptionTest()
+	{
+		User user = new User("user-id-for-schema-test", "user-name-for-schema-test", "psd");
+
+		String id0 = "id-for-schema-test-0";
+		String id1 = "id-for-schema-test-1";
+
+		try
+		{
+			this.userServiceImpl.add(user);
+
+			ConnectionPoolOption poolOption = new ConnectionPoolOption();
+			poolOption.setMaxTotal(20);
+			poolOption.setMaxWaitMillis(5000L);
+			poolOption.setPoolPreparedStatements(true);
+
+			Schema schema0 = new Schema(id0, "title-0", "jdbc:test://localhost/db0", "user", "psd");
+			schema0.setCreateTime(new Date());
+			schema0.setCreateUser(user);
+			schema0.setPoolOption(poolOption);
+
+			Schema schema1 = new Schema(id1, "title-1", "jdbc:test://localhost/db1", "user", "psd");
+			schema1.setCreateTime(new Date());
+			schema1.setCreateUser(user);
+
+			this.schemaServiceImpl.add(schema0);
+			this.schemaServiceImpl.add(schema1);
+
+			Schema actual0 = this.schemaServiceImpl.getById(id0);
+			Schema actual1 = this.schemaServiceImpl.getById(id1);
+
+			assertTrue(actual0.hasPoolOption());
+			assertEquals(poolOption, actual0.getPoolOption());
+			assertNull(actual0.getPoolOption().getMinIdle());
+
+			assertFalse(actual1.hasPoolOption());
+			assertNull(actual1.getPoolOption());
+		}
+		finally
+		{
+			this.schemaServiceImpl.deleteById(id0);
+			this.schemaServiceImpl.deleteById(id1);
+			this.userServiceImpl.deleteById(user.getId());
+		}
+	}
+
+	@Test
+	public void replicasTest()
+	{
+		User user = new User("user-id-for-schema-test", "user-name-for-schema-test", "psd");
+
+		String id0 = "id-for-schema-test-0";
+		String id1 = "id-for-schema-test-1";
+
+		try
+		{
+			this.userServiceImpl.add(user);
+
+			SchemaReplica[] replicas = new SchemaReplica[] { new SchemaReplica("jdbc:test://replica0/db0", 1),
+					new SchemaReplica("jdbc:test://replica1/db0", 3) };
+
+			Schema schema0 = new Schema(id0, "title-0", "jdbc:test://localhost/db0", "user", "psd");
+			schema0.setCreateTime(new Date());
+			schema0.setCreateUser(user);
+			schema0.setReplicas(replicas);
+
+			Schema schema1 = new Schema(id1, "title-1", "jdbc:test://localhost/db1", "user", "psd");
+			schema1.setCreateTime(new Date());
+			schema1.setCreateUser(user);
+
+			this.schemaServiceImpl.add(schema0);
+			this.schemaServiceImpl.add(schema1);
+
+			Schema actual0 = this.schemaServiceImpl.getById(id0);
+			Schema actual1 = this.schemaServiceImpl.getById(id1);
+
+			assertTrue(actual0.hasReplica());
+			assertArrayEquals(replicas, actual0.getReplicas());
+
+			assertFalse(actual1.hasReplica());
+			assertNull(actual1.getReplicas());
+
+			actual0.setReplicas(null);
+			this.schemaServiceImpl.update(actual0);
+
+			assertFalse(this.schemaServiceImpl.getById(id0).hasReplica());
+		}
+		finally
+		{
+			this.schemaServiceImpl.deleteById(id0);
+			this.schemaServiceImpl.deleteById(id1);
+			this.userServiceImpl.deleteById(user.getId());
+		}
+	}
+
+	@Test
+	public void saveWithForbiddenReplicaUrlTest()
+	{
+		User user = new User("user-id-for-schema-test", "user-name-for-schema-test", "psd");
+
+		String id0 = "id-for-schema-test-0";
+		String id1 = "id-for-schema-test-1";
+		String guardId = "id-for-schema-guard-test";
+
+		try
+		{
+			this.userServiceImpl.add(user);
+
+			SchemaGuard guard = new SchemaGuard(guardId, "*forbidden*");
+			guard.setPermitted(false);
+			guard.setPriority(100);
+			this.schemaGuardServiceImpl.add(guard);
+
+			SchemaReplica[] replicas = new SchemaReplica[] { new SchemaReplica("jdbc:test://replica0/db0", 1),
+					new SchemaReplica("jdbc:test://forbidden/db0", 1) };
+
+			Schema schema0 = new Schema(id0, "title-0", "jdbc:test://localhost/db0", "user", "psd");
+			schema0.setCreateTime(new Date());
+			schema0.setCreateUser(user);
+			schema0.setReplicas(replicas);
+
+			assertThrows(SaveSchemaUrlPermissionDeniedException.class,
+					() -> this.schemaServiceImpl.add(user, schema0));
+			assertNull(this.schemaServiceImpl.getById(id0));
+
+			Schema schema1 = new Schema(id1, "title-1", "jdbc:test://localhost/db1", "user", "psd");
+			schema1.setCreateTime(new Date());
+			schema1.setCreateUser(user);
+			this.schemaServiceImpl.add(schema1);
+
+			schema1.setReplicas(replicas);
+
+			assertThrows(SaveSchemaUrlPermissionDeniedException.class,
+					() -> this.schemaServiceImpl.update(user, schema1));
+			assertFalse(this.schemaServiceImpl.getById(id1).hasReplica());
+		}
+		finally
+		{
+			this.schemaGuardServiceImpl.deleteById(guardId);
+			this.schemaServiceImpl.deleteById(id0);
+			this.schemaServiceImpl.deleteById(id1);
+			this.userServiceImpl.deleteById(user.getId());
+		}
+	}
+}
@@ -14,9 +14,15 @@ import javax.sql.DataSource;
 
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.type.TypeHandler;
 import org.datagear.management.dbversion.DbVersionManager;
 import org.datagear.management.util.dialect.MbSqlDialect;
 import org.datagear.management.util.dialect.MbSqlDialectBuilder;
+import org.datagear.management.util.typehandlers.ConnectionPoolOptionTypeHandler;
+import org.datagear.management.util.typehandlers.DataFormatTypeHandler;
+import org.datagear.management.util.typehandlers.LiteralBooleanTypeHandler;
+import org.datagear.management.util.typehandlers.ResultDataFormatTypeHandler;
+import org.datagear.management.util.typehandlers.SchemaReplicasTypeHandler;
 import org.datagear.util.test.DBTestSupport;
 import org.mybatis.spring.SqlSessionFactoryBean;
 import org.springframework.core.io.Resource;
@@ -61,6 +67,9 @@ public class ServiceImplTestSupport extends DBTestSupport
 			SqlSessionFactoryBean bean = new SqlSessionFactoryBean();
 			bean.setDataSource(getDataSource());
 			bean.setMapperLocations(resources);
+			bean.setTypeHandlers(new TypeHandler<?>[] { new LiteralBooleanTypeHandler(), new DataFormatTypeHandler(),
+					new ResultDataFormatTypeHandler(), new ConnectionPoolOptionTypeHandler(),
+					new SchemaReplicasTypeHandler() });
 
 			this.sqlSessionFactory = bean.getObject();
 
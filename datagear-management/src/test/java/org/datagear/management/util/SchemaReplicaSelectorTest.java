@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.management.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.SchemaReplica;
+import org.junit.Test;
+
+/**
+ * {@linkplain SchemaReplicaSelector}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SchemaReplicaSelectorTest
+{
+	@Test
+	public void selectTest()
+	{
+		SchemaReplicaSelector selector = new SchemaReplicaSelector();
+
+		// 没有副本
+		{
+			Schema schema = createSchema("schema-01");
+			assertTrue(selector.select(schema).isEmpty());
+		}
+
+		// 忽略无效副本
+		{
+			SchemaReplica replica = new SchemaReplica("jdbc:replica-01", 1);
+
+			Schema schema = createSchema("schema-01", replica, null, new SchemaReplica("", 1),
+					new SchemaReplica(null, 1), new SchemaReplica("jdbc:replica-02", 0));
+
+			List<SchemaReplica> replicas = selector.select(schema);
+
+			assertEquals(1, replicas.size());
+			assertSame(replica, replicas.get(0));
+		}
+	}
+
+	@Test
+	public void selectTest_weight()
+	{
+		SchemaReplicaSelector selector = new SchemaReplicaSelector();
+
+		SchemaReplica light = new SchemaReplica("jdbc:replica-light", 1);
+		SchemaReplica heavy = new SchemaReplica("jdbc:replica-heavy", 9);
+		Schema schema = createSchema("schema-01", light, heavy);
+
+		int count = 10000;
+		int heavyFirstCount = 0;
+
+		for (int i = 0; i < count; i++)
+		{
+			List<SchemaReplica> replicas = selector.select(schema);
+
+			assertEquals(2, replicas.size());
+
+			if (replicas.get(0) == heavy)
+				heavyFirstCount++;
+		}
+
+		// 权重为9:1，首选重副本的概率应约为90%
+		double ratio = (double) heavyFirstCount / count;
+		assertTrue(String.valueOf(ratio), ratio > 0.85 && ratio < 0.95);
+	}
+
+	@Test
+	public void markUnavailableTest() throws Exception
+	{
+		SchemaReplicaSelector selector = new SchemaReplicaSelector();
+		selector.setFailureCooldown(200);
+
+		SchemaReplica replica0 = new SchemaReplica("jdbc:replica-01", 1);
+		SchemaReplica replica1 = new SchemaReplica("jdbc:replica-02", 1);
+		Schema schema = createSchema("schema-01", replica0, replica1);
+
+		selector.markUnavailable(schema, replica0);
+
+		assertFalse(selector.isAvailable(schema, replica0));
+		assertTrue(selector.isAvailable(schema, replica1));
+
+		for (int i = 0; i < 10; i++)
+		{
+			List<SchemaReplica> replicas = selector.select(schema);
+
+			assertEquals(1, replicas.size());
+			assertSame(replica1, replicas.get(0));
+		}
+
+		// 冷却期后重新可用
+		Thread.sleep(300);
+
+		assertTrue(selector.isAvailable(schema, replica0));
+		assertEquals(2, selector.select(schema).size());
+
+		// 连接成功后立即可用
+		selector.markUnavailable(schema, replica0);
+		assertEquals(1, selector.select(schema).size());
+		selector.markAvailable(schema, replica0);
+		assertEquals(2, selector.select(schema).size());
+	}
+
+	@Test
+	public void pinPrimaryTest() throws Exception
+	{
+		SchemaReplicaSelector selector = new SchemaReplicaSelector();
+		selector.setPrimaryPinPeriod(200);
+
+		Schema schema0 = createSchema("schema-01", new SchemaReplica("jdbc:replica-01", 1));
+		Schema schema1 = createSchema("schema-02", new SchemaReplica("jdbc:replica-01", 1));
+
+		assertFalse(selector.isPinnedPrimary("user-01", schema0));
+
+		selector.pinPrimary("user-01", schema0);
+
+		assertTrue(selector.isPinnedPrimary("user-01", schema0));
+		assertFalse(selector.isPinnedPrimary("user-01", schema1));
+		assertFalse(selector.isPinnedPrimary("user-02", schema0));
+
+		// 过期后不再固定
+		Thread.sleep(300);
+
+		assertFalse(selector.isPinnedPrimary("user-01", schema0));
+	}
+
+	protected Schema createSchema(String id, SchemaReplica... replicas)
+	{
+		Schema schema = new Schema(id, id, "jdbc:primary", "user", "password");
+		schema.setReplicas(replicas);
+
+		return schema;
+	}
+}
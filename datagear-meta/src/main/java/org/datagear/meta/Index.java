@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.meta;
+
+import java.util.Arrays;
+
+/**
+ * 索引。
+ * <p>
+ * 包含主键、唯一键在内的表的所有索引，{@linkplain #getColumnNames()}按照索引列顺序排列，
+ * 只有首列（前缀列）可以单独使用索引。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class Index extends AbstractKey
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 是否唯一索引 */
+	private boolean unique = false;
+
+	/** 是否全文索引 */
+	private boolean fullText = false;
+
+	/** 全文索引的分词配置（比如PostgreSQL的{@code regconfig}），允许为{@code null} */
+	private String fullTextConfig = null;
+
+	public Index()
+	{
+		super();
+	}
+
+	public Index(String[] columnNames)
+	{
+		super(columnNames);
+	}
+
+	public boolean isUnique()
+	{
+		return unique;
+	}
+
+	public void setUnique(boolean unique)
+	{
+		this.unique = unique;
+	}
+
+	public boolean isFullText()
+	{
+		return fullText;
+	}
+
+	public void setFullText(boolean fullText)
+	{
+		this.fullText = fullText;
+	}
+
+	public String getFullTextConfig()
+	{
+		return fullTextConfig;
+	}
+
+	public void setFullTextConfig(String fullTextConfig)
+	{
+		this.fullTextConfig = fullTextConfig;
+	}
+
+	/**
+	 * 指定列是否是此索引的首列。
+	 *
+	 * @param columnName
+	 * @return
+	 */
+	public boolean isLeadingColumn(String columnName)
+	{
+		String[] columnNames = getColumnNames();
+
+		return (columnNames != null && columnNames.length > 0 && columnNames[0].equals(columnName));
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [columnNames=" + Arrays.toString(getColumnNames())
+				+ ", keyName=" + getKeyName() + ", unique=" + unique + ", fullText=" + fullText + "]";
+	}
+}
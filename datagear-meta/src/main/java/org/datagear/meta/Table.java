@@ -35,6 +35,9 @@ public class Table extends AbstractTable
 	/** 导入外键 */
 	private ImportKey[] importKeys;
 
+	/** 索引 */
+	private Index[] indexes;
+
 	/** 表是否只读 */
 	private boolean readonly = false;
 
@@ -122,6 +125,90 @@ public class Table extends AbstractTable
 		this.importKeys = importKeys;
 	}
 
+	public boolean hasIndex()
+	{
+		return (this.indexes != null && this.indexes.length > 0);
+	}
+
+	public Index[] getIndexes()
+	{
+		return indexes;
+	}
+
+	public void setIndexes(Index[] indexes)
+	{
+		this.indexes = indexes;
+	}
+
+	/**
+	 * 获取以指定列为首列的索引。
+	 * <p>
+	 * 主键列也会被认为是索引列。
+	 * </p>
+	 * 
+	 * @param columnName
+	 * @return 返回{@code null}表示没有
+	 */
+	public Index getLeadingIndex(String columnName)
+	{
+		if (this.indexes != null)
+		{
+			for (Index index : this.indexes)
+			{
+				if (!index.isFullText() && index.isLeadingColumn(columnName))
+					return index;
+			}
+		}
+
+		if (this.primaryKey != null)
+		{
+			String[] pkNames = this.primaryKey.getColumnNames();
+
+			if (pkNames != null && pkNames.length > 0 && pkNames[0].equals(columnName))
+			{
+				Index index = new Index(pkNames);
+				index.setKeyName(this.primaryKey.getKeyName());
+				index.setUnique(true);
+
+				return index;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * 指定列是否是某个索引（包括主键）的首列，即以此列为条件可以使用索引。
+	 * 
+	 * @param columnName
+	 * @return
+	 */
+	public boolean isIndexLeadingColumn(String columnName)
+	{
+		return (getLeadingIndex(columnName) != null);
+	}
+
+	/**
+	 * 获取所有全文索引。
+	 * 
+	 * @return 返回空数组表示没有
+	 */
+	public Index[] getFullTextIndexes()
+	{
+		List<Index> fullTextIndexes = new ArrayList<>(1);
+
+		if (this.indexes != null)
+		{
+			for (Index index : this.indexes)
+			{
+				if (index.isFullText())
+					fullTextIndexes.add(index);
+			}
+		}
+
+		return fullTextIndexes.toArray(new Index[fullTextIndexes.size()]);
+	}
+
 	public boolean isReadonly()
 	{
 		return readonly;
@@ -170,7 +257,8 @@ public class Table extends AbstractTable
 	{
 		return getClass().getSimpleName() + " [name=" + getName() + ", type=" + getType() + ", comment=" + getComment()
 				+ ", columns=" + Arrays.toString(columns) + ", primaryKey=" + primaryKey + ", uniqueKeys="
-				+ Arrays.toString(uniqueKeys) + ", importKeys=" + Arrays.toString(importKeys) + "]";
+				+ Arrays.toString(uniqueKeys) + ", importKeys=" + Arrays.toString(importKeys) + ", indexes="
+				+ Arrays.toString(indexes) + "]";
 	}
 
 	/**
@@ -9,23 +9,29 @@ package org.datagear.meta.resolver;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.datagear.connection.ConnectionOption;
 import org.datagear.meta.Column;
 import org.datagear.meta.DataType;
 import org.datagear.meta.Database;
 import org.datagear.meta.ImportKey;
+import org.datagear.meta.Index;
 import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.SearchableType;
 import org.datagear.meta.SimpleTable;
@@ -41,6 +47,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * 抽象{@linkplain DevotedDBMetaResolver}。
+ * <p>
+ * 对于{@linkplain #getTables(Connection, List)}，当读取的表较多时（参考{@linkplain #isBulkLoad(int, int)}），
+ * 它会使用通配符一次性读取当前schema所有表的列元信息，并尝试一次性读取主键、唯一键、导入键元信息，然后在内存中按表分组；
+ * 驱动程序不支持一次性读取键元信息时，将逐表读取。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -54,6 +65,9 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 
 	protected static final String[] EMPTY_STRING_ARRAY = new String[0];
 
+	/** 批量读取表数占所有表数的比例不小于{@code 1/BULK_LOAD_TABLE_RATIO}时，采用批量读取 */
+	protected static final int BULK_LOAD_TABLE_RATIO = 10;
+
 	public AbstractDevotedDBMetaResolver()
 	{
 		super();
@@ -96,6 +110,45 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return getSimpleTables(cn, metaData, catalog, schema, null);
 	}
 
+	@Override
+	public List<SimpleTable> getSimpleTables(Connection cn, String tableNamePattern) throws DBMetaResolverException
+	{
+		String catalog = getCatalog(cn);
+		DatabaseMetaData metaData = getDatabaseMetaData(cn);
+		String schema = getSchema(cn, metaData);
+
+		if (StringUtil.isEmpty(tableNamePattern))
+			return getSimpleTables(cn, metaData, catalog, schema, null);
+
+		// 先按原样匹配，从而可以匹配带引号的混合大小写表名，再按标识符存储规则匹配未加引号的表名
+		List<SimpleTable> tables = getSimpleTables(cn, metaData, catalog, schema, tableNamePattern);
+
+		String identifierPattern = toIdentifierCase(metaData, tableNamePattern);
+
+		if (!identifierPattern.equals(tableNamePattern))
+		{
+			List<SimpleTable> identifierTables = getSimpleTables(cn, metaData, catalog, schema, identifierPattern);
+
+			if (tables.isEmpty())
+				tables = identifierTables;
+			else
+			{
+				Set<String> names = new HashSet<>();
+
+				for (SimpleTable table : tables)
+					names.add(table.getName());
+
+				for (SimpleTable table : identifierTables)
+				{
+					if (names.add(table.getName()))
+						tables.add(table);
+				}
+			}
+		}
+
+		return tables;
+	}
+
 	@Override
 	public SimpleTable getRandomSimpleTable(Connection cn) throws DBMetaResolverException
 	{
@@ -162,6 +215,21 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return getTable(cn, metaData, catalog, schema, tableName);
 	}
 
+	@Override
+	public List<Table> getTables(Connection cn, List<String> tableNames) throws DBMetaResolverException
+	{
+		@JDBCCompatiblity("同getTable(Connection, String)")
+		boolean readonly = JdbcUtil.isReadonlyIfSupports(cn, true);
+		if (readonly)
+			JdbcUtil.setReadonlyIfSupports(cn, false);
+
+		String catalog = getCatalog(cn);
+		DatabaseMetaData metaData = getDatabaseMetaData(cn);
+		String schema = getSchema(cn, metaData);
+
+		return getTables(cn, metaData, catalog, schema, tableNames);
+	}
+
 	@Override
 	public Column[] getColumns(Connection cn, String tableName) throws DBMetaResolverException
 	{
@@ -224,52 +292,188 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		DatabaseMetaData metaData = getDatabaseMetaData(cn);
 		String schema = getSchema(cn, metaData);
 
+		// 处理空表名和重复表
+		List<String> loadTableNames = new ArrayList<>(tableNames.length);
+		Map<String, Boolean> loadTableNameMap = new HashMap<>();
+		for (String tableName : tableNames)
+		{
+			if (!StringUtil.isEmpty(tableName) && loadTableNameMap.put(tableName, Boolean.TRUE) == null)
+				loadTableNames.add(tableName);
+		}
+
+		Map<String, ImportKey[]> importKeyss = getImportKeys(cn, metaData, catalog, schema, loadTableNames);
+
 		for (int i = 0; i < tableNames.length; i++)
 		{
-			String[] importTables = null;
+			ImportKey[] importKeys = (StringUtil.isEmpty(tableNames[i]) ? null : importKeyss.get(tableNames[i]));
 
-			if (StringUtil.isEmpty(tableNames[i]))
-				importTables = EMPTY_STRING_ARRAY;
+			if (importKeys == null || importKeys.length == 0)
+				importTabless.add(EMPTY_STRING_ARRAY);
 			else
 			{
-				// 处理重复表
-				for (int k = 0; i < i; k++)
+				List<String> importedTableList = new ArrayList<>(2);
+
+				for (int j = 0; j < importKeys.length; j++)
 				{
-					if (tableNames[k].equals(tableNames[i]))
-					{
-						importTables = importTabless.get(k);
-						break;
-					}
+					String primaryTable = importKeys[j].getPrimaryTableName();
+
+					if (!importedTableList.contains(primaryTable))
+						importedTableList.add(primaryTable);
 				}
 
-				if (importTables == null)
-				{
-					ImportKey[] importKeys = getImportKeys(cn, metaData, catalog, schema, tableNames[i]);
+				importTabless.add(importedTableList.toArray(new String[importedTableList.size()]));
+			}
+		}
+
+		return importTabless;
+	}
+
+	@Override
+	public String getSchemaFingerprint(Connection cn) throws DBMetaResolverException
+	{
+		String catalog = getCatalog(cn);
+		DatabaseMetaData metaData = getDatabaseMetaData(cn);
+		String schema = getSchema(cn, metaData);
+
+		return getSchemaFingerprint(cn, metaData, catalog, schema);
+	}
+
+	/**
+	 * 获取模式的元信息指纹。
+	 * <p>
+	 * JDBC未提供获取DDL变更信息的接口，此方法默认返回{@code null}，子类可以使用数据库特定的系统表实现。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @return 返回{@code null}表示不支持
+	 * @throws DBMetaResolverException
+	 */
+	protected String getSchemaFingerprint(Connection cn, DatabaseMetaData metaData, String catalog, String schema)
+			throws DBMetaResolverException
+	{
+		return null;
+	}
 
-					if (importKeys == null || importKeys.length == 0)
-						importTables = EMPTY_STRING_ARRAY;
-					else
-					{
-						List<String> importedTableList = new ArrayList<>(2);
+	/**
+	 * 执行返回单行的查询，并将此行的所有列值拼接为指纹字符串。
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param args
+	 *            SQL参数
+	 * @return 返回{@code null}表示查询出错或者无结果
+	 */
+	protected String queryFingerprint(Connection cn, String sql, String... args)
+	{
+		try
+		{
+			return executeNativeQuery(cn, sql, args, (rs) ->
+			{
+				if (!rs.next())
+					return null;
 
-						for (int j = 0; j < importKeys.length; j++)
-						{
-							String primaryTable = importKeys[j].getPrimaryTableName();
+				StringBuilder sb = new StringBuilder();
 
-							if (!importedTableList.contains(primaryTable))
-								importedTableList.add(primaryTable);
-						}
+				for (int i = 1, count = rs.getMetaData().getColumnCount(); i <= count; i++)
+				{
+					if (i > 1)
+						sb.append('|');
 
-						importTables = new String[importedTableList.size()];
-						importedTableList.toArray(importTables);
-					}
+					sb.append(rs.getString(i));
 				}
-			}
 
-			importTabless.add(importTables);
+				return sb.toString();
+			});
 		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("query schema fingerprint error, null will be returned", e);
+			return null;
+		}
+	}
 
-		return importTabless;
+	/**
+	 * 执行数据库原生的元信息查询。
+	 * <p>
+	 * 原生查询可能因为数据库版本、分支（比如Redshift、Greenplum、CockroachDB）不同而出错，而某些数据库（比如PostgreSQL）在事务中出错后，
+	 * 整个事务将被中止，之后的{@linkplain DatabaseMetaData}默认读取方式也会出错。因此，当{@code cn}处于事务中时，
+	 * 此方法会在查询前设置保存点，并在出错时回滚至此保存点；无法设置保存点时将直接抛出异常，不执行查询。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param args
+	 *            SQL参数
+	 * @param reader
+	 * @return
+	 * @throws SQLException
+	 */
+	protected <T> T executeNativeQuery(Connection cn, String sql, String[] args, NativeQueryReader<T> reader)
+			throws SQLException
+	{
+		Savepoint savepoint = (cn.getAutoCommit() ? null : cn.setSavepoint());
+
+		PreparedStatement pst = null;
+		ResultSet rs = null;
+
+		try
+		{
+			pst = cn.prepareStatement(sql);
+
+			for (int i = 0; i < args.length; i++)
+				pst.setString(i + 1, args[i]);
+
+			rs = pst.executeQuery();
+
+			T re = reader.read(rs);
+
+			releaseSavepoint(cn, savepoint);
+
+			return re;
+		}
+		catch (SQLException e)
+		{
+			rollbackSavepoint(cn, savepoint);
+			throw e;
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(pst);
+		}
+	}
+
+	protected void releaseSavepoint(Connection cn, Savepoint savepoint)
+	{
+		if (savepoint == null)
+			return;
+
+		try
+		{
+			cn.releaseSavepoint(savepoint);
+		}
+		catch (SQLException e)
+		{
+			// 某些驱动程序不支持释放保存点（比如Oracle），忽略即可
+		}
+	}
+
+	protected void rollbackSavepoint(Connection cn, Savepoint savepoint)
+	{
+		if (savepoint == null)
+			return;
+
+		try
+		{
+			cn.rollback(savepoint);
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("rollback to savepoint error", e);
+		}
 	}
 
 	/**
@@ -446,6 +650,7 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		table.setPrimaryKey(getPrimaryKey(cn, metaData, catalog, schema, tableName));
 		table.setUniqueKeys(getUniqueKeys(cn, metaData, catalog, schema, tableName));
 		table.setImportKeys(getImportKeys(cn, metaData, catalog, schema, tableName));
+		table.setIndexes(getIndexes(cn, metaData, catalog, schema, tableName));
 		table.setReadonly(readonly);
 
 		table = postProcessTable(cn, metaData, schema, table);
@@ -453,6 +658,195 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return table;
 	}
 
+	/**
+	 * 批量读取{@linkplain Table}。
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return
+	 * @throws DBMetaResolverException
+	 */
+	protected List<Table> getTables(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			List<String> tableNames) throws DBMetaResolverException
+	{
+		List<Table> tables = new ArrayList<>(tableNames.size());
+
+		if (tableNames.isEmpty())
+			return tables;
+
+		// 先使用开销较小的表数目决定是否批量读取，仅在批量读取时才读取所有表
+		boolean bulkLoad = (tableNames.size() > 1 && isBulkLoadable(catalog, schema)
+				&& isBulkLoad(tableNames.size(), getTableCount(cn, metaData, catalog, schema)));
+
+		if (!bulkLoad)
+		{
+			for (String tableName : tableNames)
+				tables.add(getTable(cn, metaData, catalog, schema, tableName));
+
+			return tables;
+		}
+
+		List<SimpleTable> allSimpleTables = getSimpleTables(cn, metaData, catalog, schema, null);
+
+		Map<String, SimpleTable> simpleTables = new HashMap<>();
+		for (SimpleTable simpleTable : allSimpleTables)
+		{
+			if (!simpleTables.containsKey(simpleTable.getName()))
+				simpleTables.put(simpleTable.getName(), simpleTable);
+		}
+
+		List<String> loadTableNames = new ArrayList<>(tableNames.size());
+		Map<String, Boolean> loadTableNameMap = new HashMap<>();
+		for (String tableName : tableNames)
+		{
+			if (simpleTables.containsKey(tableName) && loadTableNameMap.put(tableName, Boolean.TRUE) == null)
+				loadTableNames.add(tableName);
+		}
+
+		boolean readonly = resolveTableReadonly(cn);
+
+		Map<String, List<Column>> columnss = getColumns(cn, metaData, catalog, schema, loadTableNames);
+		Map<String, PrimaryKey> primaryKeys = getPrimaryKeys(cn, metaData, catalog, schema, loadTableNames);
+		Map<String, UniqueKey[]> uniqueKeyss = getUniqueKeys(cn, metaData, catalog, schema, loadTableNames);
+		Map<String, ImportKey[]> importKeyss = getImportKeys(cn, metaData, catalog, schema, loadTableNames);
+		Map<String, Index[]> indexess = getIndexes(cn, metaData, catalog, schema, loadTableNames);
+
+		// 批量读取的表及其在结果中的位置，最后统一后置处理
+		List<Table> loadTables = new ArrayList<>(loadTableNames.size());
+		List<Integer> loadTableIndexes = new ArrayList<>(loadTableNames.size());
+
+		for (String tableName : tableNames)
+		{
+			SimpleTable simpleTable = simpleTables.get(tableName);
+
+			// 没有精确匹配的表名（比如大小写不一致），采用与getTable(...)相同的方式读取
+			if (simpleTable == null)
+			{
+				tables.add(getTable(cn, metaData, catalog, schema, tableName));
+				continue;
+			}
+
+			List<Column> columns = columnss.get(tableName);
+
+			Table table = new Table();
+			table.setName(simpleTable.getName());
+			table.setType(simpleTable.getType());
+			table.setComment(simpleTable.getComment());
+			table.setColumns(columns.toArray(new Column[columns.size()]));
+			table.setPrimaryKey(primaryKeys.get(tableName));
+			table.setUniqueKeys(uniqueKeyss.get(tableName));
+			table.setImportKeys(importKeyss.get(tableName));
+			table.setIndexes(indexess.get(tableName));
+			table.setReadonly(readonly);
+
+			loadTableIndexes.add(tables.size());
+			loadTables.add(table);
+			tables.add(table);
+		}
+
+		loadTables = postProcessTables(cn, metaData, catalog, schema, loadTables);
+
+		for (int i = 0; i < loadTables.size(); i++)
+			tables.set(loadTableIndexes.get(i), loadTables.get(i));
+
+		return tables;
+	}
+
+	/**
+	 * 是否可以使用通配符批量读取元信息。
+	 * <p>
+	 * {@code catalog}和{@code schema}都为空时，通配符将匹配所有schema的表，这里不允许。
+	 * </p>
+	 * 
+	 * @param catalog
+	 * @param schema
+	 * @return
+	 */
+	protected boolean isBulkLoadable(String catalog, String schema)
+	{
+		return (!StringUtil.isEmpty(catalog) || !StringUtil.isEmpty(schema));
+	}
+
+	/**
+	 * 是否采用批量读取。
+	 * <p>
+	 * 批量读取总是会读取所有表的元信息，其开销与所有表数成正比，所以仅在要读取的表数占所有表数的比例较大时才采用。
+	 * </p>
+	 * 
+	 * @param loadCount
+	 *            要读取的表数
+	 * @param totalCount
+	 *            所有表数，小于{@code 0}表示未知
+	 * @return
+	 */
+	protected boolean isBulkLoad(int loadCount, int totalCount)
+	{
+		return (loadCount > 1 && totalCount >= 0 && loadCount * BULK_LOAD_TABLE_RATIO >= totalCount);
+	}
+
+	/**
+	 * 获取所有表数，用于{@linkplain #isBulkLoad(int, int)}。
+	 * <p>
+	 * 默认实现仅遍历{@linkplain #getTableResulSet(Connection, DatabaseMetaData, String, String, String, String[])}计数，
+	 * 不读取{@linkplain SimpleTable}，子类可以使用更高效的方式重写。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @return 返回{@code -1}表示未知
+	 */
+	protected int getTableCount(Connection cn, DatabaseMetaData metaData, String catalog, String schema)
+	{
+		ResultSet rs = null;
+
+		try
+		{
+			rs = getTableResulSet(cn, metaData, catalog, schema, null, getTableTypes(cn, metaData));
+
+			int count = 0;
+
+			while (rs.next())
+				count++;
+
+			return count;
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("count tables error, -1 will be returned", e);
+			return -1;
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+		}
+	}
+
+	/**
+	 * 执行返回单个数值的表数目查询SQL。
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param args
+	 * @return 返回{@code -1}表示查询出错
+	 */
+	protected int queryTableCount(Connection cn, String sql, String... args)
+	{
+		try
+		{
+			return executeNativeQuery(cn, sql, args, (rs) -> (rs.next() ? rs.getInt(1) : -1));
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("query table count error, -1 will be returned", e);
+			return -1;
+		}
+	}
+
 	protected boolean resolveTableReadonly(Connection cn)
 	{
 		@JDBCCompatiblity("如果cn为readonly，某些驱动程序的DatabaseMetaData.isReadOnly()也将为true（比如：Postgresql JDBC 42.2.5），"
@@ -478,6 +872,32 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return table;
 	}
 
+	/**
+	 * 批量后置处理{@linkplain Table}，
+	 * 用于{@linkplain #getTables(Connection, DatabaseMetaData, String, String, List)}的批量读取。
+	 * <p>
+	 * 默认实现逐一调用{@linkplain #postProcessTable(Connection, DatabaseMetaData, String, Table)}，
+	 * 如果后置处理需要查询数据库，子类应重写此方法，一次查询所有表，避免逐表查询。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tables
+	 * @return 与{@code tables}一一对应的列表
+	 */
+	protected List<Table> postProcessTables(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			List<Table> tables)
+	{
+		List<Table> re = new ArrayList<>(tables.size());
+
+		for (Table table : tables)
+			re.add(postProcessTable(cn, metaData, schema, table));
+
+		return re;
+	}
+
 	/**
 	 * 
 	 * @param cn
@@ -566,11 +986,85 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		}
 	}
 	
-	protected List<Column> getColumnsByQuery(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
-			String tableName) throws SQLException
-	{
-		String iq = getIdentifierQuote(cn);
-		String sql = "SELECT * FROM " + iq + tableName + iq;
+	/**
+	 * 使用通配符批量读取列。
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return 表名-列映射表，包含{@code tableNames}的所有元素
+	 * @throws DBMetaResolverException
+	 */
+	protected Map<String, List<Column>> getColumns(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, List<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, List<Column>> columnss = new LinkedHashMap<>();
+		for (String tableName : tableNames)
+			columnss.put(tableName, new ArrayList<Column>());
+
+		ResultSet rs = null;
+
+		try
+		{
+			rs = getColumnResulSet(cn, metaData, catalog, schema, "%");
+			MetaResultSet mrs = MetaResultSet.valueOf(rs);
+
+			while (rs.next())
+			{
+				String tableName = mrs.getString("TABLE_NAME", null);
+				List<Column> columns = (tableName == null ? null : columnss.get(tableName));
+
+				if (columns == null)
+					continue;
+
+				Column column = readColumn(cn, metaData, schema, tableName, mrs);
+				column = postProcessColumn(cn, metaData, schema, tableName, column);
+				addValidColumn(columns, column);
+			}
+		}
+		catch (SQLException e)
+		{
+			throw new DBMetaResolverException(e);
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+		}
+
+		try
+		{
+			for (Map.Entry<String, List<Column>> entry : columnss.entrySet())
+			{
+				String tableName = entry.getKey();
+				List<Column> columns = entry.getValue();
+
+				if (columns.isEmpty())
+				{
+					@JDBCCompatiblity("同getColumns(Connection, DatabaseMetaData, String, String, String, Integer)")
+					List<Column> columnsByQuery = getColumnsByQuery(cn, metaData, catalog, schema, tableName);
+
+					for (Column column : columnsByQuery)
+						addValidColumn(columns, postProcessColumn(cn, metaData, schema, tableName, column));
+				}
+
+				sortColumns(columns);
+			}
+		}
+		catch (SQLException e)
+		{
+			throw new DBMetaResolverException(e);
+		}
+
+		return columnss;
+	}
+
+	protected List<Column> getColumnsByQuery(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String tableName) throws SQLException
+	{
+		String iq = getIdentifierQuote(cn);
+		String sql = "SELECT * FROM " + iq + tableName + iq;
 		
 		Statement st = null;
 		ResultSet rs = null;
@@ -749,34 +1243,11 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 	protected PrimaryKey getPrimaryKey(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
 			String tableName) throws DBMetaResolverException
 	{
-		PrimaryKey primaryKey = null;
-
 		ResultSet rs = null;
 		try
 		{
 			rs = getPrimaryKeyResulSet(cn, metaData, catalog, schema, tableName);
-			MetaResultSet mrs = MetaResultSet.valueOf(rs);
-
-			List<String> columnNames = new ArrayList<>();
-			String keyName = null;
-
-			while (rs.next())
-			{
-				String columnName = mrs.getString("COLUMN_NAME", null);
-
-				if (StringUtil.isEmpty(keyName))
-					keyName = mrs.getString("PK_NAME", "");
-
-				addValidName(columnNames, columnName);
-			}
-
-			if (!columnNames.isEmpty())
-			{
-				primaryKey = new PrimaryKey(columnNames.toArray(new String[columnNames.size()]));
-				primaryKey.setKeyName(keyName);
-			}
-
-			return primaryKey;
+			return readPrimaryKeys(rs, tableName).get(tableName);
 		}
 		catch (SQLException e)
 		{
@@ -803,161 +1274,552 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 	protected UniqueKey[] getUniqueKeys(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
 			String tableName) throws DBMetaResolverException
 	{
-		UniqueKey[] uniqueKeys = null;
-
 		ResultSet rs = null;
 
-		List<String> keyNames = new ArrayList<>();
-		List<List<String>> keyColumnNamess = new ArrayList<>();
-
 		try
 		{
 			rs = getUniqueKeyResulSet(cn, metaData, catalog, schema, tableName);
-			MetaResultSet mrs = MetaResultSet.valueOf(rs);
+			return readUniqueKeys(rs, tableName).get(tableName);
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("return null unique key object for exception", e);
 
-			while (rs.next())
-			{
-				@JDBCCompatiblity("某些驱动程序INDEX_NAME列可能为nul，但COLUMN_NAME不为null，此行应是有效的，"
-						+ "而某些驱动程序会返回INDEX_NAME和COLUMN_NAME都为null的无效行，所以，这里统一先把它们整理出来，下面再筛选过滤")
-				String keyName = mrs.getString("INDEX_NAME", "");
-				String columnName = mrs.getString("COLUMN_NAME", null);
+			@JDBCCompatiblity("当tableName是视图时，某些驱动（比如Oracle）可能会抛出SQLSyntaxErrorException异常")
+			UniqueKey[] nullUniqueKeys = null;
+			return nullUniqueKeys;
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+		}
+	}
 
-				int myIndex = keyNames.indexOf(keyName);
-				List<String> keyColumnNames = null;
+	/**
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableName
+	 * @return 返回{@code null}表示无索引
+	 * @throws DBMetaResolverException
+	 */
+	protected Index[] getIndexes(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String tableName) throws DBMetaResolverException
+	{
+		ResultSet rs = null;
 
-				if (myIndex < 0)
-				{
-					keyNames.add(keyName);
-					keyColumnNames = new ArrayList<>();
-					keyColumnNamess.add(keyColumnNames);
-				}
-				else
-					keyColumnNames = keyColumnNamess.get(myIndex);
+		try
+		{
+			rs = getIndexResulSet(cn, metaData, catalog, schema, tableName);
+			return readIndexes(rs, tableName).get(tableName);
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("return null index object for exception", e);
 
-				addValidName(keyColumnNames, columnName);
-			}
+			@JDBCCompatiblity("当tableName是视图时，某些驱动（比如Oracle）可能会抛出SQLSyntaxErrorException异常")
+			Index[] nullIndexes = null;
+			return nullIndexes;
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+		}
+	}
+
+	protected ImportKey[] getImportKeys(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String tableName) throws DBMetaResolverException
+	{
+		ResultSet rs = null;
+
+		try
+		{
+			rs = getImportKeyResulSet(cn, metaData, catalog, schema, tableName);
+			return readImportKeys(rs, tableName).get(tableName);
 		}
 		catch (SQLException e)
 		{
-			LOGGER.warn("return null unique key object for exception", e);
+			LOGGER.warn("return null import key object for exception", e);
 
 			@JDBCCompatiblity("当tableName是视图时，某些驱动（比如Oracle）可能会抛出SQLSyntaxErrorException异常")
-			UniqueKey[] nullUniqueKeys = null;
-			return nullUniqueKeys;
+			ImportKey[] nullImportKeys = null;
+			return nullImportKeys;
 		}
 		finally
 		{
 			JdbcUtil.closeResultSet(rs);
 		}
+	}
+
+	/**
+	 * 批量读取主键。
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return 表名-主键映射表，不包含无主键的表
+	 * @throws DBMetaResolverException
+	 */
+	@JDBCCompatiblity("JDBC规范并未要求DatabaseMetaData.getPrimaryKeys(...)的表名参数支持null，某些驱动程序会抛出异常或者返回空结果集，此时逐表读取")
+	protected Map<String, PrimaryKey> getPrimaryKeys(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, List<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, PrimaryKey> primaryKeys = null;
+
+		if (tableNames.size() > 1 && isBulkLoadable(catalog, schema))
+		{
+			ResultSet rs = null;
+			try
+			{
+				rs = getPrimaryKeyResulSet(cn, metaData, catalog, schema, null);
+				primaryKeys = readPrimaryKeys(rs, null);
+			}
+			catch (Exception e)
+			{
+				LOGGER.debug("bulk load primary keys is not supported, they will be loaded one by one : {}",
+						e.getMessage());
+			}
+			finally
+			{
+				JdbcUtil.closeResultSet(rs);
+			}
+		}
+
+		if (primaryKeys == null || primaryKeys.isEmpty())
+		{
+			primaryKeys = new HashMap<>();
+
+			for (String tableName : tableNames)
+			{
+				PrimaryKey primaryKey = getPrimaryKey(cn, metaData, catalog, schema, tableName);
+
+				if (primaryKey != null)
+					primaryKeys.put(tableName, primaryKey);
+			}
+		}
 
-		if (!keyNames.isEmpty())
+		return primaryKeys;
+	}
+
+	/**
+	 * 批量读取唯一键。
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return 表名-唯一键映射表，不包含无唯一键的表
+	 * @throws DBMetaResolverException
+	 */
+	@JDBCCompatiblity("JDBC规范并未要求DatabaseMetaData.getIndexInfo(...)的表名参数支持null，某些驱动程序会抛出异常或者返回空结果集，此时逐表读取")
+	protected Map<String, UniqueKey[]> getUniqueKeys(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, List<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, UniqueKey[]> uniqueKeyss = null;
+
+		if (tableNames.size() > 1 && isBulkLoadable(catalog, schema))
+		{
+			ResultSet rs = null;
+			try
+			{
+				rs = getUniqueKeyResulSet(cn, metaData, catalog, schema, null);
+				uniqueKeyss = readUniqueKeys(rs, null);
+			}
+			catch (Exception e)
+			{
+				LOGGER.debug("bulk load unique keys is not supported, they will be loaded one by one : {}",
+						e.getMessage());
+			}
+			finally
+			{
+				JdbcUtil.closeResultSet(rs);
+			}
+		}
+
+		if (uniqueKeyss == null || uniqueKeyss.isEmpty())
+		{
+			uniqueKeyss = new HashMap<>();
+
+			for (String tableName : tableNames)
+			{
+				UniqueKey[] uniqueKeys = getUniqueKeys(cn, metaData, catalog, schema, tableName);
+
+				if (uniqueKeys != null)
+					uniqueKeyss.put(tableName, uniqueKeys);
+			}
+		}
+
+		return uniqueKeyss;
+	}
+
+	/**
+	 * 批量读取索引。
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return 表名-索引映射表，不包含无索引的表
+	 * @throws DBMetaResolverException
+	 */
+	@JDBCCompatiblity("JDBC规范并未要求DatabaseMetaData.getIndexInfo(...)的表名参数支持null，某些驱动程序会抛出异常或者返回空结果集，此时逐表读取")
+	protected Map<String, Index[]> getIndexes(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, List<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, Index[]> indexess = null;
+
+		if (tableNames.size() > 1 && isBulkLoadable(catalog, schema))
+		{
+			ResultSet rs = null;
+			try
+			{
+				rs = getIndexResulSet(cn, metaData, catalog, schema, null);
+				indexess = readIndexes(rs, null);
+			}
+			catch (Exception e)
+			{
+				LOGGER.debug("bulk load indexes is not supported, they will be loaded one by one : {}",
+						e.getMessage());
+			}
+			finally
+			{
+				JdbcUtil.closeResultSet(rs);
+			}
+		}
+
+		if (indexess == null || indexess.isEmpty())
+		{
+			indexess = new HashMap<>();
+
+			for (String tableName : tableNames)
+			{
+				Index[] indexes = getIndexes(cn, metaData, catalog, schema, tableName);
+
+				if (indexes != null)
+					indexess.put(tableName, indexes);
+			}
+		}
+
+		return indexess;
+	}
+
+	/**
+	 * 批量读取导入键。
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return 表名-导入键映射表，不包含无导入键的表
+	 * @throws DBMetaResolverException
+	 */
+	@JDBCCompatiblity("JDBC规范并未要求DatabaseMetaData.getImportedKeys(...)的表名参数支持null，某些驱动程序会抛出异常或者返回空结果集，此时逐表读取")
+	protected Map<String, ImportKey[]> getImportKeys(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, List<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, ImportKey[]> importKeyss = null;
+
+		if (tableNames.size() > 1 && isBulkLoadable(catalog, schema))
+		{
+			ResultSet rs = null;
+			try
+			{
+				rs = getImportKeyResulSet(cn, metaData, catalog, schema, null);
+				importKeyss = readImportKeys(rs, null);
+			}
+			catch (Exception e)
+			{
+				LOGGER.debug("bulk load import keys is not supported, they will be loaded one by one : {}",
+						e.getMessage());
+			}
+			finally
+			{
+				JdbcUtil.closeResultSet(rs);
+			}
+		}
+
+		if (importKeyss == null || importKeyss.isEmpty())
+		{
+			importKeyss = new HashMap<>();
+
+			for (String tableName : tableNames)
+			{
+				ImportKey[] importKeys = getImportKeys(cn, metaData, catalog, schema, tableName);
+
+				if (importKeys != null)
+					importKeyss.put(tableName, importKeys);
+			}
+		}
+
+		return importKeyss;
+	}
+
+	/**
+	 * 读取主键结果集。
+	 * 
+	 * @param rs
+	 * @param tableName
+	 *            结果集所属的表，为{@code null}则从结果集的{@code TABLE_NAME}列读取
+	 * @return 表名-主键映射表
+	 * @throws SQLException
+	 */
+	protected Map<String, PrimaryKey> readPrimaryKeys(ResultSet rs, String tableName) throws SQLException
+	{
+		MetaResultSet mrs = MetaResultSet.valueOf(rs);
+
+		Map<String, Map<String, KeyColumns>> keyColumnsss = new LinkedHashMap<>();
+
+		while (rs.next())
+		{
+			String myTableName = (tableName != null ? tableName : mrs.getString("TABLE_NAME", null));
+
+			if (StringUtil.isEmpty(myTableName))
+				continue;
+
+			// 主键只有一个，这里统一使用空键名，键名单独读取
+			KeyColumns keyColumns = getKeyColumns(keyColumnsss, myTableName, "");
+
+			if (StringUtil.isEmpty(keyColumns.getKeyName()))
+				keyColumns.setKeyName(mrs.getString("PK_NAME", ""));
+
+			addValidName(keyColumns.getColumnNames(), mrs.getString("COLUMN_NAME", null));
+		}
+
+		Map<String, PrimaryKey> primaryKeys = new HashMap<>();
+
+		for (Map.Entry<String, Map<String, KeyColumns>> entry : keyColumnsss.entrySet())
+		{
+			KeyColumns keyColumns = entry.getValue().get("");
+			List<String> columnNames = keyColumns.getColumnNames();
+
+			if (columnNames.isEmpty())
+				continue;
+
+			PrimaryKey primaryKey = new PrimaryKey(columnNames.toArray(new String[columnNames.size()]));
+			primaryKey.setKeyName(keyColumns.getKeyName());
+
+			primaryKeys.put(entry.getKey(), primaryKey);
+		}
+
+		return primaryKeys;
+	}
+
+	/**
+	 * 读取唯一键结果集。
+	 * 
+	 * @param rs
+	 * @param tableName
+	 *            结果集所属的表，为{@code null}则从结果集的{@code TABLE_NAME}列读取
+	 * @return 表名-唯一键映射表
+	 * @throws SQLException
+	 */
+	protected Map<String, UniqueKey[]> readUniqueKeys(ResultSet rs, String tableName) throws SQLException
+	{
+		MetaResultSet mrs = MetaResultSet.valueOf(rs);
+
+		Map<String, Map<String, KeyColumns>> keyColumnsss = new LinkedHashMap<>();
+
+		while (rs.next())
+		{
+			String myTableName = (tableName != null ? tableName : mrs.getString("TABLE_NAME", null));
+
+			if (StringUtil.isEmpty(myTableName))
+				continue;
+
+			@JDBCCompatiblity("某些驱动程序INDEX_NAME列可能为nul，但COLUMN_NAME不为null，此行应是有效的，"
+					+ "而某些驱动程序会返回INDEX_NAME和COLUMN_NAME都为null的无效行，所以，这里统一先把它们整理出来，下面再筛选过滤")
+			String keyName = mrs.getString("INDEX_NAME", "");
+			String columnName = mrs.getString("COLUMN_NAME", null);
+
+			KeyColumns keyColumns = getKeyColumns(keyColumnsss, myTableName, keyName);
+			addValidName(keyColumns.getColumnNames(), columnName);
+		}
+
+		Map<String, UniqueKey[]> uniqueKeyss = new HashMap<>();
+
+		for (Map.Entry<String, Map<String, KeyColumns>> entry : keyColumnsss.entrySet())
 		{
 			List<UniqueKey> uks = new ArrayList<>();
 
-			for (int i = 0; i < keyNames.size(); i++)
+			for (KeyColumns keyColumns : entry.getValue().values())
 			{
-				List<String> keyColumnNames = keyColumnNamess.get(i);
+				List<String> keyColumnNames = keyColumns.getColumnNames();
 
 				// 忽略无效的
 				if (keyColumnNames.isEmpty())
 					continue;
 
 				UniqueKey uk = new UniqueKey(keyColumnNames.toArray(new String[keyColumnNames.size()]));
-				uk.setKeyName(keyNames.get(i));
+				uk.setKeyName(keyColumns.getKeyName());
 
 				uks.add(uk);
 			}
 
 			if (!uks.isEmpty())
-				uniqueKeys = uks.toArray(new UniqueKey[uks.size()]);
+				uniqueKeyss.put(entry.getKey(), uks.toArray(new UniqueKey[uks.size()]));
 		}
 
-		return uniqueKeys;
+		return uniqueKeyss;
 	}
 
-	protected ImportKey[] getImportKeys(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
-			String tableName) throws DBMetaResolverException
+	/**
+	 * 读取索引结果集。
+	 * 
+	 * @param rs
+	 * @param tableName
+	 *            结果集所属的表，为{@code null}则从结果集的{@code TABLE_NAME}列读取
+	 * @return 表名-索引映射表
+	 * @throws SQLException
+	 */
+	protected Map<String, Index[]> readIndexes(ResultSet rs, String tableName) throws SQLException
 	{
-		ImportKey[] importKeys = null;
-
-		ResultSet rs = null;
+		MetaResultSet mrs = MetaResultSet.valueOf(rs);
 
-		List<String> keyNames = new ArrayList<>();
-		List<List<String>> columnNamess = new ArrayList<>();
-		List<String> primaryTableNames = new ArrayList<>();
-		List<List<String>> primaryColumnNamess = new ArrayList<>();
+		Map<String, Map<String, KeyColumns>> keyColumnsss = new LinkedHashMap<>();
+		Map<String, Boolean> uniques = new HashMap<>();
 
-		try
+		while (rs.next())
 		{
-			rs = getImportKeyResulSet(cn, metaData, catalog, schema, tableName);
-			MetaResultSet mrs = MetaResultSet.valueOf(rs);
+			String myTableName = (tableName != null ? tableName : mrs.getString("TABLE_NAME", null));
 
-			while (rs.next())
-			{
-				String keyName = mrs.getString("FK_NAME", "");
-
-				String columnName = mrs.getString("FKCOLUMN_NAME", null);
-				String primaryColumnName = mrs.getString("PKCOLUMN_NAME", null);
+			if (StringUtil.isEmpty(myTableName))
+				continue;
 
-				int myIndex = keyNames.indexOf(keyName);
-				List<String> columnNames = null;
-				List<String> primaryColumnNames = null;
+			// 忽略表统计信息行
+			Integer type = mrs.getInt("TYPE", null);
+			if (type != null && type.intValue() == DatabaseMetaData.tableIndexStatistic)
+				continue;
 
-				if (myIndex < 0)
-				{
-					keyNames.add(keyName);
-					primaryTableNames.add(mrs.getString("PKTABLE_NAME", ""));
+			String keyName = mrs.getString("INDEX_NAME", "");
+			String columnName = mrs.getString("COLUMN_NAME", null);
 
-					columnNames = new ArrayList<>();
-					columnNamess.add(columnNames);
+			@JDBCCompatiblity("NON_UNIQUE列应是boolean类型，但某些驱动程序返回的是数值类型")
+			String nonUnique = mrs.getString("NON_UNIQUE", null);
 
-					primaryColumnNames = new ArrayList<>();
-					primaryColumnNamess.add(primaryColumnNames);
-				}
-				else
-				{
-					columnNames = columnNamess.get(myIndex);
-					primaryColumnNames = primaryColumnNamess.get(myIndex);
-				}
+			KeyColumns keyColumns = getKeyColumns(keyColumnsss, myTableName, keyName);
+			addValidName(keyColumns.getColumnNames(), columnName);
 
-				addValidName(columnNames, columnName);
-				addValidName(primaryColumnNames, primaryColumnName);
-			}
+			uniques.put(myTableName + "." + keyName, ("false".equalsIgnoreCase(nonUnique) || "0".equals(nonUnique)));
 		}
-		catch (SQLException e)
+
+		Map<String, Index[]> indexess = new HashMap<>();
+
+		for (Map.Entry<String, Map<String, KeyColumns>> entry : keyColumnsss.entrySet())
 		{
-			LOGGER.warn("return null import key object for exception", e);
+			List<Index> indexes = new ArrayList<>();
 
-			@JDBCCompatiblity("当tableName是视图时，某些驱动（比如Oracle）可能会抛出SQLSyntaxErrorException异常")
-			ImportKey[] nullImportKeys = null;
-			return nullImportKeys;
+			for (KeyColumns keyColumns : entry.getValue().values())
+			{
+				List<String> keyColumnNames = keyColumns.getColumnNames();
+
+				// 忽略无效的
+				if (keyColumnNames.isEmpty())
+					continue;
+
+				Index index = new Index(keyColumnNames.toArray(new String[keyColumnNames.size()]));
+				index.setKeyName(keyColumns.getKeyName());
+				index.setUnique(Boolean.TRUE.equals(uniques.get(entry.getKey() + "." + keyColumns.getKeyName())));
+
+				indexes.add(index);
+			}
+
+			if (!indexes.isEmpty())
+				indexess.put(entry.getKey(), indexes.toArray(new Index[indexes.size()]));
 		}
-		finally
+
+		return indexess;
+	}
+
+	/**
+	 * 读取导入键结果集。
+	 * 
+	 * @param rs
+	 * @param tableName
+	 *            结果集所属的表，为{@code null}则从结果集的{@code FKTABLE_NAME}列读取
+	 * @return 表名-导入键映射表
+	 * @throws SQLException
+	 */
+	protected Map<String, ImportKey[]> readImportKeys(ResultSet rs, String tableName) throws SQLException
+	{
+		MetaResultSet mrs = MetaResultSet.valueOf(rs);
+
+		Map<String, Map<String, KeyColumns>> keyColumnsss = new LinkedHashMap<>();
+
+		while (rs.next())
 		{
-			JdbcUtil.closeResultSet(rs);
+			String myTableName = (tableName != null ? tableName : mrs.getString("FKTABLE_NAME", null));
+
+			if (StringUtil.isEmpty(myTableName))
+				continue;
+
+			String keyName = mrs.getString("FK_NAME", "");
+
+			String columnName = mrs.getString("FKCOLUMN_NAME", null);
+			String primaryColumnName = mrs.getString("PKCOLUMN_NAME", null);
+
+			KeyColumns keyColumns = getKeyColumns(keyColumnsss, myTableName, keyName);
+
+			if (keyColumns.getPrimaryTableName() == null)
+				keyColumns.setPrimaryTableName(mrs.getString("PKTABLE_NAME", ""));
+
+			addValidName(keyColumns.getColumnNames(), columnName);
+			addValidName(keyColumns.getPrimaryColumnNames(), primaryColumnName);
 		}
 
-		if (!keyNames.isEmpty())
+		Map<String, ImportKey[]> importKeyss = new HashMap<>();
+
+		for (Map.Entry<String, Map<String, KeyColumns>> entry : keyColumnsss.entrySet())
 		{
-			importKeys = new ImportKey[keyNames.size()];
+			ImportKey[] importKeys = new ImportKey[entry.getValue().size()];
 
-			for (int i = 0; i < importKeys.length; i++)
+			int i = 0;
+			for (KeyColumns keyColumns : entry.getValue().values())
 			{
 				ImportKey importKey = new ImportKey();
 
-				List<String> columnNames = columnNamess.get(i);
-				List<String> primaryColumnNames = primaryColumnNamess.get(i);
+				List<String> columnNames = keyColumns.getColumnNames();
+				List<String> primaryColumnNames = keyColumns.getPrimaryColumnNames();
 
 				importKey.setColumnNames(columnNames.toArray(new String[columnNames.size()]));
-				importKey.setPrimaryTableName(primaryTableNames.get(i));
+				importKey.setPrimaryTableName(keyColumns.getPrimaryTableName());
 				importKey.setPrimaryColumnNames(primaryColumnNames.toArray(new String[primaryColumnNames.size()]));
-				importKey.setKeyName(keyNames.get(i));
+				importKey.setKeyName(keyColumns.getKeyName());
 
-				importKeys[i] = importKey;
+				importKeys[i++] = importKey;
 			}
+
+			importKeyss.put(entry.getKey(), importKeys);
 		}
 
-		return importKeys;
+		return importKeyss;
+	}
+
+	protected KeyColumns getKeyColumns(Map<String, Map<String, KeyColumns>> keyColumnsss, String tableName,
+			String keyName)
+	{
+		Map<String, KeyColumns> keyColumnss = keyColumnsss.get(tableName);
+
+		if (keyColumnss == null)
+		{
+			keyColumnss = new LinkedHashMap<>();
+			keyColumnsss.put(tableName, keyColumnss);
+		}
+
+		KeyColumns keyColumns = keyColumnss.get(keyName);
+
+		if (keyColumns == null)
+		{
+			keyColumns = new KeyColumns(keyName);
+			keyColumnss.put(keyName, keyColumns);
+		}
+
+		return keyColumns;
 	}
 
 	/**
@@ -1045,6 +1907,13 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return databaseMetaData.getIndexInfo(catalog, schema, tableName, true, false);
 	}
 
+	@JDBCCompatiblity("approximate参数为false时，某些驱动程序（比如Oracle）会先执行ANALYZE TABLE重新统计，这里只需要索引结构，所以使用true")
+	protected ResultSet getIndexResulSet(Connection cn, DatabaseMetaData databaseMetaData, String catalog,
+			String schema, String tableName) throws SQLException
+	{
+		return databaseMetaData.getIndexInfo(catalog, schema, tableName, false, true);
+	}
+
 	protected ResultSet getImportKeyResulSet(Connection cn, DatabaseMetaData databaseMetaData, String catalog,
 			String schema, String tableName) throws SQLException
 	{
@@ -1152,6 +2021,30 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return schema;
 	}
 
+	/**
+	 * 按照数据库的标识符存储规则转换名称的大小写。
+	 * 
+	 * @param metaData
+	 * @param name
+	 * @return
+	 */
+	protected String toIdentifierCase(DatabaseMetaData metaData, String name)
+	{
+		try
+		{
+			if (metaData.storesUpperCaseIdentifiers())
+				return name.toUpperCase();
+			else if (metaData.storesLowerCaseIdentifiers())
+				return name.toLowerCase();
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("can not resolve identifier case, the name will not be converted :", e);
+		}
+
+		return name;
+	}
+
 	/**
 	 * 获取标识符引用符。
 	 * 
@@ -1192,6 +2085,61 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		}
 	};
 
+	/**
+	 * 读取键元信息时使用的键列信息。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class KeyColumns
+	{
+		private String keyName;
+
+		private List<String> columnNames = new ArrayList<>();
+
+		/** 导入键的主表名 */
+		private String primaryTableName = null;
+
+		/** 导入键的主表列名 */
+		private List<String> primaryColumnNames = new ArrayList<>();
+
+		public KeyColumns(String keyName)
+		{
+			super();
+			this.keyName = keyName;
+		}
+
+		public String getKeyName()
+		{
+			return keyName;
+		}
+
+		public void setKeyName(String keyName)
+		{
+			this.keyName = keyName;
+		}
+
+		public List<String> getColumnNames()
+		{
+			return columnNames;
+		}
+
+		public String getPrimaryTableName()
+		{
+			return primaryTableName;
+		}
+
+		public void setPrimaryTableName(String primaryTableName)
+		{
+			this.primaryTableName = primaryTableName;
+		}
+
+		public List<String> getPrimaryColumnNames()
+		{
+			return primaryColumnNames;
+		}
+	}
+
 	/**
 	 * 元信息结果集。
 	 * 
@@ -1283,4 +2231,24 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 			return new MetaResultSet(rs);
 		}
 	}
+
+	/**
+	 * 原生查询结果集读取器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 * @param <T>
+	 */
+	@FunctionalInterface
+	protected static interface NativeQueryReader<T>
+	{
+		/**
+		 * 读取结果集。
+		 * 
+		 * @param rs
+		 * @return
+		 * @throws SQLException
+		 */
+		T read(ResultSet rs) throws SQLException;
+	}
 }
@@ -0,0 +1,471 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.meta.resolver;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.connection.ConnectionSensor;
+import org.datagear.meta.Column;
+import org.datagear.meta.ImportKey;
+import org.datagear.meta.PrimaryKey;
+import org.datagear.meta.SimpleTable;
+import org.datagear.meta.UniqueKey;
+import org.datagear.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 抽象原生查询{@linkplain DevotedDBMetaResolver}。
+ * <p>
+ * 某些驱动程序的{@linkplain DatabaseMetaData}实现（比如Oracle的{@code getImportedKeys}、PostgreSQL的唯一索引查询）
+ * 对每个表都要执行复杂的系统表查询，性能较差，且不支持批量读取。此类使用数据库原生的系统表或者{@code information_schema}
+ * 以单条基于集合的SQL语句读取主键、唯一键、导入键以及注释，子类只需提供对应的SQL语句。
+ * </p>
+ * <p>
+ * SQL语句的参数依次是：模式名、表名（仅{@code forTable}为{@code true}时），结果集列名应与{@linkplain DatabaseMetaData}对应方法的结果集列名一致：
+ * </p>
+ * <ul>
+ * <li>主键：{@code TABLE_NAME}、{@code PK_NAME}、{@code COLUMN_NAME}，按照键列顺序排序；</li>
+ * <li>唯一键：{@code TABLE_NAME}、{@code INDEX_NAME}、{@code COLUMN_NAME}，按照键列顺序排序；</li>
+ * <li>导入键：{@code FKTABLE_NAME}、{@code FK_NAME}、{@code FKCOLUMN_NAME}、{@code PKTABLE_NAME}、{@code PKCOLUMN_NAME}，按照键列顺序排序；</li>
+ * <li>表注释：{@code TABLE_NAME}、{@code REMARKS}；</li>
+ * <li>列注释：{@code TABLE_NAME}、{@code COLUMN_NAME}、{@code REMARKS}。</li>
+ * </ul>
+ * <p>
+ * 子类还可以提供查询模式元信息指纹的SQL（参数是模式名，返回单行），参考{@linkplain #getSchemaFingerprintSql()}。
+ * </p>
+ * <p>
+ * SQL语句为{@code null}、当前模式未知或者执行出错时，将采用{@linkplain DatabaseMetaData}的默认方式读取，
+ * 参考{@linkplain #executeNativeQuery(Connection, String, String[], NativeQueryReader)}。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public abstract class AbstractNativeQueryDevotedDBMetaResolver extends AbstractConnectionDevotedDBMetaResolver
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractNativeQueryDevotedDBMetaResolver.class);
+
+	public AbstractNativeQueryDevotedDBMetaResolver()
+	{
+		super();
+	}
+
+	public AbstractNativeQueryDevotedDBMetaResolver(ConnectionSensor connectionSensor)
+	{
+		super(connectionSensor);
+	}
+
+	/**
+	 * 获取查询主键的SQL。
+	 *
+	 * @param forTable
+	 *            是否查询单个表
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected abstract String getPrimaryKeySql(boolean forTable);
+
+	/**
+	 * 获取查询唯一键的SQL。
+	 *
+	 * @param forTable
+	 *            是否查询单个表
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected abstract String getUniqueKeySql(boolean forTable);
+
+	/**
+	 * 获取查询导入键的SQL。
+	 *
+	 * @param forTable
+	 *            是否查询单个表
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected abstract String getImportKeySql(boolean forTable);
+
+	/**
+	 * 获取查询表注释的SQL。
+	 * <p>
+	 * 仅当驱动程序无法通过{@linkplain DatabaseMetaData}返回表注释时才需要，默认返回{@code null}。
+	 * </p>
+	 *
+	 * @param forTable
+	 *            是否查询单个表
+	 * @return 返回{@code null}表示不需要
+	 */
+	protected String getTableCommentSql(boolean forTable)
+	{
+		return null;
+	}
+
+	/**
+	 * 获取查询列注释的SQL。
+	 * <p>
+	 * 仅当驱动程序无法通过{@linkplain DatabaseMetaData}返回列注释时才需要，默认返回{@code null}。
+	 * </p>
+	 *
+	 * @param forTable
+	 *            是否查询单个表
+	 * @return 返回{@code null}表示不需要
+	 */
+	protected String getColumnCommentSql(boolean forTable)
+	{
+		return null;
+	}
+
+	/**
+	 * 获取查询模式元信息指纹的SQL。
+	 * <p>
+	 * 默认返回{@code null}。
+	 * </p>
+	 *
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected String getSchemaFingerprintSql()
+	{
+		return null;
+	}
+
+	/**
+	 * 获取查询模式内所有表数目的SQL（参数是模式名，返回单个数值）。
+	 * <p>
+	 * 默认返回{@code null}。
+	 * </p>
+	 *
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected String getTableCountSql()
+	{
+		return null;
+	}
+
+	@Override
+	protected int getTableCount(Connection cn, DatabaseMetaData metaData, String catalog, String schema)
+	{
+		String sql = getTableCountSql();
+
+		int count = (isQueryable(sql, schema) ? queryTableCount(cn, sql, schema) : -1);
+
+		return (count < 0 ? super.getTableCount(cn, metaData, catalog, schema) : count);
+	}
+
+	@Override
+	protected String getSchemaFingerprint(Connection cn, DatabaseMetaData metaData, String catalog, String schema)
+			throws DBMetaResolverException
+	{
+		String sql = getSchemaFingerprintSql();
+
+		if (!isQueryable(sql, schema))
+			return null;
+
+		return queryFingerprint(cn, sql, schema);
+	}
+
+	@Override
+	protected List<SimpleTable> getSimpleTables(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, String tableNamePattern) throws DBMetaResolverException
+	{
+		List<SimpleTable> simpleTables = super.getSimpleTables(cn, metaData, catalog, schema, tableNamePattern);
+
+		if (simpleTables.isEmpty())
+			return simpleTables;
+
+		// 不含通配符的表名模式是读取单个表时的表名
+		boolean forTable = (tableNamePattern != null && tableNamePattern.indexOf('%') < 0);
+		String sql = getTableCommentSql(forTable);
+		Map<String, String> comments = queryComments(cn, sql, schema, (forTable ? tableNamePattern : null), false);
+
+		if (comments != null && !comments.isEmpty())
+		{
+			for (SimpleTable simpleTable : simpleTables)
+			{
+				String comment = comments.get(simpleTable.getName());
+
+				if (comment != null && StringUtil.isEmpty(simpleTable.getComment()))
+					simpleTable.setComment(comment);
+			}
+		}
+
+		return simpleTables;
+	}
+
+	@Override
+	protected Column[] getColumns(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String tableName, Integer count) throws DBMetaResolverException
+	{
+		Column[] columns = super.getColumns(cn, metaData, catalog, schema, tableName, count);
+
+		// 读取部分列时仅用于数据类型判断之类的场景，不需要注释
+		if (count != null || columns.length == 0)
+			return columns;
+
+		Map<String, String> comments = queryComments(cn, getColumnCommentSql(true), schema, tableName, true);
+
+		if (comments != null && !comments.isEmpty())
+		{
+			for (Column column : columns)
+				setColumnComment(column, comments.get(toColumnCommentKey(tableName, column.getName())));
+		}
+
+		return columns;
+	}
+
+	@Override
+	protected Map<String, List<Column>> getColumns(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, List<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, List<Column>> columnss = super.getColumns(cn, metaData, catalog, schema, tableNames);
+
+		Map<String, String> comments = queryComments(cn, getColumnCommentSql(false), schema, null, true);
+
+		if (comments != null && !comments.isEmpty())
+		{
+			for (Map.Entry<String, List<Column>> entry : columnss.entrySet())
+			{
+				for (Column column : entry.getValue())
+					setColumnComment(column, comments.get(toColumnCommentKey(entry.getKey(), column.getName())));
+			}
+		}
+
+		return columnss;
+	}
+
+	@Override
+	protected PrimaryKey getPrimaryKey(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String tableName) throws DBMetaResolverException
+	{
+		Map<String, PrimaryKey> primaryKeys = queryPrimaryKeys(cn, schema, tableName);
+
+		if (primaryKeys == null)
+			return super.getPrimaryKey(cn, metaData, catalog, schema, tableName);
+
+		return primaryKeys.get(tableName);
+	}
+
+	@Override
+	protected UniqueKey[] getUniqueKeys(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String tableName) throws DBMetaResolverException
+	{
+		Map<String, UniqueKey[]> uniqueKeyss = queryUniqueKeys(cn, schema, tableName);
+
+		if (uniqueKeyss == null)
+			return super.getUniqueKeys(cn, metaData, catalog, schema, tableName);
+
+		return uniqueKeyss.get(tableName);
+	}
+
+	@Override
+	protected ImportKey[] getImportKeys(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String tableName) throws DBMetaResolverException
+	{
+		Map<String, ImportKey[]> importKeyss = queryImportKeys(cn, schema, tableName);
+
+		if (importKeyss == null)
+			return super.getImportKeys(cn, metaData, catalog, schema, tableName);
+
+		return importKeyss.get(tableName);
+	}
+
+	@Override
+	protected Map<String, PrimaryKey> getPrimaryKeys(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, List<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, PrimaryKey> primaryKeys = queryPrimaryKeys(cn, schema, null);
+
+		if (primaryKeys == null)
+			return super.getPrimaryKeys(cn, metaData, catalog, schema, tableNames);
+
+		return primaryKeys;
+	}
+
+	@Override
+	protected Map<String, UniqueKey[]> getUniqueKeys(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, List<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, UniqueKey[]> uniqueKeyss = queryUniqueKeys(cn, schema, null);
+
+		if (uniqueKeyss == null)
+			return super.getUniqueKeys(cn, metaData, catalog, schema, tableNames);
+
+		return uniqueKeyss;
+	}
+
+	@Override
+	protected Map<String, ImportKey[]> getImportKeys(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, List<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, ImportKey[]> importKeyss = queryImportKeys(cn, schema, null);
+
+		if (importKeyss == null)
+			return super.getImportKeys(cn, metaData, catalog, schema, tableNames);
+
+		return importKeyss;
+	}
+
+	/**
+	 * 查询主键。
+	 *
+	 * @param cn
+	 * @param schema
+	 * @param tableName
+	 *            为{@code null}则查询模式内的所有表
+	 * @return 表名-主键映射表，返回{@code null}表示无法查询
+	 */
+	protected Map<String, PrimaryKey> queryPrimaryKeys(Connection cn, String schema, String tableName)
+	{
+		String sql = getPrimaryKeySql(tableName != null);
+
+		if (!isQueryable(sql, schema))
+			return null;
+
+		try
+		{
+			return executeNativeQuery(cn, sql, toQueryArgs(schema, tableName), (rs) -> readPrimaryKeys(rs, tableName));
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("query primary keys error, the default will be used", e);
+			return null;
+		}
+	}
+
+	/**
+	 * 查询唯一键。
+	 *
+	 * @param cn
+	 * @param schema
+	 * @param tableName
+	 *            为{@code null}则查询模式内的所有表
+	 * @return 表名-唯一键映射表，返回{@code null}表示无法查询
+	 */
+	protected Map<String, UniqueKey[]> queryUniqueKeys(Connection cn, String schema, String tableName)
+	{
+		String sql = getUniqueKeySql(tableName != null);
+
+		if (!isQueryable(sql, schema))
+			return null;
+
+		try
+		{
+			return executeNativeQuery(cn, sql, toQueryArgs(schema, tableName), (rs) -> readUniqueKeys(rs, tableName));
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("query unique keys error, the default will be used", e);
+			return null;
+		}
+	}
+
+	/**
+	 * 查询导入键。
+	 *
+	 * @param cn
+	 * @param schema
+	 * @param tableName
+	 *            为{@code null}则查询模式内的所有表
+	 * @return 表名-导入键映射表，返回{@code null}表示无法查询
+	 */
+	protected Map<String, ImportKey[]> queryImportKeys(Connection cn, String schema, String tableName)
+	{
+		String sql = getImportKeySql(tableName != null);
+
+		if (!isQueryable(sql, schema))
+			return null;
+
+		try
+		{
+			return executeNativeQuery(cn, sql, toQueryArgs(schema, tableName), (rs) -> readImportKeys(rs, tableName));
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("query import keys error, the default will be used", e);
+			return null;
+		}
+	}
+
+	/**
+	 * 查询注释。
+	 *
+	 * @param cn
+	 * @param sql
+	 *            允许为{@code null}
+	 * @param schema
+	 * @param tableName
+	 *            为{@code null}则查询模式内的所有表
+	 * @param forColumn
+	 *            是否列注释，是则映射表关键字为{@linkplain #toColumnCommentKey(String, String)}
+	 * @return 返回{@code null}表示无法查询
+	 */
+	protected Map<String, String> queryComments(Connection cn, String sql, String schema, String tableName,
+			boolean forColumn)
+	{
+		if (!isQueryable(sql, schema))
+			return null;
+
+		try
+		{
+			return executeNativeQuery(cn, sql, toQueryArgs(schema, tableName), (rs) ->
+			{
+				MetaResultSet mrs = MetaResultSet.valueOf(rs);
+				Map<String, String> comments = new HashMap<>();
+
+				while (rs.next())
+				{
+					String myTableName = mrs.getString("TABLE_NAME", null);
+					String comment = mrs.getString("REMARKS", null);
+
+					if (StringUtil.isEmpty(myTableName) || StringUtil.isEmpty(comment))
+						continue;
+
+					if (forColumn)
+					{
+						String columnName = mrs.getString("COLUMN_NAME", null);
+
+						if (!StringUtil.isEmpty(columnName))
+							comments.put(toColumnCommentKey(myTableName, columnName), comment);
+					}
+					else
+						comments.put(myTableName, comment);
+				}
+
+				return comments;
+			});
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("query comments error, they will be ignored", e);
+			return null;
+		}
+	}
+
+	protected boolean isQueryable(String sql, String schema)
+	{
+		return (!StringUtil.isEmpty(sql) && !StringUtil.isEmpty(schema));
+	}
+
+	protected String[] toQueryArgs(String schema, String tableName)
+	{
+		return (tableName == null ? new String[] { schema } : new String[] { schema, tableName });
+	}
+
+	protected void setColumnComment(Column column, String comment)
+	{
+		if (comment != null && !column.hasComment())
+			column.setComment(comment);
+	}
+
+	protected String toColumnCommentKey(String tableName, String columnName)
+	{
+		return tableName + "." + columnName;
+	}
+}
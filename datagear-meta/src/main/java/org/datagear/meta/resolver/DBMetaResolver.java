@@ -44,6 +44,29 @@ public interface DBMetaResolver
 	 */
 	List<SimpleTable> getSimpleTables(Connection cn) throws DBMetaResolverException;
 
+	/**
+	 * 获取表名匹配指定模式的{@linkplain SimpleTable}。
+	 * <p>
+	 * 匹配由数据库执行（{@linkplain java.sql.DatabaseMetaData#getTables(String, String, String, String[])}），
+	 * 对于表很多的数据库，它比{@linkplain #getSimpleTables(Connection)}后再筛选要快得多。
+	 * </p>
+	 * <p>
+	 * 它会分别按照原样、以及按照数据库的标识符存储规则转换为大写或者小写的模式匹配并合并结果，
+	 * 但仍然无法匹配与两者大小写都不一致的表名（比如带引号的混合大小写表名），
+	 * 所以，调用方如果需要精确的大小写不敏感匹配，应对结果再次筛选，并在没有结果时回退至{@linkplain #getSimpleTables(Connection)}。
+	 * </p>
+	 * <p>
+	 * 如果需要按照字面匹配{@code _}、{@code %}，应使用{@linkplain java.sql.DatabaseMetaData#getSearchStringEscape()}转义。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param tableNamePattern
+	 *            表名模式，{@code %}匹配任意多个字符、{@code _}匹配单个字符，为{@code null}表示全部
+	 * @return
+	 * @throws DBMetaResolverException
+	 */
+	List<SimpleTable> getSimpleTables(Connection cn, String tableNamePattern) throws DBMetaResolverException;
+
 	/**
 	 * 随机获取一个{@linkplain SimpleTable}。
 	 * <p>
@@ -92,6 +115,22 @@ public interface DBMetaResolver
 	 */
 	Table getTable(Connection cn, String tableName) throws DBMetaResolverException;
 
+	/**
+	 * 批量获取指定名称的{@linkplain Table}。
+	 * <p>
+	 * 与多次调用{@linkplain #getTable(Connection, String)}相比，它会尽量使用通配符一次性读取所有表的列、主键、唯一键、导入键元信息，
+	 * 然后在内存中分组，从而大大减少元信息查询次数。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param tableNames
+	 * @return 与{@code tableNames}一一对应的{@linkplain Table}列表
+	 * @throws TableNotFoundException
+	 *             当某个表不存在时
+	 * @throws DBMetaResolverException
+	 */
+	List<Table> getTables(Connection cn, List<String> tableNames) throws DBMetaResolverException;
+
 	/**
 	 * 获取指定表的所有{@linkplain Column}。
 	 * 
@@ -149,4 +188,17 @@ public interface DBMetaResolver
 	 * @return
 	 */
 	List<String[]> getImportTables(Connection cn, String... tableNames);
+
+	/**
+	 * 获取当前模式的元信息指纹。
+	 * <p>
+	 * 指纹通常由数据库提供的DDL变更时间、对象数目等构成，当模式内的表结构变更后，指纹也应随之改变，
+	 * 因此可用于判断缓存的元信息是否过期。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @return 返回{@code null}表示数据库不支持
+	 * @throws DBMetaResolverException
+	 */
+	String getSchemaFingerprint(Connection cn) throws DBMetaResolverException;
 }
@@ -20,6 +20,9 @@ import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
 import org.datagear.meta.resolver.support.MySqlDevotedDBMetaResolver;
+import org.datagear.meta.resolver.support.OracleDevotedDBMetaResolver;
+import org.datagear.meta.resolver.support.PostgresqlDevotedDBMetaResolver;
+import org.datagear.meta.resolver.support.SqlServerDevotedDBMetaResolver;
 
 /**
  * 通用{@linkplain DBMetaResolver}。
@@ -46,6 +49,9 @@ public class GenericDBMetaResolver implements DBMetaResolver
 
 		this.devotedDBMetaResolvers = new ArrayList<>();
 		this.devotedDBMetaResolvers.add(new MySqlDevotedDBMetaResolver());
+		this.devotedDBMetaResolvers.add(new PostgresqlDevotedDBMetaResolver());
+		this.devotedDBMetaResolvers.add(new OracleDevotedDBMetaResolver());
+		this.devotedDBMetaResolvers.add(new SqlServerDevotedDBMetaResolver());
 		this.devotedDBMetaResolvers.add(new WildcardDevotedDBMetaResolver());
 	}
 
@@ -73,6 +79,13 @@ public class GenericDBMetaResolver implements DBMetaResolver
 		return resolver.getSimpleTables(cn);
 	}
 
+	@Override
+	public List<SimpleTable> getSimpleTables(Connection cn, String tableNamePattern) throws DBMetaResolverException
+	{
+		DevotedDBMetaResolver resolver = doGetDevotedDBMetaResolverNotNull(cn);
+		return resolver.getSimpleTables(cn, tableNamePattern);
+	}
+
 	@Override
 	public SimpleTable getRandomSimpleTable(Connection cn) throws DBMetaResolverException
 	{
@@ -101,6 +114,13 @@ public class GenericDBMetaResolver implements DBMetaResolver
 		return resolver.getTable(cn, tableName);
 	}
 
+	@Override
+	public List<Table> getTables(Connection cn, List<String> tableNames) throws DBMetaResolverException
+	{
+		DevotedDBMetaResolver resolver = doGetDevotedDBMetaResolverNotNull(cn);
+		return resolver.getTables(cn, tableNames);
+	}
+
 	@Override
 	public Column[] getColumns(Connection cn, String tableName) throws DBMetaResolverException
 	{
@@ -143,6 +163,13 @@ public class GenericDBMetaResolver implements DBMetaResolver
 		return resolver.getImportTables(cn, tableNames);
 	}
 
+	@Override
+	public String getSchemaFingerprint(Connection cn) throws DBMetaResolverException
+	{
+		DevotedDBMetaResolver resolver = doGetDevotedDBMetaResolverNotNull(cn);
+		return resolver.getSchemaFingerprint(cn);
+	}
+
 	/**
 	 * 获取支持指定{@linkplain Connection}的{@linkplain DevotedDBMetaResolver}。
 	 * 
@@ -10,14 +10,25 @@ package org.datagear.meta.resolver.support;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.datagear.connection.ConnectionSensor;
 import org.datagear.connection.URLConnectionSensor;
 import org.datagear.connection.support.MySqlURLSensor;
+import org.datagear.meta.Index;
 import org.datagear.meta.SimpleTable;
+import org.datagear.meta.Table;
 import org.datagear.meta.resolver.AbstractConnectionDevotedDBMetaResolver;
+import org.datagear.meta.resolver.DBMetaResolverException;
 import org.datagear.meta.resolver.DevotedDBMetaResolver;
 import org.datagear.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * MySQL {@linkplain DevotedDBMetaResolver}。
@@ -27,6 +38,38 @@ import org.datagear.util.StringUtil;
  */
 public class MySqlDevotedDBMetaResolver extends AbstractConnectionDevotedDBMetaResolver
 {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MySqlDevotedDBMetaResolver.class);
+
+	/**
+	 * 元信息指纹SQL。
+	 * <p>
+	 * 仅使用表数目和{@code CREATE_TIME}无法反映所有变更（比如InnoDB的在线DDL不会重建表），
+	 * 因此这里同时校验表、列、索引、约束定义的校验和。不使用{@code UPDATE_TIME}，因为它会随数据写入而变化。
+	 * </p>
+	 */
+	protected static final String SQL_SCHEMA_FINGERPRINT = "SELECT t.TABLE_COUNT, t.CREATE_TIME, t.CHECKSUM,"
+			+ " c.CHECKSUM, s.CHECKSUM, k.CHECKSUM FROM"
+			+ " (SELECT COUNT(*) AS TABLE_COUNT, MAX(CREATE_TIME) AS CREATE_TIME,"
+			+ " BIT_XOR(CRC32(CONCAT_WS('|', TABLE_NAME, TABLE_TYPE, TABLE_COMMENT))) AS CHECKSUM"
+			+ " FROM information_schema.TABLES WHERE TABLE_SCHEMA = ?) t,"
+			+ " (SELECT BIT_XOR(CRC32(CONCAT_WS('|', TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION, COLUMN_TYPE,"
+			+ " IS_NULLABLE, COLUMN_DEFAULT, EXTRA, COLUMN_COMMENT))) AS CHECKSUM"
+			+ " FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ?) c,"
+			+ " (SELECT BIT_XOR(CRC32(CONCAT_WS('|', TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX, COLUMN_NAME, NON_UNIQUE,"
+			+ " INDEX_TYPE))) AS CHECKSUM FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ?) s,"
+			+ " (SELECT BIT_XOR(CRC32(CONCAT_WS('|', TABLE_NAME, CONSTRAINT_NAME, ORDINAL_POSITION, COLUMN_NAME,"
+			+ " REFERENCED_TABLE_NAME, REFERENCED_COLUMN_NAME))) AS CHECKSUM"
+			+ " FROM information_schema.KEY_COLUMN_USAGE WHERE TABLE_SCHEMA = ?) k";
+
+	protected static final String SQL_TABLE_COUNT = "SELECT COUNT(*) FROM information_schema.TABLES"
+			+ " WHERE TABLE_SCHEMA = ?";
+
+	protected static final String SQL_FULLTEXT_INDEX = "SELECT DISTINCT TABLE_NAME, INDEX_NAME"
+			+ " FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND INDEX_TYPE = 'FULLTEXT'";
+
+	protected static final String SQL_SCHEMA_FULLTEXT_INDEX = "SELECT DISTINCT TABLE_NAME, INDEX_NAME"
+			+ " FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ? AND INDEX_TYPE = 'FULLTEXT'";
+
 	public MySqlDevotedDBMetaResolver()
 	{
 		super(new URLConnectionSensor(MySqlURLSensor.INSTANCE));
@@ -46,6 +89,143 @@ public class MySqlDevotedDBMetaResolver extends AbstractConnectionDevotedDBMetaR
 		return simpleTable;
 	}
 
+	/**
+	 * 驱动程序的{@code getIndexInfo}无法区分全文索引，这里查询{@code information_schema.STATISTICS}标识全文索引。
+	 */
+	@Override
+	protected Table postProcessTable(Connection cn, DatabaseMetaData metaData, String schema, Table table)
+	{
+		if (!hasNonUniqueIndex(table))
+			return table;
+
+		String catalog = getCatalog(cn);
+
+		if (StringUtil.isEmpty(catalog))
+			return table;
+
+		Map<String, Set<String>> fullTextIndexNames = queryFullTextIndexNames(cn, SQL_FULLTEXT_INDEX, catalog,
+				table.getName());
+
+		resolveFullTextIndexes(table, fullTextIndexNames.get(table.getName()));
+
+		return table;
+	}
+
+	/**
+	 * 批量读取时，一次查询schema的所有全文索引，而不是逐表查询。
+	 */
+	@Override
+	protected List<Table> postProcessTables(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			List<Table> tables)
+	{
+		boolean hasNonUniqueIndex = false;
+
+		for (Table table : tables)
+		{
+			if (hasNonUniqueIndex(table))
+			{
+				hasNonUniqueIndex = true;
+				break;
+			}
+		}
+
+		if (!hasNonUniqueIndex || StringUtil.isEmpty(catalog))
+			return tables;
+
+		Map<String, Set<String>> fullTextIndexNames = queryFullTextIndexNames(cn, SQL_SCHEMA_FULLTEXT_INDEX, catalog);
+
+		for (Table table : tables)
+			resolveFullTextIndexes(table, fullTextIndexNames.get(table.getName()));
+
+		return tables;
+	}
+
+	protected void resolveFullTextIndexes(Table table, Set<String> fullTextIndexNames)
+	{
+		if (fullTextIndexNames == null || !table.hasIndex())
+			return;
+
+		for (Index index : table.getIndexes())
+		{
+			if (!index.isUnique() && fullTextIndexNames.contains(index.getKeyName()))
+				index.setFullText(true);
+		}
+	}
+
+	protected boolean hasNonUniqueIndex(Table table)
+	{
+		if (!table.hasIndex())
+			return false;
+
+		for (Index index : table.getIndexes())
+		{
+			if (!index.isUnique())
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * 查询全文索引名。
+	 * 
+	 * @param cn
+	 * @param sql
+	 *            结果集第一列为表名、第二列为索引名
+	 * @param args
+	 * @return 表名-全文索引名映射表，出现异常时返回空映射表
+	 */
+	protected Map<String, Set<String>> queryFullTextIndexNames(Connection cn, String sql, String... args)
+	{
+		try
+		{
+			return executeNativeQuery(cn, sql, args, (rs) ->
+			{
+				Map<String, Set<String>> names = new HashMap<>();
+
+				while (rs.next())
+				{
+					String tableName = rs.getString(1);
+
+					Set<String> indexNames = names.get(tableName);
+					if (indexNames == null)
+					{
+						indexNames = new HashSet<>();
+						names.put(tableName, indexNames);
+					}
+
+					indexNames.add(rs.getString(2));
+				}
+
+				return names;
+			});
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("query fulltext indexes error, they will be ignored", e);
+			return Collections.emptyMap();
+		}
+	}
+
+	@Override
+	protected String getSchemaFingerprint(Connection cn, DatabaseMetaData metaData, String catalog, String schema)
+			throws DBMetaResolverException
+	{
+		// MySQL的数据库对应JDBC的catalog
+		if (StringUtil.isEmpty(catalog))
+			return null;
+
+		return queryFingerprint(cn, SQL_SCHEMA_FINGERPRINT, catalog, catalog, catalog, catalog);
+	}
+
+	@Override
+	protected int getTableCount(Connection cn, DatabaseMetaData metaData, String catalog, String schema)
+	{
+		int count = (StringUtil.isEmpty(catalog) ? -1 : queryTableCount(cn, SQL_TABLE_COUNT, catalog));
+
+		return (count < 0 ? super.getTableCount(cn, metaData, catalog, schema) : count);
+	}
+
 	protected void resolveTableComment(SimpleTable st)
 	{
 		String comment = st.getComment();
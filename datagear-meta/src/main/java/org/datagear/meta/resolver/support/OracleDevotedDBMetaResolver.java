@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.meta.resolver.support;
+
+import org.datagear.connection.ConnectionSensor;
+import org.datagear.connection.URLConnectionSensor;
+import org.datagear.connection.support.OracleURLSensor;
+import org.datagear.meta.resolver.AbstractNativeQueryDevotedDBMetaResolver;
+import org.datagear.meta.resolver.DevotedDBMetaResolver;
+
+/**
+ * Oracle {@linkplain DevotedDBMetaResolver}。
+ * <p>
+ * 驱动程序的{@code getImportedKeys}、{@code getIndexInfo}（会分析表）很慢，且仅支持逐表查询，
+ * 此类直接查询{@code ALL_CONSTRAINTS}、{@code ALL_INDEXES}等数据字典视图批量读取。
+ * 连接已设置{@code remarksReporting}参数，驱动程序能返回表、列注释，所以不需查询注释。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class OracleDevotedDBMetaResolver extends AbstractNativeQueryDevotedDBMetaResolver
+{
+	protected static final String SQL_PRIMARY_KEY = "SELECT c.TABLE_NAME, c.CONSTRAINT_NAME AS PK_NAME, cc.COLUMN_NAME"
+			+ " FROM ALL_CONSTRAINTS c"
+			+ " JOIN ALL_CONS_COLUMNS cc ON (cc.OWNER = c.OWNER AND cc.CONSTRAINT_NAME = c.CONSTRAINT_NAME)"
+			+ " WHERE c.CONSTRAINT_TYPE = 'P' AND c.OWNER = ?";
+
+	protected static final String SQL_UNIQUE_KEY = "SELECT i.TABLE_NAME, i.INDEX_NAME, ic.COLUMN_NAME"
+			+ " FROM ALL_INDEXES i"
+			+ " JOIN ALL_IND_COLUMNS ic ON (ic.INDEX_OWNER = i.OWNER AND ic.INDEX_NAME = i.INDEX_NAME)"
+			+ " WHERE i.UNIQUENESS = 'UNIQUE' AND i.TABLE_OWNER = ?";
+
+	protected static final String SQL_IMPORT_KEY = "SELECT f.TABLE_NAME AS FKTABLE_NAME, f.CONSTRAINT_NAME AS FK_NAME,"
+			+ " fc.COLUMN_NAME AS FKCOLUMN_NAME, p.TABLE_NAME AS PKTABLE_NAME, pc.COLUMN_NAME AS PKCOLUMN_NAME"
+			+ " FROM ALL_CONSTRAINTS f"
+			+ " JOIN ALL_CONS_COLUMNS fc ON (fc.OWNER = f.OWNER AND fc.CONSTRAINT_NAME = f.CONSTRAINT_NAME)"
+			+ " JOIN ALL_CONSTRAINTS p ON (p.OWNER = f.R_OWNER AND p.CONSTRAINT_NAME = f.R_CONSTRAINT_NAME)"
+			+ " JOIN ALL_CONS_COLUMNS pc ON (pc.OWNER = p.OWNER AND pc.CONSTRAINT_NAME = p.CONSTRAINT_NAME"
+			+ " AND pc.POSITION = fc.POSITION)"
+			+ " WHERE f.CONSTRAINT_TYPE = 'R' AND f.OWNER = ?";
+
+	protected static final String SQL_SCHEMA_FINGERPRINT = "SELECT COUNT(*), MAX(LAST_DDL_TIME) FROM ALL_OBJECTS"
+			+ " WHERE OWNER = ?";
+
+	protected static final String SQL_TABLE_COUNT = "SELECT COUNT(*) FROM ALL_CATALOG WHERE OWNER = ?";
+
+	public OracleDevotedDBMetaResolver()
+	{
+		super(new URLConnectionSensor(OracleURLSensor.INSTANCE));
+	}
+
+	@Override
+	public void setConnectionSensor(ConnectionSensor connectionSensor)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	protected String getPrimaryKeySql(boolean forTable)
+	{
+		return SQL_PRIMARY_KEY + (forTable ? " AND c.TABLE_NAME = ?" : "") + " ORDER BY c.TABLE_NAME, cc.POSITION";
+	}
+
+	@Override
+	protected String getUniqueKeySql(boolean forTable)
+	{
+		return SQL_UNIQUE_KEY + (forTable ? " AND i.TABLE_NAME = ?" : "")
+				+ " ORDER BY i.TABLE_NAME, i.INDEX_NAME, ic.COLUMN_POSITION";
+	}
+
+	@Override
+	protected String getImportKeySql(boolean forTable)
+	{
+		return SQL_IMPORT_KEY + (forTable ? " AND f.TABLE_NAME = ?" : "")
+				+ " ORDER BY f.TABLE_NAME, f.CONSTRAINT_NAME, fc.POSITION";
+	}
+
+	@Override
+	protected String getSchemaFingerprintSql()
+	{
+		return SQL_SCHEMA_FINGERPRINT;
+	}
+
+	@Override
+	protected String getTableCountSql()
+	{
+		return SQL_TABLE_COUNT;
+	}
+}
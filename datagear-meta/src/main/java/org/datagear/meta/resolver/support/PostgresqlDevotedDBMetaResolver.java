@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.meta.resolver.support;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.datagear.connection.ConnectionSensor;
+import org.datagear.connection.URLConnectionSensor;
+import org.datagear.connection.support.PostgresqlURLSensor;
+import org.datagear.meta.Index;
+import org.datagear.meta.Table;
+import org.datagear.meta.resolver.AbstractNativeQueryDevotedDBMetaResolver;
+import org.datagear.meta.resolver.DevotedDBMetaResolver;
+
+/**
+ * PostgreSQL {@linkplain DevotedDBMetaResolver}。
+ * <p>
+ * 驱动程序的{@code getIndexInfo}、{@code getImportedKeys}仅支持逐表查询，此类直接查询{@code pg_catalog}系统表批量读取。
+ * 驱动程序已能返回表、列注释，所以不需查询注释。
+ * </p>
+ * <p>
+ * PostgreSQL系统表未记录DDL变更时间，所以不支持模式元信息指纹。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class PostgresqlDevotedDBMetaResolver extends AbstractNativeQueryDevotedDBMetaResolver
+{
+	/**
+	 * 索引键查询SQL。
+	 * <p>
+	 * 这里没有使用{@code information_schema._pg_expandarray(...)}展开键列数组，因为Redshift、Greenplum、CockroachDB等PostgreSQL分支没有此函数，
+	 * 而是与{@code generate_series(...)}生成的下标（{@code int2vector}的下标从0开始，最多32列）连接。
+	 * </p>
+	 */
+	protected static final String SQL_INDEX_KEY = "SELECT ct.relname AS TABLE_NAME, ci.relname AS KEY_NAME,"
+			+ " a.attname AS COLUMN_NAME"
+			+ " FROM pg_catalog.pg_class ct"
+			+ " JOIN pg_catalog.pg_namespace n ON (ct.relnamespace = n.oid)"
+			+ " JOIN pg_catalog.pg_index i ON (i.indrelid = ct.oid)"
+			+ " JOIN generate_series(0, 31) k(n) ON (k.n < i.indnatts)"
+			+ " JOIN pg_catalog.pg_attribute a ON (a.attrelid = ct.oid AND a.attnum = i.indkey[k.n])"
+			+ " JOIN pg_catalog.pg_class ci ON (ci.oid = i.indexrelid)"
+			+ " WHERE n.nspname = ?";
+
+	/**
+	 * 导入键查询SQL，与{@linkplain #SQL_INDEX_KEY}一样不使用{@code _pg_expandarray(...)}，数组下标从1开始。
+	 */
+	protected static final String SQL_IMPORT_KEY = "SELECT ct.relname AS FKTABLE_NAME, con.conname AS FK_NAME,"
+			+ " fa.attname AS FKCOLUMN_NAME, pt.relname AS PKTABLE_NAME, pa.attname AS PKCOLUMN_NAME"
+			+ " FROM pg_catalog.pg_constraint con"
+			+ " JOIN generate_series(1, 32) k(n) ON (k.n <= array_upper(con.conkey, 1))"
+			+ " JOIN pg_catalog.pg_class ct ON (ct.oid = con.conrelid)"
+			+ " JOIN pg_catalog.pg_namespace n ON (ct.relnamespace = n.oid)"
+			+ " JOIN pg_catalog.pg_class pt ON (pt.oid = con.confrelid)"
+			+ " JOIN pg_catalog.pg_attribute fa ON (fa.attrelid = con.conrelid AND fa.attnum = con.conkey[k.n])"
+			+ " JOIN pg_catalog.pg_attribute pa ON (pa.attrelid = con.confrelid AND pa.attnum = con.confkey[k.n])"
+			+ " WHERE con.contype = 'f' AND n.nspname = ?";
+
+	protected static final String SQL_TABLE_COUNT = "SELECT COUNT(*) FROM pg_catalog.pg_class c"
+			+ " JOIN pg_catalog.pg_namespace n ON (c.relnamespace = n.oid)"
+			+ " WHERE n.nspname = ? AND c.relkind IN ('r', 'v', 'm', 'f', 'p')";
+
+	/**
+	 * 全文索引表达式，比如：{@code to_tsvector('english'::regconfig, (title)::text)}
+	 */
+	protected static final Pattern PATTERN_FULLTEXT_INDEX = Pattern.compile(
+			"^to_tsvector\\(\\s*'([^']+)'(?:::regconfig)?\\s*,\\s*\\(?(\"[^\"]+\"|[^\\s\"(),:]+)\\)?(?:::[\\w ]+)?\\s*\\)$");
+
+	public PostgresqlDevotedDBMetaResolver()
+	{
+		super(new URLConnectionSensor(PostgresqlURLSensor.INSTANCE));
+	}
+
+	@Override
+	public void setConnectionSensor(ConnectionSensor connectionSensor)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 驱动程序的{@code getIndexInfo}对于表达式索引，返回的列名是索引表达式，
+	 * 这里将单列的{@code to_tsvector(...)}表达式索引解析为全文索引。
+	 */
+	@Override
+	protected Table postProcessTable(Connection cn, DatabaseMetaData metaData, String schema, Table table)
+	{
+		if (!table.hasIndex())
+			return table;
+
+		for (Index index : table.getIndexes())
+		{
+			String[] columnNames = index.getColumnNames();
+
+			if (columnNames.length != 1)
+				continue;
+
+			Matcher matcher = PATTERN_FULLTEXT_INDEX.matcher(columnNames[0].trim());
+
+			if (!matcher.matches())
+				continue;
+
+			String columnName = matcher.group(2);
+			if (columnName.startsWith("\""))
+				columnName = columnName.substring(1, columnName.length() - 1);
+
+			if (table.getColumn(columnName) == null)
+				continue;
+
+			index.setColumnNames(new String[] { columnName });
+			index.setFullText(true);
+			index.setFullTextConfig(matcher.group(1));
+		}
+
+		return table;
+	}
+
+	@Override
+	protected String getPrimaryKeySql(boolean forTable)
+	{
+		return SQL_INDEX_KEY.replace("KEY_NAME", "PK_NAME") + " AND i.indisprimary"
+				+ (forTable ? " AND ct.relname = ?" : "") + " ORDER BY ct.relname, k.n";
+	}
+
+	@Override
+	protected String getUniqueKeySql(boolean forTable)
+	{
+		return SQL_INDEX_KEY.replace("KEY_NAME", "INDEX_NAME") + " AND i.indisunique"
+				+ (forTable ? " AND ct.relname = ?" : "") + " ORDER BY ct.relname, ci.relname, k.n";
+	}
+
+	@Override
+	protected String getImportKeySql(boolean forTable)
+	{
+		return SQL_IMPORT_KEY + (forTable ? " AND ct.relname = ?" : "")
+				+ " ORDER BY ct.relname, con.conname, k.n";
+	}
+
+	@Override
+	protected String getTableCountSql()
+	{
+		return SQL_TABLE_COUNT;
+	}
+}
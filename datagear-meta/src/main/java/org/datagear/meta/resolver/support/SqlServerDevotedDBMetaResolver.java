@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.meta.resolver.support;
+
+import org.datagear.connection.ConnectionSensor;
+import org.datagear.connection.URLConnectionSensor;
+import org.datagear.connection.support.SqlServerURLSensor;
+import org.datagear.meta.resolver.AbstractNativeQueryDevotedDBMetaResolver;
+import org.datagear.meta.resolver.DevotedDBMetaResolver;
+
+/**
+ * SQL Server {@linkplain DevotedDBMetaResolver}。
+ * <p>
+ * 驱动程序的{@code getIndexInfo}、{@code getImportedKeys}通过存储过程逐表查询，此类直接查询{@code sys}目录视图批量读取。
+ * 驱动程序不返回表、列注释（{@code REMARKS}列总为{@code null}），此类从{@code MS_Description}扩展属性读取。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SqlServerDevotedDBMetaResolver extends AbstractNativeQueryDevotedDBMetaResolver
+{
+	protected static final String SQL_INDEX_KEY = "SELECT o.name AS TABLE_NAME, i.name AS KEY_NAME,"
+			+ " c.name AS COLUMN_NAME"
+			+ " FROM sys.indexes i"
+			+ " JOIN sys.objects o ON (o.object_id = i.object_id)"
+			+ " JOIN sys.schemas s ON (s.schema_id = o.schema_id)"
+			+ " JOIN sys.index_columns ic ON (ic.object_id = i.object_id AND ic.index_id = i.index_id)"
+			+ " JOIN sys.columns c ON (c.object_id = ic.object_id AND c.column_id = ic.column_id)"
+			+ " WHERE s.name = ? AND ic.is_included_column = 0";
+
+	protected static final String SQL_IMPORT_KEY = "SELECT o.name AS FKTABLE_NAME, fk.name AS FK_NAME,"
+			+ " fc.name AS FKCOLUMN_NAME, po.name AS PKTABLE_NAME, pc.name AS PKCOLUMN_NAME"
+			+ " FROM sys.foreign_keys fk"
+			+ " JOIN sys.objects o ON (o.object_id = fk.parent_object_id)"
+			+ " JOIN sys.schemas s ON (s.schema_id = o.schema_id)"
+			+ " JOIN sys.foreign_key_columns fkc ON (fkc.constraint_object_id = fk.object_id)"
+			+ " JOIN sys.columns fc ON (fc.object_id = fkc.parent_object_id AND fc.column_id = fkc.parent_column_id)"
+			+ " JOIN sys.objects po ON (po.object_id = fkc.referenced_object_id)"
+			+ " JOIN sys.columns pc ON (pc.object_id = fkc.referenced_object_id"
+			+ " AND pc.column_id = fkc.referenced_column_id)"
+			+ " WHERE s.name = ?";
+
+	protected static final String SQL_TABLE_COMMENT = "SELECT o.name AS TABLE_NAME,"
+			+ " CAST(ep.value AS NVARCHAR(4000)) AS REMARKS"
+			+ " FROM sys.extended_properties ep"
+			+ " JOIN sys.objects o ON (o.object_id = ep.major_id)"
+			+ " JOIN sys.schemas s ON (s.schema_id = o.schema_id)"
+			+ " WHERE ep.class = 1 AND ep.minor_id = 0 AND ep.name = 'MS_Description' AND s.name = ?";
+
+	protected static final String SQL_COLUMN_COMMENT = "SELECT o.name AS TABLE_NAME, c.name AS COLUMN_NAME,"
+			+ " CAST(ep.value AS NVARCHAR(4000)) AS REMARKS"
+			+ " FROM sys.extended_properties ep"
+			+ " JOIN sys.objects o ON (o.object_id = ep.major_id)"
+			+ " JOIN sys.schemas s ON (s.schema_id = o.schema_id)"
+			+ " JOIN sys.columns c ON (c.object_id = ep.major_id AND c.column_id = ep.minor_id)"
+			+ " WHERE ep.class = 1 AND ep.minor_id > 0 AND ep.name = 'MS_Description' AND s.name = ?";
+
+	protected static final String SQL_SCHEMA_FINGERPRINT = "SELECT COUNT(*), MAX(o.modify_date) FROM sys.objects o"
+			+ " JOIN sys.schemas s ON (s.schema_id = o.schema_id) WHERE s.name = ?";
+
+	protected static final String SQL_TABLE_COUNT = "SELECT COUNT(*) FROM sys.objects o"
+			+ " JOIN sys.schemas s ON (s.schema_id = o.schema_id) WHERE s.name = ? AND o.type IN ('U', 'V', 'SN')";
+
+	public SqlServerDevotedDBMetaResolver()
+	{
+		super(new URLConnectionSensor(SqlServerURLSensor.INSTANCE));
+	}
+
+	@Override
+	public void setConnectionSensor(ConnectionSensor connectionSensor)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	protected String getPrimaryKeySql(boolean forTable)
+	{
+		return SQL_INDEX_KEY.replace("KEY_NAME", "PK_NAME") + " AND i.is_primary_key = 1"
+				+ (forTable ? " AND o.name = ?" : "") + " ORDER BY o.name, ic.key_ordinal";
+	}
+
+	@Override
+	protected String getUniqueKeySql(boolean forTable)
+	{
+		return SQL_INDEX_KEY.replace("KEY_NAME", "INDEX_NAME") + " AND i.is_unique = 1"
+				+ (forTable ? " AND o.name = ?" : "") + " ORDER BY o.name, i.name, ic.key_ordinal";
+	}
+
+	@Override
+	protected String getImportKeySql(boolean forTable)
+	{
+		return SQL_IMPORT_KEY + (forTable ? " AND o.name = ?" : "")
+				+ " ORDER BY o.name, fk.name, fkc.constraint_column_id";
+	}
+
+	@Override
+	protected String getSchemaFingerprintSql()
+	{
+		return SQL_SCHEMA_FINGERPRINT;
+	}
+
+	@Override
+	protected String getTableCountSql()
+	{
+		return SQL_TABLE_COUNT;
+	}
+
+	@Override
+	protected String getTableCommentSql(boolean forTable)
+	{
+		return SQL_TABLE_COMMENT + (forTable ? " AND o.name = ?" : "");
+	}
+
+	@Override
+	protected String getColumnCommentSql(boolean forTable)
+	{
+		return SQL_COLUMN_COMMENT + (forTable ? " AND o.name = ?" : "");
+	}
+}
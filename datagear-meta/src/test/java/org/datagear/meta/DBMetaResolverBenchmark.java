@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.meta;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.datagear.meta.resolver.DBMetaResolver;
+import org.datagear.meta.resolver.GenericDBMetaResolver;
+import org.datagear.meta.resolver.WildcardDevotedDBMetaResolver;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.test.DBTestSupport;
+
+/**
+ * {@linkplain DBMetaResolver}性能对比程序。
+ * <p>
+ * 对比{@linkplain GenericDBMetaResolver}（使用特定数据库的{@linkplain org.datagear.meta.resolver.DevotedDBMetaResolver}）
+ * 与{@linkplain WildcardDevotedDBMetaResolver}（仅使用{@linkplain java.sql.DatabaseMetaData}）读取全部表元信息的耗时，并校验两者读取的键是否一致。
+ * </p>
+ * <p>
+ * 它不是单元测试，需手动运行，默认使用{@code test/config/jdbc.properties}配置的数据库，
+ * 也可通过{@code -Djdbc.url=... -Djdbc.user=... -Djdbc.password=...}指定其他数据库（比如本地安装的PostgreSQL、Oracle XE、SQL Server Express）。
+ * 程序参数为执行轮数，默认为{@code 5}。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DBMetaResolverBenchmark extends DBTestSupport
+{
+	private final DBMetaResolver devotedResolver = new GenericDBMetaResolver();
+
+	private final DBMetaResolver wildcardResolver = new WildcardDevotedDBMetaResolver();
+
+	public DBMetaResolverBenchmark()
+	{
+		super();
+	}
+
+	@Override
+	protected Connection getConnection() throws SQLException
+	{
+		String url = System.getProperty("jdbc.url");
+
+		if (url == null || url.isEmpty())
+			return super.getConnection();
+
+		return DriverManager.getConnection(url, System.getProperty("jdbc.user"), System.getProperty("jdbc.password"));
+	}
+
+	public void run(int rounds) throws Exception
+	{
+		Connection cn = null;
+
+		try
+		{
+			cn = getConnection();
+
+			List<String> tableNames = new ArrayList<>();
+			for (SimpleTable simpleTable : this.wildcardResolver.getSimpleTables(cn))
+			{
+				if (TableType.TABLE.equals(simpleTable.getType()))
+					tableNames.add(simpleTable.getName());
+			}
+
+			println("url=" + cn.getMetaData().getURL() + ", tables=" + tableNames.size() + ", rounds=" + rounds);
+
+			// 预热
+			List<Table> devotedTables = this.devotedResolver.getTables(cn, tableNames);
+			List<Table> wildcardTables = this.wildcardResolver.getTables(cn, tableNames);
+
+			println("key mismatches=" + compare(devotedTables, wildcardTables));
+
+			println("devoted  getTables(List) : " + timeBulk(this.devotedResolver, cn, tableNames, rounds) + "ms/round");
+			println("wildcard getTables(List) : " + timeBulk(this.wildcardResolver, cn, tableNames, rounds) + "ms/round");
+			println("devoted  getTable        : " + timeEach(this.devotedResolver, cn, tableNames, rounds) + "ms/round");
+			println("wildcard getTable        : " + timeEach(this.wildcardResolver, cn, tableNames, rounds) + "ms/round");
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	protected long timeBulk(DBMetaResolver resolver, Connection cn, List<String> tableNames, int rounds)
+	{
+		long start = System.currentTimeMillis();
+
+		for (int i = 0; i < rounds; i++)
+			resolver.getTables(cn, tableNames);
+
+		return (System.currentTimeMillis() - start) / rounds;
+	}
+
+	protected long timeEach(DBMetaResolver resolver, Connection cn, List<String> tableNames, int rounds)
+	{
+		long start = System.currentTimeMillis();
+
+		for (int i = 0; i < rounds; i++)
+		{
+			for (String tableName : tableNames)
+				resolver.getTable(cn, tableName);
+		}
+
+		return (System.currentTimeMillis() - start) / rounds;
+	}
+
+	protected int compare(List<Table> devotedTables, List<Table> wildcardTables)
+	{
+		int mismatches = 0;
+
+		for (int i = 0; i < devotedTables.size(); i++)
+		{
+			Table dt = devotedTables.get(i);
+			Table wt = wildcardTables.get(i);
+
+			String dkeys = toKeyString(dt);
+			String wkeys = toKeyString(wt);
+
+			if (!dkeys.equals(wkeys))
+			{
+				mismatches++;
+				println("mismatch " + dt.getName() + " :");
+				println("  devoted  " + dkeys);
+				println("  wildcard " + wkeys);
+			}
+		}
+
+		return mismatches;
+	}
+
+	protected String toKeyString(Table table)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		PrimaryKey pk = table.getPrimaryKey();
+		sb.append("pk=").append(pk == null ? "" : Arrays.toString(pk.getColumnNames()));
+
+		List<String> uks = new ArrayList<>();
+		if (table.getUniqueKeys() != null)
+		{
+			for (UniqueKey uk : table.getUniqueKeys())
+				uks.add(Arrays.toString(uk.getColumnNames()));
+		}
+		uks.sort(null);
+		sb.append(", uks=").append(uks);
+
+		List<String> iks = new ArrayList<>();
+		if (table.getImportKeys() != null)
+		{
+			for (ImportKey ik : table.getImportKeys())
+				iks.add(Arrays.toString(ik.getColumnNames()) + "->" + ik.getPrimaryTableName()
+						+ Arrays.toString(ik.getPrimaryColumnNames()));
+		}
+		iks.sort(null);
+		sb.append(", iks=").append(iks);
+
+		return sb.toString();
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		int rounds = (args.length > 0 ? Integer.parseInt(args[0]) : 5);
+
+		new DBMetaResolverBenchmark().run(rounds);
+	}
+}
@@ -16,6 +16,7 @@ import static org.hamcrest.text.IsEqualIgnoringCase.equalToIgnoringCase;
 import static org.junit.Assert.assertEquals;
 
 import java.sql.Connection;
+import java.util.Arrays;
 import java.util.List;
 
 import org.datagear.meta.resolver.GenericDBMetaResolver;
@@ -80,9 +81,39 @@ public class GenericDBMetaResolverTest extends DBTestSupport
 			assertThat(table.getColumns(), hasItemInArray(hasProperty("name", equalToIgnoringCase("ACCOUNT_ID"))));
 			assertThat(table.getUniqueKeys(),
 					hasItemInArray(hasProperty("columnNames", arrayContaining(equalToIgnoringCase("ACCOUNT_ID")))));
+			assertThat(table.getIndexes(),
+					hasItemInArray(hasProperty("columnNames", arrayContaining(equalToIgnoringCase("ACCOUNT_ID")))));
 		}
 	}
 
+	@Test
+	public void getTablesTest() throws Exception
+	{
+		List<Table> tables = this.genericDBMetaResolver.getTables(this.connection,
+				Arrays.asList("T_ACCOUNT", "T_ADDRESS", "T_ACCOUNT"));
+
+		assertEquals(3, tables.size());
+
+		{
+			Table table = tables.get(0);
+			assertThat(table, hasProperty("name", equalToIgnoringCase("T_ACCOUNT")));
+			assertThat(table.getColumns(), hasItemInArray(hasProperty("name", equalToIgnoringCase("ID"))));
+			assertThat(table.getPrimaryKey(), hasProperty("columnNames", hasItemInArray(equalToIgnoringCase("ID"))));
+		}
+
+		{
+			Table table = tables.get(1);
+			assertThat(table, hasProperty("name", equalToIgnoringCase("T_ADDRESS")));
+			assertThat(table.getColumns(), hasItemInArray(hasProperty("name", equalToIgnoringCase("ACCOUNT_ID"))));
+			assertThat(table.getUniqueKeys(),
+					hasItemInArray(hasProperty("columnNames", arrayContaining(equalToIgnoringCase("ACCOUNT_ID")))));
+			assertThat(table.getIndexes(),
+					hasItemInArray(hasProperty("columnNames", arrayContaining(equalToIgnoringCase("ACCOUNT_ID")))));
+		}
+
+		assertThat(tables.get(2), hasProperty("name", equalToIgnoringCase("T_ACCOUNT")));
+	}
+
 	@Test
 	public void getColumnsTest() throws Exception
 	{
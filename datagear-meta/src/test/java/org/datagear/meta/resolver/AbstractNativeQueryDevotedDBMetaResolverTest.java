@@ -0,0 +1,297 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.meta.resolver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.meta.ImportKey;
+import org.datagear.meta.SimpleTable;
+import org.datagear.meta.Table;
+import org.datagear.util.JdbcUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain AbstractNativeQueryDevotedDBMetaResolver}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class AbstractNativeQueryDevotedDBMetaResolverTest
+{
+	private static final String URL = "jdbc:derby:memory:AbstractNativeQueryDevotedDBMetaResolverTest";
+
+	/** 使用原生查询的主键SQL */
+	private static final String SQL_PRIMARY_KEY = "SELECT 'T_CHILD' AS TABLE_NAME, 'NATIVE_PK' AS PK_NAME,"
+			+ " 'ID' AS COLUMN_NAME FROM SYSIBM.SYSDUMMY1 WHERE CAST(? AS VARCHAR(128)) = 'APP'";
+
+	/** 执行出错的导入键SQL */
+	private static final String SQL_IMPORT_KEY_ERROR = "SELECT * FROM NOT_EXISTS_TABLE WHERE SCHEMA_NAME = ?";
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL + ";create=true");
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_PARENT (ID INT NOT NULL PRIMARY KEY)");
+			st.executeUpdate("CREATE TABLE T_CHILD (ID INT NOT NULL, PARENT_ID INT, CONSTRAINT PK_CHILD PRIMARY KEY (ID),"
+					+ " CONSTRAINT FK_CHILD_PARENT FOREIGN KEY (PARENT_ID) REFERENCES T_PARENT (ID))");
+			st.executeUpdate("CREATE TABLE \"Mixed_Case\" (ID INT)");
+			st.executeUpdate("CREATE TABLE MIXEDXCASE (ID INT)");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void destroyDatabase() throws Exception
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是会抛出异常
+		}
+	}
+
+	@Test
+	public void getTableTest_inTransaction() throws Exception
+	{
+		AtomicInteger savepointRollbacks = new AtomicInteger(0);
+		Connection cn = savepointCountingConnection(DriverManager.getConnection(URL), savepointRollbacks);
+
+		try
+		{
+			cn.setAutoCommit(false);
+			executeUpdate(cn, "INSERT INTO T_PARENT (ID) VALUES (1)");
+
+			TestNativeQueryDevotedDBMetaResolver resolver = new TestNativeQueryDevotedDBMetaResolver(SQL_PRIMARY_KEY,
+					SQL_IMPORT_KEY_ERROR);
+
+			Table table = resolver.getTable(cn, "T_CHILD");
+
+			// 主键使用原生查询
+			assertEquals("NATIVE_PK", table.getPrimaryKey().getKeyName());
+			assertArrayEquals(new String[] { "ID" }, table.getPrimaryKey().getColumnNames());
+
+			// 导入键原生查询出错，回滚至保存点后采用默认方式读取
+			assertEquals(1, savepointRollbacks.get());
+			assertEquals(1, table.getImportKeys().length);
+
+			ImportKey importKey = table.getImportKeys()[0];
+			assertEquals("FK_CHILD_PARENT", importKey.getKeyName());
+			assertEquals("T_PARENT", importKey.getPrimaryTableName());
+
+			// 事务未受影响
+			assertEquals(1, queryCount(cn, "SELECT COUNT(*) FROM T_PARENT"));
+		}
+		finally
+		{
+			cn.rollback();
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void getTableTest_autoCommit() throws Exception
+	{
+		AtomicInteger savepointRollbacks = new AtomicInteger(0);
+		Connection cn = savepointCountingConnection(DriverManager.getConnection(URL), savepointRollbacks);
+
+		try
+		{
+			TestNativeQueryDevotedDBMetaResolver resolver = new TestNativeQueryDevotedDBMetaResolver(SQL_PRIMARY_KEY,
+					SQL_IMPORT_KEY_ERROR);
+
+			Table table = resolver.getTable(cn, "T_CHILD");
+
+			assertEquals("NATIVE_PK", table.getPrimaryKey().getKeyName());
+			assertEquals("FK_CHILD_PARENT", table.getImportKeys()[0].getKeyName());
+
+			// 自动提交时无需保存点
+			assertEquals(0, savepointRollbacks.get());
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void getTableTest_noSql() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL);
+
+		try
+		{
+			TestNativeQueryDevotedDBMetaResolver resolver = new TestNativeQueryDevotedDBMetaResolver(null, null);
+
+			Table table = resolver.getTable(cn, "T_CHILD");
+
+			assertEquals("PK_CHILD", table.getPrimaryKey().getKeyName());
+			assertEquals("FK_CHILD_PARENT", table.getImportKeys()[0].getKeyName());
+			assertEquals(2, table.getColumns().length);
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void getSimpleTablesTest_pattern() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL);
+
+		try
+		{
+			TestNativeQueryDevotedDBMetaResolver resolver = new TestNativeQueryDevotedDBMetaResolver(null, null);
+
+			// 未加引号的表名按照标识符存储规则匹配
+			assertEquals(Arrays.asList("T_CHILD", "T_PARENT"), tableNames(resolver.getSimpleTables(cn, "t_%")));
+
+			// 带引号的混合大小写表名按原样匹配，并且合并按照标识符存储规则匹配的结果
+			assertEquals(Arrays.asList("MIXEDXCASE", "Mixed_Case"), tableNames(resolver.getSimpleTables(cn, "Mixed%")));
+
+			// 大小写都不一致时无法匹配，应由调用方回退
+			assertEquals(Arrays.asList("MIXEDXCASE"), tableNames(resolver.getSimpleTables(cn, "mixed%")));
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	protected List<String> tableNames(List<SimpleTable> tables)
+	{
+		List<String> names = new ArrayList<>(tables.size());
+
+		for (SimpleTable table : tables)
+			names.add(table.getName());
+
+		Collections.sort(names);
+
+		return names;
+	}
+
+	protected void executeUpdate(Connection cn, String sql) throws SQLException
+	{
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate(sql);
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+		}
+	}
+
+	protected int queryCount(Connection cn, String sql) throws SQLException
+	{
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = cn.createStatement();
+			rs = st.executeQuery(sql);
+			rs.next();
+
+			return rs.getInt(1);
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+		}
+	}
+
+	protected Connection savepointCountingConnection(Connection cn, AtomicInteger savepointRollbacks)
+	{
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) ->
+				{
+					if ("rollback".equals(method.getName()) && args != null && args.length == 1)
+						savepointRollbacks.incrementAndGet();
+
+					try
+					{
+						return method.invoke(cn, args);
+					}
+					catch (InvocationTargetException e)
+					{
+						throw e.getCause();
+					}
+				});
+	}
+
+	protected static class TestNativeQueryDevotedDBMetaResolver extends AbstractNativeQueryDevotedDBMetaResolver
+	{
+		private final String primaryKeySql;
+
+		private final String importKeySql;
+
+		public TestNativeQueryDevotedDBMetaResolver(String primaryKeySql, String importKeySql)
+		{
+			super();
+			this.primaryKeySql = primaryKeySql;
+			this.importKeySql = importKeySql;
+		}
+
+		@Override
+		protected String getPrimaryKeySql(boolean forTable)
+		{
+			if (this.primaryKeySql == null)
+				return null;
+
+			return this.primaryKeySql + (forTable ? " AND CAST(? AS VARCHAR(128)) = 'T_CHILD'" : "");
+		}
+
+		@Override
+		protected String getUniqueKeySql(boolean forTable)
+		{
+			return null;
+		}
+
+		@Override
+		protected String getImportKeySql(boolean forTable)
+		{
+			if (this.importKeySql == null)
+				return null;
+
+			return this.importKeySql + (forTable ? " AND TABLE_NAME = ?" : "");
+		}
+	}
+}
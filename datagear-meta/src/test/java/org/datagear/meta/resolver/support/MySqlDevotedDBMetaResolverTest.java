@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.meta.resolver.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.meta.Index;
+import org.datagear.meta.Table;
+import org.datagear.util.JdbcUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain MySqlDevotedDBMetaResolver}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class MySqlDevotedDBMetaResolverTest
+{
+	private static final String URL = "jdbc:derby:memory:MySqlDevotedDBMetaResolverTest";
+
+	private static final String CATALOG = "db1";
+
+	private MySqlDevotedDBMetaResolver resolver = new MySqlDevotedDBMetaResolver();
+
+	/**
+	 * 使用Derby模拟MySQL的{@code information_schema.STATISTICS}表。
+	 * 
+	 * @throws Exception
+	 */
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL + ";create=true");
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE SCHEMA INFORMATION_SCHEMA");
+			st.executeUpdate("CREATE TABLE INFORMATION_SCHEMA.STATISTICS (TABLE_SCHEMA VARCHAR(64),"
+					+ " TABLE_NAME VARCHAR(64), INDEX_NAME VARCHAR(64), COLUMN_NAME VARCHAR(64),"
+					+ " INDEX_TYPE VARCHAR(16))");
+			st.executeUpdate("INSERT INTO INFORMATION_SCHEMA.STATISTICS VALUES"
+					+ " ('db1', 'T_ARTICLE', 'FT_TITLE', 'TITLE', 'FULLTEXT'),"
+					+ " ('db1', 'T_ARTICLE', 'FT_TITLE', 'CONTENT', 'FULLTEXT'),"
+					+ " ('db1', 'T_ARTICLE', 'IDX_AUTHOR', 'AUTHOR', 'BTREE'),"
+					+ " ('db1', 'T_NOTE', 'FT_NOTE', 'NOTE', 'FULLTEXT'),"
+					+ " ('db2', 'T_ARTICLE', 'IDX_AUTHOR', 'AUTHOR', 'FULLTEXT')");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void destroyDatabase() throws Exception
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是会抛出异常
+		}
+	}
+
+	@Test
+	public void postProcessTablesTest() throws Exception
+	{
+		AtomicInteger queries = new AtomicInteger(0);
+		Connection cn = queryCountingConnection(DriverManager.getConnection(URL), queries);
+
+		try
+		{
+			Table article = createTable("T_ARTICLE", "FT_TITLE", "IDX_AUTHOR");
+			Table note = createTable("T_NOTE", "FT_NOTE");
+			Table item = createTable("T_ITEM", "IDX_NAME");
+
+			List<Table> tables = this.resolver.postProcessTables(cn, null, CATALOG, null,
+					Arrays.asList(article, note, item));
+
+			// 所有表仅查询一次
+			assertEquals(1, queries.get());
+			assertEquals(3, tables.size());
+
+			assertTrue(article.getIndexes()[0].isFullText());
+			assertFalse(article.getIndexes()[1].isFullText());
+			assertTrue(note.getIndexes()[0].isFullText());
+			assertFalse(item.getIndexes()[0].isFullText());
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void postProcessTablesTest_noNonUniqueIndex() throws Exception
+	{
+		AtomicInteger queries = new AtomicInteger(0);
+		Connection cn = queryCountingConnection(DriverManager.getConnection(URL), queries);
+
+		try
+		{
+			Table article = createTable("T_ARTICLE", "FT_TITLE");
+			article.getIndexes()[0].setUnique(true);
+
+			this.resolver.postProcessTables(cn, null, CATALOG, null,
+					Arrays.asList(article, new Table("T_NOTE", "TABLE")));
+
+			// 没有非唯一索引时无需查询
+			assertEquals(0, queries.get());
+			assertFalse(article.getIndexes()[0].isFullText());
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void queryFullTextIndexNamesTest() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL);
+
+		try
+		{
+			assertEquals(Arrays.asList("FT_TITLE"), Arrays.asList(this.resolver
+					.queryFullTextIndexNames(cn, MySqlDevotedDBMetaResolver.SQL_FULLTEXT_INDEX, CATALOG, "T_ARTICLE")
+					.get("T_ARTICLE").toArray()));
+
+			assertEquals(2, this.resolver
+					.queryFullTextIndexNames(cn, MySqlDevotedDBMetaResolver.SQL_SCHEMA_FULLTEXT_INDEX, CATALOG).size());
+
+			// 出错时返回空映射表
+			assertTrue(this.resolver.queryFullTextIndexNames(cn, "SELECT * FROM NOT_EXISTS_TABLE WHERE A = ?", CATALOG)
+					.isEmpty());
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void schemaFingerprintSqlTest()
+	{
+		String sql = MySqlDevotedDBMetaResolver.SQL_SCHEMA_FINGERPRINT;
+
+		// 调用时每个子查询都传入catalog参数
+		assertEquals(4, sql.length() - sql.replace("?", "").length());
+
+		// 应校验列、索引定义，而不仅是表的创建时间
+		assertTrue(sql.contains("information_schema.COLUMNS"));
+		assertTrue(sql.contains("information_schema.STATISTICS"));
+		assertTrue(sql.contains("information_schema.KEY_COLUMN_USAGE"));
+
+		// 数据写入不应改变指纹
+		assertFalse(sql.contains("UPDATE_TIME"));
+	}
+
+	protected Table createTable(String name, String... indexNames)
+	{
+		Index[] indexes = new Index[indexNames.length];
+
+		for (int i = 0; i < indexNames.length; i++)
+		{
+			indexes[i] = new Index(new String[] { "C" + i });
+			indexes[i].setKeyName(indexNames[i]);
+		}
+
+		Table table = new Table(name, "TABLE");
+		table.setIndexes(indexes);
+
+		return table;
+	}
+
+	protected Connection queryCountingConnection(Connection cn, AtomicInteger queries)
+	{
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) ->
+				{
+					if ("prepareStatement".equals(method.getName()))
+						queries.incrementAndGet();
+
+					try
+					{
+						return method.invoke(cn, args);
+					}
+					catch (InvocationTargetException e)
+					{
+						throw e.getCause();
+					}
+				});
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.meta.resolver.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain PostgresqlDevotedDBMetaResolver}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class PostgresqlDevotedDBMetaResolverTest
+{
+	private PostgresqlDevotedDBMetaResolver resolver = new PostgresqlDevotedDBMetaResolver();
+
+	@Test
+	public void getKeySqlTest()
+	{
+		String[] schemaSqls = { this.resolver.getPrimaryKeySql(false), this.resolver.getUniqueKeySql(false),
+				this.resolver.getImportKeySql(false), this.resolver.getTableCountSql() };
+
+		String[] tableSqls = { this.resolver.getPrimaryKeySql(true), this.resolver.getUniqueKeySql(true),
+				this.resolver.getImportKeySql(true) };
+
+		for (String sql : schemaSqls)
+		{
+			assertEquals(sql, 1, countParams(sql));
+			assertNotUseExpandArray(sql);
+		}
+
+		for (String sql : tableSqls)
+		{
+			assertEquals(sql, 2, countParams(sql));
+			assertNotUseExpandArray(sql);
+		}
+
+		// 键列按照下标排序
+		assertTrue(this.resolver.getPrimaryKeySql(false).endsWith(" ORDER BY ct.relname, k.n"));
+		assertTrue(this.resolver.getUniqueKeySql(true).endsWith(" ORDER BY ct.relname, ci.relname, k.n"));
+		assertTrue(this.resolver.getImportKeySql(true).endsWith(" ORDER BY ct.relname, con.conname, k.n"));
+	}
+
+	protected void assertNotUseExpandArray(String sql)
+	{
+		// Redshift、Greenplum、CockroachDB没有此函数
+		assertFalse(sql, sql.contains("_pg_expandarray"));
+	}
+
+	protected int countParams(String sql)
+	{
+		int count = 0;
+
+		for (int i = 0; i < sql.length(); i++)
+		{
+			if (sql.charAt(i) == '?')
+				count++;
+		}
+
+		return count;
+	}
+}
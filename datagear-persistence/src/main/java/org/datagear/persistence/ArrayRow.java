@@ -0,0 +1,590 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 数组存储的{@linkplain Row}。
+ * <p>
+ * 同一结果集的所有行共享一个{@linkplain Header}（列名-索引映射），每行仅存储一个值数组，
+ * 避免了逐行创建{@linkplain HashMap}的内存分配和哈希计算。
+ * </p>
+ * <p>
+ * 读取操作直接访问值数组；首次修改操作（{@linkplain #put(String, Object)}、{@linkplain #remove(Object)}等）时，
+ * 会先将值复制到{@linkplain HashMap}存储，之后与{@linkplain Row}完全一致。
+ * 未转换存储时遍历顺序即列顺序，转换存储前获取的{@linkplain #keySet()}等视图在转换后仍然有效。
+ * 序列化时将被替换为普通的{@linkplain Row}。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ArrayRow extends Row
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 列头 */
+	private transient Header header;
+
+	/** 值数组，与列头一一对应 */
+	private transient Object[] values;
+
+	/** 是否已转为{@linkplain HashMap}存储 */
+	private transient boolean inflated = false;
+
+	public ArrayRow(Header header, Object[] values)
+	{
+		super();
+
+		if (values.length != header.size())
+			throw new IllegalArgumentException("[values] length must be " + header.size());
+
+		this.header = header;
+		this.values = values;
+	}
+
+	public Header getHeader()
+	{
+		return header;
+	}
+
+	/**
+	 * 是否已转为{@linkplain HashMap}存储。
+	 *
+	 * @return
+	 */
+	public boolean isInflated()
+	{
+		return inflated;
+	}
+
+	/**
+	 * 转为{@linkplain HashMap}存储。
+	 */
+	protected void inflate()
+	{
+		if (this.inflated)
+			return;
+
+		String[] names = this.header.getNames();
+
+		for (int i = 0; i < names.length; i++)
+			super.put(names[i], this.values[i]);
+
+		this.inflated = true;
+		this.values = null;
+	}
+
+	@Override
+	public int size()
+	{
+		return (this.inflated ? super.size() : this.header.size());
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return (size() == 0);
+	}
+
+	@Override
+	public Object get(Object key)
+	{
+		if (this.inflated)
+			return super.get(key);
+
+		int index = this.header.indexOf(key);
+		return (index < 0 ? null : this.values[index]);
+	}
+
+	@Override
+	public Object getOrDefault(Object key, Object defaultValue)
+	{
+		if (this.inflated)
+			return super.getOrDefault(key, defaultValue);
+
+		int index = this.header.indexOf(key);
+		return (index < 0 ? defaultValue : this.values[index]);
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return (this.inflated ? super.containsKey(key) : this.header.indexOf(key) >= 0);
+	}
+
+	@Override
+	public boolean containsValue(Object value)
+	{
+		if (this.inflated)
+			return super.containsValue(value);
+
+		for (Object v : this.values)
+		{
+			if (value == null ? v == null : value.equals(v))
+				return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super Object> action)
+	{
+		if (this.inflated)
+		{
+			super.forEach(action);
+			return;
+		}
+
+		String[] names = this.header.getNames();
+
+		for (int i = 0; i < names.length; i++)
+			action.accept(names[i], this.values[i]);
+	}
+
+	@Override
+	public Set<String> keySet()
+	{
+		if (this.inflated)
+			return super.keySet();
+
+		return new AbstractSet<String>()
+		{
+			@Override
+			public Iterator<String> iterator()
+			{
+				if (inflated)
+					return ArrayRow.super.keySet().iterator();
+
+				final ArrayEntryIterator it = new ArrayEntryIterator();
+
+				return new Iterator<String>()
+				{
+					@Override
+					public boolean hasNext()
+					{
+						return it.hasNext();
+					}
+
+					@Override
+					public String next()
+					{
+						return it.next().getKey();
+					}
+
+					@Override
+					public void remove()
+					{
+						it.remove();
+					}
+				};
+			}
+
+			@Override
+			public int size()
+			{
+				return ArrayRow.this.size();
+			}
+
+			@Override
+			public boolean contains(Object o)
+			{
+				return ArrayRow.this.containsKey(o);
+			}
+		};
+	}
+
+	@Override
+	public Collection<Object> values()
+	{
+		if (this.inflated)
+			return super.values();
+
+		return new AbstractCollection<Object>()
+		{
+			@Override
+			public Iterator<Object> iterator()
+			{
+				if (inflated)
+					return ArrayRow.super.values().iterator();
+
+				final ArrayEntryIterator it = new ArrayEntryIterator();
+
+				return new Iterator<Object>()
+				{
+					@Override
+					public boolean hasNext()
+					{
+						return it.hasNext();
+					}
+
+					@Override
+					public Object next()
+					{
+						return it.next().getValue();
+					}
+
+					@Override
+					public void remove()
+					{
+						it.remove();
+					}
+				};
+			}
+
+			@Override
+			public int size()
+			{
+				return ArrayRow.this.size();
+			}
+		};
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet()
+	{
+		if (this.inflated)
+			return super.entrySet();
+
+		return new AbstractSet<Map.Entry<String, Object>>()
+		{
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator()
+			{
+				if (inflated)
+					return ArrayRow.super.entrySet().iterator();
+
+				return new ArrayEntryIterator();
+			}
+
+			@Override
+			public int size()
+			{
+				return ArrayRow.this.size();
+			}
+		};
+	}
+
+	@Override
+	public Object put(String key, Object value)
+	{
+		if (!this.inflated)
+		{
+			int index = this.header.indexOf(key);
+
+			// 替换已有列的值不需要转换存储
+			if (index >= 0)
+			{
+				Object old = this.values[index];
+				this.values[index] = value;
+				return old;
+			}
+
+			inflate();
+		}
+
+		return super.put(key, value);
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends Object> m)
+	{
+		inflate();
+		super.putAll(m);
+	}
+
+	@Override
+	public Object remove(Object key)
+	{
+		inflate();
+		return super.remove(key);
+	}
+
+	@Override
+	public boolean remove(Object key, Object value)
+	{
+		inflate();
+		return super.remove(key, value);
+	}
+
+	@Override
+	public void clear()
+	{
+		inflate();
+		super.clear();
+	}
+
+	@Override
+	public Object putIfAbsent(String key, Object value)
+	{
+		inflate();
+		return super.putIfAbsent(key, value);
+	}
+
+	@Override
+	public boolean replace(String key, Object oldValue, Object newValue)
+	{
+		inflate();
+		return super.replace(key, oldValue, newValue);
+	}
+
+	@Override
+	public Object replace(String key, Object value)
+	{
+		inflate();
+		return super.replace(key, value);
+	}
+
+	@Override
+	public Object computeIfAbsent(String key, Function<? super String, ? extends Object> mappingFunction)
+	{
+		inflate();
+		return super.computeIfAbsent(key, mappingFunction);
+	}
+
+	@Override
+	public Object computeIfPresent(String key,
+			BiFunction<? super String, ? super Object, ? extends Object> remappingFunction)
+	{
+		inflate();
+		return super.computeIfPresent(key, remappingFunction);
+	}
+
+	@Override
+	public Object compute(String key, BiFunction<? super String, ? super Object, ? extends Object> remappingFunction)
+	{
+		inflate();
+		return super.compute(key, remappingFunction);
+	}
+
+	@Override
+	public Object merge(String key, Object value,
+			BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction)
+	{
+		inflate();
+		return super.merge(key, value, remappingFunction);
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super String, ? super Object, ? extends Object> function)
+	{
+		inflate();
+		super.replaceAll(function);
+	}
+
+	@Override
+	public Object clone()
+	{
+		inflate();
+		return super.clone();
+	}
+
+	/**
+	 * 序列化为普通{@linkplain Row}，{@linkplain HashMap}的序列化仅写入其内部存储。
+	 *
+	 * @return
+	 */
+	protected Object writeReplace()
+	{
+		return new Row(this);
+	}
+
+	/**
+	 * 未转换存储时的条目迭代器，它在迭代中途转换存储后仍然有效。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class ArrayEntryIterator implements Iterator<Map.Entry<String, Object>>
+	{
+		private final String[] names = header.getNames();
+
+		private int nextIndex = 0;
+
+		private int lastIndex = -1;
+
+		public ArrayEntryIterator()
+		{
+			super();
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			// 转换存储后，跳过已被删除的列
+			while (inflated && this.nextIndex < this.names.length
+					&& !ArrayRow.super.containsKey(this.names[this.nextIndex]))
+				this.nextIndex++;
+
+			return (this.nextIndex < this.names.length);
+		}
+
+		@Override
+		public Map.Entry<String, Object> next()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+
+			this.lastIndex = this.nextIndex++;
+			return new ArrayEntry(this.lastIndex);
+		}
+
+		@Override
+		public void remove()
+		{
+			if (this.lastIndex < 0)
+				throw new IllegalStateException();
+
+			ArrayRow.this.remove(this.names[this.lastIndex]);
+			this.lastIndex = -1;
+		}
+	}
+
+	/**
+	 * 值数组条目。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class ArrayEntry implements Map.Entry<String, Object>
+	{
+		private final int index;
+
+		public ArrayEntry(int index)
+		{
+			super();
+			this.index = index;
+		}
+
+		@Override
+		public String getKey()
+		{
+			return header.getNames()[this.index];
+		}
+
+		@Override
+		public Object getValue()
+		{
+			return (inflated ? ArrayRow.super.get(getKey()) : values[this.index]);
+		}
+
+		@Override
+		public Object setValue(Object value)
+		{
+			if (inflated)
+				return ArrayRow.super.put(getKey(), value);
+
+			Object old = values[this.index];
+			values[this.index] = value;
+			return old;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			Object key = getKey();
+			Object value = getValue();
+
+			return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Map.Entry))
+				return false;
+
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+			Object value = getValue();
+
+			return getKey().equals(other.getKey())
+					&& (value == null ? other.getValue() == null : value.equals(other.getValue()));
+		}
+
+		@Override
+		public String toString()
+		{
+			return getKey() + "=" + getValue();
+		}
+	}
+
+	/**
+	 * 列头，即列名-值数组索引映射，由同一结果集的所有{@linkplain ArrayRow}共享。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class Header
+	{
+		private final String[] names;
+
+		private final Map<String, Integer> indexes;
+
+		/**
+		 * 创建列头。
+		 *
+		 * @param names
+		 *            列名，不允许重复
+		 */
+		public Header(String[] names)
+		{
+			super();
+
+			this.names = names;
+			this.indexes = new HashMap<>(Math.max(16, (int) (names.length / 0.75f) + 1));
+
+			for (int i = 0; i < names.length; i++)
+			{
+				if (this.indexes.put(names[i], i) != null)
+					throw new IllegalArgumentException("Duplicate name [" + names[i] + "]");
+			}
+		}
+
+		public Header(List<String> names)
+		{
+			this(names.toArray(new String[names.size()]));
+		}
+
+		public String[] getNames()
+		{
+			return names;
+		}
+
+		public int size()
+		{
+			return this.names.length;
+		}
+
+		/**
+		 * 获取列名的索引。
+		 *
+		 * @param name
+		 * @return {@code -1}表示没有
+		 */
+		public int indexOf(Object name)
+		{
+			Integer index = this.indexes.get(name);
+			return (index == null ? -1 : index.intValue());
+		}
+	}
+}
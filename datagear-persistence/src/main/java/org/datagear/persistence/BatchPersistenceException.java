@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence;
+
+/**
+ * 批量持久化异常。
+ * <p>
+ * 批量插入、更新、删除行对象时，某一行执行出错时抛出此异常，{@linkplain #getRowIndex()}为出错行在参数数组中的索引。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class BatchPersistenceException extends PersistenceException
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 出错行索引，以0开始，为-1表示无法确定 */
+	private final int rowIndex;
+
+	public BatchPersistenceException(int rowIndex)
+	{
+		super();
+		this.rowIndex = rowIndex;
+	}
+
+	public BatchPersistenceException(int rowIndex, String message)
+	{
+		super(message);
+		this.rowIndex = rowIndex;
+	}
+
+	public BatchPersistenceException(int rowIndex, Throwable cause)
+	{
+		super(cause);
+		this.rowIndex = rowIndex;
+	}
+
+	public BatchPersistenceException(int rowIndex, String message, Throwable cause)
+	{
+		super(message, cause);
+		this.rowIndex = rowIndex;
+	}
+
+	/**
+	 * 获取出错行索引。
+	 *
+	 * @return 以0开始，为{@code -1}表示无法确定
+	 */
+	public int getRowIndex()
+	{
+		return rowIndex;
+	}
+
+	/**
+	 * 是否能确定出错行。
+	 *
+	 * @return
+	 */
+	public boolean hasRowIndex()
+	{
+		return (this.rowIndex >= 0);
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+
+import org.datagear.meta.Column;
+import org.datagear.meta.Table;
+
+/**
+ * 结果集列值处理器。
+ * <p>
+ * 它在结果集关闭前直接读取列值（比如{@linkplain ResultSet#getBinaryStream(int)}），
+ * 可用于以流的方式处理LOB、二进制列值，而不必先将其读入内存或者写入临时文件。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public interface ColumnValueHandler
+{
+	/**
+	 * 处理列值。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param column
+	 * @param rs
+	 *            已定位至当前行，此方法内不应移动其游标
+	 * @param columnIndex
+	 *            列在结果集中的索引，以{@code 1}开始
+	 * @throws ColumnValueHandlerException
+	 */
+	void handle(Connection cn, Table table, Column column, ResultSet rs, int columnIndex)
+			throws ColumnValueHandlerException;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence;
+
+/**
+ * {@linkplain ColumnValueHandler}异常。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ColumnValueHandlerException extends PersistenceException
+{
+	private static final long serialVersionUID = 1L;
+
+	public ColumnValueHandlerException()
+	{
+		super();
+	}
+
+	public ColumnValueHandlerException(String message)
+	{
+		super(message);
+	}
+
+	public ColumnValueHandlerException(Throwable cause)
+	{
+		super(cause);
+	}
+
+	public ColumnValueHandlerException(String message, Throwable cause)
+	{
+		super(message, cause);
+	}
+}
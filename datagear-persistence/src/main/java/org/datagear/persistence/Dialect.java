@@ -11,6 +11,7 @@ import java.sql.ResultSet;
 
 import org.datagear.meta.Table;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * 数据库方言。
@@ -88,6 +89,35 @@ public interface Dialect
 	 */
 	Sql toPagingQuerySql(Sql query, Order[] orders, long startRow, int count);
 
+	/**
+	 * 构建键集（Keyset）分页查询条件。
+	 * <p>
+	 * 键集分页使用上一页边界行的排序列值作为条件直接定位下一页，而不是像{@linkplain #toPagingQuerySql(Sql, Order[], long, int)}那样跳过前面的所有行，
+	 * 查询代价与页码无关。{@code orders}必须能确定唯一行（比如以主键列结尾），且排序列值不能为{@code null}。
+	 * </p>
+	 * 
+	 * @param orders
+	 *            排序集
+	 * @param values
+	 *            边界行的排序列值，与{@code orders}一一对应
+	 * @param backward
+	 *            是否查找边界行之前的记录，为{@code true}时条件方向与排序方向相反
+	 * @return 返回{@code null}表示不支持
+	 */
+	Sql toKeysetCondition(Order[] orders, SqlParamValue[] values, boolean backward);
+
+	/**
+	 * 构建使用数据库统计信息估算表记录数的查询SQL。
+	 * <p>
+	 * 查询结果的第一行第一列为估算的记录数，没有结果或者为{@code null}表示无法估算。
+	 * 统计信息通常由数据库在后台维护，查询代价远小于{@code COUNT(*)}，但可能与实际值不一致。
+	 * </p>
+	 * 
+	 * @param table
+	 * @return 返回{@code null}表示不支持
+	 */
+	Sql toEstimatedCountSql(Table table);
+
 	/**
 	 * 获取作为关键字查询的列数。
 	 * 
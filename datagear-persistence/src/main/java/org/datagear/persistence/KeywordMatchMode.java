@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence;
+
+/**
+ * 关键字查询的匹配方式。
+ * <p>
+ * 关键字中包含首尾通配符（{@code %}、{@code _}）时，{@linkplain #CONTAINS}、{@linkplain #PREFIX}将直接使用它作为{@code LIKE}模式。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public enum KeywordMatchMode
+{
+	/** 包含匹配：{@code LIKE '%keyword%'}，无法使用索引 */
+	CONTAINS,
+
+	/** 前缀匹配：{@code LIKE 'keyword%'}，可以使用列上的索引 */
+	PREFIX,
+
+	/** 精确匹配：{@code = 'keyword'}，可以使用列上的索引 */
+	EXACT,
+
+	/**
+	 * 索引匹配：仅在可以使用索引的列上查询，全文索引列使用数据库的全文检索，其他索引列（包括主键列）使用前缀或者精确匹配；
+	 * 如果没有可用的索引列，同{@linkplain #CONTAINS}
+	 */
+	INDEXED
+}
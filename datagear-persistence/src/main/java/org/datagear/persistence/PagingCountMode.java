@@ -0,0 +1,31 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence;
+
+/**
+ * 分页查询的总记录数统计方式。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public enum PagingCountMode
+{
+	/** 每次查询都执行{@code COUNT(*)}统计精确总数 */
+	EXACT,
+
+	/** 不统计总数，通过多查询一条记录判断是否有下一页 */
+	NONE,
+
+	/** 使用数据库统计信息估算总数，无法估算时同{@linkplain #NONE} */
+	ESTIMATED,
+
+	/**
+	 * 精确总数异步统计一次并按查询缓存，缓存由调用方实现，持久化层同{@linkplain #NONE}
+	 */
+	CACHED
+}
@@ -21,9 +21,21 @@ public class PagingData<T>
 	/** 默认显示的页码链接数 */
 	public static final int DEFAULT_PAGE_SPAN_NUM = 5;
 
-	/** 总记录数 */
+	/** 总记录数未知 */
+	public static final long TOTAL_UNKNOWN = -1;
+
+	/** 总记录数，为{@linkplain #TOTAL_UNKNOWN}表示未知 */
 	private long total = 0;
 
+	/** 总记录数是否是估算值 */
+	private boolean totalEstimated = false;
+
+	/** 是否有下一页 */
+	private boolean hasNextPage = false;
+
+	/** 键集分页的列名，为{@code null}表示不支持键集分页 */
+	private String[] keysetNames = null;
+
 	/** 当前页数据 */
 	private List<T> items;
 
@@ -58,6 +70,28 @@ public class PagingData<T>
 
 		this.paging.setPage(page);
 		this.paging.setPageSize(pageSize);
+
+		this.hasNextPage = (page < this.pages);
+	}
+
+	/**
+	 * 创建总记录数未知的分页数据。
+	 * 
+	 * @param page
+	 * @param pageSize
+	 * @param hasNextPage
+	 */
+	public PagingData(int page, int pageSize, boolean hasNextPage)
+	{
+		this.total = TOTAL_UNKNOWN;
+		this.pages = -1;
+		this.hasNextPage = hasNextPage;
+
+		if (page < 1)
+			page = 1;
+
+		this.paging.setPage(page);
+		this.paging.setPageSize(pageSize);
 	}
 
 	public long getTotal()
@@ -70,6 +104,81 @@ public class PagingData<T>
 		this.total = total;
 	}
 
+	/**
+	 * 总记录数是否未知。
+	 * 
+	 * @return
+	 */
+	public boolean isTotalUnknown()
+	{
+		return (this.total < 0);
+	}
+
+	public boolean isTotalEstimated()
+	{
+		return totalEstimated;
+	}
+
+	public void setTotalEstimated(boolean totalEstimated)
+	{
+		this.totalEstimated = totalEstimated;
+	}
+
+	public boolean isHasNextPage()
+	{
+		return hasNextPage;
+	}
+
+	public void setHasNextPage(boolean hasNextPage)
+	{
+		this.hasNextPage = hasNextPage;
+	}
+
+	/**
+	 * 为总记录数未知的分页数据设置总记录数，并更新总页数。
+	 * <p>
+	 * 此方法不会修正当前页码，因为估算的总记录数可能小于实际值。
+	 * </p>
+	 * 
+	 * @param total
+	 * @param estimated
+	 *            是否是估算值
+	 */
+	public void updateTotal(long total, boolean estimated)
+	{
+		this.total = total;
+		this.totalEstimated = estimated;
+
+		int pageSize = getPageSize();
+
+		this.pages = (int) (total / pageSize);
+		if (total % pageSize > 0)
+			this.pages += 1;
+
+		if (!estimated)
+			this.hasNextPage = (getPage() < this.pages);
+	}
+
+	public String[] getKeysetNames()
+	{
+		return keysetNames;
+	}
+
+	public void setKeysetNames(String[] keysetNames)
+	{
+		this.keysetNames = keysetNames;
+	}
+
+	/**
+	 * 是否支持键集分页。
+	 * 
+	 * @return
+	 */
+	public boolean hasKeysetNames()
+	{
+		return (this.keysetNames != null && this.keysetNames.length > 0);
+	}
+
 	public List<T> getItems()
 	{
 		return items;
@@ -144,7 +253,7 @@ public class PagingData<T>
 		int startIndex = getStartIndex();
 		int endIndex = startIndex + getPageSize();
 
-		if (endIndex > (int) this.total)
+		if (this.total >= 0 && endIndex > (int) this.total)
 			endIndex = (int) this.total;
 
 		return endIndex;
@@ -22,6 +22,20 @@ public class PagingQuery extends Query
 	/** 分页信息 */
 	private Paging paging = new Paging();
 
+	/** 总记录数统计方式，为{@code null}时同{@linkplain PagingCountMode#EXACT} */
+	private PagingCountMode countMode = null;
+
+	/**
+	 * 键集分页的边界行，包含{@linkplain PagingData#getKeysetNames()}列的值，为{@code null}表示使用常规分页。
+	 * <p>
+	 * 顺序翻到下一页时，应为上一页的最后一行；顺序翻到上一页时，应为下一页的第一行，且{@linkplain #keysetBackward}为{@code true}。
+	 * </p>
+	 */
+	private Row keyset = null;
+
+	/** 是否查找{@linkplain #keyset}之前的记录 */
+	private boolean keysetBackward = false;
+
 	public PagingQuery()
 	{
 		super();
@@ -74,11 +88,63 @@ public class PagingQuery extends Query
 		this.paging.setPageSize(pageSize);
 	}
 
+	public PagingCountMode getCountMode()
+	{
+		return countMode;
+	}
+
+	public void setCountMode(PagingCountMode countMode)
+	{
+		this.countMode = countMode;
+	}
+
+	public Row getKeyset()
+	{
+		return keyset;
+	}
+
+	public void setKeyset(Row keyset)
+	{
+		this.keyset = keyset;
+	}
+
+	public boolean isKeysetBackward()
+	{
+		return keysetBackward;
+	}
+
+	public void setKeysetBackward(boolean keysetBackward)
+	{
+		this.keysetBackward = keysetBackward;
+	}
+
+	/**
+	 * 是否有键集分页的边界行。
+	 * 
+	 * @return
+	 */
+	public boolean hasKeyset()
+	{
+		return (this.keyset != null && !this.keyset.isEmpty());
+	}
+
+	/**
+	 * 是否需要统计精确总数。
+	 * 
+	 * @return
+	 */
+	public boolean isExactCount()
+	{
+		return (this.countMode == null || PagingCountMode.EXACT.equals(this.countMode));
+	}
+
 	@Override
 	public String toString()
 	{
-		return getClass().getSimpleName() + " [page=" + getPage() + ", pageSize=" + getPageSize() + ", notLike="
-				+ isNotLike() + ", keyword=" + getKeyword() + ", condition=" + getCondition() + ", orders="
+		return getClass().getSimpleName() + " [page=" + getPage() + ", pageSize=" + getPageSize() + ", countMode="
+				+ getCountMode() + ", keyset=" + getKeyset() + ", keysetBackward=" + isKeysetBackward() + ", notLike="
+				+ isNotLike() + ", keyword=" + getKeyword() + ", keywordColumn=" + getKeywordColumn()
+				+ ", keywordMatchMode=" + getKeywordMatchMode() + ", condition=" + getCondition() + ", orders="
 				+ Arrays.toString(getOrders()) + "]";
 	}
 
@@ -88,6 +154,9 @@ public class PagingQuery extends Query
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((paging == null) ? 0 : paging.hashCode());
+		result = prime * result + ((countMode == null) ? 0 : countMode.hashCode());
+		result = prime * result + ((keyset == null) ? 0 : keyset.hashCode());
+		result = prime * result + (keysetBackward ? 1231 : 1237);
 		return result;
 	}
 
@@ -108,6 +177,17 @@ public class PagingQuery extends Query
 		}
 		else if (!paging.equals(other.paging))
 			return false;
+		if (countMode != other.countMode)
+			return false;
+		if (keyset == null)
+		{
+			if (other.keyset != null)
+				return false;
+		}
+		else if (!keyset.equals(other.keyset))
+			return false;
+		if (keysetBackward != other.keysetBackward)
+			return false;
 		return true;
 	}
 }
@@ -53,6 +53,39 @@ public interface PersistenceManager
 	Row insert(Connection cn, Dialect dialect, Table table, Row row, SqlParamValueMapper mapper)
 			throws PersistenceException;
 
+	/**
+	 * 批量插入行对象。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param rows
+	 * @return 插入行数
+	 * @throws BatchPersistenceException
+	 * @throws PersistenceException
+	 */
+	int insert(Connection cn, Table table, Row[] rows) throws BatchPersistenceException, PersistenceException;
+
+	/**
+	 * 批量插入行对象。
+	 * <p>
+	 * 列结构相同的行将使用同一个预编译语句批量执行，以减少数据库交互次数；它不返回自动生成列值。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 *            允许为{@code null}
+	 * @param table
+	 * @param rows
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @return 插入行数
+	 * @throws BatchPersistenceException
+	 *             某行执行出错时
+	 * @throws PersistenceException
+	 */
+	int insert(Connection cn, Dialect dialect, Table table, Row[] rows, SqlParamValueMapper mapper)
+			throws BatchPersistenceException, PersistenceException;
+
 	/**
 	 * 更新行对象。
 	 * 
@@ -86,6 +119,46 @@ public interface PersistenceManager
 	int update(Connection cn, Dialect dialect, Table table, Row origin, Row update, SqlParamValueMapper mapper)
 			throws PersistenceException;
 
+	/**
+	 * 批量更新行对象。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param origins
+	 *            原行数组
+	 * @param updates
+	 *            更新行数组，与{@code origins}一一对应
+	 * @return
+	 * @throws BatchPersistenceException
+	 * @throws PersistenceException
+	 */
+	int update(Connection cn, Table table, Row[] origins, Row[] updates)
+			throws BatchPersistenceException, PersistenceException;
+
+	/**
+	 * 批量更新行对象。
+	 * <p>
+	 * 列结构相同的行将使用同一个预编译语句批量执行，以减少数据库交互次数。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 *            允许为{@code null}
+	 * @param table
+	 * @param origins
+	 *            原行数组
+	 * @param updates
+	 *            更新行数组，与{@code origins}一一对应
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @return
+	 * @throws BatchPersistenceException
+	 *             某行执行出错时
+	 * @throws PersistenceException
+	 */
+	int update(Connection cn, Dialect dialect, Table table, Row[] origins, Row[] updates, SqlParamValueMapper mapper)
+			throws BatchPersistenceException, PersistenceException;
+
 	/**
 	 * 删除行对象。
 	 * 
@@ -115,6 +188,9 @@ public interface PersistenceManager
 
 	/**
 	 * 删除行对象。
+	 * <p>
+	 * 多行时将使用同一个预编译语句批量执行，以减少数据库交互次数。
+	 * </p>
 	 * 
 	 * @param cn
 	 * @param dialect
@@ -124,10 +200,12 @@ public interface PersistenceManager
 	 * @param mapper
 	 *            允许为{@code null}
 	 * @return
+	 * @throws BatchPersistenceException
+	 *             某行执行出错时
 	 * @throws PersistenceException
 	 */
 	int delete(Connection cn, Dialect dialect, Table table, Row[] rows, SqlParamValueMapper mapper)
-			throws PersistenceException;
+			throws BatchPersistenceException, PersistenceException;
 
 	/**
 	 * 删除查询结果。
@@ -135,6 +213,7 @@ public interface PersistenceManager
 	 * @param cn
 	 * @param table
 	 * @param query
+	 *            为{@code null}或者没有条件时将删除全部记录
 	 * @return
 	 * @throws PersistenceException
 	 */
@@ -142,17 +221,54 @@ public interface PersistenceManager
 
 	/**
 	 * 删除查询结果。
+	 * <p>
+	 * 它使用与{@linkplain #pagingQuery(Connection, Dialect, Table, PagingQuery, RowMapper)}相同的查询条件，
+	 * 执行单条<code>DELETE ... WHERE ...</code>语句。
+	 * </p>
 	 * 
 	 * @param cn
 	 * @param dialect
 	 *            允许为{@code null}
 	 * @param table
 	 * @param query
+	 *            为{@code null}或者没有条件时将删除全部记录
 	 * @return
 	 * @throws PersistenceException
 	 */
 	int delete(Connection cn, Dialect dialect, Table table, Query query) throws PersistenceException;
 
+	/**
+	 * 查询结果数目。
+	 * <p>
+	 * 可用于{@linkplain #delete(Connection, Dialect, Table, Query)}前预估影响行数。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param query
+	 *            允许为{@code null}
+	 * @return
+	 * @throws PersistenceException
+	 */
+	long count(Connection cn, Table table, Query query) throws PersistenceException;
+
+	/**
+	 * 查询结果数目。
+	 * <p>
+	 * 可用于{@linkplain #delete(Connection, Dialect, Table, Query)}前预估影响行数。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 *            允许为{@code null}
+	 * @param table
+	 * @param query
+	 *            允许为{@code null}
+	 * @return
+	 * @throws PersistenceException
+	 */
+	long count(Connection cn, Dialect dialect, Table table, Query query) throws PersistenceException;
+
 	/**
 	 * 获取行对象。
 	 * 
@@ -184,6 +300,27 @@ public interface PersistenceManager
 	Row get(Connection cn, Dialect dialect, Table table, Row param, SqlParamValueMapper sqlParamValueMapper,
 			RowMapper rowMapper) throws NonUniqueResultException, PersistenceException;
 
+	/**
+	 * 获取行对象的指定列值，并在结果集关闭前交由{@linkplain ColumnValueHandler}处理。
+	 * <p>
+	 * 它仅查询指定列，可用于以流的方式读取LOB、二进制列值。如果有多行匹配，仅处理第一行。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 *            允许为{@code null}
+	 * @param table
+	 * @param param
+	 * @param columnName
+	 * @param sqlParamValueMapper
+	 *            允许为{@code null}
+	 * @param handler
+	 * @return 是否找到行
+	 * @throws PersistenceException
+	 */
+	boolean getColumnValue(Connection cn, Dialect dialect, Table table, Row param, String columnName,
+			SqlParamValueMapper sqlParamValueMapper, ColumnValueHandler handler) throws PersistenceException;
+
 	/**
 	 * 查询。
 	 * 
@@ -240,6 +377,51 @@ public interface PersistenceManager
 	PagingData<Row> pagingQuery(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery, RowMapper mapper)
 			throws PersistenceException;
 
+	/**
+	 * 分页查询。
+	 * <p>
+	 * 如果{@linkplain PagingQuery#hasKeyset()}，且表支持键集分页（参考{@linkplain PagingData#getKeysetNames()}），
+	 * 将使用键集条件直接定位当前页，而不是跳过前面的所有行。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 *            允许为{@code null}
+	 * @param table
+	 * @param pagingQuery
+	 * @param sqlParamValueMapper
+	 *            用于映射{@linkplain PagingQuery#getKeyset()}列值，允许为{@code null}
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @return
+	 * @throws PersistenceException
+	 */
+	PagingData<Row> pagingQuery(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery,
+			SqlParamValueMapper sqlParamValueMapper, RowMapper mapper) throws PersistenceException;
+
+	/**
+	 * 分页查询，并将当前页的行按顺序逐行交由{@linkplain RowHandler}处理，而不是读入{@linkplain PagingData#getItems()}。
+	 * <p>
+	 * 返回的{@linkplain PagingData#getItems()}为{@code null}，其他分页信息与
+	 * {@linkplain #pagingQuery(Connection, Dialect, Table, PagingQuery, SqlParamValueMapper, RowMapper)}一致。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 *            允许为{@code null}
+	 * @param table
+	 * @param pagingQuery
+	 * @param sqlParamValueMapper
+	 *            用于映射{@linkplain PagingQuery#getKeyset()}列值，允许为{@code null}
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @param handler
+	 * @return
+	 * @throws PersistenceException
+	 */
+	PagingData<Row> pagingQuery(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery,
+			SqlParamValueMapper sqlParamValueMapper, RowMapper mapper, RowHandler handler) throws PersistenceException;
+
 	/**
 	 * 获取查询SQL语句。
 	 * 
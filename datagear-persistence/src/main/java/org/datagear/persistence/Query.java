@@ -32,6 +32,12 @@ public class Query implements Serializable
 	/** 针对keyword，是否使用“NOT LIKE”而非“LIKE” */
 	private boolean notLike = false;
 
+	/** 针对keyword，查询的列名，为{@code null}表示由方言自动选择 */
+	private String keywordColumn;
+
+	/** 针对keyword，匹配方式，为{@code null}表示{@linkplain KeywordMatchMode#CONTAINS} */
+	private KeywordMatchMode keywordMatchMode;
+
 	public Query()
 	{
 	}
@@ -73,6 +79,31 @@ public class Query implements Serializable
 		this.notLike = notLike;
 	}
 
+	public boolean hasKeywordColumn()
+	{
+		return (this.keywordColumn != null && !this.keywordColumn.isEmpty());
+	}
+
+	public String getKeywordColumn()
+	{
+		return keywordColumn;
+	}
+
+	public void setKeywordColumn(String keywordColumn)
+	{
+		this.keywordColumn = keywordColumn;
+	}
+
+	public KeywordMatchMode getKeywordMatchMode()
+	{
+		return keywordMatchMode;
+	}
+
+	public void setKeywordMatchMode(KeywordMatchMode keywordMatchMode)
+	{
+		this.keywordMatchMode = keywordMatchMode;
+	}
+
 	public boolean hasCondition()
 	{
 		return (this.condition != null && !this.condition.isEmpty());
@@ -107,6 +138,7 @@ public class Query implements Serializable
 	public String toString()
 	{
 		return getClass().getSimpleName() + " [keyword=" + keyword + ", condition=" + condition + ", orders="
-				+ Arrays.toString(orders) + ", notLike=" + notLike + "]";
+				+ Arrays.toString(orders) + ", notLike=" + notLike + ", keywordColumn=" + keywordColumn
+				+ ", keywordMatchMode=" + keywordMatchMode + "]";
 	}
 }
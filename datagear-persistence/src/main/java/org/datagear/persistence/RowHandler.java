@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence;
+
+import org.datagear.meta.Table;
+
+/**
+ * {@linkplain Row}行处理器。
+ * <p>
+ * 用于逐行处理查询结果（比如直接写入输出流），而不必先将所有行读入内存列表。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public interface RowHandler
+{
+	/**
+	 * 处理行。
+	 * 
+	 * @param table
+	 * @param rowIndex
+	 *            行号，以{@code 1}开始
+	 * @param row
+	 * @throws RowHandlerException
+	 */
+	void handle(Table table, int rowIndex, Row row) throws RowHandlerException;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence;
+
+/**
+ * {@linkplain RowHandler}异常。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class RowHandlerException extends PersistenceException
+{
+	private static final long serialVersionUID = 1L;
+
+	public RowHandlerException()
+	{
+		super();
+	}
+
+	public RowHandlerException(String message)
+	{
+		super(message);
+	}
+
+	public RowHandlerException(Throwable cause)
+	{
+		super(cause);
+	}
+
+	public RowHandlerException(String message, Throwable cause)
+	{
+		super(message, cause);
+	}
+}
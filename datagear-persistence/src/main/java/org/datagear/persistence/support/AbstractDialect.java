@@ -11,12 +11,15 @@ import java.math.BigDecimal;
 import java.sql.Types;
 
 import org.datagear.meta.Column;
+import org.datagear.meta.Index;
 import org.datagear.meta.SearchableType;
 import org.datagear.meta.Table;
 import org.datagear.persistence.Dialect;
+import org.datagear.persistence.KeywordMatchMode;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.Query;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * 抽象{@linkplain Dialect}。
@@ -88,6 +91,23 @@ public abstract class AbstractDialect extends PersistenceSupport implements Dial
 		return name.substring(iqLen, name.length() - iqLen);
 	}
 
+	/**
+	 * 默认不支持，返回{@code null}。
+	 */
+	@Override
+	public Sql toEstimatedCountSql(Table table)
+	{
+		return null;
+	}
+
+	/**
+	 * 构建关键字SQL查询条件。
+	 * <p>
+	 * 如果{@linkplain Query#getKeywordColumn()}是有效列，仅查询此列；
+	 * 否则，对于{@linkplain KeywordMatchMode#INDEXED}，仅查询全文索引和以索引列（包括主键列）为首列的列，
+	 * 对于其他匹配方式，查询前{@linkplain #getKeywordQueryColumnCount()}个列。
+	 * </p>
+	 */
 	@Override
 	public Sql toKeywordQueryCondition(Table table, Query query, boolean parameterized)
 	{
@@ -96,9 +116,38 @@ public abstract class AbstractDialect extends PersistenceSupport implements Dial
 		if (!query.hasKeyword())
 			return sql;
 
-		String joinOpt = (query.isNotLike() ? " AND " : " OR ");
-		String likeOpt = (query.isNotLike() ? " NOT LIKE " : " LIKE ");
-		String equalOpt = (query.isNotLike() ? " != " : " = ");
+		KeywordMatchMode matchMode = (query.getKeywordMatchMode() == null ? KeywordMatchMode.CONTAINS
+				: query.getKeywordMatchMode());
+
+		if (query.hasKeywordColumn())
+		{
+			Column column = table.getColumn(query.getKeywordColumn());
+
+			if (column != null)
+			{
+				appendKeywordCondition(sql, table, column, query, matchMode, parameterized);
+				return sql;
+			}
+		}
+
+		if (KeywordMatchMode.INDEXED.equals(matchMode))
+		{
+			Index[] fullTextIndexes = table.getFullTextIndexes();
+
+			for (Index index : fullTextIndexes)
+				appendKeywordCondition(sql, query, toKeywordFullTextCondition(table, index, query, parameterized));
+
+			for (Column column : table.getColumns())
+			{
+				if (table.isIndexLeadingColumn(column.getName()) && !isFullTextIndexColumn(fullTextIndexes, column))
+					appendKeywordCondition(sql, table, column, query, matchMode, parameterized);
+			}
+
+			if (!sql.isEmpty())
+				return sql;
+
+			matchMode = KeywordMatchMode.CONTAINS;
+		}
 
 		Column[] columns = table.getColumns();
 		for (int i = 0; i < columns.length; i++)
@@ -106,45 +155,238 @@ public abstract class AbstractDialect extends PersistenceSupport implements Dial
 			if (i >= this.keywordQueryColumnCount)
 				break;
 
-			Column column = columns[i];
-			SearchableType searchableType = column.getSearchableType();
-			String myOperator = null;
-			Object myKeyword = null;
+			appendKeywordCondition(sql, table, columns[i], query, matchMode, parameterized);
+		}
 
-			if (SearchableType.NO.equals(searchableType))
-				;
-			else if (SearchableType.ONLY_LIKE.equals(searchableType) || SearchableType.ALL.equals(searchableType))
-			{
-				myOperator = likeOpt;
-				myKeyword = wrapLikeKeyword(query.getKeyword());
-			}
-			else
+		return sql;
+	}
+
+	/**
+	 * 追加单列的关键字查询条件。
+	 * 
+	 * @param sql
+	 * @param table
+	 * @param column
+	 * @param query
+	 * @param matchMode
+	 * @param parameterized
+	 */
+	protected void appendKeywordCondition(Sql sql, Table table, Column column, Query query,
+			KeywordMatchMode matchMode, boolean parameterized)
+	{
+		String keyword = query.getKeyword();
+		SearchableType searchableType = column.getSearchableType();
+		String myOperator = null;
+		Object myKeyword = null;
+
+		if (SearchableType.NO.equals(searchableType))
+			;
+		else if (SearchableType.ONLY_LIKE.equals(searchableType) || SearchableType.ALL.equals(searchableType))
+		{
+			if (KeywordMatchMode.INDEXED.equals(matchMode))
 			{
-				Number number = parseToNumber(query.getKeyword(), column.getType());
+				Index fullTextIndex = getFullTextIndex(table, column);
 
-				if (number != null)
+				if (fullTextIndex != null)
 				{
-					myOperator = equalOpt;
-					myKeyword = number;
+					Sql fullTextSql = toKeywordFullTextCondition(table, fullTextIndex, query, parameterized);
+
+					if (!isEmptySql(fullTextSql))
+					{
+						appendKeywordCondition(sql, query, fullTextSql);
+						return;
+					}
 				}
+
+				matchMode = (table.isIndexLeadingColumn(column.getName()) ? KeywordMatchMode.PREFIX
+						: KeywordMatchMode.CONTAINS);
 			}
 
-			if (myOperator != null && myKeyword != null)
+			if (KeywordMatchMode.EXACT.equals(matchMode) && SearchableType.ALL.equals(searchableType))
 			{
-				if (!sql.isEmpty())
-					sql.sql(joinOpt);
+				myOperator = (query.isNotLike() ? " != " : " = ");
+				myKeyword = keyword;
+			}
+			else
+			{
+				myOperator = (query.isNotLike() ? " NOT LIKE " : " LIKE ");
 
-				if (parameterized)
-					sql.sql(quote(column.getName()) + myOperator + "?", createSqlParamValue(column, myKeyword));
+				if (KeywordMatchMode.EXACT.equals(matchMode))
+					myKeyword = keyword;
+				else if (KeywordMatchMode.PREFIX.equals(matchMode))
+					myKeyword = wrapPrefixLikeKeyword(keyword);
 				else
-					sql.sql(quote(column.getName()) + myOperator
-							+ (myKeyword instanceof Number ? query.getKeyword() : "'" + myKeyword + "'"));
+					myKeyword = wrapLikeKeyword(keyword);
+			}
+		}
+		else
+		{
+			Number number = parseToNumber(keyword, column.getType());
+
+			if (number != null)
+			{
+				myOperator = (query.isNotLike() ? " != " : " = ");
+				myKeyword = number;
 			}
 		}
 
+		if (myOperator != null && myKeyword != null)
+		{
+			Sql columnSql = Sql.valueOf();
+
+			if (parameterized)
+				columnSql.sql(quote(column.getName()) + myOperator + "?", createSqlParamValue(column, myKeyword));
+			else
+				columnSql.sql(quote(column.getName()) + myOperator
+						+ (myKeyword instanceof Number ? keyword : "'" + myKeyword + "'"));
+
+			appendKeywordCondition(sql, query, columnSql);
+		}
+	}
+
+	/**
+	 * 追加关键字查询条件。
+	 * 
+	 * @param sql
+	 * @param query
+	 * @param condition
+	 *            允许为{@code null}
+	 */
+	protected void appendKeywordCondition(Sql sql, Query query, Sql condition)
+	{
+		if (isEmptySql(condition))
+			return;
+
+		if (!sql.isEmpty())
+			sql.sql(query.isNotLike() ? " AND " : " OR ");
+
+		sql.sql(condition);
+	}
+
+	/**
+	 * 构建关键字全文检索条件，使用“NOT LIKE”时为否定条件。
+	 * 
+	 * @param table
+	 * @param index
+	 * @param query
+	 * @param parameterized
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected Sql toKeywordFullTextCondition(Table table, Index index, Query query, boolean parameterized)
+	{
+		Sql sql = toFullTextCondition(table, index, query.getKeyword(), parameterized);
+
+		if (isEmptySql(sql) || !query.isNotLike())
+			return sql;
+
+		return Sql.valueOf().sql("NOT (").sql(sql).sql(")");
+	}
+
+	/**
+	 * 构建全文检索条件。
+	 * <p>
+	 * 默认不支持，返回{@code null}。
+	 * </p>
+	 * 
+	 * @param table
+	 * @param index
+	 *            全文索引
+	 * @param keyword
+	 * @param parameterized
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected Sql toFullTextCondition(Table table, Index index, String keyword, boolean parameterized)
+	{
+		return null;
+	}
+
+	/**
+	 * 获取仅包含指定列的全文索引。
+	 * 
+	 * @param table
+	 * @param column
+	 * @return 返回{@code null}表示没有
+	 */
+	protected Index getFullTextIndex(Table table, Column column)
+	{
+		for (Index index : table.getFullTextIndexes())
+		{
+			String[] columnNames = index.getColumnNames();
+
+			if (columnNames.length == 1 && columnNames[0].equals(column.getName()))
+				return index;
+		}
+
+		return null;
+	}
+
+	protected boolean isFullTextIndexColumn(Index[] fullTextIndexes, Column column)
+	{
+		for (Index index : fullTextIndexes)
+		{
+			if (index.containsColumnName(column.getName()))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * 构建展开形式的键集条件：
+	 * <p>
+	 * {@code c1 >= ? AND (c1 > ? OR (c1 = ? AND c2 > ?) OR ...)}
+	 * </p>
+	 * <p>
+	 * 所有数据库都支持此形式，首列的范围条件便于数据库使用索引。
+	 * </p>
+	 */
+	@Override
+	public Sql toKeysetCondition(Order[] orders, SqlParamValue[] values, boolean backward)
+	{
+		if (orders == null || orders.length == 0 || values == null || values.length != orders.length)
+			return null;
+
+		String firstName = quote(orders[0].getName());
+		String firstOperator = getKeysetOperator(orders[0], backward);
+
+		if (orders.length == 1)
+			return Sql.valueOf().sql(firstName + " " + firstOperator + " ?", values[0]);
+
+		Sql sql = Sql.valueOf();
+		sql.sql(firstName + " " + firstOperator + "= ?", values[0]);
+		sql.sql(" AND (");
+
+		for (int i = 0; i < orders.length; i++)
+		{
+			if (i > 0)
+				sql.sql(" OR ");
+
+			sql.sql("(");
+
+			for (int j = 0; j < i; j++)
+				sql.sql(quote(orders[j].getName()) + " = ? AND ", values[j]);
+
+			sql.sql(quote(orders[i].getName()) + " " + getKeysetOperator(orders[i], backward) + " ?", values[i]);
+			sql.sql(")");
+		}
+
+		sql.sql(")");
+
 		return sql;
 	}
 
+	/**
+	 * 获取键集条件的比较操作符。
+	 * 
+	 * @param order
+	 * @param backward
+	 * @return {@code ">"}、{@code "<"}
+	 */
+	protected String getKeysetOperator(Order order, boolean backward)
+	{
+		return (order.isAsc() != backward ? ">" : "<");
+	}
+
 	@Override
 	public Sql toOrderSql(Sql query, Order[] orders)
 	{
@@ -209,6 +451,28 @@ public abstract class AbstractDialect extends PersistenceSupport implements Dial
 		return keyword;
 	}
 
+	/**
+	 * 包裹前缀Like关键字。
+	 * <p>
+	 * 如果关键字已包含首尾通配符，则直接返回。
+	 * </p>
+	 * 
+	 * @param keyword
+	 * @return
+	 */
+	protected String wrapPrefixLikeKeyword(String keyword)
+	{
+		if (keyword == null || keyword.isEmpty())
+			return keyword;
+
+		char first = keyword.charAt(0), last = keyword.charAt(keyword.length() - 1);
+
+		if (first != '%' && first != '_' && last != '%' && last != '_')
+			return keyword + "%";
+
+		return keyword;
+	}
+
 	/**
 	 * 将字符串转换为指定SQL类型的数值。
 	 * <p>
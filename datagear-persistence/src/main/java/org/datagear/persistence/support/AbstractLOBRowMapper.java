@@ -97,6 +97,37 @@ public abstract class AbstractLOBRowMapper extends AbstractRowMapper
 		return value;
 	}
 
+	/**
+	 * 映射指定索引的列值。
+	 * <p>
+	 * LOB、二进制列仍由{@linkplain #mapColumn(Connection, Table, ResultSet, int, Column)}处理，其他列直接使用列索引读取。
+	 * 子类如果重写了{@linkplain #mapColumn(Connection, Table, ResultSet, int, Column)}，也应重写此方法。
+	 * </p>
+	 */
+	@Override
+	protected Object mapColumn(Connection cn, Table table, ResultSet rs, int rowIndex, Column column,
+			int columnIndex) throws Throwable
+	{
+		int sqlType = column.getType();
+
+		switch (sqlType)
+		{
+			case Types.LONGVARCHAR:
+			case Types.BINARY:
+			case Types.VARBINARY:
+			case Types.LONGVARBINARY:
+			case Types.CLOB:
+			case Types.BLOB:
+			case Types.LONGNVARCHAR:
+			case Types.NCLOB:
+			case Types.SQLXML:
+				return mapColumn(cn, table, rs, rowIndex, column);
+
+			default:
+				return getColumnValue(cn, rs, columnIndex, sqlType);
+		}
+	}
+
 	protected abstract Object mapColumnLONGVARCHAR(Connection cn, Table table, ResultSet rs, int rowIndex,
 			Column column) throws Throwable;
 
@@ -12,6 +12,7 @@ import java.sql.ResultSet;
 
 import org.datagear.meta.Column;
 import org.datagear.meta.Table;
+import org.datagear.persistence.ArrayRow;
 import org.datagear.persistence.Row;
 import org.datagear.persistence.RowMapper;
 import org.datagear.persistence.RowMapperException;
@@ -58,6 +59,68 @@ public abstract class AbstractRowMapper extends PersistenceSupport implements Ro
 		return rowObj;
 	}
 
+	/**
+	 * 使用预先解析的列映射为{@linkplain ArrayRow}。
+	 * <p>
+	 * 同一结果集的所有行应使用同一个{@linkplain #resolveMappedColumns(Table, ResultSet)}的返回值。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param rs
+	 * @param rowIndex
+	 * @param mappedColumns
+	 * @return
+	 * @throws RowMapperException
+	 */
+	public ArrayRow map(Connection cn, Table table, ResultSet rs, int rowIndex, MappedColumns mappedColumns)
+			throws RowMapperException
+	{
+		Column[] columns = mappedColumns.getColumns();
+		Object[] values = new Object[mappedColumns.getHeader().size()];
+
+		try
+		{
+			for (int i = 0; i < columns.length; i++)
+			{
+				Object value = mapColumn(cn, table, rs, rowIndex, columns[i], mappedColumns.getColumnIndex(i));
+				values[mappedColumns.getValueIndex(i)] = value;
+			}
+		}
+		catch (RowMapperException e)
+		{
+			throw e;
+		}
+		catch (Throwable t)
+		{
+			throw new RowMapperException(t);
+		}
+
+		return new ArrayRow(mappedColumns.getHeader(), values);
+	}
+
+	/**
+	 * 映射指定索引的列值。
+	 * <p>
+	 * 默认调用{@linkplain #mapColumn(Connection, Table, ResultSet, int, Column)}，子类可以重写以直接使用列索引读取。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param rs
+	 * @param rowIndex
+	 * @param column
+	 * @param columnIndex
+	 *            列在结果集中的索引（以{@code 1}开头）
+	 * @return
+	 * @throws Throwable
+	 */
+	protected Object mapColumn(Connection cn, Table table, ResultSet rs, int rowIndex, Column column,
+			int columnIndex) throws Throwable
+	{
+		return mapColumn(cn, table, rs, rowIndex, column);
+	}
+
 	/**
 	 * 映射列值。
 	 * <p>
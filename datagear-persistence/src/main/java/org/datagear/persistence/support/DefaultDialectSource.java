@@ -7,12 +7,19 @@
 
 package org.datagear.persistence.support;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -27,28 +34,70 @@ import org.datagear.persistence.DialectBuilder;
 import org.datagear.persistence.DialectException;
 import org.datagear.persistence.DialectSource;
 import org.datagear.persistence.Order;
+import org.datagear.persistence.support.dialect.Db2DialectBuilder;
+import org.datagear.persistence.support.dialect.DerbyDialectBuilder;
+import org.datagear.persistence.support.dialect.H2DialectBuilder;
 import org.datagear.persistence.support.dialect.MysqlDialectBuilder;
 import org.datagear.persistence.support.dialect.OracleDialectBuilder;
 import org.datagear.persistence.support.dialect.PostgresqlDialectBuilder;
 import org.datagear.persistence.support.dialect.SqlServerDialectBuilder;
+import org.datagear.persistence.support.dialect.SqliteDialectBuilder;
+import org.datagear.persistence.support.dialect.StandardDialectBuilder;
+import org.datagear.util.IOUtil;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
 import org.datagear.util.Sql;
+import org.datagear.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * 默认{@linkplain DialectSource}。
+ * <p>
+ * 对于没有{@linkplain DialectBuilder}支持的数据库，它将试探各{@linkplain DialectBuilder}的分页实现，
+ * 如果设置了{@linkplain #getDetectionFile()}，试探结果将按照数据库标识、驱动程序版本存储在此文件中，重启后无需再次试探。
+ * </p>
+ * <p>
+ * 此文件中还可以手动添加{@code url.[URL前缀]=[方言名]}条目，为指定URL前缀的数据源预置、覆盖方言，
+ * 方言名是{@linkplain DialectBuilder}的类名（比如：{@code mysql}、{@code standard}，参考{@linkplain #getDialectBuilderName(DialectBuilder)}），
+ * 或者{@linkplain #DIALECT_NAME_NONE}。
+ * </p>
  * 
  * @author datagear@163.com
  *
  */
 public class DefaultDialectSource extends PersistenceSupport implements DialectSource
 {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultDialectSource.class);
+
+	/** 方言名：不支持分页的方言 */
+	public static final String DIALECT_NAME_NONE = "none";
+
+	/** 存储文件中试探结果条目的前缀 */
+	protected static final String DETECTION_DATABASE_PREFIX = "database.";
+
+	/** 存储文件中URL方言条目的前缀 */
+	protected static final String DETECTION_URL_PREFIX = "url.";
+
 	private DBMetaResolver dbMetaResolver;
 
 	private List<DialectBuilder> dialectBuilders;
 
 	private boolean detection = true;
 
+	/** 试探结果存储文件 */
+	private File detectionFile = null;
+
+	/** URL前缀 - 方言名映射表 */
+	private Map<String, String> urlDialectNames = new ConcurrentHashMap<>();
+
 	private ConcurrentMap<Object, DialectBuilder> dialectBuilderCache = new ConcurrentHashMap<>();
 
+	/** 已存储的试探结果：数据库标识 - 方言名 */
+	private ConcurrentMap<String, String> _detectionDialectNames = new ConcurrentHashMap<>();
+
+	private volatile boolean _detectionFileLoaded = false;
+
 	public DefaultDialectSource()
 	{
 		this(null);
@@ -64,6 +113,12 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 		this.dialectBuilders.add(new PostgresqlDialectBuilder());
 		this.dialectBuilders.add(new OracleDialectBuilder());
 		this.dialectBuilders.add(new SqlServerDialectBuilder());
+		this.dialectBuilders.add(new DerbyDialectBuilder());
+		this.dialectBuilders.add(new H2DialectBuilder());
+		this.dialectBuilders.add(new Db2DialectBuilder());
+		this.dialectBuilders.add(new SqliteDialectBuilder());
+		// 仅用于试探，应放在最后
+		this.dialectBuilders.add(new StandardDialectBuilder());
 	}
 
 	public DBMetaResolver getDbMetaResolver()
@@ -96,9 +151,59 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 		this.detection = detection;
 	}
 
+	public File getDetectionFile()
+	{
+		return detectionFile;
+	}
+
+	/**
+	 * 设置试探结果存储文件。
+	 * <p>
+	 * 应在获取方言之前设置。
+	 * </p>
+	 * 
+	 * @param detectionFile
+	 *            为{@code null}表示不存储
+	 */
+	public void setDetectionFile(File detectionFile)
+	{
+		this.detectionFile = detectionFile;
+	}
+
+	public Map<String, String> getUrlDialectNames()
+	{
+		return urlDialectNames;
+	}
+
+	/**
+	 * 设置URL前缀 - 方言名映射表，用于为数据源预置、覆盖方言。
+	 * <p>
+	 * 它将与{@linkplain #getDetectionFile()}中的{@code url.}条目合并（前缀相同时以此映射表为准），匹配时采用最长前缀。
+	 * </p>
+	 * 
+	 * @param urlDialectNames
+	 */
+	public void setUrlDialectNames(Map<String, String> urlDialectNames)
+	{
+		// 合并而非替换，避免丢弃已从存储文件加载的条目
+		this.urlDialectNames.putAll(urlDialectNames);
+	}
+
 	@Override
 	public Dialect getDialect(Connection cn) throws DialectException
 	{
+		loadDetectionFileIfNot();
+
+		String urlDialectName = getUrlDialectName(cn);
+
+		if (urlDialectName != null)
+		{
+			Dialect dialect = buildDialect(cn, urlDialectName);
+
+			if (dialect != null)
+				return dialect;
+		}
+
 		if (this.dialectBuilders != null)
 		{
 			for (DialectBuilder dialectBuilder : this.dialectBuilders)
@@ -136,6 +241,20 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 
 			if (cached != null)
 				return cached.build(cn);
+
+			String detectionKey = getDetectionKey(cn);
+
+			// 已存储的试探结果
+			CombinedDialectBuilder stored = (detectionKey == null ? null
+					: buildCombinedDialectBuilder(this._detectionDialectNames.get(detectionKey)));
+
+			if (stored != null)
+			{
+				if (cacheKey != null)
+					this.dialectBuilderCache.putIfAbsent(cacheKey, stored);
+
+				return stored.build(cn);
+			}
 			else
 			{
 				DatabaseMetaData databaseMetaData = cn.getMetaData();
@@ -173,6 +292,17 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 								}
 							}
 						}
+
+						// 没有表时无法试探，不应存储
+						if (detectionKey != null)
+						{
+							DialectBuilder pagingDialectBuilder = combinedDialectBuilder
+									.getToPagingQuerySqlDialectBuilder();
+
+							this._detectionDialectNames.put(detectionKey, (pagingDialectBuilder == null
+									? DIALECT_NAME_NONE : getDialectBuilderName(pagingDialectBuilder)));
+							storeDetectionFile();
+						}
 					}
 				}
 
@@ -188,6 +318,261 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 		}
 	}
 
+	/**
+	 * 获取连接URL匹配的方言名。
+	 * 
+	 * @param cn
+	 * @return 返回{@code null}表示没有
+	 */
+	protected String getUrlDialectName(Connection cn)
+	{
+		if (this.urlDialectNames.isEmpty())
+			return null;
+
+		String url = JdbcUtil.getURLIfSupports(cn);
+
+		if (StringUtil.isEmpty(url))
+			return null;
+
+		String matchedPrefix = null;
+
+		// 最长前缀匹配
+		for (String prefix : this.urlDialectNames.keySet())
+		{
+			if (url.startsWith(prefix) && (matchedPrefix == null || prefix.length() > matchedPrefix.length()))
+				matchedPrefix = prefix;
+		}
+
+		return (matchedPrefix == null ? null : this.urlDialectNames.get(matchedPrefix));
+	}
+
+	/**
+	 * 构建指定名称的方言。
+	 * 
+	 * @param cn
+	 * @param dialectName
+	 * @return 返回{@code null}表示没有此名称的方言
+	 */
+	protected Dialect buildDialect(Connection cn, String dialectName)
+	{
+		if (DIALECT_NAME_NONE.equalsIgnoreCase(dialectName))
+			return new CombinedDialectBuilder().build(cn);
+
+		DialectBuilder dialectBuilder = getDialectBuilder(dialectName);
+
+		if (dialectBuilder == null)
+		{
+			LOGGER.warn("No dialect builder named [" + dialectName + "] found");
+			return null;
+		}
+
+		return dialectBuilder.build(cn);
+	}
+
+	/**
+	 * 构建分页实现为指定名称方言的{@linkplain CombinedDialectBuilder}。
+	 * 
+	 * @param dialectName
+	 *            允许为{@code null}
+	 * @return 返回{@code null}表示名称为{@code null}或者没有此名称的方言
+	 */
+	protected CombinedDialectBuilder buildCombinedDialectBuilder(String dialectName)
+	{
+		if (dialectName == null)
+			return null;
+
+		CombinedDialectBuilder combinedDialectBuilder = new CombinedDialectBuilder();
+
+		if (DIALECT_NAME_NONE.equalsIgnoreCase(dialectName))
+			return combinedDialectBuilder;
+
+		DialectBuilder dialectBuilder = getDialectBuilder(dialectName);
+
+		if (dialectBuilder == null)
+			return null;
+
+		combinedDialectBuilder.setToPagingQuerySqlDialectBuilder(dialectBuilder);
+
+		return combinedDialectBuilder;
+	}
+
+	/**
+	 * 获取指定名称的{@linkplain DialectBuilder}。
+	 * 
+	 * @param dialectName
+	 * @return 返回{@code null}表示没有
+	 */
+	protected DialectBuilder getDialectBuilder(String dialectName)
+	{
+		if (this.dialectBuilders == null)
+			return null;
+
+		for (DialectBuilder dialectBuilder : this.dialectBuilders)
+		{
+			if (getDialectBuilderName(dialectBuilder).equalsIgnoreCase(dialectName)
+					|| dialectBuilder.getClass().getName().equals(dialectName))
+				return dialectBuilder;
+		}
+
+		return null;
+	}
+
+	/**
+	 * 获取{@linkplain DialectBuilder}的方言名：小写的、去除{@code DialectBuilder}后缀的简单类名，比如：
+	 * {@linkplain MysqlDialectBuilder}的方言名为{@code mysql}。
+	 * 
+	 * @param dialectBuilder
+	 * @return
+	 */
+	protected String getDialectBuilderName(DialectBuilder dialectBuilder)
+	{
+		String name = dialectBuilder.getClass().getSimpleName();
+
+		if (name.endsWith("DialectBuilder"))
+			name = name.substring(0, name.length() - "DialectBuilder".length());
+
+		return name.toLowerCase();
+	}
+
+	/**
+	 * 获取用于存储试探结果的关键字，由数据库标识、驱动程序名称和版本组成。
+	 * 
+	 * @param cn
+	 * @return 返回{@code null}表示无法构建
+	 */
+	protected String getDetectionKey(Connection cn)
+	{
+		if (this.detectionFile == null)
+			return null;
+
+		DatabaseIdentity databaseIdentity = DatabaseIdentity.valueOf(cn);
+
+		if (databaseIdentity == null)
+			return null;
+
+		String driverName = JdbcUtil.getDriverNameIfSupports(cn);
+		String driverVersion = JdbcUtil.getDriverVersionIfSupports(cn);
+
+		return databaseIdentity.getProductName() + "|" + databaseIdentity.getProductVersion() + "|"
+				+ databaseIdentity.getMajorVersion() + "." + databaseIdentity.getMinorVersion() + "|"
+				+ (driverName == null ? "" : driverName) + "|" + (driverVersion == null ? "" : driverVersion);
+	}
+
+	/**
+	 * 如果还未加载，则加载{@linkplain #getDetectionFile()}。
+	 */
+	protected void loadDetectionFileIfNot()
+	{
+		if (this._detectionFileLoaded)
+			return;
+
+		synchronized (this)
+		{
+			if (this._detectionFileLoaded)
+				return;
+
+			loadDetectionFile();
+			this._detectionFileLoaded = true;
+		}
+	}
+
+	/**
+	 * 加载{@linkplain #getDetectionFile()}中的试探结果和URL方言。
+	 */
+	protected void loadDetectionFile()
+	{
+		File file = this.detectionFile;
+
+		if (file == null || !file.exists())
+			return;
+
+		Properties properties = new Properties();
+
+		Reader reader = null;
+		try
+		{
+			reader = IOUtil.getReader(file, IOUtil.CHARSET_UTF_8);
+			properties.load(reader);
+		}
+		catch (IOException e)
+		{
+			LOGGER.error("Load dialect detections from " + file + " error", e);
+			return;
+		}
+		finally
+		{
+			IOUtil.close(reader);
+		}
+
+		for (String name : properties.stringPropertyNames())
+		{
+			String value = properties.getProperty(name).trim();
+
+			if (value.isEmpty())
+				continue;
+
+			if (name.startsWith(DETECTION_DATABASE_PREFIX))
+				this._detectionDialectNames.putIfAbsent(name.substring(DETECTION_DATABASE_PREFIX.length()), value);
+			else if (name.startsWith(DETECTION_URL_PREFIX))
+				this.urlDialectNames.putIfAbsent(name.substring(DETECTION_URL_PREFIX.length()), value);
+		}
+	}
+
+	/**
+	 * 存储试探结果，{@linkplain #getDetectionFile()}中已有的URL方言条目将被保留。
+	 */
+	protected void storeDetectionFile()
+	{
+		File file = this.detectionFile;
+
+		if (file == null)
+			return;
+
+		synchronized (file)
+		{
+			Properties properties = new Properties();
+
+			Reader reader = null;
+			try
+			{
+				if (file.exists())
+				{
+					reader = IOUtil.getReader(file, IOUtil.CHARSET_UTF_8);
+					properties.load(reader);
+				}
+			}
+			catch (IOException e)
+			{
+				LOGGER.error("Load dialect detections from " + file + " error", e);
+			}
+			finally
+			{
+				IOUtil.close(reader);
+			}
+
+			for (Map.Entry<String, String> entry : this._detectionDialectNames.entrySet())
+				properties.setProperty(DETECTION_DATABASE_PREFIX + entry.getKey(), entry.getValue());
+
+			try
+			{
+				IOUtil.writeAtomically(file, new IOUtil.StreamWriter()
+				{
+					@Override
+					public void write(OutputStream out) throws IOException
+					{
+						Writer writer = IOUtil.getWriter(out, IOUtil.CHARSET_UTF_8);
+						properties.store(writer, "Dialect detections, add [url.URL-prefix=dialect-name] to override");
+						writer.flush();
+					}
+				});
+			}
+			catch (IOException e)
+			{
+				LOGGER.error("Store dialect detections to " + file + " error", e);
+			}
+		}
+	}
+
 	/**
 	 * 获取连接的缓存KEY。
 	 * 
@@ -254,9 +639,13 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 
 		Order[] orders = Order.asArray(Order.valueOf(testInfo.getOrderColumnName(), Order.ASC));
 
-		Sql pagingQuerySql = dialect.toPagingQuerySql(query, orders, 1, 5);
+		// 起始行不为1，确保测试到跳过行的语法
+		Sql pagingQuerySql = dialect.toPagingQuerySql(query, orders, 2, 5);
+
+		if (pagingQuerySql == null)
+			return false;
 
-		executeQuery(cn, pagingQuerySql, ResultSet.TYPE_FORWARD_ONLY);
+		QueryResultSet.close(executeQuery(cn, pagingQuerySql, ResultSet.TYPE_FORWARD_ONLY));
 
 		return true;
 	}
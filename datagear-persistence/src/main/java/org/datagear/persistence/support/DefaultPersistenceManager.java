@@ -7,32 +7,48 @@
 
 package org.datagear.persistence.support;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.datagear.connection.ConnectionOption;
 import org.datagear.meta.Column;
 import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.Table;
+import org.datagear.meta.UniqueKey;
+import org.datagear.persistence.BatchPersistenceException;
+import org.datagear.persistence.ColumnValueHandler;
 import org.datagear.persistence.Dialect;
 import org.datagear.persistence.DialectSource;
 import org.datagear.persistence.LiteralSqlParamValue;
 import org.datagear.persistence.NonUniqueResultException;
+import org.datagear.persistence.Order;
+import org.datagear.persistence.PagingCountMode;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.persistence.PersistenceException;
 import org.datagear.persistence.PersistenceManager;
 import org.datagear.persistence.Query;
 import org.datagear.persistence.Row;
+import org.datagear.persistence.RowHandler;
+import org.datagear.persistence.RowHandlerException;
 import org.datagear.persistence.RowMapper;
 import org.datagear.persistence.SqlParamValueMapper;
+import org.datagear.util.IOUtil;
 import org.datagear.util.JDBCCompatiblity;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
 import org.datagear.util.Sql;
 import org.datagear.util.SqlParamValue;
 import org.datagear.util.StringUtil;
@@ -49,8 +65,14 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultPersistenceManager.class);
 
+	/** 默认批量执行行数 */
+	public static final int DEFAULT_BATCH_SIZE = 500;
+
 	private DialectSource dialectSource;
 
+	/** 批量插入、更新、删除时每批次最多执行的行数 */
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
 	public DefaultPersistenceManager()
 	{
 		super();
@@ -73,6 +95,16 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		this.dialectSource = dialectSource;
 	}
 
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
 	@Override
 	public Row insert(Connection cn, Table table, Row row) throws PersistenceException
 	{
@@ -90,58 +122,13 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		// 用于避免SQL参数转换中出现异常导致已转换的资源无法释放
 		ReleasableRegistry releasableRegistry = createReleasableRegistry();
 
-		Sql sql = Sql.valueOf().sql("INSERT INTO ").sql(quote(dialect, table.getName())).sql(" (").delimit(",");
-		Sql valueSql = Sql.valueOf().sql(" VALUES (").delimit(",");
-
-		Column[] columns = table.getColumns();
 		List<Column> autoGeneratedColumns = new ArrayList<>(2);
 
 		AutoGeneratedResult generatedResult;
 
 		try
 		{
-			for (int i = 0; i < columns.length; i++)
-			{
-				Column column = columns[i];
-
-				// 忽略不支持的列，避免程序不可用
-				if (!supportsColumn(column))
-					continue;
-
-				String name = column.getName();
-				Object value = row.get(name);
-
-				// 如果是自动生成列且没有初值，才返回自动生成值，因为即使自动生成列，也是允许手动赋值的
-				if (column.isAutoincrement() && StringUtil.isEmpty(value))
-				{
-					autoGeneratedColumns.add(column);
-
-					// 忽略，留给数据库自动生成
-					continue;
-				}
-
-				// 忽略不插入的列
-				if (!row.containsKey(name))
-					continue;
-
-				// 忽略null值，留给数据库生成默认值
-				if (value == null)
-					continue;
-
-				SqlParamValue sqlParamValue = mapToSqlParamValue(cn, table, column, value, mapper, releasableRegistry);
-
-				sql.sqld(quote(dialect, name));
-
-				if (sqlParamValue instanceof LiteralSqlParamValue)
-					valueSql.sqld(addBracketIfSelectSql(((LiteralSqlParamValue) sqlParamValue).getValue()));
-				else
-					valueSql.sqld("?").param(sqlParamValue);
-			}
-
-			sql.sql(")");
-			valueSql.sql(")");
-			sql.sql(valueSql);
-
+			Sql sql = buildInsertSql(cn, dialect, table, row, mapper, releasableRegistry, autoGeneratedColumns);
 			generatedResult = executeUpdateWrap(cn, sql, autoGeneratedColumns);
 		}
 		finally
@@ -160,6 +147,30 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		return re;
 	}
 
+	@Override
+	public int insert(Connection cn, Table table, Row[] rows) throws BatchPersistenceException, PersistenceException
+	{
+		return insert(cn, null, table, rows, null);
+	}
+
+	@Override
+	public int insert(final Connection cn, Dialect dialect, final Table table, final Row[] rows,
+			final SqlParamValueMapper mapper) throws BatchPersistenceException, PersistenceException
+	{
+		checkValidTable(table);
+
+		final Dialect myDialect = getDialect(cn, dialect);
+
+		return executeBatch(cn, rows.length, new BatchSqlBuilder()
+		{
+			@Override
+			public Sql build(int rowIndex, ReleasableRegistry releasableRegistry) throws PersistenceException
+			{
+				return buildInsertSql(cn, myDialect, table, rows[rowIndex], mapper, releasableRegistry, null);
+			}
+		});
+	}
+
 	@Override
 	public int update(Connection cn, Table table, Row origin, Row update) throws PersistenceException
 	{
@@ -177,52 +188,11 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		// 用于避免SQL参数转换中出现异常导致已转换的资源无法释放
 		ReleasableRegistry releasableRegistry = createReleasableRegistry();
 
-		Sql sql = Sql.valueOf().sql("UPDATE ").sql(quote(dialect, table.getName())).sql(" SET ").delimit(",");
-
-		Column[] columns = table.getColumns();
-		PrimaryKey primaryKey = table.getPrimaryKey();
-
 		try
 		{
-			int updateColumnCount = 0;
-
-			for (int i = 0; i < columns.length; i++)
-			{
-				Column column = columns[i];
-
-				// 忽略不支持的列，避免程序不可用
-				if (!supportsColumn(column))
-					continue;
-
-				String name = column.getName();
-
-				if (!update.containsKey(name))
-					continue;
-
-				Object value = update.get(name);
-
-				SqlParamValue sqlParamValue = mapToSqlParamValue(cn, table, column, value, mapper, releasableRegistry);
-
-				@JDBCCompatiblity("某些数据库存在不允许更新自增长列或者主键列的情况（比如SQL Server的自增列），因此，如果这些列值没有改变，则不应更新")
-				boolean checkIgnoreIfEquals = (column.isAutoincrement()
-						|| (primaryKey != null && primaryKey.containsColumnName(name)));
-
-				if (checkIgnoreIfEquals && StringUtil.isEquals(sqlParamValue.getValue(), origin.get(name)))
-					continue;
-
-				if (sqlParamValue instanceof LiteralSqlParamValue)
-					sql.sqld(quote(dialect, name) + "="
-							+ addBracketIfSelectSql(((LiteralSqlParamValue) sqlParamValue).getValue()));
-				else
-					sql.sqld(quote(dialect, name) + "=?").param(sqlParamValue);
-
-				updateColumnCount++;
-			}
+			Sql sql = buildUpdateSql(cn, dialect, table, origin, update, mapper, releasableRegistry);
 
-			// 即使updateColumnCount=0也执行下面这行SQL拼接操作，确保必要的buildUniqueRecordCondition里面必要的校验逻辑执行到
-			sql.sql(" WHERE ").sql(buildUniqueRecordCondition(cn, dialect, table, origin, mapper, releasableRegistry));
-
-			if (updateColumnCount > 0)
+			if (sql != null)
 			{
 				return executeUpdateWrap(cn, sql);
 			}
@@ -238,6 +208,35 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		}
 	}
 
+	@Override
+	public int update(Connection cn, Table table, Row[] origins, Row[] updates)
+			throws BatchPersistenceException, PersistenceException
+	{
+		return update(cn, null, table, origins, updates, null);
+	}
+
+	@Override
+	public int update(final Connection cn, Dialect dialect, final Table table, final Row[] origins,
+			final Row[] updates, final SqlParamValueMapper mapper) throws BatchPersistenceException, PersistenceException
+	{
+		checkValidTable(table);
+
+		if (origins.length != updates.length)
+			throw new IllegalArgumentException("[origins] and [updates] length must be the same");
+
+		final Dialect myDialect = getDialect(cn, dialect);
+
+		return executeBatch(cn, origins.length, new BatchSqlBuilder()
+		{
+			@Override
+			public Sql build(int rowIndex, ReleasableRegistry releasableRegistry) throws PersistenceException
+			{
+				return buildUpdateSql(cn, myDialect, table, origins[rowIndex], updates[rowIndex], mapper,
+						releasableRegistry);
+			}
+		});
+	}
+
 	@Override
 	public int delete(Connection cn, Table table, Row... rows) throws PersistenceException
 	{
@@ -252,41 +251,37 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 	}
 
 	@Override
-	public int delete(Connection cn, Dialect dialect, Table table, Row[] rows, SqlParamValueMapper mapper)
-			throws PersistenceException
+	public int delete(final Connection cn, Dialect dialect, final Table table, final Row[] rows,
+			final SqlParamValueMapper mapper) throws BatchPersistenceException, PersistenceException
 	{
 		checkValidTable(table);
 
-		dialect = getDialect(cn, dialect);
-
-		// 用于避免SQL参数转换中出现异常导致已转换的资源无法释放
-		ReleasableRegistry releasableRegistry = createReleasableRegistry();
+		final Dialect myDialect = getDialect(cn, dialect);
 
-		try
+		// 单行时无需批量执行
+		if (rows.length == 1)
 		{
-			int count = 0;
+			ReleasableRegistry releasableRegistry = createReleasableRegistry();
 
-			for (int i = 0; i < rows.length; i++)
+			try
 			{
-				Row row = rows[i];
-
-				Sql sql = Sql.valueOf().sql("DELETE FROM ").sql(quote(dialect, table.getName())).sql(" WHERE ");
-				sql.sql(buildUniqueRecordCondition(cn, dialect, table, row, mapper, releasableRegistry));
-				count += executeUpdate(cn, sql);
-
-				releasableRegistry.releaseClear();
+				Sql sql = buildDeleteSql(cn, myDialect, table, rows[0], mapper, releasableRegistry);
+				return executeUpdateWrap(cn, sql);
+			}
+			finally
+			{
+				releasableRegistry.release();
 			}
-
-			return count;
-		}
-		catch (SQLException e)
-		{
-			throw new PersistenceException(e);
 		}
-		finally
+
+		return executeBatch(cn, rows.length, new BatchSqlBuilder()
 		{
-			releasableRegistry.release();
-		}
+			@Override
+			public Sql build(int rowIndex, ReleasableRegistry releasableRegistry) throws PersistenceException
+			{
+				return buildDeleteSql(cn, myDialect, table, rows[rowIndex], mapper, releasableRegistry);
+			}
+		});
 	}
 
 	@Override
@@ -300,8 +295,43 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 	{
 		checkValidTable(table);
 
-		// TODO
-		throw new UnsupportedOperationException("TODO");
+		dialect = getDialect(cn, dialect);
+
+		Sql sql = Sql.valueOf().sql("DELETE FROM ").sql(quote(dialect, table.getName()));
+		Sql condition = buildQueryCondition(cn, dialect, table, query, true);
+
+		if (!Sql.isEmpty(condition))
+		{
+			sql.sql(" WHERE ");
+			sql.sql(condition);
+		}
+
+		return executeUpdateWrap(cn, sql);
+	}
+
+	@Override
+	public long count(Connection cn, Table table, Query query) throws PersistenceException
+	{
+		return count(cn, null, table, query);
+	}
+
+	@Override
+	public long count(Connection cn, Dialect dialect, Table table, Query query) throws PersistenceException
+	{
+		checkValidTable(table);
+
+		dialect = getDialect(cn, dialect);
+
+		Sql sql = Sql.valueOf().sql("SELECT COUNT(*) FROM ").sql(quote(dialect, table.getName()));
+		Sql condition = buildQueryCondition(cn, dialect, table, query, true);
+
+		if (!Sql.isEmpty(condition))
+		{
+			sql.sql(" WHERE ");
+			sql.sql(condition);
+		}
+
+		return executeCountQueryWrap(cn, sql);
 	}
 
 	@Override
@@ -342,6 +372,50 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		}
 	}
 
+	@Override
+	public boolean getColumnValue(Connection cn, Dialect dialect, Table table, Row param, String columnName,
+			SqlParamValueMapper sqlParamValueMapper, ColumnValueHandler handler) throws PersistenceException
+	{
+		checkValidTable(table);
+
+		Column column = table.getColumn(columnName);
+		if (column == null)
+			throw new IllegalArgumentException("Column [" + columnName + "] not found in [" + table.getName() + "]");
+
+		dialect = getDialect(cn, dialect);
+
+		ReleasableRegistry releasableRegistry = createReleasableRegistry();
+
+		Sql sql = Sql.valueOf().sql("SELECT ").sql(quote(dialect, columnName)).sql(" FROM ")
+				.sql(quote(dialect, table.getName())).sql(" WHERE ");
+
+		QueryResultSet qrs = null;
+
+		try
+		{
+			sql.sql(buildUniqueRecordCondition(cn, dialect, table, param, sqlParamValueMapper, releasableRegistry));
+
+			qrs = executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY);
+			ResultSet rs = qrs.getResultSet();
+
+			if (!rs.next())
+				return false;
+
+			handler.handle(cn, table, column, rs, 1);
+
+			return true;
+		}
+		catch (SQLException e)
+		{
+			throw new PersistenceException(e);
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+			releasableRegistry.release();
+		}
+	}
+
 	@Override
 	public List<Row> query(Connection cn, Table table, Query query) throws PersistenceException
 	{
@@ -354,112 +428,807 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 	{
 		checkValidTable(table);
 
-		dialect = getDialect(cn, dialect);
+		dialect = getDialect(cn, dialect);
+
+		Sql sql = buildQuerySql(cn, dialect, table, query, true);
+		return executeListQuery(cn, table, sql, ResultSet.TYPE_FORWARD_ONLY, mapper);
+	}
+
+	@Override
+	public PagingData<Row> pagingQuery(Connection cn, Table table, PagingQuery pagingQuery) throws PersistenceException
+	{
+		return pagingQuery(cn, null, table, pagingQuery, null);
+	}
+
+	@Override
+	public PagingData<Row> pagingQuery(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery,
+			RowMapper mapper) throws PersistenceException
+	{
+		return pagingQuery(cn, dialect, table, pagingQuery, null, mapper);
+	}
+
+	@Override
+	public PagingData<Row> pagingQuery(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery,
+			SqlParamValueMapper sqlParamValueMapper, RowMapper mapper) throws PersistenceException
+	{
+		final List<Row> rows = new ArrayList<>();
+
+		PagingData<Row> pagingData = pagingQuery(cn, dialect, table, pagingQuery, sqlParamValueMapper, mapper,
+				new RowHandler()
+				{
+					@Override
+					public void handle(Table table, int rowIndex, Row row) throws RowHandlerException
+					{
+						rows.add(row);
+					}
+				});
+
+		pagingData.setItems(rows);
+
+		return pagingData;
+	}
+
+	@Override
+	public PagingData<Row> pagingQuery(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery,
+			SqlParamValueMapper sqlParamValueMapper, RowMapper mapper, RowHandler handler) throws PersistenceException
+	{
+		checkValidTable(table);
+
+		dialect = getDialect(cn, dialect);
+
+		Sql queryView = buildQuerySql(cn, dialect, table, pagingQuery, true);
+
+		boolean exactCount = pagingQuery.isExactCount();
+
+		PagingData<Row> pagingData = null;
+
+		if (exactCount)
+		{
+			long total = queryCount(cn, queryView);
+			pagingData = new PagingData<>(pagingQuery.getPage(), total, pagingQuery.getPageSize());
+		}
+		else
+			pagingData = new PagingData<>(pagingQuery.getPage(), pagingQuery.getPageSize(), false);
+
+		// 能确定唯一行的排序集，用于键集分页，也使常规分页的结果稳定
+		Order[] keysetOrders = (dialect.supportsPagingSql() ? getKeysetOrders(table, pagingQuery.getOrders()) : null);
+		Order[] orders = (keysetOrders != null ? keysetOrders : pagingQuery.getOrders());
+
+		if (keysetOrders != null)
+			pagingData.setKeysetNames(getOrderNames(keysetOrders));
+
+		Sql query = null;
+		PageRowHandler pageRowHandler = null;
+		int startRow = pagingData.getStartRow();
+		// 不统计总数时，多查询一条记录用于判断是否有下一页
+		int count = (exactCount ? pagingData.getPageSize() : pagingData.getPageSize() + 1);
+		int fetchCount = count;
+		boolean keysetBackward = false;
+
+		ReleasableRegistry releasableRegistry = createReleasableRegistry();
+
+		try
+		{
+			// 第一页使用常规分页即可
+			if (keysetOrders != null && pagingQuery.hasKeyset() && pagingData.getPage() > 1)
+			{
+				query = buildKeysetPagingQuerySql(cn, dialect, table, pagingQuery, keysetOrders, count,
+						sqlParamValueMapper, releasableRegistry);
+
+				if (query != null)
+				{
+					startRow = 1;
+					count = -1;
+					keysetBackward = pagingQuery.isKeysetBackward();
+				}
+			}
+
+			if (query == null)
+				query = buildPagingQuerySql(cn, dialect, queryView, orders, startRow, count);
+
+			// 数据库分页
+			if (query != null)
+			{
+				startRow = 1;
+				count = -1;
+			}
+			// 内存分页
+			else
+			{
+				if (LOGGER.isWarnEnabled())
+					LOGGER.warn("memory pagination will be used for [{}]", ConnectionOption.valueOfNonNull(cn));
+
+				query = dialect.toOrderSql(queryView, orders);
+			}
+
+			pageRowHandler = new PageRowHandler(handler, (exactCount ? -1 : fetchCount - 1), keysetBackward);
+
+			executeHandleQuery(cn, table, query, ResultSet.TYPE_SCROLL_INSENSITIVE, startRow, count, mapper,
+					pageRowHandler);
+
+			pageRowHandler.finish(table);
+		}
+		finally
+		{
+			releasableRegistry.release();
+		}
+
+		if (!exactCount)
+		{
+			// 向前查找时由下一页翻回，所以一定有下一页
+			boolean hasNextPage = (keysetBackward || pageRowHandler.isOverflow());
+			int pageRowCount = pageRowHandler.getCount();
+
+			pagingData.setHasNextPage(hasNextPage);
+
+			if (PagingCountMode.ESTIMATED.equals(pagingQuery.getCountMode()))
+			{
+				// 统计信息是表级的，有查询条件时无法估算
+				long estimatedTotal = (pagingQuery.hasKeyword() || pagingQuery.hasCondition() ? -1
+						: queryEstimatedCount(cn, dialect, table));
+
+				if (estimatedTotal >= 0)
+				{
+					// 估算值不应小于已确知的记录数
+					long knownTotal = pagingData.getStartIndex() + pageRowCount + (hasNextPage ? 1 : 0);
+					pagingData.updateTotal(Math.max(estimatedTotal, knownTotal), true);
+				}
+			}
+		}
+
+		return pagingData;
+	}
+
+	/**
+	 * 构建数据库分页查询SQL。
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param queryView
+	 * @param orders
+	 *            允许为{@code null}
+	 * @param startRow
+	 * @param count
+	 * @return 返回{@code null}表示不支持数据库分页
+	 */
+	protected Sql buildPagingQuerySql(Connection cn, Dialect dialect, Sql queryView, Order[] orders, int startRow,
+			int count)
+	{
+		if (!dialect.supportsPagingSql())
+			return null;
+
+		return dialect.toPagingQuerySql(queryView, orders, startRow, count);
+	}
+
+	/**
+	 * 构建键集分页查询SQL。
+	 * <p>
+	 * 向前查找时，返回的SQL是逆序的。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @param pagingQuery
+	 * @param keysetOrders
+	 * @param count
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @param releasableRegistry
+	 * @return 返回{@code null}表示无法构建，比如{@linkplain PagingQuery#getKeyset()}缺少列值
+	 * @throws PersistenceException
+	 */
+	protected Sql buildKeysetPagingQuerySql(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery,
+			Order[] keysetOrders, int count, SqlParamValueMapper mapper, ReleasableRegistry releasableRegistry)
+			throws PersistenceException
+	{
+		Row keyset = pagingQuery.getKeyset();
+		boolean backward = pagingQuery.isKeysetBackward();
+
+		SqlParamValue[] values = new SqlParamValue[keysetOrders.length];
+
+		for (int i = 0; i < keysetOrders.length; i++)
+		{
+			String name = keysetOrders[i].getName();
+			Object value = keyset.get(name);
+
+			if (value == null)
+				return null;
+
+			values[i] = mapToSqlParamValue(cn, table, table.getColumn(name), value, mapper, releasableRegistry);
+
+			if (!values[i].hasValue())
+				return null;
+		}
+
+		Sql keysetCondition = dialect.toKeysetCondition(keysetOrders, values, backward);
+
+		if (Sql.isEmpty(keysetCondition))
+			return null;
+
+		Sql query = buildQuerySql(cn, dialect, table, pagingQuery, true, keysetCondition);
+
+		Order[] orders = keysetOrders;
+
+		if (backward)
+		{
+			orders = new Order[keysetOrders.length];
+
+			for (int i = 0; i < keysetOrders.length; i++)
+			{
+				Order order = keysetOrders[i];
+				orders[i] = Order.valueOf(order.getName(), (order.isAsc() ? Order.DESC : Order.ASC));
+			}
+		}
+
+		return dialect.toPagingQuerySql(query, orders, 1, count);
+	}
+
+	/**
+	 * 获取键集分页排序集。
+	 * <p>
+	 * 它由给定排序集、以及末尾追加的主键（或者列都不允许为{@code null}的唯一键）中未排序的列组成，因此能确定唯一行。
+	 * 如果表没有这样的键、或者有列不满足{@linkplain #isKeysetColumn(Column)}，返回{@code null}。
+	 * </p>
+	 * 
+	 * @param table
+	 * @param orders
+	 *            允许为{@code null}
+	 * @return 返回{@code null}表示不支持键集分页
+	 */
+	protected Order[] getKeysetOrders(Table table, Order[] orders)
+	{
+		String[] keyNames = getKeysetKeyNames(table);
+
+		if (keyNames == null)
+			return null;
+
+		List<Order> re = new ArrayList<>();
+		Set<String> names = new HashSet<>();
+
+		if (orders != null)
+		{
+			for (Order order : orders)
+			{
+				if (!isKeysetColumn(table.getColumn(order.getName())))
+					return null;
+
+				if (names.add(order.getName()))
+					re.add(order);
+			}
+		}
+
+		for (String keyName : keyNames)
+		{
+			if (!isKeysetColumn(table.getColumn(keyName)))
+				return null;
+
+			if (names.add(keyName))
+				re.add(Order.valueOf(keyName, Order.ASC));
+		}
+
+		return re.toArray(new Order[re.size()]);
+	}
+
+	/**
+	 * 获取能确定唯一行且列值都不为{@code null}的键列名：主键、或者列都不允许为{@code null}的唯一键。
+	 * 
+	 * @param table
+	 * @return 返回{@code null}表示没有
+	 */
+	protected String[] getKeysetKeyNames(Table table)
+	{
+		if (table.hasPrimaryKey())
+			return table.getPrimaryKey().getColumnNames();
+
+		if (table.hasUniqueKey())
+		{
+			for (UniqueKey uniqueKey : table.getUniqueKeys())
+			{
+				String[] columnNames = uniqueKey.getColumnNames();
+				boolean notNull = true;
+
+				for (Column column : table.getColumns(columnNames))
+				{
+					if (column == null || column.isNullable())
+					{
+						notNull = false;
+						break;
+					}
+				}
+
+				if (notNull)
+					return columnNames;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * 是否可作为键集分页列：不允许为{@code null}、可排序，并且是{@linkplain #isKeysetColumnType(int)}类型。
+	 * 
+	 * @param column
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected boolean isKeysetColumn(Column column)
+	{
+		return (column != null && !column.isNullable() && column.isSortable() && isKeysetColumnType(column.getType()));
+	}
+
+	/**
+	 * 是否是可作为键集分页列的SQL类型。
+	 * <p>
+	 * 键集边界行的列值由客户端从响应JSON中原样回传，所以仅支持经过JSON往返后仍能精确比较的类型：
+	 * 整数、定点数、定长及变长字符串、日期。浮点数、时间、时间戳等类型可能损失精度，
+	 * 导致翻页时重复或者遗漏行，因此不支持。
+	 * </p>
+	 * 
+	 * @param sqlType
+	 * @return
+	 */
+	protected boolean isKeysetColumnType(int sqlType)
+	{
+		switch (sqlType)
+		{
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+			case Types.BIGINT:
+			case Types.DECIMAL:
+			case Types.NUMERIC:
+			case Types.CHAR:
+			case Types.VARCHAR:
+			case Types.NCHAR:
+			case Types.NVARCHAR:
+			case Types.DATE:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	protected String[] getOrderNames(Order[] orders)
+	{
+		String[] names = new String[orders.length];
+
+		for (int i = 0; i < orders.length; i++)
+			names[i] = orders[i].getName();
+
+		return names;
+	}
+
+	@Override
+	public String getQuerySql(Connection cn, Table table, Query query)
+	{
+		return getQuerySql(cn, null, table, query);
+	}
+
+	@Override
+	public String getQuerySql(Connection cn, Dialect dialect, Table table, Query query)
+	{
+		checkValidTable(table);
+
+		dialect = getDialect(cn, dialect);
+
+		Sql sql = buildQuerySql(cn, dialect, table, query, false);
+		sql = dialect.toOrderSql(sql, query.getOrders());
+
+		return sql.getSqlValue();
+	}
+
+	/**
+	 * 使用数据库统计信息估算表记录数。
+	 * <p>
+	 * 此方法不抛出异常。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @return 返回{@code -1}表示无法估算
+	 */
+	protected long queryEstimatedCount(Connection cn, Dialect dialect, Table table)
+	{
+		Sql sql = dialect.toEstimatedCountSql(table);
+
+		if (sql == null)
+			return -1;
+
+		QueryResultSet qrs = null;
+
+		try
+		{
+			qrs = executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY);
+			ResultSet rs = qrs.getResultSet();
+
+			if (!rs.next())
+				return -1;
+
+			long count = rs.getLong(1);
+
+			return (rs.wasNull() || count < 0 ? -1 : count);
+		}
+		catch (Throwable t)
+		{
+			LOGGER.debug("estimate count error for table [" + table.getName() + "] :", t);
+			return -1;
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
+	}
+
+	protected long queryCount(Connection cn, Sql query)
+	{
+		Sql countQuery = Sql.valueOf().sql("SELECT COUNT(*) FROM (").sql(query).sql(") T");
+
+		long re = executeCountQueryWrap(cn, countQuery);
+
+		return re;
+	}
+
+	protected Sql buildQuerySql(Connection cn, Dialect dialect, Table table, Query query, boolean parameterized)
+	{
+		return buildQuerySql(cn, dialect, table, query, parameterized, null);
+	}
+
+	/**
+	 * 构建查询SQL。
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @param query
+	 * @param parameterized
+	 * @param extraCondition
+	 *            附加的查询条件，允许为{@code null}
+	 * @return
+	 */
+	protected Sql buildQuerySql(Connection cn, Dialect dialect, Table table, Query query, boolean parameterized,
+			Sql extraCondition)
+	{
+		Sql sql = Sql.valueOf().sql("SELECT ").delimit(",");
+
+		Column[] columns = table.getColumns();
+		for (int i = 0; i < columns.length; i++)
+			sql.sqld(quote(dialect, columns[i].getName()));
+
+		sql.sql(" FROM ");
+		sql.sql(quote(dialect, table.getName()));
+		Sql condition = buildQueryCondition(cn, dialect, table, query, parameterized);
+
+		if (!Sql.isEmpty(condition) && !Sql.isEmpty(extraCondition))
+		{
+			sql.sql(" WHERE (");
+			sql.sql(condition);
+			sql.sql(") AND (");
+			sql.sql(extraCondition);
+			sql.sql(")");
+		}
+		else if (!Sql.isEmpty(condition))
+		{
+			sql.sql(" WHERE ");
+			sql.sql(condition);
+		}
+		else if (!Sql.isEmpty(extraCondition))
+		{
+			sql.sql(" WHERE ");
+			sql.sql(extraCondition);
+		}
+
+		return sql;
+	}
+
+	/**
+	 * 构建插入SQL。
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @param row
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @param releasableRegistry
+	 * @param autoGeneratedColumns
+	 *            用于写入需返回的自动生成列，允许为{@code null}
+	 * @return
+	 * @throws PersistenceException
+	 */
+	protected Sql buildInsertSql(Connection cn, Dialect dialect, Table table, Row row, SqlParamValueMapper mapper,
+			ReleasableRegistry releasableRegistry, List<Column> autoGeneratedColumns) throws PersistenceException
+	{
+		Sql sql = Sql.valueOf().sql("INSERT INTO ").sql(quote(dialect, table.getName())).sql(" (").delimit(",");
+		Sql valueSql = Sql.valueOf().sql(" VALUES (").delimit(",");
+
+		Column[] columns = table.getColumns();
+
+		for (int i = 0; i < columns.length; i++)
+		{
+			Column column = columns[i];
+
+			// 忽略不支持的列，避免程序不可用
+			if (!supportsColumn(column))
+				continue;
+
+			String name = column.getName();
+			Object value = row.get(name);
+
+			// 如果是自动生成列且没有初值，才返回自动生成值，因为即使自动生成列，也是允许手动赋值的
+			if (column.isAutoincrement() && StringUtil.isEmpty(value))
+			{
+				if (autoGeneratedColumns != null)
+					autoGeneratedColumns.add(column);
+
+				// 忽略，留给数据库自动生成
+				continue;
+			}
+
+			// 忽略不插入的列
+			if (!row.containsKey(name))
+				continue;
+
+			// 忽略null值，留给数据库生成默认值
+			if (value == null)
+				continue;
+
+			SqlParamValue sqlParamValue = mapToSqlParamValue(cn, table, column, value, mapper, releasableRegistry);
+
+			sql.sqld(quote(dialect, name));
+
+			if (sqlParamValue instanceof LiteralSqlParamValue)
+				valueSql.sqld(addBracketIfSelectSql(((LiteralSqlParamValue) sqlParamValue).getValue()));
+			else
+				valueSql.sqld("?").param(sqlParamValue);
+		}
+
+		sql.sql(")");
+		valueSql.sql(")");
+		sql.sql(valueSql);
 
-		Sql sql = buildQuerySql(cn, dialect, table, query, true);
-		return executeListQuery(cn, table, sql, ResultSet.TYPE_FORWARD_ONLY, mapper);
+		return sql;
 	}
 
-	@Override
-	public PagingData<Row> pagingQuery(Connection cn, Table table, PagingQuery pagingQuery) throws PersistenceException
+	/**
+	 * 构建更新SQL。
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @param origin
+	 * @param update
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @param releasableRegistry
+	 * @return 返回{@code null}表示没有需要更新的列
+	 * @throws PersistenceException
+	 */
+	protected Sql buildUpdateSql(Connection cn, Dialect dialect, Table table, Row origin, Row update,
+			SqlParamValueMapper mapper, ReleasableRegistry releasableRegistry) throws PersistenceException
 	{
-		return pagingQuery(cn, null, table, pagingQuery, null);
-	}
+		Sql sql = Sql.valueOf().sql("UPDATE ").sql(quote(dialect, table.getName())).sql(" SET ").delimit(",");
 
-	@Override
-	public PagingData<Row> pagingQuery(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery,
-			RowMapper mapper) throws PersistenceException
-	{
-		checkValidTable(table);
+		Column[] columns = table.getColumns();
+		PrimaryKey primaryKey = table.getPrimaryKey();
 
-		dialect = getDialect(cn, dialect);
+		int updateColumnCount = 0;
 
-		Sql queryView = buildQuerySql(cn, dialect, table, pagingQuery, true);
+		for (int i = 0; i < columns.length; i++)
+		{
+			Column column = columns[i];
 
-		long total = queryCount(cn, queryView);
+			// 忽略不支持的列，避免程序不可用
+			if (!supportsColumn(column))
+				continue;
 
-		PagingData<Row> pagingData = new PagingData<>(pagingQuery.getPage(), total, pagingQuery.getPageSize());
+			String name = column.getName();
 
-		Sql query = null;
-		List<Row> rows = null;
-		int startRow = pagingData.getStartRow();
-		int count = pagingData.getPageSize();
+			if (!update.containsKey(name))
+				continue;
 
-		if (dialect.supportsPagingSql())
-		{
-			query = dialect.toPagingQuerySql(queryView, pagingQuery.getOrders(), startRow, count);
+			Object value = update.get(name);
 
-			// 数据库分页
-			if (query != null)
-			{
-				startRow = 1;
-				count = -1;
-			}
-		}
+			SqlParamValue sqlParamValue = mapToSqlParamValue(cn, table, column, value, mapper, releasableRegistry);
 
-		// 内存分页
-		if (query == null)
-		{
-			if (LOGGER.isWarnEnabled())
-				LOGGER.warn("memory pagination will be used for [{}]", ConnectionOption.valueOfNonNull(cn));
+			@JDBCCompatiblity("某些数据库存在不允许更新自增长列或者主键列的情况（比如SQL Server的自增列），因此，如果这些列值没有改变，则不应更新")
+			boolean checkIgnoreIfEquals = (column.isAutoincrement()
+					|| (primaryKey != null && primaryKey.containsColumnName(name)));
 
-			query = dialect.toOrderSql(queryView, pagingQuery.getOrders());
-		}
+			if (checkIgnoreIfEquals && StringUtil.isEquals(sqlParamValue.getValue(), origin.get(name)))
+				continue;
+
+			if (sqlParamValue instanceof LiteralSqlParamValue)
+				sql.sqld(quote(dialect, name) + "="
+						+ addBracketIfSelectSql(((LiteralSqlParamValue) sqlParamValue).getValue()));
+			else
+				sql.sqld(quote(dialect, name) + "=?").param(sqlParamValue);
 
-		rows = executeListQuery(cn, table, query, ResultSet.TYPE_SCROLL_INSENSITIVE, startRow, count, mapper);
+			updateColumnCount++;
+		}
 
-		pagingData.setItems(rows);
+		// 即使updateColumnCount=0也执行下面这行SQL拼接操作，确保必要的buildUniqueRecordCondition里面必要的校验逻辑执行到
+		sql.sql(" WHERE ").sql(buildUniqueRecordCondition(cn, dialect, table, origin, mapper, releasableRegistry));
 
-		return pagingData;
+		return (updateColumnCount > 0 ? sql : null);
 	}
 
-	@Override
-	public String getQuerySql(Connection cn, Table table, Query query)
+	/**
+	 * 构建删除SQL。
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @param row
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @param releasableRegistry
+	 * @return
+	 * @throws PersistenceException
+	 */
+	protected Sql buildDeleteSql(Connection cn, Dialect dialect, Table table, Row row, SqlParamValueMapper mapper,
+			ReleasableRegistry releasableRegistry) throws PersistenceException
 	{
-		return getQuerySql(cn, null, table, query);
+		Sql sql = Sql.valueOf().sql("DELETE FROM ").sql(quote(dialect, table.getName())).sql(" WHERE ");
+		sql.sql(buildUniqueRecordCondition(cn, dialect, table, row, mapper, releasableRegistry));
+
+		return sql;
 	}
 
-	@Override
-	public String getQuerySql(Connection cn, Dialect dialect, Table table, Query query)
+	/**
+	 * 批量执行更新。
+	 * <p>
+	 * 连续的、SQL语句相同（即列结构相同）的行使用同一个{@linkplain PreparedStatement}的{@linkplain PreparedStatement#addBatch()}、
+	 * {@linkplain PreparedStatement#executeBatch()}执行，每积累{@linkplain #getBatchSize()}行、或者SQL语句变化时执行一次，
+	 * 以确保执行顺序与行顺序一致；相同SQL语句的{@linkplain PreparedStatement}会被复用。
+	 * 每行的SQL参数资源（比如LOB文件输入流）在其所在批次执行后才释放。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param rowCount
+	 * @param builder
+	 * @return 更新行数
+	 * @throws BatchPersistenceException
+	 * @throws PersistenceException
+	 */
+	protected int executeBatch(Connection cn, int rowCount, BatchSqlBuilder builder)
+			throws BatchPersistenceException, PersistenceException
 	{
-		checkValidTable(table);
+		Map<String, SqlBatch> batches = new LinkedHashMap<>();
+		SqlBatch current = null;
 
-		dialect = getDialect(cn, dialect);
+		int count = 0;
 
-		Sql sql = buildQuerySql(cn, dialect, table, query, false);
-		sql = dialect.toOrderSql(sql, query.getOrders());
+		try
+		{
+			for (int i = 0; i < rowCount; i++)
+			{
+				// 用于避免SQL参数转换中出现异常导致已转换的资源无法释放
+				ReleasableRegistry releasableRegistry = createReleasableRegistry();
+				Sql sql = null;
 
-		return sql.getSqlValue();
-	}
+				try
+				{
+					sql = builder.build(i, releasableRegistry);
+				}
+				catch (RuntimeException e)
+				{
+					releasableRegistry.release();
+					throw e;
+				}
 
-	protected long queryCount(Connection cn, Sql query)
-	{
-		Sql countQuery = Sql.valueOf().sql("SELECT COUNT(*) FROM (").sql(query).sql(") T");
+				// 没有需要执行的SQL时仍然计数1，确保返回逻辑正确
+				if (sql == null)
+				{
+					releasableRegistry.release();
+					count += 1;
+					continue;
+				}
 
-		long re = executeCountQueryWrap(cn, countQuery);
+				String sqlValue = sql.getSqlValue();
+				SqlBatch batch = batches.get(sqlValue);
 
-		return re;
+				if (batch == null)
+				{
+					batch = new SqlBatch(createUpdatePreparedStatement(cn, sqlValue));
+					batches.put(sqlValue, batch);
+				}
+
+				// SQL语句变化时先执行之前的批次，避免不同结构的行被分组后乱序执行
+				if (current != null && current != batch && current.getSize() > 0)
+				{
+					try
+					{
+						count += executeBatch(current);
+					}
+					catch (RuntimeException e)
+					{
+						releasableRegistry.release();
+						throw e;
+					}
+				}
+
+				current = batch;
+
+				batch.addReleasableRegistry(releasableRegistry);
+
+				try
+				{
+					batch.addParams(setParamValues(cn, batch.getStatement(), sql));
+					batch.getStatement().addBatch();
+				}
+				catch (SQLException e)
+				{
+					throw new BatchPersistenceException(i, e);
+				}
+
+				batch.addRowIndex(i);
+
+				if (batch.getSize() >= this.batchSize)
+					count += executeBatch(batch);
+			}
+
+			for (SqlBatch batch : batches.values())
+			{
+				if (batch.getSize() > 0)
+					count += executeBatch(batch);
+			}
+
+			return count;
+		}
+		catch (SQLException e)
+		{
+			throw new PersistenceException(e);
+		}
+		finally
+		{
+			for (SqlBatch batch : batches.values())
+				batch.close();
+		}
 	}
 
-	protected Sql buildQuerySql(Connection cn, Dialect dialect, Table table, Query query, boolean parameterized)
+	/**
+	 * 执行批次并释放其参数资源。
+	 * 
+	 * @param batch
+	 * @return 更新行数
+	 * @throws BatchPersistenceException
+	 */
+	protected int executeBatch(SqlBatch batch) throws BatchPersistenceException
 	{
-		Sql sql = Sql.valueOf().sql("SELECT ").delimit(",");
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("execute batch of {} rows", batch.getSize());
 
-		Column[] columns = table.getColumns();
-		for (int i = 0; i < columns.length; i++)
-			sql.sqld(quote(dialect, columns[i].getName()));
+		try
+		{
+			int[] updateCounts = batch.getStatement().executeBatch();
 
-		sql.sql(" FROM ");
-		sql.sql(quote(dialect, table.getName()));
-		Sql condition = buildQueryCondition(cn, dialect, table, query, parameterized);
+			int count = 0;
 
-		if (!Sql.isEmpty(condition))
+			for (int updateCount : updateCounts)
+			{
+				// 某些驱动程序批量执行成功但不返回具体行数
+				if (updateCount == Statement.SUCCESS_NO_INFO)
+					count += 1;
+				else if (updateCount > 0)
+					count += updateCount;
+			}
+
+			return count;
+		}
+		catch (BatchUpdateException e)
 		{
-			sql.sql(" WHERE ");
-			sql.sql(condition);
+			throw new BatchPersistenceException(batch.getFailedRowIndex(e), e);
+		}
+		catch (SQLException e)
+		{
+			throw new BatchPersistenceException(-1, e);
+		}
+		finally
+		{
+			batch.releaseClear();
 		}
-
-		return sql;
 	}
 
 	/**
@@ -681,4 +1450,224 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 	}
 
 	protected static final String SELECT_SQL_REGEX = "^\\s*((?i)select)\\s+\\S+[\\s\\S]*$";
+
+	/**
+	 * 批量执行的行SQL构建器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static interface BatchSqlBuilder
+	{
+		/**
+		 * 构建指定行的SQL。
+		 * 
+		 * @param rowIndex
+		 * @param releasableRegistry
+		 *            用于注册SQL参数资源
+		 * @return 返回{@code null}表示此行无需执行
+		 * @throws PersistenceException
+		 */
+		Sql build(int rowIndex, ReleasableRegistry releasableRegistry) throws PersistenceException;
+	}
+
+	/**
+	 * 同一SQL语句的批次。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class SqlBatch
+	{
+		private final PreparedStatement statement;
+
+		/** 批次内各行在原数组中的索引 */
+		private final List<Integer> rowIndexes = new ArrayList<>();
+
+		private final List<ReleasableRegistry> releasableRegistries = new ArrayList<>();
+
+		private final List<Object> params = new ArrayList<>();
+
+		public SqlBatch(PreparedStatement statement)
+		{
+			super();
+			this.statement = statement;
+		}
+
+		public PreparedStatement getStatement()
+		{
+			return statement;
+		}
+
+		public int getSize()
+		{
+			return this.rowIndexes.size();
+		}
+
+		public void addRowIndex(int rowIndex)
+		{
+			this.rowIndexes.add(rowIndex);
+		}
+
+		public void addReleasableRegistry(ReleasableRegistry releasableRegistry)
+		{
+			this.releasableRegistries.add(releasableRegistry);
+		}
+
+		public void addParams(List<Object> params)
+		{
+			this.params.addAll(params);
+		}
+
+		/**
+		 * 获取批量执行出错的行索引。
+		 * <p>
+		 * 出错后停止执行的驱动程序，{@linkplain BatchUpdateException#getUpdateCounts()}仅包含出错之前的行；
+		 * 出错后继续执行的驱动程序，出错行为{@linkplain Statement#EXECUTE_FAILED}。
+		 * </p>
+		 * 
+		 * @param e
+		 * @return 为{@code -1}表示无法确定
+		 */
+		public int getFailedRowIndex(BatchUpdateException e)
+		{
+			int[] updateCounts = e.getUpdateCounts();
+
+			if (updateCounts == null)
+				return -1;
+
+			int batchIndex = updateCounts.length;
+
+			for (int i = 0; i < updateCounts.length; i++)
+			{
+				if (updateCounts[i] == Statement.EXECUTE_FAILED)
+				{
+					batchIndex = i;
+					break;
+				}
+			}
+
+			return (batchIndex < this.rowIndexes.size() ? this.rowIndexes.get(batchIndex) : -1);
+		}
+
+		/**
+		 * 释放并清空已执行行的参数资源。
+		 */
+		public void releaseClear()
+		{
+			IOUtil.closeIf(this.params);
+			this.params.clear();
+
+			for (ReleasableRegistry releasableRegistry : this.releasableRegistries)
+				releasableRegistry.release();
+			this.releasableRegistries.clear();
+
+			this.rowIndexes.clear();
+		}
+
+		/**
+		 * 关闭，此方法不抛出任何异常。
+		 */
+		public void close()
+		{
+			releaseClear();
+			JdbcUtil.closeStatement(this.statement);
+		}
+	}
+
+	/**
+	 * 分页查询的当前页{@linkplain RowHandler}。
+	 * <p>
+	 * 它仅将当前页的行交由目标{@linkplain RowHandler}处理，超出的用于判断是否有下一页的行将被忽略；
+	 * 对于逆序查询（键集分页向前查找），它先缓存当前页的行，在{@linkplain #finish(Table)}时按正序处理。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class PageRowHandler implements RowHandler
+	{
+		private final RowHandler handler;
+
+		/** 当前页最大行数，{@code -1}表示不限制 */
+		private final int maxCount;
+
+		/** 是否逆序查询 */
+		private final boolean reverse;
+
+		private final List<Row> reverseRows;
+
+		/** 已处理的行数 */
+		private int count = 0;
+
+		/** 是否有超出当前页的行 */
+		private boolean overflow = false;
+
+		public PageRowHandler(RowHandler handler, int maxCount, boolean reverse)
+		{
+			super();
+			this.handler = handler;
+			this.maxCount = maxCount;
+			this.reverse = reverse;
+			this.reverseRows = (reverse ? new ArrayList<Row>() : null);
+		}
+
+		public int getCount()
+		{
+			return count;
+		}
+
+		public boolean isOverflow()
+		{
+			return overflow;
+		}
+
+		@Override
+		public void handle(Table table, int rowIndex, Row row) throws RowHandlerException
+		{
+			if (this.reverse)
+			{
+				this.reverseRows.add(row);
+				return;
+			}
+
+			if (this.maxCount >= 0 && this.count >= this.maxCount)
+			{
+				this.overflow = true;
+				return;
+			}
+
+			this.count++;
+			this.handler.handle(table, this.count, row);
+		}
+
+		/**
+		 * 结束处理。
+		 * 
+		 * @param table
+		 * @throws RowHandlerException
+		 */
+		public void finish(Table table) throws RowHandlerException
+		{
+			if (!this.reverse)
+				return;
+
+			int size = this.reverseRows.size();
+
+			// 逆序查询时多查询的行在末尾
+			if (this.maxCount >= 0 && size > this.maxCount)
+			{
+				size = this.maxCount;
+				this.overflow = true;
+			}
+
+			for (int i = size - 1; i >= 0; i--)
+			{
+				this.count++;
+				this.handler.handle(table, this.count, this.reverseRows.get(i));
+			}
+
+			this.reverseRows.clear();
+		}
+	}
 }
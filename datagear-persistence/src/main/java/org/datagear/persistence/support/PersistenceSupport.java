@@ -17,9 +17,12 @@ import java.util.List;
 
 import org.datagear.meta.Column;
 import org.datagear.meta.Table;
+import org.datagear.persistence.ArrayRow;
 import org.datagear.persistence.Dialect;
 import org.datagear.persistence.PersistenceException;
 import org.datagear.persistence.Row;
+import org.datagear.persistence.RowHandler;
+import org.datagear.persistence.RowHandlerException;
 import org.datagear.persistence.RowMapper;
 import org.datagear.persistence.RowMapperException;
 import org.datagear.util.JdbcSupport;
@@ -197,6 +200,45 @@ public class PersistenceSupport extends JdbcSupport
 		}
 	}
 
+	/**
+	 * 执行查询，并将结果逐行交由{@linkplain RowHandler}处理。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param sql
+	 * @param resultSetType
+	 * @param startRow
+	 *            起始行号，以{@code 1}开头
+	 * @param count
+	 *            读取行数，如果{@code <0}，表示读取全部
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @param handler
+	 * @return 处理的行数
+	 * @throws PersistenceException
+	 */
+	public int executeHandleQuery(Connection cn, Table table, Sql sql, int resultSetType, int startRow, int count,
+			RowMapper mapper, RowHandler handler) throws PersistenceException
+	{
+		QueryResultSet qrs = null;
+
+		try
+		{
+			qrs = executeQuery(cn, sql, resultSetType);
+			ResultSet rs = qrs.getResultSet();
+
+			return handleRows(cn, table, rs, startRow, count, mapper, handler);
+		}
+		catch (SQLException e)
+		{
+			throw new PersistenceException(e);
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
+	}
+
 	/**
 	 * 将结果集映射至{@linkplain Row}洌表。
 	 * 
@@ -215,31 +257,81 @@ public class PersistenceSupport extends JdbcSupport
 	 */
 	protected List<Row> mapToRows(Connection cn, Table table, ResultSet rs, int startRow, int count, RowMapper mapper)
 			throws RowMapperException, SQLException
+	{
+		final List<Row> resultList = new ArrayList<>();
+
+		handleRows(cn, table, rs, startRow, count, mapper, new RowHandler()
+		{
+			@Override
+			public void handle(Table table, int rowIndex, Row row) throws RowHandlerException
+			{
+				resultList.add(row);
+			}
+		});
+
+		return resultList;
+	}
+
+	/**
+	 * 将结果集逐行映射为{@linkplain Row}并交由{@linkplain RowHandler}处理。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param rs
+	 * @param startRow
+	 *            起始行，以{@code 1}开头
+	 * @param count
+	 *            映射行数，{@code -1}表示全部
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @param handler
+	 * @return 处理的行数
+	 * @throws RowMapperException
+	 * @throws RowHandlerException
+	 * @throws SQLException
+	 */
+	protected int handleRows(Connection cn, Table table, ResultSet rs, int startRow, int count, RowMapper mapper,
+			RowHandler handler) throws RowMapperException, RowHandlerException, SQLException
 	{
 		if (startRow < 1)
 			startRow = 1;
 
-		List<Row> resultList = new ArrayList<>();
-
 		if (count >= 0 && startRow > 1)
 			forwardBefore(rs, startRow);
 
 		int endRow = (count >= 0 ? startRow + count : -1);
 
+		// 默认映射、AbstractRowMapper映射在读取第一行时预先解析列，之后每行映射为ArrayRow
+		boolean mapToArrayRow = (mapper == null || mapper instanceof AbstractRowMapper);
+		AbstractRowMapper rowMapper = (mapper instanceof AbstractRowMapper ? (AbstractRowMapper) mapper : null);
+		MappedColumns mappedColumns = null;
+
 		int rowIndex = startRow;
 		while (rs.next())
 		{
 			if (endRow >= 0 && rowIndex >= endRow)
 				break;
 
-			Row row = mapToRow(cn, table, rs, rowIndex, mapper);
+			Row row;
+
+			if (mapToArrayRow)
+			{
+				if (mappedColumns == null)
+					mappedColumns = (rowMapper != null ? rowMapper.resolveMappedColumns(table, rs)
+							: resolveMappedColumns(table, rs));
+
+				row = (rowMapper != null ? rowMapper.map(cn, table, rs, rowIndex, mappedColumns)
+						: mapToArrayRow(cn, rs, mappedColumns));
+			}
+			else
+				row = mapToRow(cn, table, rs, rowIndex, mapper);
 
-			resultList.add(row);
+			handler.handle(table, rowIndex, row);
 
 			rowIndex++;
 		}
 
-		return resultList;
+		return rowIndex - startRow;
 	}
 
 	/**
@@ -308,6 +400,88 @@ public class PersistenceSupport extends JdbcSupport
 		return getColumnValue(cn, rs, column.getName(), column.getType());
 	}
 
+	/**
+	 * 使用预先解析的列将结果集行映射为{@linkplain ArrayRow}对象。
+	 * 
+	 * @param cn
+	 * @param rs
+	 * @param mappedColumns
+	 * @return
+	 * @throws RowMapperException
+	 */
+	protected ArrayRow mapToArrayRow(Connection cn, ResultSet rs, MappedColumns mappedColumns)
+			throws RowMapperException
+	{
+		Column[] columns = mappedColumns.getColumns();
+		Object[] values = new Object[mappedColumns.getHeader().size()];
+
+		try
+		{
+			for (int i = 0; i < columns.length; i++)
+			{
+				Object value = getColumnValue(cn, rs, mappedColumns.getColumnIndex(i), columns[i].getType());
+				values[mappedColumns.getValueIndex(i)] = value;
+			}
+		}
+		catch (SQLException e)
+		{
+			throw new RowMapperException(e);
+		}
+
+		return new ArrayRow(mappedColumns.getHeader(), values);
+	}
+
+	/**
+	 * 预先解析结果集中需映射的列。
+	 * <p>
+	 * 它仅包含{@linkplain #supportsColumn(Column)}的列，并且使用{@linkplain ResultSet#findColumn(String)}预先解析列索引，
+	 * 之后映射每一行时不必再按名称查找列。
+	 * </p>
+	 * 
+	 * @param table
+	 * @param rs
+	 * @return
+	 * @throws SQLException
+	 */
+	public MappedColumns resolveMappedColumns(Table table, ResultSet rs) throws SQLException
+	{
+		List<Column> columns = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		List<Integer> columnIndexes = new ArrayList<>();
+		List<Integer> valueIndexes = new ArrayList<>();
+
+		for (Column column : table.getColumns())
+		{
+			if (!supportsColumn(column))
+				continue;
+
+			String name = column.getName();
+
+			// 重名列与Row一致，后面的值覆盖前面的
+			int valueIndex = names.indexOf(name);
+			if (valueIndex < 0)
+			{
+				valueIndex = names.size();
+				names.add(name);
+			}
+
+			columns.add(column);
+			columnIndexes.add(rs.findColumn(name));
+			valueIndexes.add(valueIndex);
+		}
+
+		int[] columnIndexArray = new int[columnIndexes.size()];
+		int[] valueIndexArray = new int[valueIndexes.size()];
+		for (int i = 0; i < columnIndexArray.length; i++)
+		{
+			columnIndexArray[i] = columnIndexes.get(i);
+			valueIndexArray[i] = valueIndexes.get(i);
+		}
+
+		return new MappedColumns(columns.toArray(new Column[columns.size()]), columnIndexArray, valueIndexArray,
+				new ArrayRow.Header(names));
+	}
+
 	public SqlParamValue createSqlParamValue(Column column, Object value)
 	{
 		return new SqlParamValue(value, column.getType());
@@ -369,4 +543,54 @@ public class PersistenceSupport extends JdbcSupport
 				return false;
 		}
 	}
+
+	/**
+	 * 预先解析的结果集映射列。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class MappedColumns
+	{
+		/** 需映射的列 */
+		private final Column[] columns;
+
+		/** 列在结果集中的索引，以{@code 1}开始 */
+		private final int[] columnIndexes;
+
+		/** 列在值数组中的索引 */
+		private final int[] valueIndexes;
+
+		/** 行列头 */
+		private final ArrayRow.Header header;
+
+		public MappedColumns(Column[] columns, int[] columnIndexes, int[] valueIndexes, ArrayRow.Header header)
+		{
+			super();
+			this.columns = columns;
+			this.columnIndexes = columnIndexes;
+			this.valueIndexes = valueIndexes;
+			this.header = header;
+		}
+
+		public Column[] getColumns()
+		{
+			return columns;
+		}
+
+		public int getColumnIndex(int i)
+		{
+			return this.columnIndexes[i];
+		}
+
+		public int getValueIndex(int i)
+		{
+			return this.valueIndexes[i];
+		}
+
+		public ArrayRow.Header getHeader()
+		{
+			return header;
+		}
+	}
 }
@@ -35,4 +35,11 @@ public class SimpleRowMapper extends AbstractRowMapper
 	{
 		return getColumnValue(cn, rs, column);
 	}
+
+	@Override
+	protected Object mapColumn(Connection cn, Table table, ResultSet rs, int rowIndex, Column column,
+			int columnIndex) throws Throwable
+	{
+		return getColumnValue(cn, rs, columnIndex, column.getType());
+	}
 }
@@ -10,6 +10,7 @@ package org.datagear.persistence.support;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.datagear.meta.Column;
@@ -17,6 +18,8 @@ import org.datagear.meta.Table;
 import org.datagear.meta.TableType;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.persistence.Row;
+import org.datagear.persistence.RowHandler;
+import org.datagear.persistence.RowHandlerException;
 import org.datagear.persistence.RowMapper;
 import org.datagear.util.QueryResultSet;
 import org.datagear.util.Sql;
@@ -86,6 +89,41 @@ public class SqlSelectManager extends PersistenceSupport
 	 */
 	public SqlSelectResult select(Connection cn, String sql, int startRow, int fetchSize, RowMapper rowMapper)
 			throws SQLException
+	{
+		final List<Row> rows = new ArrayList<>();
+
+		SqlSelectResult result = select(cn, sql, startRow, fetchSize, rowMapper, new RowHandler()
+		{
+			@Override
+			public void handle(Table table, int rowIndex, Row row) throws RowHandlerException
+			{
+				rows.add(row);
+			}
+		});
+
+		result.setRows(rows);
+
+		return result;
+	}
+
+	/**
+	 * 查询SQL，并将结果逐行交由{@linkplain RowHandler}处理。
+	 * <p>
+	 * 返回结果的{@linkplain SqlSelectResult#getRows()}为{@code null}。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param startRow
+	 * @param fetchSize
+	 * @param rowMapper
+	 *            允许为{@code null}
+	 * @param handler
+	 * @return
+	 * @throws SQLException
+	 */
+	public SqlSelectResult select(Connection cn, String sql, int startRow, int fetchSize, RowMapper rowMapper,
+			RowHandler handler) throws SQLException
 	{
 		QueryResultSet qrs = null;
 
@@ -97,9 +135,9 @@ public class SqlSelectManager extends PersistenceSupport
 			ResultSet rs = qrs.getResultSet();
 			Table table = buildTable(cn, rs);
 
-			List<Row> rows = mapToRows(cn, table, rs, startRow, fetchSize, rowMapper);
+			handleRows(cn, table, rs, startRow, fetchSize, rowMapper, handler);
 
-			return new SqlSelectResult(sql, table, startRow, fetchSize, rows);
+			return new SqlSelectResult(sql, table, startRow, fetchSize, null);
 		}
 		finally
 		{
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import org.datagear.connection.URLSensor;
+import org.datagear.connection.support.Db2URLSensor;
+import org.datagear.persistence.Dialect;
+import org.datagear.persistence.DialectBuilder;
+import org.datagear.persistence.support.AbstractURLSensedDialectBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DB2的{@linkplain DialectBuilder}。
+ * <p>
+ * DB2 for LUW 11.1、DB2 for z/OS 12开始才支持{@code OFFSET n ROWS}，对于之前的版本，
+ * 构建的{@linkplain StandardDialect}仅支持首行开始的分页查询。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class Db2DialectBuilder extends AbstractURLSensedDialectBuilder
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(Db2DialectBuilder.class);
+
+	/** DB2 for z/OS的产品版本前缀 */
+	protected static final String ZOS_PRODUCT_VERSION_PREFIX = "DSN";
+
+	public Db2DialectBuilder()
+	{
+		super(Db2URLSensor.INSTANCE);
+	}
+
+	@Override
+	public void setUrlSensor(URLSensor urlSensor)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Dialect build(Connection cn)
+	{
+		return new StandardDialect(getIdentifierQuote(cn), isOffsetSupported(cn));
+	}
+
+	/**
+	 * 数据库版本是否支持{@code OFFSET n ROWS}语法。
+	 * 
+	 * @param cn
+	 * @return
+	 */
+	protected boolean isOffsetSupported(Connection cn)
+	{
+		try
+		{
+			DatabaseMetaData metaData = cn.getMetaData();
+
+			int majorVersion = metaData.getDatabaseMajorVersion();
+			int minorVersion = metaData.getDatabaseMinorVersion();
+			String productVersion = metaData.getDatabaseProductVersion();
+
+			if (productVersion != null && productVersion.startsWith(ZOS_PRODUCT_VERSION_PREFIX))
+				return (majorVersion >= 12);
+
+			return (majorVersion > 11 || (majorVersion == 11 && minorVersion >= 1));
+		}
+		catch (SQLException e)
+		{
+			LOGGER.warn("can not resolve database version, OFFSET syntax will not be used :", e);
+			return false;
+		}
+	}
+}
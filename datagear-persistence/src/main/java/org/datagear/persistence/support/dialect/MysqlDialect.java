@@ -7,9 +7,14 @@
 
 package org.datagear.persistence.support.dialect;
 
+import java.sql.Types;
+
+import org.datagear.meta.Index;
+import org.datagear.meta.Table;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.support.AbstractDialect;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * Mysql方言。
@@ -59,4 +64,34 @@ public class MysqlDialect extends AbstractDialect
 
 		return sql;
 	}
+
+	/**
+	 * 使用{@code information_schema.TABLES.TABLE_ROWS}估算，对于InnoDB表它是采样估算值。
+	 */
+	@Override
+	public Sql toEstimatedCountSql(Table table)
+	{
+		return Sql.valueOf().sql(
+				"SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+				new SqlParamValue(table.getName(), Types.VARCHAR));
+	}
+
+	/**
+	 * 使用{@code MATCH ... AGAINST}全文检索，列必须与{@code FULLTEXT}索引的列完全一致才能使用索引。
+	 */
+	@Override
+	protected Sql toFullTextCondition(Table table, Index index, String keyword, boolean parameterized)
+	{
+		Sql sql = Sql.valueOf().sql("MATCH (").delimit(", ");
+
+		for (String columnName : index.getColumnNames())
+			sql.sqld(quote(columnName));
+
+		if (parameterized)
+			sql.sql(") AGAINST (? IN NATURAL LANGUAGE MODE)", new SqlParamValue(keyword, Types.VARCHAR));
+		else
+			sql.sql(") AGAINST ('" + keyword.replace("'", "''") + "' IN NATURAL LANGUAGE MODE)");
+
+		return sql;
+	}
 }
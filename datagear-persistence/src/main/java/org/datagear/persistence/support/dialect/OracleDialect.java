@@ -7,9 +7,13 @@
 
 package org.datagear.persistence.support.dialect;
 
+import java.sql.Types;
+
+import org.datagear.meta.Table;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.support.AbstractDialect;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * Oracle方言。
@@ -66,4 +70,15 @@ public class OracleDialect extends AbstractDialect
 
 		return sql;
 	}
+
+	/**
+	 * 使用{@code ALL_TABLES.NUM_ROWS}估算，它由统计信息收集任务更新，没有收集过统计信息的表为{@code null}。
+	 */
+	@Override
+	public Sql toEstimatedCountSql(Table table)
+	{
+		return Sql.valueOf().sql(
+				"SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA') AND TABLE_NAME = ?",
+				new SqlParamValue(table.getName(), Types.VARCHAR));
+	}
 }
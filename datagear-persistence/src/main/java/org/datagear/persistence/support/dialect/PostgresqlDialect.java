@@ -7,9 +7,14 @@
 
 package org.datagear.persistence.support.dialect;
 
+import java.sql.Types;
+
+import org.datagear.meta.Index;
+import org.datagear.meta.Table;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.support.AbstractDialect;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * PostgreSQL方言。
@@ -59,4 +64,67 @@ public class PostgresqlDialect extends AbstractDialect
 
 		return sql;
 	}
+
+	/**
+	 * 排序方向一致时，使用行值比较{@code (c1, c2) > (?, ?)}，PostgreSQL可以直接使用复合索引。
+	 */
+	@Override
+	public Sql toKeysetCondition(Order[] orders, SqlParamValue[] values, boolean backward)
+	{
+		if (orders == null || orders.length < 2 || values == null || values.length != orders.length)
+			return super.toKeysetCondition(orders, values, backward);
+
+		for (int i = 1; i < orders.length; i++)
+		{
+			if (orders[i].isAsc() != orders[0].isAsc())
+				return super.toKeysetCondition(orders, values, backward);
+		}
+
+		Sql sql = Sql.valueOf().sql("(").delimit(", ");
+
+		for (int i = 0; i < orders.length; i++)
+			sql.sqld(quote(orders[i].getName()));
+
+		sql.sql(") " + getKeysetOperator(orders[0], backward) + " (").delimit(", ").sqld("?", orders.length).sql(")")
+				.param(values);
+
+		return sql;
+	}
+
+	/**
+	 * 使用{@code pg_class.reltuples}估算，它由{@code VACUUM}、{@code ANALYZE}更新，从未分析过的表为负数或{@code 0}。
+	 */
+	@Override
+	public Sql toEstimatedCountSql(Table table)
+	{
+		return Sql.valueOf().sql("SELECT CASE WHEN C.reltuples < 0 THEN NULL ELSE CAST(C.reltuples AS BIGINT) END"
+				+ " FROM pg_catalog.pg_class C INNER JOIN pg_catalog.pg_namespace N ON N.oid = C.relnamespace"
+				+ " WHERE C.relname = ? AND N.nspname = current_schema()",
+				new SqlParamValue(table.getName(), Types.VARCHAR));
+	}
+
+	/**
+	 * 使用{@code to_tsvector(...) @@ plainto_tsquery(...)}全文检索，分词配置与索引表达式一致才能使用索引。
+	 */
+	@Override
+	protected Sql toFullTextCondition(Table table, Index index, String keyword, boolean parameterized)
+	{
+		String config = index.getFullTextConfig();
+		String[] columnNames = index.getColumnNames();
+
+		if (config == null || columnNames.length != 1)
+			return null;
+
+		String configSql = "'" + config.replace("'", "''") + "'";
+
+		Sql sql = Sql.valueOf().sql(
+				"to_tsvector(" + configSql + ", " + quote(columnNames[0]) + ") @@ plainto_tsquery(" + configSql + ", ");
+
+		if (parameterized)
+			sql.sql("?)", new SqlParamValue(keyword, Types.VARCHAR));
+		else
+			sql.sql("'" + keyword.replace("'", "''") + "')");
+
+		return sql;
+	}
 }
@@ -7,9 +7,13 @@
 
 package org.datagear.persistence.support.dialect;
 
+import java.sql.Types;
+
+import org.datagear.meta.Table;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.support.AbstractDialect;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * SqlServer方言。
@@ -52,4 +56,15 @@ public class SqlServerDialect extends AbstractDialect
 
 		return sql;
 	}
+
+	/**
+	 * 使用{@code sys.partitions}中堆或者聚集索引的行数估算，它由数据库实时维护，通常接近实际值。
+	 */
+	@Override
+	public Sql toEstimatedCountSql(Table table)
+	{
+		return Sql.valueOf().sql("SELECT SUM(P.rows) FROM sys.partitions P"
+				+ " WHERE P.object_id = OBJECT_ID(QUOTENAME(SCHEMA_NAME()) + '.' + QUOTENAME(?)) AND P.index_id IN (0, 1)",
+				new SqlParamValue(table.getName(), Types.VARCHAR));
+	}
 }
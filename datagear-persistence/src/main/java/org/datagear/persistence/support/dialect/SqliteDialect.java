@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import org.datagear.persistence.Order;
+import org.datagear.persistence.support.AbstractDialect;
+import org.datagear.util.Sql;
+
+/**
+ * SQLite方言。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SqliteDialect extends AbstractDialect
+{
+	public SqliteDialect()
+	{
+		super();
+	}
+
+	public SqliteDialect(String identifierQuote)
+	{
+		super(identifierQuote);
+	}
+
+	@Override
+	public boolean supportsPagingSql()
+	{
+		return true;
+	}
+
+	@Override
+	public Sql toPagingQuerySql(Sql query, Order[] orders, long startRow, int count)
+	{
+		Sql sql = Sql.valueOf();
+
+		Sql orderSql = toOrderSql(orders);
+
+		if (isEmptySql(orderSql))
+		{
+			sql.sql(query);
+		}
+		else
+		{
+			sql.sql("SELECT * FROM (");
+			sql.sql(query);
+			sql.sql(") T ");
+			sql.sql(" ORDER BY ");
+			sql.sql(orderSql);
+		}
+
+		sql.sql(" LIMIT " + count + " OFFSET " + (startRow - 1));
+
+		return sql;
+	}
+}
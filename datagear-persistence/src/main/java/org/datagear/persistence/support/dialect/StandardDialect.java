@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import org.datagear.persistence.Order;
+import org.datagear.persistence.support.AbstractDialect;
+import org.datagear.util.Sql;
+
+/**
+ * SQL:2008标准方言。
+ * <p>
+ * 使用标准的{@code OFFSET n ROWS FETCH NEXT m ROWS ONLY}分页语法，Derby、H2、HSQLDB、DB2（11.1+）、
+ * PostgreSQL、Oracle（12c+）、SqlServer（2012+）等数据库都支持。
+ * </p>
+ * <p>
+ * 对于仅支持{@code FETCH FIRST m ROWS ONLY}的数据库（比如DB2 11.1以前的版本），
+ * 应设置{@linkplain #setOffsetSupported(boolean)}为{@code false}，
+ * 此时仅能构建首行开始的分页查询SQL（也可用于键集分页），其他情况将采用内存分页。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class StandardDialect extends AbstractDialect
+{
+	/** 是否支持{@code OFFSET n ROWS}语法 */
+	private boolean offsetSupported = true;
+
+	public StandardDialect()
+	{
+		super();
+	}
+
+	public StandardDialect(String identifierQuote)
+	{
+		super(identifierQuote);
+	}
+
+	public StandardDialect(String identifierQuote, boolean offsetSupported)
+	{
+		super(identifierQuote);
+		this.offsetSupported = offsetSupported;
+	}
+
+	public boolean isOffsetSupported()
+	{
+		return offsetSupported;
+	}
+
+	public void setOffsetSupported(boolean offsetSupported)
+	{
+		this.offsetSupported = offsetSupported;
+	}
+
+	@Override
+	public boolean supportsPagingSql()
+	{
+		return true;
+	}
+
+	@Override
+	public Sql toPagingQuerySql(Sql query, Order[] orders, long startRow, int count)
+	{
+		if (startRow > 1 && !this.offsetSupported)
+			return null;
+
+		Sql sql = Sql.valueOf();
+
+		Sql orderSql = toOrderSql(orders);
+
+		if (isEmptySql(orderSql))
+		{
+			sql.sql(query);
+		}
+		else
+		{
+			sql.sql("SELECT * FROM (");
+			sql.sql(query);
+			sql.sql(") T ");
+			sql.sql(" ORDER BY ");
+			sql.sql(orderSql);
+		}
+
+		// 第一页仅使用FETCH FIRST，兼容更多数据库版本
+		if (startRow > 1)
+			sql.sql(" OFFSET " + (startRow - 1) + " ROWS FETCH NEXT " + count + " ROWS ONLY");
+		else
+			sql.sql(" FETCH FIRST " + count + " ROWS ONLY");
+
+		return sql;
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import java.sql.Connection;
+
+import org.datagear.persistence.Dialect;
+import org.datagear.persistence.DialectBuilder;
+import org.datagear.persistence.support.AbstractDialectBuilder;
+import org.datagear.persistence.support.DefaultDialectSource;
+
+/**
+ * {@linkplain StandardDialect}的{@linkplain DialectBuilder}。
+ * <p>
+ * 它不支持任何连接，仅用于{@linkplain DefaultDialectSource}试探未知数据库的分页实现。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class StandardDialectBuilder extends AbstractDialectBuilder
+{
+	public StandardDialectBuilder()
+	{
+		super();
+	}
+
+	@Override
+	public Dialect build(Connection cn)
+	{
+		return new StandardDialect(getIdentifierQuote(cn));
+	}
+
+	@Override
+	public boolean supports(Connection cn)
+	{
+		return false;
+	}
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain ArrayRow}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ArrayRowTest
+{
+	private ArrayRow.Header header = new ArrayRow.Header(new String[] { "ID", "NAME", "NOTE" });
+
+	@Test
+	public void headerTest()
+	{
+		assertEquals(3, this.header.size());
+		assertEquals(1, this.header.indexOf("NAME"));
+		assertEquals(-1, this.header.indexOf("name"));
+		assertEquals(-1, this.header.indexOf(null));
+
+		assertThrows(IllegalArgumentException.class, () -> new ArrayRow.Header(new String[] { "ID", "ID" }));
+		assertThrows(IllegalArgumentException.class, () -> new ArrayRow(this.header, new Object[] { 1 }));
+	}
+
+	@Test
+	public void getTest()
+	{
+		ArrayRow row = createRow();
+
+		assertEquals(1, row.get("ID"));
+		assertEquals("a", row.get("NAME"));
+		assertNull(row.get("NOTE"));
+		assertNull(row.get("NOT_EXISTS"));
+
+		assertEquals("d", row.getOrDefault("NOT_EXISTS", "d"));
+		assertNull(row.getOrDefault("NOTE", "d"));
+
+		assertTrue(row.containsKey("NOTE"));
+		assertFalse(row.containsKey("NOT_EXISTS"));
+		assertTrue(row.containsValue("a"));
+		assertTrue(row.containsValue(null));
+		assertFalse(row.containsValue("b"));
+
+		assertEquals(3, row.size());
+		assertFalse(row.isEmpty());
+		assertFalse(row.isInflated());
+	}
+
+	@Test
+	public void putTest()
+	{
+		ArrayRow row = createRow();
+
+		// 替换已有列的值不转换存储
+		assertEquals("a", row.put("NAME", "b"));
+		assertEquals("b", row.get("NAME"));
+		assertFalse(row.isInflated());
+
+		// 新增列时转换存储
+		assertNull(row.put("EXTRA", "e"));
+		assertTrue(row.isInflated());
+		assertEquals(4, row.size());
+		assertEquals("e", row.get("EXTRA"));
+		assertEquals("b", row.get("NAME"));
+		assertEquals(1, row.get("ID"));
+		assertTrue(row.containsKey("NOTE"));
+
+		Map<String, Object> map = new HashMap<>();
+		map.put("ID", 2);
+		map.put("OTHER", "o");
+
+		row.putAll(map);
+
+		assertEquals(5, row.size());
+		assertEquals(2, row.get("ID"));
+		assertEquals("o", row.get("OTHER"));
+	}
+
+	@Test
+	public void removeTest()
+	{
+		ArrayRow row = createRow();
+
+		assertEquals("a", row.remove("NAME"));
+		assertTrue(row.isInflated());
+		assertEquals(2, row.size());
+		assertFalse(row.containsKey("NAME"));
+		assertNull(row.get("NAME"));
+		assertEquals(1, row.get("ID"));
+
+		assertNull(row.remove("NOT_EXISTS"));
+		assertEquals(2, row.size());
+
+		ArrayRow row1 = createRow();
+		row1.clear();
+
+		assertTrue(row1.isEmpty());
+		assertNull(row1.get("ID"));
+	}
+
+	@Test
+	public void iterateTest()
+	{
+		ArrayRow row = createRow();
+
+		// 遍历顺序即列顺序
+		assertEquals(Arrays.asList("ID", "NAME", "NOTE"), new ArrayList<>(row.keySet()));
+		assertEquals(Arrays.asList(1, "a", null), new ArrayList<>(row.values()));
+
+		List<String> names = new ArrayList<>();
+		row.forEach((k, v) -> names.add(k));
+		assertEquals(Arrays.asList("ID", "NAME", "NOTE"), names);
+
+		// 通过条目修改值
+		for (Map.Entry<String, Object> entry : row.entrySet())
+		{
+			if ("NOTE".equals(entry.getKey()))
+				entry.setValue("n");
+		}
+
+		assertEquals("n", row.get("NOTE"));
+		assertFalse(row.isInflated());
+	}
+
+	@Test
+	public void iterateTest_afterMutation()
+	{
+		ArrayRow row = createRow();
+
+		// 转换存储前获取的视图
+		Set<String> keySet = row.keySet();
+		Collection<Object> values = row.values();
+		Set<Map.Entry<String, Object>> entrySet = row.entrySet();
+
+		row.put("EXTRA", "e");
+		row.remove("NOTE");
+
+		Set<String> expectedKeys = new HashSet<>(Arrays.asList("ID", "NAME", "EXTRA"));
+
+		assertEquals(expectedKeys, new HashSet<>(keySet));
+		assertEquals(expectedKeys, new HashSet<>(row.keySet()));
+		assertEquals(new HashSet<>(Arrays.asList(1, "a", "e")), new HashSet<>(values));
+		assertEquals(3, entrySet.size());
+
+		Map<String, Object> entries = new HashMap<>();
+		for (Map.Entry<String, Object> entry : entrySet)
+			entries.put(entry.getKey(), entry.getValue());
+
+		assertEquals(row, entries);
+	}
+
+	@Test
+	public void iterateTest_removeWhileIterating()
+	{
+		ArrayRow row = createRow();
+
+		Iterator<Map.Entry<String, Object>> it = row.entrySet().iterator();
+
+		Map.Entry<String, Object> id = it.next();
+		it.remove();
+
+		// 迭代中途转换存储后仍然有效
+		assertTrue(row.isInflated());
+		assertEquals("ID", id.getKey());
+		assertTrue(it.hasNext());
+
+		Map.Entry<String, Object> name = it.next();
+		assertEquals("NAME", name.getKey());
+		assertEquals("a", name.getValue());
+
+		name.setValue("b");
+		assertEquals("b", row.get("NAME"));
+
+		assertEquals("NOTE", it.next().getKey());
+		assertFalse(it.hasNext());
+
+		assertThrows(IllegalStateException.class, () ->
+		{
+			Iterator<String> keyIt = createRow().keySet().iterator();
+			keyIt.remove();
+		});
+
+		assertEquals(2, row.size());
+		assertFalse(row.containsKey("ID"));
+	}
+
+	@Test
+	public void equalsAndHashCodeTest()
+	{
+		ArrayRow row = createRow();
+		Row expected = createExpectedRow();
+
+		assertEquals(expected, row);
+		assertEquals(row, expected);
+		assertEquals(expected.hashCode(), row.hashCode());
+		assertEquals(expected.toString().length(), row.toString().length());
+
+		// 替换已有列的值
+		row.put("NAME", "b");
+		expected.put("NAME", "b");
+
+		assertEquals(expected, row);
+		assertEquals(expected.hashCode(), row.hashCode());
+
+		// 转换存储后
+		row.put("EXTRA", "e");
+		assertFalse(expected.equals(row));
+
+		expected.put("EXTRA", "e");
+		assertEquals(expected, row);
+		assertEquals(expected.hashCode(), row.hashCode());
+
+		// 值不同
+		assertFalse(createRow().equals(createRow("x")));
+	}
+
+	@Test
+	public void cloneTest()
+	{
+		ArrayRow row = createRow();
+
+		Object clone = row.clone();
+
+		assertNotSame(row, clone);
+		assertEquals(row, clone);
+	}
+
+	@Test
+	public void serializeTest() throws Exception
+	{
+		ArrayRow row = createRow();
+
+		Object deserialized = serializeAndDeserialize(row);
+
+		// 序列化为普通行
+		assertEquals(Row.class, deserialized.getClass());
+		assertEquals(createExpectedRow(), deserialized);
+
+		// 转换存储后
+		row.put("EXTRA", "e");
+		row.remove("NOTE");
+
+		Row expected = createExpectedRow();
+		expected.put("EXTRA", "e");
+		expected.remove("NOTE");
+
+		deserialized = serializeAndDeserialize(row);
+
+		assertEquals(Row.class, deserialized.getClass());
+		assertEquals(expected, deserialized);
+
+		// 作为其他对象的属性
+		Object[] array = (Object[]) serializeAndDeserialize(new Object[] { createRow(), createRow("x") });
+
+		assertEquals(createExpectedRow(), array[0]);
+		assertEquals("x", ((Row) array[1]).get("NAME"));
+	}
+
+	protected Object serializeAndDeserialize(Object obj) throws Exception
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+		{
+			out.writeObject(obj);
+		}
+
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+		{
+			return in.readObject();
+		}
+	}
+
+	protected ArrayRow createRow()
+	{
+		return createRow("a");
+	}
+
+	protected ArrayRow createRow(String name)
+	{
+		return new ArrayRow(this.header, new Object[] { 1, name, null });
+	}
+
+	protected Row createExpectedRow()
+	{
+		Row row = new Row();
+		row.put("ID", 1);
+		row.put("NAME", "a");
+		row.put("NOTE", null);
+
+		return row;
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Types;
+
+import org.datagear.meta.Column;
+import org.datagear.meta.Index;
+import org.datagear.meta.PrimaryKey;
+import org.datagear.meta.SearchableType;
+import org.datagear.meta.Table;
+import org.datagear.persistence.KeywordMatchMode;
+import org.datagear.persistence.Query;
+import org.datagear.persistence.support.dialect.MysqlDialect;
+import org.datagear.persistence.support.dialect.StandardDialect;
+import org.datagear.util.Sql;
+import org.junit.Test;
+
+/**
+ * {@linkplain AbstractDialect}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class AbstractDialectTest
+{
+	private StandardDialect standardDialect = new StandardDialect("\"");
+
+	private MysqlDialect mysqlDialect = new MysqlDialect("`");
+
+	@Test
+	public void toKeywordQueryConditionTest_contains()
+	{
+		Table table = createTable();
+
+		assertEquals("\"CODE\" LIKE '%abc%' OR \"TITLE\" LIKE '%abc%'",
+				condition(this.standardDialect, table, query("abc", KeywordMatchMode.CONTAINS, false)));
+
+		// 未指定时默认为CONTAINS
+		assertEquals("\"CODE\" LIKE '%abc%' OR \"TITLE\" LIKE '%abc%'",
+				condition(this.standardDialect, table, query("abc", null, false)));
+
+		// 数值列仅匹配数值关键字
+		assertEquals("\"ID\" = 12 OR \"CODE\" LIKE '%12%' OR \"TITLE\" LIKE '%12%'",
+				condition(this.standardDialect, table, query("12", KeywordMatchMode.CONTAINS, false)));
+
+		// 已包含通配符时不再包裹
+		assertEquals("\"CODE\" LIKE '%abc' OR \"TITLE\" LIKE '%abc'",
+				condition(this.standardDialect, table, query("%abc", KeywordMatchMode.CONTAINS, false)));
+
+		assertEquals("\"CODE\" NOT LIKE '%abc%' AND \"TITLE\" NOT LIKE '%abc%'",
+				condition(this.standardDialect, table, query("abc", KeywordMatchMode.CONTAINS, true)));
+	}
+
+	@Test
+	public void toKeywordQueryConditionTest_prefix()
+	{
+		Table table = createTable();
+
+		assertEquals("\"CODE\" LIKE 'abc%' OR \"TITLE\" LIKE 'abc%'",
+				condition(this.standardDialect, table, query("abc", KeywordMatchMode.PREFIX, false)));
+
+		assertEquals("\"CODE\" NOT LIKE 'abc%' AND \"TITLE\" NOT LIKE 'abc%'",
+				condition(this.standardDialect, table, query("abc", KeywordMatchMode.PREFIX, true)));
+	}
+
+	@Test
+	public void toKeywordQueryConditionTest_exact()
+	{
+		Table table = createTable();
+
+		assertEquals("\"CODE\" = 'abc' OR \"TITLE\" = 'abc'",
+				condition(this.standardDialect, table, query("abc", KeywordMatchMode.EXACT, false)));
+
+		assertEquals("\"CODE\" != 'abc' AND \"TITLE\" != 'abc'",
+				condition(this.standardDialect, table, query("abc", KeywordMatchMode.EXACT, true)));
+
+		// 仅支持LIKE的列
+		Query query = query("abc", KeywordMatchMode.EXACT, false);
+		query.setKeywordColumn("CONTENT");
+
+		assertEquals("\"CONTENT\" LIKE 'abc'", condition(this.standardDialect, table, query));
+
+		query.setNotLike(true);
+
+		assertEquals("\"CONTENT\" NOT LIKE 'abc'", condition(this.standardDialect, table, query));
+	}
+
+	@Test
+	public void toKeywordQueryConditionTest_indexed()
+	{
+		Table table = createTable();
+
+		// 不支持全文检索时，仅以前缀匹配索引首列
+		assertEquals("\"CODE\" LIKE 'abc%'",
+				condition(this.standardDialect, table, query("abc", KeywordMatchMode.INDEXED, false)));
+
+		assertEquals("\"ID\" = 12 OR \"CODE\" LIKE '12%'",
+				condition(this.standardDialect, table, query("12", KeywordMatchMode.INDEXED, false)));
+
+		// 支持全文检索
+		assertEquals("MATCH (`CONTENT`) AGAINST ('abc' IN NATURAL LANGUAGE MODE) OR `CODE` LIKE 'abc%'",
+				condition(this.mysqlDialect, table, query("abc", KeywordMatchMode.INDEXED, false)));
+
+		assertEquals("NOT (MATCH (`CONTENT`) AGAINST ('abc' IN NATURAL LANGUAGE MODE)) AND `CODE` NOT LIKE 'abc%'",
+				condition(this.mysqlDialect, table, query("abc", KeywordMatchMode.INDEXED, true)));
+
+		// 指定列
+		Query query = query("abc", KeywordMatchMode.INDEXED, false);
+		query.setKeywordColumn("CONTENT");
+
+		assertEquals("MATCH (`CONTENT`) AGAINST ('abc' IN NATURAL LANGUAGE MODE)",
+				condition(this.mysqlDialect, table, query));
+		assertEquals("\"CONTENT\" LIKE '%abc%'", condition(this.standardDialect, table, query));
+
+		query.setKeywordColumn("TITLE");
+
+		assertEquals("\"TITLE\" LIKE '%abc%'", condition(this.standardDialect, table, query));
+
+		query.setKeywordColumn("CODE");
+		query.setNotLike(true);
+
+		assertEquals("\"CODE\" NOT LIKE 'abc%'", condition(this.standardDialect, table, query));
+	}
+
+	@Test
+	public void toKeywordQueryConditionTest_indexedFallback()
+	{
+		Table table = createTable();
+		table.setPrimaryKey(null);
+		table.setIndexes(null);
+
+		// 没有索引列时采用CONTAINS
+		assertEquals("\"CODE\" LIKE '%abc%' OR \"TITLE\" LIKE '%abc%'",
+				condition(this.standardDialect, table, query("abc", KeywordMatchMode.INDEXED, false)));
+
+		assertEquals("\"CODE\" NOT LIKE '%abc%' AND \"TITLE\" NOT LIKE '%abc%'",
+				condition(this.standardDialect, table, query("abc", KeywordMatchMode.INDEXED, true)));
+	}
+
+	@Test
+	public void toKeywordQueryConditionTest_parameterized()
+	{
+		Table table = createTable();
+
+		Sql sql = this.standardDialect.toKeywordQueryCondition(table, query("abc", KeywordMatchMode.PREFIX, true),
+				true);
+
+		assertEquals("\"CODE\" NOT LIKE ? AND \"TITLE\" NOT LIKE ?", sql.getSqlValue());
+		assertEquals(2, sql.getParamValues().size());
+		assertEquals("abc%", sql.getParamValues().get(0).getValue());
+		assertEquals("abc%", sql.getParamValues().get(1).getValue());
+
+		// 没有关键字
+		assertTrue(this.standardDialect.toKeywordQueryCondition(table, new Query(), true).isEmpty());
+	}
+
+	protected String condition(AbstractDialect dialect, Table table, Query query)
+	{
+		return dialect.toKeywordQueryCondition(table, query, false).getSqlValue();
+	}
+
+	protected Query query(String keyword, KeywordMatchMode matchMode, boolean notLike)
+	{
+		Query query = new Query(keyword);
+		query.setKeywordMatchMode(matchMode);
+		query.setNotLike(notLike);
+
+		return query;
+	}
+
+	/**
+	 * 创建测试表：主键{@code ID}、唯一索引{@code CODE}、普通列{@code TITLE}、全文索引{@code CONTENT}、
+	 * 不可查询列{@code DATA}。
+	 * 
+	 * @return
+	 */
+	protected Table createTable()
+	{
+		Column id = new Column("ID", Types.INTEGER);
+		Column code = createColumn("CODE", Types.VARCHAR, SearchableType.ALL);
+		Column title = createColumn("TITLE", Types.VARCHAR, SearchableType.ALL);
+		Column content = createColumn("CONTENT", Types.LONGVARCHAR, SearchableType.ONLY_LIKE);
+		Column data = createColumn("DATA", Types.BLOB, SearchableType.NO);
+
+		Table table = new Table("T_ARTICLE", "TABLE", new Column[] { id, code, title, content, data });
+		table.setPrimaryKey(new PrimaryKey(new String[] { "ID" }));
+
+		Index codeIndex = new Index(new String[] { "CODE" });
+		codeIndex.setKeyName("UK_CODE");
+		codeIndex.setUnique(true);
+
+		Index contentIndex = new Index(new String[] { "CONTENT" });
+		contentIndex.setKeyName("FT_CONTENT");
+		contentIndex.setFullText(true);
+
+		table.setIndexes(new Index[] { codeIndex, contentIndex });
+
+		return table;
+	}
+
+	protected Column createColumn(String name, int type, SearchableType searchableType)
+	{
+		Column column = new Column(name, type);
+		column.setSearchableType(searchableType);
+
+		return column;
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.meta.resolver.GenericDBMetaResolver;
+import org.datagear.persistence.Dialect;
+import org.datagear.persistence.DialectBuilder;
+import org.datagear.persistence.support.DefaultDialectSource.CombinedDialect;
+import org.datagear.persistence.support.dialect.DerbyDialectBuilder;
+import org.datagear.persistence.support.dialect.MysqlDialect;
+import org.datagear.persistence.support.dialect.MysqlDialectBuilder;
+import org.datagear.persistence.support.dialect.SqliteDialect;
+import org.datagear.persistence.support.dialect.SqliteDialectBuilder;
+import org.datagear.persistence.support.dialect.StandardDialect;
+import org.datagear.persistence.support.dialect.StandardDialectBuilder;
+import org.datagear.util.FileUtil;
+import org.datagear.util.IOUtil;
+import org.datagear.util.JdbcUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain DefaultDialectSource}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DefaultDialectSourceTest
+{
+	private static final String URL = "jdbc:derby:memory:DefaultDialectSourceTest";
+
+	private GenericDBMetaResolver dbMetaResolver = new GenericDBMetaResolver();
+
+	private File directory;
+
+	private Connection connection;
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL + ";create=true");
+		Statement st = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_DIALECT (ID INT NOT NULL PRIMARY KEY, NAME VARCHAR(50))");
+
+			for (int i = 1; i <= 10; i++)
+				st.executeUpdate("INSERT INTO T_DIALECT (ID, NAME) VALUES (" + i + ", 'name-" + i + "')");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void destroyDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (Exception e)
+		{
+		}
+	}
+
+	@Before
+	public void init() throws Exception
+	{
+		this.directory = FileUtil.getDirectory("target/DefaultDialectSourceTest", true);
+		FileUtil.clearDirectory(this.directory);
+
+		this.connection = DriverManager.getConnection(URL);
+	}
+
+	@After
+	public void destroy() throws Exception
+	{
+		JdbcUtil.closeConnection(this.connection);
+	}
+
+	@Test
+	public void storeDetectionFileTest() throws Exception
+	{
+		File file = FileUtil.getFile(this.directory, "storeDetectionFileTest.properties");
+
+		Properties properties = new Properties();
+		properties.setProperty("url.jdbc:test:", "mysql");
+		writeProperties(file, properties);
+
+		CountingDialectSource dialectSource = createDetectiveDialectSource(file);
+
+		Dialect dialect = dialectSource.getDialect(this.connection);
+
+		assertTrue(dialect instanceof CombinedDialect);
+		assertTrue(((CombinedDialect) dialect).getToPagingQuerySqlDialect() instanceof StandardDialect);
+		assertEquals(3, dialectSource.getTestCount());
+
+		properties = readProperties(file);
+
+		assertEquals("standard",
+				properties.getProperty("database." + dialectSource.getDetectionKey(this.connection)));
+		// 已有的URL方言条目应保留
+		assertEquals("mysql", properties.getProperty("url.jdbc:test:"));
+
+		// 不应残留临时文件
+		assertEquals(1, this.directory.listFiles().length);
+	}
+
+	@Test
+	public void loadDetectionFileTest() throws Exception
+	{
+		File file = FileUtil.getFile(this.directory, "loadDetectionFileTest.properties");
+
+		CountingDialectSource dialectSource = createDetectiveDialectSource(file);
+		String detectionKey = dialectSource.getDetectionKey(this.connection);
+
+		assertNotNull(detectionKey);
+
+		// 存储与试探结果不同的方言，以验证采用了存储文件而非重新试探
+		Properties properties = new Properties();
+		properties.setProperty("database." + detectionKey, "mysql");
+		writeProperties(file, properties);
+
+		Dialect dialect = dialectSource.getDialect(this.connection);
+
+		assertTrue(dialect instanceof CombinedDialect);
+		assertTrue(((CombinedDialect) dialect).getToPagingQuerySqlDialect() instanceof MysqlDialect);
+		assertEquals(0, dialectSource.getTestCount());
+
+		// 存储为无分页方言
+		properties.setProperty("database." + detectionKey, DefaultDialectSource.DIALECT_NAME_NONE);
+		writeProperties(file, properties);
+
+		dialectSource = createDetectiveDialectSource(file);
+		dialect = dialectSource.getDialect(this.connection);
+
+		assertTrue(dialect instanceof CombinedDialect);
+		assertFalse(dialect.supportsPagingSql());
+		assertEquals(0, dialectSource.getTestCount());
+	}
+
+	@Test
+	public void urlDialectNamesTest() throws Exception
+	{
+		DefaultDialectSource dialectSource = new DefaultDialectSource(this.dbMetaResolver);
+
+		// 未设置时，采用匹配的方言构建器
+		assertFalse(dialectSource.getDialect(this.connection) instanceof MysqlDialect);
+
+		Map<String, String> urlDialectNames = new HashMap<>();
+		urlDialectNames.put("jdbc:derby:", "mysql");
+		urlDialectNames.put("jdbc:derby:memory:", "sqlite");
+		urlDialectNames.put("jdbc:other:", "standard");
+		dialectSource.setUrlDialectNames(urlDialectNames);
+
+		// 最长前缀匹配
+		assertTrue(dialectSource.getDialect(this.connection) instanceof SqliteDialect);
+
+		// 没有此名称的方言时，采用匹配的方言构建器
+		urlDialectNames.put("jdbc:derby:memory:", "not-exists");
+		dialectSource.setUrlDialectNames(urlDialectNames);
+
+		assertFalse(dialectSource.getDialect(this.connection) instanceof SqliteDialect);
+	}
+
+	@Test
+	public void urlDialectNamesTest_detectionFile() throws Exception
+	{
+		File file = FileUtil.getFile(this.directory, "urlDialectNamesTest_detectionFile.properties");
+
+		Properties properties = new Properties();
+		properties.setProperty("url.jdbc:derby:memory:", "mysql");
+		properties.setProperty("url.jdbc:other:", "sqlite");
+		writeProperties(file, properties);
+
+		// 存储文件中的URL方言
+		{
+			DefaultDialectSource dialectSource = new DefaultDialectSource(this.dbMetaResolver);
+			dialectSource.setDetectionFile(file);
+
+			assertTrue(dialectSource.getDialect(this.connection) instanceof MysqlDialect);
+		}
+
+		// 加载前设置的URL方言优先于存储文件中的相同前缀条目
+		{
+			DefaultDialectSource dialectSource = new DefaultDialectSource(this.dbMetaResolver);
+			dialectSource.setDetectionFile(file);
+
+			Map<String, String> urlDialectNames = new HashMap<>();
+			urlDialectNames.put("jdbc:derby:memory:", "sqlite");
+			dialectSource.setUrlDialectNames(urlDialectNames);
+
+			assertTrue(dialectSource.getDialect(this.connection) instanceof SqliteDialect);
+			assertEquals("sqlite", dialectSource.getUrlDialectNames().get("jdbc:other:"));
+		}
+
+		// 加载后设置的URL方言不应丢弃存储文件中的条目
+		{
+			DefaultDialectSource dialectSource = new DefaultDialectSource(this.dbMetaResolver);
+			dialectSource.setDetectionFile(file);
+
+			assertTrue(dialectSource.getDialect(this.connection) instanceof MysqlDialect);
+
+			Map<String, String> urlDialectNames = new HashMap<>();
+			urlDialectNames.put("jdbc:another:", "standard");
+			dialectSource.setUrlDialectNames(urlDialectNames);
+
+			assertTrue(dialectSource.getDialect(this.connection) instanceof MysqlDialect);
+			assertEquals("sqlite", dialectSource.getUrlDialectNames().get("jdbc:other:"));
+			assertEquals("standard", dialectSource.getUrlDialectNames().get("jdbc:another:"));
+		}
+	}
+
+	/**
+	 * 创建不包含{@linkplain DerbyDialectBuilder}的、需试探Derby分页方言的{@linkplain CountingDialectSource}。
+	 *
+	 * @param detectionFile
+	 * @return
+	 */
+	protected CountingDialectSource createDetectiveDialectSource(File detectionFile)
+	{
+		List<DialectBuilder> dialectBuilders = new ArrayList<>();
+		dialectBuilders.add(new MysqlDialectBuilder());
+		dialectBuilders.add(new SqliteDialectBuilder());
+		dialectBuilders.add(new StandardDialectBuilder());
+
+		CountingDialectSource dialectSource = new CountingDialectSource(this.dbMetaResolver);
+		dialectSource.setDialectBuilders(dialectBuilders);
+		dialectSource.setDetectionFile(detectionFile);
+
+		return dialectSource;
+	}
+
+	protected Properties readProperties(File file) throws IOException
+	{
+		Properties properties = new Properties();
+
+		Reader reader = null;
+		try
+		{
+			reader = IOUtil.getReader(file, IOUtil.CHARSET_UTF_8);
+			properties.load(reader);
+		}
+		finally
+		{
+			IOUtil.close(reader);
+		}
+
+		return properties;
+	}
+
+	protected void writeProperties(File file, Properties properties) throws IOException
+	{
+		Writer writer = null;
+		try
+		{
+			writer = IOUtil.getWriter(file, IOUtil.CHARSET_UTF_8);
+			properties.store(writer, null);
+		}
+		finally
+		{
+			IOUtil.close(writer);
+		}
+	}
+
+	protected static class CountingDialectSource extends DefaultDialectSource
+	{
+		private final AtomicInteger testCount = new AtomicInteger(0);
+
+		public CountingDialectSource(GenericDBMetaResolver dbMetaResolver)
+		{
+			super(dbMetaResolver);
+		}
+
+		public int getTestCount()
+		{
+			return testCount.get();
+		}
+
+		@Override
+		protected boolean testDialectToPagingSql(Connection cn, DatabaseMetaData databaseMetaData,
+				TestInfo testInfo, Dialect dialect) throws Exception
+		{
+			this.testCount.incrementAndGet();
+			return super.testDialectToPagingSql(cn, databaseMetaData, testInfo, dialect);
+		}
+	}
+}
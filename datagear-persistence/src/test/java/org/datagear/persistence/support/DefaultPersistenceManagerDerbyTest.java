@@ -0,0 +1,511 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence.support;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.datagear.meta.Table;
+import org.datagear.meta.resolver.GenericDBMetaResolver;
+import org.datagear.persistence.Order;
+import org.datagear.persistence.PagingCountMode;
+import org.datagear.persistence.PagingData;
+import org.datagear.persistence.PagingQuery;
+import org.datagear.persistence.Row;
+import org.datagear.persistence.RowHandler;
+import org.datagear.persistence.support.DefaultPersistenceManager.PageRowHandler;
+import org.datagear.persistence.support.dialect.StandardDialect;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.Sql;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 基于Derby内存数据库的{@linkplain DefaultPersistenceManager}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DefaultPersistenceManagerDerbyTest
+{
+	private static final String URL = "jdbc:derby:memory:DefaultPersistenceManagerDerbyTest";
+
+	private static final int ROW_COUNT = 25;
+
+	/** 表统计信息的估算记录数 */
+	private static final long ESTIMATED_COUNT = 1000;
+
+	private GenericDBMetaResolver dbMetaResolver = new GenericDBMetaResolver();
+
+	private DefaultPersistenceManager persistenceManager = new DefaultPersistenceManager(
+			new DefaultDialectSource(this.dbMetaResolver));
+
+	private Connection connection;
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL + ";create=true");
+		Statement st = null;
+		PreparedStatement pst = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_PAGING (ID INT NOT NULL PRIMARY KEY, NAME VARCHAR(50))");
+			st.executeUpdate("CREATE TABLE T_BATCH (ID INT NOT NULL PRIMARY KEY, NAME VARCHAR(50), NOTE VARCHAR(50))");
+			st.executeUpdate("CREATE TABLE T_KEYSET (ID BIGINT NOT NULL PRIMARY KEY, CODE VARCHAR(20) NOT NULL,"
+					+ " AMOUNT DECIMAL(10, 2) NOT NULL, BIRTHDAY DATE NOT NULL, SCORE DOUBLE NOT NULL,"
+					+ " CREATED TIMESTAMP NOT NULL, NOTE VARCHAR(20))");
+
+			pst = cn.prepareStatement("INSERT INTO T_PAGING (ID, NAME) VALUES (?, ?)");
+
+			for (int i = 1; i <= ROW_COUNT; i++)
+			{
+				pst.setInt(1, i);
+				pst.setString(2, "name-" + i);
+				pst.executeUpdate();
+			}
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(pst);
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void destroyDatabase() throws Exception
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是会抛出异常
+		}
+	}
+
+	@Before
+	public void init() throws Exception
+	{
+		this.connection = DriverManager.getConnection(URL);
+	}
+
+	@After
+	public void destroy()
+	{
+		JdbcUtil.closeConnection(this.connection);
+	}
+
+	@Test
+	public void pagingQueryTest_exact() throws Exception
+	{
+		Table table = getTable();
+
+		PagingData<Row> pagingData = pagingQuery(table, 3, PagingCountMode.EXACT, null);
+
+		assertEquals(ROW_COUNT, pagingData.getTotal());
+		assertFalse(pagingData.isTotalEstimated());
+		assertEquals(3, pagingData.getPages());
+		assertEquals(5, pagingData.getItems().size());
+		assertFalse(pagingData.isHasNextPage());
+	}
+
+	@Test
+	public void pagingQueryTest_estimated() throws Exception
+	{
+		Table table = getTable();
+
+		// 使用统计信息估算总记录数
+		{
+			PagingData<Row> pagingData = pagingQuery(table, 1, PagingCountMode.ESTIMATED, null);
+
+			assertEquals(ESTIMATED_COUNT, pagingData.getTotal());
+			assertTrue(pagingData.isTotalEstimated());
+			assertEquals(10, pagingData.getItems().size());
+			assertTrue(pagingData.isHasNextPage());
+		}
+
+		// 有查询条件时无法估算
+		{
+			PagingData<Row> pagingData = pagingQuery(table, 1, PagingCountMode.ESTIMATED, "ID > 20");
+
+			assertTrue(pagingData.isTotalUnknown());
+			assertEquals(5, pagingData.getItems().size());
+			assertFalse(pagingData.isHasNextPage());
+		}
+
+		// 估算值不应小于已确知的记录数
+		{
+			PagingData<Row> pagingData = this.persistenceManager.pagingQuery(this.connection,
+					new EstimatedCountDialect(3), table, createPagingQuery(2, PagingCountMode.ESTIMATED, null), null);
+
+			assertEquals(21, pagingData.getTotal());
+			assertTrue(pagingData.isTotalEstimated());
+			assertTrue(pagingData.isHasNextPage());
+		}
+	}
+
+	@Test
+	public void pagingQueryTest_cached() throws Exception
+	{
+		Table table = getTable();
+
+		// 不统计总记录数，由调用方设置缓存值
+		{
+			PagingData<Row> pagingData = pagingQuery(table, 1, PagingCountMode.CACHED, null);
+
+			assertTrue(pagingData.isTotalUnknown());
+			assertEquals(10, pagingData.getItems().size());
+			assertTrue(pagingData.isHasNextPage());
+
+			pagingData.updateTotal(ROW_COUNT, false);
+
+			assertEquals(3, pagingData.getPages());
+			assertTrue(pagingData.isHasNextPage());
+		}
+
+		{
+			PagingData<Row> pagingData = pagingQuery(table, 3, PagingCountMode.CACHED, null);
+
+			assertTrue(pagingData.isTotalUnknown());
+			assertEquals(5, pagingData.getItems().size());
+			assertFalse(pagingData.isHasNextPage());
+		}
+
+		assertEquals(ROW_COUNT, this.persistenceManager.count(this.connection, table, new PagingQuery()));
+	}
+
+	@Test
+	public void getKeysetOrdersTest() throws Exception
+	{
+		Table table = this.dbMetaResolver.getTable(this.connection, "T_KEYSET");
+
+		assertArrayEquals(new String[] { "ID" }, keysetNames(table));
+		assertArrayEquals(new String[] { "CODE", "ID" }, keysetNames(table, "CODE"));
+		assertArrayEquals(new String[] { "AMOUNT", "BIRTHDAY", "ID" }, keysetNames(table, "AMOUNT", "BIRTHDAY"));
+
+		// 浮点数、时间戳经JSON往返后可能无法精确比较
+		assertNull(keysetNames(table, "SCORE"));
+		assertNull(keysetNames(table, "CREATED"));
+		assertNull(keysetNames(table, "CODE", "CREATED"));
+
+		// 允许为null
+		assertNull(keysetNames(table, "NOTE"));
+	}
+
+	@Test
+	public void pagingQueryTest_keyset() throws Exception
+	{
+		Table table = getTable();
+
+		// 向后翻页
+		{
+			PagingQuery pagingQuery = createPagingQuery(2, PagingCountMode.CACHED, null);
+			pagingQuery.setKeyset(keyset(10));
+
+			PagingData<Row> pagingData = this.persistenceManager.pagingQuery(this.connection, null, table,
+					pagingQuery, null);
+
+			assertArrayEquals(new String[] { "ID" }, pagingData.getKeysetNames());
+			assertEquals(11, rowId(pagingData.getItems().get(0)));
+			assertEquals(20, rowId(pagingData.getItems().get(9)));
+			assertTrue(pagingData.isHasNextPage());
+		}
+
+		// 向前翻页，结果仍是正序
+		{
+			PagingQuery pagingQuery = createPagingQuery(2, PagingCountMode.CACHED, null);
+			pagingQuery.setKeyset(keyset(21));
+			pagingQuery.setKeysetBackward(true);
+
+			PagingData<Row> pagingData = this.persistenceManager.pagingQuery(this.connection, null, table,
+					pagingQuery, null);
+
+			assertEquals(10, pagingData.getItems().size());
+			assertEquals(11, rowId(pagingData.getItems().get(0)));
+			assertEquals(20, rowId(pagingData.getItems().get(9)));
+			assertTrue(pagingData.isHasNextPage());
+		}
+	}
+
+	@Test
+	public void pageRowHandlerTest_overflow() throws Exception
+	{
+		// 超出当前页的行被忽略
+		{
+			CollectRowHandler target = new CollectRowHandler();
+			PageRowHandler pageRowHandler = handleRows(new PageRowHandler(target, 3, false), 1, 2, 3, 4, 5);
+
+			assertEquals(Arrays.asList(1, 2, 3), target.ids);
+			assertEquals(Arrays.asList(1, 2, 3), target.rowIndexes);
+			assertEquals(3, pageRowHandler.getCount());
+			assertTrue(pageRowHandler.isOverflow());
+		}
+
+		// 恰好一页
+		{
+			CollectRowHandler target = new CollectRowHandler();
+			PageRowHandler pageRowHandler = handleRows(new PageRowHandler(target, 3, false), 1, 2, 3);
+
+			assertEquals(Arrays.asList(1, 2, 3), target.ids);
+			assertFalse(pageRowHandler.isOverflow());
+		}
+
+		// 不限制
+		{
+			CollectRowHandler target = new CollectRowHandler();
+			PageRowHandler pageRowHandler = handleRows(new PageRowHandler(target, -1, false), 1, 2, 3, 4, 5);
+
+			assertEquals(Arrays.asList(1, 2, 3, 4, 5), target.ids);
+			assertFalse(pageRowHandler.isOverflow());
+		}
+	}
+
+	@Test
+	public void pageRowHandlerTest_reverse() throws Exception
+	{
+		// 键集分页向前查找：逆序查询，多查询的行在末尾
+		{
+			CollectRowHandler target = new CollectRowHandler();
+			PageRowHandler pageRowHandler = new PageRowHandler(target, 3, true);
+			handleRows(pageRowHandler, 5, 4, 3, 2);
+
+			// finish之前不处理
+			assertTrue(target.ids.isEmpty());
+
+			pageRowHandler.finish(null);
+
+			assertEquals(Arrays.asList(3, 4, 5), target.ids);
+			assertEquals(Arrays.asList(1, 2, 3), target.rowIndexes);
+			assertEquals(3, pageRowHandler.getCount());
+			assertTrue(pageRowHandler.isOverflow());
+		}
+
+		// 不足一页
+		{
+			CollectRowHandler target = new CollectRowHandler();
+			PageRowHandler pageRowHandler = new PageRowHandler(target, 3, true);
+			handleRows(pageRowHandler, 2, 1);
+			pageRowHandler.finish(null);
+
+			assertEquals(Arrays.asList(1, 2), target.ids);
+			assertFalse(pageRowHandler.isOverflow());
+		}
+	}
+
+	@Test
+	public void batchTest_order() throws Exception
+	{
+		Table table = this.dbMetaResolver.getTable(this.connection, "T_BATCH");
+
+		Statement st = this.connection.createStatement();
+		try
+		{
+			st.executeUpdate("DELETE FROM T_BATCH");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+		}
+
+		// 不同列结构的行交替插入
+		{
+			Row[] rows = new Row[] { batchRow(1, "name-1", null), batchRow(2, null, "note-2"),
+					batchRow(3, "name-3", null), batchRow(4, null, "note-4") };
+
+			assertEquals(4, this.persistenceManager.insert(this.connection, table, rows));
+			assertEquals(Arrays.asList("1:name-1:null", "2:null:note-2", "3:name-3:null", "4:null:note-4"),
+					queryBatchRows());
+		}
+
+		// 后面的行依赖于前面不同列结构的行的执行结果，应按照行顺序执行
+		{
+			Row[] origins = new Row[] { batchRow(1), batchRow(1), batchRow(101) };
+
+			Row[] updates = new Row[3];
+			updates[0] = new Row();
+			updates[0].put("NAME", "name-1-a");
+			updates[1] = new Row();
+			updates[1].put("ID", 101);
+			updates[2] = new Row();
+			updates[2].put("NAME", "name-101");
+
+			assertEquals(3, this.persistenceManager.update(this.connection, table, origins, updates));
+			assertEquals(Arrays.asList("2:null:note-2", "3:name-3:null", "4:null:note-4", "101:name-101:null"),
+					queryBatchRows());
+		}
+	}
+
+	protected Row batchRow(int id)
+	{
+		Row row = new Row();
+		row.put("ID", id);
+
+		return row;
+	}
+
+	/**
+	 * 创建{@code T_BATCH}表的行，值为{@code null}的列不包含在行中。
+	 * 
+	 * @param id
+	 * @param name
+	 * @param note
+	 * @return
+	 */
+	protected Row batchRow(int id, String name, String note)
+	{
+		Row row = batchRow(id);
+
+		if (name != null)
+			row.put("NAME", name);
+		if (note != null)
+			row.put("NOTE", note);
+
+		return row;
+	}
+
+	protected List<String> queryBatchRows() throws SQLException
+	{
+		List<String> re = new ArrayList<>();
+
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = this.connection.createStatement();
+			rs = st.executeQuery("SELECT ID, NAME, NOTE FROM T_BATCH ORDER BY ID");
+
+			while (rs.next())
+				re.add(rs.getInt(1) + ":" + rs.getString(2) + ":" + rs.getString(3));
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+		}
+
+		return re;
+	}
+
+	protected PageRowHandler handleRows(PageRowHandler pageRowHandler, int... ids)
+	{
+		for (int i = 0; i < ids.length; i++)
+			pageRowHandler.handle(null, i + 1, keyset(ids[i]));
+
+		return pageRowHandler;
+	}
+
+	protected String[] keysetNames(Table table, String... orderNames)
+	{
+		Order[] orders = new Order[orderNames.length];
+
+		for (int i = 0; i < orderNames.length; i++)
+			orders[i] = Order.valueOf(orderNames[i], Order.ASC);
+
+		Order[] keysetOrders = this.persistenceManager.getKeysetOrders(table, orders);
+
+		return (keysetOrders == null ? null : this.persistenceManager.getOrderNames(keysetOrders));
+	}
+
+	protected Row keyset(int id)
+	{
+		Row row = new Row();
+		row.put("ID", id);
+
+		return row;
+	}
+
+	protected int rowId(Row row)
+	{
+		return ((Number) row.get("ID")).intValue();
+	}
+
+	protected PagingData<Row> pagingQuery(Table table, int page, PagingCountMode countMode, String condition)
+	{
+		return this.persistenceManager.pagingQuery(this.connection, new EstimatedCountDialect(ESTIMATED_COUNT), table,
+				createPagingQuery(page, countMode, condition), null);
+	}
+
+	protected PagingQuery createPagingQuery(int page, PagingCountMode countMode, String condition)
+	{
+		PagingQuery pagingQuery = new PagingQuery(page, 10);
+		pagingQuery.setCountMode(countMode);
+		pagingQuery.setCondition(condition);
+
+		return pagingQuery;
+	}
+
+	protected Table getTable()
+	{
+		return this.dbMetaResolver.getTable(this.connection, "T_PAGING");
+	}
+
+	/**
+	 * 收集所处理行的{@linkplain RowHandler}。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class CollectRowHandler implements RowHandler
+	{
+		private final List<Integer> ids = new ArrayList<>();
+
+		private final List<Integer> rowIndexes = new ArrayList<>();
+
+		@Override
+		public void handle(Table table, int rowIndex, Row row)
+		{
+			this.ids.add(rowId(row));
+			this.rowIndexes.add(rowIndex);
+		}
+	}
+
+	/**
+	 * 从表统计信息估算记录数的Derby方言，估算值固定。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class EstimatedCountDialect extends StandardDialect
+	{
+		private final long estimatedCount;
+
+		public EstimatedCountDialect(long estimatedCount)
+		{
+			super("\"");
+			this.estimatedCount = estimatedCount;
+		}
+
+		@Override
+		public Sql toEstimatedCountSql(Table table)
+		{
+			return Sql.valueOf("SELECT CAST(" + this.estimatedCount + " AS BIGINT) FROM SYSIBM.SYSDUMMY1");
+		}
+	}
+}
@@ -11,12 +11,14 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.datagear.meta.Table;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.persistence.PersistenceTestSupport;
+import org.datagear.persistence.Query;
 import org.datagear.persistence.Row;
 import org.junit.Test;
 
@@ -71,6 +73,82 @@ public class DefaultPersistenceManagerTest extends PersistenceTestSupport
 		}
 	}
 
+	@Test
+	public void batchInsertUpdateDeleteTest() throws Exception
+	{
+		Table table = this.genericDBMetaResolver.getTable(this.connection, "T_ACCOUNT");
+
+		int count = 3;
+		Row[] rows = new Row[count];
+		Row[] updates = new Row[count];
+
+		for (int i = 0; i < count; i++)
+		{
+			rows[i] = new Row();
+			rows[i].put("ID", 999999990 + i);
+			rows[i].put("NAME", "NAME-FOR-TEST-" + i);
+
+			// 不同列结构的行
+			if (i % 2 == 0)
+				rows[i].put("INTRODUCTION", "INTRODUCTION-for-test");
+
+			updates[i] = new Row(rows[i]);
+			updates[i].put("NAME", "NAME-FOR-TEST-UPDATE-" + i);
+		}
+
+		try
+		{
+			this.defaultPersistenceManager.delete(connection, table, rows);
+
+			assertEquals(count, this.defaultPersistenceManager.insert(connection, table, rows));
+			assertEquals(count, this.defaultPersistenceManager.update(connection, table, rows, updates));
+
+			for (int i = 0; i < count; i++)
+			{
+				Row actual = this.defaultPersistenceManager.get(connection, table, rows[i]);
+				assertEquals("NAME-FOR-TEST-UPDATE-" + i, actual.get("NAME"));
+			}
+
+			assertEquals(count, this.defaultPersistenceManager.delete(connection, table, rows));
+		}
+		finally
+		{
+			this.defaultPersistenceManager.delete(connection, table, rows);
+		}
+	}
+
+	@Test
+	public void deleteByQueryTest() throws Exception
+	{
+		Table table = this.genericDBMetaResolver.getTable(this.connection, "T_ACCOUNT");
+
+		Row[] rows = new Row[2];
+
+		for (int i = 0; i < rows.length; i++)
+		{
+			rows[i] = new Row();
+			rows[i].put("ID", 999999990 + i);
+			rows[i].put("NAME", "NAME-FOR-DELETE-BY-QUERY-TEST");
+		}
+
+		Query query = new Query();
+		query.setCondition("NAME = 'NAME-FOR-DELETE-BY-QUERY-TEST'");
+
+		try
+		{
+			this.defaultPersistenceManager.delete(connection, table, rows);
+			this.defaultPersistenceManager.insert(connection, table, rows);
+
+			assertEquals(2, this.defaultPersistenceManager.count(connection, table, query));
+			assertEquals(2, this.defaultPersistenceManager.delete(connection, table, query));
+			assertEquals(0, this.defaultPersistenceManager.count(connection, table, query));
+		}
+		finally
+		{
+			this.defaultPersistenceManager.delete(connection, table, rows);
+		}
+	}
+
 	@Test
 	public void pagingQueryTest()
 	{
@@ -82,4 +160,50 @@ public class DefaultPersistenceManagerTest extends PersistenceTestSupport
 
 		assertTrue(rows.size() <= 1);
 	}
+
+	@Test
+	public void keysetPagingQueryTest()
+	{
+		Table table = this.genericDBMetaResolver.getTable(this.connection, "T_ACCOUNT");
+
+		PagingQuery pagingQuery = new PagingQuery(1, 2);
+		PagingData<Row> page1 = this.defaultPersistenceManager.pagingQuery(connection, table, pagingQuery);
+
+		assertArrayEquals(new String[] { "ID" }, page1.getKeysetNames());
+
+		pagingQuery.setPage(2);
+		PagingData<Row> page2 = this.defaultPersistenceManager.pagingQuery(connection, table, pagingQuery);
+
+		if (page1.getItems().size() < 2 || page2.getItems().isEmpty())
+			return;
+
+		Row keyset = new Row();
+		keyset.put("ID", page1.getItems().get(1).get("ID"));
+		pagingQuery.setKeyset(keyset);
+
+		PagingData<Row> keysetPage2 = this.defaultPersistenceManager.pagingQuery(connection, table, pagingQuery);
+
+		assertEquals(getIds(page2.getItems()), getIds(keysetPage2.getItems()));
+
+		keyset = new Row();
+		keyset.put("ID", page2.getItems().get(0).get("ID"));
+		pagingQuery.setPage(1);
+		pagingQuery.setKeyset(keyset);
+		pagingQuery.setKeysetBackward(true);
+
+		// 第一页不使用键集分页
+		PagingData<Row> keysetPage1 = this.defaultPersistenceManager.pagingQuery(connection, table, pagingQuery);
+
+		assertEquals(getIds(page1.getItems()), getIds(keysetPage1.getItems()));
+	}
+
+	protected List<Object> getIds(List<Row> rows)
+	{
+		List<Object> ids = new ArrayList<>();
+
+		for (Row row : rows)
+			ids.add(row.get("ID"));
+
+		return ids;
+	}
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain Db2DialectBuilder}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class Db2DialectBuilderTest
+{
+	private Db2DialectBuilder dialectBuilder = new Db2DialectBuilder();
+
+	@Test
+	public void isOffsetSupportedTest()
+	{
+		// DB2 for LUW
+		assertFalse(this.dialectBuilder.isOffsetSupported(connection(9, 7, "SQL09070")));
+		assertFalse(this.dialectBuilder.isOffsetSupported(connection(10, 5, "SQL10050")));
+		assertFalse(this.dialectBuilder.isOffsetSupported(connection(11, 0, "SQL11000")));
+		assertTrue(this.dialectBuilder.isOffsetSupported(connection(11, 1, "SQL11010")));
+		assertTrue(this.dialectBuilder.isOffsetSupported(connection(11, 5, "SQL11050")));
+		assertTrue(this.dialectBuilder.isOffsetSupported(connection(12, 1, "SQL12010")));
+
+		// DB2 for z/OS
+		assertFalse(this.dialectBuilder.isOffsetSupported(connection(11, 1, "DSN11015")));
+		assertTrue(this.dialectBuilder.isOffsetSupported(connection(12, 1, "DSN12015")));
+
+		// 无法获取版本
+		assertFalse(this.dialectBuilder.isOffsetSupported(connection(-1, -1, null)));
+	}
+
+	@Test
+	public void buildTest() throws Exception
+	{
+		StandardDialect dialect = (StandardDialect) this.dialectBuilder.build(connection(10, 5, "SQL10050"));
+		assertFalse(dialect.isOffsetSupported());
+
+		dialect = (StandardDialect) this.dialectBuilder.build(connection(11, 5, "SQL11050"));
+		assertTrue(dialect.isOffsetSupported());
+	}
+
+	/**
+	 * 创建指定数据库版本的{@linkplain Connection}，主版本号小于{@code 0}表示获取版本时出错。
+	 * 
+	 * @param majorVersion
+	 * @param minorVersion
+	 * @param productVersion
+	 * @return
+	 */
+	protected Connection connection(int majorVersion, int minorVersion, String productVersion)
+	{
+		DatabaseMetaData metaData = (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { DatabaseMetaData.class }, (proxy, method, args) ->
+				{
+					if (majorVersion < 0)
+						throw new SQLException("version unavailable");
+
+					switch (method.getName())
+					{
+						case "getDatabaseMajorVersion":
+							return majorVersion;
+						case "getDatabaseMinorVersion":
+							return minorVersion;
+						case "getDatabaseProductVersion":
+							return productVersion;
+						case "getIdentifierQuoteString":
+							return "\"";
+						default:
+							throw new UnsupportedOperationException(method.getName());
+					}
+				});
+
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) ->
+				{
+					if ("getMetaData".equals(method.getName()))
+						return metaData;
+
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.datagear.persistence.Order;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.Sql;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 基于Derby内存数据库的{@linkplain StandardDialect}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class StandardDialectTest
+{
+	private static final String URL = "jdbc:derby:memory:StandardDialectTest";
+
+	private static final int ROW_COUNT = 25;
+
+	private Connection connection;
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		Connection cn = DriverManager.getConnection(URL + ";create=true");
+		Statement st = null;
+		PreparedStatement pst = null;
+
+		try
+		{
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_PAGING (ID INT NOT NULL PRIMARY KEY, NAME VARCHAR(50))");
+
+			pst = cn.prepareStatement("INSERT INTO T_PAGING (ID, NAME) VALUES (?, ?)");
+
+			for (int i = 1; i <= ROW_COUNT; i++)
+			{
+				pst.setInt(1, i);
+				pst.setString(2, "name-" + i);
+				pst.executeUpdate();
+			}
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(pst);
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void destroyDatabase() throws Exception
+	{
+		try
+		{
+			DriverManager.getConnection(URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库总是会抛出异常
+		}
+	}
+
+	@Before
+	public void init() throws Exception
+	{
+		this.connection = DriverManager.getConnection(URL);
+	}
+
+	@After
+	public void destroy()
+	{
+		JdbcUtil.closeConnection(this.connection);
+	}
+
+	@Test
+	public void toPagingQuerySqlTest() throws Exception
+	{
+		StandardDialect dialect = new StandardDialect("\"");
+
+		Order[] asc = { Order.valueOf("ID", Order.ASC) };
+		Order[] desc = { Order.valueOf("ID", Order.DESC) };
+
+		// 首页
+		assertEquals(Arrays.asList(1, 2, 3), queryIds(dialect, asc, 1, 3));
+		assertEquals(Arrays.asList(25, 24, 23), queryIds(dialect, desc, 1, 3));
+
+		// 后续页
+		assertEquals(Arrays.asList(11, 12, 13, 14, 15), queryIds(dialect, asc, 11, 5));
+		assertEquals(Arrays.asList(15, 14, 13, 12, 11), queryIds(dialect, desc, 11, 5));
+
+		// 末页不足
+		assertEquals(Arrays.asList(24, 25), queryIds(dialect, asc, 24, 5));
+		assertEquals(Arrays.asList(), queryIds(dialect, asc, 26, 5));
+
+		// 无排序
+		assertEquals(5, queryIds(dialect, null, 1, 5).size());
+		assertEquals(5, queryIds(dialect, null, 11, 5).size());
+	}
+
+	@Test
+	public void toPagingQuerySqlTest_offsetUnsupported() throws Exception
+	{
+		StandardDialect dialect = new StandardDialect("\"", false);
+
+		Order[] asc = { Order.valueOf("ID", Order.ASC) };
+
+		// 首页仍可使用FETCH FIRST
+		Sql sql = dialect.toPagingQuerySql(Sql.valueOf("SELECT * FROM T_PAGING"), asc, 1, 3);
+
+		assertNotNull(sql);
+		assertEquals(-1, sql.getSqlValue().indexOf("OFFSET"));
+		assertEquals(Arrays.asList(1, 2, 3), queryIds(dialect, asc, 1, 3));
+
+		// 后续页不支持，由调用方采用内存分页
+		assertNull(dialect.toPagingQuerySql(Sql.valueOf("SELECT * FROM T_PAGING"), asc, 11, 5));
+		assertNull(dialect.toPagingQuerySql(Sql.valueOf("SELECT * FROM T_PAGING"), null, 11, 5));
+	}
+
+	protected List<Integer> queryIds(StandardDialect dialect, Order[] orders, long startRow, int count)
+			throws SQLException
+	{
+		Sql sql = dialect.toPagingQuerySql(Sql.valueOf("SELECT * FROM T_PAGING"), orders, startRow, count);
+
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = this.connection.createStatement();
+			rs = st.executeQuery(sql.getSqlValue());
+
+			List<Integer> ids = new ArrayList<>();
+
+			while (rs.next())
+				ids.add(rs.getInt("ID"));
+
+			return ids;
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+		}
+	}
+}
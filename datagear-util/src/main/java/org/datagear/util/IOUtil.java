@@ -27,6 +27,9 @@ import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -153,6 +156,53 @@ public class IOUtil
 			out.write(cache, 0, readLen);
 	}
 
+	/**
+	 * 跳过输入流开头的指定字节数，然后读取至多指定字节数并写入输出流。
+	 * 
+	 * @param in
+	 * @param out
+	 * @param skip
+	 *            跳过的字节数
+	 * @param length
+	 *            写入的最大字节数
+	 * @return 实际写入的字节数
+	 * @throws IOException
+	 */
+	public static long write(InputStream in, OutputStream out, long skip, long length) throws IOException
+	{
+		while (skip > 0)
+		{
+			long skipped = in.skip(skip);
+
+			// 某些输入流的skip()可能返回0，需读取确认是否已结束
+			if (skipped <= 0)
+			{
+				if (in.read() < 0)
+					return 0;
+
+				skipped = 1;
+			}
+
+			skip -= skipped;
+		}
+
+		byte[] cache = new byte[8192];
+		long writeLen = 0;
+
+		while (writeLen < length)
+		{
+			int readLen = in.read(cache, 0, (int) Math.min(cache.length, length - writeLen));
+
+			if (readLen < 0)
+				break;
+
+			out.write(cache, 0, readLen);
+			writeLen += readLen;
+		}
+
+		return writeLen;
+	}
+
 	/**
 	 * 将文件写入输出流。
 	 * 
@@ -199,6 +249,51 @@ public class IOUtil
 		}
 	}
 
+	/**
+	 * 原子地写文件：先写入同目录下的临时文件，再将其移动替换为目标文件，使得读取方不会读到未写完的文件。
+	 * <p>
+	 * 文件系统不支持原子移动时，退化为替换移动。
+	 * </p>
+	 * 
+	 * @param file
+	 * @param writer
+	 * @throws IOException
+	 */
+	public static void writeAtomically(File file, StreamWriter writer) throws IOException
+	{
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists())
+			parent.mkdirs();
+
+		File tmpFile = File.createTempFile(file.getName() + ".", ".tmp", parent);
+
+		OutputStream out = null;
+
+		try
+		{
+			out = getOutputStream(tmpFile);
+			writer.write(out);
+			out.close();
+			out = null;
+
+			try
+			{
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e)
+			{
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally
+		{
+			close(out);
+
+			if (tmpFile.exists())
+				tmpFile.delete();
+		}
+	}
+
 	/**
 	 * 将文件写入ZIP输出流。
 	 * 
@@ -755,4 +850,21 @@ public class IOUtil
 
 		return false;
 	}
+
+	/**
+	 * 输出流写入器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static interface StreamWriter
+	{
+		/**
+		 * 写入输出流，无需关闭它。
+		 * 
+		 * @param out
+		 * @throws IOException
+		 */
+		void write(OutputStream out) throws IOException;
+	}
 }
@@ -72,7 +72,7 @@ public class JdbcSupport
 			ResultSet rs = qrs.getResultSet();
 
 			if (rs.next())
-				count = rs.getInt(1);
+				count = rs.getLong(1);
 
 			return count;
 		}
@@ -938,6 +938,25 @@ public class JdbcSupport
 		}
 	}
 
+	/**
+	 * 获取列值。
+	 * <p>
+	 * 如果需要读取结果集多行的同一列，应先使用{@linkplain ResultSet#findColumn(String)}解析列索引，
+	 * 然后使用{@linkplain #getColumnValue(Connection, ResultSet, int, int)}，以避免每次按名称查找列。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param rs
+	 * @param columnName
+	 * @param sqlType
+	 * @return
+	 * @throws SQLException
+	 */
+	public Object getColumnValue(Connection cn, ResultSet rs, String columnName, int sqlType) throws SQLException
+	{
+		return getColumnValue(cn, rs, rs.findColumn(columnName), sqlType);
+	}
+
 	/**
 	 * 获取列值。
 	 * <p>
@@ -947,12 +966,14 @@ public class JdbcSupport
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param column
+	 * @param columnIndex
+	 *            列索引，以{@code 1}开始
+	 * @param sqlType
 	 * @return
 	 * @throws SQLException
 	 */
 	@JDBCCompatiblity("某些驱动程序可能不支持ResultSet.getObject方法，所以这里没有使用")
-	public Object getColumnValue(Connection cn, ResultSet rs, String columnName, int sqlType) throws SQLException
+	public Object getColumnValue(Connection cn, ResultSet rs, int columnIndex, int sqlType) throws SQLException
 	{
 		Object value = null;
 
@@ -960,225 +981,225 @@ public class JdbcSupport
 		{
 			case Types.ARRAY:
 			{
-				value = rs.getArray(columnName);
+				value = rs.getArray(columnIndex);
 				break;
 			}
 
 			case Types.BIGINT:
 			{
-				value = rs.getLong(columnName);
+				value = rs.getLong(columnIndex);
 				break;
 			}
 
 			case Types.BINARY:
 			{
-				value = rs.getBytes(columnName);
+				value = rs.getBytes(columnIndex);
 				break;
 			}
 
 			case Types.BIT:
 			{
-				value = rs.getBoolean(columnName);
+				value = rs.getBoolean(columnIndex);
 				break;
 			}
 
 			case Types.BLOB:
 			{
-				value = rs.getBlob(columnName);
+				value = rs.getBlob(columnIndex);
 				break;
 			}
 
 			case Types.BOOLEAN:
 			{
-				value = rs.getBoolean(columnName);
+				value = rs.getBoolean(columnIndex);
 				break;
 			}
 
 			case Types.CHAR:
 			{
-				value = rs.getString(columnName);
+				value = rs.getString(columnIndex);
 				break;
 			}
 
 			case Types.CLOB:
 			{
-				value = rs.getClob(columnName);
+				value = rs.getClob(columnIndex);
 				break;
 			}
 
 			case Types.DATALINK:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.DATE:
 			{
-				value = rs.getDate(columnName);
+				value = rs.getDate(columnIndex);
 				break;
 			}
 
 			case Types.DECIMAL:
 			{
-				value = rs.getBigDecimal(columnName);
+				value = rs.getBigDecimal(columnIndex);
 				break;
 			}
 
 			case Types.DISTINCT:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.DOUBLE:
 			{
-				value = rs.getDouble(columnName);
+				value = rs.getDouble(columnIndex);
 				break;
 			}
 
 			case Types.FLOAT:
 			{
-				value = rs.getFloat(columnName);
+				value = rs.getFloat(columnIndex);
 				break;
 			}
 
 			case Types.INTEGER:
 			{
-				value = rs.getInt(columnName);
+				value = rs.getInt(columnIndex);
 				break;
 			}
 
 			case Types.JAVA_OBJECT:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.LONGNVARCHAR:
 			{
-				value = rs.getNCharacterStream(columnName);
+				value = rs.getNCharacterStream(columnIndex);
 				break;
 			}
 
 			case Types.LONGVARBINARY:
 			{
-				value = rs.getBinaryStream(columnName);
+				value = rs.getBinaryStream(columnIndex);
 				break;
 			}
 
 			case Types.LONGVARCHAR:
 			{
-				value = rs.getCharacterStream(columnName);
+				value = rs.getCharacterStream(columnIndex);
 				break;
 			}
 
 			case Types.NCHAR:
 			{
-				value = rs.getNString(columnName);
+				value = rs.getNString(columnIndex);
 				break;
 			}
 
 			case Types.NCLOB:
 			{
-				value = rs.getNClob(columnName);
+				value = rs.getNClob(columnIndex);
 				break;
 			}
 
 			case Types.NUMERIC:
 			{
-				value = rs.getBigDecimal(columnName);
+				value = rs.getBigDecimal(columnIndex);
 				break;
 			}
 
 			case Types.NVARCHAR:
 			{
-				value = rs.getNString(columnName);
+				value = rs.getNString(columnIndex);
 				break;
 			}
 
 			case Types.OTHER:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.REAL:
 			{
-				value = rs.getFloat(columnName);
+				value = rs.getFloat(columnIndex);
 				break;
 			}
 
 			case Types.REF:
 			{
-				value = rs.getRef(columnName);
+				value = rs.getRef(columnIndex);
 				break;
 			}
 
 			case Types.REF_CURSOR:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.ROWID:
 			{
-				value = rs.getRowId(columnName);
+				value = rs.getRowId(columnIndex);
 				break;
 			}
 
 			case Types.SMALLINT:
 			{
-				value = rs.getShort(columnName);
+				value = rs.getShort(columnIndex);
 				break;
 			}
 
 			case Types.SQLXML:
 			{
-				value = rs.getSQLXML(columnName);
+				value = rs.getSQLXML(columnIndex);
 				break;
 			}
 
 			case Types.STRUCT:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.TIME:
 			case Types.TIME_WITH_TIMEZONE:
 			{
-				value = rs.getTime(columnName);
+				value = rs.getTime(columnIndex);
 				break;
 			}
 
 			case Types.TIMESTAMP:
 			case Types.TIMESTAMP_WITH_TIMEZONE:
 			{
-				value = rs.getTimestamp(columnName);
+				value = rs.getTimestamp(columnIndex);
 				break;
 			}
 
 			case Types.TINYINT:
 			{
-				value = rs.getByte(columnName);
+				value = rs.getByte(columnIndex);
 				break;
 			}
 
 			case Types.VARBINARY:
 			{
-				value = rs.getBytes(columnName);
+				value = rs.getBytes(columnIndex);
 				break;
 			}
 
 			case Types.VARCHAR:
 			{
-				value = rs.getString(columnName);
+				value = rs.getString(columnIndex);
 				break;
 			}
 
 			default:
 			{
-				value = getColumnValueExt(cn, rs, columnName, sqlType);
+				value = getColumnValueExt(cn, rs, columnIndex, sqlType);
 				break;
 			}
 		}
@@ -1194,12 +1215,12 @@ public class JdbcSupport
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param columnName
+	 * @param columnIndex
 	 * @param sqlType
 	 * @return
 	 * @throws SQLException
 	 */
-	protected Object getColumnValueExt(Connection cn, ResultSet rs, String columnName, int sqlType) throws SQLException
+	protected Object getColumnValueExt(Connection cn, ResultSet rs, int columnIndex, int sqlType) throws SQLException
 	{
 		throw new UnsupportedOperationException("Get JDBC [" + sqlType + "] type value is not supported");
 	}
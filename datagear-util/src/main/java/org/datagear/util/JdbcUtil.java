@@ -443,4 +443,44 @@ public class JdbcUtil
 			return null;
 		}
 	}
+
+	/**
+	 * 获取{@linkplain DatabaseMetaData#getDriverName()}。
+	 * 
+	 * @param cn
+	 * @return 返回{@code null}表示不支持
+	 */
+	@JDBCCompatiblity("避免有驱动程序不支持此方法而抛出异常")
+	public static String getDriverNameIfSupports(Connection cn)
+	{
+		try
+		{
+			DatabaseMetaData metaData = cn.getMetaData();
+			return metaData.getDriverName();
+		}
+		catch(Throwable e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * 获取{@linkplain DatabaseMetaData#getDriverVersion()}。
+	 * 
+	 * @param cn
+	 * @return 返回{@code null}表示不支持
+	 */
+	@JDBCCompatiblity("避免有驱动程序不支持此方法而抛出异常")
+	public static String getDriverVersionIfSupports(Connection cn)
+	{
+		try
+		{
+			DatabaseMetaData metaData = cn.getMetaData();
+			return metaData.getDriverVersion();
+		}
+		catch(Throwable e)
+		{
+			return null;
+		}
+	}
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain IOUtil}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class IOUtilTest
+{
+	@Test
+	public void writeTest_InputStream_OutputStream_long_long() throws Exception
+	{
+		byte[] bytes = createBytes(20000);
+
+		// 全部
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long len = IOUtil.write(new ByteArrayInputStream(bytes), out, 0, bytes.length);
+
+			assertEquals(bytes.length, len);
+			assertArrayEquals(bytes, out.toByteArray());
+		}
+
+		// 中间区段，跨越缓冲区大小
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long len = IOUtil.write(new ByteArrayInputStream(bytes), out, 100, 10000);
+
+			assertEquals(10000, len);
+			assertArrayEquals(copyOfRange(bytes, 100, 10100), out.toByteArray());
+		}
+
+		// 长度超出流末尾
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long len = IOUtil.write(new ByteArrayInputStream(bytes), out, 19990, 100);
+
+			assertEquals(10, len);
+			assertArrayEquals(copyOfRange(bytes, 19990, 20000), out.toByteArray());
+		}
+
+		// 跳过超出流末尾
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long len = IOUtil.write(new ByteArrayInputStream(bytes), out, 30000, 100);
+
+			assertEquals(0, len);
+			assertEquals(0, out.size());
+		}
+
+		// 零长度
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long len = IOUtil.write(new ByteArrayInputStream(bytes), out, 10, 0);
+
+			assertEquals(0, len);
+			assertEquals(0, out.size());
+		}
+
+		// 空流
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long len = IOUtil.write(new ByteArrayInputStream(new byte[0]), out, 0, 100);
+
+			assertEquals(0, len);
+			assertEquals(0, out.size());
+		}
+	}
+
+	@Test
+	public void writeTest_InputStream_OutputStream_long_long_zeroSkip() throws Exception
+	{
+		byte[] bytes = createBytes(300);
+
+		// skip()总是返回0
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long len = IOUtil.write(new ZeroSkipInputStream(new ByteArrayInputStream(bytes)), out, 100, 50);
+
+			assertEquals(50, len);
+			assertArrayEquals(copyOfRange(bytes, 100, 150), out.toByteArray());
+		}
+
+		// skip()总是返回0，且跳过超出流末尾
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long len = IOUtil.write(new ZeroSkipInputStream(new ByteArrayInputStream(bytes)), out, 500, 50);
+
+			assertEquals(0, len);
+			assertEquals(0, out.size());
+		}
+	}
+
+	protected byte[] createBytes(int length)
+	{
+		byte[] bytes = new byte[length];
+
+		for (int i = 0; i < length; i++)
+			bytes[i] = (byte) (i % 251);
+
+		return bytes;
+	}
+
+	@Test
+	public void writeAtomicallyTest() throws Exception
+	{
+		File directory = FileUtil.getDirectory("target/IOUtilTest/writeAtomicallyTest", true);
+		FileUtil.clearDirectory(directory);
+
+		File file = FileUtil.getFile(directory, "sub/test.txt");
+
+		IOUtil.writeAtomically(file, new IOUtil.StreamWriter()
+		{
+			@Override
+			public void write(OutputStream out) throws IOException
+			{
+				out.write("first".getBytes(IOUtil.CHARSET_UTF_8));
+			}
+		});
+
+		assertEquals("first", IOUtil.readString(IOUtil.getInputStream(file), IOUtil.CHARSET_UTF_8, true));
+
+		IOUtil.writeAtomically(file, new IOUtil.StreamWriter()
+		{
+			@Override
+			public void write(OutputStream out) throws IOException
+			{
+				out.write("second".getBytes(IOUtil.CHARSET_UTF_8));
+			}
+		});
+
+		assertEquals("second", IOUtil.readString(IOUtil.getInputStream(file), IOUtil.CHARSET_UTF_8, true));
+
+		// 写入出错时，原文件保持不变，且不残留临时文件
+		assertThrows(IOException.class, () ->
+		{
+			IOUtil.writeAtomically(file, new IOUtil.StreamWriter()
+			{
+				@Override
+				public void write(OutputStream out) throws IOException
+				{
+					out.write("third".getBytes(IOUtil.CHARSET_UTF_8));
+					throw new IOException("test");
+				}
+			});
+		});
+
+		assertEquals("second", IOUtil.readString(IOUtil.getInputStream(file), IOUtil.CHARSET_UTF_8, true));
+		assertEquals(1, file.getParentFile().listFiles().length);
+	}
+
+	protected byte[] copyOfRange(byte[] bytes, int from, int to)
+	{
+		byte[] re = new byte[to - from];
+		System.arraycopy(bytes, from, re, 0, re.length);
+		return re;
+	}
+
+	protected static class ZeroSkipInputStream extends FilterInputStream
+	{
+		public ZeroSkipInputStream(InputStream in)
+		{
+			super(in);
+		}
+
+		@Override
+		public long skip(long n) throws IOException
+		{
+			return 0;
+		}
+	}
+}
@@ -64,6 +64,10 @@ public abstract class ApplicationProperties implements Serializable
 	@Value("${directory.dataSet}")
 	private String directoryDataSet;
 
+	/** 数据源表元信息缓存快照目录 */
+	@Value("${directory.tableCache}")
+	private String directoryTableCache;
+
 	/** 数据编辑界面自定义URL构建器脚本文件 */
 	@Value("${schemaUrlBuilderScriptFile}")
 	private String schemaUrlBuilderScriptFile;
@@ -128,6 +132,122 @@ public abstract class ApplicationProperties implements Serializable
 	@Value("${service.cache.spec}")
 	private String serviceCacheSpec;
 
+	/** 数据源连接池-最大连接数 */
+	@Value("${connectionPool.maxTotal}")
+	private Integer connectionPoolMaxTotal;
+
+	/** 数据源连接池-最大空闲连接数 */
+	@Value("${connectionPool.maxIdle}")
+	private Integer connectionPoolMaxIdle;
+
+	/** 数据源连接池-最小空闲连接数 */
+	@Value("${connectionPool.minIdle}")
+	private Integer connectionPoolMinIdle;
+
+	/** 数据源连接池-获取连接的最大等待毫秒数 */
+	@Value("${connectionPool.maxWaitMillis}")
+	private Long connectionPoolMaxWaitMillis;
+
+	/** 数据源连接池-校验连接的SQL语句 */
+	@Value("${connectionPool.validationQuery}")
+	private String connectionPoolValidationQuery;
+
+	/** 数据源连接池-空闲连接回收检查间隔毫秒数 */
+	@Value("${connectionPool.timeBetweenEvictionRunsMillis}")
+	private Long connectionPoolTimeBetweenEvictionRunsMillis;
+
+	/** 数据源连接池-连接空闲多少毫秒后可被回收 */
+	@Value("${connectionPool.minEvictableIdleTimeMillis}")
+	private Long connectionPoolMinEvictableIdleTimeMillis;
+
+	/** 数据源连接池-是否缓存预编译语句 */
+	@Value("${connectionPool.poolPreparedStatements}")
+	private Boolean connectionPoolPoolPreparedStatements;
+
+	/** 数据源连接池-每个连接最多缓存的预编译语句数 */
+	@Value("${connectionPool.maxOpenPreparedStatements}")
+	private Integer connectionPoolMaxOpenPreparedStatements;
+
+	/** 数据源连接池-空闲多少分钟后将被关闭 */
+	@Value("${connectionPool.poolIdleMinutes}")
+	private int connectionPoolIdleMinutes;
+
+	/** 数据源连接池-所有连接池的连接总数上限 */
+	@Value("${connectionPool.maxTotalConnections}")
+	private int connectionPoolMaxTotalConnections;
+
+	/** 数据源首选驱动程序映射表存储文件 */
+	@Value("${connection.preferedDriverEntityFile}")
+	private String connectionPreferedDriverEntityFile;
+
+	/** 数据源校验驱动程序的超时毫秒数 */
+	@Value("${connection.driverProbeTimeoutMillis}")
+	private long connectionDriverProbeTimeoutMillis;
+
+	/** 数据库方言试探结果存储文件 */
+	@Value("${dialect.detectionFile}")
+	private String dialectDetectionFile;
+
+	/** 数据源建立网络连接超时秒数 */
+	@Value("${connection.connectTimeoutSeconds}")
+	private int connectionConnectTimeoutSeconds;
+
+	/** 数据源登录超时秒数 */
+	@Value("${connection.loginTimeoutSeconds}")
+	private int connectionLoginTimeoutSeconds;
+
+	/** 数据源连接熔断连续失败次数 */
+	@Value("${connection.circuitBreaker.failureThreshold}")
+	private int connectionCircuitBreakerFailureThreshold;
+
+	/** 数据源连接熔断持续秒数 */
+	@Value("${connection.circuitBreaker.openSeconds}")
+	private int connectionCircuitBreakerOpenSeconds;
+
+	/** 数据源表元信息缓存-校验表结构变更的最小间隔秒数 */
+	@Value("${tableCache.checkIntervalSeconds}")
+	private int tableCacheCheckIntervalSeconds;
+
+	/** 数据源表元信息缓存-快照有效分钟数 */
+	@Value("${tableCache.snapshotExpireMinutes}")
+	private int tableCacheSnapshotExpireMinutes;
+
+	/** 表数据“删除全部匹配”操作允许删除的最大记录数 */
+	@Value("${tableData.deleteByQueryMaxCount}")
+	private int tableDataDeleteByQueryMaxCount;
+
+	/** 表数据分页的总记录数统计方式 */
+	@Value("${tableData.pagingCountMode}")
+	private String tableDataPagingCountMode;
+
+	/** 表数据关键字查询的默认匹配方式 */
+	@Value("${tableData.keywordMatchMode}")
+	private String tableDataKeywordMatchMode;
+
+	/** 表数据分页总记录数缓存的有效分钟数 */
+	@Value("${tableData.countCacheExpireMinutes}")
+	private int tableDataCountCacheExpireMinutes;
+
+	/** 看板是否仅导入图表插件依赖的按需导入库 */
+	@Value("${dashboard.importOnDemand}")
+	private boolean dashboardImportOnDemand;
+
+	/** 看板图表数据服务端推送-是否禁用 */
+	@Value("${dashboard.dataPush.disabled}")
+	private boolean dashboardDataPushDisabled;
+
+	/** 看板图表数据服务端推送-线程数 */
+	@Value("${dashboard.dataPush.threads}")
+	private int dashboardDataPushThreads;
+
+	/** 看板图表数据服务端推送-每个会话的最大推送连接数 */
+	@Value("${dashboard.dataPush.maxSubscribersPerSession}")
+	private int dashboardDataPushMaxSubscribersPerSession;
+
+	/** 看板图表数据服务端推送-最大推送任务数 */
+	@Value("${dashboard.dataPush.maxTasks}")
+	private int dashboardDataPushMaxTasks;
+
 	public ApplicationProperties()
 	{
 		super();
@@ -233,6 +353,16 @@ public abstract class ApplicationProperties implements Serializable
 		this.directoryDataSet = directoryDataSet;
 	}
 
+	public String getDirectoryTableCache()
+	{
+		return directoryTableCache;
+	}
+
+	protected void setDirectoryTableCache(String directoryTableCache)
+	{
+		this.directoryTableCache = directoryTableCache;
+	}
+
 	public String getSchemaUrlBuilderScriptFile()
 	{
 		return schemaUrlBuilderScriptFile;
@@ -392,4 +522,294 @@ public abstract class ApplicationProperties implements Serializable
 	{
 		this.serviceCacheSpec = serviceCacheSpec;
 	}
+
+	public Integer getConnectionPoolMaxTotal()
+	{
+		return connectionPoolMaxTotal;
+	}
+
+	protected void setConnectionPoolMaxTotal(Integer connectionPoolMaxTotal)
+	{
+		this.connectionPoolMaxTotal = connectionPoolMaxTotal;
+	}
+
+	public Integer getConnectionPoolMaxIdle()
+	{
+		return connectionPoolMaxIdle;
+	}
+
+	protected void setConnectionPoolMaxIdle(Integer connectionPoolMaxIdle)
+	{
+		this.connectionPoolMaxIdle = connectionPoolMaxIdle;
+	}
+
+	public Integer getConnectionPoolMinIdle()
+	{
+		return connectionPoolMinIdle;
+	}
+
+	protected void setConnectionPoolMinIdle(Integer connectionPoolMinIdle)
+	{
+		this.connectionPoolMinIdle = connectionPoolMinIdle;
+	}
+
+	public Long getConnectionPoolMaxWaitMillis()
+	{
+		return connectionPoolMaxWaitMillis;
+	}
+
+	protected void setConnectionPoolMaxWaitMillis(Long connectionPoolMaxWaitMillis)
+	{
+		this.connectionPoolMaxWaitMillis = connectionPoolMaxWaitMillis;
+	}
+
+	public String getConnectionPoolValidationQuery()
+	{
+		return connectionPoolValidationQuery;
+	}
+
+	protected void setConnectionPoolValidationQuery(String connectionPoolValidationQuery)
+	{
+		this.connectionPoolValidationQuery = connectionPoolValidationQuery;
+	}
+
+	public Long getConnectionPoolTimeBetweenEvictionRunsMillis()
+	{
+		return connectionPoolTimeBetweenEvictionRunsMillis;
+	}
+
+	protected void setConnectionPoolTimeBetweenEvictionRunsMillis(Long connectionPoolTimeBetweenEvictionRunsMillis)
+	{
+		this.connectionPoolTimeBetweenEvictionRunsMillis = connectionPoolTimeBetweenEvictionRunsMillis;
+	}
+
+	public Long getConnectionPoolMinEvictableIdleTimeMillis()
+	{
+		return connectionPoolMinEvictableIdleTimeMillis;
+	}
+
+	protected void setConnectionPoolMinEvictableIdleTimeMillis(Long connectionPoolMinEvictableIdleTimeMillis)
+	{
+		this.connectionPoolMinEvictableIdleTimeMillis = connectionPoolMinEvictableIdleTimeMillis;
+	}
+
+	public Boolean getConnectionPoolPoolPreparedStatements()
+	{
+		return connectionPoolPoolPreparedStatements;
+	}
+
+	protected void setConnectionPoolPoolPreparedStatements(Boolean connectionPoolPoolPreparedStatements)
+	{
+		this.connectionPoolPoolPreparedStatements = connectionPoolPoolPreparedStatements;
+	}
+
+	public Integer getConnectionPoolMaxOpenPreparedStatements()
+	{
+		return connectionPoolMaxOpenPreparedStatements;
+	}
+
+	protected void setConnectionPoolMaxOpenPreparedStatements(Integer connectionPoolMaxOpenPreparedStatements)
+	{
+		this.connectionPoolMaxOpenPreparedStatements = connectionPoolMaxOpenPreparedStatements;
+	}
+
+	public int getConnectionPoolIdleMinutes()
+	{
+		return connectionPoolIdleMinutes;
+	}
+
+	protected void setConnectionPoolIdleMinutes(int connectionPoolIdleMinutes)
+	{
+		this.connectionPoolIdleMinutes = connectionPoolIdleMinutes;
+	}
+
+	public int getConnectionPoolMaxTotalConnections()
+	{
+		return connectionPoolMaxTotalConnections;
+	}
+
+	protected void setConnectionPoolMaxTotalConnections(int connectionPoolMaxTotalConnections)
+	{
+		this.connectionPoolMaxTotalConnections = connectionPoolMaxTotalConnections;
+	}
+
+	public String getConnectionPreferedDriverEntityFile()
+	{
+		return connectionPreferedDriverEntityFile;
+	}
+
+	protected void setConnectionPreferedDriverEntityFile(String connectionPreferedDriverEntityFile)
+	{
+		this.connectionPreferedDriverEntityFile = connectionPreferedDriverEntityFile;
+	}
+
+	public long getConnectionDriverProbeTimeoutMillis()
+	{
+		return connectionDriverProbeTimeoutMillis;
+	}
+
+	protected void setConnectionDriverProbeTimeoutMillis(long connectionDriverProbeTimeoutMillis)
+	{
+		this.connectionDriverProbeTimeoutMillis = connectionDriverProbeTimeoutMillis;
+	}
+
+	public String getDialectDetectionFile()
+	{
+		return dialectDetectionFile;
+	}
+
+	protected void setDialectDetectionFile(String dialectDetectionFile)
+	{
+		this.dialectDetectionFile = dialectDetectionFile;
+	}
+
+	public int getConnectionConnectTimeoutSeconds()
+	{
+		return connectionConnectTimeoutSeconds;
+	}
+
+	protected void setConnectionConnectTimeoutSeconds(int connectionConnectTimeoutSeconds)
+	{
+		this.connectionConnectTimeoutSeconds = connectionConnectTimeoutSeconds;
+	}
+
+	public int getConnectionLoginTimeoutSeconds()
+	{
+		return connectionLoginTimeoutSeconds;
+	}
+
+	protected void setConnectionLoginTimeoutSeconds(int connectionLoginTimeoutSeconds)
+	{
+		this.connectionLoginTimeoutSeconds = connectionLoginTimeoutSeconds;
+	}
+
+	public int getConnectionCircuitBreakerFailureThreshold()
+	{
+		return connectionCircuitBreakerFailureThreshold;
+	}
+
+	protected void setConnectionCircuitBreakerFailureThreshold(int connectionCircuitBreakerFailureThreshold)
+	{
+		this.connectionCircuitBreakerFailureThreshold = connectionCircuitBreakerFailureThreshold;
+	}
+
+	public int getConnectionCircuitBreakerOpenSeconds()
+	{
+		return connectionCircuitBreakerOpenSeconds;
+	}
+
+	protected void setConnectionCircuitBreakerOpenSeconds(int connectionCircuitBreakerOpenSeconds)
+	{
+		this.connectionCircuitBreakerOpenSeconds = connectionCircuitBreakerOpenSeconds;
+	}
+
+	public int getTableCacheCheckIntervalSeconds()
+	{
+		return tableCacheCheckIntervalSeconds;
+	}
+
+	protected void setTableCacheCheckIntervalSeconds(int tableCacheCheckIntervalSeconds)
+	{
+		this.tableCacheCheckIntervalSeconds = tableCacheCheckIntervalSeconds;
+	}
+
+	public int getTableCacheSnapshotExpireMinutes()
+	{
+		return tableCacheSnapshotExpireMinutes;
+	}
+
+	protected void setTableCacheSnapshotExpireMinutes(int tableCacheSnapshotExpireMinutes)
+	{
+		this.tableCacheSnapshotExpireMinutes = tableCacheSnapshotExpireMinutes;
+	}
+
+	public int getTableDataDeleteByQueryMaxCount()
+	{
+		return tableDataDeleteByQueryMaxCount;
+	}
+
+	protected void setTableDataDeleteByQueryMaxCount(int tableDataDeleteByQueryMaxCount)
+	{
+		this.tableDataDeleteByQueryMaxCount = tableDataDeleteByQueryMaxCount;
+	}
+
+	public String getTableDataPagingCountMode()
+	{
+		return tableDataPagingCountMode;
+	}
+
+	protected void setTableDataPagingCountMode(String tableDataPagingCountMode)
+	{
+		this.tableDataPagingCountMode = tableDataPagingCountMode;
+	}
+
+	public String getTableDataKeywordMatchMode()
+	{
+		return tableDataKeywordMatchMode;
+	}
+
+	protected void setTableDataKeywordMatchMode(String tableDataKeywordMatchMode)
+	{
+		this.tableDataKeywordMatchMode = tableDataKeywordMatchMode;
+	}
+
+	public int getTableDataCountCacheExpireMinutes()
+	{
+		return tableDataCountCacheExpireMinutes;
+	}
+
+	protected void setTableDataCountCacheExpireMinutes(int tableDataCountCacheExpireMinutes)
+	{
+		this.tableDataCountCacheExpireMinutes = tableDataCountCacheExpireMinutes;
+	}
+
+	public boolean isDashboardImportOnDemand()
+	{
+		return dashboardImportOnDemand;
+	}
+
+	protected void setDashboardImportOnDemand(boolean dashboardImportOnDemand)
+	{
+		this.dashboardImportOnDemand = dashboardImportOnDemand;
+	}
+
+	public boolean isDashboardDataPushDisabled()
+	{
+		return dashboardDataPushDisabled;
+	}
+
+	protected void setDashboardDataPushDisabled(boolean dashboardDataPushDisabled)
+	{
+		this.dashboardDataPushDisabled = dashboardDataPushDisabled;
+	}
+
+	public int getDashboardDataPushThreads()
+	{
+		return dashboardDataPushThreads;
+	}
+
+	protected void setDashboardDataPushThreads(int dashboardDataPushThreads)
+	{
+		this.dashboardDataPushThreads = dashboardDataPushThreads;
+	}
+
+	public int getDashboardDataPushMaxSubscribersPerSession()
+	{
+		return dashboardDataPushMaxSubscribersPerSession;
+	}
+
+	protected void setDashboardDataPushMaxSubscribersPerSession(int dashboardDataPushMaxSubscribersPerSession)
+	{
+		this.dashboardDataPushMaxSubscribersPerSession = dashboardDataPushMaxSubscribersPerSession;
+	}
+
+	public int getDashboardDataPushMaxTasks()
+	{
+		return dashboardDataPushMaxTasks;
+	}
+
+	protected void setDashboardDataPushMaxTasks(int dashboardDataPushMaxTasks)
+	{
+		this.dashboardDataPushMaxTasks = dashboardDataPushMaxTasks;
+	}
 }
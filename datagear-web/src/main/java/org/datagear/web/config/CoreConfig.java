@@ -31,6 +31,7 @@ import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer.TemplateImportHtmlChartPluginVarNameResolver;
 import org.datagear.analysis.support.html.SimpleHtmlTplDashboardImport;
+import org.datagear.connection.ConnectionPoolOption;
 import org.datagear.connection.ConnectionSource;
 import org.datagear.connection.DefaultConnectionSource;
 import org.datagear.connection.GenericPropertiesProcessor;
@@ -82,11 +83,15 @@ import org.datagear.management.service.impl.SchemaServiceImpl;
 import org.datagear.management.service.impl.SqlHistoryServiceImpl;
 import org.datagear.management.service.impl.UserPasswordEncoder;
 import org.datagear.management.service.impl.UserServiceImpl;
+import org.datagear.management.util.SchemaConnectionSupport;
+import org.datagear.management.util.SchemaReplicaSelector;
 import org.datagear.management.util.dialect.MbSqlDialect;
 import org.datagear.management.util.dialect.MbSqlDialectBuilder;
+import org.datagear.management.util.typehandlers.ConnectionPoolOptionTypeHandler;
 import org.datagear.management.util.typehandlers.DataFormatTypeHandler;
 import org.datagear.management.util.typehandlers.LiteralBooleanTypeHandler;
 import org.datagear.management.util.typehandlers.ResultDataFormatTypeHandler;
+import org.datagear.management.util.typehandlers.SchemaReplicasTypeHandler;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.meta.resolver.GenericDBMetaResolver;
 import org.datagear.persistence.DialectSource;
@@ -96,6 +101,8 @@ import org.datagear.persistence.support.DefaultPersistenceManager;
 import org.datagear.persistence.support.SqlSelectManager;
 import org.datagear.util.FileUtil;
 import org.datagear.util.IOUtil;
+import org.datagear.web.dashboard.DashboardDataPushService;
+import org.datagear.web.dashboard.DashboardResultJsonWriter;
 import org.datagear.web.format.DateFormatter;
 import org.datagear.web.format.SqlDateFormatter;
 import org.datagear.web.format.SqlTimeFormatter;
@@ -111,6 +118,8 @@ import org.datagear.web.sqlpad.SqlpadExecutionService;
 import org.datagear.web.util.ChangelogResolver;
 import org.datagear.web.util.DirectoryFactory;
 import org.datagear.web.util.DirectoryHtmlChartPluginManagerInitializer;
+import org.datagear.web.util.QueryCountCache;
+import org.datagear.web.util.SimpleTableIndexCache;
 import org.datagear.web.util.SqlDriverChecker;
 import org.datagear.web.util.TableCache;
 import org.datagear.web.util.XmlDriverEntityManagerInitializer;
@@ -365,7 +374,8 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 			bean.setDataSource(this.dataSourceConfig.dataSource());
 			bean.setMapperLocations(mapperResources);
 			bean.setTypeHandlers(new TypeHandler<?>[] { new LiteralBooleanTypeHandler(), new DataFormatTypeHandler(),
-					new ResultDataFormatTypeHandler() });
+					new ResultDataFormatTypeHandler(), new ConnectionPoolOptionTypeHandler(),
+					new SchemaReplicasTypeHandler() });
 			return bean.getObject();
 		}
 		catch (Exception e)
@@ -429,16 +439,82 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		GenericPropertiesProcessor genericPropertiesProcessor = new GenericPropertiesProcessor();
 		genericPropertiesProcessor.setDevotedPropertiesProcessors(
 				Arrays.asList(new MySqlDevotedPropertiesProcessor(), new OracleDevotedPropertiesProcessor()));
+		genericPropertiesProcessor.setConnectTimeout(this.applicationProperties.getConnectionConnectTimeoutSeconds());
+		genericPropertiesProcessor.setLoginTimeout(this.applicationProperties.getConnectionLoginTimeoutSeconds());
 
 		bean.setPropertiesProcessor(genericPropertiesProcessor);
+		bean.setDefaultPoolOption(buildDefaultConnectionPoolOption());
+		bean.setPoolIdleTimeout(this.applicationProperties.getConnectionPoolIdleMinutes() * 60 * 1000L);
+		bean.setMaxTotalConnections(this.applicationProperties.getConnectionPoolMaxTotalConnections());
+		bean.setPreferedDriverEntityFile(
+				FileUtil.getFile(this.applicationProperties.getConnectionPreferedDriverEntityFile()));
+		bean.setDriverProbeTimeout(this.applicationProperties.getConnectionDriverProbeTimeoutMillis());
+		bean.setCircuitBreakerFailureThreshold(this.applicationProperties.getConnectionCircuitBreakerFailureThreshold());
+		bean.setCircuitBreakerOpenMillis(this.applicationProperties.getConnectionCircuitBreakerOpenSeconds() * 1000L);
 
 		return bean;
 	}
 
-	@Bean(initMethod = "init")
+	@Bean
+	public SchemaReplicaSelector schemaReplicaSelector()
+	{
+		SchemaReplicaSelector bean = new SchemaReplicaSelector();
+		return bean;
+	}
+
+	@Bean
+	public SchemaConnectionSupport schemaConnectionSupport()
+	{
+		SchemaConnectionSupport bean = new SchemaConnectionSupport(this.schemaReplicaSelector());
+		return bean;
+	}
+
+	protected ConnectionPoolOption buildDefaultConnectionPoolOption()
+	{
+		ApplicationProperties properties = this.applicationProperties;
+
+		ConnectionPoolOption option = new ConnectionPoolOption();
+		option.setMaxTotal(properties.getConnectionPoolMaxTotal());
+		option.setMaxIdle(properties.getConnectionPoolMaxIdle());
+		option.setMinIdle(properties.getConnectionPoolMinIdle());
+		option.setMaxWaitMillis(properties.getConnectionPoolMaxWaitMillis());
+		option.setValidationQuery(properties.getConnectionPoolValidationQuery());
+		option.setTimeBetweenEvictionRunsMillis(properties.getConnectionPoolTimeBetweenEvictionRunsMillis());
+		option.setMinEvictableIdleTimeMillis(properties.getConnectionPoolMinEvictableIdleTimeMillis());
+		option.setPoolPreparedStatements(properties.getConnectionPoolPoolPreparedStatements());
+		option.setMaxOpenPreparedStatements(properties.getConnectionPoolMaxOpenPreparedStatements());
+
+		return (option.hasAnyOption() ? option : null);
+	}
+
+	@Bean
+	public File tableCacheSnapshotDirectory()
+	{
+		return createDirectory(this.applicationProperties.getDirectoryTableCache(), true);
+	}
+
+	@Bean(initMethod = "init", destroyMethod = "destroy")
 	public TableCache tableCache()
 	{
 		TableCache bean = new TableCache();
+		bean.setSnapshotDirectory(this.tableCacheSnapshotDirectory());
+		bean.setCheckIntervalSeconds(this.applicationProperties.getTableCacheCheckIntervalSeconds());
+		bean.setSnapshotExpireMinutes(this.applicationProperties.getTableCacheSnapshotExpireMinutes());
+		return bean;
+	}
+
+	@Bean(initMethod = "init")
+	public SimpleTableIndexCache simpleTableIndexCache()
+	{
+		SimpleTableIndexCache bean = new SimpleTableIndexCache();
+		return bean;
+	}
+
+	@Bean(initMethod = "init", destroyMethod = "destroy")
+	public QueryCountCache queryCountCache()
+	{
+		QueryCountCache bean = new QueryCountCache();
+		bean.setExpireAfterWriteMinutes(this.applicationProperties.getTableDataCountCacheExpireMinutes());
 		return bean;
 	}
 
@@ -446,6 +522,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 	public DialectSource dialectSource()
 	{
 		DefaultDialectSource bean = new DefaultDialectSource(this.dbMetaResolver());
+		bean.setDetectionFile(FileUtil.getFile(this.applicationProperties.getDialectDetectionFile()));
 		return bean;
 	}
 
@@ -530,6 +607,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 				this.analysisProjectService(), this.userService(), this.dataSetResDirectoryService(),
 				this.dataSetRootDirectory(),
 				this.httpClient());
+		bean.setSchemaReplicaSelector(this.schemaReplicaSelector());
 
 		return bean;
 	}
@@ -584,6 +662,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 				this.htmlChartWidgetEntityService());
 
 		bean.setHtmlTplDashboardImport(this.buildHtmlTplDashboardWidgetRenderer_dshboardImport(bean));
+		bean.setOnDemandImportEnabled(this.applicationProperties.isDashboardImportOnDemand());
 		bean.setImportHtmlChartPluginVarNameResolver(
 				this.buildHtmlTplDashboardWidgetRendererd_importHtmlChartPluginVarNameResolver(bean));
 
@@ -597,6 +676,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 				this.templateDashboardWidgetResManager(), this.htmlChartWidgetEntityService());
 
 		bean.setHtmlTplDashboardImport(this.buildHtmlTplDashboardWidgetRenderer_dshboardImport(bean));
+		bean.setOnDemandImportEnabled(this.applicationProperties.isDashboardImportOnDemand());
 		bean.setImportHtmlChartPluginVarNameResolver(
 				this.buildHtmlTplDashboardWidgetRendererd_importHtmlChartPluginVarNameResolver(bean));
 
@@ -620,21 +700,23 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		String scriptPrefix = staticPrefix + "/script";
 
 		// CSS
-		importItems.add(
-				ImportItem.valueOfLinkCss("dataTableStyle", libPrefix + "/DataTables-1.10.18/css/datatables.min.css"));
+		// 图表设置面板（chartSetting）的数据表格也依赖DataTables，所以它不能是按需导入项
+		importItems.add(ImportItem.valueOfLinkCss("dataTableStyle",
+				libPrefix + "/DataTables-1.10.18/css/datatables.min.css"));
 		importItems.add(ImportItem.valueOfLinkCss("datetimepickerStyle",
 				libPrefix + "/jquery-datetimepicker-2.5.20/jquery.datetimepicker.min.css"));
 		importItems.add(ImportItem.valueOfLinkCss("dashboardStyle", cssPrefix + "/analysis.css?v=" + vp));
 
 		// JS
+		// 启用dashboard.importOnDemand时，按需导入项仅在看板中有图表插件依赖它们时才导入，参考HtmlChartPlugin.getDependImports()
 		importItems.add(ImportItem.valueOfJavaScript("jquery", libPrefix + "/jquery-1.12.4/jquery-1.12.4.min.js"));
-		importItems.add(ImportItem.valueOfJavaScript("echarts", libPrefix + "/echarts-5.1.2/echarts.js"));
-		importItems.add(ImportItem.valueOfJavaScript("wordcloud",
+		importItems.add(ImportItem.valueOfJavaScriptOnDemand("echarts", libPrefix + "/echarts-5.1.2/echarts.js"));
+		importItems.add(ImportItem.valueOfJavaScriptOnDemand("wordcloud",
 				libPrefix + "/echarts-wordcloud-2.0.0/echarts-wordcloud.min.js"));
-		importItems.add(ImportItem.valueOfJavaScript("liquidfill",
+		importItems.add(ImportItem.valueOfJavaScriptOnDemand("liquidfill",
 				libPrefix + "/echarts-liquidfill-3.0.0/echarts-liquidfill.min.js"));
-		importItems
-				.add(ImportItem.valueOfJavaScript("dataTable", libPrefix + "/DataTables-1.10.18/js/datatables.min.js"));
+		importItems.add(ImportItem.valueOfJavaScript("dataTable",
+				libPrefix + "/DataTables-1.10.18/js/datatables.min.js"));
 		importItems.add(ImportItem.valueOfJavaScript("datetimepicker",
 				libPrefix + "/jquery-datetimepicker-2.5.20/jquery.datetimepicker.full.min.js"));
 		importItems
@@ -724,6 +806,24 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 	{
 		SqlpadExecutionService bean = new SqlpadExecutionService(this.connectionSource(), this.messageSource(),
 				this.sqlHistoryService(), this.sqlSelectManager());
+		bean.setSchemaConnectionSupport(this.schemaConnectionSupport());
+		return bean;
+	}
+
+	@Bean
+	public DashboardResultJsonWriter dashboardResultJsonWriter()
+	{
+		DashboardResultJsonWriter bean = new DashboardResultJsonWriter(this.objectMapperBuilder().build());
+		return bean;
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public DashboardDataPushService dashboardDataPushService()
+	{
+		DashboardDataPushService bean = new DashboardDataPushService(this.objectMapperBuilder().build(),
+				this.applicationProperties.getDashboardDataPushThreads());
+		bean.setMaxSubscribersPerOwner(this.applicationProperties.getDashboardDataPushMaxSubscribersPerSession());
+		bean.setMaxPushTasks(this.applicationProperties.getDashboardDataPushMaxTasks());
 		return bean;
 	}
 
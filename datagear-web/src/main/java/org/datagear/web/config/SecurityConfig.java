@@ -161,7 +161,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter
 				// 注意：无论系统是否允许匿名用户访问，它们都应允许匿名用户访问，用于支持外部系统iframe嵌套场景
 				.antMatchers("/chartPlugin/icon/*", "/chartPlugin/chartPluginManager.js",
 						"/chart/show/**", "/chart/showData", "/dashboard/show/**",
-						"/dashboard/showData", "/dashboard/loadChart",
+						"/dashboard/showData", "/dashboard/registerDataPush", "/dashboard/showDataPush",
+						"/dashboard/loadChart",
 						"/dashboard/heartbeat",
 						"/dashboard/servertime.js")
 				.access(AUTH_ANONYMOUS_USER_ADMIN_AND_DATA_ADMIN_ANALYST)
@@ -175,6 +176,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter
 				// 编辑
 				.antMatchers("/schema/add", "/schema/saveadd", "/schema/edit", "/schema/saveedit", "/schema/delete")
 				.access(disableAnonymous ? AUTH_USER_ADMIN_AND_DATA_ADMIN : AUTH_ANONYMOUS_USER_ADMIN_AND_DATA_ADMIN)
+				// 连接池统计信息
+				.antMatchers("/schema/connectionPoolStats").access(AUTH_ADMIN)
 				// 其他
 				.antMatchers("/schema/**")
 				.access(disableAnonymous ? AUTH_USER_ADMIN_AND_DATA_ADMIN_ANALYST
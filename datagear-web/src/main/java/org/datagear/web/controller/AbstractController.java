@@ -64,6 +64,8 @@ public abstract class AbstractController
 
 	public static final String CONTENT_TYPE_JAVASCRIPT = "application/javascript";
 
+	public static final String CONTENT_TYPE_EVENT_STREAM = "text/event-stream";
+
 	public static final String KEY_TITLE_MESSAGE_KEY = "titleMessageKey";
 
 	public static final String KEY_FORM_ACTION = "formAction";
@@ -8,11 +8,14 @@
 package org.datagear.web.controller;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,13 +35,17 @@ import org.datagear.analysis.DataSetQuery;
 import org.datagear.analysis.RenderContext;
 import org.datagear.analysis.support.DataSetParamValueConverter;
 import org.datagear.analysis.support.DefaultRenderContext;
+import org.datagear.analysis.support.ErrorMessageDashboardResult;
 import org.datagear.analysis.support.SimpleDashboardThemeSource;
 import org.datagear.analysis.support.html.HtmlTplDashboard;
 import org.datagear.analysis.support.html.HtmlTplDashboardRenderAttr;
 import org.datagear.analysis.support.html.HtmlTplDashboardRenderAttr.WebContext;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer;
+import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
+import org.datagear.web.dashboard.DashboardResultJsonWriter;
 import org.datagear.web.util.WebUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * 抽象数据分析控制器。
@@ -55,6 +62,12 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 	/** 看板更新数据URL名 */
 	public static final String DASHBOARD_UPDATE_URL_NAME = "updateDashboardURL";
 
+	/** 看板服务端推送数据URL名 */
+	public static final String DASHBOARD_UPDATE_PUSH_URL_NAME = "updateDashboardPushURL";
+
+	/** 看板注册服务端推送查询URL名 */
+	public static final String DASHBOARD_REGISTER_PUSH_URL_NAME = "registerDashboardPushURL";
+
 	/** 看板加载图表URL名 */
 	public static final String DASHBOARD_LOAD_CHART_URL_NAME = "loadChartURL";
 
@@ -65,6 +78,9 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 
 	private DashboardThemeSource dashboardThemeSource = new SimpleDashboardThemeSource();
 
+	@Autowired
+	private DashboardResultJsonWriter dashboardResultJsonWriter;
+
 	public AbstractDataAnalysisController()
 	{
 		super();
@@ -90,6 +106,16 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 		this.dashboardThemeSource = dashboardThemeSource;
 	}
 
+	public DashboardResultJsonWriter getDashboardResultJsonWriter()
+	{
+		return dashboardResultJsonWriter;
+	}
+
+	public void setDashboardResultJsonWriter(DashboardResultJsonWriter dashboardResultJsonWriter)
+	{
+		this.dashboardResultJsonWriter = dashboardResultJsonWriter;
+	}
+
 	protected RenderContext createHtmlRenderContext(HttpServletRequest request, HttpServletResponse response,
 			HtmlTplDashboardRenderAttr renderAttr, WebContext webContext,
 			HtmlTplDashboardWidgetRenderer htmlTplDashboardWidgetRenderer) throws IOException
@@ -176,22 +202,53 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 	 */
 	protected DashboardResult getDashboardResult(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model model, WebContext webContext, DashboardQueryForm form) throws Exception
+	{
+		HtmlTplDashboard dashboard = getSessionHtmlTplDashboardNotNull(request, form);
+		DashboardQuery queriesConverted = convertDashboardQuery(dashboard, form.getDashboardQuery());
+
+		return dashboard.getResult(queriesConverted);
+	}
+
+	/**
+	 * 查询并以流的方式输出看板结果JSON。
+	 * <p>
+	 * 输出格式与{@linkplain ErrorMessageDashboardResult}的JSON一致，但每个图表结果查询完成后即写入响应，
+	 * 不必等待所有图表结果都构建完成。
+	 * </p>
+	 * 
+	 * @param request
+	 * @param response
+	 * @param form
+	 * @throws Exception
+	 */
+	protected void writeDashboardResult(HttpServletRequest request, HttpServletResponse response,
+			DashboardQueryForm form) throws Exception
+	{
+		HtmlTplDashboard dashboard = getSessionHtmlTplDashboardNotNull(request, form);
+		DashboardQuery queriesConverted = convertDashboardQuery(dashboard, form.getDashboardQuery());
+
+		response.setCharacterEncoding(IOUtil.CHARSET_UTF_8);
+		response.setContentType(CONTENT_TYPE_JSON);
+
+		OutputStream out = response.getOutputStream();
+		this.dashboardResultJsonWriter.write(out, dashboard, queriesConverted, true);
+	}
+
+	protected HtmlTplDashboard getSessionHtmlTplDashboardNotNull(HttpServletRequest request,
+			DashboardQueryForm form)
 	{
 		String dashboardId = form.getDashboardId();
-		DashboardQuery dashboardQuery = form.getDashboardQuery();
-		
+
 		if (StringUtil.isEmpty(dashboardId))
 			throw new IllegalInputException();
-		
+
 		SessionHtmlTplDashboardManager dashboardManager = getSessionHtmlTplDashboardManagerNotNull(request);
 		HtmlTplDashboard dashboard = dashboardManager.get(dashboardId);
 
 		if (dashboard == null)
 			throw new RecordNotFoundException();
 
-		DashboardQuery queriesConverted = convertDashboardQuery(dashboard, dashboardQuery);
-
-		return dashboard.getResult(queriesConverted);
+		return dashboard;
 	}
 
 	protected DashboardQuery convertDashboardQuery(Dashboard dashboard, DashboardQuery query)
@@ -294,6 +351,9 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 
 		private transient Map<String, HtmlTplDashboard> htmlTplDashboards;
 
+		/** 已注册、尚未订阅的服务端推送查询 */
+		private transient LinkedHashMap<String, DashboardQueryForm> dataPushForms;
+
 		public SessionHtmlTplDashboardManager()
 		{
 			super();
@@ -314,6 +374,42 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 
 			this.htmlTplDashboards.put(dashboard.getId(), dashboard);
 		}
+
+		/**
+		 * 添加服务端推送查询，超出{@code maxCount}时将移除最早添加的。
+		 * 
+		 * @param pushId
+		 * @param form
+		 * @param maxCount
+		 */
+		public synchronized void putDataPushForm(String pushId, DashboardQueryForm form, int maxCount)
+		{
+			if (this.dataPushForms == null)
+				this.dataPushForms = new LinkedHashMap<>();
+
+			this.dataPushForms.put(pushId, form);
+
+			Iterator<String> it = this.dataPushForms.keySet().iterator();
+			while (this.dataPushForms.size() > maxCount && it.hasNext())
+			{
+				it.next();
+				it.remove();
+			}
+		}
+
+		/**
+		 * 移除并返回服务端推送查询，没有则返回{@code null}。
+		 * 
+		 * @param pushId
+		 * @return
+		 */
+		public synchronized DashboardQueryForm removeDataPushForm(String pushId)
+		{
+			if (this.dataPushForms == null)
+				return null;
+
+			return this.dataPushForms.remove(pushId);
+		}
 	}
 	
 	/**
@@ -7,11 +7,11 @@
 
 package org.datagear.web.controller;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
-import java.util.logging.Logger;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -25,7 +25,10 @@ import org.datagear.management.service.PermissionDeniedException;
 import org.datagear.management.service.SchemaService;
 import org.datagear.management.util.SchemaConnectionSupport;
 import org.datagear.util.JdbcUtil;
+import org.datagear.web.json.jackson.JsonRowHandler;
 import org.datagear.web.util.WebUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -36,13 +39,16 @@ import org.springframework.beans.factory.annotation.Autowired;
  */
 public abstract class AbstractSchemaConnController extends AbstractController
 {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSchemaConnController.class);
+
 	@Autowired
 	private SchemaService schemaService;
 
 	@Autowired
 	private ConnectionSource connectionSource;
 
-	private SchemaConnectionSupport schemaConnectionSupport = new SchemaConnectionSupport();
+	@Autowired
+	private SchemaConnectionSupport schemaConnectionSupport;
 
 	public AbstractSchemaConnController()
 	{
@@ -151,6 +157,45 @@ public abstract class AbstractSchemaConnController extends AbstractController
 		return this.schemaConnectionSupport.getSchemaConnection(this.connectionSource, schema);
 	}
 
+	/**
+	 * 获取指定{@linkplain Schema}用于只读操作的{@linkplain Connection}，它会优先使用只读副本。
+	 * 
+	 * @param schema
+	 * @return
+	 * @throws ConnectionSourceException
+	 */
+	protected Connection getReadonlySchemaConnection(Schema schema) throws ConnectionSourceException
+	{
+		return this.schemaConnectionSupport.getReadonlySchemaConnection(this.connectionSource, schema);
+	}
+
+	/**
+	 * 获取指定{@linkplain Schema}用于只读操作的{@linkplain Connection}，它会优先使用只读副本，
+	 * 但如果用户刚执行过写操作（参考{@linkplain #pinPrimarySchemaConnection(User, Schema)}），将使用主库。
+	 * 
+	 * @param user
+	 * @param schema
+	 * @return
+	 * @throws ConnectionSourceException
+	 */
+	protected Connection getReadonlySchemaConnection(User user, Schema schema) throws ConnectionSourceException
+	{
+		return this.schemaConnectionSupport.getReadonlySchemaConnection(this.connectionSource, schema,
+				(user == null ? null : user.getId()));
+	}
+
+	/**
+	 * 在用户对{@linkplain Schema}执行写操作后调用，使其之后一段时间内的只读操作也使用主库，从而读取到刚写入的数据。
+	 * 
+	 * @param user
+	 * @param schema
+	 */
+	protected void pinPrimarySchemaConnection(User user, Schema schema)
+	{
+		if (user != null)
+			this.schemaConnectionSupport.pinPrimary(schema, user.getId());
+	}
+
 	protected void checkReadTableDataPermission(Schema schema, User user)
 	{
 		if (!Schema.canReadTableData(schema.getDataPermission()))
@@ -169,6 +214,41 @@ public abstract class AbstractSchemaConnController extends AbstractController
 			throw new PermissionDeniedException();
 	}
 
+	/**
+	 * 处理使用{@linkplain JsonRowHandler}将查询结果行流式写入响应时出现的异常。
+	 * <p>
+	 * 如果响应还未提交，已写入的内容都还在响应缓冲区中，将清空缓冲区并重新抛出异常，由统一的异常处理返回错误响应；
+	 * 否则，响应状态已无法更改，将调用{@linkplain JsonRowHandler#abort(String)}写入错误信息属性来结束JSON，
+	 * 使客户端仍能识别结果不完整。
+	 * </p>
+	 * 
+	 * @param request
+	 * @param response
+	 * @param rowHandler
+	 * @param t
+	 * @throws Throwable
+	 */
+	protected void handleStreamingRowsError(HttpServletRequest request, HttpServletResponse response,
+			JsonRowHandler rowHandler, Throwable t) throws Throwable
+	{
+		if (!response.isCommitted())
+		{
+			response.resetBuffer();
+			throw t;
+		}
+
+		LOGGER.error("query rows error after response committed, " + rowHandler.getCount() + " rows written", t);
+
+		try
+		{
+			rowHandler.abort(getMessage(request, "error.streamingRowsInterrupted"));
+		}
+		catch (IOException e)
+		{
+			LOGGER.error("write error property error", e);
+		}
+	}
+
 	/**
 	 * 抽象模式连接执行器。
 	 * <p>
@@ -196,6 +276,9 @@ public abstract class AbstractSchemaConnController extends AbstractController
 
 		private boolean customCommit = false;
 
+		/** 只读时是否优先使用只读副本 */
+		private boolean useReplica = false;
+
 		public AbstractSchemaConnExecutor(HttpServletRequest request, HttpServletResponse response,
 				org.springframework.ui.Model springModel, String schemaId, boolean readonly)
 		{
@@ -220,6 +303,24 @@ public abstract class AbstractSchemaConnController extends AbstractController
 			this.customCommit = customCommit;
 		}
 
+		public boolean isUseReplica()
+		{
+			return useReplica;
+		}
+
+		/**
+		 * 设置只读时是否优先使用只读副本。
+		 * <p>
+		 * 只读副本可能存在复制延迟，仅应为不要求读取最新数据的查询设置为{@code true}。
+		 * </p>
+		 * 
+		 * @param useReplica
+		 */
+		public void setUseReplica(boolean useReplica)
+		{
+			this.useReplica = useReplica;
+		}
+
 		protected void doExecute() throws Throwable
 		{
 			try
@@ -231,6 +332,10 @@ public abstract class AbstractSchemaConnController extends AbstractController
 
 				if (!customCommit)
 					commitConnection();
+
+				// 写操作后固定使用主库，避免之后的查询因复制延迟而读不到刚写入的数据
+				if (!this.readonly)
+					pinPrimarySchemaConnection(WebUtils.getUser(request, response), this._schema);
 			}
 			catch (Throwable e)
 			{
@@ -258,7 +363,9 @@ public abstract class AbstractSchemaConnController extends AbstractController
 		{
 			if (this._cn == null)
 			{
-				this._cn = getSchemaConnection(this._schema);
+				this._cn = (this.readonly && this.useReplica
+						? getReadonlySchemaConnection(WebUtils.getUser(this.request, this.response), this._schema)
+						: getSchemaConnection(this._schema));
 				JdbcUtil.setAutoCommitIfSupports(this._cn, false);
 				JdbcUtil.setReadonlyIfSupports(this._cn, this.readonly);
 			}
@@ -415,6 +522,17 @@ public abstract class AbstractSchemaConnController extends AbstractController
 	{
 		private Schema schema;
 
+		/** 是否优先使用只读副本 */
+		private boolean useReplica = false;
+
+		/**
+		 * 操作用户，允许为{@code null}。
+		 * <p>
+		 * 使用只读副本时，用于判断用户是否刚执行过写操作；使用主库时（写操作），将为此用户固定使用主库，参考{@linkplain #pinPrimarySchemaConnection(User, Schema)}。
+		 * </p>
+		 */
+		private User user = null;
+
 		public SchemaDataSource()
 		{
 			super();
@@ -426,6 +544,21 @@ public abstract class AbstractSchemaConnController extends AbstractController
 			this.schema = schema;
 		}
 
+		public SchemaDataSource(Schema schema, boolean useReplica)
+		{
+			super();
+			this.schema = schema;
+			this.useReplica = useReplica;
+		}
+
+		public SchemaDataSource(Schema schema, boolean useReplica, User user)
+		{
+			super();
+			this.schema = schema;
+			this.useReplica = useReplica;
+			this.user = user;
+		}
+
 		public Schema getSchema()
 		{
 			return schema;
@@ -436,6 +569,26 @@ public abstract class AbstractSchemaConnController extends AbstractController
 			this.schema = schema;
 		}
 
+		public boolean isUseReplica()
+		{
+			return useReplica;
+		}
+
+		public void setUseReplica(boolean useReplica)
+		{
+			this.useReplica = useReplica;
+		}
+
+		public User getUser()
+		{
+			return user;
+		}
+
+		public void setUser(User user)
+		{
+			this.user = user;
+		}
+
 		@SuppressWarnings("unchecked")
 		@Override
 		public <T> T unwrap(Class<T> iface) throws SQLException
@@ -482,6 +635,11 @@ public abstract class AbstractSchemaConnController extends AbstractController
 		@Override
 		public Connection getConnection() throws SQLException
 		{
+			if (this.useReplica)
+				return getReadonlySchemaConnection(this.user, this.schema);
+
+			pinPrimarySchemaConnection(this.user, this.schema);
+
 			return getSchemaConnection(this.schema);
 		}
 
@@ -493,7 +651,7 @@ public abstract class AbstractSchemaConnController extends AbstractController
 
 		// @Override
 		@Override
-		public Logger getParentLogger() throws SQLFeatureNotSupportedException
+		public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException
 		{
 			throw new SQLFeatureNotSupportedException();
 		}
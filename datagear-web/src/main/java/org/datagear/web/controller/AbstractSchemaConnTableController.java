@@ -7,14 +7,23 @@
 
 package org.datagear.web.controller;
 
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.datagear.management.domain.Schema;
 import org.datagear.meta.Table;
 import org.datagear.meta.resolver.DBMetaResolver;
+import org.datagear.meta.resolver.TableNotFoundException;
 import org.datagear.persistence.support.NoColumnDefinedException;
+import org.datagear.util.JdbcUtil;
 import org.datagear.web.util.TableCache;
+import org.datagear.web.util.TableCache.TableLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -25,6 +34,8 @@ import org.springframework.beans.factory.annotation.Autowired;
  */
 public abstract class AbstractSchemaConnTableController extends AbstractSchemaConnController
 {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSchemaConnTableController.class);
+
 	@Autowired
 	private DBMetaResolver dbMetaResolver;
 
@@ -56,6 +67,134 @@ public abstract class AbstractSchemaConnTableController extends AbstractSchemaCo
 		this.tableCache = tableCache;
 	}
 
+	/**
+	 * 获取{@linkplain Table}列表。
+	 * <p>
+	 * 优先从{@linkplain #getTableCache()}中获取，未缓存的将使用{@linkplain DBMetaResolver#getTables(Connection, List)}批量读取并加入缓存，
+	 * 因此也可用于预热缓存。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param schema
+	 * @param tableNames
+	 * @return 与{@code tableNames}一一对应的{@linkplain Table}列表
+	 */
+	protected List<Table> getTables(Connection cn, Schema schema, List<String> tableNames)
+	{
+		checkTableCache(cn, schema);
+
+		TableCache tableCache = getTableCache();
+
+		List<Table> tables = new ArrayList<>(tableNames.size());
+		List<String> loadTableNames = new ArrayList<>(tableNames.size());
+
+		for (String tableName : tableNames)
+		{
+			Table table = tableCache.get(schema.getId(), tableName);
+
+			tables.add(table);
+
+			if (table == null)
+				loadTableNames.add(tableName);
+		}
+
+		if (!loadTableNames.isEmpty())
+		{
+			List<Table> loadTables = getDbMetaResolver().getTables(cn, loadTableNames);
+			tableCache.putAll(schema.getId(), loadTables);
+
+			for (int i = 0, j = 0, len = tables.size(); i < len; i++)
+			{
+				if (tables.get(i) == null)
+					tables.set(i, loadTables.get(j++));
+			}
+		}
+
+		return tables;
+	}
+
+	/**
+	 * 校验{@linkplain #getTableCache()}中指定{@linkplain Schema}的缓存是否过期。
+	 * <p>
+	 * 它仅执行一次获取元信息指纹的查询，过期的表将在后台使用新的主库连接刷新，因此不会阻塞当前请求，
+	 * 也不会从尚未同步的只读副本读取到旧的元信息。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param schema
+	 */
+	protected void checkTableCache(Connection cn, final Schema schema)
+	{
+		TableCache tableCache = getTableCache();
+
+		if (!tableCache.isCheckRequired(schema.getId()))
+			return;
+
+		String fingerprint = null;
+
+		try
+		{
+			fingerprint = getDbMetaResolver().getSchemaFingerprint(cn);
+		}
+		catch (Throwable t)
+		{
+			LOGGER.warn("get schema fingerprint error", t);
+		}
+
+		List<String> refreshTableNames = tableCache.check(schema.getId(), fingerprint);
+
+		tableCache.refresh(schema.getId(), refreshTableNames, new TableLoader()
+		{
+			@Override
+			public List<Table> load(List<String> tableNames) throws Throwable
+			{
+				Connection cn = null;
+
+				try
+				{
+					cn = getSchemaConnection(schema);
+					return loadTables(cn, tableNames);
+				}
+				finally
+				{
+					JdbcUtil.closeConnection(cn);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 加载{@linkplain Table}列表，不存在的表将被忽略。
+	 * 
+	 * @param cn
+	 * @param tableNames
+	 * @return
+	 */
+	protected List<Table> loadTables(Connection cn, List<String> tableNames)
+	{
+		try
+		{
+			return getDbMetaResolver().getTables(cn, tableNames);
+		}
+		catch (TableNotFoundException e)
+		{
+			List<Table> tables = new ArrayList<>(tableNames.size());
+
+			for (String tableName : tableNames)
+			{
+				try
+				{
+					tables.add(getDbMetaResolver().getTable(cn, tableName));
+				}
+				catch (TableNotFoundException e1)
+				{
+				}
+			}
+
+			return tables;
+		}
+	}
+
 	/**
 	 * 抽象数据库表执行器。
 	 * 
@@ -87,6 +226,8 @@ public abstract class AbstractSchemaConnTableController extends AbstractSchemaCo
 		{
 			springModel.addAttribute("tableName", this.tableName);
 
+			checkTableCache(getConnection(), schema);
+
 			Table table = getTableCache().get(schema.getId(), this.tableName);
 			if (table == null)
 			{
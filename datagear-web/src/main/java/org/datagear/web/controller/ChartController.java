@@ -21,13 +21,11 @@ import javax.servlet.http.HttpSession;
 
 import org.datagear.analysis.ChartDataSet;
 import org.datagear.analysis.ChartPluginManager;
-import org.datagear.analysis.DashboardResult;
 import org.datagear.analysis.DataSet;
 import org.datagear.analysis.DataSetQuery;
 import org.datagear.analysis.RenderContext;
 import org.datagear.analysis.ResultDataFormat;
 import org.datagear.analysis.TemplateDashboardWidgetResManager;
-import org.datagear.analysis.support.ErrorMessageDashboardResult;
 import org.datagear.analysis.support.html.HtmlChartPlugin;
 import org.datagear.analysis.support.html.HtmlTplDashboard;
 import org.datagear.analysis.support.html.HtmlTplDashboardRenderAttr;
@@ -46,6 +44,7 @@ import org.datagear.management.service.HtmlChartWidgetEntityService.ChartWidgetS
 import org.datagear.persistence.PagingData;
 import org.datagear.util.IDUtil;
 import org.datagear.util.IOUtil;
+import org.datagear.web.dashboard.DashboardDataPushService;
 import org.datagear.web.util.OperationMessage;
 import org.datagear.web.util.WebUtils;
 import org.datagear.web.vo.APIDDataFilterPagingQuery;
@@ -92,6 +91,9 @@ public class ChartController extends AbstractChartPluginAwareController implemen
 	@Autowired
 	private DataSetEntityService dataSetEntityService;
 
+	@Autowired
+	private DashboardDataPushService dashboardDataPushService;
+
 	private ServletContext servletContext;
 
 	public ChartController()
@@ -150,6 +152,16 @@ public class ChartController extends AbstractChartPluginAwareController implemen
 		this.dataSetEntityService = dataSetEntityService;
 	}
 
+	public DashboardDataPushService getDashboardDataPushService()
+	{
+		return dashboardDataPushService;
+	}
+
+	public void setDashboardDataPushService(DashboardDataPushService dashboardDataPushService)
+	{
+		this.dashboardDataPushService = dashboardDataPushService;
+	}
+
 	public ServletContext getServletContext()
 	{
 		return servletContext;
@@ -287,6 +299,7 @@ public class ChartController extends AbstractChartPluginAwareController implemen
 			inflateHtmlChartWidgetEntity(entity, request);
 			checkSaveEntity(entity);
 			this.htmlChartWidgetEntityService.update(user, entity);
+			this.dashboardDataPushService.evictChartWidgets(entity.getId());
 		}
 
 		// 返回参数不应该完全加载插件对象
@@ -336,6 +349,8 @@ public class ChartController extends AbstractChartPluginAwareController implemen
 			this.htmlChartWidgetEntityService.deleteById(user, id);
 		}
 
+		this.dashboardDataPushService.evictChartWidgets(ids);
+
 		return buildOperationMessageDeleteSuccessResponseEntity(request);
 	}
 
@@ -477,14 +492,10 @@ public class ChartController extends AbstractChartPluginAwareController implemen
 	 * @throws Exception
 	 */
 	@RequestMapping(value = "/showData", produces = CONTENT_TYPE_JSON)
-	@ResponseBody
-	public ErrorMessageDashboardResult showData(HttpServletRequest request, HttpServletResponse response,
+	public void showData(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model model, @RequestBody DashboardQueryForm form) throws Exception
 	{
-		WebContext webContext = createWebContext(request);
-		DashboardResult dashboardResult = getDashboardResult(request, response, model, webContext, form);
-
-		return new ErrorMessageDashboardResult(dashboardResult, true);
+		writeDashboardResult(request, response, form);
 	}
 
 	/**
@@ -22,6 +22,7 @@ import org.datagear.analysis.support.SqlDataSetUnsupportedSqlTypeException;
 import org.datagear.analysis.support.TemplateResolverException;
 import org.datagear.analysis.support.UnsupportedJsonResultDataException;
 import org.datagear.analysis.support.UnsupportedResultDataException;
+import org.datagear.connection.ConnectionCircuitOpenException;
 import org.datagear.connection.ConnectionSourceException;
 import org.datagear.connection.DriverClassFormatErrorException;
 import org.datagear.connection.DriverEntityManagerException;
@@ -35,6 +36,7 @@ import org.datagear.management.service.PermissionDeniedException;
 import org.datagear.management.service.impl.SaveSchemaUrlPermissionDeniedException;
 import org.datagear.meta.resolver.DBMetaResolverException;
 import org.datagear.meta.resolver.TableNotFoundException;
+import org.datagear.persistence.BatchPersistenceException;
 import org.datagear.persistence.NonUniqueResultException;
 import org.datagear.persistence.PersistenceException;
 import org.datagear.persistence.SqlParamValueMapperException;
@@ -196,6 +198,28 @@ public class ControllerAdvice extends AbstractController
 		return getErrorView(request, response);
 	}
 
+	@ExceptionHandler(DeleteCountExceededException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public String handleControllerDeleteCountExceededException(HttpServletRequest request,
+			HttpServletResponse response, DeleteCountExceededException exception)
+	{
+		setOperationMessageForThrowable(request, buildMessageCode(DeleteCountExceededException.class), exception,
+				false, exception.getMaxCount(), exception.getActualCount());
+
+		return getErrorView(request, response);
+	}
+
+	@ExceptionHandler(DeleteConditionRequiredException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public String handleControllerDeleteConditionRequiredException(HttpServletRequest request,
+			HttpServletResponse response, DeleteConditionRequiredException exception)
+	{
+		setOperationMessageForThrowable(request, buildMessageCode(DeleteConditionRequiredException.class), exception,
+				false);
+
+		return getErrorView(request, response);
+	}
+
 	@ExceptionHandler(UserSQLException.class)
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	public String handleControllerUserSQLException(HttpServletRequest request, HttpServletResponse response,
@@ -272,6 +296,21 @@ public class ControllerAdvice extends AbstractController
 		return getErrorView(request, response);
 	}
 
+	@ExceptionHandler(BatchPersistenceException.class)
+	@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+	public String handlePersistenceBatchPersistenceException(HttpServletRequest request,
+			HttpServletResponse response, BatchPersistenceException exception)
+	{
+		if (!exception.hasRowIndex())
+			return handlePersistencePersistenceException(request, response, exception);
+
+		Throwable cause = (exception.getCause() != null ? exception.getCause() : exception);
+		setOperationMessageForThrowable(request, buildMessageCode(BatchPersistenceException.class), cause, true,
+				exception.getRowIndex() + 1, cause.getMessage());
+
+		return getErrorView(request, response);
+	}
+
 	@ExceptionHandler(PersistenceException.class)
 	@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
 	public String handlePersistencePersistenceException(HttpServletRequest request, HttpServletResponse response,
@@ -382,6 +421,19 @@ public class ControllerAdvice extends AbstractController
 		return getErrorView(request, response);
 	}
 
+	@ExceptionHandler(ConnectionCircuitOpenException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public String handleConnectionConnectionCircuitOpenException(HttpServletRequest request,
+			HttpServletResponse response, ConnectionCircuitOpenException exception)
+	{
+		long remainingSeconds = (exception.getRemainingOpenMillis() + 999) / 1000;
+
+		setOperationMessageForThrowable(request, buildMessageCode(ConnectionCircuitOpenException.class), exception,
+				false, remainingSeconds);
+
+		return getErrorView(request, response);
+	}
+
 	@ExceptionHandler(EstablishConnectionException.class)
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	public String handleConnectionEstablishConnectionException(HttpServletRequest request, HttpServletResponse response,
@@ -29,10 +29,9 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import org.datagear.analysis.Chart;
-import org.datagear.analysis.DashboardResult;
+import org.datagear.analysis.DashboardQuery;
 import org.datagear.analysis.RenderContext;
 import org.datagear.analysis.TemplateDashboardWidgetResManager;
-import org.datagear.analysis.support.ErrorMessageDashboardResult;
 import org.datagear.analysis.support.html.HtmlChart;
 import org.datagear.analysis.support.html.HtmlChartWidget;
 import org.datagear.analysis.support.html.HtmlChartWidgetJsonWriter;
@@ -56,6 +55,7 @@ import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 import org.datagear.web.config.ApplicationProperties;
 import org.datagear.web.config.CoreConfig;
+import org.datagear.web.dashboard.DashboardDataPushService;
 import org.datagear.web.util.OperationMessage;
 import org.datagear.web.util.WebUtils;
 import org.datagear.web.vo.APIDDataFilterPagingQuery;
@@ -72,6 +72,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.context.ServletContextAware;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * 看板控制器。
@@ -122,6 +123,9 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 	@Autowired
 	private ApplicationProperties applicationProperties;
 
+	@Autowired
+	private DashboardDataPushService dashboardDataPushService;
+
 	public DashboardController()
 	{
 		super();
@@ -199,6 +203,16 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 		this.applicationProperties = applicationProperties;
 	}
 
+	public DashboardDataPushService getDashboardDataPushService()
+	{
+		return dashboardDataPushService;
+	}
+
+	public void setDashboardDataPushService(DashboardDataPushService dashboardDataPushService)
+	{
+		this.dashboardDataPushService = dashboardDataPushService;
+	}
+
 	@RequestMapping("/add")
 	public String add(HttpServletRequest request, HttpServletResponse response, org.springframework.ui.Model model)
 	{
@@ -1057,14 +1071,87 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 	 * @throws Exception
 	 */
 	@RequestMapping(value = "/showData", produces = CONTENT_TYPE_JSON)
-	@ResponseBody
-	public ErrorMessageDashboardResult showData(HttpServletRequest request, HttpServletResponse response,
+	public void showData(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model model, @RequestBody DashboardQueryForm form) throws Exception
 	{
-		WebContext webContext = createWebContext(request);
-		DashboardResult dashboardResult = getDashboardResult(request, response, model, webContext, form);
+		writeDashboardResult(request, response, form);
+	}
+
+	/**
+	 * 注册看板数据服务端推送查询。
+	 * <p>
+	 * 因为{@code EventSource}仅支持GET请求，看板查询需先通过此请求存入会话，
+	 * 然后再使用返回的{@code pushId}请求{@linkplain #showDataPush(HttpServletRequest, HttpServletResponse, String, String)}，
+	 * 避免将看板查询放在URL中。
+	 * </p>
+	 * 
+	 * @param request
+	 * @param response
+	 * @param form
+	 * @return {@code { pushId: "..." }}
+	 * @throws Exception
+	 */
+	@RequestMapping(value = "/registerDataPush", produces = CONTENT_TYPE_JSON)
+	@ResponseBody
+	public Map<String, Object> registerDataPush(HttpServletRequest request, HttpServletResponse response,
+			@RequestBody DashboardQueryForm form) throws Exception
+	{
+		if (this.applicationProperties.isDashboardDataPushDisabled())
+			throw new IllegalInputException();
+
+		HtmlTplDashboard dashboard = getSessionHtmlTplDashboardNotNull(request, form);
+		DashboardQuery dashboardQuery = convertDashboardQuery(dashboard, form.getDashboardQuery());
+
+		DashboardQueryForm pushForm = new DashboardQueryForm();
+		pushForm.setDashboardId(dashboard.getId());
+		pushForm.setDashboardQuery(dashboardQuery);
+
+		String pushId = IDUtil.randomIdOnTime20();
+
+		SessionHtmlTplDashboardManager dashboardManager = getSessionHtmlTplDashboardManagerNotNull(request);
+		dashboardManager.putDataPushForm(pushId, pushForm,
+				this.dashboardDataPushService.getMaxSubscribersPerOwner());
+
+		Map<String, Object> re = new HashMap<String, Object>();
+		re.put("pushId", pushId);
+
+		return re;
+	}
+
+	/**
+	 * 看板数据服务端推送（SSE）。
+	 * <p>
+	 * 订阅由{@linkplain #registerDataPush(HttpServletRequest, HttpServletResponse, DashboardQueryForm)}注册的看板查询中设置了更新间隔的图表，
+	 * 之后服务端将按照图表更新间隔推送数据，数据格式与{@linkplain #showData(HttpServletRequest, HttpServletResponse, org.springframework.ui.Model, DashboardQueryForm)}一致。
+	 * </p>
+	 * <p>
+	 * 每个会话同时保持的推送连接数是有限的，超出时最早的连接将被关闭。
+	 * </p>
+	 * 
+	 * @param request
+	 * @param response
+	 * @param dashboardId
+	 * @param pushId
+	 *            注册看板查询时返回的ID，仅可使用一次
+	 * @return
+	 * @throws Exception
+	 */
+	@RequestMapping(value = "/showDataPush", produces = CONTENT_TYPE_EVENT_STREAM)
+	public SseEmitter showDataPush(HttpServletRequest request, HttpServletResponse response,
+			@RequestParam("dashboardId") String dashboardId, @RequestParam("pushId") String pushId) throws Exception
+	{
+		if (this.applicationProperties.isDashboardDataPushDisabled())
+			throw new IllegalInputException();
 
-		return new ErrorMessageDashboardResult(dashboardResult, true);
+		SessionHtmlTplDashboardManager dashboardManager = getSessionHtmlTplDashboardManagerNotNull(request);
+		HtmlTplDashboard dashboard = dashboardManager.get(dashboardId);
+		DashboardQueryForm pushForm = dashboardManager.removeDataPushForm(pushId);
+
+		if (dashboard == null || pushForm == null || !dashboardId.equals(pushForm.getDashboardId()))
+			throw new RecordNotFoundException();
+
+		return this.dashboardDataPushService.subscribe(request.getSession().getId(), dashboard,
+				pushForm.getDashboardQuery());
 	}
 
 	/**
@@ -1235,6 +1322,14 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 				addJsessionidParam("/dashboard/showData", session.getId()));
 		webContext.addAttribute(DASHBOARD_LOAD_CHART_URL_NAME,
 				addJsessionidParam("/dashboard/loadChart", session.getId()));
+
+		if (!this.applicationProperties.isDashboardDataPushDisabled())
+		{
+			webContext.addAttribute(DASHBOARD_REGISTER_PUSH_URL_NAME,
+					addJsessionidParam("/dashboard/registerDataPush", session.getId()));
+			webContext.addAttribute(DASHBOARD_UPDATE_PUSH_URL_NAME,
+					addJsessionidParam("/dashboard/showDataPush", session.getId()));
+		}
 		addHeartBeatValue(request, webContext);
 
 		return webContext;
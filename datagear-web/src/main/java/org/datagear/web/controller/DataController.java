@@ -7,13 +7,20 @@
 
 package org.datagear.web.controller;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.io.Serializable;
 import java.io.Writer;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLXML;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,7 +35,11 @@ import org.datagear.management.domain.Schema;
 import org.datagear.management.domain.User;
 import org.datagear.meta.Column;
 import org.datagear.meta.Table;
+import org.datagear.persistence.ColumnValueHandler;
+import org.datagear.persistence.ColumnValueHandlerException;
 import org.datagear.persistence.Dialect;
+import org.datagear.persistence.KeywordMatchMode;
+import org.datagear.persistence.PagingCountMode;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.persistence.PersistenceManager;
@@ -44,14 +55,19 @@ import org.datagear.persistence.support.expression.ExpressionEvaluationContext;
 import org.datagear.util.FileInfo;
 import org.datagear.util.FileUtil;
 import org.datagear.util.IOUtil;
+import org.datagear.util.JDBCCompatiblity;
+import org.datagear.util.JdbcUtil;
 import org.datagear.util.StringUtil;
+import org.datagear.web.config.ApplicationProperties;
 import org.datagear.web.format.DateFormatter;
 import org.datagear.web.format.SqlDateFormatter;
 import org.datagear.web.format.SqlTimeFormatter;
 import org.datagear.web.format.SqlTimestampFormatter;
 import org.datagear.web.freemarker.WriteJsonTemplateDirectiveModel;
+import org.datagear.web.json.jackson.JsonRowHandler;
 import org.datagear.web.json.jackson.ObjectMapperBuilder;
 import org.datagear.web.util.OperationMessage;
+import org.datagear.web.util.QueryCountCache;
 import org.datagear.web.util.WebUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.convert.ConversionException;
@@ -94,6 +110,12 @@ public class DataController extends AbstractSchemaConnTableController
 	@Autowired
 	private File tempDirectory;
 
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
+	@Autowired
+	private QueryCountCache queryCountCache;
+
 	@Autowired
 	private DateFormatter dateFormatter;
 
@@ -137,6 +159,26 @@ public class DataController extends AbstractSchemaConnTableController
 		this.tempDirectory = tempDirectory;
 	}
 
+	public ApplicationProperties getApplicationProperties()
+	{
+		return applicationProperties;
+	}
+
+	public void setApplicationProperties(ApplicationProperties applicationProperties)
+	{
+		this.applicationProperties = applicationProperties;
+	}
+
+	public QueryCountCache getQueryCountCache()
+	{
+		return queryCountCache;
+	}
+
+	public void setQueryCountCache(QueryCountCache queryCountCache)
+	{
+		this.queryCountCache = queryCountCache;
+	}
+
 	public DateFormatter getDateFormatter()
 	{
 		return dateFormatter;
@@ -227,8 +269,19 @@ public class DataController extends AbstractSchemaConnTableController
 		final User user = WebUtils.getUser(request, response);
 		final PagingQuery pagingQuery = inflatePagingQuery(request, paramData);
 
+		if (pagingQuery.getCountMode() == null)
+			pagingQuery.setCountMode(getDefaultPagingCountMode());
+
+		inflateKeywordMatchMode(pagingQuery);
+
 		final DefaultLOBRowMapper rowMapper = buildQueryDefaultLOBRowMapper();
 
+		response.setContentType(CONTENT_TYPE_JSON);
+		Writer out = response.getWriter();
+
+		// 当前页的行直接写入响应，而不必先读入PagingData.items
+		final JsonRowHandler rowHandler = new JsonRowHandler(this._objectMapperForBigNumberToString, out, "items");
+
 		ReturnSchemaConnTableExecutor<PagingData<Row>> executor = new ReturnSchemaConnTableExecutor<PagingData<Row>>(
 				request, response, springModel, schemaId, tableName, true)
 		{
@@ -239,17 +292,29 @@ public class DataController extends AbstractSchemaConnTableController
 				checkReadTableDataPermission(schema, user);
 
 				PagingData<Row> pagingData = persistenceManager.pagingQuery(getConnection(), null, table, pagingQuery,
-						rowMapper);
+						buildConditionSqlParamValueMapper(), rowMapper, rowHandler);
+
+				if (PagingCountMode.CACHED.equals(pagingQuery.getCountMode()))
+					setCachedTotal(schema, table, pagingQuery, pagingData, rowHandler.getCount());
+
 				return pagingData;
 			}
 		};
+		executor.setUseReplica(true);
 
-		PagingData<Row> pagingData = executor.execute();
+		PagingData<Row> pagingData = null;
 
-		response.setContentType(CONTENT_TYPE_JSON);
-		Writer out = response.getWriter();
+		try
+		{
+			pagingData = executor.execute();
+		}
+		catch (Throwable t)
+		{
+			handleStreamingRowsError(request, response, rowHandler, t);
+			return;
+		}
 
-		this._objectMapperForBigNumberToString.writeValue(out, pagingData);
+		rowHandler.finish(pagingData);
 	}
 
 	@RequestMapping(value = "/{schemaId}/{tableName}/getQuerySql", produces = CONTENT_TYPE_JSON)
@@ -260,7 +325,7 @@ public class DataController extends AbstractSchemaConnTableController
 			throws Throwable
 	{
 		final User user = WebUtils.getUser(request, response);
-		final Query query = (paramData == null ? new Query() : paramData);
+		final Query query = inflateKeywordMatchMode(paramData == null ? new Query() : paramData);
 
 		String sql = new ReturnSchemaConnTableExecutor<String>(request, response, springModel, schemaId, tableName,
 				true)
@@ -344,6 +409,8 @@ public class DataController extends AbstractSchemaConnTableController
 			}
 		}.execute();
 
+		invalidateQueryCount(schemaId, tableName);
+
 		return buildOperationMessageSaveSuccessResponseEntity(request, savedRow);
 	}
 
@@ -366,6 +433,8 @@ public class DataController extends AbstractSchemaConnTableController
 			}
 		}.execute();
 
+		invalidateQueryCount(schemaId, tableName);
+
 		return batchResponseEntity;
 	}
 
@@ -442,6 +511,8 @@ public class DataController extends AbstractSchemaConnTableController
 			}
 		}.execute();
 
+		invalidateQueryCount(schemaId, tableName);
+
 		return buildOperationMessageSaveSuccessResponseEntity(request, updatedRow);
 	}
 
@@ -480,9 +551,107 @@ public class DataController extends AbstractSchemaConnTableController
 			}
 		}.execute();
 
+		invalidateQueryCount(schemaId, tableName);
+
 		return responseEntity;
 	}
 
+	@RequestMapping(value = "/{schemaId}/{tableName}/deleteByQueryCount", produces = CONTENT_TYPE_JSON)
+	@ResponseBody
+	public Map<String, ?> deleteByQueryCount(HttpServletRequest request, HttpServletResponse response,
+			org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId,
+			@PathVariable("tableName") String tableName, @RequestBody(required = false) Query paramData)
+			throws Throwable
+	{
+		final User user = WebUtils.getUser(request, response);
+		final Query query = inflateKeywordMatchMode(paramData == null ? new Query() : paramData);
+
+		checkDeleteByQueryCondition(query);
+
+		long count = new ReturnSchemaConnTableExecutor<Long>(request, response, springModel, schemaId, tableName,
+				true)
+		{
+			@Override
+			protected Long execute(HttpServletRequest request, HttpServletResponse response,
+					org.springframework.ui.Model springModel, Schema schema, Table table) throws Throwable
+			{
+				checkDeleteTableDataPermission(schema, user);
+
+				return persistenceManager.count(getConnection(), table, query);
+			}
+		}.execute();
+
+		Map<String, Object> map = new HashMap<>();
+		map.put("count", count);
+		map.put("maxCount", getDeleteByQueryMaxCount());
+
+		return map;
+	}
+
+	@RequestMapping(value = "/{schemaId}/{tableName}/deleteByQuery", produces = CONTENT_TYPE_JSON)
+	@ResponseBody
+	public ResponseEntity<OperationMessage> deleteByQuery(HttpServletRequest request, HttpServletResponse response,
+			org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId,
+			@PathVariable("tableName") String tableName, @RequestBody(required = false) Query paramData)
+			throws Throwable
+	{
+		final User user = WebUtils.getUser(request, response);
+		final Query query = inflateKeywordMatchMode(paramData == null ? new Query() : paramData);
+		final int maxCount = getDeleteByQueryMaxCount();
+
+		checkDeleteByQueryCondition(query);
+
+		ResponseEntity<OperationMessage> responseEntity = new ReturnSchemaConnTableExecutor<ResponseEntity<OperationMessage>>(
+				request, response, springModel, schemaId, tableName, false)
+		{
+			@Override
+			protected ResponseEntity<OperationMessage> execute(HttpServletRequest request, HttpServletResponse response,
+					org.springframework.ui.Model springModel, Schema schema, Table table) throws Throwable
+			{
+				checkDeleteTableDataPermission(schema, user);
+
+				Connection cn = getConnection();
+				Dialect dialect = persistenceManager.getDialectSource().getDialect(cn);
+
+				if (maxCount > 0)
+				{
+					long matchCount = persistenceManager.count(cn, dialect, table, query);
+
+					if (matchCount > maxCount)
+						throw new DeleteCountExceededException(maxCount, matchCount);
+				}
+
+				int count = persistenceManager.delete(cn, dialect, table, query);
+
+				// 统计后可能有新增的匹配记录，超出时抛出异常以回滚
+				if (maxCount > 0 && count > maxCount)
+					throw new DeleteCountExceededException(maxCount, count);
+
+				ResponseEntity<OperationMessage> responseEntity = buildOperationMessageDeleteCountResponseEntity(
+						request, count);
+				responseEntity.getBody().setData(count);
+
+				return responseEntity;
+			}
+		}.execute();
+
+		invalidateQueryCount(schemaId, tableName);
+
+		return responseEntity;
+	}
+
+	/**
+	 * 校验按查询删除的查询条件，没有关键字和条件时（即匹配全表记录）抛出{@linkplain DeleteConditionRequiredException}。
+	 * 
+	 * @param query
+	 * @throws DeleteConditionRequiredException
+	 */
+	protected void checkDeleteByQueryCondition(Query query) throws DeleteConditionRequiredException
+	{
+		if (StringUtil.isBlank(query.getKeyword()) && StringUtil.isBlank(query.getCondition()))
+			throw new DeleteConditionRequiredException();
+	}
+
 	@RequestMapping("/{schemaId}/{tableName}/view")
 	public String view(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId,
@@ -570,23 +739,15 @@ public class DataController extends AbstractSchemaConnTableController
 
 				if (updateOriginRows != null && updateOriginRows.length > 0)
 				{
-					for (int i = 0; i < updateOriginRows.length; i++)
-					{
-						Row updateRow = updateTargetRows[i];
-
-						int myUpdateCount = persistenceManager.update(cn, dialect, table, updateOriginRows[i],
-								updateRow, paramValueMapper);
-						acutalUpdateCount += myUpdateCount;
-					}
+					int myUpdateCount = persistenceManager.update(cn, dialect, table, updateOriginRows,
+							updateTargetRows, paramValueMapper);
+					acutalUpdateCount += myUpdateCount;
 				}
 
 				if (addRows != null && addRows.length > 0)
 				{
-					for (int i = 0; i < addRows.length; i++)
-					{
-						persistenceManager.insert(cn, dialect, table, addRows[i], paramValueMapper);
-						actualAddCount += 1;
-					}
+					int myAddCount = persistenceManager.insert(cn, dialect, table, addRows, paramValueMapper);
+					actualAddCount += myAddCount;
 				}
 
 				if (deleteRows != null && deleteRows.length > 0)
@@ -606,6 +767,8 @@ public class DataController extends AbstractSchemaConnTableController
 			}
 		}.execute();
 
+		invalidateQueryCount(schemaId, tableName);
+
 		return responseEntity;
 	}
 
@@ -694,52 +857,207 @@ public class DataController extends AbstractSchemaConnTableController
 		@SuppressWarnings("unchecked")
 		final Row row = convertToRow(this._objectMapper.readValue(rowJsonStr, Map.class));
 
-		final DefaultLOBRowMapper rowMapper = new DefaultLOBRowMapper();
-		rowMapper.setReadActualClobRows(0);
-		rowMapper.setReadActualBinaryRows(1);
-		rowMapper.setBinaryEncoder(DefaultLOBRowMapper.BINARY_ENCODER_NONE);
-		rowMapper.setBinaryDirectory(getDataBinaryTmpDirectory());
-
-		Object columnValue = new ReturnSchemaConnTableExecutor<Object>(request, response, springModel, schemaId,
+		Boolean found = new ReturnSchemaConnTableExecutor<Boolean>(request, response, springModel, schemaId,
 				tableName, true)
 		{
 			@Override
-			protected Object execute(HttpServletRequest request, HttpServletResponse response,
+			protected Boolean execute(final HttpServletRequest request, final HttpServletResponse response,
 					org.springframework.ui.Model springModel, Schema schema, Table table) throws Throwable
 			{
 				checkReadTableDataPermission(schema, user);
 
-				Connection cn = getConnection();
-
-				Row getRow = persistenceManager.get(cn, null, table, row, buildConditionSqlParamValueMapper(),
-						rowMapper);
-				return (getRow == null ? null : getRow.get(columnName));
+				// 列值直接由结果集写入响应，而不必先写入临时文件
+				return persistenceManager.getColumnValue(getConnection(), null, table, row, columnName,
+						buildConditionSqlParamValueMapper(), new ColumnValueHandler()
+						{
+							@Override
+							public void handle(Connection cn, Table table, Column column, ResultSet rs,
+									int columnIndex) throws ColumnValueHandlerException
+							{
+								try
+								{
+									writeColumnValue(request, response, table, column, rs, columnIndex);
+								}
+								catch (ColumnValueHandlerException e)
+								{
+									throw e;
+								}
+								catch (Throwable t)
+								{
+									throw new ColumnValueHandlerException(t);
+								}
+							}
+						});
 			}
 		}.execute();
 
-		response.setCharacterEncoding(IOUtil.CHARSET_UTF_8);
-		response.setHeader("Content-Disposition",
-				"attachment; filename=" + toResponseAttachmentFileName(request, response, columnName));
+		// 记录不存在时返回空文件
+		if (!Boolean.TRUE.equals(found))
+		{
+			setDownloadColumnValueHeader(request, response, columnName);
+			IOUtil.close(response.getOutputStream());
+		}
+	}
+
+	/**
+	 * 将结果集当前行的LOB、二进制列值写入下载响应。
+	 * 
+	 * @param request
+	 * @param response
+	 * @param table
+	 * @param column
+	 * @param rs
+	 * @param columnIndex
+	 * @throws Throwable
+	 */
+	protected void writeColumnValue(HttpServletRequest request, HttpServletResponse response, Table table,
+			Column column, ResultSet rs, int columnIndex) throws Throwable
+	{
+		switch (column.getType())
+		{
+			case Types.BLOB:
+			{
+				Blob blob = rs.getBlob(columnIndex);
+				setDownloadColumnValueHeader(request, response, column.getName());
+
+				if (blob == null)
+					IOUtil.close(response.getOutputStream());
+				else
+				{
+					try
+					{
+						writeBlobColumnValue(request, response, blob);
+					}
+					finally
+					{
+						freeLOB(blob);
+					}
+				}
+
+				break;
+			}
+
+			case Types.BINARY:
+			case Types.VARBINARY:
+			case Types.LONGVARBINARY:
+			{
+				InputStream in = rs.getBinaryStream(columnIndex);
+				setDownloadColumnValueHeader(request, response, column.getName());
+				writeInputStream(response, in);
+
+				break;
+			}
+
+			case Types.CLOB:
+			case Types.NCLOB:
+			{
+				Clob clob = (column.getType() == Types.NCLOB ? rs.getNClob(columnIndex) : rs.getClob(columnIndex));
+				setDownloadColumnValueHeader(request, response, column.getName());
+
+				try
+				{
+					writeReader(response, (clob == null ? null : clob.getCharacterStream()));
+				}
+				finally
+				{
+					freeLOB(clob);
+				}
+
+				break;
+			}
+
+			case Types.LONGVARCHAR:
+			case Types.LONGNVARCHAR:
+			{
+				Reader reader = rs.getCharacterStream(columnIndex);
+				setDownloadColumnValueHeader(request, response, column.getName());
+				writeReader(response, reader);
+
+				break;
+			}
+
+			case Types.SQLXML:
+			{
+				SQLXML sqlxml = rs.getSQLXML(columnIndex);
+				setDownloadColumnValueHeader(request, response, column.getName());
+
+				try
+				{
+					writeReader(response, (sqlxml == null ? null : sqlxml.getCharacterStream()));
+				}
+				finally
+				{
+					freeLOB(sqlxml);
+				}
+
+				break;
+			}
+
+			default:
+				throw new IllegalArgumentException(
+						"Table '" + table.getName() + "' column '" + column.getName() + "' 's value is not downloadable");
+		}
+	}
+
+	/**
+	 * 写入{@linkplain Blob}列值。
+	 * <p>
+	 * 它会设置{@code Content-Length}，并支持单一范围的{@code Range}请求。
+	 * </p>
+	 * 
+	 * @param request
+	 * @param response
+	 * @param blob
+	 * @throws Throwable
+	 */
+	protected void writeBlobColumnValue(HttpServletRequest request, HttpServletResponse response, Blob blob)
+			throws Throwable
+	{
+		long length = blob.length();
+		long[] range = resolveByteRange(request.getHeader("Range"), length);
+
+		response.setHeader("Accept-Ranges", "bytes");
+
+		if (range != null && range.length == 0)
+		{
+			response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			response.setHeader("Content-Range", "bytes */" + length);
+			return;
+		}
 
 		InputStream in = null;
 		OutputStream out = null;
 
 		try
 		{
-			out = response.getOutputStream();
-
-			if (!StringUtil.isEmpty(columnValue))
+			if (range == null)
 			{
-				if (columnValue instanceof String)
-					in = IOUtil.getInputStream(rowMapper.getBlobFile((String) columnValue));
-				else if (columnValue instanceof byte[])
-					in = new ByteArrayInputStream((byte[]) columnValue);
-				else
-					throw new IllegalArgumentException(
-							"Table '" + tableName + "' column '" + columnValue + "' 's value is not downloadable");
+				response.setContentLengthLong(length);
 
+				in = blob.getBinaryStream();
+				out = response.getOutputStream();
 				IOUtil.write(in, out);
 			}
+			else
+			{
+				long rangeLength = range[1] - range[0] + 1;
+				long skip = 0;
+
+				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				response.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + length);
+				response.setContentLengthLong(rangeLength);
+
+				in = getBlobBinaryStream(blob, range[0], rangeLength);
+
+				if (in == null)
+				{
+					in = blob.getBinaryStream();
+					skip = range[0];
+				}
+
+				out = response.getOutputStream();
+				IOUtil.write(in, out, skip, rangeLength);
+			}
 		}
 		finally
 		{
@@ -748,6 +1066,166 @@ public class DataController extends AbstractSchemaConnTableController
 		}
 	}
 
+	/**
+	 * 获取{@linkplain Blob}指定范围的输入流。
+	 * 
+	 * @param blob
+	 * @param start
+	 *            起始位置，以{@code 0}开始
+	 * @param length
+	 * @return 返回{@code null}表示驱动不支持
+	 * @throws SQLException
+	 */
+	@JDBCCompatiblity("某些驱动不支持Blob.getBinaryStream(long, long)，此时应读取全部并跳过开头")
+	protected InputStream getBlobBinaryStream(Blob blob, long start, long length) throws SQLException
+	{
+		try
+		{
+			return blob.getBinaryStream(start + 1, length);
+		}
+		catch (SQLFeatureNotSupportedException | AbstractMethodError e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * 解析{@code Range}请求头的单一字节范围。
+	 * 
+	 * @param range
+	 *            允许为{@code null}
+	 * @param length
+	 *            总字节数
+	 * @return {@code null}表示没有范围或者不支持（比如多个范围），应返回全部内容；空数组表示范围无法满足；
+	 *         否则，为{@code [起始位置, 结束位置]}，以{@code 0}开始，包含结束位置
+	 */
+	protected long[] resolveByteRange(String range, long length)
+	{
+		if (StringUtil.isEmpty(range))
+			return null;
+
+		range = range.trim();
+
+		if (!range.startsWith("bytes=") || range.indexOf(',') > -1)
+			return null;
+
+		String spec = range.substring("bytes=".length()).trim();
+		int dashIndex = spec.indexOf('-');
+
+		if (dashIndex < 0)
+			return null;
+
+		String startStr = spec.substring(0, dashIndex).trim();
+		String endStr = spec.substring(dashIndex + 1).trim();
+
+		long start = -1;
+		long end = -1;
+
+		try
+		{
+			// 后缀范围：最后N个字节
+			if (startStr.isEmpty())
+			{
+				if (endStr.isEmpty())
+					return null;
+
+				long suffixLength = Long.parseLong(endStr);
+
+				if (suffixLength <= 0 || length <= 0)
+					return new long[0];
+
+				start = Math.max(0, length - suffixLength);
+				end = length - 1;
+			}
+			else
+			{
+				start = Long.parseLong(startStr);
+				end = (endStr.isEmpty() ? Long.MAX_VALUE : Long.parseLong(endStr));
+
+				if (start < 0 || end < start)
+					return null;
+
+				if (start >= length)
+					return new long[0];
+
+				end = Math.min(end, length - 1);
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+
+		return new long[] { start, end };
+	}
+
+	protected void writeInputStream(HttpServletResponse response, InputStream in) throws Throwable
+	{
+		OutputStream out = null;
+
+		try
+		{
+			out = response.getOutputStream();
+
+			if (in != null)
+				IOUtil.write(in, out);
+		}
+		finally
+		{
+			IOUtil.close(in);
+			IOUtil.close(out);
+		}
+	}
+
+	protected void writeReader(HttpServletResponse response, Reader reader) throws Throwable
+	{
+		Writer out = null;
+
+		try
+		{
+			out = IOUtil.getWriter(response.getOutputStream(), RESPONSE_ENCODING);
+
+			if (reader != null)
+				IOUtil.write(reader, out);
+		}
+		finally
+		{
+			IOUtil.close(reader);
+			IOUtil.close(out);
+		}
+	}
+
+	protected void setDownloadColumnValueHeader(HttpServletRequest request, HttpServletResponse response,
+			String columnName) throws Throwable
+	{
+		response.setCharacterEncoding(RESPONSE_ENCODING);
+		response.setHeader("Content-Disposition",
+				"attachment; filename=" + toResponseAttachmentFileName(request, response, columnName));
+	}
+
+	/**
+	 * 释放LOB资源，此方法不抛出任何异常。
+	 * 
+	 * @param lob
+	 *            {@linkplain Blob}、{@linkplain Clob}、{@linkplain SQLXML}，允许为{@code null}
+	 */
+	@JDBCCompatiblity("某些驱动不支持free()方法")
+	protected void freeLOB(Object lob)
+	{
+		try
+		{
+			if (lob instanceof Blob)
+				((Blob) lob).free();
+			else if (lob instanceof Clob)
+				((Clob) lob).free();
+			else if (lob instanceof SQLXML)
+				((SQLXML) lob).free();
+		}
+		catch (Throwable t)
+		{
+		}
+	}
+
 	@RequestMapping(value = "/uploadFile", produces = CONTENT_TYPE_JSON)
 	@ResponseBody
 	public FileInfo uploadFile(HttpServletRequest request, @RequestParam("file") MultipartFile multipartFile)
@@ -801,6 +1279,131 @@ public class DataController extends AbstractSchemaConnTableController
 		return fileInfo;
 	}
 
+	/**
+	 * 为{@linkplain PagingCountMode#CACHED}分页数据设置缓存的总记录数，没有缓存时在后台统计。
+	 * 
+	 * @param schema
+	 * @param table
+	 * @param pagingQuery
+	 * @param pagingData
+	 * @param itemCount
+	 *            当前页的行数
+	 */
+	protected void setCachedTotal(final Schema schema, final Table table, final PagingQuery pagingQuery,
+			PagingData<Row> pagingData, int itemCount)
+	{
+		Long total = this.queryCountCache.get(schema.getId(), table.getName(), pagingQuery);
+
+		if (total != null)
+		{
+			long knownTotal = pagingData.getStartIndex() + itemCount + (pagingData.isHasNextPage() ? 1 : 0);
+
+			// 缓存值小于已确知的记录数，说明已过期
+			if (total >= knownTotal)
+			{
+				pagingData.updateTotal(total, false);
+				return;
+			}
+
+			this.queryCountCache.invalidate(schema.getId(), table.getName(), pagingQuery);
+		}
+
+		this.queryCountCache.countAsync(schema.getId(), table.getName(), pagingQuery, new QueryCountCache.Counter()
+		{
+			@Override
+			public long count() throws Throwable
+			{
+				Connection cn = null;
+
+				try
+				{
+					// 使用主库统计，避免缓存只读副本上尚未同步的记录数
+					cn = getSchemaConnection(schema);
+
+					return persistenceManager.count(cn, table, pagingQuery);
+				}
+				finally
+				{
+					JdbcUtil.closeConnection(cn);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 清除表的查询记录数缓存，表数据变更后应调用此方法。
+	 * 
+	 * @param schemaId
+	 * @param tableName
+	 */
+	protected void invalidateQueryCount(String schemaId, String tableName)
+	{
+		this.queryCountCache.invalidate(schemaId, tableName);
+	}
+
+	/**
+	 * 获取默认的分页总记录数统计方式。
+	 * 
+	 * @return
+	 */
+	protected PagingCountMode getDefaultPagingCountMode()
+	{
+		String mode = this.applicationProperties.getTableDataPagingCountMode();
+
+		try
+		{
+			return (StringUtil.isEmpty(mode) ? PagingCountMode.EXACT : PagingCountMode.valueOf(mode.trim().toUpperCase()));
+		}
+		catch (IllegalArgumentException e)
+		{
+			return PagingCountMode.EXACT;
+		}
+	}
+
+	/**
+	 * 如果未设置关键字匹配方式，则设置为默认的。
+	 * 
+	 * @param query
+	 * @return
+	 */
+	protected <T extends Query> T inflateKeywordMatchMode(T query)
+	{
+		if (query.getKeywordMatchMode() == null)
+			query.setKeywordMatchMode(getDefaultKeywordMatchMode());
+
+		return query;
+	}
+
+	/**
+	 * 获取默认的关键字匹配方式。
+	 * 
+	 * @return
+	 */
+	protected KeywordMatchMode getDefaultKeywordMatchMode()
+	{
+		String mode = this.applicationProperties.getTableDataKeywordMatchMode();
+
+		try
+		{
+			return (StringUtil.isEmpty(mode) ? KeywordMatchMode.CONTAINS
+					: KeywordMatchMode.valueOf(mode.trim().toUpperCase()));
+		}
+		catch (IllegalArgumentException e)
+		{
+			return KeywordMatchMode.CONTAINS;
+		}
+	}
+
+	/**
+	 * 获取“删除全部匹配”操作允许删除的最大记录数。
+	 * 
+	 * @return 小于等于0表示不限制
+	 */
+	protected int getDeleteByQueryMaxCount()
+	{
+		return this.applicationProperties.getTableDataDeleteByQueryMaxCount();
+	}
+
 	protected Row convertToRow(Map<String, ?> map)
 	{
 		if (map == null)
@@ -267,7 +267,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		checkDeleteTableDataPermission(schema, user);
 
-		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema));
+		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema, false, user));
 
 		Locale locale = getLocale(request);
 
@@ -394,7 +394,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		checkDeleteTableDataPermission(schema, user);
 
-		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema));
+		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema, false, user));
 
 		Locale locale = getLocale(request);
 
@@ -521,7 +521,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		checkDeleteTableDataPermission(schema, user);
 
-		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema));
+		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema, false, user));
 
 		Locale locale = getLocale(request);
 
@@ -652,7 +652,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		checkDeleteTableDataPermission(schema, user);
 
-		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema));
+		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema, false, user));
 
 		Locale locale = getLocale(request);
 
@@ -907,7 +907,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		checkReadTableDataPermission(schema, user);
 
-		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema));
+		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema, true, user));
 
 		Locale locale = getLocale(request);
 
@@ -1011,7 +1011,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		checkReadTableDataPermission(schema, user);
 
-		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema));
+		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema, true, user));
 
 		Locale locale = getLocale(request);
 
@@ -1123,7 +1123,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		checkReadTableDataPermission(schema, user);
 
-		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema));
+		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema, true, user));
 
 		Locale locale = getLocale(request);
 
@@ -1241,7 +1241,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		checkReadTableDataPermission(schema, user);
 
-		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema));
+		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema, true, user));
 
 		Locale locale = getLocale(request);
 
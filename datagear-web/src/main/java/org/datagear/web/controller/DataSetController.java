@@ -59,6 +59,7 @@ import org.datagear.util.FileUtil;
 import org.datagear.util.IDUtil;
 import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
+import org.datagear.web.dashboard.DashboardDataPushService;
 import org.datagear.web.util.OperationMessage;
 import org.datagear.web.util.WebUtils;
 import org.datagear.web.vo.APIDDataFilterPagingQuery;
@@ -101,6 +102,9 @@ public class DataSetController extends AbstractSchemaConnController
 	@Autowired
 	private DataSetResDirectoryService dataSetResDirectoryService;
 
+	@Autowired
+	private DashboardDataPushService dashboardDataPushService;
+
 	public DataSetController()
 	{
 		super();
@@ -156,6 +160,16 @@ public class DataSetController extends AbstractSchemaConnController
 		this.dataSetResDirectoryService = dataSetResDirectoryService;
 	}
 
+	public DashboardDataPushService getDashboardDataPushService()
+	{
+		return dashboardDataPushService;
+	}
+
+	public void setDashboardDataPushService(DashboardDataPushService dashboardDataPushService)
+	{
+		this.dashboardDataPushService = dashboardDataPushService;
+	}
+
 	@RequestMapping("/addFor" + DataSetEntity.DATA_SET_TYPE_SQL)
 	public String addForSql(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model model)
@@ -534,6 +548,7 @@ public class DataSetController extends AbstractSchemaConnController
 		trimAnalysisProjectAwareEntityForSave(dataSet);
 
 		this.dataSetEntityService.update(user, dataSet);
+		this.dashboardDataPushService.evictDataSets(dataSet.getId());
 
 		return buildOperationMessageSaveSuccessResponseEntity(request, dataSet);
 	}
@@ -553,6 +568,7 @@ public class DataSetController extends AbstractSchemaConnController
 		trimAnalysisProjectAwareEntityForSave(dataSet);
 
 		this.dataSetEntityService.update(user, dataSet);
+		this.dashboardDataPushService.evictDataSets(dataSet.getId());
 
 		return buildOperationMessageSaveSuccessResponseEntity(request, dataSet);
 	}
@@ -574,6 +590,7 @@ public class DataSetController extends AbstractSchemaConnController
 		trimDirectoryFileDataSetEntityForSave(dataSet);
 
 		this.dataSetEntityService.update(user, dataSet);
+		this.dashboardDataPushService.evictDataSets(dataSet.getId());
 		copyToDirectoryFileDataSetEntityDirectoryIf(dataSet, originalFileName);
 
 		return buildOperationMessageSaveSuccessResponseEntity(request, dataSet);
@@ -596,6 +613,7 @@ public class DataSetController extends AbstractSchemaConnController
 		trimDirectoryFileDataSetEntityForSave(dataSet);
 
 		this.dataSetEntityService.update(user, dataSet);
+		this.dashboardDataPushService.evictDataSets(dataSet.getId());
 		copyToDirectoryFileDataSetEntityDirectoryIf(dataSet, originalFileName);
 
 		return buildOperationMessageSaveSuccessResponseEntity(request, dataSet);
@@ -616,6 +634,7 @@ public class DataSetController extends AbstractSchemaConnController
 		trimAnalysisProjectAwareEntityForSave(dataSet);
 
 		this.dataSetEntityService.update(user, dataSet);
+		this.dashboardDataPushService.evictDataSets(dataSet.getId());
 
 		return buildOperationMessageSaveSuccessResponseEntity(request, dataSet);
 	}
@@ -637,6 +656,7 @@ public class DataSetController extends AbstractSchemaConnController
 		trimDirectoryFileDataSetEntityForSave(dataSet);
 
 		this.dataSetEntityService.update(user, dataSet);
+		this.dashboardDataPushService.evictDataSets(dataSet.getId());
 		copyToDirectoryFileDataSetEntityDirectoryIf(dataSet, originalFileName);
 
 		return buildOperationMessageSaveSuccessResponseEntity(request, dataSet);
@@ -657,6 +677,7 @@ public class DataSetController extends AbstractSchemaConnController
 		trimAnalysisProjectAwareEntityForSave(dataSet);
 
 		this.dataSetEntityService.update(user, dataSet);
+		this.dashboardDataPushService.evictDataSets(dataSet.getId());
 
 		return buildOperationMessageSaveSuccessResponseEntity(request, dataSet);
 	}
@@ -792,6 +813,8 @@ public class DataSetController extends AbstractSchemaConnController
 			FileUtil.deleteFile(dataSetDirectory);
 		}
 
+		this.dashboardDataPushService.evictDataSets(ids);
+
 		return buildOperationMessageDeleteSuccessResponseEntity(request);
 	}
 
@@ -852,6 +875,7 @@ public class DataSetController extends AbstractSchemaConnController
 		Schema schema = (notFound ? getSchemaForUserNotNull(user, schemaId) : getSchemaNotNull(schemaId));
 
 		SchemaConnectionFactory connectionFactory = new SchemaConnectionFactory(getConnectionSource(), schema);
+		connectionFactory.setReplicaSelector(getSchemaConnectionSupport().getReplicaSelector());
 		dataSet.setConnectionFactory(connectionFactory);
 
 		DataSetQuery query = getDataSetParamValueConverter().convert(preview.getQuery(), dataSet);
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018 datagear.tech
+ * 
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.controller;
+
+/**
+ * 按查询删除时未设置查询条件异常。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DeleteConditionRequiredException extends ControllerException
+{
+	private static final long serialVersionUID = 1L;
+
+	public DeleteConditionRequiredException()
+	{
+		super();
+	}
+
+	public DeleteConditionRequiredException(String message)
+	{
+		super(message);
+	}
+
+	public DeleteConditionRequiredException(Throwable cause)
+	{
+		super(cause);
+	}
+
+	public DeleteConditionRequiredException(String message, Throwable cause)
+	{
+		super(message, cause);
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.controller;
+
+/**
+ * 删除记录数超过允许的最大数目异常。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DeleteCountExceededException extends ControllerException
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 允许的最大数目 */
+	private long maxCount;
+
+	/** 实际数目 */
+	private long actualCount;
+
+	public DeleteCountExceededException(long maxCount, long actualCount)
+	{
+		super();
+		this.maxCount = maxCount;
+		this.actualCount = actualCount;
+	}
+
+	public long getMaxCount()
+	{
+		return maxCount;
+	}
+
+	protected void setMaxCount(long maxCount)
+	{
+		this.maxCount = maxCount;
+	}
+
+	public long getActualCount()
+	{
+		return actualCount;
+	}
+
+	protected void setActualCount(long actualCount)
+	{
+		this.actualCount = actualCount;
+	}
+}
@@ -8,6 +8,8 @@
 package org.datagear.web.controller;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -16,9 +18,14 @@ import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.datagear.connection.ConnectionCircuitStat;
+import org.datagear.connection.ConnectionPoolStat;
+import org.datagear.connection.ConnectionSource;
+import org.datagear.connection.DefaultConnectionSource;
 import org.datagear.connection.DriverEntity;
 import org.datagear.connection.DriverEntityManager;
 import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.SchemaReplica;
 import org.datagear.management.domain.User;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
@@ -28,8 +35,11 @@ import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.util.IDUtil;
 import org.datagear.util.JdbcUtil;
+import org.datagear.util.StringUtil;
 import org.datagear.web.util.KeywordMatcher;
 import org.datagear.web.util.OperationMessage;
+import org.datagear.web.util.SimpleTableIndex;
+import org.datagear.web.util.SimpleTableIndexCache;
 import org.datagear.web.util.WebUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -55,6 +65,9 @@ public class SchemaController extends AbstractSchemaConnTableController
 	@Autowired
 	private DriverEntityManager driverEntityManager;
 
+	@Autowired
+	private SimpleTableIndexCache simpleTableIndexCache;
+
 	public SchemaController()
 	{
 		super();
@@ -70,6 +83,16 @@ public class SchemaController extends AbstractSchemaConnTableController
 		this.driverEntityManager = driverEntityManager;
 	}
 
+	public SimpleTableIndexCache getSimpleTableIndexCache()
+	{
+		return simpleTableIndexCache;
+	}
+
+	public void setSimpleTableIndexCache(SimpleTableIndexCache simpleTableIndexCache)
+	{
+		this.simpleTableIndexCache = simpleTableIndexCache;
+	}
+
 	@RequestMapping("/add")
 	public String add(org.springframework.ui.Model model,
 			@RequestParam(value = "copyId", required = false) String copyId)
@@ -88,6 +111,8 @@ public class SchemaController extends AbstractSchemaConnTableController
 				schema.setUrl(sourceSchema.getUrl());
 				schema.setUser(sourceSchema.getUser());
 				schema.setDriverEntity(sourceSchema.getDriverEntity());
+				schema.setPoolOption(sourceSchema.getPoolOption());
+				schema.setReplicas(sourceSchema.getReplicas());
 			}
 		}
 
@@ -101,13 +126,16 @@ public class SchemaController extends AbstractSchemaConnTableController
 	@RequestMapping(value = "/saveadd", produces = CONTENT_TYPE_JSON)
 	@ResponseBody
 	public ResponseEntity<OperationMessage> saveAdd(HttpServletRequest request, HttpServletResponse response,
-			Schema schema)
+			Schema schema, @RequestParam(value = "replicasText", required = false) String replicasText)
 	{
 		User user = WebUtils.getUser(request, response);
 
 		if (isBlank(schema.getTitle()) || isBlank(schema.getUrl()))
 			throw new IllegalInputException();
 
+		trimPoolOption(schema);
+		schema.setReplicas(resolveReplicas(replicasText));
+
 		schema.setId(IDUtil.randomIdOnTime20());
 		schema.setCreateTime(new Date());
 		schema.setCreateUser(user.cloneNoPassword());
@@ -138,11 +166,14 @@ public class SchemaController extends AbstractSchemaConnTableController
 	@RequestMapping(value = "/saveedit", produces = CONTENT_TYPE_JSON)
 	@ResponseBody
 	public ResponseEntity<OperationMessage> saveEdit(HttpServletRequest request, HttpServletResponse response,
-			Schema schema)
+			Schema schema, @RequestParam(value = "replicasText", required = false) String replicasText)
 	{
 		if (isBlank(schema.getTitle()) || isBlank(schema.getUrl()))
 			throw new IllegalInputException();
 
+		trimPoolOption(schema);
+		schema.setReplicas(resolveReplicas(replicasText));
+
 		User user = WebUtils.getUser(request, response);
 
 		Schema old = getSchemaService().getById(schema.getId());
@@ -152,7 +183,10 @@ public class SchemaController extends AbstractSchemaConnTableController
 		// 如果URL或者用户变更了，则需要清除缓存
 		if (updated && old != null
 				&& (!schema.getUrl().equals(old.getUrl()) || !schema.getUser().equals(old.getUser())))
+		{
 			getTableCache().invalidate(schema.getId());
+			getSimpleTableIndexCache().invalidate(schema.getId());
+		}
 
 		return buildOperationMessageSaveSuccessResponseEntity(request, schema);
 	}
@@ -192,7 +226,10 @@ public class SchemaController extends AbstractSchemaConnTableController
 
 			// 清除缓存
 			if (deleted)
+			{
 				getTableCache().invalidate(id);
+				getSimpleTableIndexCache().invalidate(id);
+			}
 		}
 
 		return buildOperationMessageDeleteSuccessResponseEntity(request);
@@ -258,6 +295,25 @@ public class SchemaController extends AbstractSchemaConnTableController
 		return buildOperationMessageSuccessResponseEntity(request, "schema.testConnection.ok");
 	}
 
+	/**
+	 * 获取数据源连接池的实时统计信息。
+	 * 
+	 * @param request
+	 * @param response
+	 * @return
+	 */
+	@RequestMapping(value = "/connectionPoolStats", produces = CONTENT_TYPE_JSON)
+	@ResponseBody
+	public List<ConnectionPoolStat> connectionPoolStats(HttpServletRequest request, HttpServletResponse response)
+	{
+		ConnectionSource connectionSource = getConnectionSource();
+
+		if (connectionSource instanceof DefaultConnectionSource)
+			return ((DefaultConnectionSource) connectionSource).getPoolStats();
+		else
+			return Collections.emptyList();
+	}
+
 	@RequestMapping(value = "/list", produces = CONTENT_TYPE_JSON)
 	@ResponseBody
 	public List<Schema> list(HttpServletRequest request, HttpServletResponse response,
@@ -282,25 +338,53 @@ public class SchemaController extends AbstractSchemaConnTableController
 			@RequestBody PagingQuery pagingQueryParam) throws Throwable
 	{
 		final PagingQuery pagingQuery = inflatePagingQuery(request, pagingQueryParam, COOKIE_PAGINATION_SIZE);
+		final String keyword = pagingQuery.getKeyword();
+
+		// 无关键字的首页是打开或者刷新数据源，此时重新读取，而搜索、翻页则优先使用缓存的表名索引
+		final boolean reload = (pagingQuery.getPage() <= 1 && StringUtil.isEmpty(keyword));
 
-		List<SimpleTable> tables = new ReturnSchemaConnExecutor<List<SimpleTable>>(request, response, springModel,
-				schemaId, true)
+		List<SimpleTable> keywordTables = new ReturnSchemaConnExecutor<List<SimpleTable>>(request, response,
+				springModel, schemaId, true)
 		{
 			@Override
 			protected List<SimpleTable> execute(HttpServletRequest request, HttpServletResponse response,
 					org.springframework.ui.Model springModel, Schema schema) throws Throwable
 			{
+				SimpleTableIndex index = (reload ? null : getSimpleTableIndexCache().get(schema.getId()));
+
+				if (index != null)
+					return index.search(keyword);
+
 				Connection cn = getConnection();
 
+				if (!StringUtil.isEmpty(keyword))
+				{
+					// 没有索引时由数据库按表名模式初步筛选，再精确匹配
+					String likePattern = KeywordMatcher.toLikePattern(keyword, cn.getMetaData().getSearchStringEscape());
+
+					List<SimpleTable> tables = getDbMetaResolver().getSimpleTables(cn, likePattern);
+					tables = TableType.filterUserDataTables(cn, getDbMetaResolver(), tables);
+					tables = findByKeyword(tables, keyword);
+
+					if (!tables.isEmpty())
+					{
+						sortByTableName(tables);
+						return tables;
+					}
+
+					// 数据库的模式匹配可能区分大小写，没有结果时回退为读取全部并且大小写不敏感匹配
+				}
+
 				List<SimpleTable> tables = getDbMetaResolver().getSimpleTables(cn);
-				return TableType.filterUserDataTables(cn, getDbMetaResolver(), tables);
-			}
+				tables = TableType.filterUserDataTables(cn, getDbMetaResolver(), tables);
 
-		}.execute();
+				index = new SimpleTableIndex(tables, TABLE_SORT_BY_NAME_COMPARATOR);
+				getSimpleTableIndexCache().put(schema.getId(), index);
 
-		sortByTableName(tables);
+				return index.search(keyword);
+			}
 
-		List<SimpleTable> keywordTables = findByKeyword(tables, pagingQuery.getKeyword());
+		}.execute();
 
 		PagingData<SimpleTable> pagingData = new PagingData<>(pagingQuery.getPage(), keywordTables.size(),
 				pagingQuery.getPageSize());
@@ -336,6 +420,102 @@ public class SchemaController extends AbstractSchemaConnTableController
 		return executor.execute();
 	}
 
+	/**
+	 * 批量获取{@linkplain Table}，未缓存的表将被批量读取并加入缓存。
+	 * 
+	 * @param request
+	 * @param response
+	 * @param springModel
+	 * @param schemaId
+	 * @param tableNames
+	 * @return
+	 * @throws Throwable
+	 */
+	@RequestMapping(value = "/{schemaId}/tables", produces = CONTENT_TYPE_JSON)
+	@ResponseBody
+	public List<Table> getTables(HttpServletRequest request, HttpServletResponse response,
+			org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId,
+			@RequestParam("tableNames") final String[] tableNames) throws Throwable
+	{
+		if (isEmpty(tableNames))
+			throw new IllegalInputException();
+
+		return new ReturnSchemaConnExecutor<List<Table>>(request, response, springModel, schemaId, true)
+		{
+			@Override
+			protected List<Table> execute(HttpServletRequest request, HttpServletResponse response,
+					org.springframework.ui.Model springModel, Schema schema) throws Throwable
+			{
+				return SchemaController.this.getTables(getConnection(), schema, Arrays.asList(tableNames));
+			}
+
+		}.execute();
+	}
+
+	/**
+	 * 清除未设置任何选项的{@linkplain Schema#getPoolOption()}，表单提交时它总是会被创建。
+	 * 
+	 * @param schema
+	 */
+	protected void trimPoolOption(Schema schema)
+	{
+		if (schema.getPoolOption() != null && !schema.hasPoolOption())
+			schema.setPoolOption(null);
+	}
+
+	/**
+	 * 解析只读副本文本。
+	 * <p>
+	 * 每行一个只读副本，格式为：“URL”或者“URL 权重”，权重默认为{@linkplain SchemaReplica#DEFAULT_WEIGHT}。
+	 * </p>
+	 * 
+	 * @param replicasText
+	 *            允许为{@code null}
+	 * @return 没有时返回{@code null}
+	 * @throws IllegalInputException
+	 */
+	protected SchemaReplica[] resolveReplicas(String replicasText) throws IllegalInputException
+	{
+		if (isBlank(replicasText))
+			return null;
+
+		List<SchemaReplica> replicas = new ArrayList<>();
+
+		for (String line : replicasText.split("\\r?\\n"))
+		{
+			line = line.trim();
+
+			if (line.isEmpty())
+				continue;
+
+			String[] tokens = line.split("\\s+");
+
+			if (tokens.length > 2)
+				throw new IllegalInputException();
+
+			int weight = SchemaReplica.DEFAULT_WEIGHT;
+
+			if (tokens.length == 2)
+			{
+				try
+				{
+					weight = Integer.parseInt(tokens[1]);
+				}
+				catch (NumberFormatException e)
+				{
+					throw new IllegalInputException();
+				}
+
+				if (weight < 0)
+					throw new IllegalInputException();
+			}
+
+			replicas.add(new SchemaReplica(tokens[0], weight));
+		}
+
+		return (replicas.isEmpty() ? null : replicas.toArray(new SchemaReplica[replicas.size()]));
+	}
+
 	/**
 	 * 处理展示。
 	 * 
@@ -346,14 +526,54 @@ public class SchemaController extends AbstractSchemaConnTableController
 	{
 		if (schemas != null && !schemas.isEmpty())
 		{
+			List<ConnectionCircuitStat> circuitStats = getConnectionCircuitStats();
+
 			for (Schema schema : schemas)
 			{
+				schema.setConnectionCircuit(findConnectionCircuitStat(circuitStats, schema));
+
 				// 清除密码，避免传输至客户端引起安全问题。
 				schema.clearPassword();
 			}
 		}
 	}
 
+	protected List<ConnectionCircuitStat> getConnectionCircuitStats()
+	{
+		ConnectionSource connectionSource = getConnectionSource();
+
+		if (connectionSource instanceof DefaultConnectionSource)
+			return ((DefaultConnectionSource) connectionSource).getCircuitStats();
+		else
+			return Collections.emptyList();
+	}
+
+	/**
+	 * 查找{@linkplain Schema}对应的{@linkplain ConnectionCircuitStat}，多个匹配时返回连续失败次数最多的。
+	 * 
+	 * @param circuitStats
+	 * @param schema
+	 * @return 为{@code null}表示没有连接失败记录
+	 */
+	protected ConnectionCircuitStat findConnectionCircuitStat(List<ConnectionCircuitStat> circuitStats, Schema schema)
+	{
+		ConnectionCircuitStat re = null;
+
+		for (ConnectionCircuitStat stat : circuitStats)
+		{
+			if (!StringUtil.isEquals(stat.getUrl(), schema.getUrl()))
+				continue;
+
+			if (!StringUtil.isEquals(stat.getUser(), schema.getUser()))
+				continue;
+
+			if (re == null || stat.getConsecutiveFailures() > re.getConsecutiveFailures())
+				re = stat;
+		}
+
+		return re;
+	}
+
 	/**
 	 * 将{@linkplain SimpleTable}数组按照{@linkplain SimpleTable#getName()}排序。
 	 * 
@@ -36,6 +36,7 @@ import org.datagear.util.IOUtil;
 import org.datagear.util.SqlScriptParser;
 import org.datagear.util.SqlScriptParser.SqlStatement;
 import org.datagear.util.StringUtil;
+import org.datagear.web.json.jackson.JsonRowHandler;
 import org.datagear.web.json.jackson.ObjectMapperBuilder;
 import org.datagear.web.sqlpad.SqlpadExecutionService;
 import org.datagear.web.sqlpad.SqlpadExecutionService.CommitMode;
@@ -285,8 +286,14 @@ public class SqlpadController extends AbstractSchemaConnController
 		final int startRowFinal = startRow;
 		final int fetchSizeFinal = fetchSize;
 
-		SqlSelectResult result = new ReturnSchemaConnExecutor<SqlSelectResult>(request, response, springModel, schemaId,
-				true)
+		response.setContentType(CONTENT_TYPE_JSON);
+		Writer out = response.getWriter();
+
+		// 查询结果行直接写入响应，而不必先读入SqlSelectResult.rows
+		final JsonRowHandler rowHandler = new JsonRowHandler(this._objectMapperForBigNumberToString, out, "rows");
+
+		ReturnSchemaConnExecutor<SqlSelectResult> executor = new ReturnSchemaConnExecutor<SqlSelectResult>(request,
+				response, springModel, schemaId, true)
 		{
 			@Override
 			protected SqlSelectResult execute(HttpServletRequest request, HttpServletResponse response,
@@ -295,19 +302,29 @@ public class SqlpadController extends AbstractSchemaConnController
 				checkReadTableDataPermission(schema, user);
 
 				SqlSelectResult result = getSqlSelectManager().select(getConnection(), sql, startRowFinal,
-						fetchSizeFinal, buildDefaultLOBRowMapper());
+						fetchSizeFinal, buildDefaultLOBRowMapper(), rowHandler);
 
 				return result;
 			}
-		}.execute();
+		};
+		executor.setUseReplica(true);
+
+		SqlSelectResult result = null;
+
+		try
+		{
+			result = executor.execute();
+		}
+		catch (Throwable t)
+		{
+			handleStreamingRowsError(request, response, rowHandler, t);
+			return;
+		}
 
 		if (!Boolean.TRUE.equals(returnMeta))
 			result.setTable(null);
 
-		response.setContentType(CONTENT_TYPE_JSON);
-		Writer out = response.getWriter();
-
-		this._objectMapperForBigNumberToString.writeValue(out, result);
+		rowHandler.finish(result);
 	}
 
 	@RequestMapping("/{schemaId}/downloadResultField")
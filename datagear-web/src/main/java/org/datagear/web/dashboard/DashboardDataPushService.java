@@ -0,0 +1,708 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.dashboard;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.datagear.analysis.Chart;
+import org.datagear.analysis.ChartDataSet;
+import org.datagear.analysis.ChartQuery;
+import org.datagear.analysis.ChartResult;
+import org.datagear.analysis.ChartResultError;
+import org.datagear.analysis.Dashboard;
+import org.datagear.analysis.DashboardQuery;
+import org.datagear.analysis.DataSet;
+import org.datagear.analysis.support.ChartResultErrorMessage;
+import org.datagear.analysis.support.ChartWidget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * 看板图表数据服务端推送服务。
+ * <p>
+ * 看板页面通过SSE（Server-Sent Events）订阅设置了{@linkplain Chart#getUpdateInterval()}的图表，
+ * 此服务为每个不同的图表查询（图表部件ID、更新间隔、{@linkplain ChartQuery}相同）仅创建一个计划任务，
+ * 每个间隔仅执行一次数据查询，然后将结果推送给所有订阅者，从而避免每个浏览器、每个图表各自轮询。
+ * </p>
+ * <p>
+ * 推送事件的数据格式与{@code /dashboard/showData}的返回格式一致，即：
+ * </p>
+ * <code>
+ * <pre>
+ * { chartResults: { 图表ID: 图表结果 }, chartResultErrorMessages: { 图表ID: 图表结果错误信息 } }
+ * </pre>
+ * </code>
+ * <p>
+ * 为避免资源耗尽，每个订阅方（通常是会话）同时最多保持{@linkplain #getMaxSubscribersPerOwner()}个订阅连接，超出时最早的连接将被关闭；
+ * 推送任务总数最多为{@linkplain #getMaxPushTasks()}个，超出时新的图表查询不会被订阅，浏览器端将继续采用定时轮询方式。
+ * 订阅连接完成、超时、出错时，将取消其所有订阅，没有订阅者的推送任务也将被取消。
+ * </p>
+ * <p>
+ * 推送任务使用创建它的订阅者的{@linkplain Chart}执行查询，所以图表、数据集被修改或删除后，
+ * 应调用{@linkplain #evictChartWidgets(String...)}、{@linkplain #evictDataSets(String...)}，使之后的订阅创建新的推送任务。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DashboardDataPushService
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(DashboardDataPushService.class);
+
+	/** 推送事件名：图表结果 */
+	public static final String EVENT_NAME_CHART_RESULT = "chartResult";
+
+	/** 推送事件名：订阅成功 */
+	public static final String EVENT_NAME_SUBSCRIBED = "subscribed";
+
+	/** 允许的最小推送间隔毫秒数，避免过于频繁的查询 */
+	public static final int MIN_PUSH_INTERVAL = 1000;
+
+	private ObjectMapper objectMapper;
+
+	/** 订阅连接超时毫秒数，超时后浏览器端会重新订阅 */
+	private long subscribeTimeout = 1000 * 60 * 30;
+
+	/** 每个订阅方允许的最大订阅连接数 */
+	private int maxSubscribersPerOwner = 5;
+
+	/** 允许的最大推送任务数 */
+	private int maxPushTasks = 500;
+
+	private ScheduledExecutorService _scheduledExecutorService;
+
+	private ConcurrentMap<String, PushTask> _pushTasks = new ConcurrentHashMap<>();
+
+	/** 订阅方的订阅者，由{@linkplain #_pushTasks}同步 */
+	private Map<String, List<Subscriber>> _ownerSubscribers = new HashMap<>();
+
+	public DashboardDataPushService()
+	{
+		this(new ObjectMapper(), 4);
+	}
+
+	public DashboardDataPushService(ObjectMapper objectMapper, int threads)
+	{
+		super();
+		this.objectMapper = objectMapper;
+		this._scheduledExecutorService = Executors.newScheduledThreadPool(threads);
+	}
+
+	public ObjectMapper getObjectMapper()
+	{
+		return objectMapper;
+	}
+
+	public void setObjectMapper(ObjectMapper objectMapper)
+	{
+		this.objectMapper = objectMapper;
+	}
+
+	public long getSubscribeTimeout()
+	{
+		return subscribeTimeout;
+	}
+
+	public void setSubscribeTimeout(long subscribeTimeout)
+	{
+		this.subscribeTimeout = subscribeTimeout;
+	}
+
+	public int getMaxSubscribersPerOwner()
+	{
+		return maxSubscribersPerOwner;
+	}
+
+	public void setMaxSubscribersPerOwner(int maxSubscribersPerOwner)
+	{
+		this.maxSubscribersPerOwner = maxSubscribersPerOwner;
+	}
+
+	public int getMaxPushTasks()
+	{
+		return maxPushTasks;
+	}
+
+	public void setMaxPushTasks(int maxPushTasks)
+	{
+		this.maxPushTasks = maxPushTasks;
+	}
+
+	/**
+	 * 获取当前推送任务数。
+	 * 
+	 * @return
+	 */
+	public int getPushTaskCount()
+	{
+		return this._pushTasks.size();
+	}
+
+	/**
+	 * 获取指定订阅方当前的订阅连接数。
+	 * 
+	 * @param ownerId
+	 * @return
+	 */
+	public int getSubscriberCount(String ownerId)
+	{
+		synchronized (this._pushTasks)
+		{
+			List<Subscriber> subscribers = this._ownerSubscribers.get(ownerId);
+			return (subscribers == null ? 0 : subscribers.size());
+		}
+	}
+
+	/**
+	 * 订阅看板图表数据。
+	 * <p>
+	 * {@linkplain DashboardQuery#getChartQueries()}中未设置{@linkplain Chart#getUpdateInterval()}的图表将被忽略，
+	 * 推送任务数已达上限时新的图表查询也将被忽略，它们不会出现在{@linkplain #EVENT_NAME_SUBSCRIBED}事件的图表ID列表中。
+	 * </p>
+	 *
+	 * @param ownerId
+	 *            订阅方ID，通常是会话ID，用于限制订阅连接数
+	 * @param dashboard
+	 * @param query
+	 *            应是已经过参数值转换的查询
+	 * @return
+	 */
+	public SseEmitter subscribe(String ownerId, Dashboard dashboard, DashboardQuery query)
+	{
+		SseEmitter emitter = createSseEmitter();
+		Subscriber subscriber = new Subscriber(ownerId, emitter);
+
+		addOwnerSubscriber(subscriber);
+
+		Map<String, ChartQuery> chartQueries = query.getChartQueries();
+		List<String> subscribedChartIds = new ArrayList<>(chartQueries.size());
+
+		for (Map.Entry<String, ChartQuery> entry : chartQueries.entrySet())
+		{
+			String chartId = entry.getKey();
+			Chart chart = dashboard.getChart(chartId);
+
+			if (chart == null || chart.getUpdateInterval() < 0)
+				continue;
+
+			ChartQuery chartQuery = entry.getValue();
+
+			if ((chartQuery.getResultDataFormat() == null && query.getResultDataFormat() != null)
+					|| chartQuery.getResultHash() != null)
+			{
+				chartQuery = chartQuery.copy();
+
+				if (chartQuery.getResultDataFormat() == null)
+					chartQuery.setResultDataFormat(query.getResultDataFormat());
+
+				// 推送不比对结果摘要，并且摘要不应影响推送任务签名
+				chartQuery.setResultHash(null);
+			}
+
+			if (subscribe(chart, chartQuery, subscriber))
+				subscribedChartIds.add(chartId);
+		}
+
+		emitter.onCompletion(() -> unsubscribe(subscriber));
+		emitter.onTimeout(() -> unsubscribe(subscriber));
+		emitter.onError((t) -> unsubscribe(subscriber));
+
+		try
+		{
+			synchronized (emitter)
+			{
+				emitter.send(SseEmitter.event().name(EVENT_NAME_SUBSCRIBED)
+						.data(this.objectMapper.writeValueAsString(subscribedChartIds), MediaType.APPLICATION_JSON));
+			}
+		}
+		catch (IOException e)
+		{
+			unsubscribe(subscriber);
+			emitter.completeWithError(e);
+		}
+
+		return emitter;
+	}
+
+	/**
+	 * 关闭。
+	 */
+	public void shutdown()
+	{
+		this._scheduledExecutorService.shutdownNow();
+
+		for (PushTask pushTask : this._pushTasks.values())
+			pushTask.completeAll();
+
+		this._pushTasks.clear();
+
+		synchronized (this._pushTasks)
+		{
+			this._ownerSubscribers.clear();
+		}
+	}
+
+	/**
+	 * 移除指定图表部件的推送任务，之后的订阅将不再共享它们。
+	 * <p>
+	 * 已有的订阅者不受影响，它们的推送任务将在其取消订阅后结束。
+	 * </p>
+	 * 
+	 * @param chartWidgetIds
+	 * @return 移除的推送任务数
+	 */
+	public int evictChartWidgets(String... chartWidgetIds)
+	{
+		List<String> ids = Arrays.asList(chartWidgetIds);
+		return evictPushTasks((pushTask) -> ids.contains(getChartWidgetId(pushTask.getChart())));
+	}
+
+	/**
+	 * 移除使用了指定数据集的推送任务，之后的订阅将不再共享它们。
+	 * <p>
+	 * 已有的订阅者不受影响，它们的推送任务将在其取消订阅后结束。
+	 * </p>
+	 * 
+	 * @param dataSetIds
+	 * @return 移除的推送任务数
+	 */
+	public int evictDataSets(String... dataSetIds)
+	{
+		List<String> ids = Arrays.asList(dataSetIds);
+		return evictPushTasks((pushTask) -> containsDataSet(pushTask.getChart(), ids));
+	}
+
+	protected int evictPushTasks(Predicate<PushTask> predicate)
+	{
+		int count = 0;
+
+		synchronized (this._pushTasks)
+		{
+			for (Iterator<PushTask> it = this._pushTasks.values().iterator(); it.hasNext();)
+			{
+				if (predicate.test(it.next()))
+				{
+					it.remove();
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	protected boolean containsDataSet(Chart chart, List<String> dataSetIds)
+	{
+		ChartDataSet[] chartDataSets = chart.getChartDataSets();
+
+		if (chartDataSets == null)
+			return false;
+
+		for (ChartDataSet chartDataSet : chartDataSets)
+		{
+			DataSet dataSet = (chartDataSet == null ? null : chartDataSet.getDataSet());
+
+			if (dataSet != null && dataSetIds.contains(dataSet.getId()))
+				return true;
+		}
+
+		return false;
+	}
+
+	protected SseEmitter createSseEmitter()
+	{
+		return new SseEmitter(this.subscribeTimeout);
+	}
+
+	/**
+	 * 添加订阅方的订阅者，超出{@linkplain #getMaxSubscribersPerOwner()}时关闭最早的订阅者。
+	 * 
+	 * @param subscriber
+	 */
+	protected void addOwnerSubscriber(Subscriber subscriber)
+	{
+		List<Subscriber> evicts = new ArrayList<>(1);
+
+		synchronized (this._pushTasks)
+		{
+			List<Subscriber> subscribers = this._ownerSubscribers.get(subscriber.getOwnerId());
+
+			if (subscribers == null)
+			{
+				subscribers = new ArrayList<>(this.maxSubscribersPerOwner);
+				this._ownerSubscribers.put(subscriber.getOwnerId(), subscribers);
+			}
+
+			while (!subscribers.isEmpty() && subscribers.size() >= this.maxSubscribersPerOwner)
+			{
+				Subscriber evict = subscribers.get(0);
+				unsubscribe(evict);
+				evicts.add(evict);
+			}
+
+			subscribers.add(subscriber);
+		}
+
+		for (Subscriber evict : evicts)
+		{
+			try
+			{
+				evict.getEmitter().complete();
+			}
+			catch (Throwable t)
+			{
+				if (LOGGER.isDebugEnabled())
+					LOGGER.debug("complete evicted subscriber failed", t);
+			}
+		}
+	}
+
+	/**
+	 * 订阅图表查询。
+	 * 
+	 * @param chart
+	 * @param chartQuery
+	 * @param subscriber
+	 * @return {@code false} 推送任务数已达上限，未订阅
+	 */
+	protected boolean subscribe(Chart chart, ChartQuery chartQuery, Subscriber subscriber)
+	{
+		String signature = buildSignature(chart, chartQuery);
+
+		synchronized (this._pushTasks)
+		{
+			PushTask pushTask = this._pushTasks.get(signature);
+
+			if (pushTask == null)
+			{
+				if (this._pushTasks.size() >= this.maxPushTasks)
+					return false;
+
+				pushTask = new PushTask(signature, chart, chartQuery);
+
+				long interval = Math.max(chart.getUpdateInterval(), MIN_PUSH_INTERVAL);
+				ScheduledFuture<?> future = this._scheduledExecutorService.scheduleWithFixedDelay(pushTask, interval,
+						interval, TimeUnit.MILLISECONDS);
+				pushTask.setFuture(future);
+
+				this._pushTasks.put(signature, pushTask);
+			}
+
+			pushTask.addSubscription(new Subscription(subscriber, chart.getId()));
+			subscriber.addPushTask(pushTask);
+		}
+
+		return true;
+	}
+
+	protected void unsubscribe(Subscriber subscriber)
+	{
+		synchronized (this._pushTasks)
+		{
+			for (PushTask pushTask : subscriber.getPushTasks())
+			{
+				pushTask.removeSubscriber(subscriber);
+
+				if (!pushTask.hasSubscription())
+				{
+					pushTask.cancel();
+					this._pushTasks.remove(pushTask.getSignature(), pushTask);
+				}
+			}
+
+			subscriber.getPushTasks().clear();
+
+			List<Subscriber> subscribers = this._ownerSubscribers.get(subscriber.getOwnerId());
+
+			if (subscribers != null)
+			{
+				subscribers.remove(subscriber);
+
+				if (subscribers.isEmpty())
+					this._ownerSubscribers.remove(subscriber.getOwnerId());
+			}
+		}
+	}
+
+	/**
+	 * 构建图表查询签名，签名相同的图表查询将仅执行一次。
+	 *
+	 * @param chart
+	 * @param chartQuery
+	 * @return
+	 */
+	protected String buildSignature(Chart chart, ChartQuery chartQuery)
+	{
+		String chartWidgetId = getChartWidgetId(chart);
+
+		// 无法确定图表部件时，仅在此图表内共享
+		if (chartWidgetId == null)
+			chartWidgetId = "chart:" + chart.getId();
+
+		String queryJson;
+
+		try
+		{
+			queryJson = this.objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+					.writeValueAsString(chartQuery);
+		}
+		catch (IOException e)
+		{
+			// 查询无法序列化时不共享
+			queryJson = "chart:" + chart.getId();
+		}
+
+		return chartWidgetId + "|" + chart.getUpdateInterval() + "|" + queryJson;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected String getChartWidgetId(Chart chart)
+	{
+		Map<String, Object> attributes = chart.getAttributes();
+		Object chartWidgetInfo = (attributes == null ? null : attributes.get(ChartWidget.ATTR_CHART_WIDGET));
+
+		if (!(chartWidgetInfo instanceof Map<?, ?>))
+			return null;
+
+		Object id = ((Map<String, Object>) chartWidgetInfo).get(ChartWidget.PROPERTY_ID);
+
+		return (id == null ? null : id.toString());
+	}
+
+	/**
+	 * 构建推送事件数据。
+	 *
+	 * @param chartId
+	 * @param chartResultJson
+	 * @param errorMessageJson
+	 * @return
+	 * @throws IOException
+	 */
+	protected String buildEventData(String chartId, String chartResultJson, String errorMessageJson)
+			throws IOException
+	{
+		String chartIdJson = this.objectMapper.writeValueAsString(chartId);
+
+		if (chartResultJson != null)
+			return "{\"chartResults\":{" + chartIdJson + ":" + chartResultJson + "}}";
+		else
+			return "{\"chartResultErrorMessages\":{" + chartIdJson + ":" + errorMessageJson + "}}";
+	}
+
+	/**
+	 * 推送任务，对应一个图表查询签名。
+	 */
+	protected class PushTask implements Runnable
+	{
+		private final String signature;
+
+		private final Chart chart;
+
+		private final ChartQuery chartQuery;
+
+		private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+		private volatile ScheduledFuture<?> future;
+
+		public PushTask(String signature, Chart chart, ChartQuery chartQuery)
+		{
+			super();
+			this.signature = signature;
+			this.chart = chart;
+			this.chartQuery = chartQuery;
+		}
+
+		public String getSignature()
+		{
+			return signature;
+		}
+
+		public Chart getChart()
+		{
+			return chart;
+		}
+
+		public void setFuture(ScheduledFuture<?> future)
+		{
+			this.future = future;
+		}
+
+		public void addSubscription(Subscription subscription)
+		{
+			this.subscriptions.add(subscription);
+		}
+
+		public void removeSubscriber(Subscriber subscriber)
+		{
+			this.subscriptions.removeIf((s) -> s.getSubscriber() == subscriber);
+		}
+
+		public boolean hasSubscription()
+		{
+			return !this.subscriptions.isEmpty();
+		}
+
+		public void cancel()
+		{
+			if (this.future != null)
+				this.future.cancel(false);
+		}
+
+		public void completeAll()
+		{
+			for (Subscription subscription : this.subscriptions)
+				subscription.getSubscriber().getEmitter().complete();
+		}
+
+		@Override
+		public void run()
+		{
+			if (this.subscriptions.isEmpty())
+				return;
+
+			String chartResultJson = null;
+			String errorMessageJson = null;
+
+			try
+			{
+				ChartResult chartResult = this.chart.getResult(this.chartQuery);
+				chartResultJson = objectMapper.writeValueAsString(chartResult);
+			}
+			catch (Throwable t)
+			{
+				try
+				{
+					errorMessageJson = objectMapper
+							.writeValueAsString(new ChartResultErrorMessage(new ChartResultError(t), true));
+				}
+				catch (Throwable t1)
+				{
+					LOGGER.error("build chart result error message failed", t1);
+					return;
+				}
+			}
+
+			for (Subscription subscription : this.subscriptions)
+			{
+				Subscriber subscriber = subscription.getSubscriber();
+
+				try
+				{
+					String data = buildEventData(subscription.getChartId(), chartResultJson, errorMessageJson);
+					subscriber.send(data);
+				}
+				catch (Throwable t)
+				{
+					// 连接已断开
+					if (LOGGER.isDebugEnabled())
+						LOGGER.debug("push chart result failed", t);
+
+					unsubscribe(subscriber);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 订阅者，对应一个SSE连接。
+	 */
+	protected static class Subscriber
+	{
+		private final String ownerId;
+
+		private final SseEmitter emitter;
+
+		private final List<PushTask> pushTasks = new ArrayList<>();
+
+		public Subscriber(String ownerId, SseEmitter emitter)
+		{
+			super();
+			this.ownerId = ownerId;
+			this.emitter = emitter;
+		}
+
+		public String getOwnerId()
+		{
+			return ownerId;
+		}
+
+		public SseEmitter getEmitter()
+		{
+			return emitter;
+		}
+
+		public List<PushTask> getPushTasks()
+		{
+			return pushTasks;
+		}
+
+		public void addPushTask(PushTask pushTask)
+		{
+			if (!this.pushTasks.contains(pushTask))
+				this.pushTasks.add(pushTask);
+		}
+
+		public void send(String data) throws IOException
+		{
+			// SseEmitter不是线程安全的，多个推送任务可能同时向同一连接发送
+			synchronized (this.emitter)
+			{
+				this.emitter.send(SseEmitter.event().name(EVENT_NAME_CHART_RESULT).data(data, MediaType.APPLICATION_JSON));
+			}
+		}
+	}
+
+	/**
+	 * 订阅项，订阅者的某个图表。
+	 */
+	protected static class Subscription
+	{
+		private final Subscriber subscriber;
+
+		private final String chartId;
+
+		public Subscription(Subscriber subscriber, String chartId)
+		{
+			super();
+			this.subscriber = subscriber;
+			this.chartId = chartId;
+		}
+
+		public Subscriber getSubscriber()
+		{
+			return subscriber;
+		}
+
+		public String getChartId()
+		{
+			return chartId;
+		}
+	}
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.dashboard;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.analysis.Chart;
+import org.datagear.analysis.ChartDataSet;
+import org.datagear.analysis.ChartQuery;
+import org.datagear.analysis.ChartResult;
+import org.datagear.analysis.ChartResultError;
+import org.datagear.analysis.Dashboard;
+import org.datagear.analysis.DashboardQuery;
+import org.datagear.analysis.DashboardResult;
+import org.datagear.analysis.DataSet;
+import org.datagear.analysis.DataSetException;
+import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetResult;
+import org.datagear.analysis.support.ChartResultErrorMessage;
+import org.datagear.analysis.support.ErrorMessageDashboardResult;
+import org.datagear.util.IOUtil;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 看板结果流式JSON输出器。
+ * <p>
+ * 它输出与{@linkplain ErrorMessageDashboardResult}序列化结果相同结构的JSON，
+ * 但是不会构建{@linkplain DashboardResult}、{@linkplain ChartResult}，而是逐个获取图表的{@linkplain DataSetResult}，
+ * 获取后即通过{@linkplain JsonGenerator}写出并释放，每个图表写完后刷新输出流，
+ * 从而降低大数据量图表的内存峰值，并且可以尽早返回首字节。
+ * </p>
+ * <p>
+ * 当{@linkplain DashboardQuery#isSuppressChartError()}为{@code true}、或者需要计算图表结果摘要时，
+ * 图表结果JSON会先写入此图表的字节缓冲区，图表成功完成且结果有变化时才写入输出流，出错或者结果未变时则丢弃，
+ * 因此内存中至多只有一个数据集结果对象和一个图表结果JSON。
+ * </p>
+ * <p>
+ * 注意：单个{@linkplain DataSetResult}仍是由{@linkplain DataSet#getResult(DataSetQuery)}完整构建的。
+ * </p>
+ * <p>
+ * 对于需要定时更新的图表（{@linkplain Chart#getUpdateInterval()}{@code >=0}），或者查询中包含{@linkplain ChartQuery#getResultHash()}的图表，
+ * 它还会计算图表结果JSON的摘要并在{@code chartResultHashes}中返回，客户端下次查询时可回传此摘要，
+ * 如果摘要未变，则不再输出此图表结果，而仅将图表ID写入{@code unchangedChartIds}，客户端也就不必重新渲染此图表。
+ * </p>
+ * <p>
+ * 注意：当{@linkplain DashboardQuery#isSuppressChartError()}为{@code false}时，如果某个图表查询出错，
+ * 此时输出流可能已写入部分内容，调用方无法再输出完整的错误信息。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DashboardResultJsonWriter
+{
+	private ObjectMapper objectMapper;
+
+	public DashboardResultJsonWriter()
+	{
+		super();
+	}
+
+	public DashboardResultJsonWriter(ObjectMapper objectMapper)
+	{
+		super();
+		this.objectMapper = objectMapper;
+	}
+
+	public ObjectMapper getObjectMapper()
+	{
+		return objectMapper;
+	}
+
+	public void setObjectMapper(ObjectMapper objectMapper)
+	{
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * 查询并写看板结果。
+	 *
+	 * @param out
+	 * @param dashboard
+	 * @param query
+	 * @param rootCauseMessage
+	 *            图表错误信息是否采用根异常信息，参考{@linkplain ChartResultErrorMessage#ChartResultErrorMessage(ChartResultError, boolean)}
+	 * @throws IOException
+	 */
+	public void write(OutputStream out, Dashboard dashboard, DashboardQuery query, boolean rootCauseMessage)
+			throws IOException
+	{
+		JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+
+		try
+		{
+			write(generator, dashboard, query, rootCauseMessage);
+		}
+		finally
+		{
+			generator.close();
+		}
+	}
+
+	/**
+	 * 查询并写看板结果。
+	 *
+	 * @param generator
+	 * @param dashboard
+	 * @param query
+	 * @param rootCauseMessage
+	 * @throws IOException
+	 */
+	public void write(JsonGenerator generator, Dashboard dashboard, DashboardQuery query, boolean rootCauseMessage)
+			throws IOException
+	{
+		Map<String, ChartQuery> chartQueries = query.getChartQueries();
+		boolean suppressChartError = query.isSuppressChartError();
+
+		Map<String, ChartResultErrorMessage> errorMessages = new LinkedHashMap<String, ChartResultErrorMessage>();
+		Map<String, String> resultHashes = new LinkedHashMap<String, String>();
+		List<String> unchangedChartIds = new ArrayList<String>();
+
+		generator.writeStartObject();
+
+		generator.writeFieldName(DashboardResultFields.CHART_RESULTS);
+		generator.writeStartObject();
+
+		for (Map.Entry<String, ChartQuery> entry : chartQueries.entrySet())
+		{
+			String chartId = entry.getKey();
+			Chart chart = dashboard.getChart(chartId);
+
+			if (chart == null)
+				throw new IllegalArgumentException("Chart '" + chartId + "' not found");
+
+			ChartQuery chartQuery = entry.getValue();
+			boolean resultHashRequired = isResultHashRequired(chart, chartQuery);
+			chartQuery = dashboard.getChartQuery(chartQuery, query);
+
+			if (!suppressChartError && !resultHashRequired)
+			{
+				generator.writeFieldName(chartId);
+				writeChartResult(generator, chart, chartQuery);
+			}
+			else
+			{
+				ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+				// 摘要在写图表结果JSON的同时计算，无需再次序列化
+				DigestOutputStream digestOut = (resultHashRequired
+						? new DigestOutputStream(buffer, createMessageDigest())
+						: null);
+
+				try
+				{
+					JsonGenerator bufferGenerator = this.objectMapper.getFactory()
+							.createGenerator((digestOut != null ? digestOut : buffer), JsonEncoding.UTF8);
+
+					try
+					{
+						writeChartResult(bufferGenerator, chart, chartQuery);
+					}
+					finally
+					{
+						bufferGenerator.close();
+					}
+				}
+				catch (Throwable t)
+				{
+					if (!suppressChartError)
+						throw t;
+
+					errorMessages.put(chartId, new ChartResultErrorMessage(new ChartResultError(t), rootCauseMessage));
+					continue;
+				}
+
+				if (digestOut != null)
+				{
+					String resultHash = toResultHash(digestOut.getMessageDigest());
+					resultHashes.put(chartId, resultHash);
+
+					if (resultHash.equals(chartQuery.getResultHash()))
+					{
+						unchangedChartIds.add(chartId);
+						continue;
+					}
+				}
+
+				generator.writeFieldName(chartId);
+				generator.writeRawValue(buffer.toString(IOUtil.CHARSET_UTF_8));
+			}
+
+			// 每个图表结果写完即刷新，使浏览器尽早接收数据
+			generator.flush();
+		}
+
+		generator.writeEndObject();
+
+		// 与ErrorMessageDashboardResult保持一致
+		generator.writeFieldName(DashboardResultFields.CHART_RESULT_ERRORS);
+		generator.writeStartObject();
+		generator.writeEndObject();
+
+		generator.writeFieldName(DashboardResultFields.CHART_RESULT_ERROR_MESSAGES);
+		this.objectMapper.writeValue(generator, errorMessages);
+
+		generator.writeFieldName(DashboardResultFields.CHART_RESULT_HASHES);
+		this.objectMapper.writeValue(generator, resultHashes);
+
+		generator.writeFieldName(DashboardResultFields.UNCHANGED_CHART_IDS);
+		this.objectMapper.writeValue(generator, unchangedChartIds);
+
+		generator.writeEndObject();
+		generator.flush();
+	}
+
+	/**
+	 * 写图表结果，与{@linkplain ChartResult}的序列化结构一致。
+	 * <p>
+	 * 数据集结果是逐个获取、写出的，写出后即可被回收。
+	 * </p>
+	 * 
+	 * @param generator
+	 * @param chart
+	 * @param chartQuery
+	 *            应是{@linkplain Dashboard#getChartQuery(ChartQuery, DashboardQuery)}的返回值
+	 * @throws IOException
+	 * @throws DataSetException
+	 */
+	protected void writeChartResult(JsonGenerator generator, Chart chart, ChartQuery chartQuery)
+			throws IOException, DataSetException
+	{
+		ChartDataSet[] chartDataSets = chart.getChartDataSets();
+		int count = (chartDataSets == null ? 0 : chartDataSets.length);
+
+		generator.writeStartObject();
+		generator.writeFieldName(ChartResultFields.DATA_SET_RESULTS);
+		generator.writeStartArray();
+
+		for (int i = 0; i < count; i++)
+		{
+			DataSetResult dataSetResult = chart.getDataSetResult(chartQuery, i);
+			this.objectMapper.writeValue(generator, dataSetResult);
+		}
+
+		generator.writeEndArray();
+		generator.writeEndObject();
+	}
+
+	/**
+	 * 是否需要计算图表结果摘要。
+	 * 
+	 * @param chart
+	 * @param chartQuery
+	 * @return
+	 */
+	protected boolean isResultHashRequired(Chart chart, ChartQuery chartQuery)
+	{
+		return (chart.getUpdateInterval() >= 0 || chartQuery.getResultHash() != null);
+	}
+
+	/**
+	 * 获取图表结果摘要。
+	 * 
+	 * @param messageDigest
+	 *            已写入图表结果JSON的{@linkplain MessageDigest}
+	 * @return
+	 */
+	protected String toResultHash(MessageDigest messageDigest)
+	{
+		return Base64.getEncoder().withoutPadding().encodeToString(messageDigest.digest());
+	}
+
+	protected MessageDigest createMessageDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance("MD5");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 图表结果的JSON属性名，参考{@linkplain ChartResult}。
+	 */
+	protected static class ChartResultFields
+	{
+		/** @see ChartResult#getDataSetResults() */
+		public static final String DATA_SET_RESULTS = "dataSetResults";
+	}
+
+	/**
+	 * 看板结果的JSON属性名，参考{@linkplain ErrorMessageDashboardResult}。
+	 */
+	protected static class DashboardResultFields
+	{
+		/** @see DashboardResult#getChartResults() */
+		public static final String CHART_RESULTS = "chartResults";
+
+		/** @see DashboardResult#getChartResultErrors() */
+		public static final String CHART_RESULT_ERRORS = "chartResultErrors";
+
+		/** @see ErrorMessageDashboardResult#getChartResultErrorMessages() */
+		public static final String CHART_RESULT_ERROR_MESSAGES = "chartResultErrorMessages";
+
+		/** 图表ID-图表结果摘要映射表 */
+		public static final String CHART_RESULT_HASHES = "chartResultHashes";
+
+		/** 图表结果未改变（因而未输出）的图表ID列表 */
+		public static final String UNCHANGED_CHART_IDS = "unchangedChartIds";
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.json.jackson;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.datagear.meta.Table;
+import org.datagear.persistence.Row;
+import org.datagear.persistence.RowHandler;
+import org.datagear.persistence.RowHandlerException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 将{@linkplain Row}逐行写入JSON输出流的{@linkplain RowHandler}。
+ * <p>
+ * 它输出的JSON对象格式为：{@code { [rowsPropertyName]: [行, ...], 结果对象的其他属性, ... }}。
+ * </p>
+ * <p>
+ * 行使用{@linkplain ObjectMapper}的序列化规则直接写入，不会缓存在内存中。
+ * 输出将延迟至处理第一行（或者{@linkplain #finish(Object)}）时才开始，因此在此之前的查询异常仍可正常返回错误响应。
+ * </p>
+ * <p>
+ * 开始输出后出现异常时，如果输出还在响应缓冲区中（响应未提交），调用方应丢弃此对象并清空缓冲区，然后返回错误响应；
+ * 否则，应调用{@linkplain #abort(String)}结束JSON对象，它会写入{@linkplain #ERROR_PROPERTY_NAME}错误信息属性，
+ * 使客户端仍能解析并识别不完整的结果：{@code { [rowsPropertyName]: [已写入的行, ...], "error": "错误信息" }}。
+ * </p>
+ * <p>
+ * 注意：此类并非线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class JsonRowHandler implements RowHandler
+{
+	/** 输出中途出错时的错误信息属性名 */
+	public static final String ERROR_PROPERTY_NAME = "error";
+
+	private final ObjectMapper objectMapper;
+
+	private final Writer out;
+
+	/** 行数组的属性名 */
+	private final String rowsPropertyName;
+
+	private JsonGenerator _generator = null;
+
+	/** 已写入的行数 */
+	private int count = 0;
+
+	public JsonRowHandler(ObjectMapper objectMapper, Writer out, String rowsPropertyName)
+	{
+		super();
+		this.objectMapper = objectMapper;
+		this.out = out;
+		this.rowsPropertyName = rowsPropertyName;
+	}
+
+	public String getRowsPropertyName()
+	{
+		return rowsPropertyName;
+	}
+
+	/**
+	 * 获取已写入的行数。
+	 * 
+	 * @return
+	 */
+	public int getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * 是否已开始输出。
+	 * 
+	 * @return
+	 */
+	public boolean isStarted()
+	{
+		return (this._generator != null);
+	}
+
+	@Override
+	public void handle(Table table, int rowIndex, Row row) throws RowHandlerException
+	{
+		try
+		{
+			start();
+			this._generator.writeObject(row);
+		}
+		catch (IOException e)
+		{
+			throw new RowHandlerException(e);
+		}
+
+		this.count++;
+	}
+
+	/**
+	 * 结束行数组，并写入结果对象除行数组外的其他属性。
+	 * 
+	 * @param result
+	 *            结果对象，比如{@linkplain org.datagear.persistence.PagingData}，其行数组属性应为{@code null}
+	 * @throws IOException
+	 */
+	public void finish(Object result) throws IOException
+	{
+		start();
+
+		this._generator.writeEndArray();
+
+		JsonNode resultNode = this.objectMapper.valueToTree(result);
+		Iterator<Map.Entry<String, JsonNode>> fields = resultNode.fields();
+
+		while (fields.hasNext())
+		{
+			Map.Entry<String, JsonNode> field = fields.next();
+
+			if (this.rowsPropertyName.equals(field.getKey()))
+				continue;
+
+			this._generator.writeFieldName(field.getKey());
+			this._generator.writeTree(field.getValue());
+		}
+
+		this._generator.writeEndObject();
+		this._generator.close();
+	}
+
+	/**
+	 * 因出错而结束输出：结束未完成的行数组，并写入{@linkplain #ERROR_PROPERTY_NAME}错误信息属性。
+	 * 
+	 * @param message
+	 * @throws IOException
+	 */
+	public void abort(String message) throws IOException
+	{
+		start();
+
+		// 结束至顶层对象，正常情况下仅需结束行数组
+		JsonStreamContext context = this._generator.getOutputContext();
+		while (context.getParent() != null && !context.getParent().inRoot())
+		{
+			if (context.inArray())
+				this._generator.writeEndArray();
+			else
+				this._generator.writeEndObject();
+
+			context = this._generator.getOutputContext();
+		}
+
+		this._generator.writeStringField(ERROR_PROPERTY_NAME, message);
+		this._generator.writeEndObject();
+		this._generator.close();
+	}
+
+	/**
+	 * 开始输出。
+	 * 
+	 * @throws IOException
+	 */
+	protected void start() throws IOException
+	{
+		if (this._generator != null)
+			return;
+
+		this._generator = this.objectMapper.getFactory().createGenerator(this.out);
+		this._generator.writeStartObject();
+		this._generator.writeFieldName(this.rowsPropertyName);
+		this._generator.writeStartArray();
+	}
+}
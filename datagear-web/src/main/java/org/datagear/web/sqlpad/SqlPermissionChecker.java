@@ -7,6 +7,8 @@
 
 package org.datagear.web.sqlpad;
 
+import java.util.regex.Pattern;
+
 import org.datagear.management.domain.Schema;
 import org.datagear.management.domain.User;
 import org.datagear.util.SqlScriptParser;
@@ -20,6 +22,15 @@ import org.datagear.util.SqlScriptParser.SqlStatement;
  */
 public class SqlPermissionChecker
 {
+	/**
+	 * 有副作用的SELECT语句特征：写入表（SELECT INTO）、加锁（FOR UPDATE、FOR SHARE、LOCK IN SHARE MODE）、修改序列（NEXTVAL、NEXT VALUE FOR、SETVAL）、
+	 * 会话锁（GET_LOCK、PG_ADVISORY_LOCK）
+	 */
+	protected static final Pattern SELECT_SIDE_EFFECT_PATTERN = Pattern.compile(
+			"\\bINTO\\b|\\bFOR\\s+(NO\\s+KEY\\s+)?UPDATE\\b|\\bFOR\\s+(KEY\\s+)?SHARE\\b|\\bLOCK\\s+IN\\s+SHARE\\s+MODE\\b"
+					+ "|\\bNEXTVAL\\b|\\bNEXT\\s+VALUE\\s+FOR\\b|\\bSETVAL\\b|\\bGET_LOCK\\b|\\bPG_(TRY_)?ADVISORY_",
+			Pattern.CASE_INSENSITIVE);
+
 	public SqlPermissionChecker()
 	{
 		super();
@@ -56,6 +67,69 @@ public class SqlPermissionChecker
 		return false;
 	}
 
+	/**
+	 * 是否是只读的查询语句。
+	 * <p>
+	 * 只有没有副作用的SELECT语句才是只读的查询语句（参考{@linkplain #SELECT_SIDE_EFFECT_PATTERN}），
+	 * 它们可以在只读副本上执行。
+	 * </p>
+	 * 
+	 * @param sqlStatement
+	 * @return
+	 */
+	public boolean isQuery(SqlStatement sqlStatement)
+	{
+		String sql = sqlStatement.getSql();
+
+		if (!"SELECT".equalsIgnoreCase(resolveSqlAction(sql)))
+			return false;
+
+		return !SELECT_SIDE_EFFECT_PATTERN.matcher(removeQuotedAndComments(sql)).find();
+	}
+
+	/**
+	 * 移除SQL中的字符串、引用标识符和注释，将它们替换为空格。
+	 * 
+	 * @param sql
+	 * @return
+	 */
+	protected String removeQuotedAndComments(String sql)
+	{
+		StringBuilder sb = new StringBuilder(sql.length());
+
+		for (int i = 0, len = sql.length(); i < len;)
+		{
+			char c = sql.charAt(i);
+			char cn = (i < len - 1 ? sql.charAt(i + 1) : 0);
+
+			if (c == '\'' || c == '"' || c == '`')
+			{
+				int end = sql.indexOf(c, i + 1);
+				i = (end < 0 ? len : end + 1);
+				sb.append(' ');
+			}
+			else if ((c == '-' && cn == '-') || (c == '/' && cn == '/'))
+			{
+				int end = sql.indexOf('\n', i + 2);
+				i = (end < 0 ? len : end + 1);
+				sb.append(' ');
+			}
+			else if (c == '/' && cn == '*')
+			{
+				int end = sql.indexOf("*/", i + 2);
+				i = (end < 0 ? len : end + 2);
+				sb.append(' ');
+			}
+			else
+			{
+				sb.append(c);
+				i += 1;
+			}
+		}
+
+		return sb.toString();
+	}
+
 	/**
 	 * 解析SQL命令标识符，比如：“select”、“update”、"delete"。
 	 * 
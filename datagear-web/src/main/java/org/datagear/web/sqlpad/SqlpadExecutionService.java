@@ -25,6 +25,7 @@ import java.util.concurrent.Executors;
 import org.datagear.connection.ConnectionSource;
 import org.datagear.connection.ConnectionSourceException;
 import org.datagear.management.domain.Schema;
+import org.datagear.management.domain.User;
 import org.datagear.management.service.SqlHistoryService;
 import org.datagear.management.util.SchemaConnectionSupport;
 import org.datagear.persistence.support.PersistenceSupport;
@@ -218,6 +219,42 @@ public class SqlpadExecutionService extends PersistenceSupport
 		return this.schemaConnectionSupport.getSchemaConnection(this.connectionSource, schema);
 	}
 
+	/**
+	 * 获取用于执行给定SQL语句的{@linkplain Connection}：如果都是查询语句，将优先使用只读副本，
+	 * 否则，使用主库，并为用户固定使用主库一段时间，使其之后的查询能读取到刚写入的数据。
+	 * 
+	 * @param user
+	 * @param schema
+	 * @param sqlStatements
+	 * @return
+	 * @throws ConnectionSourceException
+	 */
+	protected Connection getSchemaConnection(User user, Schema schema, List<SqlStatement> sqlStatements)
+			throws ConnectionSourceException
+	{
+		if (schema.hasReplica())
+		{
+			boolean allQuery = true;
+
+			for (SqlStatement sqlStatement : sqlStatements)
+			{
+				if (!this.sqlPermissionChecker.isQuery(sqlStatement))
+				{
+					allQuery = false;
+					break;
+				}
+			}
+
+			if (allQuery)
+				return this.schemaConnectionSupport.getReadonlySchemaConnection(this.connectionSource, schema,
+						user.getId());
+
+			this.schemaConnectionSupport.pinPrimary(schema, user.getId());
+		}
+
+		return getSchemaConnection(schema);
+	}
+
 	/**
 	 * 发送执行开始消息。
 	 * 
@@ -506,7 +543,7 @@ public class SqlpadExecutionService extends PersistenceSupport
 
 			try
 			{
-				cn = getSchemaConnection(getSchema());
+				cn = getSchemaConnection(getUser(), getSchema(), getSqlStatements());
 				JdbcUtil.setAutoCommitIfSupports(cn, false);
 				JdbcUtil.setReadonlyIfSupports(cn, false);
 				st = createStatement(cn);
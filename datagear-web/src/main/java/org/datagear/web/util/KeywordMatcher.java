@@ -121,6 +121,69 @@ public class KeywordMatcher
 			return false;
 	}
 
+	/**
+	 * 将关键字转换为SQL的{@code LIKE}模式，匹配规则与{@linkplain #match(List, String, MatchValue)}一致（大小写除外）。
+	 * <p>
+	 * 关键字中的{@code _}、{@code %}以及转义符本身将使用{@code escape}转义，从而按照字面匹配。
+	 * </p>
+	 * 
+	 * @param keyword
+	 * @param escape
+	 *            转义符，比如{@linkplain java.sql.DatabaseMetaData#getSearchStringEscape()}，
+	 *            为{@code null}或空表示不转义，此时{@code _}、{@code %}仍是通配符
+	 * @return 返回{@code null}表示关键字为空
+	 */
+	public static String toLikePattern(String keyword, String escape)
+	{
+		KeywordInfo keywordInfo = resolveKeywordInfo(keyword);
+
+		if (keywordInfo == null)
+			return null;
+
+		MatchType matchType = keywordInfo.getMatchType();
+		String kw = escapeLikePattern(keywordInfo.getKeyword(), escape);
+
+		if (MatchType.START.equals(matchType))
+			return kw + "%";
+		else if (MatchType.END.equals(matchType))
+			return "%" + kw;
+		else
+			return "%" + kw + "%";
+	}
+
+	/**
+	 * 转义{@code LIKE}模式中的通配符。
+	 * 
+	 * @param str
+	 * @param escape
+	 *            转义符，为{@code null}或空表示不转义
+	 * @return
+	 */
+	protected static String escapeLikePattern(String str, String escape)
+	{
+		if (escape == null || escape.isEmpty())
+			return str;
+
+		StringBuilder sb = new StringBuilder(str.length() + 4);
+
+		for (int i = 0, len = str.length(); i < len; i++)
+		{
+			char c = str.charAt(i);
+
+			if (c == '_' || c == '%')
+				sb.append(escape).append(c);
+			else if (str.startsWith(escape, i))
+			{
+				sb.append(escape).append(escape);
+				i += escape.length() - 1;
+			}
+			else
+				sb.append(c);
+		}
+
+		return sb.toString();
+	}
+
 	/**
 	 * 解析{@linkplain KeywordInfo}。
 	 * 
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.util;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.datagear.persistence.KeywordMatchMode;
+import org.datagear.persistence.PagingCountMode;
+import org.datagear.persistence.Query;
+import org.datagear.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * 表数据查询记录数缓存。
+ * <p>
+ * 用于{@linkplain PagingCountMode#CACHED}分页：每个查询（数据源、表、查询条件）的记录数仅在后台统计一次并缓存，
+ * 之后的翻页直接使用缓存值，而不必每次都执行{@code COUNT(*)}。
+ * </p>
+ * <p>
+ * 每个表都有一个代数，{@linkplain #invalidate(String, String)}时递增，
+ * 后台统计仅在代数未变时才写入缓存，从而避免在清除缓存前开始、之后才完成的统计写入过期的记录数。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class QueryCountCache
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(QueryCountCache.class);
+
+	/** 缓存的最大查询数 */
+	private int maximumSize = 1000;
+
+	/** 缓存过期分钟数 */
+	private int expireAfterWriteMinutes = 10;
+
+	/** 后台统计线程数 */
+	private int threads = 2;
+
+	private Cache<CountKey, Long> _cache = null;
+
+	/** 正在统计的查询 */
+	private ConcurrentMap<CountKey, Boolean> _countings = new ConcurrentHashMap<>();
+
+	/** 表的缓存代数，关键字是不包含查询条件的{@linkplain CountKey} */
+	private ConcurrentMap<CountKey, AtomicLong> _generations = new ConcurrentHashMap<>();
+
+	private ExecutorService _executor = null;
+
+	public QueryCountCache()
+	{
+		super();
+	}
+
+	public int getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	public void setMaximumSize(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+	}
+
+	public int getExpireAfterWriteMinutes()
+	{
+		return expireAfterWriteMinutes;
+	}
+
+	public void setExpireAfterWriteMinutes(int expireAfterWriteMinutes)
+	{
+		this.expireAfterWriteMinutes = expireAfterWriteMinutes;
+	}
+
+	public int getThreads()
+	{
+		return threads;
+	}
+
+	public void setThreads(int threads)
+	{
+		this.threads = threads;
+	}
+
+	/**
+	 * 初始化。
+	 */
+	public void init()
+	{
+		this._cache = Caffeine.newBuilder().maximumSize(this.maximumSize)
+				.expireAfterWrite(this.expireAfterWriteMinutes, TimeUnit.MINUTES).build();
+
+		this._executor = Executors.newFixedThreadPool(this.threads, new ThreadFactory()
+		{
+			private final AtomicInteger count = new AtomicInteger(0);
+
+			@Override
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, "QueryCountCache-" + this.count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * 销毁。
+	 */
+	public void destroy()
+	{
+		if (this._executor != null)
+			this._executor.shutdownNow();
+	}
+
+	/**
+	 * 获取缓存的记录数。
+	 *
+	 * @param schemaId
+	 * @param tableName
+	 * @param query
+	 * @return 返回{@code null}表示没有缓存
+	 */
+	public Long get(String schemaId, String tableName, Query query)
+	{
+		return this._cache.getIfPresent(new CountKey(schemaId, tableName, query));
+	}
+
+	/**
+	 * 在后台统计记录数并缓存。
+	 * <p>
+	 * 如果已缓存、或者正在统计，此方法将不做任何操作。
+	 * </p>
+	 *
+	 * @param schemaId
+	 * @param tableName
+	 * @param query
+	 * @param counter
+	 */
+	public void countAsync(String schemaId, String tableName, Query query, final Counter counter)
+	{
+		final CountKey key = new CountKey(schemaId, tableName, query);
+
+		if (this._cache.getIfPresent(key) != null)
+			return;
+
+		if (this._countings.putIfAbsent(key, Boolean.TRUE) != null)
+			return;
+
+		final AtomicLong generation = getGeneration(schemaId, tableName);
+		final long startGeneration = generation.get();
+
+		try
+		{
+			this._executor.submit(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						long count = counter.count();
+
+						if (generation.get() == startGeneration)
+						{
+							_cache.put(key, count);
+
+							// 写入时可能恰好被清除
+							if (generation.get() != startGeneration)
+								_cache.invalidate(key);
+						}
+					}
+					catch (Throwable t)
+					{
+						LOGGER.warn("count error for table [" + key.getTableName() + "] :", t);
+					}
+					finally
+					{
+						_countings.remove(key);
+					}
+				}
+			});
+		}
+		catch (RuntimeException e)
+		{
+			this._countings.remove(key);
+			throw e;
+		}
+	}
+
+	/**
+	 * 清除指定表的所有缓存。
+	 * <p>
+	 * 表数据增删后应调用此方法。
+	 * </p>
+	 *
+	 * @param schemaId
+	 * @param tableName
+	 */
+	public void invalidate(String schemaId, String tableName)
+	{
+		getGeneration(schemaId, tableName).incrementAndGet();
+
+		Iterator<CountKey> keys = this._cache.asMap().keySet().iterator();
+
+		while (keys.hasNext())
+		{
+			CountKey key = keys.next();
+
+			if (key.getSchemaId().equals(schemaId) && key.getTableName().equals(tableName))
+				keys.remove();
+		}
+	}
+
+	/**
+	 * 清除指定查询的缓存。
+	 *
+	 * @param schemaId
+	 * @param tableName
+	 * @param query
+	 */
+	public void invalidate(String schemaId, String tableName, Query query)
+	{
+		getGeneration(schemaId, tableName).incrementAndGet();
+		this._cache.invalidate(new CountKey(schemaId, tableName, query));
+	}
+
+	/**
+	 * 获取表的缓存代数。
+	 *
+	 * @param schemaId
+	 * @param tableName
+	 * @return
+	 */
+	protected AtomicLong getGeneration(String schemaId, String tableName)
+	{
+		CountKey key = new CountKey(schemaId, tableName, null);
+
+		AtomicLong generation = this._generations.get(key);
+
+		if (generation == null)
+		{
+			generation = new AtomicLong(0);
+			AtomicLong prev = this._generations.putIfAbsent(key, generation);
+
+			if (prev != null)
+				generation = prev;
+		}
+
+		return generation;
+	}
+
+	/**
+	 * 记录数统计器。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	public static interface Counter
+	{
+		/**
+		 * 统计记录数。
+		 *
+		 * @return
+		 * @throws Throwable
+		 */
+		long count() throws Throwable;
+	}
+
+	/**
+	 * 缓存关键字，仅包含影响记录数的查询条件，不包含分页、排序信息。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class CountKey
+	{
+		private final String schemaId;
+
+		private final String tableName;
+
+		private final String keyword;
+
+		private final boolean notLike;
+
+		private final String keywordColumn;
+
+		private final KeywordMatchMode keywordMatchMode;
+
+		private final String condition;
+
+		public CountKey(String schemaId, String tableName, Query query)
+		{
+			super();
+			this.schemaId = schemaId;
+			this.tableName = tableName;
+			this.keyword = (query == null || !query.hasKeyword() ? null : query.getKeyword());
+			this.notLike = (query != null && query.isNotLike());
+			this.keywordColumn = (query == null || !query.hasKeywordColumn() ? null : query.getKeywordColumn());
+			this.keywordMatchMode = (query == null ? null : query.getKeywordMatchMode());
+			this.condition = (query == null || !query.hasCondition() ? null : query.getCondition().trim());
+		}
+
+		public String getSchemaId()
+		{
+			return schemaId;
+		}
+
+		public String getTableName()
+		{
+			return tableName;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((schemaId == null) ? 0 : schemaId.hashCode());
+			result = prime * result + ((tableName == null) ? 0 : tableName.hashCode());
+			result = prime * result + ((keyword == null) ? 0 : keyword.hashCode());
+			result = prime * result + (notLike ? 1231 : 1237);
+			result = prime * result + ((keywordColumn == null) ? 0 : keywordColumn.hashCode());
+			result = prime * result + ((keywordMatchMode == null) ? 0 : keywordMatchMode.hashCode());
+			result = prime * result + ((condition == null) ? 0 : condition.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			CountKey other = (CountKey) obj;
+			return StringUtil.isEquals(this.schemaId, other.schemaId)
+					&& StringUtil.isEquals(this.tableName, other.tableName)
+					&& StringUtil.isEquals(this.keyword, other.keyword) && this.notLike == other.notLike
+					&& StringUtil.isEquals(this.keywordColumn, other.keywordColumn)
+					&& this.keywordMatchMode == other.keywordMatchMode
+					&& StringUtil.isEquals(this.condition, other.condition);
+		}
+	}
+}
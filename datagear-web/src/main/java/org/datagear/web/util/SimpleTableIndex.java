@@ -0,0 +1,255 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.datagear.meta.SimpleTable;
+import org.datagear.web.util.KeywordMatcher.KeywordInfo;
+import org.datagear.web.util.KeywordMatcher.MatchType;
+
+/**
+ * {@linkplain SimpleTable}名称索引。
+ * <p>
+ * 它保存一个模式的所有表（按名称排序），并按照大写表名建立前缀索引，用于表名的即时搜索：
+ * </p>
+ * <ul>
+ * <li>前缀匹配（{@code abc%}）使用二分查找；</li>
+ * <li>其他匹配如果是上次搜索的细化（比如输入{@code ab}后再输入{@code abc}），则仅在上次的结果中筛选。</li>
+ * </ul>
+ * <p>
+ * 匹配规则与{@linkplain KeywordMatcher}一致。此类是线程安全的。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class SimpleTableIndex
+{
+	/** 按名称排序的表 */
+	private final List<SimpleTable> tables;
+
+	/** 按大写名称排序的表在{@linkplain #tables}中的索引 */
+	private final int[] upperNameOrder;
+
+	/** 按大写名称排序的大写名称 */
+	private final String[] upperNames;
+
+	/** 上次搜索 */
+	private volatile Search lastSearch = null;
+
+	/**
+	 * 创建索引。
+	 *
+	 * @param tables
+	 *            任意顺序的表，此列表会被排序
+	 * @param comparator
+	 *            表排序比较器
+	 */
+	public SimpleTableIndex(List<SimpleTable> tables, Comparator<SimpleTable> comparator)
+	{
+		super();
+
+		Collections.sort(tables, comparator);
+		this.tables = Collections.unmodifiableList(tables);
+
+		int size = tables.size();
+		final String[] myUpperNames = new String[size];
+		Integer[] order = new Integer[size];
+
+		for (int i = 0; i < size; i++)
+		{
+			myUpperNames[i] = tables.get(i).getName().toUpperCase();
+			order[i] = i;
+		}
+
+		Arrays.sort(order, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer o1, Integer o2)
+			{
+				return myUpperNames[o1].compareTo(myUpperNames[o2]);
+			}
+		});
+
+		this.upperNameOrder = new int[size];
+		this.upperNames = new String[size];
+
+		for (int i = 0; i < size; i++)
+		{
+			this.upperNameOrder[i] = order[i];
+			this.upperNames[i] = myUpperNames[order[i]];
+		}
+	}
+
+	/**
+	 * 获取所有表。
+	 *
+	 * @return
+	 */
+	public List<SimpleTable> getTables()
+	{
+		return tables;
+	}
+
+	/**
+	 * 搜索。
+	 *
+	 * @param keyword
+	 *            允许为{@code null}
+	 * @return 按名称排序的匹配表列表，不应修改
+	 */
+	public List<SimpleTable> search(String keyword)
+	{
+		KeywordInfo keywordInfo = KeywordMatcher.resolveKeywordInfo(keyword);
+
+		if (keywordInfo == null)
+			return this.tables;
+
+		MatchType matchType = keywordInfo.getMatchType();
+		String upperKeyword = keywordInfo.getUpperKeyword();
+
+		Search last = this.lastSearch;
+
+		if (last != null && last.getMatchType() == matchType && last.getUpperKeyword().equals(upperKeyword))
+			return last.getResult();
+
+		List<SimpleTable> result;
+
+		if (MatchType.START.equals(matchType))
+			result = searchPrefix(upperKeyword);
+		else
+		{
+			List<SimpleTable> candidates = this.tables;
+
+			if (last != null && last.getMatchType() == matchType
+					&& isRefinement(matchType, last.getUpperKeyword(), upperKeyword))
+				candidates = last.getResult();
+
+			result = filter(candidates, matchType, upperKeyword);
+		}
+
+		result = Collections.unmodifiableList(result);
+		this.lastSearch = new Search(matchType, upperKeyword, result);
+
+		return result;
+	}
+
+	protected List<SimpleTable> searchPrefix(String upperPrefix)
+	{
+		int start = lowerBound(upperPrefix);
+
+		List<Integer> indexes = new ArrayList<>();
+
+		for (int i = start; i < this.upperNames.length; i++)
+		{
+			if (!this.upperNames[i].startsWith(upperPrefix))
+				break;
+
+			indexes.add(this.upperNameOrder[i]);
+		}
+
+		// 恢复按名称排序
+		Collections.sort(indexes);
+
+		List<SimpleTable> result = new ArrayList<>(indexes.size());
+
+		for (Integer index : indexes)
+			result.add(this.tables.get(index));
+
+		return result;
+	}
+
+	protected int lowerBound(String upperPrefix)
+	{
+		int low = 0;
+		int high = this.upperNames.length;
+
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+
+			if (this.upperNames[mid].compareTo(upperPrefix) < 0)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+
+		return low;
+	}
+
+	protected List<SimpleTable> filter(List<SimpleTable> candidates, MatchType matchType, String upperKeyword)
+	{
+		List<SimpleTable> result = new ArrayList<>();
+
+		for (SimpleTable table : candidates)
+		{
+			String upperName = table.getName().toUpperCase();
+
+			boolean match = (MatchType.END.equals(matchType) ? upperName.endsWith(upperKeyword)
+					: upperName.indexOf(upperKeyword) >= 0);
+
+			if (match)
+				result.add(table);
+		}
+
+		return result;
+	}
+
+	/**
+	 * 新关键字的匹配结果是否一定是旧关键字匹配结果的子集。
+	 *
+	 * @param matchType
+	 * @param oldUpperKeyword
+	 * @param newUpperKeyword
+	 * @return
+	 */
+	protected boolean isRefinement(MatchType matchType, String oldUpperKeyword, String newUpperKeyword)
+	{
+		if (MatchType.END.equals(matchType))
+			return newUpperKeyword.endsWith(oldUpperKeyword);
+		else
+			return newUpperKeyword.indexOf(oldUpperKeyword) >= 0;
+	}
+
+	protected static class Search
+	{
+		private final MatchType matchType;
+
+		private final String upperKeyword;
+
+		private final List<SimpleTable> result;
+
+		public Search(MatchType matchType, String upperKeyword, List<SimpleTable> result)
+		{
+			super();
+			this.matchType = matchType;
+			this.upperKeyword = upperKeyword;
+			this.result = result;
+		}
+
+		public MatchType getMatchType()
+		{
+			return matchType;
+		}
+
+		public String getUpperKeyword()
+		{
+			return upperKeyword;
+		}
+
+		public List<SimpleTable> getResult()
+		{
+			return result;
+		}
+	}
+}
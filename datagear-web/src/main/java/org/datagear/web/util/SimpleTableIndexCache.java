@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.datagear.management.domain.Schema;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * {@linkplain SimpleTableIndex}缓存。
+ * <p>
+ * 每个{@linkplain Schema}缓存一个表名索引，使表名搜索、翻页不必每次都读取全部表。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SimpleTableIndexCache
+{
+	/** 缓存的最大模式数 */
+	private int maximumSize = 100;
+
+	/** 缓存过期分钟数 */
+	private int expireAfterAccessMinutes = 30;
+
+	private Cache<String, SimpleTableIndex> _cache = null;
+
+	public SimpleTableIndexCache()
+	{
+		super();
+	}
+
+	public int getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	public void setMaximumSize(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+	}
+
+	public int getExpireAfterAccessMinutes()
+	{
+		return expireAfterAccessMinutes;
+	}
+
+	public void setExpireAfterAccessMinutes(int expireAfterAccessMinutes)
+	{
+		this.expireAfterAccessMinutes = expireAfterAccessMinutes;
+	}
+
+	/**
+	 * 初始化。
+	 */
+	public void init()
+	{
+		this._cache = Caffeine.newBuilder().maximumSize(this.maximumSize)
+				.expireAfterAccess(this.expireAfterAccessMinutes, TimeUnit.MINUTES).build();
+	}
+
+	/**
+	 * 获取{@linkplain SimpleTableIndex}。
+	 * 
+	 * @param schemaId
+	 * @return 返回{@code null}表示没有缓存
+	 */
+	public SimpleTableIndex get(String schemaId)
+	{
+		return this._cache.getIfPresent(schemaId);
+	}
+
+	/**
+	 * 添加{@linkplain SimpleTableIndex}。
+	 * 
+	 * @param schemaId
+	 * @param index
+	 */
+	public void put(String schemaId, SimpleTableIndex index)
+	{
+		this._cache.put(schemaId, index);
+	}
+
+	/**
+	 * 清除指定{@linkplain Schema} ID的缓存。
+	 * 
+	 * @param schemaId
+	 */
+	public void invalidate(String schemaId)
+	{
+		this._cache.invalidate(schemaId);
+	}
+}
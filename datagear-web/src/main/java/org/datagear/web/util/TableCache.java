@@ -7,34 +7,92 @@
 
 package org.datagear.web.util;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.datagear.management.domain.Schema;
 import org.datagear.meta.Table;
+import org.datagear.util.FileUtil;
+import org.datagear.util.IOUtil;
+import org.datagear.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
 
 /**
  * {@linkplain Table}缓存。
+ * <p>
+ * 它包含两级缓存：内存缓存（按照{@linkplain Schema}分组索引），以及{@linkplain #getSnapshotDirectory()}目录下的快照文件，
+ * 快照在后台定时写入，重启后首次访问某个{@linkplain Schema}时从快照恢复，因此无需再次读取表元信息。
+ * </p>
+ * <p>
+ * 每个{@linkplain Schema}的缓存都记录其元信息指纹（参考{@linkplain org.datagear.meta.resolver.DBMetaResolver#getSchemaFingerprint(java.sql.Connection)}），
+ * 使用者应在{@linkplain #isCheckRequired(String)}时调用{@linkplain #check(String, String)}校验指纹，
+ * 并使用{@linkplain #refresh(String, List, TableLoader)}在后台刷新过期的表。
+ * </p>
+ * <p>
+ * 快照采用JSON格式存储，并记录格式版本号（参考{@linkplain #SNAPSHOT_VERSION}），版本不一致、无法解析或者过期的快照将被删除。
+ * </p>
  * 
  * @author datagear@163.com
  *
  */
 public class TableCache
 {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TableCache.class);
+
+	protected static final String SNAPSHOT_FILE_SUFFIX = ".tables";
+
+	/** 快照格式版本号，元信息类（{@linkplain Table}等）结构变更时应递增，使旧快照失效 */
+	protected static final int SNAPSHOT_VERSION = 2;
+
 	/** 缓存值的最大数 */
 	private int maximumSize = 1000;
 
 	/** 缓存过期分钟数 */
 	private int expireAfterAccessMinutes = 60 * 72;
 
+	/** 快照目录，为{@code null}表示不使用快照 */
+	private File snapshotDirectory = null;
+
+	/** 写入快照的间隔秒数 */
+	private int snapshotIntervalSeconds = 60;
+
+	/** 快照有效分钟数，小于等于0表示不使用快照 */
+	private int snapshotExpireMinutes = 60 * 24;
+
+	/** 校验元信息指纹的最小间隔秒数 */
+	private int checkIntervalSeconds = 60;
+
 	private Cache<TableCacheKey, Table> _cache = null;
 
+	private ConcurrentMap<String, SchemaTables> _schemaTabless = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService _executor = null;
+
+	private ObjectMapper _objectMapper = null;
+
 	public TableCache()
 	{
 		super();
@@ -60,13 +118,94 @@ public class TableCache
 		this.expireAfterAccessMinutes = expireAfterAccessMinutes;
 	}
 
+	public File getSnapshotDirectory()
+	{
+		return snapshotDirectory;
+	}
+
+	public void setSnapshotDirectory(File snapshotDirectory)
+	{
+		this.snapshotDirectory = snapshotDirectory;
+	}
+
+	public int getSnapshotIntervalSeconds()
+	{
+		return snapshotIntervalSeconds;
+	}
+
+	public void setSnapshotIntervalSeconds(int snapshotIntervalSeconds)
+	{
+		this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+	}
+
+	public int getSnapshotExpireMinutes()
+	{
+		return snapshotExpireMinutes;
+	}
+
+	public void setSnapshotExpireMinutes(int snapshotExpireMinutes)
+	{
+		this.snapshotExpireMinutes = snapshotExpireMinutes;
+	}
+
+	public int getCheckIntervalSeconds()
+	{
+		return checkIntervalSeconds;
+	}
+
+	public void setCheckIntervalSeconds(int checkIntervalSeconds)
+	{
+		this.checkIntervalSeconds = checkIntervalSeconds;
+	}
+
 	/**
 	 * 初始化。
 	 */
 	public void init()
 	{
+		this._objectMapper = createObjectMapper();
+
 		this._cache = Caffeine.newBuilder().maximumSize(this.maximumSize)
-				.expireAfterAccess(this.expireAfterAccessMinutes, TimeUnit.MINUTES).build();
+				.expireAfterAccess(this.expireAfterAccessMinutes, TimeUnit.MINUTES)
+				.removalListener(new RemovalListener<TableCacheKey, Table>()
+				{
+					@Override
+					public void onRemoval(TableCacheKey key, Table value, RemovalCause cause)
+					{
+						if (key != null && cause.wasEvicted())
+						{
+							SchemaTables schemaTables = _schemaTabless.get(key.getSchemaId());
+
+							if (schemaTables != null)
+								schemaTables.getTableNames().remove(key.getTableName());
+						}
+					}
+				}).build();
+
+		this._executor = Executors.newSingleThreadScheduledExecutor();
+
+		if (this.snapshotDirectory != null && this.snapshotIntervalSeconds > 0)
+		{
+			this._executor.scheduleWithFixedDelay(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					flush();
+				}
+			}, this.snapshotIntervalSeconds, this.snapshotIntervalSeconds, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * 销毁，写入所有快照。
+	 */
+	public void destroy()
+	{
+		if (this._executor != null)
+			this._executor.shutdownNow();
+
+		flush();
 	}
 
 	/**
@@ -78,6 +217,8 @@ public class TableCache
 	 */
 	public Table get(String schemaId, String tableName)
 	{
+		getSchemaTables(schemaId);
+
 		TableCacheKey key = new TableCacheKey(schemaId, tableName);
 		return this._cache.getIfPresent(key);
 	}
@@ -90,8 +231,36 @@ public class TableCache
 	 */
 	public void put(String schemaId, Table table)
 	{
+		SchemaTables schemaTables = getSchemaTables(schemaId);
+
 		TableCacheKey key = new TableCacheKey(schemaId, table.getName());
 		this._cache.put(key, table);
+
+		schemaTables.getTableNames().add(table.getName());
+		schemaTables.setDirty(true);
+	}
+
+	/**
+	 * 将{@linkplain Table}列表添加至缓存。
+	 * 
+	 * @param schemaId
+	 * @param tables
+	 */
+	public void putAll(String schemaId, List<Table> tables)
+	{
+		SchemaTables schemaTables = getSchemaTables(schemaId);
+
+		Map<TableCacheKey, Table> map = new HashMap<>();
+
+		for (Table table : tables)
+			map.put(new TableCacheKey(schemaId, table.getName()), table);
+
+		this._cache.putAll(map);
+
+		for (Table table : tables)
+			schemaTables.getTableNames().add(table.getName());
+
+		schemaTables.setDirty(true);
 	}
 
 	/**
@@ -104,27 +273,464 @@ public class TableCache
 	{
 		TableCacheKey key = new TableCacheKey(schemaId, tableName);
 		this._cache.invalidate(key);
+
+		SchemaTables schemaTables = this._schemaTabless.get(schemaId);
+
+		if (schemaTables != null)
+		{
+			schemaTables.getTableNames().remove(tableName);
+			schemaTables.setDirty(true);
+		}
 	}
 
 	/**
-	 * 清除指定{@linkplain Schema} ID的所有{@linkplain Table}缓存。
+	 * 清除指定{@linkplain Schema} ID的所有{@linkplain Table}缓存，包括快照。
 	 * 
 	 * @param schemaId
 	 */
 	public void invalidate(String schemaId)
 	{
-		ConcurrentMap<TableCacheKey, Table> map = this._cache.asMap();
-		Set<TableCacheKey> keys = map.keySet();
+		deleteSnapshot(schemaId);
+
+		SchemaTables schemaTables = this._schemaTabless.remove(schemaId);
+
+		if (schemaTables != null)
+			invalidateAll(schemaId, schemaTables.getTableNames());
+	}
+
+	/**
+	 * 是否需要校验指定{@linkplain Schema}的元信息指纹。
+	 * 
+	 * @param schemaId
+	 * @return
+	 */
+	public boolean isCheckRequired(String schemaId)
+	{
+		SchemaTables schemaTables = getSchemaTables(schemaId);
+
+		return (System.currentTimeMillis() - schemaTables.getCheckTime() >= this.checkIntervalSeconds * 1000L);
+	}
+
+	/**
+	 * 校验指定{@linkplain Schema}的元信息指纹。
+	 * <p>
+	 * 如果指纹已改变，所有缓存都将被清除；如果数据库不支持指纹，从快照恢复的缓存将被保留，但仍需刷新。
+	 * </p>
+	 * 
+	 * @param schemaId
+	 * @param fingerprint
+	 *            当前元信息指纹，为{@code null}表示数据库不支持
+	 * @return 需要在后台刷新的表名列表，不会为{@code null}
+	 */
+	public List<String> check(String schemaId, String fingerprint)
+	{
+		SchemaTables schemaTables = getSchemaTables(schemaId);
+
+		List<String> refreshTableNames = Collections.emptyList();
+
+		synchronized (schemaTables)
+		{
+			String prevFingerprint = schemaTables.getFingerprint();
+
+			if (fingerprint != null && prevFingerprint != null && !fingerprint.equals(prevFingerprint))
+			{
+				refreshTableNames = new ArrayList<>(schemaTables.getTableNames());
+				invalidateAll(schemaId, refreshTableNames);
+				schemaTables.getTableNames().clear();
+			}
+			else if (fingerprint == null && schemaTables.isFromSnapshot())
+				refreshTableNames = new ArrayList<>(schemaTables.getTableNames());
+
+			if (!StringUtil.isEquals(fingerprint, prevFingerprint))
+				schemaTables.setDirty(true);
+
+			schemaTables.setFingerprint(fingerprint);
+			schemaTables.setFromSnapshot(false);
+			schemaTables.setCheckTime(System.currentTimeMillis());
+		}
+
+		return refreshTableNames;
+	}
+
+	/**
+	 * 在后台刷新指定{@linkplain Table}缓存。
+	 * 
+	 * @param schemaId
+	 * @param tableNames
+	 * @param tableLoader
+	 */
+	public void refresh(final String schemaId, final List<String> tableNames, final TableLoader tableLoader)
+	{
+		if (tableNames.isEmpty())
+			return;
+
+		this._executor.submit(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					List<Table> tables = tableLoader.load(tableNames);
+					putAll(schemaId, tables);
+				}
+				catch (Throwable t)
+				{
+					LOGGER.warn("refresh tables of schema [" + schemaId + "] error", t);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 将有变更的缓存写入快照。
+	 */
+	public void flush()
+	{
+		if (this.snapshotDirectory == null)
+			return;
+
+		for (Map.Entry<String, SchemaTables> entry : this._schemaTabless.entrySet())
+		{
+			String schemaId = entry.getKey();
+			SchemaTables schemaTables = entry.getValue();
+
+			if (!schemaTables.isDirty())
+				continue;
+
+			schemaTables.setDirty(false);
+
+			Map<String, Table> tables = new HashMap<>();
+
+			for (String tableName : schemaTables.getTableNames())
+			{
+				Table table = this._cache.getIfPresent(new TableCacheKey(schemaId, tableName));
+
+				if (table != null)
+					tables.put(tableName, table);
+			}
+
+			if (tables.isEmpty())
+				deleteSnapshot(schemaId);
+			else
+				writeSnapshot(schemaId,
+						new TableSnapshot(schemaTables.getFingerprint(), System.currentTimeMillis(), tables));
+		}
+	}
+
+	protected void invalidateAll(String schemaId, Iterable<String> tableNames)
+	{
+		Set<TableCacheKey> keys = new HashSet<>();
+
+		for (String tableName : tableNames)
+			keys.add(new TableCacheKey(schemaId, tableName));
+
+		if (!keys.isEmpty())
+			this._cache.invalidateAll(keys);
+	}
+
+	/**
+	 * 获取{@linkplain SchemaTables}，首次获取时将从快照恢复缓存。
+	 * 
+	 * @param schemaId
+	 * @return
+	 */
+	protected SchemaTables getSchemaTables(String schemaId)
+	{
+		SchemaTables schemaTables = this._schemaTabless.get(schemaId);
+
+		if (schemaTables == null)
+		{
+			schemaTables = new SchemaTables();
+			SchemaTables prev = this._schemaTabless.putIfAbsent(schemaId, schemaTables);
+
+			if (prev != null)
+				schemaTables = prev;
+			else
+				loadSnapshot(schemaId, schemaTables);
+		}
+
+		return schemaTables;
+	}
+
+	protected void loadSnapshot(String schemaId, SchemaTables schemaTables)
+	{
+		TableSnapshot snapshot = readSnapshot(schemaId);
+
+		if (snapshot == null)
+			return;
+
+		// 即使有指纹也应校验有效期，因为指纹可能无法反映所有元信息变更
+		if (snapshot.getVersion() != SNAPSHOT_VERSION || snapshot.getTables() == null
+				|| this.snapshotExpireMinutes <= 0
+				|| System.currentTimeMillis() - snapshot.getTime() > this.snapshotExpireMinutes * 60L * 1000L)
+		{
+			deleteSnapshot(schemaId);
+			return;
+		}
+
+		Map<TableCacheKey, Table> map = new HashMap<>();
+
+		for (Map.Entry<String, Table> entry : snapshot.getTables().entrySet())
+			map.put(new TableCacheKey(schemaId, entry.getKey()), entry.getValue());
+
+		synchronized (schemaTables)
+		{
+			this._cache.putAll(map);
+			schemaTables.getTableNames().addAll(snapshot.getTables().keySet());
+			schemaTables.setFingerprint(snapshot.getFingerprint());
+			schemaTables.setFromSnapshot(true);
+		}
+	}
+
+	protected TableSnapshot readSnapshot(String schemaId)
+	{
+		File file = getSnapshotFile(schemaId);
+
+		if (file == null || !file.exists())
+			return null;
+
+		InputStream in = null;
+
+		try
+		{
+			in = IOUtil.getInputStream(file);
+
+			return this._objectMapper.readValue(in, TableSnapshot.class);
+		}
+		catch (Throwable t)
+		{
+			// 旧版本的快照可能无法解析，此时忽略并删除快照
+			LOGGER.warn("read table snapshot [" + file + "] error, it will be deleted", t);
+			IOUtil.close(in);
+			in = null;
+			FileUtil.deleteFile(file);
+
+			return null;
+		}
+		finally
+		{
+			IOUtil.close(in);
+		}
+	}
+
+	protected void writeSnapshot(String schemaId, TableSnapshot snapshot)
+	{
+		File file = getSnapshotFile(schemaId);
+
+		try
+		{
+			IOUtil.writeAtomically(file, new IOUtil.StreamWriter()
+			{
+				@Override
+				public void write(OutputStream out) throws IOException
+				{
+					_objectMapper.writeValue(out, snapshot);
+				}
+			});
+		}
+		catch (Throwable t)
+		{
+			LOGGER.warn("write table snapshot [" + file + "] error", t);
+		}
+	}
+
+	protected void deleteSnapshot(String schemaId)
+	{
+		File file = getSnapshotFile(schemaId);
+
+		if (file != null && file.exists())
+			FileUtil.deleteFile(file);
+	}
+
+	protected File getSnapshotFile(String schemaId)
+	{
+		if (this.snapshotDirectory == null)
+			return null;
+
+		return FileUtil.getFile(this.snapshotDirectory, schemaId + SNAPSHOT_FILE_SUFFIX);
+	}
+
+	/**
+	 * 创建读写快照的{@linkplain ObjectMapper}。
+	 * 
+	 * @return
+	 */
+	protected ObjectMapper createObjectMapper()
+	{
+		ObjectMapper objectMapper = new ObjectMapper();
+
+		// 元信息类的派生属性（比如Table.getFullTextIndexes()）也会被写入，读取时应忽略
+		objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+		return objectMapper;
+	}
+
+	/**
+	 * {@linkplain Table}加载器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static interface TableLoader
+	{
+		/**
+		 * 加载指定名称的{@linkplain Table}，不存在的表应忽略。
+		 * 
+		 * @param tableNames
+		 * @return
+		 * @throws Throwable
+		 */
+		List<Table> load(List<String> tableNames) throws Throwable;
+	}
+
+	/**
+	 * 一个{@linkplain Schema}的缓存索引。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class SchemaTables
+	{
+		/** 已缓存的表名 */
+		private final Set<String> tableNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+		/** 元信息指纹 */
+		private volatile String fingerprint = null;
+
+		/** 上次校验指纹的时间 */
+		private volatile long checkTime = 0;
+
+		/** 是否从快照恢复且尚未校验 */
+		private volatile boolean fromSnapshot = false;
+
+		/** 是否有未写入快照的变更 */
+		private volatile boolean dirty = false;
+
+		public SchemaTables()
+		{
+			super();
+		}
+
+		public Set<String> getTableNames()
+		{
+			return tableNames;
+		}
+
+		public String getFingerprint()
+		{
+			return fingerprint;
+		}
+
+		public void setFingerprint(String fingerprint)
+		{
+			this.fingerprint = fingerprint;
+		}
+
+		public long getCheckTime()
+		{
+			return checkTime;
+		}
+
+		public void setCheckTime(long checkTime)
+		{
+			this.checkTime = checkTime;
+		}
+
+		public boolean isFromSnapshot()
+		{
+			return fromSnapshot;
+		}
+
+		public void setFromSnapshot(boolean fromSnapshot)
+		{
+			this.fromSnapshot = fromSnapshot;
+		}
+
+		public boolean isDirty()
+		{
+			return dirty;
+		}
+
+		public void setDirty(boolean dirty)
+		{
+			this.dirty = dirty;
+		}
+	}
+
+	/**
+	 * 一个{@linkplain Schema}的缓存快照。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class TableSnapshot
+	{
+		/** 快照格式版本号 */
+		private int version = 0;
+
+		/** 元信息指纹，为{@code null}表示数据库不支持 */
+		private String fingerprint;
+
+		/** 快照时间 */
+		private long time;
+
+		/** 表名-表映射表 */
+		private Map<String, Table> tables;
+
+		public TableSnapshot()
+		{
+			super();
+		}
+
+		public TableSnapshot(String fingerprint, long time, Map<String, Table> tables)
+		{
+			super();
+			this.version = SNAPSHOT_VERSION;
+			this.fingerprint = fingerprint;
+			this.time = time;
+			this.tables = tables;
+		}
+
+		public int getVersion()
+		{
+			return version;
+		}
 
-		Set<TableCacheKey> myKeys = new HashSet<>();
-		for (TableCacheKey key : keys)
+		public void setVersion(int version)
 		{
-			if (key.getSchemaId().equals(schemaId))
-				myKeys.add(key);
+			this.version = version;
 		}
 
-		if (!myKeys.isEmpty())
-			this._cache.invalidateAll(myKeys);
+		public String getFingerprint()
+		{
+			return fingerprint;
+		}
+
+		public void setFingerprint(String fingerprint)
+		{
+			this.fingerprint = fingerprint;
+		}
+
+		public long getTime()
+		{
+			return time;
+		}
+
+		public void setTime(long time)
+		{
+			this.time = time;
+		}
+
+		public Map<String, Table> getTables()
+		{
+			return tables;
+		}
+
+		public void setTables(Map<String, Table> tables)
+		{
+			this.tables = tables;
+		}
 	}
 
 	protected static class TableCacheKey implements Serializable
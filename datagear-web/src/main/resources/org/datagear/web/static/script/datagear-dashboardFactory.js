@@ -136,6 +136,16 @@
 	 */
 	dashboardFactory.HANDLE_CHART_INTERVAL_MS = 1;
 	
+	/**
+	 * 检查服务端推送（SSE）订阅的间隔毫秒数。
+	 */
+	dashboardFactory.PUSH_SUBSCRIBE_CHECK_INTERVAL_MS = 1000;
+	
+	/**
+	 * 服务端推送（SSE）连续出错的最大次数，超过后此看板将不再使用服务端推送，而回退为定时轮询。
+	 */
+	dashboardFactory.PUSH_MAX_ERROR_COUNT = 3;
+	
 	/**
 	 * 浏览器初始化到此看板工厂JS的时间戳。
 	 */
@@ -612,6 +622,14 @@
 		return chartFactory.extValueBuiltin(this, "inRequestRefreshData", inRequest);
 	};
 	
+	/**
+	 * 获取/设置图表当前数据对应的服务端图表结果摘要。
+	 */
+	chartBase._resultHash = function(hash)
+	{
+		return chartFactory.extValueBuiltin(this, "resultHash", hash);
+	};
+	
 	//----------------------------------------
 	// chartBase扩展结束
 	//----------------------------------------
@@ -1240,6 +1258,7 @@
 	dashboardBase.stopHandleCharts = function()
 	{
 		this._doHandlingCharts = false;
+		this._closePushEventSource();
 	};
 	
 	/**
@@ -1290,6 +1309,8 @@
 			this._doHandleChartsAjax(url, preUpdateGroups[group]);
 		}
 		
+		this._handlePushSubscribe(time);
+		
 		var dashboard = this;
 		setTimeout(function()
 		{
@@ -1317,34 +1338,16 @@
 			{
 				var chartResults = (dashboardResult.chartResults || {});
 				var chartResultErrorMessages = (dashboardResult.chartResultErrorMessages || {});
+				var chartResultHashes = (dashboardResult.chartResultHashes || {});
 				
-				// < @deprecated 用于兼容1.10.1版本的DataSetResult.datas结构，未来版本会移除
-				if(chartResults)
-				{
-					for(var chartId in chartResults)
-					{
-						var chartResult = (chartResults[chartId] || {});
-						var dataSetResults = (chartResult ? chartResult.dataSetResults : []);
-						
-						for(var i=0; i<dataSetResults.length; i++)
-						{
-							if(dataSetResults[i] && dataSetResults[i].data != null)
-							{
-								var resultDatas = dataSetResults[i].data;
-								if(resultDatas != null && !$.isArray(resultDatas))
-									resultDatas = [ resultDatas ];
-								
-								dataSetResults[i].datas = resultDatas;
-							}
-						}
-					}
-				}
-				//> @deprecated 用于兼容1.10.1版本的DataSetResult.datas结构，未来版本会移除
+				dashboard._compatibleChartResults(chartResults);
 				
 				var updateTime = new Date().getTime();
 				
+				//unchangedChartIds中的图表结果未改变，服务端没有返回它们的结果，也就不需要再更新它们
 				dashboard._updateCharts(chartResults);
 				dashboard._handleChartResultErrors(chartResultErrorMessages);
+				dashboard._setResultHash(preUpdateCharts, chartResultHashes);
 				
 				dashboard._setUpdateTime(preUpdateCharts, updateTime);				
 				dashboard._setInRequestRefreshData(preUpdateCharts, false);
@@ -1362,6 +1365,245 @@
 		});
 	};
 	
+	/**
+	 * 兼容处理图表结果。
+	 * 
+	 * @param chartResults [图表ID-图表结果]映射表
+	 */
+	dashboardBase._compatibleChartResults = function(chartResults)
+	{
+		// < @deprecated 用于兼容1.10.1版本的DataSetResult.datas结构，未来版本会移除
+		if(chartResults)
+		{
+			for(var chartId in chartResults)
+			{
+				var chartResult = (chartResults[chartId] || {});
+				var dataSetResults = (chartResult ? chartResult.dataSetResults : []);
+				
+				for(var i=0; i<dataSetResults.length; i++)
+				{
+					if(dataSetResults[i] && dataSetResults[i].data != null)
+					{
+						var resultDatas = dataSetResults[i].data;
+						if(resultDatas != null && !$.isArray(resultDatas))
+							resultDatas = [ resultDatas ];
+						
+						dataSetResults[i].datas = resultDatas;
+					}
+				}
+			}
+		}
+		//> @deprecated 用于兼容1.10.1版本的DataSetResult.datas结构，未来版本会移除
+	};
+	
+	/**
+	 * 处理服务端推送（SSE）订阅：将已更新过数据、且设置了更新间隔的图表交由服务端推送数据，不再定时轮询。
+	 * 当浏览器不支持EventSource、或者服务端未开启推送时，图表仍采用定时轮询方式更新数据。
+	 * 
+	 * @param currentTime 当前时间戳
+	 */
+	dashboardBase._handlePushSubscribe = function(currentTime)
+	{
+		if(this._pushDisabled == true)
+			return;
+		
+		if(this._pushCheckTime != null
+				&& (currentTime - this._pushCheckTime) < dashboardFactory.PUSH_SUBSCRIBE_CHECK_INTERVAL_MS)
+			return;
+		
+		this._pushCheckTime = currentTime;
+		
+		var webContext = chartFactory.renderContextAttrWebContext(this.renderContext);
+		var pushURL = (webContext && webContext.attributes ? webContext.attributes.updateDashboardPushURL : null);
+		var registerURL = (webContext && webContext.attributes ? webContext.attributes.registerDashboardPushURL : null);
+		
+		if(!pushURL || !registerURL || typeof(EventSource) == "undefined")
+		{
+			this._pushDisabled = true;
+			return;
+		}
+		
+		var pushCharts = [];
+		var charts = this.charts;
+		
+		for(var i=0; i<charts.length; i++)
+		{
+			var chart = charts[i];
+			
+			if(chart.updateInterval > -1 && chart._updateTime() != null && !chart._inRequestRefreshData()
+					&& chart.isDataSetParamValueReady())
+			{
+				pushCharts.push(chart);
+			}
+		}
+		
+		var form = (pushCharts.length > 0 ? this._buildUpdateDashboardAjaxData(pushCharts) : null);
+		var signature = (form ? JSON.stringify(form) : "");
+		
+		if(signature == (this._pushSignature || ""))
+			return;
+		
+		this._closePushEventSource();
+		this._pushSignature = signature;
+		
+		if(!form)
+			return;
+		
+		var dashboard = this;
+		
+		//EventSource仅支持GET请求，先注册看板查询，避免将其放在URL中
+		$.ajax({
+			contentType : "application/json",
+			type : "POST",
+			url : chartFactory.toWebContextPathURL(webContext, registerURL),
+			data : JSON.stringify(form),
+			success : function(response)
+			{
+				//注册期间订阅已改变
+				if(signature != dashboard._pushSignature)
+					return;
+				
+				dashboard._openPushEventSource(webContext, pushURL, dashboard.id, response.pushId);
+			},
+			error : function()
+			{
+				dashboard._handlePushError();
+			}
+		});
+	};
+	
+	/**
+	 * 打开服务端推送（SSE）连接。
+	 * 
+	 * @param webContext
+	 * @param pushURL
+	 * @param dashboardId
+	 * @param pushId 注册看板查询时返回的ID
+	 */
+	dashboardBase._openPushEventSource = function(webContext, pushURL, dashboardId, pushId)
+	{
+		var url = chartFactory.toWebContextPathURL(webContext, pushURL);
+		url += (url.indexOf("?") < 0 ? "?" : "&") + "dashboardId=" + encodeURIComponent(dashboardId)
+				+ "&pushId=" + encodeURIComponent(pushId);
+		
+		var dashboard = this;
+		var eventSource = new EventSource(url);
+		
+		eventSource.addEventListener("subscribed", function(event)
+		{
+			var chartIds = JSON.parse(event.data);
+			var pushChartIds = {};
+			
+			for(var i=0; i<chartIds.length; i++)
+				pushChartIds[chartIds[i]] = true;
+			
+			dashboard._pushChartIds = pushChartIds;
+			dashboard._pushErrorCount = 0;
+		});
+		
+		eventSource.addEventListener("chartResult", function(event)
+		{
+			dashboard._handlePushDashboardResult(JSON.parse(event.data));
+		});
+		
+		eventSource.onerror = function()
+		{
+			dashboard._handlePushError();
+		};
+		
+		this._pushEventSource = eventSource;
+	};
+	
+	/**
+	 * 处理服务端推送出错：关闭连接，等待一段时间后重新订阅，连续出错过多时不再订阅。
+	 */
+	dashboardBase._handlePushError = function()
+	{
+		this._closePushEventSource();
+		this._pushSignature = null;
+		this._pushErrorCount = (this._pushErrorCount || 0) + 1;
+		
+		//出错后应等待一段时间后再尝试，避免频繁订阅
+		this._pushCheckTime = new Date().getTime() + dashboardFactory.UPDATE_AJAX_RETRY_SECONDS*1000;
+		
+		if(this._pushErrorCount >= dashboardFactory.PUSH_MAX_ERROR_COUNT)
+			this._pushDisabled = true;
+	};
+	
+	/**
+	 * 关闭服务端推送（SSE）连接，之后图表将恢复定时轮询，直到重新订阅成功。
+	 */
+	dashboardBase._closePushEventSource = function()
+	{
+		if(this._pushEventSource != null)
+		{
+			try
+			{
+				this._pushEventSource.close();
+			}
+			catch(e)
+			{
+				chartFactory.logException(e);
+			}
+		}
+		
+		this._pushEventSource = null;
+		this._pushChartIds = null;
+	};
+	
+	/**
+	 * 给定图表是否正由服务端推送（SSE）更新数据。
+	 */
+	dashboardBase._isInPush = function(chart)
+	{
+		return (this._pushChartIds != null && this._pushChartIds[chart.id] == true);
+	};
+	
+	/**
+	 * 处理服务端推送（SSE）的看板结果。
+	 * 
+	 * @param dashboardResult 看板结果，格式与更新看板数据ajax请求的返回结果一致
+	 */
+	dashboardBase._handlePushDashboardResult = function(dashboardResult)
+	{
+		var chartResults = (dashboardResult.chartResults || {});
+		var chartResultErrorMessages = (dashboardResult.chartResultErrorMessages || {});
+		var pushCharts = [];
+		
+		for(var chartId in chartResults)
+		{
+			var chart = this.chartOf(chartId);
+			
+			//图表正在ajax请求中（比如刷新数据），应以请求结果为准
+			if(!chart || !this._isInPush(chart) || chart._inUpdateAjax() || chart._inRequestRefreshData())
+			{
+				delete chartResults[chartId];
+				continue;
+			}
+			
+			//图表状态可能并不符合chart.update()要求（比如chartStatusConst.UPDATE_ERROR），所以这里需要校验设置
+			if(!chart.statusRendered() && !chart.statusPreUpdate() && !chart.statusUpdated())
+				chart.statusPreUpdate(true);
+			
+			pushCharts.push(chart);
+		}
+		
+		for(var chartId in chartResultErrorMessages)
+		{
+			var chart = this.chartOf(chartId);
+			
+			if(!chart || !this._isInPush(chart) || chart._inUpdateAjax() || chart._inRequestRefreshData())
+				delete chartResultErrorMessages[chartId];
+		}
+		
+		this._compatibleChartResults(chartResults);
+		this._updateCharts(chartResults);
+		this._handleChartResultErrors(chartResultErrorMessages);
+		//推送结果没有摘要，应清除之前的摘要，避免之后的ajax请求误判结果未改变
+		this._setResultHash(pushCharts, {});
+		this._setUpdateTime(pushCharts, new Date().getTime());
+	};
+	
 	/**
 	 * 图表是否在等待渲染。
 	 */
@@ -1398,6 +1640,11 @@
 		{
 			wait = true;
 		}
+		//图表由服务端推送更新数据，不需要定时轮询
+		else if(this._isInPush(chart))
+		{
+			wait = false;
+		}
 		else if(chart.updateInterval > -1
 					&& (chart.statusUpdated() || chart.status() == chartStatusConst.UPDATE_ERROR))
 		{
@@ -1599,6 +1846,30 @@
 		}
 	};
 	
+	/**
+	 * 设置图表结果摘要。
+	 * 
+	 * @param chart 图表、图表数组
+	 * @param chartResultHashes [图表ID-图表结果摘要]映射表，没有对应摘要的图表将被清除摘要
+	 */
+	dashboardBase._setResultHash = function(chart, chartResultHashes)
+	{
+		try
+		{
+			chart = ($.isArray(chart) ? chart : [ chart ]);
+			
+			for(var i=0; i<chart.length; i++)
+			{
+				var hash = chartResultHashes[chart[i].id];
+				chart[i]._resultHash(hash == null ? null : hash);
+			}
+		}
+		catch(e)
+		{
+			chartFactory.logException(e);
+		}
+	};
+	
 	dashboardBase._setUpdateAjaxErrorTime = function(chart, errorTime)
 	{
 		try
@@ -1639,6 +1910,10 @@
 				if(chartQuery.resultDataFormat == null)
 					chartQuery.resultDataFormat = this.resultDataFormat();
 				
+				//图表已展示过数据且不是明确请求刷新时，回传结果摘要，服务端在结果未改变时将不再返回数据
+				if(chart.statusUpdated() && !chart._inRequestRefreshData())
+					chartQuery.resultHash = chart._resultHash();
+				
 				var chartDataSets = (chart.chartDataSets || []);
 				for(var j=0; j<chartDataSets.length; j++)
 				{
@@ -24,9 +24,15 @@
 			//可选，页大小
 			pageSize: 10,
 			
-			//可选，总记录数
+			//可选，总记录数，小于0表示未知
 			total: 0,
 			
+			//可选，总记录数是否是估算值
+			totalEstimated: false,
+			
+			//可选，是否有下一页，为null时由总记录数计算，总记录数未知或者是估算值时应设置
+			hasNextPage: null,
+			
 			//可选，页大小选项
 			pageSizeOptions: [[5, 10], [20, 50], [100, 200], [500, 1000]],
 			
@@ -122,7 +128,7 @@
 			
 			endbtn.button().click(function()
 			{
-				var pages =  ( thisWidget.options.pageSize < 1 ? 0 : Math.ceil(thisWidget.options.total/thisWidget.options.pageSize));
+				var pages = thisWidget._getPages();
 				
 				thisWidget._updateCallback(pages);
 			})
@@ -286,14 +292,19 @@
 			var page = this.options.page;
 			var total = this.options.total;
 			var pageSize = this.options.pageSize;
+			var totalUnknown = (total < 0);
+			var hasNextPage = this.options.hasNextPage;
+			
+			var pages = this._getPages();
 			
-			var pages =  ( pageSize < 1 ? 0 : Math.ceil(total/pageSize));
+			if(hasNextPage == null)
+				hasNextPage = (page < pages);
 			
 			var label = $(".label", this.element);
-			$(".label-rt", label).text(total);
+			$(".label-rt", label).text(totalUnknown ? "?" : (this.options.totalEstimated ? "≈" + total : total));
 			$(".label-ps", label).text(pageSize);
 			$(".label-cp", label).text(page);
-			$(".label-tp", label).text(pages);
+			$(".label-tp", label).text(totalUnknown ? "?" : (this.options.totalEstimated ? "≈" + pages : pages));
 			
 			var firstbtn = $(".page-first", this.element);
 			var predbtn = $(".page-prev", this.element);
@@ -311,16 +322,29 @@
 				predbtn.button( "disable" );
 			}
 			
-			if(page < pages)
-			{
+			if(hasNextPage || page < pages)
 				nextbtn.button( "enable" );
-				endbtn.button( "enable" );
-			}
 			else
-			{
 				nextbtn.button( "disable" );
+			
+			if(!totalUnknown && page < pages)
+				endbtn.button( "enable" );
+			else
 				endbtn.button( "disable" );
-			}
+		},
+		
+		/**
+		 * 获取总页数，总记录数未知时返回-1。
+		 */
+		_getPages : function()
+		{
+			var total = this.options.total;
+			var pageSize = this.options.pageSize;
+			
+			if(total < 0)
+				return -1;
+			
+			return ( pageSize < 1 ? 0 : Math.ceil(total/pageSize));
 		},
 		
 		/**
@@ -329,15 +353,15 @@
 		_formatPage : function(page)
 		{
 			var total = this.options.total;
-			var pageSize = this.options.pageSize;
 			
 			page = (typeof(page) == "string" ? parseInt(page) : page);
-			var pages =  ( pageSize < 1 ? 0 : Math.ceil(total/pageSize));
+			var pages = this._getPages();
 			
 			if(page < 1 || isNaN(page))
 				page = 1;
 			
-			if(page > pages)
+			//总记录数未知或者是估算值时，不限制最大页码
+			if(total >= 0 && !this.options.totalEstimated && page > pages)
 				page = pages;
 			
 			return page;
@@ -70,6 +70,7 @@ boolean readonly 是否只读操作，默认为false
 				<#if !selectOperation>
 				<input name="exportButton" type="button" value="<@spring.message code='export' />" />
 				<input name="deleteButton" type="button" value="<@spring.message code='delete' />" />
+				<input name="deleteAllButton" type="button" value="<@spring.message code='data.deleteAllMatched' />" />
 				</#if>
 			</#if>
 		</div>
@@ -112,7 +113,10 @@ boolean readonly 是否只读操作，默认为false
 	}
 	
 	if(!po.canDeleteTableData(${schema.dataPermission}))
+	{
 		po.element("input[name=deleteButton]").attr("disabled", "disabled").hide();
+		po.element("input[name=deleteAllButton]").attr("disabled", "disabled").hide();
+	}
 	
 	if(!po.canReadTableData(${schema.dataPermission}))
 	{
@@ -120,6 +124,30 @@ boolean readonly 是否只读操作，默认为false
 		po.element("input[name=exportButton]").attr("disabled", "disabled").hide();
 	}
 	
+	po.hasSearchCondition = function(query)
+	{
+		query = (query || {});
+		return ($.trim(query.keyword) != "" || $.trim(query.condition) != "");
+	};
+	
+	//没有查询条件时禁用删除全部匹配按钮，避免误删整表记录，服务端也会拒绝
+	po.updateDeleteAllButtonState = function()
+	{
+		if(!po.canDeleteTableData(${schema.dataPermission}))
+			return;
+		
+		po.element("input[name=deleteAllButton]").button(po.hasSearchCondition(po.searchParam) ? "enable" : "disable");
+	};
+	
+	po.searchSuper = po.search;
+	po.search = function(searchParam)
+	{
+		po.searchSuper(searchParam);
+		po.updateDeleteAllButtonState();
+	};
+	
+	po.updateDeleteAllButtonState();
+	
 	po.onTable(function(table)
 	{
 		po.element("input[name=addButton]").click(function()
@@ -182,6 +210,43 @@ boolean readonly 是否只读操作，默认为false
 			});
 		});
 		
+		po.element("input[name=deleteAllButton]").click(function()
+		{
+			var query = $.extend({}, po.searchParam);
+			
+			if(!po.hasSearchCondition(query))
+			{
+				$.tipInfo("<@spring.message code='data.deleteAllMatchedConditionRequired' />");
+				return;
+			}
+			
+			$.postJson(po.url("deleteByQueryCount"), query, function(response)
+			{
+				if(response.maxCount > 0 && response.count > response.maxCount)
+				{
+					<#assign messageArgs=['"+response.count+"', '"+response.maxCount+"'] />
+					$.tipInfo("<@spring.messageArgs code='data.deleteAllMatchedExceeded' args=messageArgs />");
+					return;
+				}
+				
+				<#assign messageArgs=['"+response.count+"'] />
+				po.confirm("<@spring.messageArgs code='data.confirmDeleteAllMatched' args=messageArgs />",
+				{
+					"confirm" : function()
+					{
+						$.ajaxJson(po.url("deleteByQuery"),
+						{
+							data : query,
+							"success" : function()
+							{
+								po.refresh();
+							}
+						});
+					}
+				});
+			});
+		});
+		
 		po.element("input[name=confirmButton]").click(function()
 		{
 			if(po.isMultipleSelect)
@@ -228,6 +293,7 @@ boolean readonly 是否只读操作，默认为false
 		});
 		
 		po.conditionAutocompleteSource = $.buildSearchConditionAutocompleteSource(table, po.sqlIdentifierQuote);
+		po.initKeywordOptions(table);
 		po.initConditionPanel();
 		po.initPagination();
 		po.initDataTableAjax(po.url("queryData"), table);
@@ -31,6 +31,18 @@ po.conditionAutocompleteSource = undefined;
 				<div class="ui-corner-all ui-widget-header ui-helper-clearfix ui-draggable-handle condition-panel-title-bar">
 					<span class="ui-icon ui-icon-arrowthickstop-1-n condition-panel-resetpos-icon" title="<@spring.message code='restoration' />"></span>
 				</div>
+				<div class="keyword-option-parent">
+					<select name="keywordColumn" class="ui-widget ui-widget-content keyword-column-select" tabindex="4" title="<@spring.message code='data.keywordColumnTitle' />">
+						<option value=""><@spring.message code='data.keywordColumn.auto' /></option>
+					</select>
+					<select name="keywordMatchMode" class="ui-widget ui-widget-content keyword-match-mode-select" tabindex="4" title="<@spring.message code='data.keywordMatchModeTitle' />">
+						<option value=""><@spring.message code='data.keywordMatchMode.default' /></option>
+						<option value="CONTAINS"><@spring.message code='data.keywordMatchMode.CONTAINS' /></option>
+						<option value="PREFIX"><@spring.message code='data.keywordMatchMode.PREFIX' /></option>
+						<option value="EXACT"><@spring.message code='data.keywordMatchMode.EXACT' /></option>
+						<option value="INDEXED"><@spring.message code='data.keywordMatchMode.INDEXED' /></option>
+					</select>
+				</div>
 				<div class="condition-parent">
 					<textarea name="condition" tabindex="5" class="ui-widget ui-widget-content" title="<@spring.message code='data.conditionTitle' />"></textarea>
 				</div>
@@ -52,6 +64,8 @@ po.conditionAutocompleteSource = undefined;
 	po.keywordInput = function(){ return this.element("input[name='keyword']", this.searchForm()); };
 	po.conditionPanel = function(){ return this.element(".condition-panel", this.searchForm()); };
 	po.conditionTextarea = function(){ return this.element("textarea[name='condition']", this.searchForm()); };
+	po.keywordColumnSelect = function(){ return this.element("select[name='keywordColumn']", this.searchForm()); };
+	po.keywordMatchModeSelect = function(){ return this.element("select[name='keywordMatchMode']", this.searchForm()); };
 	po.conditionIconParent = function(){ return this.element(".search-condition-icon-parent", this.searchForm()); };
 	po.conditionIcon = function(){ return this.element(".search-condition-icon", this.searchForm()); };
 	po.conditionIconTip = function(){ return this.element(".search-condition-icon-tip", this.searchForm()); };
@@ -84,12 +98,37 @@ po.conditionAutocompleteSource = undefined;
 			"condition" : nameLableCondition
 		};
 		
+		//为空时不传，使用服务端默认值
+		var keywordColumn = po.keywordColumnSelect().val();
+		if(keywordColumn)
+			param.keywordColumn = keywordColumn;
+		
+		var keywordMatchMode = po.keywordMatchModeSelect().val();
+		if(keywordMatchMode)
+			param.keywordMatchMode = keywordMatchMode;
+		
 		return param;
 	};
 	
+	//初始化关键字查询列选项，仅包含支持关键字查询的列
+	po.initKeywordOptions = function(table)
+	{
+		var $select = po.keywordColumnSelect();
+		
+		for(var i=0; i<table.columns.length; i++)
+		{
+			var column = table.columns[i];
+			
+			if($.meta.isKeywordSearchColumn(column))
+				$("<option />").attr("value", column.name).text(column.name).appendTo($select);
+		}
+	};
+	
 	po.clearSearchCondition = function()
 	{
 		po.conditionTextarea().val("");
+		po.keywordColumnSelect().val("");
+		po.keywordMatchModeSelect().val("");
 	};
 
 	//提取用于autocomplete的关键词
@@ -54,8 +54,15 @@ page_js_obj.ftl
 	 */
 	po.dataTableAjaxSuccess = function(pagingData, textStatus, jqXHR)
 	{
+		//键集分页的边界行仅用于此次翻页，之后的刷新、排序应使用常规分页
+		if(po.pagingParam)
+		{
+			delete po.pagingParam.keyset;
+			delete po.pagingParam.keysetBackward;
+		}
+		
 		if(po.refreshPagination)
-			po.refreshPagination(pagingData.total, pagingData.page, pagingData.pageSize);
+			po.refreshPagination(pagingData.total, pagingData.page, pagingData.pageSize, pagingData);
 		
 		po.pageParamCall("dataTableAjaxSuccess", pagingData, textStatus, jqXHR);
 	};
@@ -69,7 +76,11 @@ page_js_obj.ftl
 		
 		//重置页码
 		if(po.pagingParam)
+		{
 			po.pagingParam.page = 1;
+			delete po.pagingParam.keyset;
+			delete po.pagingParam.keysetBackward;
+		}
 		
 		po.refresh();
 	};
@@ -143,6 +154,14 @@ page_js_obj.ftl
 					data : param,
 					success : function(data, textStatus, jqXHR)
 					{
+						//流式写入中途出错，结果不完整
+						if(data.error != undefined && data.page == undefined)
+						{
+							$.tipError(data.error);
+							callback({ "data" : (data.items || []) });
+							return;
+						}
+						
 						var isPagingData = (data.page != undefined && data.pageSize != undefined);
 						
 						if(isPagingData)
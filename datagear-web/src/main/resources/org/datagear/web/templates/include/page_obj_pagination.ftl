@@ -49,16 +49,76 @@ po.paging = undefined;
 					"pageSize" : pageSize
 				};
 				
+				po.setPagingKeyset(pagingParam, this.options.page, this.options.pageSize);
+				
 				po.paging(pagingParam);
 				return false;
 			}
 		});
 	};
 	
-	po.refreshPagination = function(total, page, pageSize)
+	/**
+	 * 顺序翻页时，为分页参数设置键集分页的边界行，使后台直接定位到目标页，而不必跳过前面的所有行。
+	 * 
+	 * @param pagingParam 分页参数
+	 * @param currentPage 当前页码
+	 * @param currentPageSize 当前每页记录数
+	 */
+	po.setPagingKeyset = function(pagingParam, currentPage, currentPageSize)
 	{
+		var pagingData = po.paginationPagingData;
+		
+		if(!pagingData || !pagingData.keysetNames || !pagingData.items || pagingData.items.length == 0)
+			return;
+		
+		if(pagingParam.pageSize != currentPageSize || pagingData.page != currentPage || pagingParam.page <= 1)
+			return;
+		
+		var row = null;
+		var backward = false;
+		
+		if(pagingParam.page == currentPage + 1)
+			row = pagingData.items[pagingData.items.length - 1];
+		else if(pagingParam.page == currentPage - 1)
+		{
+			row = pagingData.items[0];
+			backward = true;
+		}
+		
+		if(!row)
+			return;
+		
+		var keyset = {};
+		
+		for(var i=0; i<pagingData.keysetNames.length; i++)
+		{
+			var name = pagingData.keysetNames[i];
+			var value = row[name];
+			
+			//键集列值应是后台输出的字符串或者数值，否则无法精确回传，此时不使用键集分页
+			if(value == null || (typeof(value) != "string" && typeof(value) != "number"))
+				return;
+			
+			keyset[name] = value;
+		}
+		
+		pagingParam.keyset = keyset;
+		pagingParam.keysetBackward = backward;
+	};
+	
+	/**
+	 * 刷新分页。
+	 * 
+	 * @param pagingData 可选，分页数据，用于设置总记录数是否是估算值、是否有下一页，以及顺序翻页时的键集分页
+	 */
+	po.refreshPagination = function(total, page, pageSize, pagingData)
+	{
+		po.paginationPagingData = pagingData;
+		
 		po.pagination()
 		.pagination("option", "total", total)
+		.pagination("option", "totalEstimated", (pagingData ? pagingData.totalEstimated == true : false))
+		.pagination("option", "hasNextPage", (pagingData && pagingData.hasNextPage != null ? pagingData.hasNextPage : null))
 		.pagination("option", "pageSize", pageSize)
 		.pagination("option", "page", page)
 		.pagination("refresh");
@@ -190,6 +190,12 @@ ${detectNewVersionScript?no_esc}
 			}
 		}
 		
+		if(schema.connectionCircuit && schema.connectionCircuit.state != "CLOSED")
+		{
+			schema.text += " <span class='ui-icon ui-icon-alert' title='<@spring.message code='main.schemaConnectionCircuitOpen' />"
+				+ $.escapeHtml(schema.connectionCircuit.lastErrorMessage || "") + "'></span>";
+		}
+		
 		schema.children = true;
 		
 		return schema;
@@ -92,7 +92,7 @@ readonly 是否只读操作，允许为null
 				</div>
 			</div>
 			</#if>
-			<div class="form-item" id="schemaDriverEntityFormItem">
+			<div class="form-item schema-advanced-item" id="schemaDriverEntityFormItem">
 				<div class="form-item-label">
 					<label title="<@spring.message code='schema.driverEntity.desc' />">
 						<@spring.message code='schema.driverEntity' />
@@ -111,6 +111,67 @@ readonly 是否只读操作，允许为null
 					</#if>
 				</div>
 			</div>
+			<div class="form-item schema-advanced-item">
+				<div class="form-item-label">
+					<label><@spring.message code='schema.poolOption.maxTotal' /></label>
+				</div>
+				<div class="form-item-value">
+					<input type="text" name="poolOption.maxTotal" value="${(schema.poolOption.maxTotal)!''}" class="ui-widget ui-widget-content" />
+				</div>
+			</div>
+			<div class="form-item schema-advanced-item">
+				<div class="form-item-label">
+					<label><@spring.message code='schema.poolOption.minIdle' /></label>
+				</div>
+				<div class="form-item-value">
+					<input type="text" name="poolOption.minIdle" value="${(schema.poolOption.minIdle)!''}" class="ui-widget ui-widget-content" />
+				</div>
+			</div>
+			<div class="form-item schema-advanced-item">
+				<div class="form-item-label">
+					<label><@spring.message code='schema.poolOption.maxWaitMillis' /></label>
+				</div>
+				<div class="form-item-value">
+					<input type="text" name="poolOption.maxWaitMillis" value="${(schema.poolOption.maxWaitMillis)!''}" class="ui-widget ui-widget-content" />
+				</div>
+			</div>
+			<div class="form-item schema-advanced-item">
+				<div class="form-item-label">
+					<label><@spring.message code='schema.poolOption.validationQuery' /></label>
+				</div>
+				<div class="form-item-value">
+					<input type="text" name="poolOption.validationQuery" value="${(schema.poolOption.validationQuery)!''}" class="ui-widget ui-widget-content" />
+				</div>
+			</div>
+			<div class="form-item schema-advanced-item">
+				<div class="form-item-label">
+					<label title="<@spring.message code='schema.poolOption.poolPreparedStatements.desc' />">
+						<@spring.message code='schema.poolOption.poolPreparedStatements' />
+					</label>
+				</div>
+				<div class="form-item-value">
+					<#assign poolPreparedStatements=((schema.poolOption.poolPreparedStatements)?string('true', 'false'))!''>
+					<select name="poolOption.poolPreparedStatements">
+						<option value="" <#if poolPreparedStatements == ''>selected="selected"</#if>><@spring.message code='schema.poolOption.default' /></option>
+						<option value="true" <#if poolPreparedStatements == 'true'>selected="selected"</#if>><@spring.message code='yes' /></option>
+						<option value="false" <#if poolPreparedStatements == 'false'>selected="selected"</#if>><@spring.message code='no' /></option>
+					</select>
+				</div>
+			</div>
+			<div class="form-item schema-advanced-item">
+				<div class="form-item-label">
+					<label title="<@spring.message code='schema.replicas.desc' />">
+						<@spring.message code='schema.replicas' />
+					</label>
+				</div>
+				<div class="form-item-value">
+					<#assign replicasText=''>
+					<#list (schema.replicas)![] as replica>
+					<#assign replicasText=replicasText + replica.url + ' ' + replica.weight?c + '\n'>
+					</#list>
+					<textarea name="replicasText" class="ui-widget ui-widget-content" placeholder="<@spring.message code='schema.replicas.placeholder' />">${replicasText}</textarea>
+				</div>
+			</div>
 			<#if !readonly>
 			<div class="form-item">
 				<div class="form-item-label">
@@ -138,7 +199,9 @@ readonly 是否只读操作，允许为null
 {
 	po.driverEntityFormItemValue = function(){ return this.element("#driverEntityFormItemValue"); };
 	po.schemaDriverEntityFormItem = function(){ return this.element("#schemaDriverEntityFormItem"); };
+	po.schemaAdvancedItems = function(){ return this.element(".schema-advanced-item"); };
 	po.isDriverEntityEmpty = (po.element("input[name='driverEntity.id']").val() == "");
+	po.isPoolOptionEmpty = ${((schema.hasPoolOption())!false)?string('false', 'true')};
 	
 	po.element("#schemaBuildUrlHelp").click(function()
 	{
@@ -205,12 +268,18 @@ readonly 是否只读操作，允许为null
 		rules :
 		{
 			title : "required",
-			url : "required"
+			url : "required",
+			"poolOption.maxTotal" : {"integer": true},
+			"poolOption.minIdle" : {"integer": true},
+			"poolOption.maxWaitMillis" : {"integer": true}
 		},
 		messages :
 		{
 			title : "<@spring.message code='validation.required' />",
-			url : "<@spring.message code='validation.required' />"
+			url : "<@spring.message code='validation.required' />",
+			"poolOption.maxTotal" : {"integer": "<@spring.message code='validation.integer' />"},
+			"poolOption.minIdle" : {"integer": "<@spring.message code='validation.integer' />"},
+			"poolOption.maxWaitMillis" : {"integer": "<@spring.message code='validation.integer' />"}
 		},
 		submitHandler : function(form)
 		{
@@ -258,8 +327,8 @@ readonly 是否只读操作，允许为null
 	
 	$.initButtons(po.element());
 	
-	if(po.isDriverEntityEmpty)
-		po.schemaDriverEntityFormItem().hide();
+	if(po.isDriverEntityEmpty && po.isPoolOptionEmpty)
+		po.schemaAdvancedItems().hide();
 	
 	$("#schemaAdvancedSet", po.page).button(
 	{
@@ -268,7 +337,7 @@ readonly 是否只读操作，允许为null
 	})
 	.click(function()
 	{
-		var item = po.schemaDriverEntityFormItem();
+		var item = po.schemaAdvancedItems();
 		
 		if(item.is(":hidden"))
 		{
@@ -129,11 +129,36 @@ boolean readonly 是否只读操作，默认为false
 		});
 	});
 	
+	po.buildConnectionCircuitColumnOption = function()
+	{
+		var option =
+		{
+			title : "<@spring.message code='schema.connectionCircuit' />",
+			data : "connectionCircuit",
+			render: function(data, type, row, meta)
+			{
+				if(!data || data.state == "CLOSED")
+					return "";
+				
+				var label = (data.state == "OPEN" ? "<@spring.message code='schema.connectionCircuit.open' />"
+						: "<@spring.message code='schema.connectionCircuit.halfOpen' />");
+				
+				return "<span class='ui-state-error-text' title='"+$.escapeHtml(data.lastErrorMessage || "")+"'>"
+						+ $.escapeHtml(label) + "</span>";
+			},
+			defaultContent: "",
+			orderable : false
+		};
+		
+		return option;
+	};
+	
 	var tableColumns = [
 		$.buildDataTablesColumnSimpleOption("<@spring.message code='id' />", "id", true),
 		$.buildDataTablesColumnSimpleOption("<@spring.message code='schema.title' />", "title"),
 		$.buildDataTablesColumnSimpleOption("<@spring.message code='schema.url' />", "url"),
 		$.buildDataTablesColumnSimpleOption("<@spring.message code='schema.user' />", "user"),
+		po.buildConnectionCircuitColumnOption(),
 		$.buildDataTablesColumnSimpleOption("<@spring.message code='schema.createUser' />", "createUser.nameLabel"),
 		$.buildDataTablesColumnSimpleOption("<@spring.message code='schema.createTime' />", "createTime")
 	];
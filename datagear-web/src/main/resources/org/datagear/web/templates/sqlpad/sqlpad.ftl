@@ -708,6 +708,13 @@ Schema schema 数据库，不允许为null
 	   				},
 	   				success : function(sqlSelectResult, statusText, xhr, $form)
 	   				{
+	   					//流式写入中途出错，结果不完整
+	   					if(sqlSelectResult.error != undefined && sqlSelectResult.startRow == undefined)
+	   					{
+	   						$.tipError(sqlSelectResult.error);
+	   						return;
+	   					}
+	   					
 	   					$("input[name='startRow']", $form).val(sqlSelectResult.nextStartRow);
 	   					
 	   					var tabId = $form.attr("tab-id");
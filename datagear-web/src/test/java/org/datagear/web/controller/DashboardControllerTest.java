@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.datagear.analysis.Chart;
+import org.datagear.analysis.ChartQuery;
+import org.datagear.analysis.DashboardQuery;
+import org.datagear.analysis.support.html.HtmlTplDashboard;
+import org.datagear.web.config.ApplicationProperties;
+import org.datagear.web.controller.AbstractDataAnalysisController.DashboardQueryForm;
+import org.datagear.web.dashboard.DashboardDataPushService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain DashboardController}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DashboardControllerTest
+{
+	private static final String SESSION_ID = "session";
+
+	private static final String DASHBOARD_ID = "dashboard";
+
+	private TestApplicationProperties applicationProperties = new TestApplicationProperties();
+
+	private DashboardDataPushService dashboardDataPushService = new DashboardDataPushService();
+
+	private DashboardController dashboardController = new DashboardController();
+
+	private HttpServletRequest request = createRequest();
+
+	@Before
+	public void init()
+	{
+		this.dashboardDataPushService.setMaxSubscribersPerOwner(2);
+
+		this.dashboardController.setApplicationProperties(this.applicationProperties);
+		this.dashboardController.setDashboardDataPushService(this.dashboardDataPushService);
+
+		List<Chart> charts = new ArrayList<>();
+		Chart chart = new Chart();
+		chart.setId("0");
+		chart.setUpdateInterval(60000);
+		charts.add(chart);
+
+		HtmlTplDashboard dashboard = new HtmlTplDashboard();
+		dashboard.setId(DASHBOARD_ID);
+		dashboard.setCharts(charts);
+
+		this.dashboardController.getSessionHtmlTplDashboardManagerNotNull(this.request).put(dashboard);
+	}
+
+	@After
+	public void destroy()
+	{
+		this.dashboardDataPushService.shutdown();
+	}
+
+	@Test
+	public void showDataPushTest() throws Exception
+	{
+		String pushId = registerDataPush(DASHBOARD_ID);
+
+		assertNotNull(this.dashboardController.showDataPush(this.request, null, DASHBOARD_ID, pushId));
+		assertEquals(1, this.dashboardDataPushService.getSubscriberCount(SESSION_ID));
+		assertEquals(1, this.dashboardDataPushService.getPushTaskCount());
+
+		// 注册ID仅可使用一次
+		assertThrows(RecordNotFoundException.class,
+				() -> this.dashboardController.showDataPush(this.request, null, DASHBOARD_ID, pushId));
+	}
+
+	@Test
+	public void showDataPushTest_notFound() throws Exception
+	{
+		assertThrows(RecordNotFoundException.class,
+				() -> this.dashboardController.showDataPush(this.request, null, DASHBOARD_ID, "not-exists"));
+
+		// 看板不匹配
+		String pushId = registerDataPush(DASHBOARD_ID);
+		assertThrows(RecordNotFoundException.class,
+				() -> this.dashboardController.showDataPush(this.request, null, "other", pushId));
+
+		// 未注册的看板
+		assertThrows(RecordNotFoundException.class, () -> registerDataPush("other"));
+	}
+
+	@Test
+	public void showDataPushTest_bounded() throws Exception
+	{
+		// 会话中已注册、尚未订阅的查询数有上限
+		String pushId0 = registerDataPush(DASHBOARD_ID);
+		String pushId1 = registerDataPush(DASHBOARD_ID);
+		String pushId2 = registerDataPush(DASHBOARD_ID);
+
+		assertThrows(RecordNotFoundException.class,
+				() -> this.dashboardController.showDataPush(this.request, null, DASHBOARD_ID, pushId0));
+
+		this.dashboardController.showDataPush(this.request, null, DASHBOARD_ID, pushId1);
+		this.dashboardController.showDataPush(this.request, null, DASHBOARD_ID, pushId2);
+		assertEquals(2, this.dashboardDataPushService.getSubscriberCount(SESSION_ID));
+
+		// 会话的推送连接数有上限
+		this.dashboardController.showDataPush(this.request, null, DASHBOARD_ID, registerDataPush(DASHBOARD_ID));
+		assertEquals(2, this.dashboardDataPushService.getSubscriberCount(SESSION_ID));
+		assertEquals(1, this.dashboardDataPushService.getPushTaskCount());
+	}
+
+	@Test
+	public void showDataPushTest_disabled() throws Exception
+	{
+		String pushId = registerDataPush(DASHBOARD_ID);
+
+		this.applicationProperties.setDisabled(true);
+
+		assertThrows(IllegalInputException.class, () -> registerDataPush(DASHBOARD_ID));
+		assertThrows(IllegalInputException.class,
+				() -> this.dashboardController.showDataPush(this.request, null, DASHBOARD_ID, pushId));
+	}
+
+	protected String registerDataPush(String dashboardId) throws Exception
+	{
+		Map<String, ChartQuery> chartQueries = new HashMap<>();
+		chartQueries.put("0", new ChartQuery());
+
+		DashboardQueryForm form = new DashboardQueryForm();
+		form.setDashboardId(dashboardId);
+		form.setDashboardQuery(new DashboardQuery(chartQueries));
+
+		Map<String, Object> re = this.dashboardController.registerDataPush(this.request, null, form);
+
+		return (String) re.get("pushId");
+	}
+
+	protected HttpServletRequest createRequest()
+	{
+		final Map<String, Object> attributes = new HashMap<>();
+
+		final HttpSession session = (HttpSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpSession.class }, new InvocationHandler()
+				{
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+					{
+						String name = method.getName();
+
+						if ("getId".equals(name))
+							return SESSION_ID;
+						else if ("getAttribute".equals(name))
+							return attributes.get(args[0]);
+						else if ("setAttribute".equals(name))
+							attributes.put((String) args[0], args[1]);
+
+						return null;
+					}
+				});
+
+		return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, new InvocationHandler()
+				{
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+					{
+						if ("getSession".equals(method.getName()))
+							return session;
+
+						return null;
+					}
+				});
+	}
+
+	protected static class TestApplicationProperties extends ApplicationProperties
+	{
+		private static final long serialVersionUID = 1L;
+
+		public void setDisabled(boolean disabled)
+		{
+			setDashboardDataPushDisabled(disabled);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.controller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.datagear.persistence.Query;
+import org.datagear.persistence.Row;
+import org.datagear.web.json.jackson.JsonRowHandler;
+import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@linkplain DataController}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DataControllerTest
+{
+	private DataController dataController = new DataController();
+
+	@Test
+	public void resolveByteRangeTest()
+	{
+		// 无范围、非法范围、多范围：返回全部
+		assertNull(dataController.resolveByteRange(null, 100));
+		assertNull(dataController.resolveByteRange("", 100));
+		assertNull(dataController.resolveByteRange("items=0-10", 100));
+		assertNull(dataController.resolveByteRange("bytes=abc-10", 100));
+		assertNull(dataController.resolveByteRange("bytes=-", 100));
+		assertNull(dataController.resolveByteRange("bytes=10", 100));
+		assertNull(dataController.resolveByteRange("bytes=20-10", 100));
+		assertNull(dataController.resolveByteRange("bytes=0-10,20-30", 100));
+
+		// 普通范围
+		assertArrayEquals(new long[] { 0, 9 }, dataController.resolveByteRange("bytes=0-9", 100));
+		assertArrayEquals(new long[] { 10, 10 }, dataController.resolveByteRange(" bytes=10-10 ", 100));
+		assertArrayEquals(new long[] { 90, 99 }, dataController.resolveByteRange("bytes=90-1000", 100));
+
+		// 开放范围
+		assertArrayEquals(new long[] { 50, 99 }, dataController.resolveByteRange("bytes=50-", 100));
+
+		// 后缀范围
+		assertArrayEquals(new long[] { 90, 99 }, dataController.resolveByteRange("bytes=-10", 100));
+		assertArrayEquals(new long[] { 0, 99 }, dataController.resolveByteRange("bytes=-500", 100));
+
+		// 不可满足
+		assertArrayEquals(new long[0], dataController.resolveByteRange("bytes=100-", 100));
+		assertArrayEquals(new long[0], dataController.resolveByteRange("bytes=100-200", 100));
+		assertArrayEquals(new long[0], dataController.resolveByteRange("bytes=-0", 100));
+
+		// 空BLOB
+		assertArrayEquals(new long[0], dataController.resolveByteRange("bytes=0-", 0));
+		assertArrayEquals(new long[0], dataController.resolveByteRange("bytes=-10", 0));
+	}
+
+	@Test
+	public void checkDeleteByQueryConditionTest()
+	{
+		// 没有关键字和条件时将删除整表记录，应拒绝
+		assertThrows(DeleteConditionRequiredException.class,
+				() -> dataController.checkDeleteByQueryCondition(new Query()));
+		assertThrows(DeleteConditionRequiredException.class,
+				() -> dataController.checkDeleteByQueryCondition(new Query(" ", "")));
+
+		dataController.checkDeleteByQueryCondition(new Query("abc", null));
+		dataController.checkDeleteByQueryCondition(new Query(null, "ID > 3"));
+	}
+
+	@Test
+	public void handleStreamingRowsErrorTest_notCommitted() throws Exception
+	{
+		ObjectMapper objectMapper = new ObjectMapper();
+		StringWriter out = new StringWriter();
+		JsonRowHandler rowHandler = new JsonRowHandler(objectMapper, out, "items");
+		rowHandler.handle(null, 1, new Row());
+
+		AtomicInteger resets = new AtomicInteger(0);
+		SQLException error = new SQLException("test");
+
+		// 响应未提交时，清空缓冲区并重新抛出异常，由统一的异常处理返回错误响应
+		try
+		{
+			dataController.handleStreamingRowsError(null, response(false, resets), rowHandler, error);
+			throw new AssertionError();
+		}
+		catch (Throwable t)
+		{
+			assertSame(error, t);
+		}
+
+		assertEquals(1, resets.get());
+	}
+
+	@Test
+	public void handleStreamingRowsErrorTest_committed() throws Throwable
+	{
+		StaticMessageSource messageSource = new StaticMessageSource();
+		messageSource.addMessage("error.streamingRowsInterrupted", Locale.getDefault(), "interrupted");
+		dataController.setMessageSource(messageSource);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		StringWriter out = new StringWriter();
+		JsonRowHandler rowHandler = new JsonRowHandler(objectMapper, out, "items");
+		rowHandler.handle(null, 1, new Row());
+
+		AtomicInteger resets = new AtomicInteger(0);
+
+		// 响应已提交时，结束JSON并写入错误信息
+		dataController.handleStreamingRowsError(null, response(true, resets), rowHandler, new SQLException("test"));
+
+		assertEquals(0, resets.get());
+
+		JsonNode node = objectMapper.readTree(out.toString());
+
+		assertEquals(1, node.get("items").size());
+		assertTrue(node.has(JsonRowHandler.ERROR_PROPERTY_NAME));
+		assertEquals("interrupted", node.get(JsonRowHandler.ERROR_PROPERTY_NAME).asText());
+	}
+
+	protected HttpServletResponse response(boolean committed, AtomicInteger resets)
+	{
+		return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) ->
+				{
+					if ("isCommitted".equals(method.getName()))
+						return committed;
+
+					if ("resetBuffer".equals(method.getName()))
+					{
+						resets.incrementAndGet();
+						return null;
+					}
+
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.dashboard;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.datagear.analysis.Chart;
+import org.datagear.analysis.ChartDataSet;
+import org.datagear.analysis.ChartQuery;
+import org.datagear.analysis.Dashboard;
+import org.datagear.analysis.DashboardQuery;
+import org.datagear.analysis.support.ChartWidget;
+import org.datagear.analysis.support.CsvValueDataSet;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * {@linkplain DashboardDataPushService}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DashboardDataPushServiceTest
+{
+	private TestDashboardDataPushService service = new TestDashboardDataPushService();
+
+	@After
+	public void destroy()
+	{
+		this.service.shutdown();
+	}
+
+	@Test
+	public void subscribeTest()
+	{
+		Dashboard dashboard = createDashboard(60000, 60000, -1);
+		DashboardQuery query = createQuery("0", "1", "2");
+
+		this.service.subscribe("owner-0", dashboard, query);
+
+		// 未设置更新间隔的图表被忽略
+		assertEquals(2, this.service.getPushTaskCount());
+		assertEquals(1, this.service.getSubscriberCount("owner-0"));
+
+		// 相同的图表查询共享推送任务
+		this.service.subscribe("owner-1", dashboard, query);
+
+		assertEquals(2, this.service.getPushTaskCount());
+		assertEquals(1, this.service.getSubscriberCount("owner-1"));
+	}
+
+	@Test
+	public void subscribeTest_completion()
+	{
+		Dashboard dashboard = createDashboard(60000, 60000);
+		DashboardQuery query = createQuery("0", "1");
+
+		this.service.subscribe("owner-0", dashboard, query);
+		this.service.subscribe("owner-1", dashboard, query);
+		this.service.subscribe("owner-1", dashboard, query);
+
+		assertEquals(2, this.service.getPushTaskCount());
+		assertEquals(1, this.service.getSubscriberCount("owner-0"));
+		assertEquals(2, this.service.getSubscriberCount("owner-1"));
+
+		// 完成
+		this.service.emitters.get(0).fireCompletion();
+		assertEquals(0, this.service.getSubscriberCount("owner-0"));
+		assertEquals(2, this.service.getPushTaskCount());
+
+		// 超时
+		this.service.emitters.get(1).fireTimeout();
+		assertEquals(1, this.service.getSubscriberCount("owner-1"));
+		assertEquals(2, this.service.getPushTaskCount());
+
+		// 出错，没有订阅者的推送任务被取消
+		this.service.emitters.get(2).fireError();
+		assertEquals(0, this.service.getSubscriberCount("owner-1"));
+		assertEquals(0, this.service.getPushTaskCount());
+	}
+
+	@Test
+	public void subscribeTest_maxSubscribersPerOwner()
+	{
+		this.service.setMaxSubscribersPerOwner(2);
+
+		Dashboard dashboard = createDashboard(60000, 60000, 60000);
+
+		this.service.subscribe("owner-0", dashboard, createQuery("0"));
+		this.service.subscribe("owner-0", dashboard, createQuery("1"));
+
+		assertEquals(2, this.service.getSubscriberCount("owner-0"));
+		assertEquals(2, this.service.getPushTaskCount());
+
+		// 最早的订阅者被关闭，它的推送任务被取消
+		this.service.subscribe("owner-0", dashboard, createQuery("2"));
+
+		assertEquals(2, this.service.getSubscriberCount("owner-0"));
+		assertEquals(2, this.service.getPushTaskCount());
+
+		// 其他订阅方不受影响
+		this.service.subscribe("owner-1", dashboard, createQuery("0"));
+
+		assertEquals(2, this.service.getSubscriberCount("owner-0"));
+		assertEquals(1, this.service.getSubscriberCount("owner-1"));
+		assertEquals(3, this.service.getPushTaskCount());
+	}
+
+	@Test
+	public void subscribeTest_maxPushTasks()
+	{
+		this.service.setMaxPushTasks(2);
+
+		Dashboard dashboard = createDashboard(60000, 60000, 60000);
+
+		this.service.subscribe("owner-0", dashboard, createQuery("0", "1", "2"));
+		assertEquals(2, this.service.getPushTaskCount());
+
+		// 已有的推送任务仍可订阅
+		this.service.subscribe("owner-1", dashboard, createQuery("0", "1"));
+		assertEquals(2, this.service.getPushTaskCount());
+
+		this.service.emitters.get(0).fireCompletion();
+		this.service.emitters.get(1).fireCompletion();
+		assertEquals(0, this.service.getPushTaskCount());
+
+		this.service.subscribe("owner-0", dashboard, createQuery("2"));
+		assertEquals(1, this.service.getPushTaskCount());
+	}
+
+	@Test
+	public void evictTest()
+	{
+		Dashboard dashboard = createDashboard(60000, 60000, 60000);
+		setChartWidget(dashboard.getChart("0"), "widget-0", "dataSet-0");
+		setChartWidget(dashboard.getChart("1"), "widget-1", "dataSet-1");
+		setChartWidget(dashboard.getChart("2"), "widget-2", "dataSet-0", "dataSet-2");
+
+		DashboardQuery query = createQuery("0", "1", "2");
+
+		this.service.subscribe("owner-0", dashboard, query);
+		assertEquals(3, this.service.getPushTaskCount());
+
+		// 图表修改后，新的订阅不应共享使用修改前图表的推送任务
+		assertEquals(1, this.service.evictChartWidgets("widget-1"));
+		assertEquals(2, this.service.getPushTaskCount());
+
+		this.service.subscribe("owner-1", dashboard, query);
+		assertEquals(3, this.service.getPushTaskCount());
+
+		// 数据集修改后，使用它的推送任务都应被移除
+		assertEquals(2, this.service.evictDataSets("dataSet-0"));
+		assertEquals(1, this.service.getPushTaskCount());
+		assertEquals(0, this.service.evictDataSets("dataSet-3"));
+
+		this.service.subscribe("owner-2", dashboard, query);
+		assertEquals(3, this.service.getPushTaskCount());
+
+		// 已移除的推送任务在其订阅者都取消订阅后不影响新的推送任务
+		this.service.emitters.get(0).fireCompletion();
+		this.service.emitters.get(1).fireCompletion();
+		assertEquals(3, this.service.getPushTaskCount());
+
+		this.service.emitters.get(2).fireCompletion();
+		assertEquals(0, this.service.getPushTaskCount());
+	}
+
+	protected void setChartWidget(Chart chart, String chartWidgetId, String... dataSetIds)
+	{
+		Map<String, Object> chartWidgetInfo = new HashMap<>();
+		chartWidgetInfo.put(ChartWidget.PROPERTY_ID, chartWidgetId);
+
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put(ChartWidget.ATTR_CHART_WIDGET, chartWidgetInfo);
+		chart.setAttributes(attributes);
+
+		ChartDataSet[] chartDataSets = new ChartDataSet[dataSetIds.length];
+
+		for (int i = 0; i < dataSetIds.length; i++)
+			chartDataSets[i] = new ChartDataSet(new CsvValueDataSet(dataSetIds[i], dataSetIds[i], "a"));
+
+		chart.setChartDataSets(chartDataSets);
+	}
+
+	protected Dashboard createDashboard(int... updateIntervals)
+	{
+		List<Chart> charts = new ArrayList<>(updateIntervals.length);
+
+		for (int i = 0; i < updateIntervals.length; i++)
+		{
+			Chart chart = new Chart();
+			chart.setId(Integer.toString(i));
+			chart.setUpdateInterval(updateIntervals[i]);
+
+			charts.add(chart);
+		}
+
+		Dashboard dashboard = new Dashboard();
+		dashboard.setId("dashboard");
+		dashboard.setCharts(charts);
+
+		return dashboard;
+	}
+
+	protected DashboardQuery createQuery(String... chartIds)
+	{
+		Map<String, ChartQuery> chartQueries = new HashMap<>();
+
+		for (String chartId : Arrays.asList(chartIds))
+			chartQueries.put(chartId, new ChartQuery());
+
+		return new DashboardQuery(chartQueries);
+	}
+
+	protected static class TestDashboardDataPushService extends DashboardDataPushService
+	{
+		public final List<TestSseEmitter> emitters = new ArrayList<>();
+
+		@Override
+		protected SseEmitter createSseEmitter()
+		{
+			TestSseEmitter emitter = new TestSseEmitter();
+			this.emitters.add(emitter);
+			return emitter;
+		}
+	}
+
+	/**
+	 * 记录回调的{@linkplain SseEmitter}，用于在没有Spring MVC处理环境时模拟连接完成、超时、出错。
+	 */
+	protected static class TestSseEmitter extends SseEmitter
+	{
+		private Runnable completionCallback;
+
+		private Runnable timeoutCallback;
+
+		private Consumer<Throwable> errorCallback;
+
+		@Override
+		public synchronized void onCompletion(Runnable callback)
+		{
+			this.completionCallback = callback;
+			super.onCompletion(callback);
+		}
+
+		@Override
+		public synchronized void onTimeout(Runnable callback)
+		{
+			this.timeoutCallback = callback;
+			super.onTimeout(callback);
+		}
+
+		@Override
+		public synchronized void onError(Consumer<Throwable> callback)
+		{
+			this.errorCallback = callback;
+			super.onError(callback);
+		}
+
+		public void fireCompletion()
+		{
+			this.completionCallback.run();
+		}
+
+		public void fireTimeout()
+		{
+			this.timeoutCallback.run();
+		}
+
+		public void fireError()
+		{
+			this.errorCallback.accept(new RuntimeException());
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.dashboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.analysis.Chart;
+import org.datagear.analysis.ChartDataSet;
+import org.datagear.analysis.ChartQuery;
+import org.datagear.analysis.Dashboard;
+import org.datagear.analysis.DashboardQuery;
+import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.support.JsonValueDataSet;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@linkplain DashboardResultJsonWriter}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DashboardResultJsonWriterTest
+{
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	private DashboardResultJsonWriter dashboardResultJsonWriter = new DashboardResultJsonWriter(this.objectMapper);
+
+	@Test
+	public void writeTest() throws Exception
+	{
+		Chart chart0 = createChart("0", -1, "[{\"name\":\"a\",\"value\":1}]", "[{\"name\":\"b\",\"value\":2}]");
+		Chart chart1 = createChart("1", -1, "[{\"name\":\"c\",\"value\":3}");
+		Dashboard dashboard = createDashboard(chart0, chart1);
+
+		DashboardQuery query = createQuery(null, "0", "1");
+		query.setSuppressChartError(true);
+
+		JsonNode result = write(dashboard, query);
+
+		JsonNode chartResults = result.get("chartResults");
+		assertEquals(1, chartResults.size());
+		assertEquals(this.objectMapper.valueToTree(chart0.getResult(new ChartQuery())), chartResults.get("0"));
+		assertEquals(2, chartResults.get("0").get("dataSetResults").size());
+
+		// 出错的图表不输出部分结果
+		assertFalse(chartResults.has("1"));
+		assertNotNull(result.get("chartResultErrorMessages").get("1"));
+
+		assertEquals(0, result.get("chartResultErrors").size());
+		assertEquals(0, result.get("chartResultHashes").size());
+		assertEquals(0, result.get("unchangedChartIds").size());
+	}
+
+	@Test
+	public void writeTest_notSuppressChartError() throws Exception
+	{
+		Chart chart0 = createChart("0", -1, "[{\"name\":\"a\",\"value\":1}]");
+		Chart chart1 = createChart("1", -1, "[{\"name\":\"c\",\"value\":3}");
+
+		{
+			JsonNode result = write(createDashboard(chart0), createQuery(null, "0"));
+			assertEquals(this.objectMapper.valueToTree(chart0.getResult(new ChartQuery())),
+					result.get("chartResults").get("0"));
+		}
+
+		{
+			Dashboard dashboard = createDashboard(chart0, chart1);
+			DashboardQuery query = createQuery(null, "0", "1");
+
+			assertThrows(Throwable.class, () -> write(dashboard, query));
+		}
+	}
+
+	@Test
+	public void writeTest_resultHash() throws Exception
+	{
+		Chart chart0 = createChart("0", 1000, "[{\"name\":\"a\",\"value\":1}]");
+		Chart chart1 = createChart("1", -1, "[{\"name\":\"b\",\"value\":2}]");
+		Dashboard dashboard = createDashboard(chart0, chart1);
+
+		JsonNode result = write(dashboard, createQuery(null, "0", "1"));
+
+		// 仅定时更新的图表计算摘要
+		JsonNode chartResultHashes = result.get("chartResultHashes");
+		assertEquals(1, chartResultHashes.size());
+		String hash = chartResultHashes.get("0").asText();
+
+		// 摘要是输出的图表结果JSON的摘要
+		byte[] chartResultJson = this.objectMapper.writeValueAsBytes(chart0.getResult(new ChartQuery()));
+		assertEquals(Base64.getEncoder().withoutPadding()
+				.encodeToString(MessageDigest.getInstance("MD5").digest(chartResultJson)), hash);
+
+		assertTrue(result.get("chartResults").has("0"));
+		assertTrue(result.get("chartResults").has("1"));
+
+		// 结果未变
+		{
+			JsonNode result1 = write(dashboard, createQuery(hash, "0", "1"));
+
+			assertFalse(result1.get("chartResults").has("0"));
+			assertTrue(result1.get("chartResults").has("1"));
+			assertEquals(hash, result1.get("chartResultHashes").get("0").asText());
+			assertEquals(1, result1.get("unchangedChartIds").size());
+			assertEquals("0", result1.get("unchangedChartIds").get(0).asText());
+		}
+
+		// 结果已变
+		{
+			JsonNode result1 = write(dashboard, createQuery("other", "0", "1"));
+
+			assertTrue(result1.get("chartResults").has("0"));
+			assertEquals(hash, result1.get("chartResultHashes").get("0").asText());
+			assertEquals(0, result1.get("unchangedChartIds").size());
+		}
+	}
+
+	protected JsonNode write(Dashboard dashboard, DashboardQuery query) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.dashboardResultJsonWriter.write(out, dashboard, query, true);
+
+		return this.objectMapper.readTree(out.toByteArray());
+	}
+
+	protected Chart createChart(String id, int updateInterval, String... dataSetValues)
+	{
+		List<DataSetProperty> properties = new ArrayList<>();
+		properties.add(new DataSetProperty("name", DataSetProperty.DataType.STRING));
+		properties.add(new DataSetProperty("value", DataSetProperty.DataType.NUMBER));
+
+		ChartDataSet[] chartDataSets = new ChartDataSet[dataSetValues.length];
+
+		for (int i = 0; i < dataSetValues.length; i++)
+		{
+			JsonValueDataSet dataSet = new JsonValueDataSet(id + "-" + i, id + "-" + i, properties,
+					dataSetValues[i]);
+			chartDataSets[i] = new ChartDataSet(dataSet);
+		}
+
+		Chart chart = new Chart();
+		chart.setId(id);
+		chart.setChartDataSets(chartDataSets);
+		chart.setUpdateInterval(updateInterval);
+
+		return chart;
+	}
+
+	protected Dashboard createDashboard(Chart... charts)
+	{
+		Dashboard dashboard = new Dashboard();
+		dashboard.setId("dashboard");
+		dashboard.setCharts(Arrays.asList(charts));
+
+		return dashboard;
+	}
+
+	protected DashboardQuery createQuery(String resultHash, String... chartIds)
+	{
+		Map<String, ChartQuery> chartQueries = new LinkedHashMap<>();
+
+		for (String chartId : chartIds)
+		{
+			ChartQuery chartQuery = new ChartQuery();
+			chartQuery.setResultHash(resultHash);
+
+			chartQueries.put(chartId, chartQuery);
+		}
+
+		return new DashboardQuery(chartQueries);
+	}
+}
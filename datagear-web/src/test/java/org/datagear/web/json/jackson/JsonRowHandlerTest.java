@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.json.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.datagear.persistence.PagingData;
+import org.datagear.persistence.Row;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@linkplain JsonRowHandler}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class JsonRowHandlerTest
+{
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	public void finishTest() throws Exception
+	{
+		StringWriter out = new StringWriter();
+		JsonRowHandler rowHandler = new JsonRowHandler(this.objectMapper, out, "items");
+
+		// 延迟至处理第一行时才开始输出
+		assertFalse(rowHandler.isStarted());
+		assertEquals("", out.toString());
+
+		rowHandler.handle(null, 1, row(1, "a"));
+		rowHandler.handle(null, 2, row(2, "b"));
+
+		assertTrue(rowHandler.isStarted());
+		assertEquals(2, rowHandler.getCount());
+
+		PagingData<Row> pagingData = new PagingData<>(2, 12, 10);
+		rowHandler.finish(pagingData);
+
+		JsonNode node = this.objectMapper.readTree(out.toString());
+
+		// 行数组在首位，且仅出现一次
+		assertEquals("items", node.fieldNames().next());
+		assertEquals(1, countOccurrences(out.toString(), "\"items\""));
+
+		JsonNode items = node.get("items");
+		assertEquals(2, items.size());
+		assertEquals(1, items.get(0).get("ID").asInt());
+		assertEquals("a", items.get(0).get("NAME").asText());
+		assertEquals("b", items.get(1).get("NAME").asText());
+
+		// 结果对象的其他属性
+		assertEquals(2, node.get("page").asInt());
+		assertEquals(12, node.get("total").asLong());
+		assertEquals(10, node.get("pageSize").asInt());
+		assertFalse(node.has(JsonRowHandler.ERROR_PROPERTY_NAME));
+	}
+
+	@Test
+	public void finishTest_noRows() throws Exception
+	{
+		StringWriter out = new StringWriter();
+		JsonRowHandler rowHandler = new JsonRowHandler(this.objectMapper, out, "rows");
+
+		rowHandler.finish(new PagingData<Row>(1, 0, 10));
+
+		JsonNode node = this.objectMapper.readTree(out.toString());
+
+		assertTrue(node.get("rows").isArray());
+		assertEquals(0, node.get("rows").size());
+		assertEquals(0, node.get("total").asLong());
+	}
+
+	@Test
+	public void abortTest() throws Exception
+	{
+		StringWriter out = new StringWriter();
+		JsonRowHandler rowHandler = new JsonRowHandler(this.objectMapper, out, "items");
+
+		rowHandler.handle(null, 1, row(1, "a"));
+		rowHandler.handle(null, 2, row(2, "b"));
+		rowHandler.abort("error occurred");
+
+		// 仍是合法的JSON，并包含错误信息
+		JsonNode node = this.objectMapper.readTree(out.toString());
+
+		assertEquals(2, node.get("items").size());
+		assertEquals("error occurred", node.get(JsonRowHandler.ERROR_PROPERTY_NAME).asText());
+		assertFalse(node.has("page"));
+	}
+
+	@Test
+	public void abortTest_notStarted() throws Exception
+	{
+		StringWriter out = new StringWriter();
+		JsonRowHandler rowHandler = new JsonRowHandler(this.objectMapper, out, "items");
+
+		rowHandler.abort("error occurred");
+
+		JsonNode node = this.objectMapper.readTree(out.toString());
+
+		assertEquals(0, node.get("items").size());
+		assertEquals("error occurred", node.get(JsonRowHandler.ERROR_PROPERTY_NAME).asText());
+	}
+
+	protected int countOccurrences(String str, String sub)
+	{
+		int count = 0;
+
+		for (int idx = str.indexOf(sub); idx >= 0; idx = str.indexOf(sub, idx + sub.length()))
+			count++;
+
+		return count;
+	}
+
+	protected Row row(int id, String name)
+	{
+		Row row = new Row();
+		row.put("ID", id);
+		row.put("NAME", name);
+
+		return row;
+	}
+}
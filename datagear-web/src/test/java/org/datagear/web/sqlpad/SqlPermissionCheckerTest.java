@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.sqlpad;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.datagear.util.SqlScriptParser.SqlStatement;
+import org.junit.Test;
+
+/**
+ * {@linkplain SqlPermissionChecker}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SqlPermissionCheckerTest
+{
+	private SqlPermissionChecker sqlPermissionChecker = new SqlPermissionChecker();
+
+	@Test
+	public void isQueryTest()
+	{
+		assertTrue(isQuery("SELECT * FROM T"));
+		assertTrue(isQuery(" select id, name from T where id = 3"));
+		assertTrue(isQuery("/* comment */ SELECT * FROM T"));
+		assertTrue(isQuery("-- comment\nSELECT * FROM T"));
+
+		// 字符串、引用标识符、注释中的关键字应忽略
+		assertTrue(isQuery("SELECT * FROM T WHERE NAME = 'select into for update'"));
+		assertTrue(isQuery("SELECT * FROM T WHERE NAME = 'it''s into'"));
+		assertTrue(isQuery("SELECT \"INTO\", `NEXTVAL` FROM T"));
+		assertTrue(isQuery("SELECT * FROM T -- for update"));
+		assertTrue(isQuery("SELECT * FROM T /* for update */"));
+		assertTrue(isQuery("SELECT INTO_DATE, NEXTVALUE FROM T"));
+
+		assertFalse(isQuery("UPDATE T SET NAME = 'a'"));
+		assertFalse(isQuery("DELETE FROM T"));
+		assertFalse(isQuery("INSERT INTO T SELECT * FROM T1"));
+		assertFalse(isQuery("WITH A AS (SELECT 1) SELECT * FROM A"));
+
+		// 有副作用的SELECT语句
+		assertFalse(isQuery("SELECT * INTO T1 FROM T"));
+		assertFalse(isQuery("select id into @id from T"));
+		assertFalse(isQuery("SELECT * FROM T FOR UPDATE"));
+		assertFalse(isQuery("SELECT * FROM T WHERE ID = 1 for  update nowait"));
+		assertFalse(isQuery("SELECT * FROM T FOR NO KEY UPDATE"));
+		assertFalse(isQuery("SELECT * FROM T FOR SHARE"));
+		assertFalse(isQuery("SELECT * FROM T FOR KEY SHARE"));
+		assertFalse(isQuery("SELECT * FROM T LOCK IN SHARE MODE"));
+		assertFalse(isQuery("SELECT nextval('seq')"));
+		assertFalse(isQuery("SELECT SEQ.NEXTVAL FROM DUAL"));
+		assertFalse(isQuery("SELECT NEXT VALUE FOR SEQ"));
+		assertFalse(isQuery("SELECT setval('seq', 10)"));
+		assertFalse(isQuery("SELECT GET_LOCK('a', 10)"));
+		assertFalse(isQuery("SELECT pg_advisory_lock(1)"));
+		assertFalse(isQuery("SELECT pg_try_advisory_lock(1)"));
+	}
+
+	protected boolean isQuery(String sql)
+	{
+		return this.sqlPermissionChecker.isQuery(new SqlStatement(sql, 0, 0, 0, 0));
+	}
+}
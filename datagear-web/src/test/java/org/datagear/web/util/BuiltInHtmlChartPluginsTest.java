@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.datagear.analysis.support.html.HtmlChartPlugin;
+import org.datagear.analysis.support.html.HtmlChartPluginLoader;
+import org.junit.Test;
+
+/**
+ * 内置图表插件（<code>org/datagear/web/builtInHtmlChartPlugins/*.zip</code>）单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class BuiltInHtmlChartPluginsTest
+{
+	private static final File DIRECTORY = new File("src/main/resources/org/datagear/web/builtInHtmlChartPlugins");
+
+	/** 看板导入项名，参考CoreConfig.htmlTplDashboardImport() */
+	private static final List<String> IMPORT_NAMES = Arrays.asList("echarts", "wordcloud", "liquidfill", "dataTable",
+			"dataTableStyle");
+
+	@Test
+	public void dependImportsTest()
+	{
+		HtmlChartPluginLoader loader = new HtmlChartPluginLoader();
+
+		File[] zips = DIRECTORY.listFiles((dir, name) -> name.endsWith(".zip"));
+
+		assertNotNull(zips);
+		assertTrue(zips.length > 0);
+
+		for (File zip : zips)
+		{
+			HtmlChartPlugin plugin = loader.loadZip(zip);
+			String id = plugin.getId();
+			List<String> dependImports = plugin.getDependImports();
+
+			// 自定义图表可以使用任意库，不声明依赖项
+			if ("org.datagear.chart.custom".equals(id))
+			{
+				assertNull(dependImports);
+				continue;
+			}
+
+			assertNotNull(id, dependImports);
+
+			for (String dependImport : dependImports)
+				assertTrue(id + " : " + dependImport, IMPORT_NAMES.contains(dependImport));
+
+			if (id.startsWith("org.datagear.chart.label"))
+				assertEquals(id, 0, dependImports.size());
+			else if ("org.datagear.chart.table".equals(id))
+				assertTrue(id, dependImports.contains("dataTable"));
+			else
+				assertTrue(id, dependImports.contains("echarts"));
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain KeywordMatcher}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class KeywordMatcherTest
+{
+	@Test
+	public void toLikePatternTest()
+	{
+		assertNull(KeywordMatcher.toLikePattern(null, "\\"));
+		assertNull(KeywordMatcher.toLikePattern("  ", "\\"));
+
+		assertEquals("%abc%", KeywordMatcher.toLikePattern("abc", "\\"));
+		assertEquals("%abc%", KeywordMatcher.toLikePattern(" %abc% ", "\\"));
+		assertEquals("abc%", KeywordMatcher.toLikePattern("abc%", "\\"));
+		assertEquals("%abc", KeywordMatcher.toLikePattern("%abc", "\\"));
+
+		// 大小写保持不变
+		assertEquals("Abc%", KeywordMatcher.toLikePattern("Abc%", "\\"));
+
+		// 通配符及转义符本身应转义
+		assertEquals("%t\\_user%", KeywordMatcher.toLikePattern("t_user", "\\"));
+		assertEquals("t\\_user\\%\\\\%", KeywordMatcher.toLikePattern("t_user%\\%", "\\"));
+		assertEquals("%a!_b!!c%", KeywordMatcher.toLikePattern("a_b!c", "!"));
+
+		// 无转义符
+		assertEquals("%t_user%", KeywordMatcher.toLikePattern("t_user", null));
+		assertEquals("%t_user%", KeywordMatcher.toLikePattern("t_user", ""));
+	}
+
+	@Test
+	public void matchTest()
+	{
+		List<String> names = Arrays.asList("T_ORDER", "t_order_item", "ORDER_LOG", "TUSER");
+
+		KeywordMatcher.MatchValue<String> matchValue = new KeywordMatcher.MatchValue<String>()
+		{
+			@Override
+			public String[] get(String t)
+			{
+				return new String[] { t };
+			}
+		};
+
+		assertEquals(names, KeywordMatcher.match(names, null, matchValue));
+		assertEquals(Arrays.asList("T_ORDER", "t_order_item", "ORDER_LOG"),
+				KeywordMatcher.match(names, "order", matchValue));
+		assertEquals(Arrays.asList("T_ORDER", "t_order_item"), KeywordMatcher.match(names, "t_%", matchValue));
+		assertEquals(Arrays.asList("ORDER_LOG"), KeywordMatcher.match(names, "%log", matchValue));
+
+		// _按照字面匹配
+		assertEquals(Arrays.asList("T_ORDER", "t_order_item"), KeywordMatcher.match(names, "t_", matchValue));
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.persistence.Query;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain QueryCountCache}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class QueryCountCacheTest
+{
+	private static final String SCHEMA_ID = "schema";
+
+	private static final String TABLE_NAME = "T_ORDER";
+
+	private QueryCountCache queryCountCache;
+
+	@Before
+	public void init()
+	{
+		this.queryCountCache = new QueryCountCache();
+		this.queryCountCache.setThreads(1);
+		this.queryCountCache.init();
+	}
+
+	@After
+	public void destroy()
+	{
+		this.queryCountCache.destroy();
+	}
+
+	@Test
+	public void countAsyncTest() throws Exception
+	{
+		Query query = new Query("abc");
+		AtomicInteger counts = new AtomicInteger(0);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+
+		this.queryCountCache.countAsync(SCHEMA_ID, TABLE_NAME, query, () ->
+		{
+			counts.incrementAndGet();
+			started.countDown();
+			proceed.await();
+			return 100L;
+		});
+
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// 正在统计时忽略
+		this.queryCountCache.countAsync(SCHEMA_ID, TABLE_NAME, new Query("abc"), () ->
+		{
+			counts.incrementAndGet();
+			return 200L;
+		});
+
+		proceed.countDown();
+
+		assertEquals(Long.valueOf(100L), awaitCount(SCHEMA_ID, TABLE_NAME, query));
+
+		// 已缓存时忽略
+		this.queryCountCache.countAsync(SCHEMA_ID, TABLE_NAME, query, () ->
+		{
+			counts.incrementAndGet();
+			return 300L;
+		});
+
+		awaitIdle();
+
+		assertEquals(Long.valueOf(100L), this.queryCountCache.get(SCHEMA_ID, TABLE_NAME, query));
+		assertEquals(1, counts.get());
+
+		// 分页、排序不影响缓存，查询条件影响缓存
+		assertNull(this.queryCountCache.get(SCHEMA_ID, TABLE_NAME, new Query("abcd")));
+		assertNull(this.queryCountCache.get(SCHEMA_ID, TABLE_NAME, new Query("abc", "ID > 3")));
+	}
+
+	@Test
+	public void countAsyncTest_invalidateWhileCounting() throws Exception
+	{
+		Query query = new Query("abc");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+
+		this.queryCountCache.countAsync(SCHEMA_ID, TABLE_NAME, query, () ->
+		{
+			started.countDown();
+			proceed.await();
+			return 100L;
+		});
+
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// 统计开始后表数据变更，统计结果已过期，不应写入缓存
+		this.queryCountCache.invalidate(SCHEMA_ID, TABLE_NAME);
+		proceed.countDown();
+
+		awaitIdle();
+
+		assertNull(this.queryCountCache.get(SCHEMA_ID, TABLE_NAME, query));
+
+		// 之后的统计正常写入
+		this.queryCountCache.countAsync(SCHEMA_ID, TABLE_NAME, query, () -> 101L);
+
+		assertEquals(Long.valueOf(101L), awaitCount(SCHEMA_ID, TABLE_NAME, query));
+	}
+
+	@Test
+	public void invalidateTest() throws Exception
+	{
+		Query query0 = new Query("abc");
+		Query query1 = new Query("def");
+
+		this.queryCountCache.countAsync(SCHEMA_ID, TABLE_NAME, query0, () -> 10L);
+		this.queryCountCache.countAsync(SCHEMA_ID, TABLE_NAME, query1, () -> 20L);
+		this.queryCountCache.countAsync(SCHEMA_ID, "T_ITEM", query0, () -> 30L);
+
+		awaitCount(SCHEMA_ID, TABLE_NAME, query0);
+		awaitCount(SCHEMA_ID, TABLE_NAME, query1);
+		awaitCount(SCHEMA_ID, "T_ITEM", query0);
+
+		// 清除指定查询
+		this.queryCountCache.invalidate(SCHEMA_ID, TABLE_NAME, query0);
+
+		assertNull(this.queryCountCache.get(SCHEMA_ID, TABLE_NAME, query0));
+		assertEquals(Long.valueOf(20L), this.queryCountCache.get(SCHEMA_ID, TABLE_NAME, query1));
+
+		// 清除指定表
+		this.queryCountCache.invalidate(SCHEMA_ID, TABLE_NAME);
+
+		assertNull(this.queryCountCache.get(SCHEMA_ID, TABLE_NAME, query1));
+		assertEquals(Long.valueOf(30L), this.queryCountCache.get(SCHEMA_ID, "T_ITEM", query0));
+	}
+
+	protected Long awaitCount(String schemaId, String tableName, Query query) throws InterruptedException
+	{
+		for (int i = 0; i < 500; i++)
+		{
+			Long count = this.queryCountCache.get(schemaId, tableName, query);
+
+			if (count != null)
+				return count;
+
+			Thread.sleep(10);
+		}
+
+		return null;
+	}
+
+	/**
+	 * 等待之前提交的后台统计都已完成。
+	 * 
+	 * @throws InterruptedException
+	 */
+	protected void awaitIdle() throws InterruptedException
+	{
+		// 后台仅有一个线程，此统计完成时之前的统计也已完成
+		CountDownLatch done = new CountDownLatch(1);
+
+		this.queryCountCache.countAsync(SCHEMA_ID, "T_IDLE_" + System.nanoTime(), null, () ->
+		{
+			done.countDown();
+			return 0L;
+		});
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+	}
+}
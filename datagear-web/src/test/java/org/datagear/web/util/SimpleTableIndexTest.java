@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.datagear.meta.SimpleTable;
+import org.datagear.meta.TableType;
+import org.junit.Test;
+
+/**
+ * {@linkplain SimpleTableIndex}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SimpleTableIndexTest
+{
+	private static final Comparator<SimpleTable> NAME_COMPARATOR = new Comparator<SimpleTable>()
+	{
+		@Override
+		public int compare(SimpleTable o1, SimpleTable o2)
+		{
+			return o1.getName().compareTo(o2.getName());
+		}
+	};
+
+	@Test
+	public void searchTest()
+	{
+		SimpleTableIndex index = createIndex("T_ORDER", "t_order_item", "Order_Log", "T_USER", "USER_ROLE", "ABC");
+
+		assertEquals(Arrays.asList("ABC", "Order_Log", "T_ORDER", "T_USER", "USER_ROLE", "t_order_item"),
+				names(index.getTables()));
+		assertSame(index.getTables(), index.search(null));
+		assertSame(index.getTables(), index.search(" "));
+
+		// 前缀，大小写不敏感，结果按名称排序
+		assertEquals(Arrays.asList("T_ORDER", "T_USER", "t_order_item"), names(index.search("t_%")));
+		assertEquals(Arrays.asList("T_ORDER", "t_order_item"), names(index.search("T_ORDER%")));
+		assertEquals(Arrays.asList("Order_Log"), names(index.search("order%")));
+		assertTrue(index.search("ZZZ%").isEmpty());
+		assertTrue(index.search("0%").isEmpty());
+
+		// 包含
+		assertEquals(Arrays.asList("Order_Log", "T_ORDER", "t_order_item"), names(index.search("order")));
+		assertEquals(Arrays.asList("T_USER", "USER_ROLE"), names(index.search("user")));
+
+		// 后缀
+		assertEquals(Arrays.asList("Order_Log"), names(index.search("%LOG")));
+		assertEquals(Arrays.asList("T_ORDER"), names(index.search("%order")));
+
+		// _按照字面匹配
+		assertTrue(index.search("TORDER").isEmpty());
+	}
+
+	@Test
+	public void searchTest_refinement()
+	{
+		SimpleTableIndex index = createIndex("T_ORDER", "t_order_item", "Order_Log", "T_USER", "ORDERS");
+
+		// 重复搜索返回上次结果
+		List<SimpleTable> order = index.search("order");
+		assertSame(order, index.search("ORDER"));
+		assertEquals(4, order.size());
+
+		// 细化搜索仅在上次结果中筛选，结果应与全量筛选一致
+		assertEquals(Arrays.asList("ORDERS"), names(index.search("orders")));
+		assertEquals(Arrays.asList("Order_Log", "t_order_item"), names(index.search("order_")));
+		assertEquals(Arrays.asList("t_order_item"), names(index.search("order_i")));
+
+		// 非细化搜索
+		assertEquals(Arrays.asList("T_USER"), names(index.search("user")));
+		assertEquals(Arrays.asList("ORDERS", "Order_Log", "T_ORDER", "t_order_item"), names(index.search("order")));
+
+		// 匹配类型不同时不复用结果
+		assertEquals(Arrays.asList("T_ORDER"), names(index.search("%order")));
+		assertEquals(Arrays.asList("ORDERS", "Order_Log"), names(index.search("order%")));
+	}
+
+	protected SimpleTableIndex createIndex(String... names)
+	{
+		List<SimpleTable> tables = new ArrayList<>();
+
+		for (String name : names)
+			tables.add(new SimpleTable(name, TableType.TABLE));
+
+		return new SimpleTableIndex(tables, NAME_COMPARATOR);
+	}
+
+	protected List<String> names(List<SimpleTable> tables)
+	{
+		List<String> names = new ArrayList<>(tables.size());
+
+		for (SimpleTable table : tables)
+			names.add(table.getName());
+
+		return names;
+	}
+}
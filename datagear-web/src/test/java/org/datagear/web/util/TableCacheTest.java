@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018 datagear.tech
+ *
+ * Licensed under the LGPLv3 license:
+ * http://www.gnu.org/licenses/lgpl-3.0.html
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.meta.Column;
+import org.datagear.meta.Index;
+import org.datagear.meta.PrimaryKey;
+import org.datagear.meta.Table;
+import org.datagear.util.FileUtil;
+import org.datagear.web.util.TableCache.TableSnapshot;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain TableCache}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class TableCacheTest
+{
+	private static final String SCHEMA_ID = "schema";
+
+	private File snapshotDirectory;
+
+	@Before
+	public void clearSnapshotDirectory()
+	{
+		this.snapshotDirectory = FileUtil.getDirectory("target/TableCacheTest/", true);
+		FileUtil.clearDirectory(this.snapshotDirectory);
+	}
+
+	@Test
+	public void snapshotTest()
+	{
+		TableCache tableCache = createTableCache();
+
+		assertNull(tableCache.get(SCHEMA_ID, "T_ORDER"));
+
+		tableCache.check(SCHEMA_ID, "fp-1");
+		tableCache.put(SCHEMA_ID, createTable("T_ORDER"));
+		tableCache.destroy();
+
+		assertTrue(tableCache.getSnapshotFile(SCHEMA_ID).exists());
+
+		// 重启后从快照恢复，包括索引
+		TableCache restored = createTableCache();
+
+		Table table = restored.get(SCHEMA_ID, "T_ORDER");
+
+		assertNotNull(table);
+		assertEquals("T_ORDER", table.getName());
+		assertEquals("order table", table.getComment());
+		assertEquals(2, table.getColumns().length);
+		assertEquals(Types.VARCHAR, table.getColumns()[1].getType());
+		assertArrayEquals(new String[] { "ID" }, table.getPrimaryKey().getColumnNames());
+		assertEquals(1, table.getIndexes().length);
+		assertEquals("IDX_NAME", table.getIndexes()[0].getKeyName());
+		assertTrue(table.getIndexes()[0].isFullText());
+		assertEquals(1, table.getFullTextIndexes().length);
+
+		// 指纹未变，无需刷新
+		assertTrue(restored.check(SCHEMA_ID, "fp-1").isEmpty());
+		assertNotNull(restored.get(SCHEMA_ID, "T_ORDER"));
+
+		restored.destroy();
+	}
+
+	@Test
+	public void snapshotTest_expired()
+	{
+		TableCache tableCache = createTableCache();
+
+		// 即使有指纹，过期的快照也不应使用
+		long time = System.currentTimeMillis() - (tableCache.getSnapshotExpireMinutes() + 1) * 60L * 1000L;
+		tableCache.writeSnapshot(SCHEMA_ID, createSnapshot("fp-1", time));
+
+		assertTrue(tableCache.getSnapshotFile(SCHEMA_ID).exists());
+		assertNull(tableCache.get(SCHEMA_ID, "T_ORDER"));
+		assertFalse(tableCache.getSnapshotFile(SCHEMA_ID).exists());
+
+		tableCache.destroy();
+	}
+
+	@Test
+	public void snapshotTest_oldVersion()
+	{
+		TableCache tableCache = createTableCache();
+
+		TableSnapshot snapshot = createSnapshot("fp-1", System.currentTimeMillis());
+		snapshot.setVersion(TableCache.SNAPSHOT_VERSION - 1);
+		tableCache.writeSnapshot(SCHEMA_ID, snapshot);
+
+		assertTrue(tableCache.getSnapshotFile(SCHEMA_ID).exists());
+		assertNull(tableCache.get(SCHEMA_ID, "T_ORDER"));
+		assertFalse(tableCache.getSnapshotFile(SCHEMA_ID).exists());
+
+		tableCache.destroy();
+	}
+
+	@Test
+	public void snapshotTest_invalid() throws Exception
+	{
+		TableCache tableCache = createTableCache();
+
+		// 比如旧版本的Java序列化快照
+		File file = tableCache.getSnapshotFile(SCHEMA_ID);
+		Files.write(file.toPath(), new byte[] { (byte) 0xAC, (byte) 0xED, 0x00, 0x05 });
+
+		assertNull(tableCache.get(SCHEMA_ID, "T_ORDER"));
+		assertFalse(file.exists());
+
+		tableCache.destroy();
+
+		// 缺少版本号
+		Files.write(file.toPath(), ("{\"fingerprint\":\"fp-1\",\"time\":" + System.currentTimeMillis()
+				+ ",\"tables\":{\"T_ORDER\":{\"name\":\"T_ORDER\"}}}").getBytes(StandardCharsets.UTF_8));
+
+		TableCache tableCache1 = createTableCache();
+
+		assertNull(tableCache1.get(SCHEMA_ID, "T_ORDER"));
+		assertFalse(file.exists());
+
+		tableCache1.destroy();
+	}
+
+	@Test
+	public void checkTest()
+	{
+		TableCache tableCache = createTableCache();
+
+		tableCache.check(SCHEMA_ID, "fp-1");
+		tableCache.putAll(SCHEMA_ID, Arrays.asList(createTable("T_ORDER"), createTable("T_ITEM")));
+
+		assertTrue(tableCache.check(SCHEMA_ID, "fp-1").isEmpty());
+		assertNotNull(tableCache.get(SCHEMA_ID, "T_ORDER"));
+
+		// 指纹改变，清除缓存并返回需刷新的表
+		List<String> refreshTableNames = tableCache.check(SCHEMA_ID, "fp-2");
+		Collections.sort(refreshTableNames);
+
+		assertEquals(Arrays.asList("T_ITEM", "T_ORDER"), refreshTableNames);
+		assertNull(tableCache.get(SCHEMA_ID, "T_ORDER"));
+		assertNull(tableCache.get(SCHEMA_ID, "T_ITEM"));
+
+		tableCache.destroy();
+	}
+
+	protected TableCache createTableCache()
+	{
+		TableCache tableCache = new TableCache();
+		tableCache.setSnapshotDirectory(this.snapshotDirectory);
+		tableCache.setSnapshotIntervalSeconds(0);
+		tableCache.init();
+
+		return tableCache;
+	}
+
+	protected TableSnapshot createSnapshot(String fingerprint, long time)
+	{
+		Map<String, Table> tables = new HashMap<>();
+		tables.put("T_ORDER", createTable("T_ORDER"));
+
+		return new TableSnapshot(fingerprint, time, tables);
+	}
+
+	protected Table createTable(String name)
+	{
+		Column id = new Column("ID", Types.INTEGER);
+		Column nameColumn = new Column("NAME", Types.VARCHAR);
+		nameColumn.setPosition(2);
+
+		Table table = new Table(name, "TABLE", new Column[] { id, nameColumn });
+		table.setComment("order table");
+		table.setPrimaryKey(new PrimaryKey(new String[] { "ID" }));
+
+		Index index = new Index(new String[] { "NAME" });
+		index.setKeyName("IDX_NAME");
+		index.setFullText(true);
+		table.setIndexes(new Index[] { index });
+
+		return table;
+	}
+}